@@ -28,6 +28,8 @@ import org.apache.reef.util.Optional;
  * The policy for local aggregation on the {@link org.apache.reef.vortex.evaluator.VortexWorker}s.
  * The Aggregation function will be triggered on the individual {@link VortexFunction} results on
  * an "OR" basis of what is specified by the policy.
+ * Optionally, the partial aggregates of the workers are combined on a tree of workers with the given fan-in,
+ * so that only the root of the tree reports aggregates back to the master.
  */
 @ClientSide
 @Public
@@ -35,6 +37,7 @@ import org.apache.reef.util.Optional;
 public final class VortexAggregatePolicy {
   private Optional<Integer> count;
   private int periodMilliseconds;
+  private Optional<Integer> treeFanIn;
 
   /**
    * No-arg constructor required for Kryo to serialize/deserialize.
@@ -42,9 +45,11 @@ public final class VortexAggregatePolicy {
   VortexAggregatePolicy() {
   }
 
-  private VortexAggregatePolicy(final int periodMilliseconds, final Optional<Integer> count) {
+  private VortexAggregatePolicy(final int periodMilliseconds, final Optional<Integer> count,
+                                final Optional<Integer> treeFanIn) {
     this.periodMilliseconds = periodMilliseconds;
     this.count = count;
+    this.treeFanIn = treeFanIn;
   }
 
   /**
@@ -61,6 +66,13 @@ public final class VortexAggregatePolicy {
     return count;
   }
 
+  /**
+   * @return the fan-in of the aggregation tree, or empty if the workers report their aggregates to the master.
+   */
+  public Optional<Integer> getTreeFanIn() {
+    return treeFanIn;
+  }
+
   /**
    * @return a new {@link Builder} for {@link VortexAggregatePolicy}.
    */
@@ -74,6 +86,7 @@ public final class VortexAggregatePolicy {
   public static final class AggregatePolicyBuilder implements Builder<VortexAggregatePolicy> {
     private Integer periodMilliseconds = null;
     private Optional<Integer> count = Optional.empty();
+    private Optional<Integer> treeFanIn = Optional.empty();
 
     private AggregatePolicyBuilder() {
     }
@@ -94,6 +107,16 @@ public final class VortexAggregatePolicy {
       return this;
     }
 
+    /**
+     * Enables tree aggregation: each worker forwards its aggregates to a peer worker, which aggregates them
+     * together with its own. A worker receives aggregates from at most {@code pFanIn} peers. Not required.
+     * Tree aggregation must be enabled with {@link org.apache.reef.vortex.driver.VortexMasterConf#TREE_AGGREGATION}.
+     */
+    public AggregatePolicyBuilder setTreeAggregationFanIn(final int pFanIn) {
+      treeFanIn = Optional.of(pFanIn);
+      return this;
+    }
+
     /**
      * Builds and returns a new {@link VortexAggregatePolicy} based on user's specification.
      * The timer period is a required parameter for this to succeed.
@@ -109,7 +132,11 @@ public final class VortexAggregatePolicy {
         throw new IllegalArgumentException("The count trigger must be greater than zero.");
       }
 
-      return new VortexAggregatePolicy(periodMilliseconds, count);
+      if (treeFanIn.isPresent() && treeFanIn.get() < 2) {
+        throw new IllegalArgumentException("The aggregation tree fan-in must be at least two.");
+      }
+
+      return new VortexAggregatePolicy(periodMilliseconds, count, treeFanIn);
     }
   }
 }
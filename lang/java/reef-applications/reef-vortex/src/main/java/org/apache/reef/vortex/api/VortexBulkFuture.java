@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.api;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.ClientSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.vortex.driver.VortexFutureDelegate;
+import org.apache.reef.wake.EventHandler;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * The results of Tasklets submitted in bulk with {@link VortexThreadPool#submitAll}, in completion order.
+ * <p>
+ * Inputs are only turned into Tasklets as results are taken with {@link #get()}: at most the submission window
+ * of Tasklets are pending, running or waiting to be taken at any time.
+ * The input iterator is advanced on the thread that calls {@link #get()}.
+ * The VortexFunction must not return null.
+ */
+@Public
+@ClientSide
+@ThreadSafe
+@Unstable
+public final class VortexBulkFuture<TInput, TOutput> implements VortexFutureDelegate<TOutput> {
+  private final BlockingQueue<AggregateResult<TInput, TOutput>> resultQueue = new LinkedBlockingQueue<>();
+  private final ConcurrentMap<Integer, TInput> taskletIdInputMap = new ConcurrentHashMap<>();
+  private final EventHandler<Integer> resultsTakenHandler;
+  private volatile boolean allSubmitted = false;
+
+  /**
+   * @param resultsTakenHandler called with the number of results taken, to submit as many new Tasklets.
+   */
+  @Private
+  public VortexBulkFuture(final EventHandler<Integer> resultsTakenHandler) {
+    this.resultsTakenHandler = resultsTakenHandler;
+  }
+
+  /**
+   * @return the next result, null if no more results.
+   */
+  public synchronized AggregateResultSynchronous<TInput, TOutput> get() throws InterruptedException {
+    if (isDone()) {
+      return null;
+    }
+
+    return taken(resultQueue.take());
+  }
+
+  /**
+   * @param timeout the timeout for the operation.
+   * @param timeUnit the time unit of the timeout.
+   * @return the next result, within the user specified timeout, null if no more results.
+   * @throws TimeoutException if time out hits.
+   */
+  public synchronized AggregateResultSynchronous<TInput, TOutput> get(final long timeout, final TimeUnit timeUnit)
+      throws InterruptedException, TimeoutException {
+    if (isDone()) {
+      return null;
+    }
+
+    final AggregateResult<TInput, TOutput> result = resultQueue.poll(timeout, timeUnit);
+    if (result == null) {
+      throw new TimeoutException("Waiting for the next result of the bulk submission timed out. Timeout = " + timeout
+          + " in time units: " + timeUnit);
+    }
+
+    return taken(result);
+  }
+
+  private AggregateResultSynchronous<TInput, TOutput> taken(final AggregateResult<TInput, TOutput> result) {
+    // Submits the replacement Tasklet before hasNext is decided.
+    resultsTakenHandler.onNext(1);
+    return new AggregateResultSynchronous<>(result, !isDone());
+  }
+
+  /**
+   * @return true if there are no more results to get.
+   */
+  public boolean isDone() {
+    return allSubmitted && taskletIdInputMap.isEmpty() && resultQueue.isEmpty();
+  }
+
+  /**
+   * Called by VortexMaster before the Tasklet for the input is launched.
+   */
+  @Private
+  public void taskletSubmitted(final int taskletId, final TInput input) {
+    taskletIdInputMap.put(taskletId, input);
+  }
+
+  /**
+   * Called by VortexMaster once no more Tasklets will be submitted.
+   */
+  @Private
+  public void allSubmitted() {
+    allSubmitted = true;
+  }
+
+  /**
+   * A Tasklet of the submission has completed.
+   */
+  @Private
+  @Override
+  public void completed(final int taskletId, final TOutput result) {
+    done(taskletId, new AggregateResult<>(result, inputOf(taskletId)));
+  }
+
+  /**
+   * A Tasklet of the submission has failed.
+   */
+  @Private
+  @Override
+  public void threwException(final int taskletId, final Exception exception) {
+    done(taskletId, new AggregateResult<TInput, TOutput>(exception, inputOf(taskletId)));
+  }
+
+  /**
+   * VortexMaster should never call this.
+   */
+  @Private
+  @Override
+  public void aggregationCompleted(final List<Integer> taskletIds, final TOutput result) {
+    throw new RuntimeException("Functions not associated with AggregationFunctions cannot be aggregated.");
+  }
+
+  /**
+   * VortexMaster should never call this.
+   */
+  @Private
+  @Override
+  public void aggregationThrewException(final List<Integer> taskletIds, final Exception exception) {
+    throw new RuntimeException("Functions not associated with AggregationFunctions cannot be aggregated");
+  }
+
+  /**
+   * Not implemented for bulk submissions.
+   */
+  @Private
+  @Override
+  public void cancelled(final int taskletId) {
+    throw new NotImplementedException("Tasklet cancellation not supported in bulk submissions.");
+  }
+
+  private List<TInput> inputOf(final int taskletId) {
+    return Collections.singletonList(taskletIdInputMap.get(taskletId));
+  }
+
+  private void done(final int taskletId, final AggregateResult<TInput, TOutput> result) {
+    // Queue the result before forgetting the Tasklet, so that isDone() cannot miss it.
+    resultQueue.add(result);
+    taskletIdInputMap.remove(taskletId);
+  }
+}
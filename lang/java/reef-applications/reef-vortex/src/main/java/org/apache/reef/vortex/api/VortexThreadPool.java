@@ -19,10 +19,13 @@
 package org.apache.reef.vortex.api;
 
 import org.apache.reef.annotations.Unstable;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.driver.VortexMaster;
+import org.apache.reef.vortex.driver.VortexMasterConf;
 
 import javax.inject.Inject;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -31,10 +34,13 @@ import java.util.List;
 @Unstable
 public final class VortexThreadPool {
   private final VortexMaster vortexMaster;
+  private final int bulkSubmissionWindow;
 
   @Inject
-  private VortexThreadPool(final VortexMaster vortexMaster) {
+  private VortexThreadPool(final VortexMaster vortexMaster,
+                           @Parameter(VortexMasterConf.BulkSubmissionWindow.class) final int bulkSubmissionWindow) {
     this.vortexMaster = vortexMaster;
+    this.bulkSubmissionWindow = bulkSubmissionWindow;
   }
 
   /**
@@ -100,4 +106,36 @@ public final class VortexThreadPool {
              final FutureCallback<AggregateResult<TInput, TOutput>> callback) {
     return vortexMaster.enqueueTasklets(aggregateFunction, function, policy, inputs, Optional.of(callback));
   }
+
+  /**
+   * Submits the function for every input, with the default bulk submission window.
+   * @param function to run on Vortex
+   * @param inputs of the function, pulled as the results are taken
+   * @param <TInput> input type
+   * @param <TOutput> output type
+   * @return VortexBulkFuture for taking the results in completion order
+   */
+  public <TInput, TOutput> VortexBulkFuture<TInput, TOutput>
+      submitAll(final VortexFunction<TInput, TOutput> function, final Iterator<TInput> inputs) {
+    return submitAll(function, inputs, bulkSubmissionWindow);
+  }
+
+  /**
+   * Submits the function for every input. At most maxOutstanding Tasklets are pending, running
+   * or have results that are not taken yet, which bounds the memory used by the submission.
+   * @param function to run on Vortex
+   * @param inputs of the function, pulled as the results are taken
+   * @param maxOutstanding the maximum number of outstanding Tasklets
+   * @param <TInput> input type
+   * @param <TOutput> output type
+   * @return VortexBulkFuture for taking the results in completion order
+   */
+  public <TInput, TOutput> VortexBulkFuture<TInput, TOutput>
+      submitAll(final VortexFunction<TInput, TOutput> function, final Iterator<TInput> inputs,
+                final int maxOutstanding) {
+    if (maxOutstanding <= 0) {
+      throw new IllegalArgumentException("maxOutstanding must be positive: " + maxOutstanding);
+    }
+    return vortexMaster.enqueueTasklets(function, inputs, maxOutstanding);
+  }
 }
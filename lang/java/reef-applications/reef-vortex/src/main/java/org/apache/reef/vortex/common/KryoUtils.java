@@ -26,29 +26,101 @@ import com.esotericsoftware.kryo.pool.KryoPool;
 import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.vortex.driver.VortexMasterConf;
+import org.apache.reef.vortex.protocol.mastertoworker.MasterToWorkerRequests;
+import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregateExecutionRequest;
+import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregationRequest;
+import org.apache.reef.vortex.protocol.mastertoworker.TaskletCancellationRequest;
+import org.apache.reef.vortex.protocol.mastertoworker.TaskletExecutionRequest;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletAggregationFailureReport;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletAggregationForwardedReport;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletAggregationResultReport;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletCancelledReport;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletFailureReport;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletResultReport;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReports;
+import org.apache.reef.vortex.protocol.workertoworker.PartialAggregate;
 
 import javax.inject.Inject;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 
 /**
  * The one and only serializer for the Vortex protocol.
+ * <p>
+ * Every thread serializes into its own reusable buffer and deserializes straight out of the message bytes,
+ * so the only allocation per message is the serialized byte array handed to the transport.
  */
 @Private
 @Unstable
 public final class KryoUtils {
+
+  /**
+   * Initial size of the per-thread serialization buffer. It grows as needed.
+   */
+  private static final int INITIAL_BUFFER_SIZE = 4096;
+
+  /**
+   * Per-thread serialization buffers that grew beyond this are dropped after use
+   * instead of being kept around for the lifetime of the thread.
+   */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+  private static final byte[] EMPTY = new byte[0];
+
+  /**
+   * The protocol classes registered with Kryo, in registration order.
+   * The order must be the same on Master and Workers: append new classes at the end.
+   */
+  private static final Class<?>[] PROTOCOL_CLASSES = {
+      TaskletExecutionRequest.class,
+      TaskletAggregateExecutionRequest.class,
+      TaskletAggregationRequest.class,
+      TaskletCancellationRequest.class,
+      WorkerToMasterReports.class,
+      TaskletResultReport.class,
+      TaskletFailureReport.class,
+      TaskletAggregationResultReport.class,
+      TaskletAggregationFailureReport.class,
+      TaskletCancelledReport.class,
+      ArrayList.class,
+      MasterToWorkerRequests.class,
+      TaskletAggregationForwardedReport.class,
+      PartialAggregate.class,
+  };
+
   /**
    * For reducing Kryo object instantiation cost.
    */
   private final KryoPool kryoPool;
 
+  private final ThreadLocal<Output> outputs = new ThreadLocal<Output>() {
+    @Override
+    protected Output initialValue() {
+      return new Output(INITIAL_BUFFER_SIZE, -1);
+    }
+  };
+
+  private final ThreadLocal<Input> inputs = new ThreadLocal<Input>() {
+    @Override
+    protected Input initialValue() {
+      return new Input();
+    }
+  };
+
   @Inject
-  private KryoUtils() {
+  private KryoUtils(@Parameter(VortexMasterConf.RegisterProtocolClasses.class) final boolean registerProtocolClasses) {
     final KryoFactory factory = new KryoFactory() {
       @Override
       public Kryo create() {
         final Kryo kryo = new Kryo();
         UnmodifiableCollectionsSerializer.registerSerializers(kryo); // Required to serialize/deserialize Throwable
+        if (registerProtocolClasses) {
+          // Registered classes are written as a small id instead of their class name.
+          for (final Class<?> protocolClass : PROTOCOL_CLASSES) {
+            kryo.register(protocolClass);
+          }
+        }
         return kryo;
       }
     };
@@ -56,20 +128,30 @@ public final class KryoUtils {
   }
 
   public byte[] serialize(final Object object) {
-    try (final Output out = new Output(new ByteArrayOutputStream())) {
-      final Kryo kryo = kryoPool.borrow();
-      kryo.writeClassAndObject(out, object);
+    final Output output = outputs.get();
+    final Kryo kryo = kryoPool.borrow();
+    try {
+      kryo.writeClassAndObject(output, object);
+      return output.toBytes();
+    } finally {
       kryoPool.release(kryo);
-      return out.toBytes();
+      if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+        outputs.remove();
+      } else {
+        output.clear();
+      }
     }
   }
 
   public Object deserialize(final byte[] bytes) {
-    try (final Input input = new Input(new ByteArrayInputStream(bytes))) {
-      final Kryo kryo = kryoPool.borrow();
-      final Object object = kryo.readClassAndObject(input);
+    final Input input = inputs.get();
+    input.setBuffer(bytes);
+    final Kryo kryo = kryoPool.borrow();
+    try {
+      return kryo.readClassAndObject(input);
+    } finally {
       kryoPool.release(kryo);
-      return object;
+      input.setBuffer(EMPTY); // Do not hold on to the message.
     }
   }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.driver;
+
+import net.jcip.annotations.NotThreadSafe;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.util.Optional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The tree of VortexWorkers that combines the aggregates of a
+ * {@link org.apache.reef.vortex.api.VortexAggregateFunction} in tree aggregation.
+ * Workers join the tree as they receive the aggregate function, and forward their aggregates to the
+ * worker that joined earlier at the position of their parent in a heap with the given fan-in.
+ * The root of the tree reports the aggregates to the master.
+ */
+@NotThreadSafe
+@DriverSide
+final class AggregationTree {
+  private final int fanIn;
+
+  // The workers that can be assigned children, in the order they joined
+  private final List<String> members = new ArrayList<>();
+
+  // The parent aggregator of each worker that joined, including the ones that left (null for a root)
+  private final Map<String, String> parents = new HashMap<>();
+
+  AggregationTree(final int fanIn) {
+    this.fanIn = fanIn;
+  }
+
+  /**
+   * Adds a worker to the tree.
+   * @return the parent aggregator of the worker, or empty if the worker reports to the master.
+   */
+  Optional<String> addWorker(final String workerId) {
+    final String parentId = members.isEmpty() ? null : members.get((members.size() - 1) / fanIn);
+    members.add(workerId);
+    parents.put(workerId, parentId);
+    return Optional.ofNullable(parentId);
+  }
+
+  /**
+   * Removes a failed worker, such that no worker that joins later is assigned to it.
+   * The children of the worker report to the master once they fail to reach it.
+   */
+  void removeWorker(final String workerId) {
+    members.remove(workerId);
+  }
+
+  /**
+   * @return the parent aggregator of the worker, or null if the worker reports to the master.
+   */
+  String getParent(final String workerId) {
+    return parents.get(workerId);
+  }
+
+  /**
+   * @return true if the aggregate of the worker reaches the aggregator, directly or through other workers.
+   */
+  boolean isAggregatedBy(final String workerId, final String aggregatorId) {
+    String currentId = workerId;
+    while (currentId != null) {
+      if (currentId.equals(aggregatorId)) {
+        return true;
+      }
+      currentId = parents.get(currentId);
+    }
+    return false;
+  }
+}
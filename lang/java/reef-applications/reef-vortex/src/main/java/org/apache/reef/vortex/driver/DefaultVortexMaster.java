@@ -24,6 +24,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.api.*;
 import org.apache.reef.vortex.protocol.workertomaster.*;
+import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
 import java.util.*;
@@ -45,6 +46,7 @@ final class DefaultVortexMaster implements VortexMaster {
   private final RunningWorkers runningWorkers;
   private final PendingTasklets pendingTasklets;
   private final Executor executor;
+  private final boolean treeAggregation;
 
   /**
    * @param runningWorkers for managing all running workers.
@@ -53,11 +55,13 @@ final class DefaultVortexMaster implements VortexMaster {
   DefaultVortexMaster(final RunningWorkers runningWorkers,
                       final PendingTasklets pendingTasklets,
                       final AggregateFunctionRepository aggregateFunctionRepository,
-                      @Parameter(VortexMasterConf.CallbackThreadPoolSize.class) final int threadPoolSize) {
+                      @Parameter(VortexMasterConf.CallbackThreadPoolSize.class) final int threadPoolSize,
+                      @Parameter(VortexMasterConf.TreeAggregation.class) final boolean treeAggregation) {
     this.executor = Executors.newFixedThreadPool(threadPoolSize);
     this.runningWorkers = runningWorkers;
     this.pendingTasklets = pendingTasklets;
     this.aggregateFunctionRepository = aggregateFunctionRepository;
+    this.treeAggregation = treeAggregation;
   }
 
   /**
@@ -93,6 +97,9 @@ final class DefaultVortexMaster implements VortexMaster {
                       final VortexAggregatePolicy policy,
                       final List<TInput> inputs,
                       final Optional<FutureCallback<AggregateResult<TInput, TOutput>>> callback) {
+    if (policy.getTreeFanIn().isPresent() && !treeAggregation) {
+      throw new IllegalArgumentException("Tree aggregation is not enabled, see VortexMasterConf.TREE_AGGREGATION");
+    }
     final int aggregateFunctionId = aggregateIdCounter.getAndIncrement();
     aggregateFunctionRepository.put(aggregateFunctionId, aggregateFunction, policy);
     final List<Tasklet> tasklets = new ArrayList<>(inputs.size());
@@ -120,6 +127,19 @@ final class DefaultVortexMaster implements VortexMaster {
     return vortexAggregateFuture;
   }
 
+  /**
+   * Add Tasklets for the inputs to pendingTasklets as the results of earlier ones are taken.
+   */
+  @Override
+  public <TInput, TOutput> VortexBulkFuture<TInput, TOutput>
+      enqueueTasklets(final VortexFunction<TInput, TOutput> vortexFunction,
+                      final Iterator<TInput> inputs,
+                      final int maxOutstanding) {
+    final BulkSubmission<TInput, TOutput> bulkSubmission = new BulkSubmission<>(vortexFunction, inputs);
+    bulkSubmission.submit(maxOutstanding);
+    return bulkSubmission.future;
+  }
+
   /**
    * Cancels tasklets on the running workers.
    */
@@ -197,6 +217,16 @@ final class DefaultVortexMaster implements VortexMaster {
         fetchDelegate(aggregationFailedTaskletIds).aggregationThrewException(aggregationFailedTaskletIds,
             taskletAggregationFailureReport.getException());
         break;
+      case TaskletAggregationForwarded:
+        final TaskletAggregationForwardedReport taskletAggregationForwardedReport =
+            (TaskletAggregationForwardedReport) workerToMasterReport;
+        // The aggregate is lost if the parent aggregator failed before this report came in.
+        for (final Tasklet lostTasklet : runningWorkers.taskletsForwarded(workerId,
+            taskletAggregationForwardedReport.getAggregateFunctionId(),
+            taskletAggregationForwardedReport.getTaskletIds())) {
+          pendingTasklets.addFirst(lostTasklet);
+        }
+        break;
       default:
         throw new RuntimeException("Unknown Report");
       }
@@ -242,4 +272,44 @@ final class DefaultVortexMaster implements VortexMaster {
     return delegate;
   }
 
+  /**
+   * Turns inputs into Tasklets as the results of the earlier ones are taken from the future.
+   * All the Tasklets share the future as their delegate.
+   */
+  private final class BulkSubmission<TInput, TOutput> implements EventHandler<Integer> {
+    private final VortexFunction<TInput, TOutput> function;
+    private final Iterator<TInput> inputs;
+    private final VortexBulkFuture<TInput, TOutput> future = new VortexBulkFuture<>(this);
+
+    private BulkSubmission(final VortexFunction<TInput, TOutput> function, final Iterator<TInput> inputs) {
+      this.function = function;
+      this.inputs = inputs;
+    }
+
+    /**
+     * Results were taken from the future.
+     */
+    @Override
+    public void onNext(final Integer numResultsTaken) {
+      submit(numResultsTaken);
+    }
+
+    private synchronized void submit(final int numTasklets) {
+      final List<Tasklet> tasklets = new ArrayList<>();
+      while (tasklets.size() < numTasklets && inputs.hasNext()) {
+        final TInput input = inputs.next();
+        final int id = taskletIdCounter.getAndIncrement();
+        future.taskletSubmitted(id, input);
+        tasklets.add(new Tasklet<>(id, Optional.<Integer>empty(), function, input, future));
+      }
+      if (!inputs.hasNext()) {
+        future.allSubmitted();
+      }
+
+      putDelegate(tasklets, future);
+      for (final Tasklet tasklet : tasklets) {
+        pendingTasklets.addLast(tasklet);
+      }
+    }
+  }
 }
@@ -22,6 +22,7 @@ import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,6 +33,11 @@ import java.util.logging.Logger;
 final class PendingTaskletLauncher implements EventHandler<Integer> {
   private static final Logger LOG = Logger.getLogger(PendingTaskletLauncher.class.getName());
 
+  /**
+   * Maximum number of pending tasklets scheduled under one lock acquisition of RunningWorkers.
+   */
+  private static final int MAX_LAUNCH_BATCH = 256;
+
   private final RunningWorkers runningWorkers;
   private final PendingTasklets pendingTasklets;
 
@@ -43,14 +49,14 @@ final class PendingTaskletLauncher implements EventHandler<Integer> {
   }
 
   /**
-   * Repeatedly take a tasklet from the pending queue and launch it via RunningWorkers.
+   * Repeatedly take the pending tasklets from the queue and launch them via RunningWorkers.
    */
   @Override
   public void onNext(final Integer integer) {
     while (!runningWorkers.isTerminated()) {
       try {
-        final Tasklet tasklet = pendingTasklets.takeFirst(); // blocks when no tasklet exists
-        runningWorkers.launchTasklet(tasklet); // blocks when no worker exists
+        final List<Tasklet> tasklets = pendingTasklets.takeFirst(MAX_LAUNCH_BATCH); // blocks when no tasklet exists
+        runningWorkers.launchTasklets(tasklets); // blocks when no worker exists
       } catch (InterruptedException e) {
         LOG.log(Level.INFO, "Interrupted upon termination");
       }
@@ -22,6 +22,8 @@ import net.jcip.annotations.ThreadSafe;
 import org.apache.reef.annotations.audience.DriverSide;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
 
@@ -48,4 +50,14 @@ final class PendingTasklets {
   Tasklet takeFirst() throws InterruptedException {
     return pendingTasklets.takeFirst();
   }
+
+  /**
+   * Blocks until a tasklet is pending, then takes it together with up to maxTasklets - 1 more.
+   */
+  List<Tasklet> takeFirst(final int maxTasklets) throws InterruptedException {
+    final List<Tasklet> tasklets = new ArrayList<>();
+    tasklets.add(pendingTasklets.takeFirst());
+    pendingTasklets.drainTo(tasklets, maxTasklets - 1);
+    return tasklets;
+  }
 }
@@ -61,6 +61,12 @@ final class RunningWorkers {
 
   private final Map<String, Set<Integer>> workerAggregateFunctionMap = new HashMap<>();
 
+  // Tree aggregation: the trees of the aggregate functions, the worker that holds the aggregate of each
+  // tasklet, and the tasklets that finished running whose aggregates are being forwarded up the tree.
+  private final Map<Integer, AggregationTree> aggregationTrees = new HashMap<>();
+  private final Map<Integer, String> taskletAggregators = new HashMap<>();
+  private final Map<Integer, Tasklet> forwardedTasklets = new HashMap<>();
+
   /**
    * RunningWorkers constructor.
    */
@@ -107,7 +113,15 @@ final class RunningWorkers {
         final VortexWorkerManager vortexWorkerManager = this.runningWorkers.remove(id);
         if (vortexWorkerManager != null) {
           this.schedulingPolicy.workerRemoved(vortexWorkerManager);
-          return Optional.ofNullable(vortexWorkerManager.removed());
+          final List<Tasklet> lostAggregates = removeAggregator(id);
+          if (lostAggregates.isEmpty()) {
+            return Optional.ofNullable(vortexWorkerManager.removed());
+          }
+
+          if (vortexWorkerManager.removed() != null) {
+            lostAggregates.addAll(vortexWorkerManager.removed());
+          }
+          return Optional.<Collection<Tasklet>>of(lostAggregates);
         } else {
           // Called before addWorker (e.g. RM preempted the resource before the Evaluator started)
           removedBeforeAddedWorkers.add(id);
@@ -131,54 +145,89 @@ final class RunningWorkers {
    * Parameter: Same tasklet can be launched multiple times.
    */
   void launchTasklet(final Tasklet tasklet) {
+    launchTasklets(Collections.singletonList(tasklet));
+  }
+
+  /**
+   * Schedules the tasklets in order under a single lock acquisition, and sends all the tasklets
+   * scheduled to a worker in one message.
+   * Concurrency: Called by single scheduler thread.
+   * Parameter: Same tasklet can be launched multiple times.
+   */
+  void launchTasklets(final List<Tasklet> tasklets) {
     lock.lock();
     try {
       if (!terminated) {
-        Optional<String> workerId;
-        while(true) {
-          workerId = schedulingPolicy.trySchedule(tasklet);
-          if (!workerId.isPresent()) {
-            try {
-              noWorkerOrResource.await();
-            } catch (InterruptedException e) {
-              throw new RuntimeException(e);
+        final Map<VortexWorkerManager, List<Tasklet>> scheduled = new LinkedHashMap<>();
+        for (final Tasklet tasklet : tasklets) {
+          Optional<String> workerId;
+          while(true) {
+            workerId = schedulingPolicy.trySchedule(tasklet);
+            if (!workerId.isPresent()) {
+              // Workers can only free up resources for the tasklets they have received.
+              sendScheduled(scheduled);
+              try {
+                noWorkerOrResource.await();
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            } else {
+              break;
             }
-          } else {
-            break;
           }
-        }
 
-        // TODO[JIRA REEF-500]: Will need to support duplicate tasklets.
-        if (taskletsToCancel.contains(tasklet.getId())) {
-          tasklet.cancelled();
-          taskletsToCancel.remove(tasklet.getId());
-          LOG.log(Level.FINE, "Cancelled tasklet {0}.", tasklet.getId());
-          return;
-        }
+          // TODO[JIRA REEF-500]: Will need to support duplicate tasklets.
+          if (taskletsToCancel.contains(tasklet.getId())) {
+            tasklet.cancelled();
+            taskletsToCancel.remove(tasklet.getId());
+            LOG.log(Level.FINE, "Cancelled tasklet {0}.", tasklet.getId());
+            continue;
+          }
 
-        final Optional<Integer> taskletAggFunctionId =  tasklet.getAggregateFunctionId();
-        final VortexWorkerManager vortexWorkerManager = runningWorkers.get(workerId.get());
+          final Optional<Integer> taskletAggFunctionId =  tasklet.getAggregateFunctionId();
+          final VortexWorkerManager vortexWorkerManager = runningWorkers.get(workerId.get());
 
-        if (taskletAggFunctionId.isPresent() &&
-            !workerHasAggregateFunction(vortexWorkerManager.getId(), taskletAggFunctionId.get())) {
+          if (taskletAggFunctionId.isPresent() &&
+              !workerHasAggregateFunction(vortexWorkerManager.getId(), taskletAggFunctionId.get())) {
 
-          // This assumes that all aggregate tasklets share the same user function.
-          vortexWorkerManager.sendAggregateFunction(
-              taskletAggFunctionId.get(),
-              aggregateFunctionRepository.getAggregateFunction(taskletAggFunctionId.get()),
-              tasklet.getUserFunction(),
-              aggregateFunctionRepository.getPolicy(taskletAggFunctionId.get()));
-          workerAggregateFunctionMap.get(vortexWorkerManager.getId()).add(taskletAggFunctionId.get());
-        }
+            // This assumes that all aggregate tasklets share the same user function.
+            vortexWorkerManager.sendAggregateFunction(
+                taskletAggFunctionId.get(),
+                aggregateFunctionRepository.getAggregateFunction(taskletAggFunctionId.get()),
+                tasklet.getUserFunction(),
+                aggregateFunctionRepository.getPolicy(taskletAggFunctionId.get()),
+                joinAggregationTree(vortexWorkerManager.getId(), taskletAggFunctionId.get()));
+            workerAggregateFunctionMap.get(vortexWorkerManager.getId()).add(taskletAggFunctionId.get());
+          }
 
-        vortexWorkerManager.launchTasklet(tasklet);
-        schedulingPolicy.taskletLaunched(vortexWorkerManager, tasklet);
+          if (taskletAggFunctionId.isPresent() && aggregationTrees.containsKey(taskletAggFunctionId.get())) {
+            taskletAggregators.put(tasklet.getId(), vortexWorkerManager.getId());
+          }
+
+          if (!scheduled.containsKey(vortexWorkerManager)) {
+            scheduled.put(vortexWorkerManager, new ArrayList<Tasklet>());
+          }
+          scheduled.get(vortexWorkerManager).add(tasklet);
+          schedulingPolicy.taskletLaunched(vortexWorkerManager, tasklet);
+        }
+        sendScheduled(scheduled);
       }
     } finally {
       lock.unlock();
     }
   }
 
+  /**
+   * Sends the scheduled tasklets to their workers before the lock is released,
+   * so that cancellations and preemptions see them as running.
+   */
+  private void sendScheduled(final Map<VortexWorkerManager, List<Tasklet>> scheduled) {
+    for (final Map.Entry<VortexWorkerManager, List<Tasklet>> entry : scheduled.entrySet()) {
+      entry.getKey().launchTasklets(entry.getValue());
+    }
+    scheduled.clear();
+  }
+
   /**
    * Concurrency: Called by multiple threads.
    * Parameter: Same taskletId can come in multiple times.
@@ -211,10 +260,18 @@ final class RunningWorkers {
   void doneTasklets(final String workerId, final List<Integer> taskletIds) {
     lock.lock();
     try {
-      if (!terminated && runningWorkers.containsKey(workerId)) { // Preemption can come before
-        final VortexWorkerManager worker = this.runningWorkers.get(workerId);
-        final List<Tasklet> tasklets = worker.taskletsDone(taskletIds);
-        this.schedulingPolicy.taskletsDone(worker, tasklets);
+      if (!terminated) {
+        // In tree aggregation, the tasklets can be reported by a worker other than the one they ran on.
+        final Map<String, List<Integer>> runningTaskletIds = new HashMap<>();
+        for (final int taskletId : taskletIds) {
+          final String aggregatorId = taskletAggregators.remove(taskletId);
+          if (aggregatorId == null) {
+            addTo(runningTaskletIds, workerId, taskletId);
+          } else if (forwardedTasklets.remove(taskletId) == null) {
+            addTo(runningTaskletIds, aggregatorId, taskletId);
+          }
+        }
+        taskletsDone(runningTaskletIds);
 
         taskletsToCancel.removeAll(taskletIds); // cleanup to prevent memory leak.
 
@@ -226,6 +283,129 @@ final class RunningWorkers {
     }
   }
 
+  /**
+   * Marks the tasklets that a worker has forwarded to its parent aggregator in tree aggregation.
+   * The tasklets that were still running on a worker are done on it, which frees up its resources.
+   * If the parent was removed before this report came in, the aggregate it received was lost with it,
+   * and the tasklets are returned to be launched again.
+   * Concurrency: Called by multiple threads.
+   * Parameter: The reports of the workers of a tree can come in any order.
+   * @return the tasklets whose aggregate was lost with the parent aggregator.
+   */
+  List<Tasklet> taskletsForwarded(final String workerId, final int aggregateFunctionId,
+                                  final List<Integer> taskletIds) {
+    lock.lock();
+    try {
+      if (terminated) {
+        return Collections.emptyList();
+      }
+
+      final AggregationTree aggregationTree = aggregationTrees.get(aggregateFunctionId);
+      final String parentId = aggregationTree.getParent(workerId);
+      final boolean parentRemoved = parentId != null && !runningWorkers.containsKey(parentId);
+      final Map<String, List<Integer>> runningTaskletIds = new HashMap<>();
+      final List<Tasklet> lostTasklets = new ArrayList<>();
+      for (final int taskletId : taskletIds) {
+        final String aggregatorId = taskletAggregators.get(taskletId);
+        if (aggregatorId == null || !aggregationTree.isAggregatedBy(aggregatorId, workerId)) {
+          // Already reported by a worker further up the tree, or done.
+          continue;
+        }
+
+        if (!forwardedTasklets.containsKey(taskletId)) {
+          addTo(runningTaskletIds, aggregatorId, taskletId);
+        } else if (parentRemoved) {
+          lostTasklets.add(forwardedTasklets.remove(taskletId));
+        }
+
+        if (parentRemoved) {
+          taskletAggregators.remove(taskletId);
+        } else {
+          taskletAggregators.put(taskletId, parentId);
+        }
+      }
+
+      final List<Tasklet> doneTasklets = taskletsDone(runningTaskletIds);
+      if (parentRemoved) {
+        lostTasklets.addAll(doneTasklets);
+      } else {
+        for (final Tasklet tasklet : doneTasklets) {
+          forwardedTasklets.put(tasklet.getId(), tasklet);
+        }
+      }
+
+      // Notify (possibly) waiting scheduler
+      noWorkerOrResource.signal();
+      return lostTasklets;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Marks the tasklets done on the workers they are running on, unless the worker has been removed.
+   * @return the tasklets that were done.
+   */
+  private List<Tasklet> taskletsDone(final Map<String, List<Integer>> runningTaskletIds) {
+    final List<Tasklet> doneTasklets = new ArrayList<>();
+    for (final Map.Entry<String, List<Integer>> entry : runningTaskletIds.entrySet()) {
+      final VortexWorkerManager worker = runningWorkers.get(entry.getKey());
+      if (worker != null) { // Preemption can come before
+        final List<Tasklet> tasklets = worker.taskletsDone(entry.getValue());
+        schedulingPolicy.taskletsDone(worker, tasklets);
+        doneTasklets.addAll(tasklets);
+      }
+    }
+    return doneTasklets;
+  }
+
+  private static void addTo(final Map<String, List<Integer>> taskletIds, final String workerId, final int taskletId) {
+    if (!taskletIds.containsKey(workerId)) {
+      taskletIds.put(workerId, new ArrayList<Integer>());
+    }
+    taskletIds.get(workerId).add(taskletId);
+  }
+
+  /**
+   * Adds the worker to the aggregation tree of the aggregate function, if it uses tree aggregation.
+   * @return the parent aggregator of the worker, or empty if the worker reports to the master.
+   */
+  private Optional<String> joinAggregationTree(final String workerId, final int aggregateFunctionId) {
+    final Optional<Integer> fanIn = aggregateFunctionRepository.getPolicy(aggregateFunctionId).getTreeFanIn();
+    if (!fanIn.isPresent()) {
+      return Optional.empty();
+    }
+
+    if (!aggregationTrees.containsKey(aggregateFunctionId)) {
+      aggregationTrees.put(aggregateFunctionId, new AggregationTree(fanIn.get()));
+    }
+    return aggregationTrees.get(aggregateFunctionId).addWorker(workerId);
+  }
+
+  /**
+   * Removes the worker from the aggregation trees.
+   * @return the tasklets whose aggregates were lost with the worker, other than the ones running on it.
+   */
+  private List<Tasklet> removeAggregator(final String workerId) {
+    for (final AggregationTree aggregationTree : aggregationTrees.values()) {
+      aggregationTree.removeWorker(workerId);
+    }
+
+    final List<Tasklet> lostTasklets = new ArrayList<>();
+    final Iterator<Map.Entry<Integer, String>> iterator = taskletAggregators.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Integer, String> entry = iterator.next();
+      if (workerId.equals(entry.getValue())) {
+        iterator.remove();
+        final Tasklet forwardedTasklet = forwardedTasklets.remove(entry.getKey());
+        if (forwardedTasklet != null) {
+          lostTasklets.add(forwardedTasklet);
+        }
+      }
+    }
+    return lostTasklets;
+  }
+
   void terminate() {
     lock.lock();
     try {
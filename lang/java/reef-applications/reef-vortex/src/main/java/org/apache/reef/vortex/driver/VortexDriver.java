@@ -23,8 +23,11 @@ import org.apache.reef.driver.evaluator.*;
 import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.driver.task.TaskConfiguration;
 import org.apache.reef.driver.task.TaskMessage;
+import org.apache.reef.io.network.naming.NameResolverConfiguration;
+import org.apache.reef.io.network.naming.NameServer;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.annotations.Unit;
 import org.apache.reef.vortex.api.VortexStart;
@@ -35,6 +38,7 @@ import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.impl.SingleThreadStage;
 import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.time.event.StartTime;
 
 import javax.inject.Inject;
@@ -66,6 +70,12 @@ final class VortexDriver {
   private final VortexStart vortexStart;
   private final EStage<Integer> pendingTaskletSchedulerEStage;
   private final KryoUtils kryoUtils;
+  private final boolean registerProtocolClasses;
+
+  // For the workers to find each other in tree aggregation, only started if it is enabled
+  private final boolean treeAggregation;
+  private final InjectionFuture<NameServer> nameServer;
+  private final InjectionFuture<LocalAddressProvider> localAddressProvider;
 
   @Inject
   private VortexDriver(final EvaluatorRequestor evaluatorRequestor,
@@ -75,10 +85,15 @@ final class VortexDriver {
                        final VortexStartExecutor vortexStartExecutor,
                        final PendingTaskletLauncher pendingTaskletLauncher,
                        final KryoUtils kryoUtils,
+                       final InjectionFuture<NameServer> nameServer,
+                       final InjectionFuture<LocalAddressProvider> localAddressProvider,
                        @Parameter(VortexMasterConf.WorkerMem.class) final int workerMem,
                        @Parameter(VortexMasterConf.WorkerNum.class) final int workerNum,
                        @Parameter(VortexMasterConf.WorkerCores.class) final int workerCores,
-                       @Parameter(VortexMasterConf.NumberOfVortexStartThreads.class) final int numOfStartThreads) {
+                       @Parameter(VortexMasterConf.NumberOfVortexStartThreads.class) final int numOfStartThreads,
+                       @Parameter(VortexMasterConf.RegisterProtocolClasses.class)
+                       final boolean registerProtocolClasses,
+                       @Parameter(VortexMasterConf.TreeAggregation.class) final boolean treeAggregation) {
     this.vortexStartEStage = new ThreadPoolStage<>(vortexStartExecutor, numOfStartThreads);
     this.vortexStart = vortexStart;
     this.pendingTaskletSchedulerEStage = new SingleThreadStage<>(pendingTaskletLauncher, 1);
@@ -89,6 +104,10 @@ final class VortexDriver {
     this.evalMem = workerMem;
     this.evalNum = workerNum;
     this.evalCores = workerCores;
+    this.registerProtocolClasses = registerProtocolClasses;
+    this.treeAggregation = treeAggregation;
+    this.nameServer = nameServer;
+    this.localAddressProvider = localAddressProvider;
   }
 
   /**
@@ -123,17 +142,26 @@ final class VortexDriver {
 
       final Configuration workerConfiguration = VortexWorkerConf.CONF
           .set(VortexWorkerConf.NUM_OF_THREADS, evalCores) // NUM_OF_THREADS = evalCores
+          .set(VortexWorkerConf.REGISTER_PROTOCOL_CLASSES, registerProtocolClasses)
           .build();
 
       final Configuration taskConfiguration = TaskConfiguration.CONF
           .set(TaskConfiguration.IDENTIFIER, workerId)
           .set(TaskConfiguration.TASK, VortexWorker.class)
-          .set(TaskConfiguration.ON_SEND_MESSAGE, VortexWorker.class)
           .set(TaskConfiguration.ON_MESSAGE, VortexWorker.DriverMessageHandler.class)
           .set(TaskConfiguration.ON_CLOSE, VortexWorker.TaskCloseHandler.class)
           .build();
 
-      allocatedEvaluator.submitTask(Configurations.merge(workerConfiguration, taskConfiguration));
+      if (treeAggregation) {
+        final Configuration nameResolverConfiguration = NameResolverConfiguration.CONF
+            .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddressProvider.get().getLocalAddress())
+            .set(NameResolverConfiguration.NAME_SERVICE_PORT, nameServer.get().getPort())
+            .build();
+        allocatedEvaluator.submitTask(
+            Configurations.merge(workerConfiguration, nameResolverConfiguration, taskConfiguration));
+      } else {
+        allocatedEvaluator.submitTask(Configurations.merge(workerConfiguration, taskConfiguration));
+      }
     }
   }
 
@@ -25,6 +25,7 @@ import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.api.*;
 import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReports;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -53,6 +54,15 @@ public interface VortexMaster {
                       final List<TInput> inputs,
                       final Optional<FutureCallback<AggregateResult<TInput, TOutput>>> callback);
 
+  /**
+   * Submits a Tasklet for each input, keeping at most maxOutstanding of them pending, running
+   * or waiting to be taken from the returned future.
+   */
+  <TInput, TOutput> VortexBulkFuture<TInput, TOutput>
+      enqueueTasklets(final VortexFunction<TInput, TOutput> vortexFunction,
+                      final Iterator<TInput> inputs,
+                      final int maxOutstanding);
+
   /**
    * Call this when a Tasklet is to be cancelled.
    * @param mayInterruptIfRunning if true, will attempt to cancel running Tasklets; otherwise will only
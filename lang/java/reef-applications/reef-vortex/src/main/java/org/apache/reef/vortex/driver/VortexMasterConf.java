@@ -73,6 +73,27 @@ public final class VortexMasterConf extends ConfigurationModuleBuilder {
   final class CallbackThreadPoolSize implements Name<Integer> {
   }
 
+  /**
+   * Default maximum number of outstanding Tasklets of a bulk submission.
+   */
+  @NamedParameter(doc = "Default maximum number of outstanding Tasklets of a bulk submission", default_value = "10000")
+  public final class BulkSubmissionWindow implements Name<Integer> {
+  }
+
+  /**
+   * Whether to register the Vortex protocol classes with Kryo.
+   */
+  @NamedParameter(doc = "Whether to register the Vortex protocol classes with Kryo", default_value = "true")
+  public final class RegisterProtocolClasses implements Name<Boolean> {
+  }
+
+  /**
+   * Whether aggregate functions can use tree aggregation.
+   */
+  @NamedParameter(doc = "Whether aggregate functions can use tree aggregation", default_value = "false")
+  public final class TreeAggregation implements Name<Boolean> {
+  }
+
   /**
    * Number of Workers.
    */
@@ -108,6 +129,25 @@ public final class VortexMasterConf extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Integer> FUTURE_CALLBACK_THREAD_POOL_SIZE = new OptionalParameter<>();
 
+  /**
+   * Default maximum number of Tasklets of a bulk submission that are pending, running or have results
+   * that are not taken yet.
+   */
+  public static final OptionalParameter<Integer> BULK_SUBMISSION_WINDOW = new OptionalParameter<>();
+
+  /**
+   * Whether to register the Vortex protocol classes with Kryo, which shrinks the messages.
+   * Master and Workers always use the same setting.
+   */
+  public static final OptionalParameter<Boolean> REGISTER_PROTOCOL_CLASSES = new OptionalParameter<>();
+
+  /**
+   * Whether aggregate functions can use tree aggregation, see
+   * {@link org.apache.reef.vortex.api.VortexAggregatePolicy.AggregatePolicyBuilder#setTreeAggregationFanIn(int)}.
+   * The driver then hosts a name server, with which the workers find their parent aggregators.
+   */
+  public static final OptionalParameter<Boolean> TREE_AGGREGATION = new OptionalParameter<>();
+
   /**
    * Vortex Master configuration.
    */
@@ -119,5 +159,8 @@ public final class VortexMasterConf extends ConfigurationModuleBuilder {
       .bindImplementation(VortexStart.class, VORTEX_START)
       .bindNamedParameter(NumberOfVortexStartThreads.class, NUM_OF_VORTEX_START_THREAD)
       .bindNamedParameter(CallbackThreadPoolSize.class, FUTURE_CALLBACK_THREAD_POOL_SIZE)
+      .bindNamedParameter(RegisterProtocolClasses.class, REGISTER_PROTOCOL_CLASSES)
+      .bindNamedParameter(BulkSubmissionWindow.class, BULK_SUBMISSION_WINDOW)
+      .bindNamedParameter(TreeAggregation.class, TREE_AGGREGATION)
       .build();
 }
@@ -24,6 +24,7 @@ import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredParameter;
 
 /**
@@ -44,10 +45,16 @@ public final class VortexWorkerConf extends ConfigurationModuleBuilder {
    */
   public static final RequiredParameter<Integer> NUM_OF_THREADS = new RequiredParameter<>();
 
+  /**
+   * Whether to register the Vortex protocol classes with Kryo. Must match the Master.
+   */
+  public static final OptionalParameter<Boolean> REGISTER_PROTOCOL_CLASSES = new OptionalParameter<>();
+
   /**
    * Vortex Worker configuration.
    */
   public static final ConfigurationModule CONF = new VortexWorkerConf()
       .bindNamedParameter(NumOfThreads.class, NUM_OF_THREADS)
+      .bindNamedParameter(VortexMasterConf.RegisterProtocolClasses.class, REGISTER_PROTOCOL_CLASSES)
       .build();
 }
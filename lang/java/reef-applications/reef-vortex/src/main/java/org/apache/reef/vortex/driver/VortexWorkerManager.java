@@ -21,9 +21,12 @@ package org.apache.reef.vortex.driver;
 import net.jcip.annotations.NotThreadSafe;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.api.VortexAggregateFunction;
 import org.apache.reef.vortex.api.VortexAggregatePolicy;
 import org.apache.reef.vortex.api.VortexFunction;
+import org.apache.reef.vortex.protocol.mastertoworker.MasterToWorkerRequest;
+import org.apache.reef.vortex.protocol.mastertoworker.MasterToWorkerRequests;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregateExecutionRequest;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregationRequest;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletCancellationRequest;
@@ -49,13 +52,16 @@ class VortexWorkerManager {
   /**
    * Sends an {@link VortexAggregateFunction} and its {@link VortexFunction} to a
    * {@link org.apache.reef.vortex.evaluator.VortexWorker}.
+   * @param parentAggregatorId the worker to forward the aggregates to in tree aggregation,
+   *                           or empty to report them to the master.
    */
   <TInput, TOutput> void sendAggregateFunction(final int aggregateFunctionId,
                                                final VortexAggregateFunction<TOutput> aggregateFunction,
                                                final VortexFunction<TInput, TOutput> function,
-                                               final VortexAggregatePolicy policy) {
-    final TaskletAggregationRequest<TInput, TOutput> taskletAggregationRequest =
-        new TaskletAggregationRequest<>(aggregateFunctionId, aggregateFunction, function, policy);
+                                               final VortexAggregatePolicy policy,
+                                               final Optional<String> parentAggregatorId) {
+    final TaskletAggregationRequest<TInput, TOutput> taskletAggregationRequest = new TaskletAggregationRequest<>(
+        aggregateFunctionId, aggregateFunction, function, policy, parentAggregatorId.orElse(null));
 
     // The send is synchronous such that we make sure that the aggregate function is sent to the
     // target worker before attempting to launch an aggregateable tasklet on it.
@@ -67,20 +73,37 @@ class VortexWorkerManager {
    * Sends a request to launch a Tasklet on a {@link org.apache.reef.vortex.evaluator.VortexWorker}.
    */
   <TInput, TOutput> void launchTasklet(final Tasklet<TInput, TOutput> tasklet) {
+    vortexRequestor.sendAsync(reefTask, toRequest(tasklet));
+  }
+
+  /**
+   * Sends the requests to launch Tasklets on a {@link org.apache.reef.vortex.evaluator.VortexWorker}
+   * together in one message.
+   */
+  void launchTasklets(final List<Tasklet> tasklets) {
+    if (tasklets.size() == 1) {
+      launchTasklet(tasklets.get(0));
+      return;
+    }
+
+    final List<MasterToWorkerRequest> requests = new ArrayList<>(tasklets.size());
+    for (final Tasklet tasklet : tasklets) {
+      requests.add(toRequest(tasklet));
+    }
+    vortexRequestor.sendAsync(reefTask, new MasterToWorkerRequests(requests));
+  }
+
+  private <TInput, TOutput> MasterToWorkerRequest toRequest(final Tasklet<TInput, TOutput> tasklet) {
     assert !runningTasklets.containsKey(tasklet.getId());
     runningTasklets.put(tasklet.getId(), tasklet);
 
     if (tasklet.getAggregateFunctionId().isPresent()) {
       // function is aggregateable.
-      final TaskletAggregateExecutionRequest<TInput> taskletAggregateExecutionRequest =
-          new TaskletAggregateExecutionRequest<>(tasklet.getId(), tasklet.getAggregateFunctionId().get(),
-              tasklet.getInput());
-      vortexRequestor.sendAsync(reefTask, taskletAggregateExecutionRequest);
+      return new TaskletAggregateExecutionRequest<>(tasklet.getId(), tasklet.getAggregateFunctionId().get(),
+          tasklet.getInput());
     } else {
       // function is not aggregateable.
-      final TaskletExecutionRequest<TInput, TOutput> taskletExecutionRequest
-          = new TaskletExecutionRequest<>(tasklet.getId(), tasklet.getUserFunction(), tasklet.getInput());
-      vortexRequestor.sendAsync(reefTask, taskletExecutionRequest);
+      return new TaskletExecutionRequest<>(tasklet.getId(), tasklet.getUserFunction(), tasklet.getInput());
     }
   }
 
@@ -23,14 +23,16 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
-import org.apache.reef.task.HeartBeatTriggerManager;
+import org.apache.reef.task.TaskMessage;
+import org.apache.reef.task.TaskMessageSender;
+import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.common.KryoUtils;
 import org.apache.reef.vortex.protocol.mastertoworker.TaskletAggregationRequest;
 import org.apache.reef.vortex.protocol.workertomaster.*;
+import org.apache.reef.vortex.protocol.workertoworker.PartialAggregate;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.util.*;
-import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -39,6 +41,8 @@ import java.util.concurrent.TimeUnit;
  * A container for tasklet aggregation, used to preserve output from individual
  * {@link org.apache.reef.vortex.api.VortexFunction}s and to trigger
  * {@link org.apache.reef.vortex.api.VortexAggregateFunction}s on the pooled outputs.
+ * In tree aggregation, the partial aggregates received from child workers are pooled as well,
+ * and the aggregate is forwarded to the parent aggregator instead of being reported to the master.
  */
 @Private
 @DriverSide
@@ -47,9 +51,9 @@ final class AggregateContainer {
 
   private final Object stateLock = new Object();
   private final TaskletAggregationRequest taskletAggregationRequest;
-  private final HeartBeatTriggerManager heartBeatTriggerManager;
+  private final TaskMessageSender taskMessageSender;
   private final KryoUtils kryoUtils;
-  private final BlockingDeque<byte[]> workerReportsQueue;
+  private final TreeAggregationChannel treeAggregationChannel;
   private final ScheduledExecutorService timer = Executors.newScheduledThreadPool(1);
 
   @GuardedBy("stateLock")
@@ -61,14 +65,23 @@ final class AggregateContainer {
   @GuardedBy("stateLock")
   private final List<Pair<Integer, Exception>> failedTasklets = new ArrayList<>();
 
-  AggregateContainer(final HeartBeatTriggerManager heartBeatTriggerManager,
+  @GuardedBy("stateLock")
+  private final List<PartialAggregate> receivedAggregates = new ArrayList<>();
+
+  @GuardedBy("stateLock")
+  private int numReceivedTasklets = 0;
+
+  /**
+   * @param treeAggregationChannel the channel to the parent aggregator, null if not in tree aggregation.
+   */
+  AggregateContainer(final TaskMessageSender taskMessageSender,
                      final KryoUtils kryoUtils,
-                     final BlockingDeque<byte[]> workerReportsQueue,
-                     final TaskletAggregationRequest taskletAggregationRequest) {
-    this.heartBeatTriggerManager = heartBeatTriggerManager;
+                     final TaskletAggregationRequest taskletAggregationRequest,
+                     final TreeAggregationChannel treeAggregationChannel) {
+    this.taskMessageSender = taskMessageSender;
     this.kryoUtils = kryoUtils;
-    this.workerReportsQueue = workerReportsQueue;
     this.taskletAggregationRequest = taskletAggregationRequest;
+    this.treeAggregationChannel = treeAggregationChannel;
   }
 
   public TaskletAggregationRequest getTaskletAggregationRequest() {
@@ -86,6 +99,12 @@ final class AggregateContainer {
         results.add(resultPair.getRight());
       }
 
+      // Add the partial aggregates of the child workers for aggregation.
+      for (final PartialAggregate partialAggregate : receivedAggregates) {
+        aggregatedTasklets.addAll(partialAggregate.getTaskletIds());
+        results.add(partialAggregate.getResult());
+      }
+
       // Add failed tasklets to worker report.
       for (final Pair<Integer, Exception> failedPair : failedTasklets) {
         workerToMasterReports.add(new TaskletFailureReport(failedPair.getLeft(), failedPair.getRight()));
@@ -94,6 +113,8 @@ final class AggregateContainer {
       // Drain the tasklets.
       completedTasklets.clear();
       failedTasklets.clear();
+      receivedAggregates.clear();
+      numReceivedTasklets = 0;
     }
   }
 
@@ -128,7 +149,13 @@ final class AggregateContainer {
       // Run the aggregation function.
       try {
         final Object aggregationResult = taskletAggregationRequest.executeAggregation(results);
-        workerToMasterReports.add(new TaskletAggregationResultReport(aggregatedTasklets, aggregationResult));
+        final Optional<String> parentAggregatorId = taskletAggregationRequest.getParentAggregatorId();
+        if (parentAggregatorId.isPresent()) {
+          treeAggregationChannel.forward(parentAggregatorId.get(), new PartialAggregate(
+              taskletAggregationRequest.getAggregateFunctionId(), aggregatedTasklets, aggregationResult));
+        } else {
+          workerToMasterReports.add(new TaskletAggregationResultReport(aggregatedTasklets, aggregationResult));
+        }
       } catch (final Exception e) {
         workerToMasterReports.add(new TaskletAggregationFailureReport(aggregatedTasklets, e));
       }
@@ -136,8 +163,8 @@ final class AggregateContainer {
 
     // Add to worker report only if there is something to report back.
     if (!workerToMasterReports.isEmpty()) {
-      workerReportsQueue.addLast(kryoUtils.serialize(new WorkerToMasterReports(workerToMasterReports)));
-      heartBeatTriggerManager.triggerHeartBeat();
+      taskMessageSender.send(TaskMessage.from(VortexWorker.MESSAGE_SOURCE_ID,
+          kryoUtils.serialize(new WorkerToMasterReports(workerToMasterReports))));
     }
   }
 
@@ -148,27 +175,7 @@ final class AggregateContainer {
    */
   public void scheduleTasklet(final int taskletId) {
     synchronized (stateLock) {
-      // If there are tasklets are pending to be executed, then that means that a
-      // timer has already been scheduled for an aggregation.
-      if (!outstandingTasklets()) {
-        timer.schedule(new Runnable() {
-          @Override
-          public void run() {
-            aggregateTasklets(AggregateTriggerType.ALARM);
-            synchronized (stateLock) {
-              // On the callback, if there are tasklets pending to be executed, that means that this alarm
-              // was triggered by a previous alarm, so we should continue to trigger more alarms. Otherwise
-              // we are done with tasklets for this aggregation function for now.
-              // If more tasklets for this aggregation function arrive, it will be triggered by the outer
-              // call to timer.schedule.
-              if (outstandingTasklets()) {
-                timer.schedule(
-                    this, taskletAggregationRequest.getPolicy().getPeriodMilliseconds(), TimeUnit.MILLISECONDS);
-              }
-            }
-          }
-        }, taskletAggregationRequest.getPolicy().getPeriodMilliseconds(), TimeUnit.MILLISECONDS);
-      }
+      scheduleAggregation();
 
       // Add to pending tasklets, such that on the callback the timer can be refreshed.
       if (!pendingTasklets.containsKey(taskletId)) {
@@ -179,6 +186,34 @@ final class AggregateContainer {
     }
   }
 
+  /**
+   * Creates a new timer schedule for triggering the aggregation function if there is none.
+   */
+  @GuardedBy("stateLock")
+  private void scheduleAggregation() {
+    // If there are tasklets are pending to be executed, then that means that a
+    // timer has already been scheduled for an aggregation.
+    if (!outstandingTasklets()) {
+      timer.schedule(new Runnable() {
+        @Override
+        public void run() {
+          aggregateTasklets(AggregateTriggerType.ALARM);
+          synchronized (stateLock) {
+            // On the callback, if there are tasklets pending to be executed, that means that this alarm
+            // was triggered by a previous alarm, so we should continue to trigger more alarms. Otherwise
+            // we are done with tasklets for this aggregation function for now.
+            // If more tasklets for this aggregation function arrive, it will be triggered by the outer
+            // call to timer.schedule.
+            if (outstandingTasklets()) {
+              timer.schedule(
+                  this, taskletAggregationRequest.getPolicy().getPeriodMilliseconds(), TimeUnit.MILLISECONDS);
+            }
+          }
+        }
+      }, taskletAggregationRequest.getPolicy().getPeriodMilliseconds(), TimeUnit.MILLISECONDS);
+    }
+  }
+
   /**
    * Reported when an associated tasklet is complete and adds it to the completion pool.
    */
@@ -195,6 +230,23 @@ final class AggregateContainer {
     }
   }
 
+  /**
+   * Reported when a child worker forwards its aggregate in tree aggregation and adds it to the completion pool.
+   */
+  public void partialAggregateReceived(final PartialAggregate partialAggregate) {
+    final boolean aggregateOnCount;
+    synchronized (stateLock) {
+      scheduleAggregation();
+      receivedAggregates.add(partialAggregate);
+      numReceivedTasklets += partialAggregate.getTaskletIds().size();
+      aggregateOnCount = aggregateOnCount();
+    }
+
+    if (aggregateOnCount) {
+      aggregateTasklets(AggregateTriggerType.COUNT);
+    }
+  }
+
   /**
    * Reported when an associated tasklet is complete and adds it to the failure pool.
    */
@@ -221,13 +273,15 @@ final class AggregateContainer {
 
   @GuardedBy("stateLock")
   private boolean outstandingTasklets() {
-    return !(pendingTasklets.isEmpty() && completedTasklets.isEmpty() && failedTasklets.isEmpty());
+    return !(pendingTasklets.isEmpty() && completedTasklets.isEmpty() && failedTasklets.isEmpty() &&
+        receivedAggregates.isEmpty());
   }
 
   @GuardedBy("stateLock")
   private boolean aggregateOnCount() {
     return taskletAggregationRequest.getPolicy().getCount().isPresent() &&
-        completedTasklets.size() + failedTasklets.size() >= taskletAggregationRequest.getPolicy().getCount().get();
+        completedTasklets.size() + failedTasklets.size() + numReceivedTasklets >=
+            taskletAggregationRequest.getPolicy().getCount().get();
   }
 
   private enum AggregateTriggerType {
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.evaluator;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.Connection;
+import org.apache.reef.io.network.ConnectionFactory;
+import org.apache.reef.io.network.Message;
+import org.apache.reef.io.network.NetworkConnectionService;
+import org.apache.reef.io.network.impl.config.NetworkConnectionServiceIdFactory;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.task.TaskMessage;
+import org.apache.reef.task.TaskMessageSender;
+import org.apache.reef.vortex.common.KryoUtils;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletAggregationForwardedReport;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletAggregationResultReport;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReport;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReports;
+import org.apache.reef.vortex.protocol.workertoworker.PartialAggregate;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.transport.LinkListener;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exchanges {@link PartialAggregate}s between the VortexWorkers of an aggregation tree
+ * over the {@link NetworkConnectionService}.
+ * Once a partial aggregate is sent to the parent aggregator, the master is told which tasklets were forwarded.
+ * If it cannot be sent, the partial aggregate is reported to the master instead.
+ */
+@Private
+@TaskSide
+@Unstable
+final class TreeAggregationChannel implements AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(TreeAggregationChannel.class.getName());
+  private static final String CONNECTION_FACTORY_ID = "VortexTreeAggregation";
+
+  private final NetworkConnectionService networkConnectionService;
+  private final IdentifierFactory idFactory;
+  private final String workerId;
+  private final TaskMessageSender taskMessageSender;
+  private final KryoUtils kryoUtils;
+
+  @GuardedBy("this")
+  private ConnectionFactory<PartialAggregate> connectionFactory;
+
+  @Inject
+  private TreeAggregationChannel(final NetworkConnectionService networkConnectionService,
+                                 @Parameter(NetworkConnectionServiceIdFactory.class) final IdentifierFactory idFactory,
+                                 @Parameter(TaskConfigurationOptions.Identifier.class) final String workerId,
+                                 final TaskMessageSender taskMessageSender,
+                                 final KryoUtils kryoUtils) {
+    this.networkConnectionService = networkConnectionService;
+    this.idFactory = idFactory;
+    this.workerId = workerId;
+    this.taskMessageSender = taskMessageSender;
+    this.kryoUtils = kryoUtils;
+  }
+
+  /**
+   * Registers this worker as an aggregator, which passes the partial aggregates of its children to the handler.
+   * Has no effect if the channel is already open.
+   */
+  synchronized void open(final EventHandler<PartialAggregate> partialAggregateHandler) {
+    if (connectionFactory == null) {
+      connectionFactory = networkConnectionService.registerConnectionFactory(
+          idFactory.getNewInstance(CONNECTION_FACTORY_ID),
+          new PartialAggregateCodec(),
+          new EventHandler<Message<PartialAggregate>>() {
+            @Override
+            public void onNext(final Message<PartialAggregate> message) {
+              for (final PartialAggregate partialAggregate : message.getData()) {
+                partialAggregateHandler.onNext(partialAggregate);
+              }
+            }
+          },
+          new ForwardListener(),
+          idFactory.getNewInstance(workerId));
+    }
+  }
+
+  /**
+   * Sends the partial aggregate to the parent aggregator.
+   */
+  void forward(final String parentAggregatorId, final PartialAggregate partialAggregate) {
+    final Connection<PartialAggregate> connection;
+    synchronized (this) {
+      connection = connectionFactory.newConnection(idFactory.getNewInstance(parentAggregatorId));
+    }
+
+    try {
+      connection.open();
+    } catch (final NetworkException e) {
+      LOG.log(Level.WARNING, "Cannot connect to the parent aggregator " + parentAggregatorId, e);
+      report(new TaskletAggregationResultReport(partialAggregate.getTaskletIds(), partialAggregate.getResult()));
+      return;
+    }
+    connection.write(partialAggregate);
+  }
+
+  private void report(final WorkerToMasterReport workerToMasterReport) {
+    taskMessageSender.send(TaskMessage.from(VortexWorker.MESSAGE_SOURCE_ID,
+        kryoUtils.serialize(new WorkerToMasterReports(Collections.singletonList(workerToMasterReport)))));
+  }
+
+  @Override
+  public void close() throws Exception {
+    networkConnectionService.close();
+  }
+
+  /**
+   * Tells the master about the forwarded tasklets, or reports the aggregate to the master if it was not sent.
+   */
+  private final class ForwardListener implements LinkListener<Message<PartialAggregate>> {
+    @Override
+    public void onSuccess(final Message<PartialAggregate> message) {
+      for (final PartialAggregate partialAggregate : message.getData()) {
+        report(new TaskletAggregationForwardedReport(
+            partialAggregate.getAggregateFunctionId(), partialAggregate.getTaskletIds()));
+      }
+    }
+
+    @Override
+    public void onException(final Throwable cause,
+                            final SocketAddress remoteAddress,
+                            final Message<PartialAggregate> message) {
+      LOG.log(Level.WARNING, "Cannot send aggregate to the parent aggregator at " + remoteAddress, cause);
+      for (final PartialAggregate partialAggregate : message.getData()) {
+        report(new TaskletAggregationResultReport(partialAggregate.getTaskletIds(), partialAggregate.getResult()));
+      }
+    }
+  }
+
+  private final class PartialAggregateCodec implements Codec<PartialAggregate> {
+    @Override
+    public byte[] encode(final PartialAggregate partialAggregate) {
+      return kryoUtils.serialize(partialAggregate);
+    }
+
+    @Override
+    public PartialAggregate decode(final byte[] data) {
+      return (PartialAggregate) kryoUtils.deserialize(data);
+    }
+  }
+}
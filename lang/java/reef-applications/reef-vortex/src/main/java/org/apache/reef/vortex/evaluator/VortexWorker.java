@@ -20,24 +20,27 @@ package org.apache.reef.vortex.evaluator;
 
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.annotations.Unit;
-import org.apache.reef.task.HeartBeatTriggerManager;
+import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.task.Task;
 import org.apache.reef.task.TaskMessage;
-import org.apache.reef.task.TaskMessageSource;
+import org.apache.reef.task.TaskMessageSender;
 import org.apache.reef.task.events.CloseEvent;
 import org.apache.reef.task.events.DriverMessage;
-import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.common.KryoUtils;
 import org.apache.reef.vortex.protocol.mastertoworker.*;
 import org.apache.reef.vortex.protocol.workertomaster.*;
+import org.apache.reef.vortex.protocol.workertoworker.PartialAggregate;
 import org.apache.reef.vortex.driver.VortexWorkerConf;
 import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -49,25 +52,32 @@ import java.util.logging.Logger;
 @Unstable
 @Unit
 @TaskSide
-public final class VortexWorker implements Task, TaskMessageSource {
+public final class VortexWorker implements Task {
   private static final Logger LOG = Logger.getLogger(VortexWorker.class.getName());
-  private static final String MESSAGE_SOURCE_ID = ""; // empty string as there is no use for it
+  static final String MESSAGE_SOURCE_ID = ""; // empty string as there is no use for it
 
   private final BlockingDeque<byte[]> pendingRequests = new LinkedBlockingDeque<>();
-  private final BlockingDeque<byte[]> workerReports = new LinkedBlockingDeque<>();
   private final ConcurrentMap<Integer, AggregateContainer> aggregates = new ConcurrentHashMap<>();
 
+  // Partial aggregates from child workers that arrived before the aggregate function.
+  private final Map<Integer, List<PartialAggregate>> earlyPartialAggregates = new HashMap<>();
+
   private final KryoUtils kryoUtils;
-  private final HeartBeatTriggerManager heartBeatTriggerManager;
+  private final TaskMessageSender taskMessageSender;
+  private final Injector injector;
   private final int numOfThreads;
   private final CountDownLatch terminated = new CountDownLatch(1);
+  // Only created for tree aggregation, which needs the name resolver that the driver configures for it.
+  private volatile TreeAggregationChannel treeAggregationChannel = null;
 
   @Inject
-  private VortexWorker(final HeartBeatTriggerManager heartBeatTriggerManager,
+  private VortexWorker(final TaskMessageSender taskMessageSender,
                        final KryoUtils kryoUtils,
+                       final Injector injector,
                        @Parameter(VortexWorkerConf.NumOfThreads.class) final int numOfThreads) {
-    this.heartBeatTriggerManager = heartBeatTriggerManager;
+    this.taskMessageSender = taskMessageSender;
     this.kryoUtils = kryoUtils;
+    this.injector = injector;
     this.numOfThreads = numOfThreads;
   }
 
@@ -96,40 +106,95 @@ public final class VortexWorker implements Task, TaskMessageSource {
 
           // Command Executor: Deserialize the command
           final MasterToWorkerRequest masterToWorkerRequest = (MasterToWorkerRequest)kryoUtils.deserialize(message);
-
-          switch (masterToWorkerRequest.getType()) {
-            case AggregateTasklets:
-              final TaskletAggregationRequest taskletAggregationRequest =
-                  (TaskletAggregationRequest) masterToWorkerRequest;
-              aggregates.put(taskletAggregationRequest.getAggregateFunctionId(),
-                  new AggregateContainer(heartBeatTriggerManager, kryoUtils, workerReports,
-                      taskletAggregationRequest));
-              break;
-            case ExecuteAggregateTasklet:
-              executeAggregateTasklet(commandExecutor, masterToWorkerRequest);
-              break;
-            case ExecuteTasklet:
-              executeTasklet(commandExecutor, futures, masterToWorkerRequest);
-              break;
-            case CancelTasklet:
-              final TaskletCancellationRequest cancellationRequest = (TaskletCancellationRequest) masterToWorkerRequest;
-              LOG.log(Level.FINE, "Cancelling Tasklet with ID {0}.", cancellationRequest.getTaskletId());
-              final Future future = futures.get(cancellationRequest.getTaskletId());
-              if (future != null) {
-                future.cancel(true);
-              }
-              break;
-            default:
-              throw new RuntimeException("Unknown Command");
-          }
+          handleRequest(commandExecutor, futures, masterToWorkerRequest);
         }
       }
     });
 
     terminated.await();
+    if (treeAggregationChannel != null) {
+      treeAggregationChannel.close();
+    }
     return null;
   }
 
+  /**
+   * Handles a request from the {@link org.apache.reef.vortex.driver.VortexDriver} on the scheduler thread.
+   */
+  private void handleRequest(final ExecutorService commandExecutor,
+                             final ConcurrentMap<Integer, Future> futures,
+                             final MasterToWorkerRequest masterToWorkerRequest) {
+    switch (masterToWorkerRequest.getType()) {
+    case AggregateTasklets:
+      addAggregateContainer((TaskletAggregationRequest) masterToWorkerRequest);
+      break;
+    case ExecuteAggregateTasklet:
+      executeAggregateTasklet(commandExecutor, masterToWorkerRequest);
+      break;
+    case ExecuteTasklet:
+      executeTasklet(commandExecutor, futures, masterToWorkerRequest);
+      break;
+    case CancelTasklet:
+      final TaskletCancellationRequest cancellationRequest = (TaskletCancellationRequest) masterToWorkerRequest;
+      LOG.log(Level.FINE, "Cancelling Tasklet with ID {0}.", cancellationRequest.getTaskletId());
+      final Future future = futures.get(cancellationRequest.getTaskletId());
+      if (future != null) {
+        future.cancel(true);
+      }
+      break;
+    case Batch:
+      for (final MasterToWorkerRequest request : ((MasterToWorkerRequests) masterToWorkerRequest).getRequests()) {
+        handleRequest(commandExecutor, futures, request);
+      }
+      break;
+    default:
+      throw new RuntimeException("Unknown Command");
+    }
+  }
+
+  /**
+   * Creates the channel to the other workers of the aggregation trees on first use.
+   * Called only by the scheduler thread.
+   */
+  private TreeAggregationChannel getTreeAggregationChannel() {
+    if (treeAggregationChannel == null) {
+      try {
+        treeAggregationChannel = injector.getInstance(TreeAggregationChannel.class);
+      } catch (final InjectionException e) {
+        throw new RuntimeException("Tree aggregation is not configured for this worker", e);
+      }
+    }
+    return treeAggregationChannel;
+  }
+
+  /**
+   * Sets up the aggregation of a {@link org.apache.reef.vortex.api.VortexAggregateFunction}.
+   * In tree aggregation, opens the channel to the other workers of the tree.
+   */
+  private void addAggregateContainer(final TaskletAggregationRequest taskletAggregationRequest) {
+    final TreeAggregationChannel channel;
+    if (taskletAggregationRequest.getPolicy().getTreeFanIn().isPresent()) {
+      channel = getTreeAggregationChannel();
+      channel.open(new PartialAggregateHandler());
+    } else {
+      channel = null;
+    }
+
+    final AggregateContainer aggregateContainer =
+        new AggregateContainer(taskMessageSender, kryoUtils, taskletAggregationRequest, channel);
+    final List<PartialAggregate> partialAggregates;
+    synchronized (earlyPartialAggregates) {
+      aggregates.put(taskletAggregationRequest.getAggregateFunctionId(), aggregateContainer);
+      partialAggregates = earlyPartialAggregates.remove(taskletAggregationRequest.getAggregateFunctionId());
+    }
+
+    if (partialAggregates != null) {
+      for (final PartialAggregate partialAggregate : partialAggregates) {
+        aggregateContainer.partialAggregateReceived(partialAggregate);
+      }
+    }
+  }
+
   /**
    * Executes an tasklet request from the {@link org.apache.reef.vortex.driver.VortexDriver}.
    */
@@ -169,7 +234,6 @@ public final class VortexWorker implements Task, TaskMessageSource {
             }
 
             reports = new WorkerToMasterReports(holder);
-            workerReports.addLast(kryoUtils.serialize(reports));
             try {
               latch.await();
             } catch (final InterruptedException e) {
@@ -177,7 +241,7 @@ public final class VortexWorker implements Task, TaskMessageSource {
               throw new RuntimeException(e);
             }
             futures.remove(taskletExecutionRequest.getTaskletId());
-            heartBeatTriggerManager.triggerHeartBeat();
+            taskMessageSender.send(TaskMessage.from(MESSAGE_SOURCE_ID, kryoUtils.serialize(reports)));
           }
         }));
 
@@ -213,19 +277,6 @@ public final class VortexWorker implements Task, TaskMessageSource {
     });
   }
 
-  /**
-   * @return the workerReport the worker wishes to send.
-   */
-  @Override
-  public Optional<TaskMessage> getMessage() {
-    final byte[] msg = workerReports.pollFirst();
-    if (msg != null) {
-      return Optional.of(TaskMessage.from(MESSAGE_SOURCE_ID, msg));
-    } else {
-      return Optional.empty();
-    }
-  }
-
   /**
    * Handle requests from Vortex Master.
    */
@@ -238,6 +289,29 @@ public final class VortexWorker implements Task, TaskMessageSource {
     }
   }
 
+  /**
+   * Handle partial aggregates from child workers in tree aggregation.
+   */
+  final class PartialAggregateHandler implements EventHandler<PartialAggregate> {
+    @Override
+    public void onNext(final PartialAggregate partialAggregate) {
+      final AggregateContainer aggregateContainer;
+      synchronized (earlyPartialAggregates) {
+        aggregateContainer = aggregates.get(partialAggregate.getAggregateFunctionId());
+        if (aggregateContainer == null) {
+          // The child received the aggregate function before this worker did.
+          if (!earlyPartialAggregates.containsKey(partialAggregate.getAggregateFunctionId())) {
+            earlyPartialAggregates.put(partialAggregate.getAggregateFunctionId(), new ArrayList<PartialAggregate>());
+          }
+          earlyPartialAggregates.get(partialAggregate.getAggregateFunctionId()).add(partialAggregate);
+          return;
+        }
+      }
+
+      aggregateContainer.partialAggregateReceived(partialAggregate);
+    }
+  }
+
   /**
    * Shut down this worker.
    */
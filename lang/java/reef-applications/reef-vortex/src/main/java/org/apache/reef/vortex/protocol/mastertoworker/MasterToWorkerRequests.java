@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.protocol.mastertoworker;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Private;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Container for multiple MasterToWorkerRequests sent to a worker in one message.
+ * The worker handles them in order.
+ */
+@Unstable
+@Private
+public final class MasterToWorkerRequests implements MasterToWorkerRequest {
+  private ArrayList<MasterToWorkerRequest> requests;
+
+  /**
+   * No-arg constructor required for Kryo to serialize/deserialize.
+   */
+  MasterToWorkerRequests() {
+  }
+
+  public MasterToWorkerRequests(final Collection<MasterToWorkerRequest> requests) {
+    this.requests = new ArrayList<>(requests);
+  }
+
+  /**
+   * @return the type of this MasterToWorkerRequest.
+   */
+  @Override
+  public Type getType() {
+    return Type.Batch;
+  }
+
+  /**
+   * @return the requests, in the order they must be handled.
+   */
+  public List<MasterToWorkerRequest> getRequests() {
+    return Collections.unmodifiableList(requests);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.reef.vortex.protocol.mastertoworker;
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.api.VortexAggregateFunction;
 import org.apache.reef.vortex.api.VortexAggregatePolicy;
 import org.apache.reef.vortex.api.VortexFunction;
@@ -39,6 +40,7 @@ public final class TaskletAggregationRequest<TInput, TOutput> implements MasterT
   private VortexAggregateFunction<TOutput> userAggregateFunction;
   private VortexFunction<TInput, TOutput> function;
   private VortexAggregatePolicy policy;
+  private String parentAggregatorId;
 
   /**
    * No-arg constructor required for Kryo to serialize/deserialize.
@@ -50,10 +52,22 @@ public final class TaskletAggregationRequest<TInput, TOutput> implements MasterT
                                    final VortexAggregateFunction<TOutput> aggregateFunction,
                                    final VortexFunction<TInput, TOutput> function,
                                    final VortexAggregatePolicy policy) {
+    this(aggregateFunctionId, aggregateFunction, function, policy, null);
+  }
+
+  /**
+   * @param parentAggregatorId the worker to forward the aggregates to, null to report them to the master.
+   */
+  public TaskletAggregationRequest(final int aggregateFunctionId,
+                                   final VortexAggregateFunction<TOutput> aggregateFunction,
+                                   final VortexFunction<TInput, TOutput> function,
+                                   final VortexAggregatePolicy policy,
+                                   final String parentAggregatorId) {
     this.aggregateFunctionId = aggregateFunctionId;
     this.userAggregateFunction = aggregateFunction;
     this.function = function;
     this.policy = policy;
+    this.parentAggregatorId = parentAggregatorId;
   }
 
   @Override
@@ -89,6 +103,13 @@ public final class TaskletAggregationRequest<TInput, TOutput> implements MasterT
     return policy;
   }
 
+  /**
+   * @return the worker to forward the aggregates to in tree aggregation, or empty to report them to the master.
+   */
+  public Optional<String> getParentAggregatorId() {
+    return Optional.ofNullable(parentAggregatorId);
+  }
+
   /**
    * Execute the aggregate function using the list of outputs.
    * @return Output of the function.
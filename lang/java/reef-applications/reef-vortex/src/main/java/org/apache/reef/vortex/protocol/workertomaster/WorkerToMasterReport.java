@@ -37,7 +37,8 @@ public interface WorkerToMasterReport {
     TaskletAggregationResult,
     TaskletCancelled,
     TaskletFailure,
-    TaskletAggregationFailure
+    TaskletAggregationFailure,
+    TaskletAggregationForwarded
   }
 
   /**
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.protocol.workertoworker;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.TaskSide;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregate of tasklets forwarded by a VortexWorker to its parent aggregator in tree aggregation.
+ */
+@Private
+@TaskSide
+@Unstable
+public final class PartialAggregate {
+  private int aggregateFunctionId;
+  private List<Integer> taskletIds;
+  private Object result;
+
+  /**
+   * No-arg constructor required for Kryo to serialize/deserialize.
+   */
+  PartialAggregate() {
+  }
+
+  /**
+   * @param aggregateFunctionId of the aggregate function.
+   * @param taskletIds of the aggregated tasklets.
+   * @param result of the aggregation.
+   */
+  public PartialAggregate(final int aggregateFunctionId, final List<Integer> taskletIds, final Object result) {
+    this.aggregateFunctionId = aggregateFunctionId;
+    this.taskletIds = Collections.unmodifiableList(new ArrayList<>(taskletIds));
+    this.result = result;
+  }
+
+  /**
+   * @return the AggregateFunctionID of the aggregate function.
+   */
+  public int getAggregateFunctionId() {
+    return aggregateFunctionId;
+  }
+
+  /**
+   * @return the TaskletId(s) of the aggregated tasklets.
+   */
+  public List<Integer> getTaskletIds() {
+    return taskletIds;
+  }
+
+  /**
+   * @return the result of the aggregation.
+   */
+  public Object getResult() {
+    return result;
+  }
+}
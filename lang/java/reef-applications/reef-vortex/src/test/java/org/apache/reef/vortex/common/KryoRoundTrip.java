@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.common;
+
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.vortex.api.VortexFunction;
+import org.apache.reef.vortex.driver.VortexMasterConf;
+import org.apache.reef.vortex.protocol.mastertoworker.TaskletExecutionRequest;
+import org.apache.reef.vortex.protocol.workertomaster.TaskletResultReport;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReport;
+import org.apache.reef.vortex.protocol.workertomaster.WorkerToMasterReports;
+
+import java.util.Collections;
+
+/**
+ * The Master to Worker to Master message round trip, for {@link KryoUtilsTest} and {@link KryoUtilsBenchmark}.
+ */
+final class KryoRoundTrip {
+
+  /**
+   * Serializes and deserializes the messages.
+   */
+  interface Codec {
+    byte[] serialize(Object object);
+
+    Object deserialize(byte[] bytes);
+  }
+
+  /**
+   * Serializes with {@link KryoUtils}.
+   */
+  static final class PooledCodec implements Codec {
+    private final KryoUtils kryoUtils;
+
+    PooledCodec(final KryoUtils kryoUtils) {
+      this.kryoUtils = kryoUtils;
+    }
+
+    @Override
+    public byte[] serialize(final Object object) {
+      return kryoUtils.serialize(object);
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) {
+      return kryoUtils.deserialize(bytes);
+    }
+  }
+
+  private KryoRoundTrip() {
+  }
+
+  /**
+   * Master serializes a request, the Worker deserializes and executes it,
+   * and the Master deserializes the report the Worker serialized.
+   * @return the result of the tasklet, input + 1
+   */
+  static int roundTrip(final Codec codec, final int input) throws Exception {
+    final byte[] requestBytes = codec.serialize(newRequest(input));
+    final TaskletExecutionRequest request = (TaskletExecutionRequest) codec.deserialize(requestBytes);
+    final WorkerToMasterReports reports = new WorkerToMasterReports(Collections.<WorkerToMasterReport>singletonList(
+        new TaskletResultReport(request.getTaskletId(), request.execute())));
+    final byte[] reportBytes = codec.serialize(reports);
+    final WorkerToMasterReports received = (WorkerToMasterReports) codec.deserialize(reportBytes);
+    return (Integer) ((TaskletResultReport) received.getReports().get(0)).getResult();
+  }
+
+  static TaskletExecutionRequest<Integer, Integer> newRequest(final int input) {
+    return new TaskletExecutionRequest<>(input, new AddOneFunction(), input);
+  }
+
+  static KryoUtils newKryoUtils(final boolean registerProtocolClasses) throws InjectionException {
+    return Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(VortexMasterConf.RegisterProtocolClasses.class, Boolean.toString(registerProtocolClasses))
+        .build())
+        .getInstance(KryoUtils.class);
+  }
+
+  private static final class AddOneFunction implements VortexFunction<Integer, Integer> {
+    @Override
+    public Integer call(final Integer input) throws Exception {
+      return input + 1;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.common;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures the throughput and the allocation of the Master to Worker to Master round trip through
+ * {@link KryoUtils}, with and without protocol class registration, against the previous implementation,
+ * which allocated fresh streams and buffers for every message. Runs on a single thread.
+ * Not run by the unit tests; allocation is only reported on JVMs that count the bytes allocated by a thread.
+ * <p>
+ * Usage: KryoUtilsBenchmark [round trips]
+ */
+public final class KryoUtilsBenchmark {
+
+  private static final Logger LOG = Logger.getLogger(KryoUtilsBenchmark.class.getName());
+
+  private KryoUtilsBenchmark() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final int roundTrips = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+    measure("legacy", new LegacyCodec(), roundTrips);
+    measure("pooled", new KryoRoundTrip.PooledCodec(KryoRoundTrip.newKryoUtils(false)), roundTrips);
+    measure("pooled+registered", new KryoRoundTrip.PooledCodec(KryoRoundTrip.newKryoUtils(true)), roundTrips);
+  }
+
+  private static void measure(final String name, final KryoRoundTrip.Codec codec, final int roundTrips)
+      throws Exception {
+    for (int i = 0; i < roundTrips / 10; ++i) {
+      KryoRoundTrip.roundTrip(codec, i);
+    }
+
+    final long allocatedBefore = getAllocatedBytes();
+    final long start = System.nanoTime();
+    long checksum = 0;
+    for (int i = 0; i < roundTrips; ++i) {
+      checksum += KryoRoundTrip.roundTrip(codec, i);
+    }
+    final long elapsed = System.nanoTime() - start;
+    final long allocatedAfter = getAllocatedBytes();
+
+    LOG.log(Level.INFO, "{0}: {1} round trips/s, {2} bytes allocated per round trip (checksum {3})",
+        new Object[] {name, String.format("%.0f", roundTrips * 1e9 / elapsed),
+            allocatedBefore < 0 ? "unknown" : String.format("%.0f", (double) (allocatedAfter - allocatedBefore)
+                / roundTrips), Long.toString(checksum)});
+  }
+
+  /**
+   * @return the bytes allocated by the current thread, or -1 if the JVM does not count them.
+   */
+  private static long getAllocatedBytes() {
+    final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    try {
+      final Method method = threadMXBean.getClass().getMethod("getThreadAllocatedBytes", long.class);
+      method.setAccessible(true);
+      return (Long) method.invoke(threadMXBean, Thread.currentThread().getId());
+    } catch (final ReflectiveOperationException | SecurityException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * The serialization KryoUtils did before it pooled its buffers.
+   */
+  private static final class LegacyCodec implements KryoRoundTrip.Codec {
+    private final Kryo kryo = new Kryo();
+
+    private LegacyCodec() {
+      UnmodifiableCollectionsSerializer.registerSerializers(kryo);
+    }
+
+    @Override
+    public byte[] serialize(final Object object) {
+      try (final Output out = new Output(new ByteArrayOutputStream())) {
+        kryo.writeClassAndObject(out, object);
+        return out.toBytes();
+      }
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) {
+      try (final Input input = new Input(new ByteArrayInputStream(bytes))) {
+        return kryo.readClassAndObject(input);
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.vortex.common;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.KryoSerializable;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.reef.vortex.protocol.mastertoworker.TaskletExecutionRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.reef.vortex.common.KryoRoundTrip.newKryoUtils;
+import static org.apache.reef.vortex.common.KryoRoundTrip.newRequest;
+import static org.apache.reef.vortex.common.KryoRoundTrip.roundTrip;
+
+/**
+ * Tests for KryoUtils. {@link KryoUtilsBenchmark} measures its throughput and allocation.
+ */
+public final class KryoUtilsTest {
+
+  /**
+   * Request and report survive the trip through KryoUtils, with and without protocol class registration,
+   * and registration makes the messages smaller.
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    final KryoRoundTrip.Codec registered = new KryoRoundTrip.PooledCodec(newKryoUtils(true));
+    final KryoRoundTrip.Codec unregistered = new KryoRoundTrip.PooledCodec(newKryoUtils(false));
+    Assert.assertEquals(43, roundTrip(registered, 42));
+    Assert.assertEquals(43, roundTrip(unregistered, 42));
+
+    final TaskletExecutionRequest<Integer, Integer> request = newRequest(42);
+    Assert.assertTrue(registered.serialize(request).length < unregistered.serialize(request).length);
+  }
+
+  /**
+   * Repeated round trips through the same KryoUtils reuse its buffers without mixing up the messages.
+   */
+  @Test
+  public void testRepeatedRoundTrips() throws Exception {
+    final KryoRoundTrip.Codec codec = new KryoRoundTrip.PooledCodec(newKryoUtils(true));
+    for (int i = 0; i < 1000; ++i) {
+      Assert.assertEquals(i + 1, roundTrip(codec, i));
+    }
+  }
+
+  /**
+   * A failure half-way through serialization must not leave bytes behind in the reused buffer.
+   */
+  @Test
+  public void testFailureDoesNotCorruptLaterMessages() throws Exception {
+    final KryoUtils kryoUtils = newKryoUtils(true);
+    final byte[] expected = kryoUtils.serialize(newRequest(1));
+
+    try {
+      kryoUtils.serialize(new FailingSerializable());
+      Assert.fail("Serialization should have failed");
+    } catch (final IllegalStateException expectedException) {
+      Assert.assertEquals("Failing on purpose", expectedException.getMessage());
+    }
+    Assert.assertArrayEquals(expected, kryoUtils.serialize(newRequest(1)));
+
+    try {
+      kryoUtils.deserialize(new byte[] {expected[0]});
+      Assert.fail("Deserialization of a truncated message should have failed");
+    } catch (final KryoException expectedException) {
+      // Truncated message.
+    }
+    Assert.assertEquals(1, ((TaskletExecutionRequest) kryoUtils.deserialize(expected)).getTaskletId());
+  }
+
+  private static final class FailingSerializable implements KryoSerializable {
+    @Override
+    public void write(final Kryo kryo, final Output output) {
+      output.writeInt(42);
+      throw new IllegalStateException("Failing on purpose");
+    }
+
+    @Override
+    public void read(final Kryo kryo, final Input input) {
+    }
+  }
+}
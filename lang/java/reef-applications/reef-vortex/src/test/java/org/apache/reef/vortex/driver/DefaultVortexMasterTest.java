@@ -20,7 +20,13 @@ package org.apache.reef.vortex.driver;
 
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.util.Optional;
+import org.apache.reef.vortex.api.AggregateResult;
+import org.apache.reef.vortex.api.AggregateResultSynchronous;
 import org.apache.reef.vortex.api.FutureCallback;
+import org.apache.reef.vortex.api.VortexAggregateException;
+import org.apache.reef.vortex.api.VortexAggregateFunction;
+import org.apache.reef.vortex.api.VortexAggregatePolicy;
+import org.apache.reef.vortex.api.VortexBulkFuture;
 import org.apache.reef.vortex.api.VortexFunction;
 import org.apache.reef.vortex.api.VortexFuture;
 import org.apache.reef.vortex.protocol.workertomaster.TaskletFailureReport;
@@ -56,7 +62,7 @@ public class DefaultVortexMasterTest {
         testUtil.newAggregateFunctionRepository());
     final PendingTasklets pendingTasklets = new PendingTasklets();
     final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(runningWorkers, pendingTasklets,
-        testUtil.newAggregateFunctionRepository(), 5);
+        testUtil.newAggregateFunctionRepository(), 5, false);
 
     final AtomicBoolean callbackReceived = new AtomicBoolean(false);
     final CountDownLatch latch = new CountDownLatch(1);
@@ -90,6 +96,55 @@ public class DefaultVortexMasterTest {
     assertTrue("Callback should have been received", callbackReceived.get());
   }
 
+  /**
+   * Test that a bulk submission delivers a result for every input while keeping
+   * at most the window of Tasklets outstanding.
+   */
+  @Test(timeout = 10000)
+  public void testBulkSubmission() throws Exception {
+    final int numOfInputs = 100;
+    final int window = 10;
+    final VortexFunction<Integer, Integer> vortexFunction = testUtil.newIntegerFunction();
+    final VortexWorkerManager vortexWorkerManager1 = testUtil.newWorker();
+    final RunningWorkers runningWorkers = new RunningWorkers(new RandomSchedulingPolicy(),
+        testUtil.newAggregateFunctionRepository());
+    final PendingTasklets pendingTasklets = new PendingTasklets();
+    final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(runningWorkers, pendingTasklets,
+        testUtil.newAggregateFunctionRepository(), 5, false);
+    vortexMaster.workerAllocated(vortexWorkerManager1);
+
+    final List<Integer> inputs = new ArrayList<>();
+    for (int i = 0; i < numOfInputs; i++) {
+      inputs.add(i);
+    }
+    final VortexBulkFuture<Integer, Integer> future = vortexMaster.enqueueTasklets(vortexFunction, inputs.iterator(),
+        window);
+
+    final Set<Integer> inputsWithResult = new HashSet<>();
+    while (!future.isDone()) {
+      final List<Tasklet> tasklets = pendingTasklets.takeFirst(numOfInputs);
+      assertTrue("At most the window of Tasklets should be outstanding", tasklets.size() <= window);
+      runningWorkers.launchTasklets(tasklets);
+
+      for (final Tasklet tasklet : tasklets) {
+        final int input = (Integer) tasklet.getInput();
+        final WorkerToMasterReport workerToMasterReport = new TaskletResultReport(tasklet.getId(), input * 2);
+        vortexMaster.workerReported(
+            vortexWorkerManager1.getId(), new WorkerToMasterReports(Collections.singletonList(workerToMasterReport)));
+      }
+
+      for (int i = 0; i < tasklets.size(); i++) {
+        final AggregateResultSynchronous<Integer, Integer> result = future.get();
+        final int input = result.getAggregatedInputs().get(0);
+        assertEquals(input * 2, (int) result.getAggregateResult());
+        assertTrue("Each input should have one result", inputsWithResult.add(input));
+      }
+    }
+
+    assertEquals(numOfInputs, inputsWithResult.size());
+    assertNull("There should be no more results", future.get());
+  }
+
   /**
    * Test handling of single tasklet execution with a failure.
    */
@@ -102,7 +157,7 @@ public class DefaultVortexMasterTest {
         testUtil.newAggregateFunctionRepository());
     final PendingTasklets pendingTasklets = new PendingTasklets();
     final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(runningWorkers, pendingTasklets,
-        testUtil.newAggregateFunctionRepository(), 5);
+        testUtil.newAggregateFunctionRepository(), 5, false);
 
     // Allocate worker & tasklet and schedule
     vortexMaster.workerAllocated(vortexWorkerManager1);
@@ -140,7 +195,7 @@ public class DefaultVortexMasterTest {
         testUtil.newAggregateFunctionRepository());
     final PendingTasklets pendingTasklets = new PendingTasklets();
     final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(runningWorkers, pendingTasklets,
-        testUtil.newAggregateFunctionRepository(), 5);
+        testUtil.newAggregateFunctionRepository(), 5, false);
 
     // Allocate iniital evaluators (will all be preempted later...)
     final List<VortexWorkerManager> initialWorkers = new ArrayList<>();
@@ -195,7 +250,7 @@ public class DefaultVortexMasterTest {
         testUtil.newAggregateFunctionRepository());
     final PendingTasklets pendingTasklets = new PendingTasklets();
     final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(runningWorkers, pendingTasklets,
-        testUtil.newAggregateFunctionRepository(), 5);
+        testUtil.newAggregateFunctionRepository(), 5, false);
 
     final AtomicBoolean callbackReceived = new AtomicBoolean(false);
     final CountDownLatch latch = new CountDownLatch(1);
@@ -271,12 +326,30 @@ public class DefaultVortexMasterTest {
     assertTrue("The VortexFuture should be done", future.isDone());
   }
 
+  /**
+   * Test that an aggregate function with tree aggregation is rejected if tree aggregation is not enabled.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTreeAggregationNotEnabled() throws Exception {
+    final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(
+        new RunningWorkers(new RandomSchedulingPolicy(), testUtil.newAggregateFunctionRepository()),
+        new PendingTasklets(), testUtil.newAggregateFunctionRepository(), 5, false);
+    vortexMaster.enqueueTasklets(new VortexAggregateFunction<Integer>() {
+      @Override
+      public Integer call(final List<Integer> taskletOutputs) throws VortexAggregateException {
+        return taskletOutputs.size();
+      }
+    }, testUtil.newIntegerFunction(),
+        VortexAggregatePolicy.newBuilder().setTimerPeriodTrigger(1000).setTreeAggregationFanIn(2).build(),
+        Collections.singletonList(1), Optional.<FutureCallback<AggregateResult<Integer, Integer>>>empty());
+  }
+
   private VortexFuture createTaskletCancellationFuture(
       final RunningWorkers runningWorkers, final PendingTasklets pendingTasklets) throws InjectionException {
     final VortexFunction vortexFunction = testUtil.newInfiniteLoopFunction();
     final DefaultVortexMaster vortexMaster = new DefaultVortexMaster(
         runningWorkers, pendingTasklets,
-        testUtil.newAggregateFunctionRepository(), 5);
+        testUtil.newAggregateFunctionRepository(), 5, false);
     final VortexWorkerManager vortexWorkerManager1 = testUtil.newWorker(vortexMaster);
 
 
@@ -20,11 +20,19 @@ package org.apache.reef.vortex.driver;
 
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.util.Optional;
+import org.apache.reef.vortex.api.VortexAggregateException;
+import org.apache.reef.vortex.api.VortexAggregateFunction;
+import org.apache.reef.vortex.api.VortexAggregatePolicy;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -34,6 +42,8 @@ import static org.junit.Assert.assertTrue;
  * Test Possible Race Conditions.
  */
 public class RunningWorkersTest {
+  private static final int AGGREGATE_FUNCTION_ID = 0;
+
   private final TestUtil testUtil = new TestUtil();
   private final TestUtil.TestSchedulingPolicy schedulingPolicy = testUtil.newSchedulingPolicy();
   private final RunningWorkers runningWorkers;
@@ -76,4 +86,169 @@ public class RunningWorkersTest {
     runningWorkers.doneTasklets(vortexWorkerManager.getId(), taskletIds);
     assertFalse("Tasklet must not have been completed", schedulingPolicy.taskletIsDone(tasklet.getId()));
   }
+
+  /**
+   * Test tree aggregation: the root reports the aggregate of a child before the child reports it as forwarded.
+   * Possible scenario: Reports from different workers of the tree arrive out of order.
+   */
+  @Test(timeout = 10000)
+  public void aggregateBeforeForwardedInTree() throws Exception {
+    final LastAddedSchedulingPolicy treePolicy = new LastAddedSchedulingPolicy();
+    final RunningWorkers treeWorkers = newTreeAggregationWorkers(treePolicy);
+    final VortexWorkerManager root = testUtil.newWorker();
+    final VortexWorkerManager child = testUtil.newWorker();
+    final Tasklet rootTasklet = newAggregateTasklet(0);
+    final Tasklet childTasklet = newAggregateTasklet(1);
+    treeWorkers.addWorker(root);
+    treeWorkers.launchTasklet(rootTasklet);
+    treeWorkers.addWorker(child);
+    treeWorkers.launchTasklet(childTasklet);
+
+    treeWorkers.doneTasklets(root.getId(), Arrays.asList(rootTasklet.getId(), childTasklet.getId()));
+    assertTrue("Tasklet on root must have been completed", treePolicy.doneTasklets.contains(rootTasklet.getId()));
+    assertTrue("Tasklet on child must have been completed", treePolicy.doneTasklets.contains(childTasklet.getId()));
+    assertFalse("Tasklet must not be running on child", child.containsTasklet(childTasklet.getId()));
+
+    // The late report is ignored.
+    treeWorkers.taskletsForwarded(child.getId(), AGGREGATE_FUNCTION_ID,
+        Collections.singletonList(childTasklet.getId()));
+    assertFalse("Child must not lose tasklets when preempted",
+        treeWorkers.removeWorker(child.getId()).isPresent());
+  }
+
+  /**
+   * Test tree aggregation: a worker forwards an aggregate to its parent, which is then preempted.
+   * Possible scenario: Aggregator is preempted before forwarding the aggregates of its children.
+   */
+  @Test(timeout = 10000)
+  public void removeAggregatorInTree() throws Exception {
+    final LastAddedSchedulingPolicy treePolicy = new LastAddedSchedulingPolicy();
+    final RunningWorkers treeWorkers = newTreeAggregationWorkers(treePolicy);
+    final List<VortexWorkerManager> workers = new ArrayList<>();
+    final List<Tasklet> tasklets = new ArrayList<>();
+    for (int i = 0; i < 4; i++) { // With a fan-in of 2, worker3 forwards to worker1, which forwards to worker0.
+      workers.add(testUtil.newWorker());
+      tasklets.add(newAggregateTasklet(i));
+      treeWorkers.addWorker(workers.get(i));
+      treeWorkers.launchTasklet(tasklets.get(i));
+    }
+
+    treeWorkers.taskletsForwarded(workers.get(3).getId(), AGGREGATE_FUNCTION_ID,
+        Collections.singletonList(tasklets.get(3).getId()));
+    assertTrue("Forwarded tasklet must be done on its worker",
+        treePolicy.doneTasklets.contains(tasklets.get(3).getId()));
+    assertFalse("Worker must not lose tasklets when preempted",
+        treeWorkers.removeWorker(workers.get(3).getId()).isPresent());
+
+    final Collection<Tasklet> lostTasklets = treeWorkers.removeWorker(workers.get(1).getId()).get();
+    assertEquals("Tasklets of aggregator and its child must be lost",
+        new HashSet<>(Arrays.asList(tasklets.get(1), tasklets.get(3))), new HashSet<>(lostTasklets));
+  }
+
+  /**
+   * Test tree aggregation: an aggregator is preempted after receiving aggregates, before the reports of the workers
+   * that forwarded them come in.
+   * Possible scenario: Preemption message from RM comes in before the forwarded report of a child.
+   */
+  @Test(timeout = 10000)
+  public void removeAggregatorBeforeForwardedInTree() throws Exception {
+    final LastAddedSchedulingPolicy treePolicy = new LastAddedSchedulingPolicy();
+    final RunningWorkers treeWorkers = newTreeAggregationWorkers(treePolicy);
+    final List<VortexWorkerManager> workers = new ArrayList<>();
+    final List<Tasklet> tasklets = new ArrayList<>();
+    for (int i = 0; i < 4; i++) { // With a fan-in of 2, worker3 forwards to worker1, which forwards to worker0.
+      workers.add(testUtil.newWorker());
+      tasklets.add(newAggregateTasklet(i));
+      treeWorkers.addWorker(workers.get(i));
+      treeWorkers.launchTasklet(tasklets.get(i));
+    }
+
+    // worker1 holds the aggregate of worker3 when it is preempted, but the master does not know yet.
+    assertEquals("Only the tasklet running on the aggregator is known to be lost",
+        Collections.singletonList(tasklets.get(1)),
+        new ArrayList<>(treeWorkers.removeWorker(workers.get(1).getId()).get()));
+    assertEquals("Tasklet forwarded to the preempted aggregator must be lost",
+        Collections.singletonList(tasklets.get(3)),
+        treeWorkers.taskletsForwarded(workers.get(3).getId(), AGGREGATE_FUNCTION_ID,
+            Collections.singletonList(tasklets.get(3).getId())));
+    assertTrue("Lost tasklet must be done on its worker", treePolicy.doneTasklets.contains(tasklets.get(3).getId()));
+    assertFalse("Worker must not lose tasklets again when preempted",
+        treeWorkers.removeWorker(workers.get(3).getId()).isPresent());
+  }
+
+  /**
+   * Test tree aggregation: the root is preempted after receiving an aggregate that had been forwarded
+   * to its child before, and before the report of the child comes in.
+   */
+  @Test(timeout = 10000)
+  public void removeRootBeforeForwardedInTree() throws Exception {
+    final LastAddedSchedulingPolicy treePolicy = new LastAddedSchedulingPolicy();
+    final RunningWorkers treeWorkers = newTreeAggregationWorkers(treePolicy);
+    final List<VortexWorkerManager> workers = new ArrayList<>();
+    final List<Tasklet> tasklets = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      workers.add(testUtil.newWorker());
+      tasklets.add(newAggregateTasklet(i));
+      treeWorkers.addWorker(workers.get(i));
+      treeWorkers.launchTasklet(tasklets.get(i));
+    }
+
+    assertTrue(treeWorkers.taskletsForwarded(workers.get(3).getId(), AGGREGATE_FUNCTION_ID,
+        Collections.singletonList(tasklets.get(3).getId())).isEmpty());
+    treeWorkers.removeWorker(workers.get(0).getId());
+    assertEquals("Tasklets forwarded to the preempted root must be lost",
+        new HashSet<>(Arrays.asList(tasklets.get(1), tasklets.get(3))),
+        new HashSet<>(treeWorkers.taskletsForwarded(workers.get(1).getId(), AGGREGATE_FUNCTION_ID,
+            Arrays.asList(tasklets.get(1).getId(), tasklets.get(3).getId()))));
+    assertFalse("Aggregator must not lose tasklets again when preempted",
+        treeWorkers.removeWorker(workers.get(1).getId()).isPresent());
+  }
+
+  private RunningWorkers newTreeAggregationWorkers(final SchedulingPolicy policy) throws InjectionException {
+    final AggregateFunctionRepository repository = testUtil.newAggregateFunctionRepository();
+    repository.put(AGGREGATE_FUNCTION_ID, new VortexAggregateFunction<Void>() {
+      @Override
+      public Void call(final List<Void> taskletOutputs) throws VortexAggregateException {
+        return null;
+      }
+    }, VortexAggregatePolicy.newBuilder().setTimerPeriodTrigger(1000).setTreeAggregationFanIn(2).build());
+    return new RunningWorkers(policy, repository);
+  }
+
+  private Tasklet newAggregateTasklet(final int id) {
+    return new Tasklet<>(id, Optional.of(AGGREGATE_FUNCTION_ID), testUtil.newFunction(), null, null);
+  }
+
+  /**
+   * Schedules all the tasklets to the worker added last.
+   */
+  private static final class LastAddedSchedulingPolicy implements SchedulingPolicy {
+    private final Set<Integer> doneTasklets = new HashSet<>();
+    private String lastAddedWorkerId;
+
+    @Override
+    public Optional<String> trySchedule(final Tasklet tasklet) {
+      return Optional.ofNullable(lastAddedWorkerId);
+    }
+
+    @Override
+    public void workerAdded(final VortexWorkerManager vortexWorker) {
+      lastAddedWorkerId = vortexWorker.getId();
+    }
+
+    @Override
+    public void workerRemoved(final VortexWorkerManager vortexWorker) {
+    }
+
+    @Override
+    public void taskletLaunched(final VortexWorkerManager vortexWorker, final Tasklet tasklet) {
+    }
+
+    @Override
+    public void taskletsDone(final VortexWorkerManager vortexWorker, final List<Tasklet> tasklets) {
+      for (final Tasklet tasklet : tasklets) {
+        doneTasklets.add(tasklet.getId());
+      }
+    }
+  }
 }
@@ -24,6 +24,7 @@ import org.apache.reef.bridge.driver.client.DriverClientService;
 import org.apache.reef.bridge.driver.client.DriverServiceClient;
 import org.apache.reef.bridge.driver.client.grpc.parameters.DriverRegistrationTimeout;
 import org.apache.reef.bridge.driver.client.grpc.parameters.DriverServicePort;
+import org.apache.reef.bridge.driver.client.grpc.parameters.EventStreaming;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
 import org.apache.reef.tang.formats.OptionalParameter;
@@ -39,10 +40,13 @@ public final class DriverClientGrpcConfiguration extends ConfigurationModuleBuil
 
   public static final OptionalParameter<Integer> DRIVER_CLIENT_REGISTRATION_TIMEOUT = new OptionalParameter<>();
 
+  public static final OptionalParameter<Boolean> EVENT_STREAMING = new OptionalParameter<>();
+
   public static final ConfigurationModule CONF = new DriverClientGrpcConfiguration()
       .bindImplementation(DriverClientService.class, GRPCDriverClientService.class)
       .bindImplementation(DriverServiceClient.class, GRPCDriverServiceClient.class)
       .bindNamedParameter(DriverServicePort.class, DRIVER_SERVICE_PORT)
       .bindNamedParameter(DriverRegistrationTimeout.class, DRIVER_CLIENT_REGISTRATION_TIMEOUT)
+      .bindNamedParameter(EventStreaming.class, EVENT_STREAMING)
       .build();
 }
@@ -551,7 +551,78 @@ public final class GRPCDriverClientService extends DriverClientGrpc.DriverClient
     }
   }
 
+  @Override
+  public StreamObserver<DriverEventBatch> eventStream(final StreamObserver<Void> responseObserver) {
+    LOG.log(Level.INFO, "Driver service opened event stream");
+    return new StreamObserver<DriverEventBatch>() {
+      @Override
+      public void onNext(final DriverEventBatch batch) {
+        // gRPC delivers the batches of a stream one at a time, so events are handled in driver order.
+        for (final DriverEvent event : batch.getEventsList()) {
+          handleEvent(event);
+        }
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        LOG.log(Level.WARNING, "Event stream failed", t);
+      }
+
+      @Override
+      public void onCompleted() {
+        LOG.log(Level.INFO, "Driver service closed event stream");
+        try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver, Void.getDefaultInstance())) {
+          LOG.log(Level.FINEST, "Completing event stream");
+        }
+      }
+    };
+  }
+
   // Helper methods
+  private void handleEvent(final DriverEvent event) {
+    final StreamObserver<Void> replyObserver = new StreamedEventReplyObserver(event.getEventCase());
+    switch (event.getEventCase()) {
+    case ALLOCATED_EVALUATOR:
+      allocatedEvaluatorHandler(event.getAllocatedEvaluator(), replyObserver);
+      break;
+    case COMPLETED_EVALUATOR:
+      completedEvaluatorHandler(event.getCompletedEvaluator(), replyObserver);
+      break;
+    case FAILED_EVALUATOR:
+      failedEvaluatorHandler(event.getFailedEvaluator(), replyObserver);
+      break;
+    case ACTIVE_CONTEXT:
+      activeContextHandler(event.getActiveContext(), replyObserver);
+      break;
+    case CLOSED_CONTEXT:
+      closedContextHandler(event.getClosedContext(), replyObserver);
+      break;
+    case FAILED_CONTEXT:
+      failedContextHandler(event.getFailedContext(), replyObserver);
+      break;
+    case CONTEXT_MESSAGE:
+      contextMessageHandler(event.getContextMessage(), replyObserver);
+      break;
+    case RUNNING_TASK:
+      runningTaskHandler(event.getRunningTask(), replyObserver);
+      break;
+    case FAILED_TASK:
+      failedTaskHandler(event.getFailedTask(), replyObserver);
+      break;
+    case COMPLETED_TASK:
+      completedTaskHandler(event.getCompletedTask(), replyObserver);
+      break;
+    case SUSPENDED_TASK:
+      suspendedTaskHandler(event.getSuspendedTask(), replyObserver);
+      break;
+    case TASK_MESSAGE:
+      taskMessageHandler(event.getTaskMessage(), replyObserver);
+      break;
+    default:
+      LOG.log(Level.SEVERE, "Unknown event {0}", event.getEventCase());
+    }
+  }
+
   private boolean isIdle() {
     LOG.log(Level.INFO, "Clock idle {0}, outstanding evaluators {1}, current evaluators {2}",
         new Object[] {
@@ -626,4 +697,29 @@ public final class GRPCDriverClientService extends DriverClientGrpc.DriverClient
         eval.getId(),
         eval.getEvaluatorDescriptor());
   }
+
+  /**
+   * Takes the place of the unary response observer for streamed events, which have no reply.
+   */
+  private static final class StreamedEventReplyObserver implements StreamObserver<Void> {
+
+    private final DriverEvent.EventCase eventCase;
+
+    StreamedEventReplyObserver(final DriverEvent.EventCase eventCase) {
+      this.eventCase = eventCase;
+    }
+
+    @Override
+    public void onNext(final Void value) {
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      LOG.log(Level.WARNING, "Failed to handle streamed event " + this.eventCase, t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  }
 }
@@ -22,11 +22,15 @@ package org.apache.reef.bridge.driver.client.grpc;
 import com.google.protobuf.ByteString;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.bridge.driver.client.DriverServiceClient;
 import org.apache.reef.bridge.driver.client.JVMClientProcess;
 import org.apache.reef.bridge.driver.client.grpc.parameters.DriverRegistrationTimeout;
 import org.apache.reef.bridge.driver.client.grpc.parameters.DriverServicePort;
+import org.apache.reef.bridge.driver.client.grpc.parameters.EventStreaming;
+import org.apache.reef.bridge.driver.common.grpc.BatchingStreamWriter;
+import org.apache.reef.bridge.driver.common.grpc.FallbackStreamSender;
 import org.apache.reef.bridge.driver.common.grpc.GRPCUtils;
 import org.apache.reef.bridge.proto.*;
 import org.apache.reef.bridge.proto.Void;
@@ -50,28 +54,48 @@ import java.util.logging.Logger;
 
 /**
  * The client that exposes methods for communicating back to the
- * driver service.
+ * driver service. With {@link EventStreaming}, resource requests and evaluator,
+ * context and task operations are sent in batches on one stream, in order.
  */
 @Private
 public final class GRPCDriverServiceClient implements DriverServiceClient {
 
   private static final Logger LOG = Logger.getLogger(GRPCDriverServiceClient.class.getName());
 
+  /**
+   * Upper bound on the number of operations sent in one batch on the operation stream.
+   */
+  private static final int MAX_OPERATION_BATCH_SIZE = 512;
+
   private final ExceptionCodec exceptionCodec;
 
   private final ConfigurationSerializer configurationSerializer;
 
   private final DriverServiceGrpc.DriverServiceFutureStub serviceStub;
 
+  private final DriverServiceGrpc.DriverServiceStub serviceAsyncStub;
+
   private final int driverRegistrationTimeout;
 
+  private final boolean eventStreaming;
+
+  private final FallbackStreamSender<DriverOperation, DriverOperationBatch> operationSender =
+      new FallbackStreamSender<>("Operation", new FallbackStreamSender.UnaryCall<DriverOperation>() {
+        @Override
+        public void send(final DriverOperation operation) {
+          sendUnary(operation);
+        }
+      });
+
   @Inject
   private GRPCDriverServiceClient(
       final ConfigurationSerializer configurationSerializer,
       final ExceptionCodec exceptionCodec,
       @Parameter(DriverServicePort.class) final int driverServicePort,
-      @Parameter(DriverRegistrationTimeout.class) final int driverRegistrationTimeout) {
+      @Parameter(DriverRegistrationTimeout.class) final int driverRegistrationTimeout,
+      @Parameter(EventStreaming.class) final boolean eventStreaming) {
     this.driverRegistrationTimeout = driverRegistrationTimeout;
+    this.eventStreaming = eventStreaming;
     this.configurationSerializer = configurationSerializer;
     this.exceptionCodec = exceptionCodec;
     final ManagedChannel channel = ManagedChannelBuilder
@@ -79,14 +103,19 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
         .usePlaintext()
         .build();
     this.serviceStub = DriverServiceGrpc.newFutureStub(channel);
+    this.serviceAsyncStub = DriverServiceGrpc.newStub(channel);
   }
 
   public void registerDriverClientService(final String host, final int port) {
     LOG.log(Level.INFO, "Driver client register with driver service on port {0}", port);
+    if (this.eventStreaming) {
+      this.operationSender.setStream(openOperationStream());
+    }
     this.serviceStub.registerDriverClient(
         DriverClientRegistration.newBuilder()
             .setHost(host)
             .setPort(port)
+            .setEventStreaming(this.eventStreaming)
             .build());
   }
 
@@ -105,11 +134,13 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
 
   @Override
   public void onShutdown() {
+    closeOperationStream();
     this.serviceStub.shutdown(ShutdownRequest.newBuilder().build());
   }
 
   @Override
   public void onShutdown(final Throwable ex) {
+    closeOperationStream();
     this.serviceStub.shutdown(ShutdownRequest.newBuilder()
         .setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, ex))
         .build());
@@ -126,7 +157,7 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
 
   @Override
   public void onEvaluatorRequest(final EvaluatorRequest evaluatorRequest) {
-    this.serviceStub.requestResources(
+    send(DriverOperation.newBuilder().setResourceRequest(
         ResourceRequest.newBuilder()
             .setCores(evaluatorRequest.getNumberOfCores())
             .setMemorySize(evaluatorRequest.getMegaBytes())
@@ -135,16 +166,16 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
             .setRuntimeName(evaluatorRequest.getRuntimeName())
             .addAllRackNameList(evaluatorRequest.getRackNames())
             .addAllNodeNameList(evaluatorRequest.getNodeNames())
-            .build());
+            .build()).build());
   }
 
   @Override
   public void onEvaluatorClose(final String evalautorId) {
-    this.serviceStub.allocatedEvaluatorOp(
+    send(DriverOperation.newBuilder().setAllocatedEvaluator(
         AllocatedEvaluatorRequest.newBuilder()
             .setEvaluatorId(evalautorId)
             .setCloseEvaluator(true)
-            .build());
+            .build()).build());
   }
 
   @Override
@@ -186,49 +217,49 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
       builder.setTaskConfiguration(
           this.configurationSerializer.toString(taskConfiguration.get()));
     }
-    this.serviceStub.allocatedEvaluatorOp(builder.build());
+    send(DriverOperation.newBuilder().setAllocatedEvaluator(builder.build()).build());
   }
 
   // Context Operations
 
   @Override
   public void onContextClose(final String contextId) {
-    this.serviceStub.activeContextOp(
+    send(DriverOperation.newBuilder().setActiveContext(
         ActiveContextRequest.newBuilder()
             .setContextId(contextId)
             .setCloseContext(true)
-            .build());
+            .build()).build());
   }
 
   @Override
   public void onContextSubmitContext(
       final String contextId,
       final Configuration contextConfiguration) {
-    this.serviceStub.activeContextOp(
+    send(DriverOperation.newBuilder().setActiveContext(
         ActiveContextRequest.newBuilder()
             .setContextId(contextId)
             .setNewContextRequest(this.configurationSerializer.toString(contextConfiguration))
-            .build());
+            .build()).build());
   }
 
   @Override
   public void onContextSubmitTask(
       final String contextId,
       final Configuration taskConfiguration) {
-    this.serviceStub.activeContextOp(
+    send(DriverOperation.newBuilder().setActiveContext(
         ActiveContextRequest.newBuilder()
             .setContextId(contextId)
             .setNewTaskRequest(this.configurationSerializer.toString(taskConfiguration))
-            .build());
+            .build()).build());
   }
 
   @Override
   public void onContextMessage(final String contextId, final byte[] message) {
-    this.serviceStub.activeContextOp(
+    send(DriverOperation.newBuilder().setActiveContext(
         ActiveContextRequest.newBuilder()
             .setContextId(contextId)
             .setMessage(ByteString.copyFrom(message))
-            .build());
+            .build()).build());
   }
 
   // Task operations
@@ -253,6 +284,70 @@ public final class GRPCDriverServiceClient implements DriverServiceClient {
     if (message != null && message.length > 0) {
       request.setMessage(ByteString.copyFrom(message));
     }
-    this.serviceStub.runningTaskOp(request.build());
+    send(DriverOperation.newBuilder().setRunningTask(request.build()).build());
+  }
+
+  /**
+   * Sends an operation to the driver service, on the operation stream if there is one.
+   * @param operation to send
+   */
+  private void send(final DriverOperation operation) {
+    this.operationSender.send(operation);
+  }
+
+  private void sendUnary(final DriverOperation operation) {
+    switch (operation.getOperationCase()) {
+    case RESOURCE_REQUEST:
+      this.serviceStub.requestResources(operation.getResourceRequest());
+      break;
+    case ALLOCATED_EVALUATOR:
+      this.serviceStub.allocatedEvaluatorOp(operation.getAllocatedEvaluator());
+      break;
+    case ACTIVE_CONTEXT:
+      this.serviceStub.activeContextOp(operation.getActiveContext());
+      break;
+    case RUNNING_TASK:
+      this.serviceStub.runningTaskOp(operation.getRunningTask());
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown operation " + operation.getOperationCase());
+    }
+  }
+
+  private BatchingStreamWriter<DriverOperation, DriverOperationBatch> openOperationStream() {
+    final StreamObserver<DriverOperationBatch> stream = this.serviceAsyncStub.operationStream(
+        new StreamObserver<Void>() {
+          @Override
+          public void onNext(final Void value) {
+          }
+
+          @Override
+          public void onError(final Throwable t) {
+            // Operations already handed to the stream may be lost, and resending them could apply
+            // them twice: the driver cannot be kept consistent, so shut it down.
+            if (GRPCDriverServiceClient.this.operationSender.failStream(t)) {
+              LOG.log(Level.SEVERE, "Operation stream failed", t);
+              onShutdown(new IllegalStateException("Operation stream to the driver service failed", t));
+            } else {
+              LOG.log(Level.FINE, "Operation stream failed after it was closed", t);
+            }
+          }
+
+          @Override
+          public void onCompleted() {
+            LOG.log(Level.INFO, "Operation stream completed");
+          }
+        });
+    return new BatchingStreamWriter<>("DriverOperationStream", stream,
+        new BatchingStreamWriter.BatchBuilder<DriverOperation, DriverOperationBatch>() {
+          @Override
+          public DriverOperationBatch build(final List<DriverOperation> operations) {
+            return DriverOperationBatch.newBuilder().addAllOperations(operations).build();
+          }
+        }, MAX_OPERATION_BATCH_SIZE);
+  }
+
+  private void closeOperationStream() {
+    this.operationSender.close();
   }
 }
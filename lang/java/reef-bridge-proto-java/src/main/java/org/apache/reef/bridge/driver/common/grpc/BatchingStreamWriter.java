@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.common.grpc;
+
+import io.grpc.stub.StreamObserver;
+import org.apache.reef.annotations.audience.Private;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes items to a gRPC stream in batches, in the order they were written.
+ * A single thread drains the queue, so callers never block on the network and
+ * everything that queued up while the previous batch was sent goes out together.
+ * If sending a batch fails, the stream is failed with the error and the writer
+ * rejects further items. The failed batch and everything queued behind it are
+ * kept, in order, for the caller to resend with {@link #drainUnsent()}.
+ * @param <T> item type
+ * @param <B> batch message type
+ */
+@Private
+public final class BatchingStreamWriter<T, B> implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(BatchingStreamWriter.class.getName());
+
+  /**
+   * Builds the batch message for a list of items.
+   * @param <T> item type
+   * @param <B> batch message type
+   */
+  public interface BatchBuilder<T, B> {
+    B build(final List<T> items);
+  }
+
+  private final StreamObserver<B> stream;
+  private final BatchBuilder<T, B> batchBuilder;
+  private final int maxBatchSize;
+  private final BlockingQueue<T> queue = new LinkedBlockingQueue<>();
+  private final Thread sender;
+
+  private final Object lock = new Object();
+  private long written = 0;
+  private long sent = 0;
+  private boolean closed = false;
+  private Throwable failure = null;
+  private final List<T> unsent = new ArrayList<>();
+
+  public BatchingStreamWriter(
+      final String name,
+      final StreamObserver<B> stream,
+      final BatchBuilder<T, B> batchBuilder,
+      final int maxBatchSize) {
+    this.stream = stream;
+    this.batchBuilder = batchBuilder;
+    this.maxBatchSize = maxBatchSize;
+    this.sender = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        sendLoop();
+      }
+    }, name);
+    this.sender.setDaemon(true);
+    this.sender.start();
+  }
+
+  /**
+   * Queues an item for sending.
+   * @param item to send
+   */
+  public void write(final T item) {
+    synchronized (this.lock) {
+      if (this.failure != null) {
+        throw new IllegalStateException("Stream writer failed", this.failure);
+      }
+      if (this.closed) {
+        throw new IllegalStateException("Stream writer is closed");
+      }
+      this.written++;
+      this.queue.add(item);
+    }
+  }
+
+  /**
+   * Waits until all items written so far have been handed to the stream, or the writer failed.
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void flush() throws InterruptedException {
+    synchronized (this.lock) {
+      final long target = this.written;
+      while (this.sent < target && this.sender.isAlive()) {
+        this.lock.wait(100);
+      }
+    }
+  }
+
+  /**
+   * Fails the writer on an error reported by the other end of the stream.
+   * Later writes are rejected and items not yet handed to the stream are kept for {@link #drainUnsent()}.
+   * Items already handed to the stream may or may not have been received.
+   * @param cause of the failure
+   */
+  public void fail(final Throwable cause) {
+    synchronized (this.lock) {
+      if (this.failure == null) {
+        this.failure = cause;
+        this.queue.drainTo(this.unsent);
+        this.lock.notifyAll();
+      }
+    }
+    this.sender.interrupt();
+  }
+
+  /**
+   * @return true if the writer failed to send or was failed
+   */
+  public boolean hasFailed() {
+    synchronized (this.lock) {
+      return this.failure != null;
+    }
+  }
+
+  /**
+   * Returns the items that were written but not sent because the writer failed, in the order
+   * they were written. Each item is returned only once.
+   * @return the unsent items, empty if the writer has not failed
+   */
+  public List<T> drainUnsent() {
+    synchronized (this.lock) {
+      final List<T> items = new ArrayList<>(this.unsent);
+      this.unsent.clear();
+      return items;
+    }
+  }
+
+  /**
+   * Flushes pending items and completes the stream.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (this.lock) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+    }
+    flush();
+    this.sender.interrupt();
+    this.sender.join();
+    synchronized (this.lock) {
+      if (this.failure != null) {
+        return;
+      }
+    }
+    this.stream.onCompleted();
+  }
+
+  private void sendLoop() {
+    final List<T> batch = new ArrayList<>(this.maxBatchSize);
+    try {
+      while (true) {
+        batch.add(this.queue.take());
+        this.queue.drainTo(batch, this.maxBatchSize - 1);
+        synchronized (this.lock) {
+          if (this.failure != null) {
+            // Failed while this batch was taken: it goes ahead of what fail() drained.
+            this.unsent.addAll(0, batch);
+            return;
+          }
+        }
+        this.stream.onNext(this.batchBuilder.build(batch));
+        synchronized (this.lock) {
+          this.sent += batch.size();
+          this.lock.notifyAll();
+        }
+        batch.clear();
+      }
+    } catch (final InterruptedException e) {
+      LOG.log(Level.FINEST, "Stream writer {0} stopped", Thread.currentThread().getName());
+    } catch (final Exception e) {
+      LOG.log(Level.SEVERE, "Stream writer " + Thread.currentThread().getName() + " failed", e);
+      synchronized (this.lock) {
+        if (this.failure != null) {
+          return;
+        }
+        this.failure = e;
+        this.unsent.addAll(batch);
+        this.queue.drainTo(this.unsent);
+        this.lock.notifyAll();
+      }
+      this.stream.onError(e);
+    }
+  }
+}
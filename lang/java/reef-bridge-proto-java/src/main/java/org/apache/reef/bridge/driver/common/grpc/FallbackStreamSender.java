@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.common.grpc;
+
+import org.apache.reef.annotations.audience.Private;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends items on a {@link BatchingStreamWriter} while there is one, and with one unary call each otherwise.
+ * If the writer fails to send, the items it did not send are resent with unary calls, in the order they
+ * were written, before any later item. Unary calls are made one at a time, so they keep that order.
+ * @param <T> item type
+ * @param <B> batch message type of the stream
+ */
+@Private
+public final class FallbackStreamSender<T, B> {
+
+  private static final Logger LOG = Logger.getLogger(FallbackStreamSender.class.getName());
+
+  /**
+   * Sends one item with a unary call.
+   * @param <T> item type
+   */
+  public interface UnaryCall<T> {
+    void send(final T item);
+  }
+
+  private final String name;
+  private final UnaryCall<T> unaryCall;
+  private volatile BatchingStreamWriter<T, B> stream;
+
+  public FallbackStreamSender(final String name, final UnaryCall<T> unaryCall) {
+    this.name = name;
+    this.unaryCall = unaryCall;
+  }
+
+  /**
+   * Sends later items on a stream.
+   * @param newStream to send items on
+   */
+  public synchronized void setStream(final BatchingStreamWriter<T, B> newStream) {
+    this.stream = newStream;
+  }
+
+  /**
+   * @return true if items are sent on a stream
+   */
+  public boolean isStreaming() {
+    return this.stream != null;
+  }
+
+  /**
+   * Sends an item on the stream if there is one, or with a unary call.
+   * @param item to send
+   */
+  public void send(final T item) {
+    final BatchingStreamWriter<T, B> writer = this.stream;
+    if (writer != null) {
+      try {
+        writer.write(item);
+        return;
+      } catch (final IllegalStateException e) {
+        LOG.log(Level.WARNING, this.name + " stream unavailable, falling back to unary calls", e);
+        replayUnsent(writer);
+      }
+    }
+    sendUnary(item);
+  }
+
+  /**
+   * Waits until all items written to the stream so far have been handed to it.
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void flush() throws InterruptedException {
+    final BatchingStreamWriter<T, B> writer = this.stream;
+    if (writer != null) {
+      writer.flush();
+      if (writer.hasFailed()) {
+        replayUnsent(writer);
+      }
+    }
+  }
+
+  /**
+   * Completes the stream. Later items, and any the stream could not send, go with unary calls.
+   */
+  public void close() {
+    final BatchingStreamWriter<T, B> writer = this.stream;
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (final InterruptedException e) {
+        LOG.log(Level.WARNING, "Interrupted while closing the " + this.name + " stream", e);
+      }
+      replayUnsent(writer);
+    }
+  }
+
+  /**
+   * Drops the stream on an error reported by its other end, and sends later items with unary calls.
+   * Items already handed to the stream may or may not have been received, so they are not resent:
+   * the caller has to treat the failure as fatal.
+   * @param cause of the failure
+   * @return false if there was no stream to fail, e.g. because it had been closed
+   */
+  public boolean failStream(final Throwable cause) {
+    final BatchingStreamWriter<T, B> writer;
+    synchronized (this) {
+      writer = this.stream;
+      this.stream = null;
+    }
+    if (writer == null) {
+      return false;
+    }
+    writer.fail(cause);
+    return true;
+  }
+
+  /**
+   * Drops a failed or closed stream and resends, in order, the items it did not send.
+   * Holds the unary call lock throughout, so that no later item overtakes the resent ones.
+   */
+  private synchronized void replayUnsent(final BatchingStreamWriter<T, B> writer) {
+    if (this.stream == writer) {
+      this.stream = null;
+    }
+    for (final T item : writer.drainUnsent()) {
+      this.unaryCall.send(item);
+    }
+  }
+
+  private synchronized void sendUnary(final T item) {
+    this.unaryCall.send(item);
+  }
+}
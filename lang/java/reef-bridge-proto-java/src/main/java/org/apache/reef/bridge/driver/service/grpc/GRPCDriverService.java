@@ -23,6 +23,8 @@ import io.grpc.*;
 import io.grpc.stub.StreamObserver;
 import org.apache.commons.lang.StringUtils;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.bridge.driver.common.grpc.BatchingStreamWriter;
+import org.apache.reef.bridge.driver.common.grpc.FallbackStreamSender;
 import org.apache.reef.bridge.driver.common.grpc.GRPCUtils;
 import org.apache.reef.bridge.driver.common.grpc.ObserverCleanup;
 import org.apache.reef.bridge.driver.service.DriverClientException;
@@ -54,9 +56,9 @@ import org.apache.reef.wake.time.event.StopTime;
 import javax.inject.Inject;
 import java.io.*;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +68,9 @@ import java.util.logging.Logger;
 
 /**
  * GRPC DriverBridgeService that interacts with higher-level languages.
+ * Evaluator, context and task events are sent with one unary call each, or,
+ * if the client asked for it at registration, in batches on a single stream
+ * that keeps the order in which the driver produced them.
  */
 @Private
 public final class GRPCDriverService implements DriverService {
@@ -73,13 +78,26 @@ public final class GRPCDriverService implements DriverService {
 
   private static final Void VOID = Void.newBuilder().build();
 
+  /**
+   * Upper bound on the number of events sent in one batch on the event stream.
+   */
+  private static final int MAX_EVENT_BATCH_SIZE = 512;
+
   private Process driverProcess;
 
   private enum StreamType { STDOUT, STDERR }
 
   private Server server;
 
-  private DriverClientGrpc.DriverClientFutureStub clientStub;
+  private volatile DriverClientGrpc.DriverClientFutureStub clientStub;
+
+  private final FallbackStreamSender<DriverEvent, DriverEventBatch> eventSender = new FallbackStreamSender<>("Event",
+      new FallbackStreamSender.UnaryCall<DriverEvent>() {
+        @Override
+        public void send(final DriverEvent event) {
+          sendUnary(event);
+        }
+      });
 
   private final Clock clock;
 
@@ -99,11 +117,11 @@ public final class GRPCDriverService implements DriverService {
 
   private final String driverClientCommand;
 
-  private final Map<String, AllocatedEvaluator> allocatedEvaluatorMap = new HashMap<>();
+  private final Map<String, AllocatedEvaluator> allocatedEvaluatorMap = new ConcurrentHashMap<>();
 
-  private final Map<String, ActiveContext> activeContextMap = new HashMap<>();
+  private final Map<String, ActiveContext> activeContextMap = new ConcurrentHashMap<>();
 
-  private final Map<String, RunningTask> runningTaskMap = new HashMap<>();
+  private final Map<String, RunningTask> runningTaskMap = new ConcurrentHashMap<>();
 
   private boolean stopped = false;
 
@@ -282,6 +300,7 @@ public final class GRPCDriverService implements DriverService {
     final String componentName = "Java Bridge DriverService";
     if (this.clientStub != null) {
       try {
+        this.eventSender.flush();
         final IdleStatus idleStatus = this.clientStub.idlenessCheckHandler(VOID).get();
         LOG.log(Level.INFO, "is idle: {0}", idleStatus.getIsIdle());
         return new IdleMessage(
@@ -319,6 +338,7 @@ public final class GRPCDriverService implements DriverService {
   public void stopHandler(final StopTime stopTime) {
     synchronized (this) {
       if (clientStub != null) {
+        this.eventSender.close();
         final Future<ExceptionInfo> callCompletion = this.clientStub.stopHandler(
             StopTimeInfo.newBuilder().setStopTime(stopTime.getTimestamp()).build());
         try {
@@ -345,175 +365,151 @@ public final class GRPCDriverService implements DriverService {
 
   @Override
   public void allocatedEvaluatorHandler(final AllocatedEvaluator eval) {
-    synchronized (this) {
-      this.allocatedEvaluatorMap.put(eval.getId(), eval);
-      this.clientStub.allocatedEvaluatorHandler(
-          EvaluatorInfo.newBuilder()
-              .setEvaluatorId(eval.getId())
-              .setDescriptorInfo(
-                  GRPCUtils.toEvaluatorDescriptorInfo(eval.getEvaluatorDescriptor()))
-              .build());
-    }
+    this.allocatedEvaluatorMap.put(eval.getId(), eval);
+    dispatch(DriverEvent.newBuilder().setAllocatedEvaluator(
+        EvaluatorInfo.newBuilder()
+            .setEvaluatorId(eval.getId())
+            .setDescriptorInfo(
+                GRPCUtils.toEvaluatorDescriptorInfo(eval.getEvaluatorDescriptor()))
+            .build()).build());
   }
 
   @Override
   public void completedEvaluatorHandler(final CompletedEvaluator eval) {
-    synchronized (this) {
-      this.allocatedEvaluatorMap.remove(eval.getId());
-      this.clientStub.completedEvaluatorHandler(
-          EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build());
-    }
+    this.allocatedEvaluatorMap.remove(eval.getId());
+    dispatch(DriverEvent.newBuilder().setCompletedEvaluator(
+        EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build()).build());
   }
 
   @Override
   public void failedEvaluatorHandler(final FailedEvaluator eval) {
-    synchronized (this) {
-      this.allocatedEvaluatorMap.remove(eval.getId());
-      this.clientStub.failedEvaluatorHandler(
-          EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build());
-    }
+    this.allocatedEvaluatorMap.remove(eval.getId());
+    dispatch(DriverEvent.newBuilder().setFailedEvaluator(
+        EvaluatorInfo.newBuilder().setEvaluatorId(eval.getId()).build()).build());
   }
 
   @Override
   public void activeContextHandler(final ActiveContext context) {
-    synchronized (this) {
-      this.activeContextMap.put(context.getId(), context);
-      this.clientStub.activeContextHandler(GRPCUtils.toContextInfo(context));
-    }
+    this.activeContextMap.put(context.getId(), context);
+    dispatch(DriverEvent.newBuilder().setActiveContext(GRPCUtils.toContextInfo(context)).build());
   }
 
   @Override
   public void closedContextHandler(final ClosedContext context) {
-    synchronized (this) {
-      this.activeContextMap.remove(context.getId());
-      this.clientStub.closedContextHandler(GRPCUtils.toContextInfo(context));
-    }
+    this.activeContextMap.remove(context.getId());
+    dispatch(DriverEvent.newBuilder().setClosedContext(GRPCUtils.toContextInfo(context)).build());
   }
 
   @Override
   public void failedContextHandler(final FailedContext context) {
-    synchronized (this) {
-      final ExceptionInfo error;
-      if (context.getReason().isPresent()) {
-        final Throwable reason = context.getReason().get();
-        error = GRPCUtils.createExceptionInfo(this.exceptionCodec, reason);
-      } else if (context.getData().isPresent()) {
-        error = ExceptionInfo.newBuilder()
-            .setName(context.toString())
-            .setMessage(context.getDescription().orElse(
-                context.getMessage() != null ? context.getMessage() : ""))
-            .setData(ByteString.copyFrom(context.getData().get()))
-            .build();
-      } else {
-        error = GRPCUtils.createExceptionInfo(this.exceptionCodec, context.asError());
-      }
-      this.activeContextMap.remove(context.getId());
-      this.clientStub.failedContextHandler(GRPCUtils.toContextInfo(context, error));
+    final ExceptionInfo error;
+    if (context.getReason().isPresent()) {
+      final Throwable reason = context.getReason().get();
+      error = GRPCUtils.createExceptionInfo(this.exceptionCodec, reason);
+    } else if (context.getData().isPresent()) {
+      error = ExceptionInfo.newBuilder()
+          .setName(context.toString())
+          .setMessage(context.getDescription().orElse(
+              context.getMessage() != null ? context.getMessage() : ""))
+          .setData(ByteString.copyFrom(context.getData().get()))
+          .build();
+    } else {
+      error = GRPCUtils.createExceptionInfo(this.exceptionCodec, context.asError());
     }
+    this.activeContextMap.remove(context.getId());
+    dispatch(DriverEvent.newBuilder().setFailedContext(GRPCUtils.toContextInfo(context, error)).build());
   }
 
   @Override
   public void contextMessageHandler(final ContextMessage message) {
-    synchronized (this) {
-      this.clientStub.contextMessageHandler(
-          ContextMessageInfo.newBuilder()
-              .setContextId(message.getId())
-              .setMessageSourceId(message.getMessageSourceID())
-              .setSequenceNumber(message.getSequenceNumber())
-              .setPayload(ByteString.copyFrom(message.get()))
-              .build());
-    }
+    dispatch(DriverEvent.newBuilder().setContextMessage(
+        ContextMessageInfo.newBuilder()
+            .setContextId(message.getId())
+            .setMessageSourceId(message.getMessageSourceID())
+            .setSequenceNumber(message.getSequenceNumber())
+            .setPayload(ByteString.copyFrom(message.get()))
+            .build()).build());
   }
 
   @Override
   public void runningTaskHandler(final RunningTask task) {
-    synchronized (this) {
-      final ActiveContext context = task.getActiveContext();
-      if (!this.activeContextMap.containsKey(context.getId())) {
-        this.activeContextMap.put(context.getId(), context);
-      }
-      this.runningTaskMap.put(task.getId(), task);
-      this.clientStub.runningTaskHandler(
-          TaskInfo.newBuilder()
-              .setTaskId(task.getId())
-              .setContext(GRPCUtils.toContextInfo(context))
-              .build());
+    final ActiveContext context = task.getActiveContext();
+    if (!this.activeContextMap.containsKey(context.getId())) {
+      this.activeContextMap.put(context.getId(), context);
     }
+    this.runningTaskMap.put(task.getId(), task);
+    dispatch(DriverEvent.newBuilder().setRunningTask(
+        TaskInfo.newBuilder()
+            .setTaskId(task.getId())
+            .setContext(GRPCUtils.toContextInfo(context))
+            .build()).build());
   }
 
   @Override
   public void failedTaskHandler(final FailedTask task) {
-    synchronized (this) {
-      if (task.getActiveContext().isPresent() &&
-          !this.activeContextMap.containsKey(task.getActiveContext().get().getId())) {
-        this.activeContextMap.put(task.getActiveContext().get().getId(), task.getActiveContext().get());
-      }
-      final TaskInfo.Builder taskInfoBuilder = TaskInfo.newBuilder()
-          .setTaskId(task.getId());
-      if (task.getActiveContext().isPresent()) {
-        taskInfoBuilder.setContext(GRPCUtils.toContextInfo(task.getActiveContext().get()));
-      }
-      if (task.getReason().isPresent()) {
-        taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.getReason().get()));
-      } else if (task.getData().isPresent()) {
-        final Throwable reason = task.asError();
-        taskInfoBuilder.setException(ExceptionInfo.newBuilder()
-            .setName(reason.toString())
-            .setMessage(task.getMessage() != null ? task.getMessage() : "")
-            .setData(ByteString.copyFrom(task.getData().get()))
-            .build());
-      } else {
-        taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.asError()));
-      }
-      this.runningTaskMap.remove(task.getId());
-      this.clientStub.failedTaskHandler(taskInfoBuilder.build());
+    if (task.getActiveContext().isPresent() &&
+        !this.activeContextMap.containsKey(task.getActiveContext().get().getId())) {
+      this.activeContextMap.put(task.getActiveContext().get().getId(), task.getActiveContext().get());
     }
+    final TaskInfo.Builder taskInfoBuilder = TaskInfo.newBuilder()
+        .setTaskId(task.getId());
+    if (task.getActiveContext().isPresent()) {
+      taskInfoBuilder.setContext(GRPCUtils.toContextInfo(task.getActiveContext().get()));
+    }
+    if (task.getReason().isPresent()) {
+      taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.getReason().get()));
+    } else if (task.getData().isPresent()) {
+      final Throwable reason = task.asError();
+      taskInfoBuilder.setException(ExceptionInfo.newBuilder()
+          .setName(reason.toString())
+          .setMessage(task.getMessage() != null ? task.getMessage() : "")
+          .setData(ByteString.copyFrom(task.getData().get()))
+          .build());
+    } else {
+      taskInfoBuilder.setException(GRPCUtils.createExceptionInfo(this.exceptionCodec, task.asError()));
+    }
+    this.runningTaskMap.remove(task.getId());
+    dispatch(DriverEvent.newBuilder().setFailedTask(taskInfoBuilder.build()).build());
   }
 
   @Override
   public void completedTaskHandler(final CompletedTask task) {
-    synchronized (this) {
-      if (!this.activeContextMap.containsKey(task.getActiveContext().getId())) {
-        this.activeContextMap.put(task.getActiveContext().getId(), task.getActiveContext());
-      }
-      this.runningTaskMap.remove(task.getId());
-      this.clientStub.completedTaskHandler(
-          TaskInfo.newBuilder()
-              .setTaskId(task.getId())
-              .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
-              .build());
+    if (!this.activeContextMap.containsKey(task.getActiveContext().getId())) {
+      this.activeContextMap.put(task.getActiveContext().getId(), task.getActiveContext());
     }
+    this.runningTaskMap.remove(task.getId());
+    dispatch(DriverEvent.newBuilder().setCompletedTask(
+        TaskInfo.newBuilder()
+            .setTaskId(task.getId())
+            .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
+            .build()).build());
   }
 
   @Override
   public void suspendedTaskHandler(final SuspendedTask task) {
-    synchronized (this) {
-      if (!this.activeContextMap.containsKey(task.getActiveContext().getId())) {
-        this.activeContextMap.put(task.getActiveContext().getId(), task.getActiveContext());
-      }
-      this.runningTaskMap.remove(task.getId());
-      this.clientStub.suspendedTaskHandler(
-          TaskInfo.newBuilder()
-              .setTaskId(task.getId())
-              .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
-              .setResult(task.get() == null || task.get().length == 0 ?
-                  null : ByteString.copyFrom(task.get()))
-              .build());
+    if (!this.activeContextMap.containsKey(task.getActiveContext().getId())) {
+      this.activeContextMap.put(task.getActiveContext().getId(), task.getActiveContext());
     }
+    this.runningTaskMap.remove(task.getId());
+    dispatch(DriverEvent.newBuilder().setSuspendedTask(
+        TaskInfo.newBuilder()
+            .setTaskId(task.getId())
+            .setContext(GRPCUtils.toContextInfo(task.getActiveContext()))
+            .setResult(task.get() == null || task.get().length == 0 ?
+                null : ByteString.copyFrom(task.get()))
+            .build()).build());
   }
 
   @Override
   public void taskMessageHandler(final TaskMessage message) {
-    synchronized (this) {
-      this.clientStub.taskMessageHandler(
-          TaskMessageInfo.newBuilder()
-              .setTaskId(message.getId())
-              .setContextId(message.getContextId())
-              .setMessageSourceId(message.getMessageSourceID())
-              .setSequenceNumber(message.getSequenceNumber())
-              .setPayload(ByteString.copyFrom(message.get()))
-              .build());
-    }
+    dispatch(DriverEvent.newBuilder().setTaskMessage(
+        TaskMessageInfo.newBuilder()
+            .setTaskId(message.getId())
+            .setContextId(message.getContextId())
+            .setMessageSourceId(message.getMessageSourceID())
+            .setSequenceNumber(message.getSequenceNumber())
+            .setPayload(ByteString.copyFrom(message.get()))
+            .build()).build());
   }
 
   @Override
@@ -566,12 +562,12 @@ public final class GRPCDriverService implements DriverService {
 
   @Override
   public void restartRunningTask(final RunningTask task) {
+    final ActiveContext context = task.getActiveContext();
+    if (!this.activeContextMap.containsKey(context.getId())) {
+      this.activeContextMap.put(context.getId(), context);
+    }
+    this.runningTaskMap.put(task.getId(), task);
     synchronized (this) {
-      final ActiveContext context = task.getActiveContext();
-      if (!this.activeContextMap.containsKey(context.getId())) {
-        this.activeContextMap.put(context.getId(), context);
-      }
-      this.runningTaskMap.put(task.getId(), task);
       this.clientStub.driverRestartRunningTaskHandler(
           TaskInfo.newBuilder()
               .setTaskId(task.getId())
@@ -582,8 +578,8 @@ public final class GRPCDriverService implements DriverService {
 
   @Override
   public void restartActiveContext(final ActiveContext context) {
+    this.activeContextMap.put(context.getId(), context);
     synchronized (this) {
-      this.activeContextMap.put(context.getId(), context);
       this.clientStub.driverRestartActiveContextHandler(
           GRPCUtils.toContextInfo(context));
     }
@@ -613,6 +609,57 @@ public final class GRPCDriverService implements DriverService {
     }
   }
 
+  /**
+   * Sends an event to the client, on the event stream if there is one.
+   * @param event to send
+   */
+  private void dispatch(final DriverEvent event) {
+    this.eventSender.send(event);
+  }
+
+  private void sendUnary(final DriverEvent event) {
+    switch (event.getEventCase()) {
+    case ALLOCATED_EVALUATOR:
+      this.clientStub.allocatedEvaluatorHandler(event.getAllocatedEvaluator());
+      break;
+    case COMPLETED_EVALUATOR:
+      this.clientStub.completedEvaluatorHandler(event.getCompletedEvaluator());
+      break;
+    case FAILED_EVALUATOR:
+      this.clientStub.failedEvaluatorHandler(event.getFailedEvaluator());
+      break;
+    case ACTIVE_CONTEXT:
+      this.clientStub.activeContextHandler(event.getActiveContext());
+      break;
+    case CLOSED_CONTEXT:
+      this.clientStub.closedContextHandler(event.getClosedContext());
+      break;
+    case FAILED_CONTEXT:
+      this.clientStub.failedContextHandler(event.getFailedContext());
+      break;
+    case CONTEXT_MESSAGE:
+      this.clientStub.contextMessageHandler(event.getContextMessage());
+      break;
+    case RUNNING_TASK:
+      this.clientStub.runningTaskHandler(event.getRunningTask());
+      break;
+    case FAILED_TASK:
+      this.clientStub.failedTaskHandler(event.getFailedTask());
+      break;
+    case COMPLETED_TASK:
+      this.clientStub.completedTaskHandler(event.getCompletedTask());
+      break;
+    case SUSPENDED_TASK:
+      this.clientStub.suspendedTaskHandler(event.getSuspendedTask());
+      break;
+    case TASK_MESSAGE:
+      this.clientStub.taskMessageHandler(event.getTaskMessage());
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown event " + event.getEventCase());
+    }
+  }
+
   private Optional<Throwable> parseException(final ExceptionInfo info) {
     if (info.getData() == null || info.getData().isEmpty()) {
       return Optional.empty();
@@ -647,6 +694,9 @@ public final class GRPCDriverService implements DriverService {
               .forAddress(request.getHost(), request.getPort())
               .usePlaintext()
               .build();
+          if (request.getEventStreaming()) {
+            GRPCDriverService.this.eventSender.setStream(openEventStream(channel));
+          }
           synchronized (GRPCDriverService.this) {
             GRPCDriverService.this.clientStub = DriverClientGrpc.newFutureStub(channel);
             GRPCDriverService.this.notifyAll();
@@ -656,29 +706,77 @@ public final class GRPCDriverService implements DriverService {
       }
     }
 
+    private BatchingStreamWriter<DriverEvent, DriverEventBatch> openEventStream(final ManagedChannel channel) {
+      LOG.log(Level.INFO, "Driver client asked for event streaming");
+      final StreamObserver<DriverEventBatch> stream = DriverClientGrpc.newStub(channel).eventStream(
+          new StreamObserver<Void>() {
+            @Override
+            public void onNext(final Void value) {
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+              // Events already handed to the stream may be lost, and resending them could deliver
+              // them twice: the client cannot be kept consistent, so stop the driver.
+              if (GRPCDriverService.this.eventSender.failStream(t)) {
+                LOG.log(Level.SEVERE, "Event stream failed", t);
+                GRPCDriverService.this.clock.stop(new IllegalStateException("Event stream to the client failed", t));
+              } else {
+                LOG.log(Level.FINE, "Event stream failed after it was closed", t);
+              }
+            }
+
+            @Override
+            public void onCompleted() {
+              LOG.log(Level.INFO, "Event stream completed");
+            }
+          });
+      return new BatchingStreamWriter<>("DriverEventStream", stream,
+          new BatchingStreamWriter.BatchBuilder<DriverEvent, DriverEventBatch>() {
+            @Override
+            public DriverEventBatch build(final List<DriverEvent> events) {
+              return DriverEventBatch.newBuilder().addAllEvents(events).build();
+            }
+          }, MAX_EVENT_BATCH_SIZE);
+    }
+
     @Override
     public void requestResources(
         final ResourceRequest request,
         final StreamObserver<Void> responseObserver) {
       try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-        synchronized (GRPCDriverService.this) {
-          EvaluatorRequest.Builder requestBuilder = GRPCDriverService.this.evaluatorRequestor.newRequest();
-          requestBuilder.setNumber(request.getResourceCount());
-          requestBuilder.setNumberOfCores(request.getCores());
-          requestBuilder.setMemory(request.getMemorySize());
-          requestBuilder.setRelaxLocality(request.getRelaxLocality());
-          requestBuilder.setRuntimeName(request.getRuntimeName());
-          if (request.getNodeNameListCount() > 0) {
-            requestBuilder.addNodeNames(request.getNodeNameListList());
-          }
-          if (request.getRackNameListCount() > 0) {
-            for (final String rackName : request.getRackNameListList()) {
-              requestBuilder.addRackName(rackName);
+        applyResourceRequest(request);
+      }
+    }
+
+    @Override
+    public StreamObserver<DriverOperationBatch> operationStream(final StreamObserver<Void> responseObserver) {
+      LOG.log(Level.INFO, "Driver client opened operation stream");
+      return new StreamObserver<DriverOperationBatch>() {
+        @Override
+        public void onNext(final DriverOperationBatch batch) {
+          for (final DriverOperation operation : batch.getOperationsList()) {
+            try {
+              applyOperation(operation);
+            } catch (final StatusRuntimeException e) {
+              LOG.log(Level.SEVERE, "Failed streamed operation " + operation.getOperationCase(), e);
             }
           }
-          GRPCDriverService.this.evaluatorRequestor.submit(requestBuilder.build());
         }
-      }
+
+        @Override
+        public void onError(final Throwable t) {
+          LOG.log(Level.WARNING, "Operation stream failed", t);
+        }
+
+        @Override
+        public void onCompleted() {
+          LOG.log(Level.INFO, "Driver client closed operation stream");
+          try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver, VOID)) {
+            LOG.log(Level.FINEST, "Completing operation stream");
+          }
+        }
+      };
     }
 
     @Override
@@ -709,7 +807,6 @@ public final class GRPCDriverService implements DriverService {
         final AlarmRequest request,
         final StreamObserver<Void> responseObserver) {
       try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-        // do not synchronize when scheduling an alarm (or deadlock)
         LOG.log(Level.INFO, "Set alarm {0} offset {1}",
             new Object[] {request.getAlarmId(), request.getTimeoutMs()});
         LOG.log(Level.INFO, "Alarm class {0}", GRPCDriverService.this.clock.getClass());
@@ -720,8 +817,8 @@ public final class GRPCDriverService implements DriverService {
             synchronized (GRPCDriverService.this) {
               GRPCDriverService.this.clientStub.alarmTrigger(
                   AlarmTriggerInfo.newBuilder().setAlarmId(request.getAlarmId()).build());
-              LOG.log(Level.INFO, "DONE: trigger alarm {0}", request.getAlarmId());
             }
+            LOG.log(Level.INFO, "DONE: trigger alarm {0}", request.getAlarmId());
           }
         });
         LOG.log(Level.INFO, "Alarm {0} scheduled is idle? {1}",
@@ -733,102 +830,14 @@ public final class GRPCDriverService implements DriverService {
     public void allocatedEvaluatorOp(
         final AllocatedEvaluatorRequest request,
         final StreamObserver<Void> responseObserver) {
+      try {
+        applyAllocatedEvaluatorOp(request);
+      } catch (final StatusRuntimeException e) {
+        responseObserver.onError(e);
+        return;
+      }
       try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-        if (request.getEvaluatorConfiguration() == null) {
-          responseObserver.onError(Status.INTERNAL
-              .withDescription("Evaluator configuration required")
-              .asRuntimeException());
-        } else if (request.getContextConfiguration() == null && request.getTaskConfiguration() == null) {
-          responseObserver.onError(Status.INTERNAL
-              .withDescription("Context and/or Task configuration required")
-              .asRuntimeException());
-        } else {
-          synchronized (GRPCDriverService.this) {
-            if (!GRPCDriverService.this.allocatedEvaluatorMap.containsKey(request.getEvaluatorId())) {
-              responseObserver.onError(Status.INTERNAL
-                  .withDescription("Unknown allocated evaluator " + request.getEvaluatorId())
-                  .asRuntimeException());
-            }
-            final AllocatedEvaluator evaluator =
-                GRPCDriverService.this.allocatedEvaluatorMap.get(request.getEvaluatorId());
-            if (request.getCloseEvaluator()) {
-              evaluator.close();
-            } else {
-              for (final String file : request.getAddFilesList()) {
-                evaluator.addFile(new File(file));
-              }
-              for (final String library : request.getAddLibrariesList()) {
-                evaluator.addLibrary(new File(library));
-              }
-              if (request.getSetProcess() != null) {
-                final AllocatedEvaluatorRequest.EvaluatorProcessRequest processRequest =
-                    request.getSetProcess();
-                switch (evaluator.getEvaluatorDescriptor().getProcess().getType()) {
-                case JVM:
-                  setJVMProcess(evaluator, processRequest);
-                  break;
-                case CLR:
-                  setCLRProcess(evaluator, processRequest);
-                  break;
-                default:
-                  throw new RuntimeException("Unknown evaluator process type");
-                }
-              }
-              if (StringUtils.isEmpty(request.getEvaluatorConfiguration())) {
-                // Assume that we are running Java driver client, but this assumption could be a bug so log a warning
-                LOG.log(Level.WARNING, "No evaluator configuration detected. Assuming a Java driver client.");
-                if (StringUtils.isNotEmpty(request.getContextConfiguration()) &&
-                    StringUtils.isNotEmpty(request.getTaskConfiguration())) {
-                  // submit context and task
-                  try {
-                    evaluator.submitContextAndTask(
-                        configurationSerializer.fromString(request.getContextConfiguration()),
-                        configurationSerializer.fromString(request.getTaskConfiguration()));
-                  } catch (final IOException e) {
-                    throw new RuntimeException("error submitting task and context", e);
-                  }
-                } else if (StringUtils.isNotEmpty(request.getContextConfiguration())) {
-                  // submit context
-                  try {
-                    evaluator.submitContext(configurationSerializer.fromString(request.getContextConfiguration()));
-                  } catch (final IOException e) {
-                    throw new RuntimeException("error submitting context", e);
-                  }
-                } else if (StringUtils.isNotEmpty(request.getTaskConfiguration())) {
-                  // submit task
-                  try {
-                    evaluator.submitTask(configurationSerializer.fromString(request.getTaskConfiguration()));
-                  } catch (final IOException e) {
-                    throw new RuntimeException("error submitting task", e);
-                  }
-                } else {
-                  throw new RuntimeException("Missing check for required evaluator configurations");
-                }
-              } else {
-                if (StringUtils.isNotEmpty(request.getContextConfiguration()) &&
-                    StringUtils.isNotEmpty(request.getTaskConfiguration())) {
-                  // submit context and task
-                  ((AllocatedEvaluatorImpl) evaluator).submitContextAndTask(
-                      request.getEvaluatorConfiguration(),
-                      request.getContextConfiguration(),
-                      request.getTaskConfiguration());
-                } else if (StringUtils.isNotEmpty(request.getContextConfiguration())) {
-                  // submit context
-                  ((AllocatedEvaluatorImpl) evaluator).submitContext(
-                      request.getEvaluatorConfiguration(),
-                      request.getContextConfiguration());
-                } else if (StringUtils.isNotEmpty(request.getTaskConfiguration())) {
-                  // submit task
-                  ((AllocatedEvaluatorImpl) evaluator).submitTask(
-                      request.getEvaluatorConfiguration(),
-                      request.getTaskConfiguration());
-                } else {
-                  throw new RuntimeException("Missing check for required evaluator configurations");
-                }
-              }
-            }
-          }
-        }
+        LOG.log(Level.FINEST, "Applied operation on allocated evaluator {0}", request.getEvaluatorId());
       }
     }
 
@@ -836,97 +845,238 @@ public final class GRPCDriverService implements DriverService {
     public void activeContextOp(
         final ActiveContextRequest request,
         final StreamObserver<Void> responseObserver) {
-      synchronized (GRPCDriverService.this) {
-        final String contextId = request.getContextId();
-        final ActiveContext context = GRPCDriverService.this.activeContextMap.get(contextId);
-        if (context == null) {
-          LOG.log(Level.SEVERE, "Context does not exist with id {0}", contextId);
-          responseObserver.onError(Status.INTERNAL
-              .withDescription("Context does not exist with id " + contextId)
-              .asRuntimeException());
-          return;
+      try {
+        applyActiveContextOp(request);
+      } catch (final StatusRuntimeException e) {
+        responseObserver.onError(e);
+        return;
+      }
+      try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
+        LOG.log(Level.FINEST, "Applied operation on context {0}", request.getContextId());
+      }
+    }
+
+    @Override
+    public void runningTaskOp(
+        final RunningTaskRequest request,
+        final StreamObserver<Void> responseObserver) {
+      try {
+        applyRunningTaskOp(request);
+      } catch (final StatusRuntimeException e) {
+        responseObserver.onError(e);
+        return;
+      }
+      try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
+        LOG.log(Level.FINEST, "Applied operation on task {0}", request.getTaskId());
+      }
+    }
+
+    private void applyOperation(final DriverOperation operation) {
+      switch (operation.getOperationCase()) {
+      case RESOURCE_REQUEST:
+        applyResourceRequest(operation.getResourceRequest());
+        break;
+      case ALLOCATED_EVALUATOR:
+        applyAllocatedEvaluatorOp(operation.getAllocatedEvaluator());
+        break;
+      case ACTIVE_CONTEXT:
+        applyActiveContextOp(operation.getActiveContext());
+        break;
+      case RUNNING_TASK:
+        applyRunningTaskOp(operation.getRunningTask());
+        break;
+      default:
+        throw Status.INTERNAL
+            .withDescription("Unknown operation " + operation.getOperationCase())
+            .asRuntimeException();
+      }
+    }
+
+    private void applyResourceRequest(final ResourceRequest request) {
+      final EvaluatorRequest.Builder requestBuilder = GRPCDriverService.this.evaluatorRequestor.newRequest();
+      requestBuilder.setNumber(request.getResourceCount());
+      requestBuilder.setNumberOfCores(request.getCores());
+      requestBuilder.setMemory(request.getMemorySize());
+      requestBuilder.setRelaxLocality(request.getRelaxLocality());
+      requestBuilder.setRuntimeName(request.getRuntimeName());
+      if (request.getNodeNameListCount() > 0) {
+        requestBuilder.addNodeNames(request.getNodeNameListList());
+      }
+      if (request.getRackNameListCount() > 0) {
+        for (final String rackName : request.getRackNameListList()) {
+          requestBuilder.addRackName(rackName);
         }
-        switch (request.getOperationCase()) {
-        case CLOSE_CONTEXT:
-          if (request.getCloseContext()) {
-            try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-              LOG.log(Level.INFO, "closing context {0}", context.getId());
-              context.close();
-            }
-          } else {
-            LOG.log(Level.SEVERE, "Close context operation not set to true");
-            responseObserver.onError(Status.INTERNAL
-                .withDescription("Close context operation not set to true")
-                .asRuntimeException());
+      }
+      GRPCDriverService.this.evaluatorRequestor.submit(requestBuilder.build());
+    }
+
+    private void applyAllocatedEvaluatorOp(final AllocatedEvaluatorRequest request) {
+      if (request.getEvaluatorConfiguration() == null) {
+        throw Status.INTERNAL
+            .withDescription("Evaluator configuration required")
+            .asRuntimeException();
+      } else if (request.getContextConfiguration() == null && request.getTaskConfiguration() == null) {
+        throw Status.INTERNAL
+            .withDescription("Context and/or Task configuration required")
+            .asRuntimeException();
+      } else if (!GRPCDriverService.this.allocatedEvaluatorMap.containsKey(request.getEvaluatorId())) {
+        throw Status.INTERNAL
+            .withDescription("Unknown allocated evaluator " + request.getEvaluatorId())
+            .asRuntimeException();
+      }
+      final AllocatedEvaluator evaluator =
+          GRPCDriverService.this.allocatedEvaluatorMap.get(request.getEvaluatorId());
+      if (request.getCloseEvaluator()) {
+        evaluator.close();
+      } else {
+        for (final String file : request.getAddFilesList()) {
+          evaluator.addFile(new File(file));
+        }
+        for (final String library : request.getAddLibrariesList()) {
+          evaluator.addLibrary(new File(library));
+        }
+        if (request.getSetProcess() != null) {
+          final AllocatedEvaluatorRequest.EvaluatorProcessRequest processRequest =
+              request.getSetProcess();
+          switch (evaluator.getEvaluatorDescriptor().getProcess().getType()) {
+          case JVM:
+            setJVMProcess(evaluator, processRequest);
+            break;
+          case CLR:
+            setCLRProcess(evaluator, processRequest);
+            break;
+          default:
+            throw new RuntimeException("Unknown evaluator process type");
           }
-          break;
-        case MESSAGE:
-          if (request.getMessage() != null) {
-            try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-              LOG.log(Level.INFO, "send message to context {0}", context.getId());
-              context.sendMessage(request.getMessage().toByteArray());
+        }
+        if (StringUtils.isEmpty(request.getEvaluatorConfiguration())) {
+          // Assume that we are running Java driver client, but this assumption could be a bug so log a warning
+          LOG.log(Level.WARNING, "No evaluator configuration detected. Assuming a Java driver client.");
+          if (StringUtils.isNotEmpty(request.getContextConfiguration()) &&
+              StringUtils.isNotEmpty(request.getTaskConfiguration())) {
+            // submit context and task
+            try {
+              evaluator.submitContextAndTask(
+                  configurationSerializer.fromString(request.getContextConfiguration()),
+                  configurationSerializer.fromString(request.getTaskConfiguration()));
+            } catch (final IOException e) {
+              throw new RuntimeException("error submitting task and context", e);
+            }
+          } else if (StringUtils.isNotEmpty(request.getContextConfiguration())) {
+            // submit context
+            try {
+              evaluator.submitContext(configurationSerializer.fromString(request.getContextConfiguration()));
+            } catch (final IOException e) {
+              throw new RuntimeException("error submitting context", e);
+            }
+          } else if (StringUtils.isNotEmpty(request.getTaskConfiguration())) {
+            // submit task
+            try {
+              evaluator.submitTask(configurationSerializer.fromString(request.getTaskConfiguration()));
+            } catch (final IOException e) {
+              throw new RuntimeException("error submitting task", e);
             }
           } else {
-            responseObserver.onError(Status.INTERNAL
-                .withDescription("Empty message on operation send message").asRuntimeException());
-          }
-          break;
-        case NEW_CONTEXT_REQUEST:
-          try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-            LOG.log(Level.INFO, "submitting child context to context {0}", context.getId());
-            ((EvaluatorContext) context).submitContext(request.getNewContextRequest());
+            throw new RuntimeException("Missing check for required evaluator configurations");
           }
-          break;
-        case NEW_TASK_REQUEST:
-          try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-            LOG.log(Level.INFO, "submitting task to context {0}", context.getId());
-            ((EvaluatorContext) context).submitTask(request.getNewTaskRequest());
+        } else {
+          if (StringUtils.isNotEmpty(request.getContextConfiguration()) &&
+              StringUtils.isNotEmpty(request.getTaskConfiguration())) {
+            // submit context and task
+            ((AllocatedEvaluatorImpl) evaluator).submitContextAndTask(
+                request.getEvaluatorConfiguration(),
+                request.getContextConfiguration(),
+                request.getTaskConfiguration());
+          } else if (StringUtils.isNotEmpty(request.getContextConfiguration())) {
+            // submit context
+            ((AllocatedEvaluatorImpl) evaluator).submitContext(
+                request.getEvaluatorConfiguration(),
+                request.getContextConfiguration());
+          } else if (StringUtils.isNotEmpty(request.getTaskConfiguration())) {
+            // submit task
+            ((AllocatedEvaluatorImpl) evaluator).submitTask(
+                request.getEvaluatorConfiguration(),
+                request.getTaskConfiguration());
+          } else {
+            throw new RuntimeException("Missing check for required evaluator configurations");
           }
-          break;
-        default:
-          throw new RuntimeException("Unknown operation " + request.getOperationCase());
         }
       }
     }
 
-    @Override
-    public void runningTaskOp(
-        final RunningTaskRequest request,
-        final StreamObserver<Void> responseObserver) {
-      synchronized (GRPCDriverService.this) {
-        if (!GRPCDriverService.this.runningTaskMap.containsKey(request.getTaskId())) {
-          LOG.log(Level.WARNING, "Unknown task id {0}", request.getTaskId());
-          responseObserver.onError(Status.INTERNAL
-              .withDescription("Task does not exist with id " + request.getTaskId()).asRuntimeException());
+    private void applyActiveContextOp(final ActiveContextRequest request) {
+      final String contextId = request.getContextId();
+      final ActiveContext context = GRPCDriverService.this.activeContextMap.get(contextId);
+      if (context == null) {
+        LOG.log(Level.SEVERE, "Context does not exist with id {0}", contextId);
+        throw Status.INTERNAL
+            .withDescription("Context does not exist with id " + contextId)
+            .asRuntimeException();
+      }
+      switch (request.getOperationCase()) {
+      case CLOSE_CONTEXT:
+        if (request.getCloseContext()) {
+          LOG.log(Level.INFO, "closing context {0}", context.getId());
+          context.close();
         } else {
-          try (final ObserverCleanup _cleanup = ObserverCleanup.of(responseObserver)) {
-            final RunningTask task = GRPCDriverService.this.runningTaskMap.get(request.getTaskId());
-            switch (request.getOperation()) {
-            case CLOSE:
-              LOG.log(Level.INFO, "close task {0}", task.getId());
-              if (request.getMessage().isEmpty()) {
-                task.close();
-              } else {
-                task.close(request.getMessage().toByteArray());
-              }
-              break;
-            case SUSPEND:
-              LOG.log(Level.INFO, "suspend task {0}", task.getId());
-              if (request.getMessage().isEmpty()) {
-                task.suspend();
-              } else {
-                task.suspend(request.getMessage().toByteArray());
-              }
-              break;
-            case SEND_MESSAGE:
-              LOG.log(Level.INFO, "send message to task {0}", task.getId());
-              task.send(request.getMessage().toByteArray());
-              break;
-            default:
-              throw new RuntimeException("Unknown operation " + request.getOperation());
-            }
-          }
+          LOG.log(Level.SEVERE, "Close context operation not set to true");
+          throw Status.INTERNAL
+              .withDescription("Close context operation not set to true")
+              .asRuntimeException();
+        }
+        break;
+      case MESSAGE:
+        if (request.getMessage() != null) {
+          LOG.log(Level.INFO, "send message to context {0}", context.getId());
+          context.sendMessage(request.getMessage().toByteArray());
+        } else {
+          throw Status.INTERNAL
+              .withDescription("Empty message on operation send message").asRuntimeException();
+        }
+        break;
+      case NEW_CONTEXT_REQUEST:
+        LOG.log(Level.INFO, "submitting child context to context {0}", context.getId());
+        ((EvaluatorContext) context).submitContext(request.getNewContextRequest());
+        break;
+      case NEW_TASK_REQUEST:
+        LOG.log(Level.INFO, "submitting task to context {0}", context.getId());
+        ((EvaluatorContext) context).submitTask(request.getNewTaskRequest());
+        break;
+      default:
+        throw new RuntimeException("Unknown operation " + request.getOperationCase());
+      }
+    }
+
+    private void applyRunningTaskOp(final RunningTaskRequest request) {
+      if (!GRPCDriverService.this.runningTaskMap.containsKey(request.getTaskId())) {
+        LOG.log(Level.WARNING, "Unknown task id {0}", request.getTaskId());
+        throw Status.INTERNAL
+            .withDescription("Task does not exist with id " + request.getTaskId()).asRuntimeException();
+      }
+      final RunningTask task = GRPCDriverService.this.runningTaskMap.get(request.getTaskId());
+      switch (request.getOperation()) {
+      case CLOSE:
+        LOG.log(Level.INFO, "close task {0}", task.getId());
+        if (request.getMessage().isEmpty()) {
+          task.close();
+        } else {
+          task.close(request.getMessage().toByteArray());
         }
+        break;
+      case SUSPEND:
+        LOG.log(Level.INFO, "suspend task {0}", task.getId());
+        if (request.getMessage().isEmpty()) {
+          task.suspend();
+        } else {
+          task.suspend(request.getMessage().toByteArray());
+        }
+        break;
+      case SEND_MESSAGE:
+        LOG.log(Level.INFO, "send message to task {0}", task.getId());
+        task.send(request.getMessage().toByteArray());
+        break;
+      default:
+        throw new RuntimeException("Unknown operation " + request.getOperation());
       }
     }
 
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.examples.benchmark;
+
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.apache.reef.bridge.driver.common.grpc.BatchingStreamWriter;
+import org.apache.reef.bridge.driver.common.grpc.ObserverCleanup;
+import org.apache.reef.bridge.proto.DriverClientGrpc;
+import org.apache.reef.bridge.proto.DriverEvent;
+import org.apache.reef.bridge.proto.DriverEventBatch;
+import org.apache.reef.bridge.proto.TaskMessageInfo;
+import org.apache.reef.bridge.proto.Void;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compares delivering driver events to a driver client with one unary call
+ * per event against the batched event stream, over loopback.
+ * Each of a number of simulated evaluators sends a run of task messages; the
+ * benchmark reports throughput, delivery latency, and how many messages
+ * arrived out of order with respect to their evaluator.
+ * <p>
+ * Usage: EventChannelBenchmark [evaluators] [messages per evaluator]
+ */
+public final class EventChannelBenchmark {
+
+  private static final Logger LOG = Logger.getLogger(EventChannelBenchmark.class.getName());
+
+  private static final int MAX_BATCH_SIZE = 512;
+
+  public static void main(final String[] args) throws IOException, InterruptedException {
+    final int evaluators = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    final int messagesPerEvaluator = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+    // Warm up both paths once, then measure.
+    run(false, evaluators, messagesPerEvaluator / 10 + 1);
+    run(true, evaluators, messagesPerEvaluator / 10 + 1);
+    LOG.log(Level.INFO, "unary:  {0}", run(false, evaluators, messagesPerEvaluator));
+    LOG.log(Level.INFO, "stream: {0}", run(true, evaluators, messagesPerEvaluator));
+  }
+
+  private static String run(final boolean streaming, final int evaluators, final int messagesPerEvaluator)
+      throws IOException, InterruptedException {
+    final int total = evaluators * messagesPerEvaluator;
+    final Receiver receiver = new Receiver(total);
+    final Server server = ServerBuilder.forPort(0).addService(receiver).build().start();
+    final ManagedChannel channel = ManagedChannelBuilder
+        .forAddress("localhost", server.getPort())
+        .usePlaintext()
+        .build();
+    try {
+      final long start = System.nanoTime();
+      if (streaming) {
+        final BatchingStreamWriter<DriverEvent, DriverEventBatch> writer = new BatchingStreamWriter<>(
+            "BenchmarkEventStream",
+            DriverClientGrpc.newStub(channel).eventStream(new IgnoringObserver()),
+            new BatchingStreamWriter.BatchBuilder<DriverEvent, DriverEventBatch>() {
+              @Override
+              public DriverEventBatch build(final List<DriverEvent> events) {
+                return DriverEventBatch.newBuilder().addAllEvents(events).build();
+              }
+            }, MAX_BATCH_SIZE);
+        for (int m = 0; m < messagesPerEvaluator; ++m) {
+          for (int e = 0; e < evaluators; ++e) {
+            writer.write(DriverEvent.newBuilder().setTaskMessage(message(e, m)).build());
+          }
+        }
+        receiver.await();
+        writer.close();
+      } else {
+        final DriverClientGrpc.DriverClientFutureStub stub = DriverClientGrpc.newFutureStub(channel);
+        for (int m = 0; m < messagesPerEvaluator; ++m) {
+          for (int e = 0; e < evaluators; ++e) {
+            stub.taskMessageHandler(message(e, m));
+          }
+        }
+        receiver.await();
+      }
+      final double seconds = (System.nanoTime() - start) / 1e9;
+      return String.format("%d events in %.2f s (%.0f events/s), latency mean %.2f ms max %.2f ms, "
+              + "%d out of order", total, seconds, total / seconds,
+          receiver.getMeanLatencyMs(), receiver.getMaxLatencyMs(), receiver.getOutOfOrder());
+    } finally {
+      channel.shutdownNow();
+      server.shutdownNow();
+      server.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private static TaskMessageInfo message(final int evaluator, final int sequenceNumber) {
+    return TaskMessageInfo.newBuilder()
+        .setTaskId("task-" + evaluator)
+        .setMessageSourceId("evaluator-" + evaluator)
+        .setSequenceNumber(sequenceNumber)
+        .setPayload(ByteString.copyFrom(ByteBuffer.allocate(8).putLong(0, System.nanoTime())))
+        .build();
+  }
+
+  /**
+   * Driver client side that records what arrives.
+   */
+  private static final class Receiver extends DriverClientGrpc.DriverClientImplBase {
+
+    private final CountDownLatch done;
+    private final ConcurrentMap<String, Long> lastSequenceNumber = new ConcurrentHashMap<>();
+    private final AtomicInteger outOfOrder = new AtomicInteger();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final int expected;
+
+    Receiver(final int expected) {
+      this.expected = expected;
+      this.done = new CountDownLatch(expected);
+    }
+
+    @Override
+    public void taskMessageHandler(final TaskMessageInfo request, final StreamObserver<Void> responseObserver) {
+      try (final ObserverCleanup<Void> _cleanup = ObserverCleanup.of(responseObserver, Void.getDefaultInstance())) {
+        record(request);
+      }
+    }
+
+    @Override
+    public StreamObserver<DriverEventBatch> eventStream(final StreamObserver<Void> responseObserver) {
+      return new StreamObserver<DriverEventBatch>() {
+        @Override
+        public void onNext(final DriverEventBatch batch) {
+          for (final DriverEvent event : batch.getEventsList()) {
+            record(event.getTaskMessage());
+          }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+          LOG.log(Level.FINE, "Event stream ended", t);
+        }
+
+        @Override
+        public void onCompleted() {
+          try (final ObserverCleanup<Void> _cleanup =
+                   ObserverCleanup.of(responseObserver, Void.getDefaultInstance())) {
+            LOG.log(Level.FINEST, "Event stream completed");
+          }
+        }
+      };
+    }
+
+    private void record(final TaskMessageInfo message) {
+      final long latency = System.nanoTime() - message.getPayload().asReadOnlyByteBuffer().getLong();
+      this.totalLatencyNanos.addAndGet(latency);
+      long max = this.maxLatencyNanos.get();
+      while (latency > max && !this.maxLatencyNanos.compareAndSet(max, latency)) {
+        max = this.maxLatencyNanos.get();
+      }
+      // Unary calls are handled concurrently, so ordering is only checked loosely here.
+      final Long previous = this.lastSequenceNumber.put(message.getMessageSourceId(), message.getSequenceNumber());
+      if (previous != null && previous > message.getSequenceNumber()) {
+        this.outOfOrder.incrementAndGet();
+      }
+      this.done.countDown();
+    }
+
+    void await() throws InterruptedException {
+      if (!this.done.await(10, TimeUnit.MINUTES)) {
+        throw new IllegalStateException("Only " + (this.expected - this.done.getCount()) + " events arrived");
+      }
+    }
+
+    double getMeanLatencyMs() {
+      return this.totalLatencyNanos.get() / 1e6 / this.expected;
+    }
+
+    double getMaxLatencyMs() {
+      return this.maxLatencyNanos.get() / 1e6;
+    }
+
+    int getOutOfOrder() {
+      return this.outOfOrder.get();
+    }
+  }
+
+  /**
+   * Discards the (empty) reply of the event stream.
+   */
+  private static final class IgnoringObserver implements StreamObserver<Void> {
+    @Override
+    public void onNext(final Void value) {
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      LOG.log(Level.FINE, "Event stream reply", t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  }
+
+  /** Empty private constructor to prohibit instantiation of utility class. */
+  private EventChannelBenchmark() {
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.common.grpc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link BatchingStreamWriter}.
+ */
+public final class BatchingStreamWriterTest {
+
+  @Test
+  public void testItemsSentInOrderWithinBatchLimit() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 8);
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; ++i) {
+      writer.write(i);
+      expected.add(i);
+    }
+    writer.close();
+    Assert.assertEquals(expected, observer.getItems());
+    for (final List<Integer> batch : observer.getBatches()) {
+      Assert.assertTrue("Batch of " + batch.size(), batch.size() <= 8);
+    }
+    Assert.assertTrue(observer.isCompleted());
+    Assert.assertNull(observer.getError());
+  }
+
+  @Test
+  public void testItemsQueuedWhileSendingGoInOneBatch() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(true);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 512);
+    writer.write(1);
+    observer.awaitFirstBatch();
+    writer.write(2);
+    writer.write(3);
+    writer.write(4);
+    observer.releaseFirstBatch();
+    writer.flush();
+    Assert.assertEquals(Arrays.asList(Arrays.asList(1), Arrays.asList(2, 3, 4)), observer.getBatches());
+    writer.close();
+    Assert.assertTrue(observer.isCompleted());
+  }
+
+  @Test
+  public void testFlushWaitsForWrittenItems() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 4);
+    for (int i = 0; i < 100; ++i) {
+      writer.write(i);
+    }
+    writer.flush();
+    Assert.assertEquals(100, observer.getItems().size());
+    Assert.assertFalse(observer.isCompleted());
+    writer.close();
+    Assert.assertTrue(observer.isCompleted());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWriteAfterCloseRejected() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 4);
+    writer.close();
+    writer.write(1);
+  }
+
+  @Test
+  public void testFailedSendKeepsUnsentItemsInOrder() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(true);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 2);
+    writer.write(1);
+    observer.awaitFirstBatch();
+    writer.write(2);
+    writer.write(3);
+    writer.write(4);
+    observer.failNextBatches();
+    observer.releaseFirstBatch();
+    writer.flush();
+
+    Assert.assertTrue(writer.hasFailed());
+    Assert.assertNotNull(observer.getError());
+    Assert.assertEquals(Arrays.asList(1), observer.getItems());
+    try {
+      writer.write(5);
+      Assert.fail("Write to a failed writer must be rejected");
+    } catch (final IllegalStateException e) {
+      Assert.assertSame(observer.getError(), e.getCause());
+    }
+    // The failed batch [2, 3] and the queued 4, once.
+    Assert.assertEquals(Arrays.asList(2, 3, 4), writer.drainUnsent());
+    Assert.assertEquals(Collections.<Integer>emptyList(), writer.drainUnsent());
+
+    writer.close();
+    Assert.assertFalse(observer.isCompleted());
+  }
+
+  @Test
+  public void testFailKeepsQueuedItems() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(true);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 512);
+    writer.write(1);
+    observer.awaitFirstBatch();
+    writer.write(2);
+    writer.write(3);
+    final Exception cause = new Exception("Peer failed");
+    writer.fail(cause);
+    observer.releaseFirstBatch();
+
+    Assert.assertTrue(writer.hasFailed());
+    Assert.assertEquals(Arrays.asList(2, 3), writer.drainUnsent());
+    try {
+      writer.write(4);
+      Assert.fail("Write to a failed writer must be rejected");
+    } catch (final IllegalStateException e) {
+      Assert.assertSame(cause, e.getCause());
+    }
+    writer.close();
+    Assert.assertFalse(observer.isCompleted());
+  }
+
+  @Test
+  public void testDrainUnsentEmptyWithoutFailure() throws InterruptedException {
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final BatchingStreamWriter<Integer, List<Integer>> writer =
+        new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 4);
+    writer.write(1);
+    writer.close();
+    Assert.assertFalse(writer.hasFailed());
+    Assert.assertTrue(writer.drainUnsent().isEmpty());
+  }
+}
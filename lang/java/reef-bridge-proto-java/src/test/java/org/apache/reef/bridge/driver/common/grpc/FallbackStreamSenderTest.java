@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.common.grpc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link FallbackStreamSender}, which orders the events and operations
+ * of the gRPC driver service and client across the stream and unary calls.
+ */
+public final class FallbackStreamSenderTest {
+
+  /**
+   * Records the items sent with unary calls.
+   */
+  private static final class RecordingUnaryCall implements FallbackStreamSender.UnaryCall<Integer> {
+
+    private final List<Integer> items = new ArrayList<>();
+
+    @Override
+    public synchronized void send(final Integer item) {
+      this.items.add(item);
+    }
+
+    synchronized List<Integer> getItems() {
+      return new ArrayList<>(this.items);
+    }
+  }
+
+  private static BatchingStreamWriter<Integer, List<Integer>> newWriter(final RecordingStreamObserver observer) {
+    return new BatchingStreamWriter<>("TestStream", observer, RecordingStreamObserver.BATCH_BUILDER, 512);
+  }
+
+  @Test
+  public void testUnaryWithoutStream() {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    Assert.assertFalse(sender.isStreaming());
+    sender.send(1);
+    sender.send(2);
+    sender.close();
+    Assert.assertEquals(Arrays.asList(1, 2), unary.getItems());
+  }
+
+  @Test
+  public void testStreamedInOrder() throws InterruptedException {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    sender.setStream(newWriter(observer));
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; ++i) {
+      sender.send(i);
+      expected.add(i);
+    }
+    sender.flush();
+    Assert.assertEquals(expected, observer.getItems());
+    sender.close();
+    Assert.assertTrue(observer.isCompleted());
+    Assert.assertTrue(unary.getItems().isEmpty());
+  }
+
+  @Test
+  public void testStreamFailureReplaysUnsentBeforeLaterItems() throws InterruptedException {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final RecordingStreamObserver observer = new RecordingStreamObserver(true);
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    sender.setStream(newWriter(observer));
+    sender.send(1);
+    observer.awaitFirstBatch();
+    sender.send(2);
+    sender.send(3);
+    observer.failNextBatches();
+    observer.releaseFirstBatch();
+    sender.flush();
+
+    sender.send(4);
+    sender.send(5);
+    Assert.assertFalse(sender.isStreaming());
+    Assert.assertEquals(Arrays.asList(1), observer.getItems());
+    Assert.assertEquals(Arrays.asList(2, 3, 4, 5), unary.getItems());
+  }
+
+  @Test
+  public void testCloseReplaysUnsent() throws InterruptedException {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final RecordingStreamObserver observer = new RecordingStreamObserver(true);
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    sender.setStream(newWriter(observer));
+    sender.send(1);
+    observer.awaitFirstBatch();
+    sender.send(2);
+    sender.send(3);
+    observer.failNextBatches();
+    observer.releaseFirstBatch();
+    sender.close();
+
+    Assert.assertFalse(sender.isStreaming());
+    Assert.assertEquals(Arrays.asList(1), observer.getItems());
+    Assert.assertEquals(Arrays.asList(2, 3), unary.getItems());
+  }
+
+  @Test
+  public void testFailStreamSendsLaterItemsUnary() throws InterruptedException {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    sender.setStream(newWriter(observer));
+    sender.send(1);
+    sender.flush();
+
+    Assert.assertTrue(sender.failStream(new Exception("Peer failed")));
+    Assert.assertFalse(sender.isStreaming());
+    Assert.assertFalse("Stream already dropped", sender.failStream(new Exception("Peer failed again")));
+    sender.send(2);
+    Assert.assertEquals(Arrays.asList(1), observer.getItems());
+    Assert.assertEquals(Arrays.asList(2), unary.getItems());
+  }
+
+  @Test
+  public void testFailStreamAfterCloseIgnored() {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final RecordingStreamObserver observer = new RecordingStreamObserver(false);
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    sender.setStream(newWriter(observer));
+    sender.send(1);
+    sender.close();
+    Assert.assertTrue(observer.isCompleted());
+    Assert.assertFalse(sender.failStream(new Exception("Stream closed")));
+  }
+
+  @Test
+  public void testConcurrentSendersKeepPerThreadOrderAcrossFailure() throws InterruptedException {
+    final RecordingUnaryCall unary = new RecordingUnaryCall();
+    final RecordingStreamObserver observer = new RecordingStreamObserver(true);
+    final FallbackStreamSender<Integer, List<Integer>> sender = new FallbackStreamSender<>("Test", unary);
+    sender.setStream(newWriter(observer));
+    sender.send(-1);
+    observer.awaitFirstBatch();
+    observer.failNextBatches();
+
+    final int threads = 4;
+    final int perThread = 500;
+    final Thread[] senders = new Thread[threads];
+    for (int t = 0; t < threads; ++t) {
+      final int base = t * perThread;
+      senders[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < perThread; ++i) {
+            sender.send(base + i);
+          }
+        }
+      });
+      senders[t].start();
+    }
+    observer.releaseFirstBatch();
+    for (final Thread thread : senders) {
+      thread.join();
+    }
+    sender.close();
+
+    // Every item arrives exactly once, and each thread's items in the order it sent them.
+    final List<Integer> received = new ArrayList<>(observer.getItems());
+    received.addAll(unary.getItems());
+    Assert.assertEquals(threads * perThread + 1, received.size());
+    final int[] last = new int[threads];
+    Arrays.fill(last, -1);
+    for (final int item : received) {
+      if (item < 0) {
+        continue;
+      }
+      final int t = item / perThread;
+      Assert.assertTrue("Item " + item + " out of order", item % perThread > last[t]);
+      last[t] = item % perThread;
+    }
+  }
+}
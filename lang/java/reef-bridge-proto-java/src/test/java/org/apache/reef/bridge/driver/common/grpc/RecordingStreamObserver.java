@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.bridge.driver.common.grpc;
+
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream observer that records the batches it receives. It can hold the first batch
+ * until released, so that tests control what queues up behind it, and fail later batches.
+ */
+final class RecordingStreamObserver implements StreamObserver<List<Integer>> {
+
+  static final BatchingStreamWriter.BatchBuilder<Integer, List<Integer>> BATCH_BUILDER =
+      new BatchingStreamWriter.BatchBuilder<Integer, List<Integer>>() {
+        @Override
+        public List<Integer> build(final List<Integer> items) {
+          return new ArrayList<>(items);
+        }
+      };
+
+  private final List<List<Integer>> batches = new ArrayList<>();
+  private final CountDownLatch firstBatchEntered = new CountDownLatch(1);
+  private final CountDownLatch firstBatchReleased;
+  private volatile boolean failing = false;
+  private Throwable error = null;
+  private boolean completed = false;
+
+  RecordingStreamObserver(final boolean holdFirstBatch) {
+    this.firstBatchReleased = new CountDownLatch(holdFirstBatch ? 1 : 0);
+  }
+
+  @Override
+  public void onNext(final List<Integer> batch) {
+    if (this.failing) {
+      throw new IllegalStateException("Test stream failure");
+    }
+    this.firstBatchEntered.countDown();
+    try {
+      this.firstBatchReleased.await();
+    } catch (final InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+    synchronized (this) {
+      this.batches.add(batch);
+    }
+  }
+
+  @Override
+  public synchronized void onError(final Throwable t) {
+    this.error = t;
+  }
+
+  @Override
+  public synchronized void onCompleted() {
+    this.completed = true;
+  }
+
+  void awaitFirstBatch() throws InterruptedException {
+    if (!this.firstBatchEntered.await(10, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("First batch was not sent");
+    }
+  }
+
+  void releaseFirstBatch() {
+    this.firstBatchReleased.countDown();
+  }
+
+  /**
+   * Makes every later batch fail.
+   */
+  void failNextBatches() {
+    this.failing = true;
+  }
+
+  synchronized List<List<Integer>> getBatches() {
+    return new ArrayList<>(this.batches);
+  }
+
+  synchronized List<Integer> getItems() {
+    final List<Integer> items = new ArrayList<>();
+    for (final List<Integer> batch : this.batches) {
+      items.addAll(batch);
+    }
+    return items;
+  }
+
+  synchronized Throwable getError() {
+    return this.error;
+  }
+
+  synchronized boolean isCompleted() {
+    return this.completed;
+  }
+}
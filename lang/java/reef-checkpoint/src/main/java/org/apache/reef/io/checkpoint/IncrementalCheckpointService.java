@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+/**
+ * A CheckpointService that stores checkpoints incrementally and persists them asynchronously.
+ * <p>
+ * The content of a checkpoint is split into chunks that are addressed by their content, so a chunk that is
+ * identical to one stored by an earlier checkpoint is not written again. Writes to a
+ * {@link CheckpointService.CheckpointWriteChannel} are handed off to background threads, and
+ * {@link #commitAsync(CheckpointWriteChannel) commitAsync} returns a Future that completes once the checkpoint
+ * is durable. The atomicity guarantees of {@link CheckpointService} still hold: the CheckpointID is only
+ * released through that Future after every chunk and the checkpoint itself have been stored successfully.
+ * <p>
+ * Since chunks may be shared between checkpoints, {@link #delete(CheckpointID) delete} only discards the
+ * checkpoint itself; reclaiming chunks that are no longer referenced is left to the implementation.
+ */
+public interface IncrementalCheckpointService extends CheckpointService {
+
+  /**
+   * Creates a checkpoint that is expected to share most of its content with an earlier one.
+   * The chunks of the base checkpoint are known to be stored already, so the implementation does not need
+   * to look them up again. The new checkpoint does not depend on the base one being kept around.
+   *
+   * @param base CheckpointID of an earlier checkpoint created by this service
+   * @return a CheckpointWriteChannel that can be used to write to the checkpoint
+   * @throws IOException
+   * @throws InterruptedException
+   */
+  CheckpointWriteChannel create(CheckpointID base) throws IOException, InterruptedException;
+
+  /**
+   * Closes an existing checkpoint for writes without waiting for it to be stored.
+   * The returned Future yields the CheckpointID once all the data written to the channel is durable,
+   * or fails with the IOException that prevented it.
+   *
+   * @param channel the CheckpointWriteChannel to commit
+   * @return a Future of the CheckpointID
+   * @throws IOException
+   */
+  Future<CheckpointID> commitAsync(CheckpointWriteChannel channel) throws IOException;
+}
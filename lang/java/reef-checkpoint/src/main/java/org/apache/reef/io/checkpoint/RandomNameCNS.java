@@ -35,7 +35,7 @@ public class RandomNameCNS implements CheckpointNamingService {
   private final int lengthOfRandomSuffix;
 
   @Deprecated
-  public RandomNameCNS(@Parameter(PREFIX.class) final String prefix) {
+  public RandomNameCNS(final String prefix) {
     this.prefix = prefix;
     this.lengthOfRandomSuffix
             = Integer.parseInt(LengthOfRandomSuffix.class.getAnnotation(NamedParameter.class).default_value());
@@ -0,0 +1,722 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointNamingService;
+import org.apache.reef.io.checkpoint.IncrementalCheckpointService;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A FileSystem based IncrementalCheckpointService.
+ * <p>
+ * The data written to a checkpoint is cut into fixed-size chunks. Each chunk is stored once under
+ * {@code <base>/chunks/<digest of its content>}, and the checkpoint itself is a small manifest listing its chunks,
+ * which is moved to its final destination at commit time like in {@link FSCheckpointService}.
+ * A checkpoint that differs from an earlier one in a few places therefore only writes the chunks that changed.
+ * <p>
+ * Full chunks are hashed and written by a pool of I/O threads while the caller fills the next buffer;
+ * the caller only blocks when all the write buffers of a channel are in flight. Reads fetch the chunks
+ * ahead of the reader on the same pool. Integrity of the chunk files is left to the FileSystem checksums.
+ * <p>
+ * Chunks may be shared by several checkpoints, also of other evaluators writing under the same base path,
+ * so deleting a checkpoint only deletes its manifest. The chunks no manifest refers to any more are deleted by
+ * {@link #collectGarbage()}, which scans all checkpoints under the base path. It is never run implicitly:
+ * a writer that finds a chunk already stored relies on it staying there, which only the application can ensure,
+ * e.g. by letting the driver collect garbage while no evaluator writes checkpoints.
+ */
+public class ChunkedFSCheckpointService implements IncrementalCheckpointService, AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(ChunkedFSCheckpointService.class.getName());
+
+  private static final String CHUNK_DIR = "chunks";
+  private static final int MANIFEST_MAGIC = 0x52434b31;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final Path basePath;
+  private final Path chunkPath;
+  private final FileSystem fs;
+  private final CheckpointNamingService namingPolicy;
+  private final short replication;
+  private final int chunkSize;
+  private final int writeBuffers;
+  private final int ioThreads;
+  private final String digestAlgorithm;
+  private final int digestLength;
+
+  /**
+   * Channels that have not been committed or aborted yet. Their chunks are not garbage.
+   */
+  private final Set<ChunkedWriteChannel> pendingChannels =
+      Collections.newSetFromMap(new ConcurrentHashMap<ChunkedWriteChannel, Boolean>());
+
+  /**
+   * Chunk writers hold the read lock from the existence check of a chunk until it is recorded in its channel;
+   * garbage collection holds the write lock, so that it never deletes a chunk a writer has just found.
+   */
+  private final ReadWriteLock chunkLock = new ReentrantReadWriteLock();
+
+  private final ExecutorService ioExecutor;
+  private final ExecutorService commitExecutor;
+
+  @Inject
+  ChunkedFSCheckpointService(final FileSystem fs,
+                             @Parameter(FSCheckpointService.PATH.class) final String basePath,
+                             final CheckpointNamingService namingPolicy,
+                             @Parameter(FSCheckpointService.ReplicationFactor.class) final short replication,
+                             @Parameter(ChunkSize.class) final int chunkSize,
+                             @Parameter(WriteBuffers.class) final int writeBuffers,
+                             @Parameter(IoThreads.class) final int ioThreads,
+                             @Parameter(ChunkDigest.class) final String digestAlgorithm)
+      throws NoSuchAlgorithmException {
+    this(fs, new Path(basePath), namingPolicy, replication, chunkSize, writeBuffers, ioThreads, digestAlgorithm);
+  }
+
+  public ChunkedFSCheckpointService(final FileSystem fs,
+                                    final Path base,
+                                    final CheckpointNamingService namingPolicy,
+                                    final short replication,
+                                    final int chunkSize,
+                                    final int writeBuffers,
+                                    final int ioThreads,
+                                    final String digestAlgorithm) throws NoSuchAlgorithmException {
+    if (chunkSize <= 0 || writeBuffers < 1 || ioThreads < 1) {
+      throw new IllegalArgumentException("Invalid chunking parameters: chunkSize=" + chunkSize +
+          " writeBuffers=" + writeBuffers + " ioThreads=" + ioThreads);
+    }
+    this.fs = fs;
+    this.basePath = base;
+    this.chunkPath = new Path(base, CHUNK_DIR);
+    this.namingPolicy = namingPolicy;
+    this.replication = replication;
+    this.chunkSize = chunkSize;
+    this.writeBuffers = writeBuffers;
+    this.ioThreads = ioThreads;
+    this.digestAlgorithm = digestAlgorithm;
+    this.digestLength = MessageDigest.getInstance(digestAlgorithm).getDigestLength();
+    this.ioExecutor = Executors.newFixedThreadPool(ioThreads, new DaemonThreadFactory("ChunkedCheckpointIO"));
+    // Commits wait on chunk writes, so they must not occupy the I/O threads.
+    this.commitExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("ChunkedCheckpointCommit"));
+  }
+
+  @Override
+  public CheckpointWriteChannel create() throws IOException {
+
+    final String name = namingPolicy.getNewName();
+    final Path p = new Path(name);
+    if (p.isUriPathAbsolute()) {
+      throw new IOException("Checkpoint name cannot be an absolute path.");
+    }
+
+    final Path destination = new Path(basePath, p);
+    // Fail early if the manifest cannot be written, see FSCheckpointService#createInternal.
+    fs.create(FSCheckpointService.tmpfile(destination), replication).close();
+    final ChunkedWriteChannel channel = new ChunkedWriteChannel(destination);
+    pendingChannels.add(channel);
+    return channel;
+  }
+
+  /**
+   * Chunks are content-addressed, so a checkpoint shares the chunks it has in common with any earlier
+   * checkpoint, including the base. The base only needs to be a valid checkpoint of this service.
+   */
+  @Override
+  public CheckpointWriteChannel create(final CheckpointID base) throws IOException {
+    readManifest(checkId(base));
+    return create();
+  }
+
+  @Override
+  public CheckpointID commit(final CheckpointWriteChannel ch) throws IOException, InterruptedException {
+    try {
+      return commitAsync(ch).get();
+    } catch (final ExecutionException e) {
+      throw asIOException(e);
+    }
+  }
+
+  @Override
+  public Future<CheckpointID> commitAsync(final CheckpointWriteChannel ch) throws IOException {
+
+    if (ch.isOpen()) {
+      ch.close();
+    }
+
+    final ChunkedWriteChannel cch = (ChunkedWriteChannel) ch;
+    return commitExecutor.submit(new Callable<CheckpointID>() {
+      @Override
+      public CheckpointID call() throws IOException, InterruptedException {
+        try {
+          return commitInternal(cch);
+        } catch (final IOException | InterruptedException e) {
+          abort(cch);
+          throw e;
+        }
+      }
+    });
+  }
+
+  private CheckpointID commitInternal(final ChunkedWriteChannel ch) throws IOException, InterruptedException {
+
+    final Path dst = ch.getDestination();
+    final List<byte[]> digests = new ArrayList<>(ch.chunks.size());
+    final List<Integer> lengths = new ArrayList<>(ch.chunks.size());
+    long written = 0;
+    for (final Future<StoredChunk> f : ch.chunks) {
+      final StoredChunk chunk;
+      try {
+        chunk = f.get();
+      } catch (final ExecutionException e) {
+        throw asIOException(e);
+      }
+      digests.add(chunk.digest);
+      lengths.add(chunk.length);
+      if (chunk.isNew) {
+        written += chunk.length;
+      }
+    }
+
+    try (final FSDataOutputStream out = fs.create(FSCheckpointService.tmpfile(dst), true)) {
+      out.writeInt(MANIFEST_MAGIC);
+      out.writeInt(digestLength);
+      out.writeInt(digests.size());
+      for (int i = 0; i < digests.size(); ++i) {
+        out.write(digests.get(i));
+        out.writeInt(lengths.get(i));
+      }
+    }
+
+    if (!fs.rename(FSCheckpointService.tmpfile(dst), dst)) {
+      throw new IOException("Failed to promote checkpoint" +
+          FSCheckpointService.tmpfile(dst) + " -> " + dst);
+    }
+    pendingChannels.remove(ch);
+
+    LOG.log(Level.FINE, "Committed checkpoint {0}: {1} chunks, {2} bytes of new chunks",
+        new Object[]{dst, digests.size(), written});
+    return new FSCheckpointID(dst);
+  }
+
+  @Override
+  public void abort(final CheckpointWriteChannel ch) throws IOException {
+
+    if (ch.isOpen()) {
+      ch.close();
+    }
+
+    final ChunkedWriteChannel cch = (ChunkedWriteChannel) ch;
+    // Queued chunk writers skip aborted channels. Running ones are waited for, so that they don't leave
+    // temporary chunk files behind.
+    cch.aborted = true;
+    for (final Future<StoredChunk> f : cch.chunks) {
+      try {
+        f.get();
+      } catch (final ExecutionException | CancellationException ignored) {
+        // IGNORE
+      } catch (final InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while aborting checkpoint " + cch.getDestination());
+      }
+    }
+    // Chunks that were already stored are left to the next garbage collection: they may be shared.
+    pendingChannels.remove(cch);
+
+    final Path tmp = FSCheckpointService.tmpfile(cch.getDestination());
+    try {
+      if (fs.exists(tmp) && !fs.delete(tmp, false)) {
+        throw new IOException("Failed to delete a temporary checkpoint file during abort. Path: " + tmp);
+      }
+    } catch (final FileNotFoundException ignored) {
+      // IGNORE
+    }
+  }
+
+  @Override
+  public CheckpointReadChannel open(final CheckpointID id) throws IOException {
+    return new ChunkedReadChannel(readManifest(checkId(id)));
+  }
+
+  /**
+   * Deletes the manifest of the checkpoint. Its chunks stay until the next {@link #collectGarbage()}.
+   */
+  @Override
+  public boolean delete(final CheckpointID id) throws IOException {
+
+    final Path manifest = checkId(id).getPath();
+    boolean deleted = true;
+    try {
+      deleted = fs.delete(manifest, false);
+    } catch (final FileNotFoundException ignored) {
+      // IGNORE
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes the chunks that are neither listed in a manifest under the base path nor written by a channel
+   * of this service that was not committed or aborted yet. Chunk writes of this service wait while the
+   * collection runs, but those of other processes are not seen: the caller must make sure that no other
+   * process writes checkpoints under the base path meanwhile, e.g. by running it on the driver between
+   * the checkpoints of the evaluators.
+   *
+   * @return the number of chunks deleted.
+   * @throws IOException if a manifest can't be read; no chunk is deleted then.
+   */
+  public int collectGarbage() throws IOException {
+    chunkLock.writeLock().lock();
+    try {
+      if (!fs.exists(chunkPath)) {
+        return 0;
+      }
+
+      final Set<String> live = new HashSet<>();
+      for (final ChunkedWriteChannel ch : pendingChannels) {
+        live.addAll(ch.chunkNames);
+      }
+      final Path qualifiedChunkPath = fs.makeQualified(chunkPath);
+      final RemoteIterator<LocatedFileStatus> files = fs.listFiles(basePath, true);
+      while (files.hasNext()) {
+        final Path file = files.next().getPath();
+        if (file.getParent().equals(qualifiedChunkPath) || file.getName().endsWith(".tmp")) {
+          continue;
+        }
+        final Manifest manifest = readManifest(file);
+        if (manifest != null) {
+          for (final byte[] digest : manifest.digests) {
+            live.add(toHex(digest));
+          }
+        }
+      }
+
+      int deleted = 0;
+      for (final FileStatus chunk : fs.listStatus(chunkPath)) {
+        final String name = chunk.getPath().getName();
+        // Temporary chunk files belong to writers in flight.
+        if (!name.endsWith(".tmp") && !live.contains(name) && fs.delete(chunk.getPath(), false)) {
+          ++deleted;
+        }
+      }
+      LOG.log(Level.FINE, "Deleted {0} unreferenced chunks under {1}", new Object[]{deleted, chunkPath});
+      return deleted;
+    } finally {
+      chunkLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Stops the I/O threads. Pending commits and reads fail afterwards.
+   */
+  @Override
+  public void close() {
+    commitExecutor.shutdownNow();
+    ioExecutor.shutdownNow();
+  }
+
+  private static FSCheckpointID checkId(final CheckpointID id) {
+    if (!(id instanceof FSCheckpointID)) {
+      throw new IllegalArgumentException(
+          "Mismatched checkpoint id type. Expected FSCheckpointID, but actually got " + id.getClass());
+    }
+    return (FSCheckpointID) id;
+  }
+
+  private Manifest readManifest(final FSCheckpointID id) throws IOException {
+    final Manifest manifest = readManifest(id.getPath());
+    if (manifest == null) {
+      throw new IOException("Not a chunked checkpoint: " + id);
+    }
+    if (manifest.digestLength != digestLength) {
+      throw new IOException("Checkpoint " + id + " was not written with " + digestAlgorithm + " chunk digests");
+    }
+    return manifest;
+  }
+
+  /**
+   * @return the manifest stored in the file, or null if the file is not a manifest.
+   */
+  private Manifest readManifest(final Path file) throws IOException {
+    try (final FSDataInputStream in = fs.open(file)) {
+      final int magic;
+      try {
+        magic = in.readInt();
+      } catch (final EOFException e) {
+        return null;
+      }
+      if (magic != MANIFEST_MAGIC) {
+        return null;
+      }
+      final int manifestDigestLength = in.readInt();
+      final int count = in.readInt();
+      final Manifest manifest = new Manifest(manifestDigestLength, count);
+      for (int i = 0; i < count; ++i) {
+        final byte[] digest = new byte[manifestDigestLength];
+        in.readFully(digest);
+        manifest.digests.add(digest);
+        manifest.lengths.add(in.readInt());
+      }
+      return manifest;
+    }
+  }
+
+  private Path chunkFile(final String hexDigest) {
+    return new Path(chunkPath, hexDigest);
+  }
+
+  private static String toHex(final byte[] bytes) {
+    final char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; ++i) {
+      chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+      chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+    }
+    return new String(chars);
+  }
+
+  private void deleteQuietly(final Path file) {
+    try {
+      fs.delete(file, false);
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Failed to delete temporary chunk file " + file, e);
+    }
+  }
+
+  private static IOException asIOException(final ExecutionException e) {
+    final Throwable cause = e.getCause();
+    if (cause instanceof IOException) {
+      return (IOException) cause;
+    }
+    return new IOException("Checkpoint I/O failed", cause);
+  }
+
+  @NamedParameter(doc = "The size in bytes of the chunks a checkpoint is split into.", default_value = "4194304")
+  static class ChunkSize implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The number of chunk-sized buffers of each checkpoint write channel. " +
+      "The writer blocks while all of them are being stored, so this should exceed the number of I/O threads.",
+      default_value = "5")
+  static class WriteBuffers implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The number of threads hashing, writing and reading checkpoint chunks.", default_value = "4")
+  static class IoThreads implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The MessageDigest algorithm naming the checkpoint chunks.", default_value = "SHA-256")
+  static class ChunkDigest implements Name<String> {
+  }
+
+  /**
+   * The chunks of a committed checkpoint, in order.
+   */
+  private static final class Manifest {
+
+    private final int digestLength;
+    private final List<byte[]> digests;
+    private final List<Integer> lengths;
+
+    Manifest(final int digestLength, final int count) {
+      this.digestLength = digestLength;
+      this.digests = new ArrayList<>(count);
+      this.lengths = new ArrayList<>(count);
+    }
+  }
+
+  /**
+   * A chunk that has been stored, or was found to be stored already.
+   */
+  private static final class StoredChunk {
+
+    private final byte[] digest;
+    private final int length;
+    private final boolean isNew;
+
+    StoredChunk(final byte[] digest, final int length, final boolean isNew) {
+      this.digest = digest;
+      this.length = length;
+      this.isNew = isNew;
+    }
+  }
+
+  /**
+   * Hashes a full buffer and stores it unless a chunk with the same content exists.
+   * The buffer is handed back to its channel once done, whatever the outcome.
+   */
+  private final class ChunkWriter implements Callable<StoredChunk> {
+
+    private final ByteBuffer buffer;
+    private final ChunkedWriteChannel channel;
+
+    ChunkWriter(final ByteBuffer buffer, final ChunkedWriteChannel channel) {
+      this.buffer = buffer;
+      this.channel = channel;
+    }
+
+    @Override
+    public StoredChunk call() throws IOException, NoSuchAlgorithmException {
+      try {
+        if (channel.aborted) {
+          throw new IOException("Checkpoint was aborted: " + channel.getDestination());
+        }
+        final MessageDigest md = MessageDigest.getInstance(digestAlgorithm);
+        md.update(buffer.array(), 0, buffer.limit());
+        final byte[] digest = md.digest();
+        final String hex = toHex(digest);
+        final Path dst = chunkFile(hex);
+
+        // The FileSystem is asked every time, so that chunks deleted outside this service are written again.
+        chunkLock.readLock().lock();
+        try {
+          channel.chunkNames.add(hex);
+          if (fs.exists(dst)) {
+            return new StoredChunk(digest, buffer.limit(), false);
+          }
+
+          // Concurrent writers of the same content race on the rename; either copy is fine.
+          final Path tmp = new Path(chunkPath, hex + "." + UUID.randomUUID() + ".tmp");
+          boolean promoted = false;
+          try {
+            try (final FSDataOutputStream out = fs.create(tmp, replication)) {
+              out.write(buffer.array(), 0, buffer.limit());
+            }
+            promoted = fs.rename(tmp, dst);
+            if (!promoted && !fs.exists(dst)) {
+              throw new IOException("Failed to promote checkpoint chunk " + tmp + " -> " + dst);
+            }
+          } finally {
+            if (!promoted) {
+              deleteQuietly(tmp);
+            }
+          }
+          return new StoredChunk(digest, buffer.limit(), promoted);
+        } finally {
+          chunkLock.readLock().unlock();
+        }
+      } finally {
+        buffer.clear();
+        channel.freeBuffers.add(buffer);
+      }
+    }
+  }
+
+  private final class ChunkedWriteChannel implements CheckpointWriteChannel {
+
+    private final Path finalDst;
+    private final BlockingQueue<ByteBuffer> freeBuffers = new ArrayBlockingQueue<>(writeBuffers);
+    private final List<Future<StoredChunk>> chunks = new ArrayList<>();
+    private final Set<String> chunkNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private int allocatedBuffers = 0;
+    private ByteBuffer current;
+    private boolean isOpen = true;
+    private volatile boolean aborted = false;
+
+    ChunkedWriteChannel(final Path finalDst) {
+      this.finalDst = finalDst;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+      if (!isOpen) {
+        throw new IOException("Checkpoint channel is closed: " + finalDst);
+      }
+
+      final int total = src.remaining();
+      while (src.hasRemaining()) {
+        if (current == null) {
+          current = nextBuffer();
+        }
+        final int n = Math.min(src.remaining(), current.remaining());
+        final ByteBuffer part = src.duplicate();
+        part.limit(part.position() + n);
+        current.put(part);
+        src.position(src.position() + n);
+        if (!current.hasRemaining()) {
+          seal();
+        }
+      }
+      return total;
+    }
+
+    private ByteBuffer nextBuffer() throws InterruptedIOException {
+      final ByteBuffer free = freeBuffers.poll();
+      if (free != null) {
+        return free;
+      }
+      if (allocatedBuffers < writeBuffers) {
+        ++allocatedBuffers;
+        return ByteBuffer.allocate(chunkSize);
+      }
+      try {
+        return freeBuffers.take();
+      } catch (final InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while waiting for a checkpoint buffer");
+      }
+    }
+
+    private void seal() {
+      current.flip();
+      chunks.add(ioExecutor.submit(new ChunkWriter(current, this)));
+      current = null;
+    }
+
+    Path getDestination() {
+      return finalDst;
+    }
+
+    @Override
+    public void close() {
+      if (!isOpen) {
+        return;
+      }
+      isOpen = false;
+      if (current != null && current.position() > 0) {
+        seal();
+      }
+      current = null;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return isOpen;
+    }
+  }
+
+  private final class ChunkedReadChannel implements CheckpointReadChannel {
+
+    private final Manifest manifest;
+    private final Deque<Future<ByteBuffer>> prefetched = new ArrayDeque<>();
+    private int nextToFetch = 0;
+    private ByteBuffer current;
+    private boolean isOpen = true;
+
+    ChunkedReadChannel(final Manifest manifest) {
+      this.manifest = manifest;
+      prefetch();
+    }
+
+    private void prefetch() {
+      while (prefetched.size() < ioThreads && nextToFetch < manifest.digests.size()) {
+        final Path src = chunkFile(toHex(manifest.digests.get(nextToFetch)));
+        final int length = manifest.lengths.get(nextToFetch);
+        prefetched.add(ioExecutor.submit(new Callable<ByteBuffer>() {
+          @Override
+          public ByteBuffer call() throws IOException {
+            final byte[] data = new byte[length];
+            try (final FSDataInputStream in = fs.open(src)) {
+              in.readFully(data);
+            }
+            return ByteBuffer.wrap(data);
+          }
+        }));
+        ++nextToFetch;
+      }
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+      if (!isOpen) {
+        throw new IOException("Checkpoint channel is closed");
+      }
+
+      int read = 0;
+      while (dst.hasRemaining()) {
+        if (current == null || !current.hasRemaining()) {
+          current = nextChunk();
+          if (current == null) {
+            return read == 0 ? -1 : read;
+          }
+        }
+        final int n = Math.min(dst.remaining(), current.remaining());
+        final ByteBuffer part = current.duplicate();
+        part.limit(part.position() + n);
+        dst.put(part);
+        current.position(current.position() + n);
+        read += n;
+      }
+      return read;
+    }
+
+    private ByteBuffer nextChunk() throws IOException {
+      final Future<ByteBuffer> next = prefetched.poll();
+      if (next == null) {
+        return null;
+      }
+      prefetch();
+      try {
+        return next.get();
+      } catch (final InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while reading a checkpoint chunk");
+      } catch (final ExecutionException e) {
+        throw asIOException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      isOpen = false;
+      for (final Future<ByteBuffer> f : prefetched) {
+        f.cancel(false);
+      }
+      prefetched.clear();
+      current = null;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return isOpen;
+    }
+  }
+}
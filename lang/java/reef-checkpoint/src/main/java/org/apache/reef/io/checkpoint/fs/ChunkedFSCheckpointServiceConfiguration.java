@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointNamingService;
+import org.apache.reef.io.checkpoint.CheckpointService;
+import org.apache.reef.io.checkpoint.IncrementalCheckpointService;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
+import org.apache.reef.tang.formats.RequiredParameter;
+
+/**
+ * ConfigurationModule for the chunked, incremental {@link ChunkedFSCheckpointService}.
+ * It binds both {@link CheckpointService} and {@link IncrementalCheckpointService}.
+ */
+@DriverSide
+@Public
+public class ChunkedFSCheckpointServiceConfiguration extends ConfigurationModuleBuilder {
+
+  /**
+   * Use local file system if true; otherwise, use HDFS.
+   */
+  public static final RequiredParameter<Boolean> IS_LOCAL = new RequiredParameter<>();
+
+  /**
+   * Path to be used to store the checkpoints and their chunks on file system.
+   */
+  public static final RequiredParameter<String> PATH = new RequiredParameter<>();
+
+  /**
+   * Replication factor to be used for the checkpoints.
+   */
+  public static final OptionalParameter<Short> REPLICATION_FACTOR = new OptionalParameter<>();
+
+  /**
+   * Prefix for checkpoint files (optional).
+   */
+  public static final OptionalParameter<String> PREFIX = new OptionalParameter<>();
+
+  /**
+   * Size in bytes of the chunks a checkpoint is split into (optional).
+   */
+  public static final OptionalParameter<Integer> CHUNK_SIZE = new OptionalParameter<>();
+
+  /**
+   * Number of chunk buffers a writer may fill ahead of storage (optional).
+   */
+  public static final OptionalParameter<Integer> WRITE_BUFFERS = new OptionalParameter<>();
+
+  /**
+   * Number of threads storing and fetching chunks (optional).
+   */
+  public static final OptionalParameter<Integer> IO_THREADS = new OptionalParameter<>();
+
+  /**
+   * MessageDigest algorithm used to address the chunks (optional).
+   */
+  public static final OptionalParameter<String> CHUNK_DIGEST = new OptionalParameter<>();
+
+  public static final ConfigurationModule CONF = new ChunkedFSCheckpointServiceConfiguration()
+
+      .bindImplementation(CheckpointService.class, ChunkedFSCheckpointService.class)
+      .bindImplementation(IncrementalCheckpointService.class, ChunkedFSCheckpointService.class)
+      .bindImplementation(CheckpointNamingService.class, RandomNameCNS.class)
+      .bindImplementation(CheckpointID.class, FSCheckpointID.class)
+      .bindConstructor(FileSystem.class, FSCheckPointServiceConfiguration.FileSystemConstructor.class)
+
+      .bindNamedParameter(FSCheckPointServiceConfiguration.FileSystemConstructor.IsLocal.class, IS_LOCAL)
+      .bindNamedParameter(FSCheckpointService.PATH.class, PATH)
+      .bindNamedParameter(FSCheckpointService.ReplicationFactor.class, REPLICATION_FACTOR)
+      .bindNamedParameter(RandomNameCNS.PREFIX.class, PREFIX)
+      .bindNamedParameter(ChunkedFSCheckpointService.ChunkSize.class, CHUNK_SIZE)
+      .bindNamedParameter(ChunkedFSCheckpointService.WriteBuffers.class, WRITE_BUFFERS)
+      .bindNamedParameter(ChunkedFSCheckpointService.IoThreads.class, IO_THREADS)
+      .bindNamedParameter(ChunkedFSCheckpointService.ChunkDigest.class, CHUNK_DIGEST)
+      .build();
+}
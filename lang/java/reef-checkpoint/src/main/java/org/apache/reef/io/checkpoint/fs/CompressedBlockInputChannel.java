@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.Decompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Reads a checkpoint written by {@link CompressedBlockOutputChannel}.
+ * <p>
+ * Blocks are fetched with positional reads and decompressed on an executor, a bounded number of blocks
+ * ahead of the reader. Reading may start at any raw offset: earlier blocks are never fetched.
+ */
+final class CompressedBlockInputChannel implements ReadableByteChannel {
+
+  private final FSDataInputStream in;
+  private final CompressionCodec codec;
+  private final ExecutorService executor;
+  private final int readAhead;
+  private final long[] blockOffsets;
+  private final Deque<Future<ByteBuffer>> prefetched = new ArrayDeque<>();
+  private int nextToFetch;
+  private int skipInFirstBlock;
+  private ByteBuffer current;
+  private boolean isOpen = true;
+
+  /**
+   * @param in the checkpoint file
+   * @param fileLength length of the checkpoint file in bytes
+   * @param codec the codec the checkpoint was written with
+   * @param executor executor to fetch and decompress blocks on
+   * @param readAhead maximum number of blocks fetched ahead of the reader
+   * @param position raw offset to start reading from
+   * @throws IOException if the file is not a block-compressed checkpoint
+   */
+  CompressedBlockInputChannel(final FSDataInputStream in,
+                              final long fileLength,
+                              final CompressionCodec codec,
+                              final ExecutorService executor,
+                              final int readAhead,
+                              final long position) throws IOException {
+    this.in = in;
+    this.codec = codec;
+    this.executor = executor;
+    this.readAhead = Math.max(1, readAhead);
+
+    if (fileLength < CompressedBlockOutputChannel.TRAILER_LENGTH) {
+      throw new IOException("Not a compressed checkpoint: too short");
+    }
+    final byte[] trailer = new byte[CompressedBlockOutputChannel.TRAILER_LENGTH];
+    in.readFully(fileLength - trailer.length, trailer);
+    final DataInputStream trailerIn = new DataInputStream(new ByteArrayInputStream(trailer));
+    final long indexOffset = trailerIn.readLong();
+    final int blockCount = trailerIn.readInt();
+    final int blockSize = trailerIn.readInt();
+    if (trailerIn.readInt() != CompressedBlockOutputChannel.MAGIC) {
+      throw new IOException("Not a compressed checkpoint: bad magic number");
+    }
+
+    final byte[] index = new byte[8 * blockCount];
+    in.readFully(indexOffset, index);
+    final DataInputStream indexIn = new DataInputStream(new ByteArrayInputStream(index));
+    this.blockOffsets = new long[blockCount];
+    for (int i = 0; i < blockCount; ++i) {
+      this.blockOffsets[i] = indexIn.readLong();
+    }
+
+    final long firstBlock = position / blockSize;
+    this.nextToFetch = (int) Math.min(firstBlock, blockCount);
+    this.skipInFirstBlock = (int) (position % blockSize);
+    prefetch();
+  }
+
+  private void prefetch() {
+    while (prefetched.size() < readAhead && nextToFetch < blockOffsets.length) {
+      final long offset = blockOffsets[nextToFetch];
+      prefetched.add(executor.submit(new Callable<ByteBuffer>() {
+        @Override
+        public ByteBuffer call() throws IOException {
+          return readBlock(offset);
+        }
+      }));
+      ++nextToFetch;
+    }
+  }
+
+  /**
+   * Checks whether a file is a block-compressed checkpoint, by its header and trailer.
+   *
+   * @param in the file
+   * @param fileLength length of the file in bytes
+   * @return the class name of the codec the file was compressed with, or null if it is not compressed
+   * @throws IOException if the file can't be read
+   */
+  static String readCodecClassName(final FSDataInputStream in, final long fileLength) throws IOException {
+    // The header magic, the length of the codec name and the trailer.
+    if (fileLength < 4 + 2 + CompressedBlockOutputChannel.TRAILER_LENGTH) {
+      return null;
+    }
+    final byte[] magic = new byte[4];
+    in.readFully(0, magic);
+    if (ByteBuffer.wrap(magic).getInt() != CompressedBlockOutputChannel.HEADER_MAGIC) {
+      return null;
+    }
+    in.readFully(fileLength - magic.length, magic);
+    if (ByteBuffer.wrap(magic).getInt() != CompressedBlockOutputChannel.MAGIC) {
+      return null;
+    }
+    in.seek(magic.length);
+    return in.readUTF();
+  }
+
+  private ByteBuffer readBlock(final long offset) throws IOException {
+    final byte[] header = new byte[8];
+    in.readFully(offset, header);
+    final ByteBuffer lengths = ByteBuffer.wrap(header);
+    final int rawLength = lengths.getInt();
+    final byte[] compressed = new byte[lengths.getInt()];
+    in.readFully(offset + header.length, compressed);
+
+    final byte[] raw = new byte[rawLength];
+    final Decompressor decompressor = CodecPool.getDecompressor(codec);
+    try {
+      final CompressionInputStream cin = codec.createInputStream(new ByteArrayInputStream(compressed), decompressor);
+      IOUtils.readFully(cin, raw, 0, rawLength);
+    } finally {
+      CodecPool.returnDecompressor(decompressor);
+    }
+    return ByteBuffer.wrap(raw);
+  }
+
+  @Override
+  public int read(final ByteBuffer dst) throws IOException {
+    if (!isOpen) {
+      throw new ClosedChannelException();
+    }
+
+    int read = 0;
+    while (dst.hasRemaining()) {
+      if (current == null || !current.hasRemaining()) {
+        current = nextBlock();
+        if (current == null) {
+          return read == 0 ? -1 : read;
+        }
+      }
+      final int n = Math.min(dst.remaining(), current.remaining());
+      final ByteBuffer part = current.duplicate();
+      part.limit(part.position() + n);
+      dst.put(part);
+      current.position(current.position() + n);
+      read += n;
+    }
+    return read;
+  }
+
+  private ByteBuffer nextBlock() throws IOException {
+    final Future<ByteBuffer> next = prefetched.poll();
+    if (next == null) {
+      return null;
+    }
+    prefetch();
+    final ByteBuffer block;
+    try {
+      block = next.get();
+    } catch (final InterruptedException e) {
+      throw new InterruptedIOException("Interrupted while reading a checkpoint block");
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to read a checkpoint block", e.getCause());
+    }
+    if (skipInFirstBlock > 0) {
+      block.position(Math.min(skipInFirstBlock, block.limit()));
+      skipInFirstBlock = 0;
+    }
+    return block;
+  }
+
+  @Override
+  public void close() throws IOException {
+    isOpen = false;
+    for (final Future<ByteBuffer> f : prefetched) {
+      f.cancel(false);
+    }
+    prefetched.clear();
+    current = null;
+    in.close();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return isOpen;
+  }
+}
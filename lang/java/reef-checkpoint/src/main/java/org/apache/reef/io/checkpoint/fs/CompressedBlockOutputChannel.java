@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a checkpoint as a sequence of independently compressed blocks.
+ * <p>
+ * The file layout is:
+ * <pre>
+ *   header   : int headerMagic, UTF class name of the codec
+ *   block*   : int rawLength, int compressedLength, compressedLength bytes
+ *   index    : long fileOffset of each block
+ *   trailer  : long indexOffset, int blockCount, int blockSize, int magic
+ * </pre>
+ * Every block but the last holds exactly blockSize raw bytes, so the block holding any raw offset
+ * can be found from the index alone. The header tells readers that the file is compressed, and with which codec,
+ * whatever the configuration of the service reading it. See {@link CompressedBlockInputChannel}.
+ */
+final class CompressedBlockOutputChannel implements WritableByteChannel {
+
+  static final int HEADER_MAGIC = 0x52434248;
+  static final int MAGIC = 0x52434231;
+  static final int TRAILER_LENGTH = 8 + 4 + 4 + 4;
+
+  private final FSDataOutputStream out;
+  private final CompressionCodec codec;
+  private final Compressor compressor;
+  private final byte[] block;
+  private final DataOutputBuffer compressed = new DataOutputBuffer();
+  private final List<Long> blockOffsets = new ArrayList<>();
+  private int blockLength = 0;
+  private boolean isOpen = true;
+
+  CompressedBlockOutputChannel(final FSDataOutputStream out, final CompressionCodec codec, final int blockSize)
+      throws IOException {
+    this.out = out;
+    this.codec = codec;
+    this.block = new byte[blockSize];
+    out.writeInt(HEADER_MAGIC);
+    out.writeUTF(codec.getClass().getName());
+    this.compressor = CodecPool.getCompressor(codec);
+  }
+
+  @Override
+  public int write(final ByteBuffer src) throws IOException {
+    if (!isOpen) {
+      throw new ClosedChannelException();
+    }
+
+    final int total = src.remaining();
+    while (src.hasRemaining()) {
+      final int n = Math.min(src.remaining(), block.length - blockLength);
+      src.get(block, blockLength, n);
+      blockLength += n;
+      if (blockLength == block.length) {
+        writeBlock();
+      }
+    }
+    return total;
+  }
+
+  private void writeBlock() throws IOException {
+    compressed.reset();
+    if (compressor != null) {
+      compressor.reset();
+    }
+    final CompressionOutputStream cout = codec.createOutputStream(compressed, compressor);
+    cout.write(block, 0, blockLength);
+    cout.finish();
+
+    blockOffsets.add(out.getPos());
+    out.writeInt(blockLength);
+    out.writeInt(compressed.getLength());
+    out.write(compressed.getData(), 0, compressed.getLength());
+    blockLength = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!isOpen) {
+      return;
+    }
+    isOpen = false;
+    try {
+      if (blockLength > 0) {
+        writeBlock();
+      }
+      final long indexOffset = out.getPos();
+      for (final long offset : blockOffsets) {
+        out.writeLong(offset);
+      }
+      out.writeLong(indexOffset);
+      out.writeInt(blockOffsets.size());
+      out.writeInt(block.length);
+      out.writeInt(MAGIC);
+    } finally {
+      CodecPool.returnCompressor(compressor);
+      out.close();
+    }
+  }
+
+  @Override
+  public boolean isOpen() {
+    return isOpen;
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates named daemon threads for the background I/O of the checkpoint services,
+ * so that pending checkpoint work never keeps the JVM alive.
+ */
+final class DaemonThreadFactory implements ThreadFactory {
+
+  private final String prefix;
+  private final AtomicInteger count = new AtomicInteger(0);
+
+  DaemonThreadFactory(final String prefix) {
+    this.prefix = prefix;
+  }
+
+  @Override
+  public Thread newThread(final Runnable r) {
+    final Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+    t.setDaemon(true);
+    return t;
+  }
+}
@@ -66,6 +66,21 @@ public class FSCheckPointServiceConfiguration extends ConfigurationModuleBuilder
    */
   public static final OptionalParameter<String> PREFIX = new OptionalParameter<>();
 
+  /**
+   * Compression codec for the checkpoints, by alias (e.g. deflate, lz4, snappy) or class name (optional).
+   */
+  public static final OptionalParameter<String> COMPRESSION_CODEC = new OptionalParameter<>();
+
+  /**
+   * Number of raw bytes compressed together into one block (optional).
+   */
+  public static final OptionalParameter<Integer> COMPRESSION_BLOCK_SIZE = new OptionalParameter<>();
+
+  /**
+   * Number of threads decompressing a checkpoint when it is read (optional).
+   */
+  public static final OptionalParameter<Integer> RESTORE_THREADS = new OptionalParameter<>();
+
 
   public static final ConfigurationModule CONF = new FSCheckPointServiceConfiguration()
 
@@ -78,6 +93,9 @@ public class FSCheckPointServiceConfiguration extends ConfigurationModuleBuilder
       .bindNamedParameter(FSCheckpointService.PATH.class, PATH)
       .bindNamedParameter(FSCheckpointService.ReplicationFactor.class, REPLICATION_FACTOR)
       .bindNamedParameter(RandomNameCNS.PREFIX.class, PREFIX)
+      .bindNamedParameter(FSCheckpointService.CompressionCodecName.class, COMPRESSION_CODEC)
+      .bindNamedParameter(FSCheckpointService.CompressionBlockSize.class, COMPRESSION_BLOCK_SIZE)
+      .bindNamedParameter(FSCheckpointService.RestoreThreads.class, RESTORE_THREADS)
       .build();
 
   /**
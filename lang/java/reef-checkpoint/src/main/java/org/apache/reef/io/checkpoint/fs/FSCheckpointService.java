@@ -22,6 +22,9 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.reef.io.checkpoint.CheckpointID;
 import org.apache.reef.io.checkpoint.CheckpointNamingService;
 import org.apache.reef.io.checkpoint.CheckpointService;
@@ -36,38 +39,114 @@ import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * A FileSystem based CheckpointService.
  *
  * Note that this implementation creates a temporary file first and moves it to final destination at commit time.
+ * <p>
+ * If a compression codec is configured, checkpoints are stored as independently compressed blocks
+ * (see {@link CompressedBlockOutputChannel}), which are decompressed in parallel when the checkpoint is read,
+ * and which allow reading to start in the middle of a checkpoint without touching the blocks before it.
+ * Compressed checkpoints name their codec in a header, so any instance of the service can read them.
+ * The threads decompressing them are started on the first such read, and stopped by {@link #close()}.
  */
-public class FSCheckpointService implements CheckpointService {
+public class FSCheckpointService implements CheckpointService, AutoCloseable {
 
   private final Path basePath;
   private final FileSystem fs;
   private final CheckpointNamingService namingPolicy;
   private final short replication;
+  private final CompressionCodec codec;
+  private final int blockSize;
+  private final int restoreThreads;
+  private ExecutorService restoreExecutor;
+  private boolean closed = false;
 
   @Inject
   FSCheckpointService(final FileSystem fs,
                       @Parameter(PATH.class) final String basePath,
                       final CheckpointNamingService namingPolicy,
-                      @Parameter(ReplicationFactor.class) final short replication) {
-    this.fs = fs;
-    this.basePath = new Path(basePath);
-    this.namingPolicy = namingPolicy;
-    this.replication = replication;
+                      @Parameter(ReplicationFactor.class) final short replication,
+                      @Parameter(CompressionCodecName.class) final String codecName,
+                      @Parameter(CompressionBlockSize.class) final int blockSize,
+                      @Parameter(RestoreThreads.class) final int restoreThreads) {
+    this(fs, new Path(basePath), namingPolicy, replication, getCodec(fs, codecName), blockSize, restoreThreads);
   }
 
   public FSCheckpointService(final FileSystem fs,
                              final Path base,
                              final CheckpointNamingService namingPolicy,
                              final short replication) {
+    this(fs, base, namingPolicy, replication, null, 0, 0);
+  }
+
+  /**
+   * @param codec the codec to compress checkpoints with, or null to store them as they are written
+   * @param blockSize number of raw bytes compressed together into one block
+   * @param restoreThreads number of threads decompressing the blocks of a checkpoint being read;
+   *                       one thread if 0
+   */
+  public FSCheckpointService(final FileSystem fs,
+                             final Path base,
+                             final CheckpointNamingService namingPolicy,
+                             final short replication,
+                             final CompressionCodec codec,
+                             final int blockSize,
+                             final int restoreThreads) {
+    if (codec != null && (blockSize <= 0 || restoreThreads < 0)) {
+      throw new IllegalArgumentException("Invalid compression parameters: blockSize=" + blockSize +
+          " restoreThreads=" + restoreThreads);
+    }
     this.fs = fs;
     this.basePath = base;
     this.namingPolicy = namingPolicy;
     this.replication = replication;
+    this.codec = codec;
+    this.blockSize = blockSize;
+    this.restoreThreads = Math.max(1, restoreThreads);
+    if (codec != null) {
+      // Codecs backed by native libraries (e.g. lz4, snappy) fail here rather than on the first checkpoint.
+      CodecPool.returnCompressor(CodecPool.getCompressor(codec));
+    }
+  }
+
+  private synchronized ExecutorService getRestoreExecutor() throws IOException {
+    if (closed) {
+      throw new IOException("The checkpoint service is closed");
+    }
+    if (restoreExecutor == null) {
+      restoreExecutor = Executors.newFixedThreadPool(restoreThreads, new DaemonThreadFactory("FSCheckpointRestore"));
+    }
+    return restoreExecutor;
+  }
+
+  /**
+   * Stops the threads decompressing checkpoints. Compressed checkpoints can't be opened afterwards.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (restoreExecutor != null) {
+      restoreExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Resolves a codec by its class name or alias (e.g. deflate, gzip, bzip2, lz4, snappy).
+   * An empty name means no compression.
+   */
+  private static CompressionCodec getCodec(final FileSystem fs, final String codecName) {
+    if (codecName.isEmpty()) {
+      return null;
+    }
+    final CompressionCodec codec = new CompressionCodecFactory(fs.getConf()).getCodecByName(codecName);
+    if (codec == null) {
+      throw new IllegalArgumentException("Unknown compression codec: " + codecName);
+    }
+    return codec;
   }
 
   static final Path tmpfile(final Path p) {
@@ -94,20 +173,58 @@ public class FSCheckpointService implements CheckpointService {
        Checking this directly via a file system call may lead to a time-of-check/time-of-use race condition.
        See the pull request for REEF-1659 for discussion.
    */
-    return new FSCheckpointWriteChannel(name, fs.create(tmpfile(name), replication));
+    final FSDataOutputStream out = fs.create(tmpfile(name), replication);
+    return new FSCheckpointWriteChannel(name,
+        codec == null ? Channels.newChannel(out) : new CompressedBlockOutputChannel(out, codec, blockSize));
   }
 
   @Override
   public CheckpointReadChannel open(final CheckpointID id)
       throws IOException, InterruptedException {
+    return open(id, 0);
+  }
+
+  /**
+   * Returns a reading channel to a checkpoint that starts at the given offset of its content.
+   * This allows restoring part of a checkpoint; with compression, the blocks before the offset are not read.
+   *
+   * @param id CheckpointID for the checkpoint to be opened
+   * @param position offset in the checkpoint content to start reading from
+   * @return a CheckpointReadChannel
+   * @throws IOException
+   */
+  public CheckpointReadChannel open(final CheckpointID id, final long position) throws IOException {
 
     if (!(id instanceof FSCheckpointID)) {
       throw new IllegalArgumentException(
           "Mismatched checkpoint id type. Expected FSCheckpointID, but actually got " + id.getClass());
     }
 
-    return new FSCheckpointReadChannel(
-        fs.open(((FSCheckpointID) id).getPath()));
+    final Path path = ((FSCheckpointID) id).getPath();
+    final long fileLength = fs.getFileStatus(path).getLen();
+    final FSDataInputStream in = fs.open(path);
+    try {
+      final String codecClassName = CompressedBlockInputChannel.readCodecClassName(in, fileLength);
+      if (codecClassName == null) {
+        in.seek(position);
+        return new FSCheckpointReadChannel(Channels.newChannel(in));
+      }
+
+      final CompressionCodec fileCodec;
+      if (codec != null && codec.getClass().getName().equals(codecClassName)) {
+        fileCodec = codec;
+      } else {
+        fileCodec = new CompressionCodecFactory(fs.getConf()).getCodecByName(codecClassName);
+        if (fileCodec == null) {
+          throw new IOException("Checkpoint " + path + " was compressed with an unknown codec: " + codecClassName);
+        }
+      }
+      return new FSCheckpointReadChannel(new CompressedBlockInputChannel(
+          in, fileLength, fileCodec, getRestoreExecutor(), restoreThreads, position));
+    } catch (final IOException e) {
+      in.close();
+      throw e;
+    }
   }
 
   @Override
@@ -178,6 +295,21 @@ public class FSCheckpointService implements CheckpointService {
   static class ReplicationFactor implements Name<Short> {
   }
 
+  @NamedParameter(doc = "Name or class of the Hadoop CompressionCodec for the stored checkpoints. " +
+      "Empty for no compression.", default_value = "")
+  static class CompressionCodecName implements Name<String> {
+  }
+
+  @NamedParameter(doc = "The number of raw bytes compressed together into one block of a checkpoint.",
+      default_value = "1048576")
+  static class CompressionBlockSize implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The number of threads decompressing the blocks of a compressed checkpoint.",
+      default_value = "4")
+  static class RestoreThreads implements Name<Integer> {
+  }
+
   private static class FSCheckpointWriteChannel
       implements CheckpointWriteChannel {
 
@@ -185,9 +317,9 @@ public class FSCheckpointService implements CheckpointService {
     private final WritableByteChannel out;
     private boolean isOpen = true;
 
-    FSCheckpointWriteChannel(final Path finalDst, final FSDataOutputStream out) {
+    FSCheckpointWriteChannel(final Path finalDst, final WritableByteChannel out) {
       this.finalDst = finalDst;
-      this.out = Channels.newChannel(out);
+      this.out = out;
     }
 
     public int write(final ByteBuffer b) throws IOException {
@@ -217,8 +349,8 @@ public class FSCheckpointService implements CheckpointService {
     private final ReadableByteChannel in;
     private boolean isOpen = true;
 
-    FSCheckpointReadChannel(final FSDataInputStream in) {
-      this.in = Channels.newChannel(in);
+    FSCheckpointReadChannel(final ReadableByteChannel in) {
+      this.in = in;
     }
 
     @Override
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointService.CheckpointReadChannel;
+import org.apache.reef.io.checkpoint.CheckpointService.CheckpointWriteChannel;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for ChunkedFSCheckpointService on the local FileSystem.
+ */
+public final class ChunkedFSCheckpointServiceTest {
+
+  private static final int CHUNK_SIZE = 64;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem fs;
+  private Path base;
+  private ChunkedFSCheckpointService service;
+
+  @Before
+  public void setUp() throws Exception {
+    this.fs = FileSystem.getLocal(new Configuration());
+    this.base = new Path(this.folder.getRoot().getAbsolutePath());
+    this.service = new ChunkedFSCheckpointService(
+        this.fs, this.base, new RandomNameCNS("checkpoint-"), (short) 1, CHUNK_SIZE, 3, 2, "SHA-256");
+  }
+
+  @After
+  public void tearDown() {
+    this.service.close();
+  }
+
+  /**
+   * Data spanning several chunks, with a partial last chunk, reads back unchanged.
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    final byte[] data = randomBytes(10 * CHUNK_SIZE + 17, 1);
+    final CheckpointID id = write(data);
+    Assert.assertArrayEquals(data, read(id));
+    Assert.assertEquals(11, chunkFiles().length);
+  }
+
+  /**
+   * Chunks with the same content are stored once, within and across checkpoints.
+   */
+  @Test
+  public void testDeduplication() throws Exception {
+    final byte[] chunk = randomBytes(CHUNK_SIZE, 2);
+    final byte[] data = concat(chunk, chunk, chunk);
+    final CheckpointID first = write(data);
+    Assert.assertEquals(1, chunkFiles().length);
+
+    final byte[] changed = concat(chunk, randomBytes(CHUNK_SIZE, 3), chunk);
+    final CheckpointID second = write(changed);
+    Assert.assertEquals(2, chunkFiles().length);
+
+    Assert.assertArrayEquals(data, read(first));
+    Assert.assertArrayEquals(changed, read(second));
+  }
+
+  /**
+   * Deleting a checkpoint keeps its chunks, and garbage collection then deletes the chunks only it referred to
+   * and keeps the shared ones.
+   */
+  @Test
+  public void testDelete() throws Exception {
+    final byte[] shared = randomBytes(CHUNK_SIZE, 4);
+    final byte[] firstData = concat(shared, randomBytes(CHUNK_SIZE, 5));
+    final byte[] secondData = concat(shared, randomBytes(CHUNK_SIZE, 6));
+    final CheckpointID first = write(firstData);
+    final CheckpointID second = write(secondData);
+    Assert.assertEquals(3, chunkFiles().length);
+
+    Assert.assertTrue(this.service.delete(first));
+    Assert.assertEquals(3, chunkFiles().length);
+    Assert.assertEquals(1, this.service.collectGarbage());
+    Assert.assertEquals(2, chunkFiles().length);
+    Assert.assertArrayEquals(secondData, read(second));
+
+    Assert.assertTrue(this.service.delete(second));
+    Assert.assertEquals(2, this.service.collectGarbage());
+    Assert.assertEquals(0, chunkFiles().length);
+  }
+
+  /**
+   * Chunks of a checkpoint that is still being written survive garbage collection.
+   */
+  @Test
+  public void testCollectGarbageKeepsPendingChunks() throws Exception {
+    final byte[] data = randomBytes(2 * CHUNK_SIZE, 7);
+    final CheckpointID other = write(randomBytes(CHUNK_SIZE, 8));
+
+    final CheckpointWriteChannel channel = this.service.create();
+    channel.write(ByteBuffer.wrap(data));
+    channel.close();
+    this.service.delete(other);
+    this.service.collectGarbage();
+
+    final CheckpointID id = this.service.commit(channel);
+    Assert.assertArrayEquals(data, read(id));
+  }
+
+  /**
+   * An aborted checkpoint leaves no temporary files, and its chunks are garbage.
+   */
+  @Test
+  public void testAbort() throws Exception {
+    final CheckpointWriteChannel channel = this.service.create();
+    channel.write(ByteBuffer.wrap(randomBytes(5 * CHUNK_SIZE, 9)));
+    this.service.abort(channel);
+
+    for (final FileStatus status : this.fs.listStatus(this.base)) {
+      Assert.assertFalse(status.getPath().toString(), status.getPath().getName().endsWith(".tmp"));
+    }
+    for (final FileStatus status : chunkFiles()) {
+      Assert.assertFalse(status.getPath().toString(), status.getPath().getName().endsWith(".tmp"));
+    }
+    this.service.collectGarbage();
+    Assert.assertEquals(0, chunkFiles().length);
+  }
+
+  /**
+   * Chunks deleted behind the back of the service are written again by the next checkpoint.
+   */
+  @Test
+  public void testRewritesLostChunks() throws Exception {
+    final byte[] data = randomBytes(3 * CHUNK_SIZE, 10);
+    final CheckpointID first = write(data);
+    for (final FileStatus status : chunkFiles()) {
+      this.fs.delete(status.getPath(), false);
+    }
+
+    final CheckpointWriteChannel channel = this.service.create(first);
+    channel.write(ByteBuffer.wrap(data));
+    Assert.assertArrayEquals(data, read(this.service.commit(channel)));
+  }
+
+  private CheckpointID write(final byte[] data) throws Exception {
+    final CheckpointWriteChannel channel = this.service.create();
+    // Unaligned writes, so that chunks are filled across write calls.
+    for (int offset = 0; offset < data.length; offset += 37) {
+      channel.write(ByteBuffer.wrap(data, offset, Math.min(37, data.length - offset)));
+    }
+    return this.service.commit(channel);
+  }
+
+  private byte[] read(final CheckpointID id) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final CheckpointReadChannel channel = this.service.open(id)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(50);
+      while (channel.read(buffer) >= 0) {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private FileStatus[] chunkFiles() throws Exception {
+    final Path chunks = new Path(this.base, "chunks");
+    return this.fs.exists(chunks) ? this.fs.listStatus(chunks) : new FileStatus[0];
+  }
+
+  private static byte[] randomBytes(final int length, final long seed) {
+    final byte[] bytes = new byte[length];
+    new Random(seed).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static byte[] concat(final byte[]... parts) {
+    int length = 0;
+    for (final byte[] part : parts) {
+      length += part.length;
+    }
+    final byte[] result = Arrays.copyOf(parts[0], length);
+    int offset = parts[0].length;
+    for (int i = 1; i < parts.length; ++i) {
+      System.arraycopy(parts[i], 0, result, offset, parts[i].length);
+      offset += parts[i].length;
+    }
+    return result;
+  }
+}
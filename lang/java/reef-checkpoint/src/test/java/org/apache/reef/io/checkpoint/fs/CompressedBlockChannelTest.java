@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests for CompressedBlockOutputChannel and CompressedBlockInputChannel.
+ */
+public final class CompressedBlockChannelTest {
+
+  private static final int BLOCK_SIZE = 100;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem fs;
+  private CompressionCodec codec;
+  private ExecutorService executor;
+  private Path file;
+
+  @Before
+  public void setUp() throws Exception {
+    final Configuration conf = new Configuration();
+    this.fs = FileSystem.getLocal(conf);
+    this.codec = ReflectionUtils.newInstance(DefaultCodec.class, conf);
+    this.executor = Executors.newFixedThreadPool(2);
+    this.file = new Path(this.folder.getRoot().getAbsolutePath(), "checkpoint");
+  }
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * Data of several full blocks and a partial one reads back unchanged.
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    final byte[] data = compressibleBytes(7 * BLOCK_SIZE + 42);
+    write(data);
+    Assert.assertArrayEquals(data, read(0));
+    Assert.assertTrue("Checkpoint was not compressed", this.fs.getFileStatus(this.file).getLen() < data.length);
+  }
+
+  /**
+   * An empty checkpoint has no blocks and reads back empty.
+   */
+  @Test
+  public void testEmpty() throws Exception {
+    write(new byte[0]);
+    Assert.assertEquals(0, read(0).length);
+  }
+
+  /**
+   * Reading can start at any offset: at a block boundary, within a block, in the last block and at the end.
+   */
+  @Test
+  public void testPositionedRead() throws Exception {
+    final byte[] data = compressibleBytes(5 * BLOCK_SIZE + 13);
+    write(data);
+    for (final int position : new int[]{1, BLOCK_SIZE, BLOCK_SIZE + 1, 3 * BLOCK_SIZE - 1, 5 * BLOCK_SIZE + 5,
+        data.length, data.length + 10}) {
+      final int start = Math.min(position, data.length);
+      Assert.assertArrayEquals("position " + position,
+          Arrays.copyOfRange(data, start, data.length), read(position));
+    }
+  }
+
+  /**
+   * The header names the codec, and files without it are not taken for compressed checkpoints.
+   */
+  @Test
+  public void testCodecHeader() throws Exception {
+    write(compressibleBytes(BLOCK_SIZE));
+    Assert.assertEquals(DefaultCodec.class.getName(), readCodecClassName(this.file));
+
+    final Path raw = new Path(this.folder.getRoot().getAbsolutePath(), "raw");
+    try (final OutputStream out = this.fs.create(raw)) {
+      out.write(compressibleBytes(3 * BLOCK_SIZE));
+    }
+    Assert.assertNull(readCodecClassName(raw));
+  }
+
+  private String readCodecClassName(final Path path) throws IOException {
+    try (final FSDataInputStream in = this.fs.open(path)) {
+      return CompressedBlockInputChannel.readCodecClassName(in, this.fs.getFileStatus(path).getLen());
+    }
+  }
+
+  private void write(final byte[] data) throws IOException {
+    try (final CompressedBlockOutputChannel out =
+             new CompressedBlockOutputChannel(this.fs.create(this.file), this.codec, BLOCK_SIZE)) {
+      // Unaligned writes, so that blocks are filled across write calls.
+      for (int offset = 0; offset < data.length; offset += 33) {
+        out.write(ByteBuffer.wrap(data, offset, Math.min(33, data.length - offset)));
+      }
+    }
+  }
+
+  private byte[] read(final long position) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final ReadableByteChannel in = new CompressedBlockInputChannel(this.fs.open(this.file),
+        this.fs.getFileStatus(this.file).getLen(), this.codec, this.executor, 2, position)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(64);
+      while (in.read(buffer) >= 0) {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * @return random words from a small alphabet, which compress well.
+   */
+  static byte[] compressibleBytes(final int length) {
+    final Random random = new Random(length);
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; ++i) {
+      bytes[i] = (byte) ('a' + random.nextInt(4));
+    }
+    return bytes;
+  }
+}
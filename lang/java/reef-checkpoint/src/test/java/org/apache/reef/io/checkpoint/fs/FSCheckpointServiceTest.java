@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointService.CheckpointReadChannel;
+import org.apache.reef.io.checkpoint.CheckpointService.CheckpointWriteChannel;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tests for FSCheckpointService on the local FileSystem, with and without compression.
+ */
+public final class FSCheckpointServiceTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem fs;
+  private Path base;
+  private FSCheckpointService plainService;
+  private FSCheckpointService compressingService;
+
+  @Before
+  public void setUp() throws Exception {
+    final Configuration conf = new Configuration();
+    this.fs = FileSystem.getLocal(conf);
+    this.base = new Path(this.folder.getRoot().getAbsolutePath());
+    this.plainService = new FSCheckpointService(this.fs, this.base, new RandomNameCNS("plain-"), (short) 1);
+    this.compressingService = new FSCheckpointService(this.fs, this.base, new RandomNameCNS("compressed-"), (short) 1,
+        ReflectionUtils.newInstance(DefaultCodec.class, conf), 128, 2);
+  }
+
+  /**
+   * Each service reads the checkpoints of the other, whether they are compressed or not.
+   */
+  @Test
+  public void testReadEitherFormat() throws Exception {
+    final byte[] data = CompressedBlockChannelTest.compressibleBytes(1000);
+    final CheckpointID compressed = write(this.compressingService, data);
+    final CheckpointID plain = write(this.plainService, data);
+    Assert.assertTrue(this.fs.getFileStatus(((FSCheckpointID) compressed).getPath()).getLen() < data.length);
+    Assert.assertEquals(data.length, this.fs.getFileStatus(((FSCheckpointID) plain).getPath()).getLen());
+
+    for (final FSCheckpointService service : Arrays.asList(this.plainService, this.compressingService)) {
+      Assert.assertArrayEquals(data, read(service, compressed, 0));
+      Assert.assertArrayEquals(data, read(service, plain, 0));
+      Assert.assertArrayEquals(Arrays.copyOfRange(data, 300, data.length), read(service, compressed, 300));
+      Assert.assertArrayEquals(Arrays.copyOfRange(data, 300, data.length), read(service, plain, 300));
+      service.close();
+    }
+  }
+
+  /**
+   * A closed service doesn't restore compressed checkpoints any more.
+   */
+  @Test(expected = IOException.class)
+  public void testClosedServiceDoesNotRestore() throws Exception {
+    final CheckpointID compressed = write(this.compressingService, CompressedBlockChannelTest.compressibleBytes(500));
+    this.compressingService.close();
+    this.compressingService.open(compressed, 0);
+  }
+
+  private static CheckpointID write(final FSCheckpointService service, final byte[] data) throws Exception {
+    final CheckpointWriteChannel channel = service.create();
+    channel.write(ByteBuffer.wrap(data));
+    return service.commit(channel);
+  }
+
+  private static byte[] read(final FSCheckpointService service, final CheckpointID id, final long position)
+      throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final CheckpointReadChannel channel = service.open(id, position)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(100);
+      while (channel.read(buffer) >= 0) {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    }
+    return out.toByteArray();
+  }
+}
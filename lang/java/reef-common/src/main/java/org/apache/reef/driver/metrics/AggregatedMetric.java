@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.driver.metrics;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a metric, merged across all Evaluators that reported it.
+ */
+@Public
+@DriverSide
+public final class AggregatedMetric {
+
+  /**
+   * The kind of a metric, which determines how it is merged.
+   */
+  public enum Type {
+    /**
+     * Summed across Evaluators, including the ones that have already been closed.
+     */
+    COUNTER,
+    /**
+     * Summed across the Evaluators that are still running.
+     */
+    GAUGE,
+    /**
+     * Event counts, summed like a counter.
+     */
+    METER,
+    /**
+     * Bin counts summed bin by bin; the last bin also counts all values beyond it.
+     */
+    HISTOGRAM
+  }
+
+  private final String name;
+  private final Type type;
+  private final long value;
+  private final long sum;
+  private final int sources;
+  private final long binWidth;
+  private final long[] bins;
+  private final LogLinearHistogram logLinearHistogram;
+
+  AggregatedMetric(final String name, final Type type, final long value, final long sum, final int sources,
+                   final long binWidth, final long[] bins, final LogLinearHistogram logLinearHistogram) {
+    this.name = name;
+    this.type = type;
+    this.value = value;
+    this.sum = sum;
+    this.sources = sources;
+    this.binWidth = binWidth;
+    this.bins = bins;
+    this.logLinearHistogram = logLinearHistogram;
+  }
+
+  /**
+   * @return the name of the metric.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the kind of the metric.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * @return the merged count of a counter, meter or histogram, or the summed value of a gauge.
+   */
+  public long getValue() {
+    return value;
+  }
+
+  /**
+   * @return the sum of the values recorded by a histogram, or 0 if this is not a histogram.
+   */
+  public long getSum() {
+    return logLinearHistogram != null ? logLinearHistogram.getSum() : sum;
+  }
+
+  /**
+   * @return the number of Evaluators that contributed to this metric.
+   */
+  public int getSources() {
+    return sources;
+  }
+
+  /**
+   * @return true if this is a histogram with log-linear bins, which supports precise percentiles.
+   */
+  public boolean isLogLinearHistogram() {
+    return logLinearHistogram != null;
+  }
+
+  /**
+   * Returns the value below which the given percentage of the values of a histogram fall.
+   * For log-linear histograms, this is accurate to the precision of the histogram; for uniform
+   * histograms, it is the upper bound of the bin the percentile falls into.
+   *
+   * @param percentile the percentile, between 0 and 100.
+   * @return the value at the percentile, or 0 if this is not a histogram or it is empty.
+   */
+  public long getValueAtPercentile(final double percentile) {
+    if (logLinearHistogram != null) {
+      return logLinearHistogram.getValueAtPercentile(percentile);
+    }
+    long total = 0;
+    for (final long bin : bins) {
+      total += bin;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long target = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0.0), 100.0) / 100.0 * total));
+    long running = 0;
+    for (int i = 0; i < bins.length; ++i) {
+      running += bins[i];
+      if (running >= target) {
+        return (i + 1) * binWidth;
+      }
+    }
+    return bins.length * binWidth;
+  }
+
+  /**
+   * @return the width of each bin of a uniform histogram, or 0 otherwise.
+   */
+  public long getBinWidth() {
+    return binWidth;
+  }
+
+  /**
+   * @return a copy of the bin counts of a uniform histogram, empty otherwise.
+   */
+  public long[] getBins() {
+    return Arrays.copyOf(bins, bins.length);
+  }
+
+  @Override
+  public String toString() {
+    return "AggregatedMetric{name=" + name + ", type=" + type + ", value=" + value + ", sources=" + sources + '}';
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.driver.metrics;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricsProto;
+import org.apache.reef.wake.impl.StageManager;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Merges the metrics shipped by the Evaluators on their heartbeats into a cluster-wide view.
+ * <p>
+ * Evaluators register their metrics with the {@link MetricsRegistry} injected on the Evaluator side;
+ * Driver-side components use the {@link MetricsRegistry} injected on the Driver, available here
+ * via {@link #getDriverMetrics()}. Both also hold the metrics of the Wake stages of their process.
+ * The latest values of every running Evaluator are kept and merged on demand. When an Evaluator
+ * is closed, its counters, meters and histograms are folded into a running total and its gauges
+ * are dropped, so the memory used does not grow with the number of Evaluators that have come and gone.
+ */
+@Public
+@DriverSide
+public final class ClusterMetrics {
+
+  private static final Logger LOG = Logger.getLogger(ClusterMetrics.class.getName());
+
+  private final MetricsRegistry driverMetrics;
+
+  /**
+   * The latest metrics reported by each running Evaluator, keyed by Evaluator ID and metric name.
+   */
+  private final Map<String, Map<String, MetricProto>> evaluatorMetrics = new HashMap<>();
+
+  /**
+   * The totals of the Evaluators that have been closed, keyed by metric name.
+   */
+  private final Map<String, Accumulator> closedEvaluatorTotals = new HashMap<>();
+
+  @Inject
+  private ClusterMetrics(final MetricsRegistry driverMetrics) {
+    this.driverMetrics = driverMetrics;
+    StageManager.instance().exportTo(driverMetrics);
+  }
+
+  /**
+   * @return the registry of the metrics recorded on the Driver itself.
+   */
+  public MetricsRegistry getDriverMetrics() {
+    return this.driverMetrics;
+  }
+
+  /**
+   * @return a snapshot of the Evaluator metrics merged across the cluster, sorted by name.
+   */
+  public synchronized Map<String, AggregatedMetric> getEvaluatorMetrics() {
+
+    final Map<String, Accumulator> merged = new TreeMap<>();
+    for (final Map.Entry<String, Accumulator> entry : this.closedEvaluatorTotals.entrySet()) {
+      merged.put(entry.getKey(), entry.getValue().copy());
+    }
+    for (final Map<String, MetricProto> metrics : this.evaluatorMetrics.values()) {
+      for (final MetricProto metric : metrics.values()) {
+        addTo(merged, metric);
+      }
+    }
+
+    final Map<String, AggregatedMetric> result = new TreeMap<>();
+    for (final Map.Entry<String, Accumulator> entry : merged.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().toAggregatedMetric(entry.getKey()));
+    }
+    return result;
+  }
+
+  /**
+   * Records the metrics piggybacked on a heartbeat.
+   *
+   * @param evaluatorId the Evaluator that sent the heartbeat.
+   * @param metrics     the metrics that changed since its previous heartbeat.
+   */
+  @Private
+  public synchronized void onEvaluatorMetrics(final String evaluatorId, final MetricsProto metrics) {
+    Map<String, MetricProto> latest = this.evaluatorMetrics.get(evaluatorId);
+    if (latest == null) {
+      latest = new HashMap<>();
+      this.evaluatorMetrics.put(evaluatorId, latest);
+    }
+    for (final MetricProto metric : metrics.getMetricList()) {
+      latest.put(metric.getName(), metric);
+    }
+  }
+
+  /**
+   * Folds the final metrics of a closed Evaluator into the cluster totals.
+   *
+   * @param evaluatorId the Evaluator that was closed.
+   */
+  @Private
+  public synchronized void onEvaluatorClosed(final String evaluatorId) {
+    final Map<String, MetricProto> latest = this.evaluatorMetrics.remove(evaluatorId);
+    if (latest == null) {
+      return;
+    }
+    for (final MetricProto metric : latest.values()) {
+      if (metric.getType() != MetricProto.MetricType.GAUGE) {
+        addTo(this.closedEvaluatorTotals, metric);
+      }
+    }
+  }
+
+  private static void addTo(final Map<String, Accumulator> accumulators, final MetricProto metric) {
+    final Accumulator accumulator = accumulators.get(metric.getName());
+    if (accumulator == null) {
+      accumulators.put(metric.getName(), new Accumulator(metric));
+    } else if (!accumulator.add(metric)) {
+      LOG.log(Level.FINE, "Ignoring metric {0}: its type or histogram bins differ from other Evaluators.",
+          metric.getName());
+    }
+  }
+
+  /**
+   * Mutable sum of a metric over several Evaluators.
+   */
+  private static final class Accumulator {
+
+    private final MetricProto.MetricType type;
+    private final long binWidth;
+    private final long[] bins;
+    private final LogLinearHistogram logLinearHistogram;
+    private long value;
+    private long sum;
+    private int sources;
+
+    Accumulator(final MetricProto metric) {
+      this.type = metric.getType();
+      this.binWidth = metric.getBinWidth();
+      this.bins = new long[metric.getType() == MetricProto.MetricType.HISTOGRAM ? metric.getNumBins() : 0];
+      this.logLinearHistogram = metric.hasLogLinearHistogram() ?
+          LogLinearHistogram.fromByteArray(metric.getLogLinearHistogram().toByteArray()) : null;
+      for (int i = 0; i < metric.getBinIndexCount(); ++i) {
+        this.bins[metric.getBinIndex(i)] += metric.getBinCount(i);
+      }
+      this.value = metric.getValue();
+      this.sum = metric.getSum();
+      this.sources = 1;
+    }
+
+    private Accumulator(final Accumulator other) {
+      this.type = other.type;
+      this.binWidth = other.binWidth;
+      this.bins = other.bins.clone();
+      this.logLinearHistogram = other.logLinearHistogram == null ? null : other.logLinearHistogram.snapshot();
+      this.value = other.value;
+      this.sum = other.sum;
+      this.sources = other.sources;
+    }
+
+    Accumulator copy() {
+      return new Accumulator(this);
+    }
+
+    /**
+     * @return false if the metric cannot be merged into this one.
+     */
+    boolean add(final MetricProto metric) {
+      if (metric.getType() != this.type) {
+        return false;
+      }
+      if (this.logLinearHistogram != null) {
+        if (!metric.hasLogLinearHistogram()) {
+          return false;
+        }
+        final LogLinearHistogram other =
+            LogLinearHistogram.fromByteArray(metric.getLogLinearHistogram().toByteArray());
+        if (other.getSignificantBits() != this.logLinearHistogram.getSignificantBits()) {
+          return false;
+        }
+        this.logLinearHistogram.merge(other);
+      } else if (this.type == MetricProto.MetricType.HISTOGRAM) {
+        if (metric.hasLogLinearHistogram() ||
+            metric.getBinWidth() != this.binWidth || metric.getNumBins() != this.bins.length) {
+          return false;
+        }
+        for (int i = 0; i < metric.getBinIndexCount(); ++i) {
+          this.bins[metric.getBinIndex(i)] += metric.getBinCount(i);
+        }
+      }
+      this.value += metric.getValue();
+      this.sum += metric.getSum();
+      this.sources++;
+      return true;
+    }
+
+    AggregatedMetric toAggregatedMetric(final String name) {
+      return new AggregatedMetric(name, AggregatedMetric.Type.valueOf(this.type.name()),
+          this.value, this.sum, this.sources, this.binWidth, this.bins.clone(),
+          this.logLinearHistogram == null ? null : this.logLinearHistogram.snapshot());
+    }
+  }
+}
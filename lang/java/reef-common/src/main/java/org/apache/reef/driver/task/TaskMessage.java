@@ -61,6 +61,8 @@ public interface TaskMessage extends Message, Identifiable, Numberable {
    * A heartbeat may contain several messages; all such message will get the same sequence number.
    * A source can attach only one message to a single heartbeat, so the strict sequence number monotonicity
    * per source is guaranteed.
+   * Messages sent with {@link org.apache.reef.task.TaskMessageSender} are instead numbered consecutively
+   * by the Evaluator that sent them.
    *
    */
   @Override
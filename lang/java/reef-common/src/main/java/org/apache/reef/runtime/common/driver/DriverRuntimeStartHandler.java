@@ -23,6 +23,7 @@ import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.driver.api.ResourceManagerStartHandler;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorHeartbeatHandler;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorResourceManagerErrorHandler;
+import org.apache.reef.runtime.common.driver.evaluator.TaskMessageBatchHandler;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceManagerStatus;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.wake.EventHandler;
@@ -46,6 +47,7 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
   private final RemoteManager remoteManager;
   private final EvaluatorResourceManagerErrorHandler evaluatorResourceManagerErrorHandler;
   private final EvaluatorHeartbeatHandler evaluatorHeartbeatHandler;
+  private final TaskMessageBatchHandler taskMessageBatchHandler;
   private final ResourceManagerStatus resourceManagerStatus;
   private final ResourceManagerStartHandler resourceManagerStartHandler;
   private final DriverStatusManager driverStatusManager;
@@ -55,6 +57,7 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
    * @param remoteManager                        the remoteManager in the Driver.
    * @param evaluatorResourceManagerErrorHandler This will be wired up to the remoteManager on onNext()
    * @param evaluatorHeartbeatHandler            This will be wired up to the remoteManager on onNext()
+   * @param taskMessageBatchHandler              This will be wired up to the remoteManager on onNext()
    * @param resourceManagerStartHandler          This will initialize the resource manager
    * @param resourceManagerStatus                will be set to RUNNING in onNext()
    * @param driverStatusManager                  will be set to RUNNING in onNext()
@@ -65,6 +68,7 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
       final RemoteManager remoteManager,
       final EvaluatorResourceManagerErrorHandler evaluatorResourceManagerErrorHandler,
       final EvaluatorHeartbeatHandler evaluatorHeartbeatHandler,
+      final TaskMessageBatchHandler taskMessageBatchHandler,
       final ResourceManagerStatus resourceManagerStatus,
       final ResourceManagerStartHandler resourceManagerStartHandler,
       final DriverStatusManager driverStatusManager) {
@@ -72,6 +76,7 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
     this.remoteManager = remoteManager;
     this.evaluatorResourceManagerErrorHandler = evaluatorResourceManagerErrorHandler;
     this.evaluatorHeartbeatHandler = evaluatorHeartbeatHandler;
+    this.taskMessageBatchHandler = taskMessageBatchHandler;
     this.resourceManagerStatus = resourceManagerStatus;
     this.resourceManagerStartHandler = resourceManagerStartHandler;
     this.driverStatusManager = driverStatusManager;
@@ -95,6 +100,10 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
         EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.class,
         this.evaluatorHeartbeatHandler);
 
+    this.remoteManager.registerHandler(
+        EvaluatorRuntimeProtocol.TaskMessageBatchProto.class,
+        this.taskMessageBatchHandler);
+
     this.remoteManager.registerHandler(
         ReefServiceProtos.RuntimeErrorProto.class,
         this.evaluatorResourceManagerErrorHandler);
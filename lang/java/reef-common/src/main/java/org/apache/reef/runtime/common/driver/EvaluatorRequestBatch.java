@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.evaluator.EvaluatorRequest;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Collects evaluator requests and merges the compatible ones, so that they reach the resource manager
+ * as few requests for many evaluators instead of many requests for a few.
+ * <p>
+ * Requests are compatible if they ask for the same memory, cores, runtime, nodes, racks, node label and locality.
+ * Requests for different nodes are never merged: a merged request for N evaluators on the union of their nodes
+ * could place several of them on one node and none on another.
+ */
+@Private
+@DriverSide
+@NotThreadSafe
+public final class EvaluatorRequestBatch {
+
+  /** Merged requests, in the order their first part was added. */
+  private final Map<Key, Merged> pending = new LinkedHashMap<>();
+
+  private int numAdded = 0;
+
+  /**
+   * Adds a request to the batch.
+   */
+  public void add(final EvaluatorRequest request) {
+    final Key key = new Key(request);
+    final Merged merged = this.pending.get(key);
+    if (merged == null) {
+      this.pending.put(key, new Merged(request));
+    } else {
+      merged.add(request);
+    }
+    ++this.numAdded;
+  }
+
+  public boolean isEmpty() {
+    return this.pending.isEmpty();
+  }
+
+  /**
+   * @return the number of requests added since the last drain.
+   */
+  public int getNumAdded() {
+    return this.numAdded;
+  }
+
+  /**
+   * Empties the batch.
+   * @return the merged requests, in the order their first part was added.
+   */
+  public List<EvaluatorRequest> drain() {
+    final List<EvaluatorRequest> requests = new ArrayList<>(this.pending.size());
+    for (final Merged merged : this.pending.values()) {
+      requests.add(merged.build());
+    }
+    this.pending.clear();
+    this.numAdded = 0;
+    return requests;
+  }
+
+  /**
+   * What requests must have in common to be merged.
+   */
+  private static final class Key {
+    private final int megaBytes;
+    private final int cores;
+    private final String runtimeName;
+    private final Set<String> rackNames;
+    private final boolean relaxLocality;
+    private final String nodeLabelExpression;
+    private final Set<String> nodeNames;
+
+    private Key(final EvaluatorRequest request) {
+      this.megaBytes = request.getMegaBytes();
+      this.cores = request.getNumberOfCores();
+      this.runtimeName = request.getRuntimeName();
+      this.rackNames = new HashSet<>(request.getRackNames());
+      this.relaxLocality = request.getRelaxLocality();
+      this.nodeLabelExpression = request.getNodeLabelExpression();
+      this.nodeNames = new HashSet<>(request.getNodeNames());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return this.megaBytes == key.megaBytes && this.cores == key.cores &&
+          this.relaxLocality == key.relaxLocality && Objects.equals(this.runtimeName, key.runtimeName) &&
+          this.nodeNames.equals(key.nodeNames) && this.rackNames.equals(key.rackNames) &&
+          Objects.equals(this.nodeLabelExpression, key.nodeLabelExpression);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.megaBytes, this.cores, this.runtimeName, this.nodeNames, this.rackNames,
+          this.relaxLocality, this.nodeLabelExpression);
+    }
+  }
+
+  /**
+   * A request merged from compatible ones.
+   */
+  private static final class Merged {
+    private final EvaluatorRequest first;
+    private int number;
+
+    private Merged(final EvaluatorRequest request) {
+      this.first = request;
+      this.number = request.getNumber();
+    }
+
+    private void add(final EvaluatorRequest request) {
+      this.number += request.getNumber();
+    }
+
+    private EvaluatorRequest build() {
+      final EvaluatorRequest.Builder<?> builder = EvaluatorRequest.newBuilder()
+          .setNumber(this.number)
+          .setMemory(this.first.getMegaBytes())
+          .setNumberOfCores(this.first.getNumberOfCores())
+          .setRuntimeName(this.first.getRuntimeName())
+          .setRelaxLocality(this.first.getRelaxLocality())
+          .setNodeLabelExpression(this.first.getNodeLabelExpression());
+      for (final String nodeName : this.first.getNodeNames()) {
+        builder.addNodeName(nodeName);
+      }
+      for (final String rackName : this.first.getRackNames()) {
+        builder.addRackName(rackName);
+      }
+      return builder.build();
+    }
+  }
+}
@@ -24,18 +24,28 @@ import org.apache.reef.driver.evaluator.EvaluatorRequestor;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestHandler;
+import org.apache.reef.runtime.common.driver.parameters.EvaluatorRequestBatchWindow;
 import org.apache.reef.runtime.common.utils.Constants;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.logging.LoggingScope;
 import org.apache.reef.util.logging.LoggingScopeFactory;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
 
 import javax.inject.Inject;
 import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
 /**
  * Implementation of the EvaluatorRequestor that translates the request and hands it down to the underlying RM.
+ * <p>
+ * If a batch window is configured, requests are held back for that long and merged with the compatible
+ * requests that arrive meanwhile. Drivers that request evaluators in a loop then hand the RM a few large
+ * requests, that it can serve in one pass.
  */
 public final class EvaluatorRequestorImpl implements EvaluatorRequestor {
 
@@ -44,19 +54,43 @@ public final class EvaluatorRequestorImpl implements EvaluatorRequestor {
   private final ResourceCatalog resourceCatalog;
   private final ResourceRequestHandler resourceRequestHandler;
   private final LoggingScopeFactory loggingScopeFactory;
+  private final Clock clock;
+  private final int batchWindow;
+  private final EvaluatorRequestBatch batch = new EvaluatorRequestBatch();
+  private final FlushAlarmHandler flushAlarmHandler = new FlushAlarmHandler();
+
+  private boolean isFlushScheduled = false;
 
   /**
+   * Creates a requestor that hands every request to the RM right away.
    * @param resourceCatalog
    * @param resourceRequestHandler
    * @param loggingScopeFactory
    */
-  @Inject
   public EvaluatorRequestorImpl(final ResourceCatalog resourceCatalog,
                                 final ResourceRequestHandler resourceRequestHandler,
                                 final LoggingScopeFactory loggingScopeFactory) {
+    this(resourceCatalog, resourceRequestHandler, loggingScopeFactory, null, 0);
+  }
+
+  /**
+   * @param resourceCatalog
+   * @param resourceRequestHandler
+   * @param loggingScopeFactory
+   * @param clock used to flush the batched requests.
+   * @param batchWindow how long in ms requests are held back to be merged. Zero disables batching.
+   */
+  @Inject
+  public EvaluatorRequestorImpl(final ResourceCatalog resourceCatalog,
+                                final ResourceRequestHandler resourceRequestHandler,
+                                final LoggingScopeFactory loggingScopeFactory,
+                                final Clock clock,
+                                @Parameter(EvaluatorRequestBatchWindow.class) final int batchWindow) {
     this.resourceCatalog = resourceCatalog;
     this.resourceRequestHandler = resourceRequestHandler;
     this.loggingScopeFactory = loggingScopeFactory;
+    this.clock = clock;
+    this.batchWindow = batchWindow;
   }
 
   @Override
@@ -85,6 +119,35 @@ public final class EvaluatorRequestorImpl implements EvaluatorRequestor {
     if(req.getRuntimeName() == null) {
       throw new IllegalArgumentException("Runtime name cannot be null");
     }
+
+    if (this.batchWindow <= 0 || this.clock.isClosed()) {
+      this.flush();
+      this.send(req);
+    } else {
+      this.batch.add(req);
+      if (!this.isFlushScheduled) {
+        this.isFlushScheduled = true;
+        this.clock.scheduleAlarm(this.batchWindow, this.flushAlarmHandler);
+      }
+    }
+  }
+
+  /**
+   * Hands the batched requests to the RM, if any.
+   */
+  public synchronized void flush() {
+    if (!this.batch.isEmpty()) {
+      final int numAdded = this.batch.getNumAdded();
+      final List<EvaluatorRequest> requests = this.batch.drain();
+      LOG.log(Level.FINE, "Submitting {0} evaluator requests merged into {1}",
+          new Object[] {numAdded, requests.size()});
+      for (final EvaluatorRequest request : requests) {
+        this.send(request);
+      }
+    }
+  }
+
+  private void send(final EvaluatorRequest req) {
     // for backwards compatibility, we will always set the relax locality flag
     // to true unless the user has set it to false in the request, in which case
     // we will check for the ANY modifier (*), if there, then we relax the
@@ -115,6 +178,16 @@ public final class EvaluatorRequestorImpl implements EvaluatorRequestor {
     }
   }
 
+  private final class FlushAlarmHandler implements EventHandler<Alarm> {
+    @Override
+    public void onNext(final Alarm alarm) {
+      synchronized (EvaluatorRequestorImpl.this) {
+        isFlushScheduled = false;
+        flush();
+      }
+    }
+  }
+
   /**
    * Get a new builder.
    *
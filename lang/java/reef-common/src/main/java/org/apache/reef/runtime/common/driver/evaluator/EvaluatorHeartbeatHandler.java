@@ -20,12 +20,15 @@ package org.apache.reef.runtime.common.driver.evaluator;
 
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.metrics.ClusterMetrics;
 import org.apache.reef.driver.restart.DriverRestartManager;
 import org.apache.reef.driver.restart.EvaluatorRestartState;
 import org.apache.reef.proto.EvaluatorRuntimeProtocol;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.util.Optional;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.Meter;
 import org.apache.reef.wake.remote.RemoteMessage;
 
 import javax.inject.Inject;
@@ -43,14 +46,22 @@ public final class EvaluatorHeartbeatHandler
   private final Evaluators evaluators;
   private final EvaluatorManagerFactory evaluatorManagerFactory;
   private final DriverRestartManager driverRestartManager;
+  private final ClusterMetrics clusterMetrics;
+  private final Meter heartbeats;
+  private final Histogram heartbeatDelay;
 
   @Inject
   EvaluatorHeartbeatHandler(final Evaluators evaluators,
                             final EvaluatorManagerFactory evaluatorManagerFactory,
-                            final DriverRestartManager driverRestartManager) {
+                            final DriverRestartManager driverRestartManager,
+                            final ClusterMetrics clusterMetrics) {
     this.evaluators = evaluators;
     this.evaluatorManagerFactory = evaluatorManagerFactory;
     this.driverRestartManager = driverRestartManager;
+    this.clusterMetrics = clusterMetrics;
+    this.heartbeats = clusterMetrics.getDriverMetrics().meter("driver.heartbeats");
+    // Time from sending to processing a heartbeat. Includes the clock skew between the hosts.
+    this.heartbeatDelay = clusterMetrics.getDriverMetrics().histogram("driver.heartbeat.delay.ms");
   }
 
   @Override
@@ -64,9 +75,16 @@ public final class EvaluatorHeartbeatHandler
         new Object[]{evaluatorId, status.getState(), heartbeat.getTimestamp(),
             evaluatorHeartbeatMessage.getIdentifier()});
 
+    this.heartbeats.mark(1);
+    this.heartbeatDelay.update(Math.max(0, System.currentTimeMillis() - heartbeat.getTimestamp()));
+
     try {
       final Optional<EvaluatorManager> evaluatorManager = this.evaluators.get(evaluatorId);
       if (evaluatorManager.isPresent()) {
+        // Record the metrics first: the heartbeat may close the Evaluator, which retires its metrics.
+        if (heartbeat.hasMetrics()) {
+          this.clusterMetrics.onEvaluatorMetrics(evaluatorId, heartbeat.getMetrics());
+        }
         evaluatorManager.get().onEvaluatorHeartbeatMessage(evaluatorHeartbeatMessage);
         return;
       }
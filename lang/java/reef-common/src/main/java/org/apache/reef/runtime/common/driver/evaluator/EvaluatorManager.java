@@ -463,6 +463,20 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
     }
   }
 
+  /**
+   * Process task messages the Evaluator sent outside of a heartbeat.
+   */
+  public void onTaskMessageBatch(final EvaluatorRuntimeProtocol.TaskMessageBatchProto batch) {
+    synchronized (this.evaluatorDescriptor) {
+      if (this.task.isPresent() && this.task.get().getId().equals(batch.getTaskId())) {
+        this.task.get().onTaskMessages(batch);
+      } else {
+        LOG.log(Level.WARNING, "Dropping {0} messages of Task {1} which is not running on Evaluator {2}",
+            new Object[] {batch.getTaskMessageCount(), batch.getTaskId(), this.evaluatorId});
+      }
+    }
+  }
+
   /**
    * Process a evaluator status message.
    *
@@ -20,12 +20,14 @@ package org.apache.reef.runtime.common.driver.evaluator;
 
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.metrics.ClusterMetrics;
 import org.apache.reef.driver.parameters.DriverIdentifier;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationEvent;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.Optional;
 import org.apache.reef.tang.util.MonotonicSet;
 import org.apache.reef.util.SingletonAsserter;
+import org.apache.reef.wake.metrics.Gauge;
 
 import javax.inject.Inject;
 import java.util.*;
@@ -52,8 +54,20 @@ public final class Evaluators implements AutoCloseable {
    */
   private final MonotonicSet<String> closedEvaluatorIds = new MonotonicSet<>();
 
+  private final ClusterMetrics clusterMetrics;
+
   @Inject
-  private Evaluators(@Parameter(DriverIdentifier.class) final String driverId) {
+  private Evaluators(@Parameter(DriverIdentifier.class) final String driverId,
+                     final ClusterMetrics clusterMetrics) {
+    this.clusterMetrics = clusterMetrics;
+    this.clusterMetrics.getDriverMetrics().register("driver.evaluators.running", new Gauge() {
+      @Override
+      public long getValue() {
+        synchronized (Evaluators.this) {
+          return evaluators.size();
+        }
+      }
+    });
     LOG.log(Level.FINE, "Instantiated 'Evaluators' for driver {0}", driverId);
     // There can be several instances of the class for multiple REEFEnvironments.
     // It is still a singleton when REEF Driver owns the entire JVM.
@@ -173,6 +187,7 @@ public final class Evaluators implements AutoCloseable {
 
     evaluatorManager.shutdown();
     this.evaluators.remove(evaluatorId);
+    this.clusterMetrics.onEvaluatorClosed(evaluatorId);
     this.closedEvaluatorIds.add(evaluatorId);
 
     LOG.log(Level.FINEST, "Closed evaluator removed: {0}", evaluatorId);
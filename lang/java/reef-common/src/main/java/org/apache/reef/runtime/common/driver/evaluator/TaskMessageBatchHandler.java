@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
+import org.apache.reef.util.Optional;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.RemoteMessage;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives the task messages that Evaluators send outside of their heartbeats
+ * and dispatches them to the right EvaluatorManager instance.
+ */
+@Private
+@DriverSide
+public final class TaskMessageBatchHandler
+    implements EventHandler<RemoteMessage<EvaluatorRuntimeProtocol.TaskMessageBatchProto>> {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageBatchHandler.class.getName());
+
+  private final Evaluators evaluators;
+
+  @Inject
+  TaskMessageBatchHandler(final Evaluators evaluators) {
+    this.evaluators = evaluators;
+  }
+
+  @Override
+  public void onNext(final RemoteMessage<EvaluatorRuntimeProtocol.TaskMessageBatchProto> remoteMessage) {
+    final EvaluatorRuntimeProtocol.TaskMessageBatchProto batch = remoteMessage.getMessage();
+    final Optional<EvaluatorManager> evaluatorManager = this.evaluators.get(batch.getEvaluatorId());
+    if (evaluatorManager.isPresent()) {
+      evaluatorManager.get().onTaskMessageBatch(batch);
+    } else {
+      LOG.log(Level.WARNING, "Dropping {0} messages of Task {1} from unknown Evaluator {2}",
+          new Object[]{batch.getTaskMessageCount(), batch.getTaskId(), batch.getEvaluatorId()});
+    }
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.reef.driver.restart.DriverRestartManager;
 import org.apache.reef.driver.restart.EvaluatorRestartState;
 import org.apache.reef.driver.task.FailedTask;
 import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
+import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.driver.context.EvaluatorContext;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorManager;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorMessageDispatcher;
@@ -161,6 +163,31 @@ public final class TaskRepresenter {
     }
   }
 
+  /**
+   * Dispatches task messages that were sent outside of a heartbeat.
+   * Each message gets the sequence number the Evaluator assigned to it.
+   */
+  public void onTaskMessages(final EvaluatorRuntimeProtocol.TaskMessageBatchProto batch) {
+
+    if (!batch.getContextId().equals(this.context.getId())) {
+      throw new RuntimeException(
+          "Received messages for a task running on Context " + batch.getContextId() +
+              " while the Driver believes this Task to be run on Context " + this.context.getId());
+    }
+
+    if (this.isNotRunning()) {
+      LOG.log(Level.WARNING, "Dropping {0} messages of Task {1} in state {2}",
+          new Object[]{batch.getTaskMessageCount(), this.taskId, this.state});
+      return;
+    }
+
+    long sequenceNumber = batch.getSequence();
+    for (final ReefServiceProtos.TaskStatusProto.TaskMessageProto message : batch.getTaskMessageList()) {
+      this.messageDispatcher.onTaskMessage(new TaskMessageImpl(message.getMessage().toByteArray(),
+          this.taskId, this.context.getId(), message.getSourceId(), sequenceNumber++));
+    }
+  }
+
   private void onTaskSuspend(final TaskStatusPOJO taskStatus) {
     assert State.SUSPEND == taskStatus.getState();
     assert this.isKnown();
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.evaluator.parameters.HeartBeatTriggerWindow;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collapses bursts of heartbeat triggers into a single heartbeat.
+ * <p>
+ * The first trigger schedules a heartbeat on the clock HeartBeatTriggerWindow ms later; every trigger that arrives
+ * before that heartbeat is assembled is covered by it. The heartbeat is assembled when it is sent, so it carries
+ * all the task messages pending at that point. Triggering threads never wait for the heartbeat to be sent.
+ */
+@Private
+@EvaluatorSide
+public final class CoalescingHeartBeatTrigger {
+
+  private static final Logger LOG = Logger.getLogger(CoalescingHeartBeatTrigger.class.getName());
+
+  private final Runnable sendHeartbeat;
+  private final Clock clock;
+  private final int window;
+  private final AtomicBoolean isPending = new AtomicBoolean(false);
+  private final SendAlarmHandler sendAlarmHandler = new SendAlarmHandler();
+
+  @Inject
+  private CoalescingHeartBeatTrigger(
+      final HeartBeatManager heartBeatManager,
+      final Clock clock,
+      @Parameter(HeartBeatTriggerWindow.class) final int window) {
+    this(new Runnable() {
+      @Override
+      public void run() {
+        heartBeatManager.sendHeartbeat();
+      }
+    }, clock, window);
+  }
+
+  CoalescingHeartBeatTrigger(final Runnable sendHeartbeat, final Clock clock, final int window) {
+    this.sendHeartbeat = sendHeartbeat;
+    this.clock = clock;
+    this.window = Math.max(window, 0);
+  }
+
+  /**
+   * Requests a heartbeat. Returns without waiting for it to be sent.
+   */
+  public void trigger() {
+    if (!this.isPending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      this.clock.scheduleAlarm(this.window, this.sendAlarmHandler);
+    } catch (final IllegalStateException ex) {
+      LOG.log(Level.FINEST, "Clock is closed, sending the triggered heartbeat right away");
+      this.send();
+    }
+  }
+
+  private void send() {
+    // Clear the flag first: a trigger that arrives while the heartbeat is assembled schedules another one.
+    this.isPending.set(false);
+    this.sendHeartbeat.run();
+  }
+
+  private final class SendAlarmHandler implements EventHandler<Alarm> {
+    @Override
+    public void onNext(final Alarm alarm) {
+      send();
+    }
+  }
+}
@@ -51,6 +51,8 @@ public final class HeartBeatManager {
   private final EventHandler<EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto> evaluatorHeartbeatHandler;
   private final InjectionFuture<EvaluatorRuntime> evaluatorRuntime;
   private final InjectionFuture<ContextManager> contextManager;
+  private final MetricsEncoder metricsEncoder;
+  private final TaskMessageChannel taskMessageChannel;
 
   @Inject
   private HeartBeatManager(
@@ -58,6 +60,8 @@ public final class HeartBeatManager {
       final InjectionFuture<ContextManager> contextManager,
       final Clock clock,
       final RemoteManager remoteManager,
+      final MetricsEncoder metricsEncoder,
+      final TaskMessageChannel taskMessageChannel,
       @Parameter(HeartbeatPeriod.class) final int heartbeatPeriod,
       @Parameter(DriverRemoteIdentifier.class) final String driverRID) {
 
@@ -65,6 +69,8 @@ public final class HeartBeatManager {
     this.contextManager = contextManager;
     this.clock = clock;
     this.heartbeatPeriod = heartbeatPeriod;
+    this.metricsEncoder = metricsEncoder;
+    this.taskMessageChannel = taskMessageChannel;
     this.evaluatorHeartbeatHandler = remoteManager.getHandler(
         driverRID, EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.class);
   }
@@ -80,6 +86,8 @@ public final class HeartBeatManager {
    * Called with a specific TaskStatus that must be delivered to the driver.
    */
   public synchronized void sendTaskStatus(final ReefServiceProtos.TaskStatusProto taskStatusProto) {
+    // Messages the task sent directly must reach the driver before the task status does.
+    this.taskMessageChannel.flush();
     this.sendHeartBeat(this.getEvaluatorHeartbeatProto(
         this.evaluatorRuntime.get().getEvaluatorStatus(),
         this.contextManager.get().getContextStatusCollection(),
@@ -110,10 +118,12 @@ public final class HeartBeatManager {
    */
   public synchronized void sendEvaluatorStatus(
       final ReefServiceProtos.EvaluatorStatusProto evaluatorStatusProto) {
-    this.sendHeartBeat(EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
-        .setTimestamp(System.currentTimeMillis())
-        .setEvaluatorStatus(evaluatorStatusProto)
-        .build());
+    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder =
+        EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
+            .setTimestamp(System.currentTimeMillis())
+            .setEvaluatorStatus(evaluatorStatusProto);
+    this.addMetrics(builder);
+    this.sendHeartBeat(builder.build());
   }
 
   /**
@@ -155,9 +165,21 @@ public final class HeartBeatManager {
       builder.setTaskStatus(taskStatusProto.get());
     }
 
+    this.addMetrics(builder);
+
     return builder.build();
   }
 
+  /**
+   * Piggybacks the metrics that changed since the last heartbeat, if any.
+   */
+  private void addMetrics(final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder) {
+    final EvaluatorRuntimeProtocol.MetricsProto metrics = this.metricsEncoder.encodeChanged();
+    if (metrics != null) {
+      builder.setMetrics(metrics);
+    }
+  }
+
   final class HeartbeatAlarmHandler implements EventHandler<Alarm> {
     @Override
     public void onNext(final Alarm alarm) {
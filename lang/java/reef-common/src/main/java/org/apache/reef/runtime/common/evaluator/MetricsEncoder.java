@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricsProto;
+import org.apache.reef.wake.impl.StageManager;
+import org.apache.reef.wake.metrics.Counter;
+import org.apache.reef.wake.metrics.Gauge;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.UniformHistogram;
+
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes the metrics of the Evaluator's {@link MetricsRegistry} for shipping on heartbeats.
+ * <p>
+ * Metrics are sent in cumulative form, so a lost or reordered heartbeat cannot corrupt the
+ * aggregate on the Driver. To keep heartbeats small, only the metrics that changed since the
+ * previous call are encoded, and histograms only carry their non-empty bins.
+ * The metrics of the Wake stages of the Evaluator are included.
+ * Not thread safe: the {@link HeartBeatManager} calls it while holding its own lock.
+ */
+@Private
+@EvaluatorSide
+final class MetricsEncoder {
+
+  private final MetricsRegistry metricsRegistry;
+
+  /**
+   * The value last shipped for each metric, keyed by type and name.
+   */
+  private final Map<MetricProto.MetricType, Map<String, Long>> lastShipped = new HashMap<>();
+
+  @Inject
+  private MetricsEncoder(final MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+    StageManager.instance().exportTo(metricsRegistry);
+    for (final MetricProto.MetricType type : MetricProto.MetricType.values()) {
+      this.lastShipped.put(type, new HashMap<String, Long>());
+    }
+  }
+
+  /**
+   * @return the metrics that changed since the last call, or null if none did.
+   */
+  MetricsProto encodeChanged() {
+
+    final MetricsProto.Builder builder = MetricsProto.newBuilder();
+
+    for (final Map.Entry<String, Counter> entry : this.metricsRegistry.getCounters().entrySet()) {
+      final long value = entry.getValue().getCount();
+      if (this.hasChanged(MetricProto.MetricType.COUNTER, entry.getKey(), value)) {
+        builder.addMetric(newMetric(entry.getKey(), MetricProto.MetricType.COUNTER, value));
+      }
+    }
+
+    for (final Map.Entry<String, Gauge> entry : this.metricsRegistry.getGauges().entrySet()) {
+      final long value = entry.getValue().getValue();
+      if (this.hasChanged(MetricProto.MetricType.GAUGE, entry.getKey(), value)) {
+        builder.addMetric(newMetric(entry.getKey(), MetricProto.MetricType.GAUGE, value));
+      }
+    }
+
+    for (final Map.Entry<String, Meter> entry : this.metricsRegistry.getMeters().entrySet()) {
+      final long value = entry.getValue().getCount();
+      if (this.hasChanged(MetricProto.MetricType.METER, entry.getKey(), value)) {
+        builder.addMetric(newMetric(entry.getKey(), MetricProto.MetricType.METER, value));
+      }
+    }
+
+    for (final Map.Entry<String, Histogram> entry : this.metricsRegistry.getHistograms().entrySet()) {
+      final Histogram histogram = entry.getValue();
+      if (!this.hasChanged(MetricProto.MetricType.HISTOGRAM, entry.getKey(), histogram.getCount())) {
+        continue;
+      }
+      if (histogram instanceof LogLinearHistogram) {
+        builder.addMetric(newHistogram(entry.getKey(), ((LogLinearHistogram) histogram).snapshot()));
+      } else if (histogram instanceof UniformHistogram) {
+        builder.addMetric(newHistogram(entry.getKey(), (UniformHistogram) histogram));
+      }
+    }
+
+    return builder.getMetricCount() == 0 ? null : builder.build();
+  }
+
+  private boolean hasChanged(final MetricProto.MetricType type, final String name, final long value) {
+    final Long prev = this.lastShipped.get(type).put(name, value);
+    return prev == null || prev != value;
+  }
+
+  private static MetricProto newMetric(final String name, final MetricProto.MetricType type, final long value) {
+    return MetricProto.newBuilder()
+        .setName(name)
+        .setType(type)
+        .setValue(value)
+        .build();
+  }
+
+  private static MetricProto newHistogram(final String name, final LogLinearHistogram snapshot) {
+    return MetricProto.newBuilder()
+        .setName(name)
+        .setType(MetricProto.MetricType.HISTOGRAM)
+        .setValue(snapshot.getCount())
+        .setLogLinearHistogram(ByteString.copyFrom(snapshot.toByteArray()))
+        .build();
+  }
+
+  private static MetricProto newHistogram(final String name, final UniformHistogram histogram) {
+    final MetricProto.Builder builder = MetricProto.newBuilder()
+        .setName(name)
+        .setType(MetricProto.MetricType.HISTOGRAM)
+        .setBinWidth(histogram.getBinWidth())
+        .setNumBins(histogram.getNumBins())
+        .setSum(histogram.getSum());
+    long count = 0;
+    for (int i = 0; i < histogram.getNumBins(); ++i) {
+      final long binCount = histogram.getValue(i);
+      if (binCount != 0) {
+        builder.addBinIndex(i).addBinCount(binCount);
+        count += binCount;
+      }
+    }
+    // Use the sum of the bins rather than getCount(), which may be ahead of them under concurrent updates.
+    return builder.setValue(count).build();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.runtime.common.evaluator.parameters.DriverRemoteIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.EvaluatorIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.TaskMessageBatchWindow;
+import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.task.TaskMessage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends task messages to the driver as they are produced, without waiting for a heartbeat.
+ * <p>
+ * Messages are held back for a short window and sent together as one TaskMessageBatchProto over the
+ * same link as the heartbeats, which preserves their order. The batch only carries the messages:
+ * unlike a heartbeat, it does not need the evaluator, context and task status to be assembled.
+ * Pending messages are flushed before every task status heartbeat, so the driver sees all the
+ * messages of a task before it learns that the task is done.
+ */
+@Private
+@EvaluatorSide
+public final class TaskMessageChannel {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageChannel.class.getName());
+
+  /**
+   * Flush a batch right away once it holds that many messages.
+   */
+  private static final int MAX_BATCH_MESSAGES = 1024;
+
+  private final EventHandler<EvaluatorRuntimeProtocol.TaskMessageBatchProto> batchHandler;
+  private final Clock clock;
+  private final String evaluatorId;
+  private final int batchWindow;
+  private final FlushAlarmHandler flushAlarmHandler = new FlushAlarmHandler();
+
+  private EvaluatorRuntimeProtocol.TaskMessageBatchProto.Builder pending;
+  private long nextSequence = 0;
+  private boolean isFlushScheduled = false;
+
+  @Inject
+  private TaskMessageChannel(
+      final RemoteManager remoteManager,
+      final Clock clock,
+      @Parameter(DriverRemoteIdentifier.class) final String driverRID,
+      @Parameter(EvaluatorIdentifier.class) final String evaluatorId,
+      @Parameter(TaskMessageBatchWindow.class) final int batchWindow) {
+    this.batchHandler = remoteManager.getHandler(driverRID, EvaluatorRuntimeProtocol.TaskMessageBatchProto.class);
+    this.clock = clock;
+    this.evaluatorId = evaluatorId;
+    this.batchWindow = batchWindow;
+  }
+
+  /**
+   * Queues a message of the given task for the driver.
+   *
+   * @param taskId    the task sending the message
+   * @param contextId the context the task runs in
+   * @param message   the message
+   */
+  public synchronized void send(final String taskId, final String contextId, final TaskMessage message) {
+
+    if (this.pending != null &&
+        !(this.pending.getTaskId().equals(taskId) && this.pending.getContextId().equals(contextId))) {
+      this.flush();
+    }
+
+    if (this.pending == null) {
+      this.pending = EvaluatorRuntimeProtocol.TaskMessageBatchProto.newBuilder()
+          .setEvaluatorId(this.evaluatorId)
+          .setTaskId(taskId)
+          .setContextId(contextId)
+          .setSequence(this.nextSequence);
+    }
+
+    this.pending.addTaskMessage(ReefServiceProtos.TaskStatusProto.TaskMessageProto.newBuilder()
+        .setSourceId(message.getMessageSourceID())
+        .setMessage(ByteString.copyFrom(message.get())));
+    ++this.nextSequence;
+
+    if (this.batchWindow <= 0 || this.pending.getTaskMessageCount() >= MAX_BATCH_MESSAGES || this.clock.isClosed()) {
+      this.flush();
+    } else if (!this.isFlushScheduled) {
+      this.isFlushScheduled = true;
+      this.clock.scheduleAlarm(this.batchWindow, this.flushAlarmHandler);
+    }
+  }
+
+  /**
+   * Sends the pending messages, if any.
+   */
+  public synchronized void flush() {
+    if (this.pending != null) {
+      LOG.log(Level.FINEST, "Sending {0} task messages", this.pending.getTaskMessageCount());
+      this.batchHandler.onNext(this.pending.build());
+      this.pending = null;
+    }
+  }
+
+  private final class FlushAlarmHandler implements EventHandler<Alarm> {
+    @Override
+    public void onNext(final Alarm alarm) {
+      synchronized (TaskMessageChannel.this) {
+        isFlushScheduled = false;
+        flush();
+      }
+    }
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.reef.runtime.common.utils.ExceptionCodec;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.Optional;
 
@@ -320,9 +321,13 @@ public final class ContextManager implements AutoCloseable {
       }
 
       try {
-        final Configuration taskConfig =
-            this.configurationSerializer.fromString(startTaskProto.getConfiguration());
-        currentActiveContext.startTask(taskConfig);
+        if (this.configurationSerializer instanceof AvroConfigurationSerializer) {
+          currentActiveContext.startTask(startTaskProto.getConfiguration());
+        } else {
+          final Configuration taskConfig =
+              this.configurationSerializer.fromString(startTaskProto.getConfiguration());
+          currentActiveContext.startTask(taskConfig);
+        }
       } catch (IOException | BindException e) {
         throw new RuntimeException("Unable to read configuration.", e);
       }
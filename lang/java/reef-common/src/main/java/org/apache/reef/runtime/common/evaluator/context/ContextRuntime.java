@@ -32,8 +32,10 @@ import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.formats.avro.AvroConfiguration;
 import org.apache.reef.util.Optional;
 
+import java.io.IOException;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -53,6 +55,11 @@ public final class ContextRuntime {
    */
   private final Injector contextInjector;
 
+  /**
+   * Creates the injectors of the tasks launched from serialized configurations.
+   */
+  private final TaskInjectorFactory taskInjectorFactory;
+
   /**
    * Service injector. State in this injector moves to child injectors.
    */
@@ -101,6 +108,7 @@ public final class ContextRuntime {
       this.contextInjector = serviceInjector.forkInjector(contextConfiguration);
 
       this.contextLifeCycle = this.contextInjector.getInstance(ContextLifeCycle.class);
+      this.taskInjectorFactory = new TaskInjectorFactory(this.contextInjector);
 
     } catch (BindException | InjectionException e) {
 
@@ -236,41 +244,89 @@ public final class ContextRuntime {
 
     synchronized (this.contextLifeCycle) {
 
-      if (this.task.isPresent() && this.task.get().hasEnded()) {
-        // clean up state
-        this.task = Optional.empty();
-      }
+      this.checkCanStartTask();
 
-      if (this.task.isPresent()) {
-        throw new IllegalStateException("Attempting to start a Task when a Task with id '" +
-            this.task.get().getId() + "' is running.");
+      try {
+        this.launchTask(this.contextInjector.forkInjector(taskConfig));
+      } catch (final BindException | InjectionException e) {
+        throw new TaskClientCodeException(TaskClientCodeException.getTaskId(taskConfig),
+            this.getIdentifier(),
+            "Unable to instantiate the new task", e);
+      } catch (final Throwable t) {
+        throw new TaskClientCodeException(TaskClientCodeException.getTaskId(taskConfig),
+            this.getIdentifier(),
+            "Unable to start the new task", t);
       }
+    }
+  }
 
-      if (this.childContext.isPresent()) {
-        throw new IllegalStateException(
-            "Attempting to start a Task on a context that is not the topmost active context");
-      }
+  /**
+   * Launches a Task on this context, from a configuration serialized by the
+   * {@link org.apache.reef.tang.formats.AvroConfigurationSerializer}.
+   * Tasks whose configurations differ only in named parameter values skip most of the configuration
+   * parsing and injector setup, see {@link TaskInjectorFactory}.
+   *
+   * @param serializedTaskConfig the serialized configuration to be used for the task.
+   * @throws TaskClientCodeException If the Task cannot be instantiated due to user code / configuration issues.
+   * @throws IOException             If the configuration cannot be decoded.
+   * @throws IllegalStateException   If this method is called when there is either a task or child context
+   *                                 already present.
+   */
+  @SuppressWarnings("checkstyle:illegalcatch")
+  void startTask(final String serializedTaskConfig) throws TaskClientCodeException, IOException {
+
+    final AvroConfiguration taskConfig = TaskInjectorFactory.decode(serializedTaskConfig);
+
+    synchronized (this.contextLifeCycle) {
+
+      this.checkCanStartTask();
 
       try {
-        final Injector taskInjector = this.contextInjector.forkInjector(taskConfig);
-        final TaskRuntime taskRuntime = taskInjector.getInstance(TaskRuntime.class);
-        taskRuntime.initialize();
-        this.taskRuntimeThread = new Thread(taskRuntime, taskRuntime.getId());
-        this.taskRuntimeThread.start();
-        this.task = Optional.of(taskRuntime);
-        LOG.log(Level.FINEST, "Started task: {0}", taskRuntime.getTaskId());
+        this.launchTask(this.taskInjectorFactory.newTaskInjector(taskConfig));
       } catch (final BindException | InjectionException e) {
-        throw new TaskClientCodeException(TaskClientCodeException.getTaskId(taskConfig),
+        throw new TaskClientCodeException(TaskInjectorFactory.getTaskId(taskConfig),
             this.getIdentifier(),
             "Unable to instantiate the new task", e);
       } catch (final Throwable t) {
-        throw new TaskClientCodeException(TaskClientCodeException.getTaskId(taskConfig),
+        throw new TaskClientCodeException(TaskInjectorFactory.getTaskId(taskConfig),
             this.getIdentifier(),
             "Unable to start the new task", t);
       }
     }
   }
 
+  /**
+   * Clears the ended task, if any.
+   *
+   * @throws IllegalStateException If there is either a task or child context present.
+   */
+  private void checkCanStartTask() {
+
+    if (this.task.isPresent() && this.task.get().hasEnded()) {
+      // clean up state
+      this.task = Optional.empty();
+    }
+
+    if (this.task.isPresent()) {
+      throw new IllegalStateException("Attempting to start a Task when a Task with id '" +
+          this.task.get().getId() + "' is running.");
+    }
+
+    if (this.childContext.isPresent()) {
+      throw new IllegalStateException(
+          "Attempting to start a Task on a context that is not the topmost active context");
+    }
+  }
+
+  private void launchTask(final Injector taskInjector) throws InjectionException {
+    final TaskRuntime taskRuntime = taskInjector.getInstance(TaskRuntime.class);
+    taskRuntime.initialize();
+    this.taskRuntimeThread = new Thread(taskRuntime, taskRuntime.getId());
+    this.taskRuntimeThread.start();
+    this.task = Optional.of(taskRuntime);
+    LOG.log(Level.FINEST, "Started task: {0}", taskRuntime.getTaskId());
+  }
+
   /**
    * Close this context. If there is a child context, this recursively closes it before closing this context. If
    * there is a Task currently running, that will be closed.
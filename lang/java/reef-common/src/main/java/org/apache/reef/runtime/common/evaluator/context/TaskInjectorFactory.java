@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.context;
+
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.JsonDecoder;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaClassHierarchy;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.tang.formats.avro.AvroConfiguration;
+import org.apache.reef.tang.formats.avro.ConfigurationEntry;
+import org.apache.reef.tang.types.NamedParameterNode;
+import org.apache.reef.tang.util.ReflectionUtilities;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates the injectors of the tasks launched on one context.
+ * <p>
+ * The configurations of the tasks that run one after the other on a context usually differ only in the values
+ * of some named parameters, e.g. the task identifier. This keeps a template made from the last configuration
+ * that had to be parsed: the context injector forked with that configuration without its named parameters.
+ * A configuration with the same bindings as the template, apart from the values of those named parameters, is not
+ * parsed into a Tang configuration nor merged into the context configuration again. Its injector is a fork of the
+ * template with the named parameters bound to their new values.
+ * <p>
+ * Not thread safe: used by its context under the context lock.
+ */
+@Private
+@EvaluatorSide
+final class TaskInjectorFactory {
+
+  private static final Logger LOG = Logger.getLogger(TaskInjectorFactory.class.getName());
+
+  private static final String TASK_ID_NAME = ReflectionUtilities.getFullName(TaskConfigurationOptions.Identifier.class);
+
+  private final Injector contextInjector;
+
+  private final AvroConfigurationSerializer serializer = new AvroConfigurationSerializer();
+
+  private Template template = null;
+
+  private long numTemplateHits = 0;
+
+  TaskInjectorFactory(final Injector contextInjector) {
+    this.contextInjector = contextInjector;
+  }
+
+  /**
+   * @return the number of task injectors forked from the current template.
+   */
+  long getNumTemplateHits() {
+    return this.numTemplateHits;
+  }
+
+  /**
+   * @param serializedTaskConfig a task configuration serialized by {@link AvroConfigurationSerializer#toString}.
+   * @return the task configuration, decoded but not parsed.
+   * @throws IOException if the configuration is not in the Avro JSON format.
+   */
+  static AvroConfiguration decode(final String serializedTaskConfig) throws IOException {
+    final JsonDecoder decoder =
+        DecoderFactory.get().jsonDecoder(AvroConfiguration.getClassSchema(), serializedTaskConfig);
+    return new SpecificDatumReader<>(AvroConfiguration.class).read(null, decoder);
+  }
+
+  /**
+   * @return the task identifier bound in the decoded task configuration.
+   */
+  static String getTaskId(final AvroConfiguration taskConfig) {
+    for (final ConfigurationEntry entry : taskConfig.getBindings()) {
+      if (entry.getKey().toString().equals(TASK_ID_NAME)) {
+        return entry.getValue().toString();
+      }
+    }
+    throw new IllegalArgumentException("Unable to determine task identifier. Giving up.");
+  }
+
+  /**
+   * @param taskConfig the decoded task configuration.
+   * @return a fork of the context injector with the task configuration.
+   * @throws BindException if the task configuration is invalid or conflicts with the context configuration.
+   */
+  Injector newTaskInjector(final AvroConfiguration taskConfig) throws BindException {
+    final List<ConfigurationEntry> entries = taskConfig.getBindings();
+    if (this.template != null && this.template.matches(entries)) {
+      ++this.numTemplateHits;
+      return this.template.newInjector(entries);
+    }
+
+    final Configuration parsedConfig = this.serializer.fromAvro(taskConfig);
+    final Injector taskInjector = this.contextInjector.forkInjector(parsedConfig);
+    try {
+      this.template = new Template(taskConfig, parsedConfig);
+    } catch (final BindException | ClassNotFoundException e) {
+      LOG.log(Level.FINE, "Unable to make a template of the task configuration", e);
+      this.template = null;
+    }
+    LOG.log(Level.FINEST, "New task configuration template after {0} tasks launched from the previous one",
+        this.numTemplateHits);
+    this.numTemplateHits = 0;
+    return taskInjector;
+  }
+
+  /**
+   * The bindings of a task configuration, and the context injector forked with all of them but
+   * the named parameters.
+   */
+  private final class Template {
+
+    private final String[] keys;
+
+    /** The bound values, null for the named parameters. */
+    private final String[] values;
+
+    private final NamedParameterNode<?>[] namedParameters;
+
+    private final Class<?>[] namedParameterClasses;
+
+    private final JavaClassHierarchy classHierarchy;
+
+    private final Injector injector;
+
+    Template(final AvroConfiguration taskConfig, final Configuration parsedConfig)
+        throws BindException, ClassNotFoundException {
+      final Set<String> namedParameterNames = new HashSet<>();
+      for (final NamedParameterNode<?> namedParameter : parsedConfig.getNamedParameters()) {
+        namedParameterNames.add(namedParameter.getFullName());
+      }
+
+      final List<ConfigurationEntry> entries = taskConfig.getBindings();
+      final List<ConfigurationEntry> structure = new ArrayList<>(entries.size());
+      this.classHierarchy = (JavaClassHierarchy) parsedConfig.getClassHierarchy();
+      this.keys = new String[entries.size()];
+      this.values = new String[entries.size()];
+      this.namedParameters = new NamedParameterNode<?>[entries.size()];
+      this.namedParameterClasses = new Class<?>[entries.size()];
+      for (int i = 0; i < entries.size(); ++i) {
+        final ConfigurationEntry entry = entries.get(i);
+        this.keys[i] = entry.getKey().toString();
+        if (namedParameterNames.contains(this.keys[i])) {
+          this.namedParameters[i] = (NamedParameterNode<?>) this.classHierarchy.getNode(this.keys[i]);
+          this.namedParameterClasses[i] = this.classHierarchy.classForName(this.keys[i]);
+        } else {
+          this.values[i] = entry.getValue().toString();
+          structure.add(entry);
+        }
+      }
+
+      this.injector = contextInjector.forkInjector(
+          serializer.fromAvro(new AvroConfiguration(taskConfig.getLanguage(), structure)));
+    }
+
+    /**
+     * @return true if the entries bind the same keys as this template, in the same order,
+     * and differ from it only in the values of named parameters.
+     */
+    boolean matches(final List<ConfigurationEntry> entries) {
+      if (entries.size() != this.keys.length) {
+        return false;
+      }
+      for (int i = 0; i < this.keys.length; ++i) {
+        final ConfigurationEntry entry = entries.get(i);
+        if (!this.keys[i].equals(entry.getKey().toString()) ||
+            this.values[i] != null && !this.values[i].equals(entry.getValue().toString())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    Injector newInjector(final List<ConfigurationEntry> entries) throws BindException {
+      final Injector taskInjector = this.injector.forkInjector();
+      for (int i = 0; i < this.keys.length; ++i) {
+        if (this.namedParameters[i] != null) {
+          taskInjector.bindVolatileParameter((Class<? extends Name<Object>>) this.namedParameterClasses[i],
+              this.classHierarchy.parse((NamedParameterNode<Object>) this.namedParameters[i],
+                  entries.get(i).getValue().toString()));
+        }
+      }
+      return taskInjector;
+    }
+  }
+}
@@ -32,6 +32,9 @@ import org.apache.reef.task.events.DriverMessage;
 import org.apache.reef.task.events.SuspendEvent;
 import org.apache.reef.util.Optional;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.Counter;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.MetricsRegistry;
 
 import javax.inject.Inject;
 import javax.xml.bind.DatatypeConverter;
@@ -69,6 +72,10 @@ public final class TaskRuntime implements Runnable {
 
   private final TaskStatus currentStatus;
 
+  private final Histogram taskDuration;
+  private final Counter tasksCompleted;
+  private final Counter tasksFailed;
+
   @Inject
   private TaskRuntime(
       final HeartBeatManager heartBeatManager,
@@ -80,9 +87,10 @@ public final class TaskRuntime implements Runnable {
       final InjectionFuture<EventHandler<SuspendEvent>> fSuspendHandler,
       @Parameter(TaskConfigurationOptions.MessageHandler.class)
       final InjectionFuture<EventHandler<DriverMessage>> fMessageHandler,
-      final TaskLifeCycleHandlers taskLifeCycleHandlers) {
+      final TaskLifeCycleHandlers taskLifeCycleHandlers,
+      final MetricsRegistry metricsRegistry) {
     this(heartBeatManager, task, currentStatus, fCloseHandler, fSuspendHandler, fMessageHandler, null,
-        taskLifeCycleHandlers);
+        taskLifeCycleHandlers, metricsRegistry);
   }
 
   @Inject
@@ -97,7 +105,8 @@ public final class TaskRuntime implements Runnable {
       @Parameter(TaskConfigurationOptions.MessageHandler.class)
       final InjectionFuture<EventHandler<DriverMessage>> fMessageHandler,
       @Parameter(TaskConfigurationOptions.Memento.class) final String memento,
-      final TaskLifeCycleHandlers taskLifeCycleHandlers) {
+      final TaskLifeCycleHandlers taskLifeCycleHandlers,
+      final MetricsRegistry metricsRegistry) {
 
     this.heartBeatManager = heartBeatManager;
     this.task = task;
@@ -111,6 +120,10 @@ public final class TaskRuntime implements Runnable {
     this.fMessageHandler = fMessageHandler;
 
     this.currentStatus = currentStatus;
+
+    this.taskDuration = metricsRegistry.histogram("evaluator.task.duration.ms");
+    this.tasksCompleted = metricsRegistry.counter("evaluator.tasks.completed");
+    this.tasksFailed = metricsRegistry.counter("evaluator.tasks.failed");
   }
 
   /**
@@ -126,6 +139,7 @@ public final class TaskRuntime implements Runnable {
    */
   @Override
   public void run() {
+    final long startTime = System.currentTimeMillis();
     try {
       // Change state and inform the Driver
       this.taskLifeCycleHandlers.beforeTaskStart();
@@ -135,21 +149,26 @@ public final class TaskRuntime implements Runnable {
 
       // Call Task.call()
       final byte[] result = this.runTask();
+      this.taskDuration.update(System.currentTimeMillis() - startTime);
 
       // Inform the Driver about it
       this.currentStatus.setResult(result);
 
       LOG.log(Level.FINEST, "Informing registered EventHandler<TaskStop>.");
       this.taskLifeCycleHandlers.afterTaskExit();
+      this.tasksCompleted.inc();
 
     } catch (final TaskStartHandlerFailure taskStartHandlerFailure) {
       LOG.log(Level.WARNING, "Caught an exception during TaskStart handler execution.", taskStartHandlerFailure);
+      this.tasksFailed.inc();
       this.currentStatus.setException(taskStartHandlerFailure.getCause());
     } catch (final TaskStopHandlerFailure taskStopHandlerFailure) {
       LOG.log(Level.WARNING, "Caught an exception during TaskStop handler execution.", taskStopHandlerFailure);
+      this.tasksFailed.inc();
       this.currentStatus.setException(taskStopHandlerFailure.getCause());
     } catch (final TaskCallFailure e) {
       LOG.log(Level.WARNING, "Caught an exception during Task.call().", e.getCause());
+      this.tasksFailed.inc();
       this.currentStatus.setException(e);
     }
   }
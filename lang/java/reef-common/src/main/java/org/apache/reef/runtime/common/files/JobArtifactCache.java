@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.files;
+
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.parameters.JobArtifactCacheDirectory;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.util.Optional;
+
+import javax.inject.Inject;
+import javax.xml.bind.DatatypeConverter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Content-addressed cache for the artifacts created during job submission.
+ * <p>
+ * Files are hashed at most once per (path, size, modification time) and the resulting
+ * hashes are used both to detect that an artifact built earlier can be reused and to
+ * name the artifacts in the cache folder. Files are staged by hard linking them when
+ * the filesystem allows it, and are only copied as a fallback.
+ */
+@Private
+public final class JobArtifactCache {
+
+  private static final Logger LOG = Logger.getLogger(JobArtifactCache.class.getName());
+
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Hashes of files already seen, keyed by their absolute path.
+   */
+  private final Map<String, HashedFile> hashes = new ConcurrentHashMap<>();
+
+  /**
+   * Folder holding the cached artifacts. Null if the cache is disabled.
+   */
+  private final File cacheFolder;
+
+  @Inject
+  JobArtifactCache(@Parameter(JobArtifactCacheDirectory.class) final String cacheDirectory) {
+    this.cacheFolder = cacheDirectory.isEmpty() ? null : new File(cacheDirectory);
+    if (this.cacheFolder != null && !this.cacheFolder.exists() && !this.cacheFolder.mkdirs()) {
+      LOG.log(Level.WARNING, "Failed to create [{0}]", this.cacheFolder.getAbsolutePath());
+    }
+  }
+
+  /**
+   * @return true, if artifacts are stored in and retrieved from the cache folder.
+   */
+  public boolean isEnabled() {
+    return this.cacheFolder != null && this.cacheFolder.isDirectory();
+  }
+
+  /**
+   * Computes the content hash of the given file, reusing an earlier result if the file has not changed since.
+   *
+   * @param file the file to hash.
+   * @return the hex encoded content hash.
+   * @throws IOException if the file can't be read.
+   */
+  public String getContentHash(final File file) throws IOException {
+    final String key = file.getAbsolutePath();
+    final long length = file.length();
+    final long lastModified = file.lastModified();
+
+    final HashedFile known = this.hashes.get(key);
+    if (known != null && known.length == length && known.lastModified == lastModified) {
+      return known.hash;
+    }
+
+    final MessageDigest digest = newDigest();
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    try (final InputStream in = Files.newInputStream(file.toPath())) {
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        digest.update(buffer, 0, read);
+      }
+    }
+
+    final String hash = DatatypeConverter.printHexBinary(digest.digest());
+    this.hashes.put(key, new HashedFile(length, lastModified, hash));
+    LOG.log(Level.FINEST, "Hashed {0}: {1}", new Object[] {key, hash});
+    return hash;
+  }
+
+  /**
+   * Computes a hash over the names and contents of the given files.
+   * The result does not depend on the order of the files.
+   *
+   * @param files the files to include in the hash.
+   * @return the hex encoded content hash.
+   * @throws IOException if one of the files can't be read.
+   */
+  public String getContentHash(final Iterable<FileResource> files) throws IOException {
+    final List<String> entries = new ArrayList<>();
+    for (final FileResource fileResource : files) {
+      entries.add(fileResource.getType() + ":" + fileResource.getName() + ":" +
+          getContentHash(new File(fileResource.getPath())));
+    }
+    return combine(entries);
+  }
+
+  /**
+   * Computes a hash over the names and contents of the regular files directly contained in the given folder.
+   *
+   * @param folder the folder to hash.
+   * @return the hex encoded content hash.
+   * @throws IOException if one of the files can't be read.
+   */
+  public String getFolderContentHash(final File folder) throws IOException {
+    final List<String> entries = new ArrayList<>();
+    final File[] files = folder.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        if (file.isFile()) {
+          entries.add(file.getName() + ":" + getContentHash(file));
+        }
+      }
+    }
+    return combine(entries);
+  }
+
+  /**
+   * Looks up an artifact in the cache.
+   *
+   * @param contentHash the content hash of the artifact.
+   * @param suffix the file name suffix of the artifact, e.g. ".jar".
+   * @return the cached artifact, if present.
+   */
+  public Optional<File> get(final String contentHash, final String suffix) {
+    if (!this.isEnabled()) {
+      return Optional.empty();
+    }
+    final File cached = new File(this.cacheFolder, contentHash + suffix);
+    return cached.isFile() ? Optional.of(cached) : Optional.<File>empty();
+  }
+
+  /**
+   * Adds an artifact to the cache. The artifact is moved into the cache folder under its content hash.
+   * If the cache is disabled, the artifact is returned unchanged.
+   *
+   * @param contentHash the content hash of the artifact.
+   * @param suffix the file name suffix of the artifact, e.g. ".jar".
+   * @param artifact the artifact to add.
+   * @return the file to use in place of the artifact.
+   * @throws IOException if the artifact can't be moved into the cache.
+   */
+  public File put(final String contentHash, final String suffix, final File artifact) throws IOException {
+    if (!this.isEnabled()) {
+      return artifact;
+    }
+    final File cached = new File(this.cacheFolder, contentHash + suffix);
+    // Move via a temporary name so that concurrent submissions never see a partial artifact.
+    final File staged = File.createTempFile(contentHash, ".tmp", this.cacheFolder);
+    Files.move(artifact.toPath(), staged.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    Files.move(staged.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    LOG.log(Level.FINE, "Added {0} to the job artifact cache.", cached);
+    return cached;
+  }
+
+  /**
+   * Makes the source file available at the destination, by hard linking if possible and copying otherwise.
+   * An existing destination file is replaced.
+   * <p>
+   * A hard link shares its content with the source, so later in-place changes of the source show up at the
+   * destination. Only use this for files that REEF owns, or for staging folders that are packed right away.
+   * User files that are kept around must be copied.
+   *
+   * @param source the file to link to.
+   * @param destination where to create the link or copy.
+   * @throws IOException if neither linking nor copying succeeded.
+   */
+  public static void linkOrCopy(final File source, final File destination) throws IOException {
+    Files.deleteIfExists(destination.toPath());
+    try {
+      Files.createLink(destination.toPath(), source.toPath());
+    } catch (final IOException | UnsupportedOperationException | SecurityException e) {
+      LOG.log(Level.FINEST, "Unable to link {0}, copying it instead.", source);
+      Files.copy(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static String combine(final List<String> entries) {
+    Collections.sort(entries);
+    final MessageDigest digest = newDigest();
+    for (final String entry : entries) {
+      digest.update(entry.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '\n');
+    }
+    return DatatypeConverter.printHexBinary(digest.digest());
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(HASH_ALGORITHM + " is not supported by this JVM.", e);
+    }
+  }
+
+  /**
+   * The hash of a file, together with the file attributes it was computed for.
+   */
+  private static final class HashedFile {
+    private final long length;
+    private final long lastModified;
+    private final String hash;
+
+    private HashedFile(final long length, final long lastModified, final String hash) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.hash = hash;
+    }
+  }
+}
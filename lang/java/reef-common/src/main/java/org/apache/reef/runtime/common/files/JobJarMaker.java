@@ -28,11 +28,18 @@ import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.JARFileMaker;
+import org.apache.reef.util.Optional;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.logging.Level;
@@ -50,14 +57,17 @@ public final class JobJarMaker {
 
   private final ConfigurationSerializer configurationSerializer;
   private final REEFFileNames fileNames;
+  private final JobArtifactCache artifactCache;
   private final boolean deleteTempFilesOnExit;
 
   @Inject
   JobJarMaker(final ConfigurationSerializer configurationSerializer,
               final REEFFileNames fileNames,
+              final JobArtifactCache artifactCache,
               @Parameter(DeleteTempFiles.class) final boolean deleteTempFilesOnExit) {
     this.configurationSerializer = configurationSerializer;
     this.fileNames = fileNames;
+    this.artifactCache = artifactCache;
     this.deleteTempFilesOnExit = deleteTempFilesOnExit;
   }
 
@@ -86,7 +96,7 @@ public final class JobJarMaker {
         );
       } else {
         try {
-          Files.copy(sourceFile.toPath(), destinationFile.toPath());
+          JobArtifactCache.linkOrCopy(sourceFile, destinationFile);
         } catch (final IOException e) {
           final String message = new StringBuilder("Copy of file [")
               .append(sourceFile.getAbsolutePath())
@@ -153,7 +163,50 @@ public final class JobJarMaker {
     }
 
     public File build() throws IOException {
-      // Copy all files to a local job submission folder
+
+      final String jarFileSuffix = JobJarMaker.this.fileNames.getJarFileSuffix();
+      if (!JobJarMaker.this.artifactCache.isEnabled()) {
+        final File jarFile = this.makeJar(true);
+        if (JobJarMaker.this.deleteTempFilesOnExit) {
+          jarFile.deleteOnExit();
+        }
+        return jarFile;
+      }
+
+      // The cached jar holds the files only: the configuration differs per job, e.g. in the job folder.
+      final String contentHash = JobJarMaker.this.artifactCache.getContentHash(this.getAllFiles());
+      final Optional<File> cachedJarFile = JobJarMaker.this.artifactCache.get(contentHash, jarFileSuffix);
+      final File filesJarFile;
+      if (cachedJarFile.isPresent()) {
+        LOG.log(Level.FINE, "Reusing cached job submission jar file: {0}", cachedJarFile.get());
+        filesJarFile = cachedJarFile.get();
+      } else {
+        // Cached jar files outlive this JVM, so they are never marked for deletion.
+        filesJarFile = JobJarMaker.this.artifactCache.put(contentHash, jarFileSuffix, this.makeJar(false));
+      }
+
+      if (!this.hasConfiguration()) {
+        return filesJarFile;
+      }
+
+      final File jarFile = File.createTempFile(JobJarMaker.this.fileNames.getJobFolderPrefix(), jarFileSuffix);
+      Files.copy(filesJarFile.toPath(), jarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      this.addConfiguration(jarFile);
+      if (JobJarMaker.this.deleteTempFilesOnExit) {
+        jarFile.deleteOnExit();
+      }
+      return jarFile;
+    }
+
+    /**
+     * Stages the files in a job submission folder and packs it into a new jar file.
+     *
+     * @param includeConfiguration whether to store the configuration in the jar file.
+     * @return the new jar file.
+     */
+    private File makeJar(final boolean includeConfiguration) throws IOException {
+
+      // Link or copy all files to a local job submission folder
       final File jobSubmissionFolder = makeJobSubmissionFolder();
       LOG.log(Level.FINE, "Staging submission in {0}", jobSubmissionFolder);
 
@@ -164,31 +217,57 @@ public final class JobJarMaker {
       JobJarMaker.copy(this.localFiles, localFolder);
 
       // Store the Configuration in the JAR file.
-      if (configuration != null && StringUtils.isNotBlank(this.configurationFilename)) {
+      if (includeConfiguration && this.hasConfiguration()) {
         JobJarMaker.this.configurationSerializer
             .toFile(configuration, new File(localFolder, this.configurationFilename));
       }
 
       // Create a JAR File for the submission
-      final File jarFile = File.createTempFile(JobJarMaker.this.fileNames.getJobFolderPrefix(),
+      final File newJarFile = File.createTempFile(JobJarMaker.this.fileNames.getJobFolderPrefix(),
           JobJarMaker.this.fileNames.getJarFileSuffix());
 
-      LOG.log(Level.FINE, "Creating job submission jar file: {0}", jarFile);
-      new JARFileMaker(jarFile).addChildren(jobSubmissionFolder).close();
+      LOG.log(Level.FINE, "Creating job submission jar file: {0}", newJarFile);
+      new JARFileMaker(newJarFile).addChildren(jobSubmissionFolder).close();
 
       if (JobJarMaker.this.deleteTempFilesOnExit) {
-        LOG.log(Level.FINE,
-            "Deleting the temporary job folder [{0}] and marking the jar file [{1}] for deletion after the JVM exits.",
-            new Object[]{jobSubmissionFolder.getAbsolutePath(), jarFile.getAbsolutePath()});
+        LOG.log(Level.FINE, "Deleting the temporary job folder [{0}].", jobSubmissionFolder.getAbsolutePath());
         if (!jobSubmissionFolder.delete()) {
           LOG.log(Level.WARNING, "Failed to delete [{0}]", jobSubmissionFolder.getAbsolutePath());
         }
-        jarFile.deleteOnExit();
       } else {
         LOG.log(Level.FINE, "Keeping the temporary job folder [{0}] and jar file [{1}] available after job submission.",
-            new Object[]{jobSubmissionFolder.getAbsolutePath(), jarFile.getAbsolutePath()});
+            new Object[]{jobSubmissionFolder.getAbsolutePath(), newJarFile.getAbsolutePath()});
       }
-      return jarFile;
+      return newJarFile;
+    }
+
+    /**
+     * Stores the configuration in the local folder of an existing jar file.
+     */
+    private void addConfiguration(final File jarFile) throws IOException {
+      final File configurationFile = File.createTempFile(this.configurationFilename, ".tmp");
+      try (final FileSystem jarFileSystem = FileSystems.newFileSystem(
+          URI.create("jar:" + jarFile.toURI()), Collections.<String, Object>emptyMap())) {
+        JobJarMaker.this.configurationSerializer.toFile(this.configuration, configurationFile);
+        final Path localFolder = jarFileSystem.getPath(JobJarMaker.this.fileNames.getLocalFolderName());
+        Files.createDirectories(localFolder);
+        Files.copy(configurationFile.toPath(), localFolder.resolve(this.configurationFilename),
+            StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        if (!configurationFile.delete()) {
+          LOG.log(Level.WARNING, "Failed to delete [{0}]", configurationFile.getAbsolutePath());
+        }
+      }
+    }
+
+    private boolean hasConfiguration() {
+      return this.configuration != null && StringUtils.isNotBlank(this.configurationFilename);
+    }
+
+    private Set<FileResource> getAllFiles() {
+      final Set<FileResource> allFiles = new HashSet<>(this.globalFiles);
+      allFiles.addAll(this.localFiles);
+      return allFiles;
     }
   }
 }
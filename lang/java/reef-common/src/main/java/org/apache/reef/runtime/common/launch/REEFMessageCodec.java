@@ -67,6 +67,8 @@ public final class REEFMessageCodec implements Codec<GeneratedMessage> {
         return message.getEvaluatorShimCommand();
       } else if (message.hasEvaluatorShimStatus()) {
         return message.getEvaluatorShimStatus();
+      } else if (message.hasTaskMessageBatch()) {
+        return message.getTaskMessageBatch();
       }
       throw new RuntimeException("Unable to decode a message: " + message.toString());
     } catch (final InvalidProtocolBufferException e) {
@@ -92,6 +94,8 @@ public final class REEFMessageCodec implements Codec<GeneratedMessage> {
       message.setEvaluatorShimCommand((EvaluatorShimProtocol.EvaluatorShimControlProto) msg);
     } else if (msg instanceof EvaluatorShimProtocol.EvaluatorShimStatusProto) {
       message.setEvaluatorShimStatus((EvaluatorShimProtocol.EvaluatorShimStatusProto) msg);
+    } else if (msg instanceof EvaluatorRuntimeProtocol.TaskMessageBatchProto) {
+      message.setTaskMessageBatch((EvaluatorRuntimeProtocol.TaskMessageBatchProto) msg);
     } else {
       throw new RuntimeException("Unable to serialize: " + msg);
     }
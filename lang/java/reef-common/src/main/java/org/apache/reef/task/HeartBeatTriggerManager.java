@@ -21,7 +21,7 @@ package org.apache.reef.task;
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.Public;
 import org.apache.reef.annotations.audience.TaskSide;
-import org.apache.reef.runtime.common.evaluator.HeartBeatManager;
+import org.apache.reef.runtime.common.evaluator.CoalescingHeartBeatTrigger;
 
 import javax.inject.Inject;
 
@@ -29,7 +29,11 @@ import javax.inject.Inject;
  * Helper class for immediately sending heartbeat messages.
  * This can be used together with TaskMessageSource to push urgent messages to the Driver.
  * <p>
+ * Triggers from concurrent threads that arrive within a short window collapse into a single heartbeat,
+ * which carries the messages of all TaskMessageSources. See HeartBeatTriggerWindow.
+ * <p>
  * CAUTION: Do not overuse as the Driver can be saturated with heartbeats.
+ * Use TaskMessageSender to stream messages to the Driver instead.
  *
  * @see <a href="https://issues.apache.org/jira/browse/REEF-33">REEF-33</a> for the ongoing discussion of
  * alternatives to this design.
@@ -38,17 +42,18 @@ import javax.inject.Inject;
 @Public
 @Unstable
 public class HeartBeatTriggerManager {
-  private final HeartBeatManager heartBeatManager;
+  private final CoalescingHeartBeatTrigger heartBeatTrigger;
 
   @Inject
-  HeartBeatTriggerManager(final HeartBeatManager heartBeatManager) {
-    this.heartBeatManager = heartBeatManager;
+  HeartBeatTriggerManager(final CoalescingHeartBeatTrigger heartBeatTrigger) {
+    this.heartBeatTrigger = heartBeatTrigger;
   }
 
   /**
-   * Immediately send a heartbeat message to the Driver.
+   * Send a heartbeat message to the Driver as soon as possible.
+   * Returns without waiting for the heartbeat to be sent.
    */
   public void triggerHeartBeat() {
-    this.heartBeatManager.sendHeartbeat();
+    this.heartBeatTrigger.trigger();
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.task;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.evaluator.context.parameters.ContextIdentifier;
+import org.apache.reef.runtime.common.evaluator.TaskMessageChannel;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Sends messages from the Task to the Driver as they are produced.
+ * <p>
+ * Unlike messages returned by a TaskMessageSource, these are not tied to the heartbeat: they are batched
+ * over a few milliseconds and sent on their own, and delivered to the Driver's TaskMessage handlers
+ * in the order they were sent. Use this instead of {@link HeartBeatTriggerManager} to push results out quickly.
+ * <p>
+ * There is no ordering between messages sent here and messages from TaskMessageSources.
+ */
+@TaskSide
+@Public
+@Unstable
+public final class TaskMessageSender {
+
+  private final TaskMessageChannel channel;
+  private final String taskId;
+  private final String contextId;
+
+  @Inject
+  private TaskMessageSender(final TaskMessageChannel channel,
+                            @Parameter(TaskConfigurationOptions.Identifier.class) final String taskId,
+                            @Parameter(ContextIdentifier.class) final String contextId) {
+    this.channel = channel;
+    this.taskId = taskId;
+    this.contextId = contextId;
+  }
+
+  /**
+   * Queues a message for the Driver. This does not block on the network.
+   *
+   * @param message the message to send
+   */
+  public void send(final TaskMessage message) {
+    this.channel.send(this.taskId, this.contextId, message);
+  }
+
+  /**
+   * Sends the queued messages right away instead of at the end of the batching window.
+   */
+  public void flush() {
+    this.channel.flush();
+  }
+}
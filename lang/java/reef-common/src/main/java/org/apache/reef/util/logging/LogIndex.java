@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.util.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of the scope entries, exits and durations that {@link LoggingScopeImpl} writes to a log file.
+ * <p>
+ * The index follows the file as it grows: every query reads only the lines appended since the previous one,
+ * so that a query on a large log costs as much as the log grew in the meantime. The answers are the same as
+ * {@link LogParser} gives when it scans the whole file. Only complete lines are indexed, and lines longer than
+ * the read buffer are skipped. A file that got shorter is assumed to be replaced, and is indexed from the start.
+ */
+public final class LogIndex {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private static final int TOKEN_LENGTH = LoggingScopeImpl.TOKEN.length();
+
+  private final String fileName;
+  private final String logLevelPrefix;
+
+  /**
+   * Offset in the file of the first line that is not indexed yet.
+   */
+  private long offset = 0;
+
+  /**
+   * Whether the line at the offset is too long to index, and is skipped up to its end.
+   */
+  private boolean skippingLine = false;
+
+  private final ArrayList<String> durations = new ArrayList<>();
+  private final ArrayList<String> startStages = new ArrayList<>();
+  private final ArrayList<String> endStages = new ArrayList<>();
+  private int nextStartIndicator = 0;
+  private int nextEndIndicator = 0;
+
+  /**
+   * @param fileName the log file.
+   * @param logLevelPrefix the log level and separator that precede a logged message, e.g. "INFO: ".
+   */
+  public LogIndex(final String fileName, final String logLevelPrefix) {
+    this.fileName = fileName;
+    this.logLevelPrefix = logLevelPrefix;
+  }
+
+  /**
+   * @return the lines with scope durations, trimmed to the scope and its duration.
+   * Same as {@code LogParser.getFilteredLinesFromFile(fileName, DURATION, TOKEN, null)}.
+   */
+  public synchronized ArrayList<String> getDurations() throws IOException {
+    this.refresh();
+    return new ArrayList<>(this.durations);
+  }
+
+  /**
+   * @return the stages the log went through, each with its exit if the stage was left.
+   * Same as merging {@link LogParser#findStages} of the scope entries and exits.
+   */
+  public synchronized ArrayList<String> getStages() throws IOException {
+    this.refresh();
+    return LogParser.mergeStages(new ArrayList<>(this.startStages), new ArrayList<>(this.endStages));
+  }
+
+  /**
+   * @return the length of the file that is indexed.
+   */
+  public synchronized long getIndexedLength() {
+    return this.offset;
+  }
+
+  /**
+   * Indexes the complete lines appended to the file since the last refresh.
+   */
+  private void refresh() throws IOException {
+    try (final FileChannel channel = FileChannel.open(Paths.get(this.fileName), StandardOpenOption.READ)) {
+      if (channel.size() < this.offset) {
+        this.clear();
+      }
+      channel.position(this.offset);
+
+      final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      final byte[] bytes = buffer.array();
+      int scanned = 0;
+      // Scope lines contain the token, a run of colons. Other lines are not decoded.
+      int colons = 0;
+      boolean hasToken = false;
+      while (channel.read(buffer) > 0) {
+        final int end = buffer.position();
+        int lineStart = 0;
+        for (int i = scanned; i < end; ++i) {
+          final byte b = bytes[i];
+          if (b == ':') {
+            hasToken |= ++colons >= TOKEN_LENGTH;
+          } else {
+            colons = 0;
+            if (b == '\n') {
+              if (hasToken && !this.skippingLine) {
+                this.indexLine(bytes, lineStart, i);
+              }
+              this.skippingLine = false;
+              hasToken = false;
+              lineStart = i + 1;
+            }
+          }
+        }
+
+        if (lineStart == 0 && end == bytes.length) {
+          // The line does not fit in the buffer.
+          this.skippingLine = true;
+          lineStart = end;
+        }
+        this.offset += lineStart;
+        buffer.position(lineStart);
+        buffer.compact();
+        scanned = buffer.position();
+      }
+    }
+  }
+
+  private void indexLine(final byte[] bytes, final int from, final int to) {
+    final String line = new String(bytes, from, to > from && bytes[to - 1] == '\r' ? to - from - 1 : to - from,
+        StandardCharsets.UTF_8);
+
+    if (line.contains(LoggingScopeImpl.DURATION)) {
+      this.durations.add(LogParser.trimLine(line, LoggingScopeImpl.TOKEN, null));
+    }
+    if (line.contains(LoggingScopeImpl.START_PREFIX)) {
+      this.nextStartIndicator = addStage(LogParser.trimLine(line, this.logLevelPrefix, null),
+          LogParser.START_INDICATORS, this.nextStartIndicator, this.startStages);
+    }
+    if (line.contains(LoggingScopeImpl.EXIT_PREFIX)) {
+      this.nextEndIndicator = addStage(LogParser.trimLine(line, this.logLevelPrefix, LoggingScopeImpl.DURATION),
+          LogParser.END_INDICATORS, this.nextEndIndicator, this.endStages);
+    }
+  }
+
+  /**
+   * One step of {@link LogParser#findStages}.
+   * @return the index of the indicator to look for in the next line.
+   */
+  private static int addStage(final String line, final String[] stageIndicators, final int next,
+                              final List<String> stages) {
+    if (line.contains(stageIndicators[next])) {
+      stages.add(stageIndicators[next]);
+      if (next < stageIndicators.length - 1) {
+        return next + 1;
+      }
+    }
+    return next;
+  }
+
+  private void clear() {
+    this.offset = 0;
+    this.skippingLine = false;
+    this.durations.clear();
+    this.startStages.clear();
+    this.endStages.clear();
+    this.nextStartIndicator = 0;
+    this.nextEndIndicator = 0;
+  }
+}
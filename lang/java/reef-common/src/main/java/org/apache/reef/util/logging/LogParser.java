@@ -76,30 +76,38 @@ public final class LogParser {
           continue;
         }
         if (line.contains(filter)) {
-          String trimedLine;
-          if (removeBeforeToken != null) {
-            final String[] p = line.split(removeBeforeToken);
-            if (p.length > 1) {
-              trimedLine = p[p.length-1];
-            } else {
-              trimedLine = line.trim();
-            }
-          } else {
-            trimedLine = line.trim();
-          }
-          if (removeAfterToken != null) {
-            final String[] p = trimedLine.split(removeAfterToken);
-            if (p.length > 1) {
-              trimedLine = p[0];
-            }
-          }
-          filteredLines.add(trimedLine);
+          filteredLines.add(trimLine(line, removeBeforeToken, removeAfterToken));
         }
       }
     }
     return filteredLines;
   }
 
+  /**
+   * Trim a line by removing strings before the last removeBeforeToken and after the first removeAfterToken.
+   * The tokens are regular expressions, and either can be null.
+   */
+  static String trimLine(final String line, final String removeBeforeToken, final String removeAfterToken) {
+    String trimedLine;
+    if (removeBeforeToken != null) {
+      final String[] p = line.split(removeBeforeToken);
+      if (p.length > 1) {
+        trimedLine = p[p.length-1];
+      } else {
+        trimedLine = line.trim();
+      }
+    } else {
+      trimedLine = line.trim();
+    }
+    if (removeAfterToken != null) {
+      final String[] p = trimedLine.split(removeAfterToken);
+      if (p.length > 1) {
+        trimedLine = p[0];
+      }
+    }
+    return trimedLine;
+  }
+
   /**
    * get lines from given file with specified filter.
    * @param fileName
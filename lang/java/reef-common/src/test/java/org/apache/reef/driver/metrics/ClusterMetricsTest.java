@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.driver.metrics;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricsProto;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for ClusterMetrics.
+ */
+public final class ClusterMetricsTest {
+
+  private ClusterMetrics clusterMetrics;
+
+  @Before
+  public void setUp() throws InjectionException {
+    this.clusterMetrics = Tang.Factory.getTang().newInjector().getInstance(ClusterMetrics.class);
+  }
+
+  @Test
+  public void testLatestValueWins() {
+    this.clusterMetrics.onEvaluatorMetrics("e1", metrics(metric("tasks", MetricProto.MetricType.COUNTER, 1)));
+    this.clusterMetrics.onEvaluatorMetrics("e1", metrics(metric("tasks", MetricProto.MetricType.COUNTER, 3)));
+
+    final AggregatedMetric tasks = this.clusterMetrics.getEvaluatorMetrics().get("tasks");
+    assertEquals(3, tasks.getValue());
+    assertEquals(1, tasks.getSources());
+  }
+
+  @Test
+  public void testMergeAcrossEvaluators() {
+    this.clusterMetrics.onEvaluatorMetrics("e1", metrics(
+        metric("tasks", MetricProto.MetricType.COUNTER, 2),
+        histogram("latency", new int[]{0, 3}, new long[]{1, 2})));
+    this.clusterMetrics.onEvaluatorMetrics("e2", metrics(
+        metric("tasks", MetricProto.MetricType.COUNTER, 5),
+        histogram("latency", new int[]{3}, new long[]{4})));
+
+    final Map<String, AggregatedMetric> merged = this.clusterMetrics.getEvaluatorMetrics();
+    assertEquals(7, merged.get("tasks").getValue());
+    assertEquals(2, merged.get("tasks").getSources());
+    assertEquals(7, merged.get("latency").getValue());
+    assertArrayEquals(new long[]{1, 0, 0, 6}, merged.get("latency").getBins());
+    assertEquals(5 + 6 * 35, merged.get("latency").getSum());
+  }
+
+  @Test
+  public void testClosedEvaluatorKeepsCountersButDropsGauges() {
+    this.clusterMetrics.onEvaluatorMetrics("e1", metrics(
+        metric("tasks", MetricProto.MetricType.COUNTER, 2),
+        metric("queue", MetricProto.MetricType.GAUGE, 10)));
+    this.clusterMetrics.onEvaluatorClosed("e1");
+    this.clusterMetrics.onEvaluatorMetrics("e2", metrics(metric("tasks", MetricProto.MetricType.COUNTER, 1)));
+
+    final Map<String, AggregatedMetric> merged = this.clusterMetrics.getEvaluatorMetrics();
+    assertEquals(3, merged.get("tasks").getValue());
+    assertFalse(merged.containsKey("queue"));
+
+    // Snapshots must not change the totals.
+    assertEquals(3, this.clusterMetrics.getEvaluatorMetrics().get("tasks").getValue());
+  }
+
+  @Test
+  public void testMismatchedHistogramIsIgnored() {
+    this.clusterMetrics.onEvaluatorMetrics("e1", metrics(histogram("latency", new int[]{0}, new long[]{1})));
+    this.clusterMetrics.onEvaluatorMetrics("e2", metrics(MetricProto.newBuilder()
+        .setName("latency").setType(MetricProto.MetricType.HISTOGRAM).setValue(1)
+        .setBinWidth(100).setNumBins(4).addBinIndex(0).addBinCount(1).build()));
+
+    assertEquals(1, this.clusterMetrics.getEvaluatorMetrics().get("latency").getValue());
+  }
+
+  @Test
+  public void testMergeLogLinearHistograms() {
+    final LogLinearHistogram fast = new LogLinearHistogram();
+    final LogLinearHistogram slow = new LogLinearHistogram();
+    for (int i = 0; i < 99; ++i) {
+      fast.update(1000);
+    }
+    slow.update(1000000000L);
+
+    this.clusterMetrics.onEvaluatorMetrics("e1", metrics(logLinearHistogram("latency", fast)));
+    this.clusterMetrics.onEvaluatorClosed("e1");
+    this.clusterMetrics.onEvaluatorMetrics("e2", metrics(logLinearHistogram("latency", slow)));
+
+    final AggregatedMetric latency = this.clusterMetrics.getEvaluatorMetrics().get("latency");
+    assertTrue(latency.isLogLinearHistogram());
+    assertEquals(100, latency.getValue());
+    assertEquals(99 * 1000 + 1000000000L, latency.getSum());
+    assertEquals(1000, latency.getValueAtPercentile(99.0), 1000 / 64);
+    assertEquals(1000000000L, latency.getValueAtPercentile(100.0));
+  }
+
+  private static MetricsProto metrics(final MetricProto... metrics) {
+    final MetricsProto.Builder builder = MetricsProto.newBuilder();
+    for (final MetricProto metric : metrics) {
+      builder.addMetric(metric);
+    }
+    return builder.build();
+  }
+
+  private static MetricProto metric(final String name, final MetricProto.MetricType type, final long value) {
+    return MetricProto.newBuilder().setName(name).setType(type).setValue(value).build();
+  }
+
+  private static MetricProto histogram(final String name, final int[] binIndices, final long[] binCounts) {
+    final MetricProto.Builder builder = MetricProto.newBuilder()
+        .setName(name).setType(MetricProto.MetricType.HISTOGRAM).setBinWidth(10).setNumBins(4);
+    long count = 0;
+    long sum = 0;
+    for (int i = 0; i < binIndices.length; ++i) {
+      builder.addBinIndex(binIndices[i]).addBinCount(binCounts[i]);
+      count += binCounts[i];
+      // Every value lies in the middle of its bin.
+      sum += binCounts[i] * (binIndices[i] * 10 + 5);
+    }
+    return builder.setValue(count).setSum(sum).build();
+  }
+
+  private static MetricProto logLinearHistogram(final String name, final LogLinearHistogram histogram) {
+    return MetricProto.newBuilder()
+        .setName(name).setType(MetricProto.MetricType.HISTOGRAM).setValue(histogram.getCount())
+        .setLogLinearHistogram(ByteString.copyFrom(histogram.toByteArray())).build();
+  }
+}
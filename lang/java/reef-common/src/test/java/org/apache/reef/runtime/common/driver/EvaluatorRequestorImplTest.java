@@ -26,11 +26,22 @@ import org.apache.reef.runtime.common.driver.api.ResourceRequestHandler;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.util.logging.LoggingScopeFactory;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for EvaluatorRequestorImpl.
@@ -103,6 +114,48 @@ public class EvaluatorRequestorImplTest {
         .build());
   }
 
+  /**
+   * Checks that requests submitted within the batch window are merged when they are compatible,
+   * and that requests for different nodes are kept apart.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBatchedRequestsAreMerged() {
+    final Clock clock = mock(Clock.class);
+    final List<ResourceRequestEvent> requests = new ArrayList<>();
+    final EvaluatorRequestor evaluatorRequestor = new EvaluatorRequestorImpl(resourceCatalog,
+        new ResourceRequestHandler() {
+          @Override
+          public void onNext(final ResourceRequestEvent resourceRequestEvent) {
+            requests.add(resourceRequestEvent);
+          }
+        }, loggingScopeFactory, clock, 10);
+
+    for (int i = 0; i < 4; ++i) {
+      evaluatorRequestor.submit(EvaluatorRequest.newBuilder().setMemory(128).addNodeName("node" + i % 2).build());
+    }
+    evaluatorRequestor.submit(EvaluatorRequest.newBuilder().setMemory(256).build());
+    evaluatorRequestor.submit(EvaluatorRequest.newBuilder().setMemory(256).build());
+    evaluatorRequestor.submit(EvaluatorRequest.newBuilder().setMemory(128).addNodeName("node0")
+        .setRelaxLocality(false).build());
+    Assert.assertTrue("Requests were not held back", requests.isEmpty());
+
+    final ArgumentCaptor<EventHandler> flush = ArgumentCaptor.forClass(EventHandler.class);
+    verify(clock, times(1)).scheduleAlarm(anyInt(), flush.capture());
+    ((EventHandler<Alarm>) flush.getValue()).onNext(null);
+
+    Assert.assertEquals(4, requests.size());
+    Assert.assertEquals(2, requests.get(0).getResourceCount());
+    Assert.assertEquals(Arrays.asList("node0"), requests.get(0).getNodeNameList());
+    Assert.assertEquals(2, requests.get(1).getResourceCount());
+    Assert.assertEquals(Arrays.asList("node1"), requests.get(1).getNodeNameList());
+    Assert.assertEquals(2, requests.get(2).getResourceCount());
+    Assert.assertEquals(256, requests.get(2).getMemorySize().get().intValue());
+    Assert.assertTrue(requests.get(2).getNodeNameList().isEmpty());
+    Assert.assertEquals(1, requests.get(3).getResourceCount());
+    Assert.assertFalse(requests.get(3).getRelaxLocality().get());
+  }
+
   private class DummyRequestHandler implements ResourceRequestHandler {
     private ResourceRequestEvent request;
 
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for CoalescingHeartBeatTrigger.
+ * The clock is a mock: the tests fire the scheduled heartbeat alarms themselves.
+ */
+public final class CoalescingHeartBeatTriggerTest {
+
+  private static final int WINDOW = 5;
+
+  private Clock clock;
+  private AtomicInteger heartbeats;
+
+  @Before
+  public void setUp() {
+    this.clock = mock(Clock.class);
+    this.heartbeats = new AtomicInteger(0);
+  }
+
+  /**
+   * All triggers before the heartbeat alarm goes off share one heartbeat.
+   */
+  @Test
+  public void testTriggersCoalesceUntilAlarm() {
+    final CoalescingHeartBeatTrigger trigger = newTrigger();
+    for (int i = 0; i < 100; ++i) {
+      trigger.trigger();
+    }
+    Assert.assertEquals("Triggering must not send the heartbeat", 0, this.heartbeats.get());
+
+    fireAlarms(1);
+    Assert.assertEquals(1, this.heartbeats.get());
+
+    trigger.trigger();
+    trigger.trigger();
+    fireAlarms(2);
+    Assert.assertEquals(2, this.heartbeats.get());
+  }
+
+  /**
+   * Triggers from many threads before the heartbeat alarm goes off share one heartbeat.
+   */
+  @Test
+  public void testConcurrentTriggersCoalesce() throws InterruptedException {
+    final CoalescingHeartBeatTrigger trigger = newTrigger();
+    final int numThreads = 8;
+    final CountDownLatch start = new CountDownLatch(1);
+    final Thread[] threads = new Thread[numThreads];
+    for (int t = 0; t < numThreads; ++t) {
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          for (int i = 0; i < 100; ++i) {
+            trigger.trigger();
+          }
+        }
+      });
+      threads[t].start();
+    }
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    fireAlarms(1);
+    Assert.assertEquals(1, this.heartbeats.get());
+  }
+
+  /**
+   * A trigger that arrives while the heartbeat is assembled is not covered by it and schedules another one.
+   */
+  @Test
+  public void testTriggerDuringSendSchedulesNextHeartbeat() {
+    final AtomicInteger sent = new AtomicInteger(0);
+    final CoalescingHeartBeatTrigger[] trigger = new CoalescingHeartBeatTrigger[1];
+    trigger[0] = new CoalescingHeartBeatTrigger(new Runnable() {
+      @Override
+      public void run() {
+        if (sent.incrementAndGet() == 1) {
+          trigger[0].trigger();
+        }
+      }
+    }, this.clock, WINDOW);
+
+    trigger[0].trigger();
+    fireAlarms(1);
+    Assert.assertEquals(1, sent.get());
+    fireAlarms(2);
+    Assert.assertEquals(2, sent.get());
+  }
+
+  /**
+   * Triggers after the clock is closed still send a heartbeat.
+   */
+  @Test
+  public void testTriggerAfterClockClosed() {
+    doThrow(new IllegalStateException("Clock is closed"))
+        .when(this.clock).scheduleAlarm(anyInt(), any(EventHandler.class));
+    final CoalescingHeartBeatTrigger trigger = newTrigger();
+    trigger.trigger();
+    Assert.assertEquals(1, this.heartbeats.get());
+    trigger.trigger();
+    Assert.assertEquals(2, this.heartbeats.get());
+  }
+
+  private CoalescingHeartBeatTrigger newTrigger() {
+    return new CoalescingHeartBeatTrigger(new Runnable() {
+      @Override
+      public void run() {
+        heartbeats.incrementAndGet();
+      }
+    }, this.clock, WINDOW);
+  }
+
+  /**
+   * Checks that the given number of heartbeat alarms have been scheduled so far, and fires the last one.
+   */
+  @SuppressWarnings("unchecked")
+  private void fireAlarms(final int scheduled) {
+    final ArgumentCaptor<EventHandler> handler = ArgumentCaptor.forClass(EventHandler.class);
+    verify(this.clock, times(scheduled)).scheduleAlarm(eq(WINDOW), handler.capture());
+    final List<EventHandler> handlers = handler.getAllValues();
+    handlers.get(handlers.size() - 1).onNext(mock(Alarm.class));
+  }
+}
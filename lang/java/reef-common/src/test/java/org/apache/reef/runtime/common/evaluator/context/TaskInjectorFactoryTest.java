@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.context;
+
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.task.Task;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+/**
+ * Tests for TaskInjectorFactory.
+ */
+public final class TaskInjectorFactoryTest {
+
+  private final AvroConfigurationSerializer serializer = new AvroConfigurationSerializer();
+
+  private TaskInjectorFactory factory;
+
+  @Before
+  public void setUp() {
+    this.factory = new TaskInjectorFactory(Tang.Factory.getTang().newInjector());
+  }
+
+  /**
+   * Tests that a configuration that differs only in named parameter values is launched from the template,
+   * with the new values and new instances.
+   */
+  @Test
+  public void testNamedParameterChangeUsesTemplate() throws Exception {
+    final Injector first = newTaskInjector("task-0", SizedTask.class, 1);
+    final Injector second = newTaskInjector("task-1", SizedTask.class, 2);
+    Assert.assertEquals(1, this.factory.getNumTemplateHits());
+
+    Assert.assertEquals("task-0", first.getNamedInstance(TaskConfigurationOptions.Identifier.class));
+    Assert.assertEquals("task-1", second.getNamedInstance(TaskConfigurationOptions.Identifier.class));
+    final SizedTask firstTask = (SizedTask) first.getInstance(Task.class);
+    final SizedTask secondTask = (SizedTask) second.getInstance(Task.class);
+    Assert.assertEquals(1, firstTask.size);
+    Assert.assertEquals(2, secondTask.size);
+    Assert.assertNotSame(firstTask, secondTask);
+  }
+
+  /**
+   * Tests that a configuration that binds a different implementation is parsed and replaces the template.
+   */
+  @Test
+  public void testImplementationChangeReplacesTemplate() throws Exception {
+    newTaskInjector("task-0", SizedTask.class, 1);
+    final Injector other = newTaskInjector("task-1", OtherSizedTask.class, 2);
+    Assert.assertEquals(0, this.factory.getNumTemplateHits());
+    Assert.assertTrue(other.getInstance(Task.class) instanceof OtherSizedTask);
+
+    final Injector third = newTaskInjector("task-2", OtherSizedTask.class, 3);
+    Assert.assertEquals(1, this.factory.getNumTemplateHits());
+    Assert.assertEquals(3, ((OtherSizedTask) third.getInstance(Task.class)).size);
+  }
+
+  private Injector newTaskInjector(final String taskId, final Class<? extends Task> taskClass, final int size)
+      throws Exception {
+    final Configuration taskConfig = Configurations.merge(
+        TaskConfiguration.CONF
+            .set(TaskConfiguration.IDENTIFIER, taskId)
+            .set(TaskConfiguration.TASK, taskClass)
+            .build(),
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(TaskSize.class, Integer.toString(size))
+            .build());
+    return this.factory.newTaskInjector(TaskInjectorFactory.decode(this.serializer.toString(taskConfig)));
+  }
+
+  @NamedParameter
+  static final class TaskSize implements Name<Integer> {
+  }
+
+  static final class SizedTask implements Task {
+    private final int size;
+
+    @Inject
+    SizedTask(@Parameter(TaskSize.class) final int size) {
+      this.size = size;
+    }
+
+    @Override
+    public byte[] call(final byte[] memento) {
+      return null;
+    }
+  }
+
+  static final class OtherSizedTask implements Task {
+    private final int size;
+
+    @Inject
+    OtherSizedTask(@Parameter(TaskSize.class) final int size) {
+      this.size = size;
+    }
+
+    @Override
+    public byte[] call(final byte[] memento) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.files;
+
+import org.apache.reef.runtime.common.parameters.JobArtifactCacheDirectory;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Tests for JobArtifactCache and its use by JobJarMaker.
+ */
+public final class JobArtifactCacheTest {
+
+  private static final String CONFIGURATION_NAME = "driver.conf";
+  private static final String CONFIGURATION_ENTRY = "local/" + CONFIGURATION_NAME;
+
+  private File tempFolder;
+  private File cacheFolder;
+
+  @Before
+  public void setUp() throws IOException {
+    this.tempFolder = Files.createTempDirectory("reef-artifact-cache-test").toFile();
+    this.cacheFolder = new File(this.tempFolder, "cache");
+  }
+
+  @After
+  public void tearDown() {
+    deleteRecursively(this.tempFolder);
+  }
+
+  /**
+   * Jars built from unchanged inputs are served from the cache, changed inputs produce a new jar.
+   */
+  @Test
+  public void testJarIsReusedForUnchangedContent() throws IOException, InjectionException {
+    final File library = writeFile("library.jar", "version 1");
+    final JobJarMaker jobJarMaker = newJobJarMaker(this.cacheFolder.getAbsolutePath());
+
+    final File firstJar = buildJar(jobJarMaker, library);
+    final File secondJar = buildJar(jobJarMaker, library);
+    Assert.assertEquals("Unchanged inputs should reuse the cached jar", firstJar, secondJar);
+    Assert.assertEquals("Cached jars should be kept in the cache folder", this.cacheFolder, firstJar.getParentFile());
+
+    Files.write(library.toPath(), "version 2, longer".getBytes(StandardCharsets.UTF_8));
+    final File thirdJar = buildJar(jobJarMaker, library);
+    Assert.assertNotEquals("Changed inputs should produce a new jar", firstJar, thirdJar);
+  }
+
+  /**
+   * The configuration is not part of the cached jar: jobs that only differ in their configuration reuse it,
+   * and each of them gets its own configuration in the jar it submits.
+   */
+  @Test
+  public void testConfigurationIsNotCached() throws IOException, InjectionException {
+    final File library = writeFile("library.jar", "content");
+    final JobJarMaker jobJarMaker = newJobJarMaker(this.cacheFolder.getAbsolutePath());
+
+    final File firstJar = buildJar(jobJarMaker, library, "first-job");
+    final File secondJar = buildJar(jobJarMaker, library, "second-job");
+    Assert.assertNotEquals("Each job should submit its own jar", firstJar, secondJar);
+    Assert.assertEquals("Both jobs should share one cached jar", 1, this.cacheFolder.listFiles().length);
+
+    final File cachedJar = this.cacheFolder.listFiles()[0];
+    Assert.assertNull("The cached jar should not contain a configuration", readEntry(cachedJar, CONFIGURATION_ENTRY));
+    Assert.assertTrue(new String(readEntry(firstJar, CONFIGURATION_ENTRY), StandardCharsets.ISO_8859_1)
+        .contains("first-job"));
+    Assert.assertTrue(new String(readEntry(secondJar, CONFIGURATION_ENTRY), StandardCharsets.ISO_8859_1)
+        .contains("second-job"));
+    Assert.assertNotNull("The files should be kept in the submitted jar", readEntry(secondJar, "global/library.jar"));
+  }
+
+  /**
+   * Without a cache folder, every build produces a fresh jar.
+   */
+  @Test
+  public void testCacheDisabledByDefault() throws IOException, InjectionException {
+    final File library = writeFile("library.jar", "content");
+    final JobJarMaker jobJarMaker = newJobJarMaker("");
+    Assert.assertNotEquals(buildJar(jobJarMaker, library), buildJar(jobJarMaker, library));
+  }
+
+  /**
+   * Content hashes depend on the file content only, not on the location of the file.
+   */
+  @Test
+  public void testContentHash() throws IOException, InjectionException {
+    final JobArtifactCache cache = Tang.Factory.getTang().newInjector().getInstance(JobArtifactCache.class);
+    final File first = writeFile("first", "same");
+    final File second = writeFile("second", "same");
+    final File third = writeFile("third", "different");
+    Assert.assertEquals(cache.getContentHash(first), cache.getContentHash(second));
+    Assert.assertNotEquals(cache.getContentHash(first), cache.getContentHash(third));
+  }
+
+  /**
+   * Linked or copied files have the content of the source.
+   */
+  @Test
+  public void testLinkOrCopy() throws IOException {
+    final File source = writeFile("source", "content");
+    final File destination = writeFile("destination", "will be replaced");
+    JobArtifactCache.linkOrCopy(source, destination);
+    Assert.assertEquals("content", new String(Files.readAllBytes(destination.toPath()), StandardCharsets.UTF_8));
+  }
+
+  private JobJarMaker newJobJarMaker(final String cacheDirectory) throws InjectionException {
+    return Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(JobArtifactCacheDirectory.class, cacheDirectory)
+        .build()).getInstance(JobJarMaker.class);
+  }
+
+  private static File buildJar(final JobJarMaker jobJarMaker, final File library) throws IOException {
+    final Set<FileResource> files = Collections.singleton(FileResourceImpl.newBuilder()
+        .setName(library.getName())
+        .setPath(library.getAbsolutePath())
+        .setType(FileType.LIB)
+        .build());
+    return jobJarMaker.newBuilder().addGlobalFileSet(files).build();
+  }
+
+  private static File buildJar(final JobJarMaker jobJarMaker, final File library, final String jobFolder)
+      throws IOException {
+    final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(JobArtifactCacheDirectory.class, jobFolder)
+        .build();
+    return jobJarMaker.newBuilder()
+        .addGlobalFileSet(Collections.singleton(FileResourceImpl.newBuilder()
+            .setName(library.getName())
+            .setPath(library.getAbsolutePath())
+            .setType(FileType.LIB)
+            .build()))
+        .withConfiguration(configuration)
+        .withConfigurationFileName(CONFIGURATION_NAME)
+        .build();
+  }
+
+  /**
+   * @return the content of the entry, or null if the jar file does not contain it.
+   */
+  private static byte[] readEntry(final File jar, final String entryName) throws IOException {
+    try (final JarFile jarFile = new JarFile(jar)) {
+      final JarEntry entry = jarFile.getJarEntry(entryName);
+      if (entry == null) {
+        return null;
+      }
+      try (final InputStream in = jarFile.getInputStream(entry)) {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+          content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+      }
+    }
+  }
+
+  private File writeFile(final String name, final String content) throws IOException {
+    final File file = new File(this.tempFolder, name);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static void deleteRecursively(final File file) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (final File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    if (!file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.util;
+
+import org.apache.reef.util.logging.LogIndex;
+import org.apache.reef.util.logging.LogParser;
+import org.apache.reef.util.logging.LoggingScopeFactory;
+import org.apache.reef.util.logging.LoggingScopeImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Test LogIndex against LogParser.
+ */
+public class LogIndexTest {
+
+  private static final String LOG_LEVEL_PREFIX = "INFO: ";
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Test that the index gives the same durations and stages as scanning the whole log, while the log grows.
+   */
+  @Test
+  public void testSameAsLogParser() throws IOException {
+    final File log = this.folder.newFile("driver.stderr");
+    final LogIndex index = new LogIndex(log.getAbsolutePath(), LOG_LEVEL_PREFIX);
+
+    append(log, scope(LoggingScopeFactory.DRIVER_START, 0) + "unrelated line\n\n");
+    assertSameAsLogParser(log, index);
+
+    append(log, scope(LoggingScopeFactory.BRIDGE_SETUP, 1) + scope(LoggingScopeFactory.EVALUATOR_BRIDGE_SUBMIT, 2) +
+        enter(LoggingScopeFactory.EVALUATOR_SUBMIT) + "INFO: partial line " + LoggingScopeImpl.TOKEN);
+    final ArrayList<String> stages = index.getStages();
+    append(log, " is completed now\r\n" + exit(LoggingScopeFactory.EVALUATOR_SUBMIT, 3));
+    assertSameAsLogParser(log, index);
+    Assert.assertNotEquals(stages, index.getStages());
+    Assert.assertEquals(log.length(), index.getIndexedLength());
+  }
+
+  /**
+   * Test a log of more than 2 GB: the index reaches its end, and a query after the log grew reads only the new lines.
+   * The bulk of the log is a hole in a sparse file, which reads as a single line of zeros that is skipped.
+   */
+  @Test
+  public void testMultiGigabyteLog() throws IOException {
+    final File log = this.folder.newFile("driver.stderr");
+    final LogIndex index = new LogIndex(log.getAbsolutePath(), LOG_LEVEL_PREFIX);
+
+    append(log, scope(LoggingScopeFactory.DRIVER_START, 10));
+    try (final RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+      file.setLength(5L << 29);
+    }
+    append(log, "\n" + scope(LoggingScopeFactory.BRIDGE_SETUP, 20));
+
+    final ArrayList<String> durations = index.getDurations();
+    Assert.assertEquals(2, durations.size());
+    Assert.assertTrue(durations.get(1).contains(LoggingScopeImpl.DURATION + 20));
+    Assert.assertEquals(log.length(), index.getIndexedLength());
+
+    // Change the start of the log, which the index must not read again.
+    try (final RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+      file.write(scope(LoggingScopeFactory.DRIVER_START, 99).getBytes(StandardCharsets.UTF_8));
+    }
+    append(log, scope(LoggingScopeFactory.EVALUATOR_BRIDGE_SUBMIT, 30));
+
+    final long start = System.currentTimeMillis();
+    final ArrayList<String> moreDurations = index.getDurations();
+    Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+    Assert.assertEquals(3, moreDurations.size());
+    Assert.assertEquals(durations, moreDurations.subList(0, 2));
+    Assert.assertEquals(3, index.getStages().size());
+  }
+
+  private static void assertSameAsLogParser(final File log, final LogIndex index) throws IOException {
+    final String fileName = log.getAbsolutePath();
+    Assert.assertEquals(
+        LogParser.getFilteredLinesFromFile(fileName, LoggingScopeImpl.DURATION, LoggingScopeImpl.TOKEN, null),
+        index.getDurations());
+
+    final ArrayList<String> starts =
+        LogParser.getFilteredLinesFromFile(fileName, LoggingScopeImpl.START_PREFIX, LOG_LEVEL_PREFIX, null);
+    final ArrayList<String> exits = LogParser.getFilteredLinesFromFile(
+        fileName, LoggingScopeImpl.EXIT_PREFIX, LOG_LEVEL_PREFIX, LoggingScopeImpl.DURATION);
+    Assert.assertEquals(LogParser.mergeStages(LogParser.findStages(starts, LogParser.START_INDICATORS),
+        LogParser.findStages(exits, LogParser.END_INDICATORS)), index.getStages());
+  }
+
+  private static String enter(final String scope) {
+    return "Oct 19, 2026 10:00:00 AM org.apache.reef.Driver onNext\n" +
+        LOG_LEVEL_PREFIX + LoggingScopeImpl.START_PREFIX + scope + "\n";
+  }
+
+  private static String exit(final String scope, final long duration) {
+    return "Oct 19, 2026 10:00:01 AM org.apache.reef.Driver onNext\n" +
+        LOG_LEVEL_PREFIX + LoggingScopeImpl.EXIT_PREFIX + scope + LoggingScopeImpl.DURATION + duration + "\n";
+  }
+
+  private static String scope(final String scope, final long duration) {
+    return enter(scope) + exit(scope, duration);
+  }
+
+  private static void append(final File log, final String text) throws IOException {
+    try (final RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+      file.seek(file.length());
+      file.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.experimental.parquet;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.reef.annotations.audience.TaskSide;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * A batch of rows of a Parquet file, stored column by column in arrays of primitives.
+ * <p>
+ * The arrays can be longer than the batch; only their first {@link #getNumRows()} entries are part of it.
+ * Values of binary columns are not copied out of the pages they were read from and must not be modified.
+ */
+@TaskSide
+public final class ColumnBatch implements Writable {
+
+  private int numRows = 0;
+  private String[] names = new String[0];
+  private PrimitiveTypeName[] types = new PrimitiveTypeName[0];
+  private Object[] values = new Object[0];
+  private boolean[][] nulls = new boolean[0][];
+
+  /**
+   * @return the number of rows in this batch.
+   */
+  public int getNumRows() {
+    return this.numRows;
+  }
+
+  /**
+   * @return the number of columns in this batch.
+   */
+  public int getNumColumns() {
+    return this.names.length;
+  }
+
+  public String getColumnName(final int column) {
+    return this.names[column];
+  }
+
+  /**
+   * @return the index of the column with the given name, or -1 if the batch has no such column.
+   */
+  public int getColumnIndex(final String name) {
+    for (int i = 0; i < this.names.length; ++i) {
+      if (this.names[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public PrimitiveTypeName getType(final int column) {
+    return this.types[column];
+  }
+
+  /**
+   * @return true if the value of the column in the row is null.
+   */
+  public boolean isNull(final int column, final int row) {
+    return this.nulls[column] != null && this.nulls[column][row];
+  }
+
+  public int[] getInts(final int column) {
+    return (int[]) this.get(column, int[].class);
+  }
+
+  public long[] getLongs(final int column) {
+    return (long[]) this.get(column, long[].class);
+  }
+
+  public float[] getFloats(final int column) {
+    return (float[]) this.get(column, float[].class);
+  }
+
+  public double[] getDoubles(final int column) {
+    return (double[]) this.get(column, double[].class);
+  }
+
+  public boolean[] getBooleans(final int column) {
+    return (boolean[]) this.get(column, boolean[].class);
+  }
+
+  /**
+   * @return the values of a binary, fixed length byte array or INT96 column.
+   */
+  public byte[][] getBinaries(final int column) {
+    return (byte[][]) this.get(column, byte[][].class);
+  }
+
+  private Object get(final int column, final Class<?> arrayClass) {
+    if (!arrayClass.isInstance(this.values[column])) {
+      throw new IllegalArgumentException("Column " + this.names[column] + " is of type " + this.types[column]);
+    }
+    return this.values[column];
+  }
+
+  /**
+   * Prepares the batch to hold the given number of rows of the given columns.
+   * The arrays of the previous batch are reused if they are large enough.
+   */
+  void reset(final String[] columnNames, final PrimitiveTypeName[] columnTypes,
+             final boolean[] nullable, final int rows) {
+    if (this.names != columnNames) {
+      this.names = columnNames;
+      this.types = columnTypes;
+      this.values = new Object[columnNames.length];
+      this.nulls = new boolean[columnNames.length][];
+    }
+    for (int i = 0; i < columnNames.length; ++i) {
+      if (this.values[i] == null || Array.getLength(this.values[i]) < rows) {
+        this.values[i] = newArray(columnTypes[i], rows);
+        this.nulls[i] = nullable[i] ? new boolean[rows] : null;
+      } else if (this.nulls[i] != null) {
+        Arrays.fill(this.nulls[i], 0, rows, false);
+      }
+    }
+    this.numRows = rows;
+  }
+
+  /**
+   * Marks the value of the column in the row as null.
+   */
+  void setNull(final int column, final int row) {
+    this.nulls[column][row] = true;
+  }
+
+  private static Object newArray(final PrimitiveTypeName type, final int length) {
+    switch (type) {
+    case INT32:
+      return new int[length];
+    case INT64:
+      return new long[length];
+    case FLOAT:
+      return new float[length];
+    case DOUBLE:
+      return new double[length];
+    case BOOLEAN:
+      return new boolean[length];
+    default:
+      return new byte[length][];
+    }
+  }
+
+  @Override
+  public void write(final DataOutput out) throws IOException {
+    out.writeInt(this.numRows);
+    out.writeInt(this.names.length);
+    for (int i = 0; i < this.names.length; ++i) {
+      out.writeUTF(this.names[i]);
+      out.writeInt(this.types[i].ordinal());
+      out.writeBoolean(this.nulls[i] != null);
+      for (int row = 0; row < this.numRows; ++row) {
+        final boolean isNull = this.isNull(i, row);
+        if (this.nulls[i] != null) {
+          out.writeBoolean(isNull);
+        }
+        if (!isNull) {
+          writeValue(out, this.values[i], row);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void readFields(final DataInput in) throws IOException {
+    final int rows = in.readInt();
+    final int numColumns = in.readInt();
+    final String[] columnNames = new String[numColumns];
+    final PrimitiveTypeName[] columnTypes = new PrimitiveTypeName[numColumns];
+    final Object[] columnValues = new Object[numColumns];
+    final boolean[][] columnNulls = new boolean[numColumns][];
+    for (int i = 0; i < numColumns; ++i) {
+      columnNames[i] = in.readUTF();
+      columnTypes[i] = PrimitiveTypeName.values()[in.readInt()];
+      columnValues[i] = newArray(columnTypes[i], rows);
+      columnNulls[i] = in.readBoolean() ? new boolean[rows] : null;
+      for (int row = 0; row < rows; ++row) {
+        if (columnNulls[i] != null) {
+          columnNulls[i][row] = in.readBoolean();
+        }
+        if (columnNulls[i] == null || !columnNulls[i][row]) {
+          readValue(in, columnValues[i], row);
+        }
+      }
+    }
+    this.numRows = rows;
+    this.names = columnNames;
+    this.types = columnTypes;
+    this.values = columnValues;
+    this.nulls = columnNulls;
+  }
+
+  private static void writeValue(final DataOutput out, final Object array, final int row) throws IOException {
+    if (array instanceof int[]) {
+      out.writeInt(((int[]) array)[row]);
+    } else if (array instanceof long[]) {
+      out.writeLong(((long[]) array)[row]);
+    } else if (array instanceof float[]) {
+      out.writeFloat(((float[]) array)[row]);
+    } else if (array instanceof double[]) {
+      out.writeDouble(((double[]) array)[row]);
+    } else if (array instanceof boolean[]) {
+      out.writeBoolean(((boolean[]) array)[row]);
+    } else {
+      final byte[] value = ((byte[][]) array)[row];
+      out.writeInt(value.length);
+      out.write(value);
+    }
+  }
+
+  private static void readValue(final DataInput in, final Object array, final int row) throws IOException {
+    if (array instanceof int[]) {
+      ((int[]) array)[row] = in.readInt();
+    } else if (array instanceof long[]) {
+      ((long[]) array)[row] = in.readLong();
+    } else if (array instanceof float[]) {
+      ((float[]) array)[row] = in.readFloat();
+    } else if (array instanceof double[]) {
+      ((double[]) array)[row] = in.readDouble();
+    } else if (array instanceof boolean[]) {
+      ((boolean[]) array)[row] = in.readBoolean();
+    } else {
+      final byte[] value = new byte[in.readInt()];
+      in.readFully(value);
+      ((byte[][]) array)[row] = value;
+    }
+  }
+}
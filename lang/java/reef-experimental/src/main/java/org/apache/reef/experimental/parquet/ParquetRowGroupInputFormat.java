@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.experimental.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+
+/**
+ * An InputFormat that splits Parquet files at row group boundaries and reads them as {@link ColumnBatch}es,
+ * keyed by the index of their first row in the file.
+ * <p>
+ * The columns to read and a filter are set as JobConf properties, e.g. with
+ * {@link org.apache.reef.io.data.loading.api.DataLoadingRequestBuilder#setJobConfProperty}:
+ * <pre>
+ *   builder.setInputFormatClass(ParquetRowGroupInputFormat.class)
+ *       .setJobConfProperty(ParquetRowGroupInputFormat.PROJECTION, "age,score")
+ *       .setJobConfProperty(ParquetRowGroupInputFormat.FILTER,
+ *           ParquetRowGroupInputFormat.serializeFilter(FilterApi.gt(FilterApi.intColumn("age"), 30)));
+ * </pre>
+ * The filter is applied to the statistics of the row groups: row groups that can't match it are not read at all,
+ * while the rows of the other row groups are all returned, matching or not.
+ * Only files of flat records of primitive columns are supported.
+ */
+public final class ParquetRowGroupInputFormat extends FileInputFormat<LongWritable, ColumnBatch> {
+
+  private static final Logger LOG = Logger.getLogger(ParquetRowGroupInputFormat.class.getName());
+
+  /**
+   * Comma separated names of the columns to read. All columns are read if it is not set.
+   */
+  public static final String PROJECTION = "reef.parquet.projection";
+
+  /**
+   * A filter on the row group statistics, as returned by {@link #serializeFilter(FilterPredicate)}.
+   */
+  public static final String FILTER = ParquetInputFormat.FILTER_PREDICATE;
+
+  /**
+   * The maximum number of rows in a batch.
+   */
+  public static final String BATCH_SIZE = "reef.parquet.batch.size";
+
+  static final int DEFAULT_BATCH_SIZE = 4096;
+
+  /**
+   * @return the filter in the form that the FILTER property takes.
+   * @throws IOException if the filter couldn't be serialized.
+   */
+  public static String serializeFilter(final FilterPredicate filter) throws IOException {
+    final Configuration conf = new Configuration(false);
+    ParquetInputFormat.setFilterPredicate(conf, filter);
+    return conf.get(FILTER);
+  }
+
+  /**
+   * Returns a split per row group that can match the filter, or, if that is more than numSplits,
+   * splits of consecutive row groups of about the same size.
+   */
+  @Override
+  public InputSplit[] getSplits(final JobConf job, final int numSplits) throws IOException {
+    final List<FileStatus> files = new ArrayList<>();
+    final List<List<BlockMetaData>> rowGroupsPerFile = new ArrayList<>();
+    int numRowGroups = 0;
+    long totalSize = 0;
+    for (final FileStatus file : this.listStatus(job)) {
+      final ParquetMetadata footer = ParquetFileReader.readFooter(job, file, NO_FILTER);
+      final List<BlockMetaData> rowGroups = RowGroupFilter.filterRowGroups(
+          ParquetInputFormat.getFilter(job), footer.getBlocks(), footer.getFileMetaData().getSchema());
+      LOG.log(Level.FINE, "{0}: {1} of {2} row groups can match the filter",
+          new Object[] {file.getPath(), rowGroups.size(), footer.getBlocks().size()});
+      files.add(file);
+      rowGroupsPerFile.add(rowGroups);
+      numRowGroups += rowGroups.size();
+      for (final BlockMetaData rowGroup : rowGroups) {
+        totalSize += rowGroup.getCompressedSize();
+      }
+    }
+
+    final long targetSize = numSplits > 0 && numRowGroups > numSplits ? totalSize / numSplits : 0;
+    final List<InputSplit> splits = new ArrayList<>(numRowGroups);
+    for (int i = 0; i < files.size(); ++i) {
+      final FileStatus file = files.get(i);
+      final FileSystem fileSystem = file.getPath().getFileSystem(job);
+      long start = -1;
+      long end = -1;
+      for (final BlockMetaData rowGroup : rowGroupsPerFile.get(i)) {
+        if (start >= 0 && end - start >= targetSize) {
+          splits.add(newSplit(fileSystem, file, start, end));
+          start = -1;
+        }
+        if (start < 0) {
+          start = rowGroup.getStartingPos();
+        }
+        end = rowGroup.getStartingPos() + rowGroup.getCompressedSize();
+      }
+      if (start >= 0) {
+        splits.add(newSplit(fileSystem, file, start, end));
+      }
+    }
+    return splits.toArray(new InputSplit[splits.size()]);
+  }
+
+  private static FileSplit newSplit(final FileSystem fileSystem, final FileStatus file,
+                                    final long start, final long end) throws IOException {
+    final BlockLocation[] locations = fileSystem.getFileBlockLocations(file, start, end - start);
+    return new FileSplit(file.getPath(), start, end - start, locations.length > 0 ? locations[0].getHosts() : null);
+  }
+
+  @Override
+  public RecordReader<LongWritable, ColumnBatch> getRecordReader(
+      final InputSplit split, final JobConf job, final Reporter reporter) throws IOException {
+    final FileSplit fileSplit = (FileSplit) split;
+    final String projection = job.get(PROJECTION);
+    return new ParquetRowGroupRecordReader(job, fileSplit,
+        projection == null || projection.isEmpty() ? null : projection.split(","),
+        job.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+  }
+
+  /**
+   * Splits are made of whole row groups already.
+   */
+  @Override
+  protected boolean isSplitable(final FileSystem fs, final Path filename) {
+    return false;
+  }
+}
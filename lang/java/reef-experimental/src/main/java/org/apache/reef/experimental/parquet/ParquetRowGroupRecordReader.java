@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.experimental.parquet;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.reef.annotations.audience.TaskSide;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+
+/**
+ * Reads the row groups of a split column by column, straight from the column readers into the arrays of a
+ * {@link ColumnBatch}, without assembling records.
+ */
+@TaskSide
+final class ParquetRowGroupRecordReader implements RecordReader<LongWritable, ColumnBatch> {
+
+  private static final GroupConverter NO_OP_CONVERTER = new NoOpGroupConverter();
+
+  private final ParquetFileReader fileReader;
+  private final MessageType projectedSchema;
+  private final String createdBy;
+  private final int batchSize;
+
+  private final String[] names;
+  private final PrimitiveTypeName[] types;
+  private final boolean[] nullable;
+  private final ColumnReader[] columnReaders;
+
+  /** Index in the file of the first row of each row group to read, in order. */
+  private final List<Long> firstRows = new ArrayList<>();
+  private final long numRows;
+
+  private int rowGroupIndex = -1;
+  private long nextRow = 0;
+  private long rowsLeftInRowGroup = 0;
+  private long rowsRead = 0;
+
+  ParquetRowGroupRecordReader(final JobConf job, final FileSplit split,
+                              final String[] projection, final int batchSize) throws IOException {
+    final ParquetMetadata footer = ParquetFileReader.readFooter(job, split.getPath(), NO_FILTER);
+    final MessageType fileSchema = footer.getFileMetaData().getSchema();
+
+    final List<BlockMetaData> inSplit = new ArrayList<>();
+    final Map<BlockMetaData, Long> firstRowOf = new HashMap<>();
+    long firstRow = 0;
+    for (final BlockMetaData rowGroup : footer.getBlocks()) {
+      final long start = rowGroup.getStartingPos();
+      if (start >= split.getStart() && start < split.getStart() + split.getLength()) {
+        inSplit.add(rowGroup);
+        firstRowOf.put(rowGroup, firstRow);
+      }
+      firstRow += rowGroup.getRowCount();
+    }
+
+    final List<BlockMetaData> rowGroups =
+        RowGroupFilter.filterRowGroups(ParquetInputFormat.getFilter(job), inSplit, fileSchema);
+    long count = 0;
+    for (final BlockMetaData rowGroup : rowGroups) {
+      this.firstRows.add(firstRowOf.get(rowGroup));
+      count += rowGroup.getRowCount();
+    }
+    this.numRows = count;
+
+    final List<Type> fields = new ArrayList<>();
+    if (projection == null) {
+      fields.addAll(fileSchema.getFields());
+    } else {
+      for (final String name : projection) {
+        if (!fileSchema.containsField(name.trim())) {
+          throw new IOException("Column " + name.trim() + " is not in " + split.getPath());
+        }
+        fields.add(fileSchema.getType(name.trim()));
+      }
+    }
+    for (final Type field : fields) {
+      if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+        throw new IOException("Column " + field.getName() + " is not a primitive, non repeated column.");
+      }
+    }
+    this.projectedSchema = new MessageType(fileSchema.getName(), fields);
+
+    final List<ColumnDescriptor> columns = this.projectedSchema.getColumns();
+    this.names = new String[columns.size()];
+    this.types = new PrimitiveTypeName[columns.size()];
+    this.nullable = new boolean[columns.size()];
+    this.columnReaders = new ColumnReader[columns.size()];
+    for (int i = 0; i < columns.size(); ++i) {
+      this.names[i] = columns.get(i).getPath()[0];
+      this.types[i] = columns.get(i).getType();
+      this.nullable[i] = columns.get(i).getMaxDefinitionLevel() > 0;
+    }
+
+    this.createdBy = footer.getFileMetaData().getCreatedBy();
+    this.batchSize = batchSize;
+    this.fileReader = new ParquetFileReader(job, footer.getFileMetaData(), split.getPath(), rowGroups, columns);
+  }
+
+  @Override
+  public boolean next(final LongWritable key, final ColumnBatch value) throws IOException {
+    if (this.rowsLeftInRowGroup == 0 && !this.nextRowGroup()) {
+      return false;
+    }
+
+    final int rows = (int) Math.min(this.batchSize, this.rowsLeftInRowGroup);
+    value.reset(this.names, this.types, this.nullable, rows);
+    for (int i = 0; i < this.columnReaders.length; ++i) {
+      this.readColumn(value, i, rows);
+    }
+
+    key.set(this.nextRow);
+    this.nextRow += rows;
+    this.rowsLeftInRowGroup -= rows;
+    this.rowsRead += rows;
+    return true;
+  }
+
+  private boolean nextRowGroup() throws IOException {
+    final PageReadStore pages = this.fileReader.readNextRowGroup();
+    if (pages == null) {
+      return false;
+    }
+    ++this.rowGroupIndex;
+    this.nextRow = this.firstRows.get(this.rowGroupIndex);
+    this.rowsLeftInRowGroup = pages.getRowCount();
+
+    final ColumnReadStoreImpl columnReadStore =
+        new ColumnReadStoreImpl(pages, NO_OP_CONVERTER, this.projectedSchema, this.createdBy);
+    final List<ColumnDescriptor> columns = this.projectedSchema.getColumns();
+    for (int i = 0; i < this.columnReaders.length; ++i) {
+      this.columnReaders[i] = columnReadStore.getColumnReader(columns.get(i));
+    }
+    return true;
+  }
+
+  private void readColumn(final ColumnBatch batch, final int column, final int rows) {
+    final ColumnReader reader = this.columnReaders[column];
+    final int maxDefinitionLevel = this.nullable[column] ? 1 : 0;
+    switch (this.types[column]) {
+    case INT32:
+      final int[] ints = batch.getInts(column);
+      for (int row = 0; row < rows; ++row) {
+        if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+          ints[row] = reader.getInteger();
+        } else {
+          batch.setNull(column, row);
+        }
+        reader.consume();
+      }
+      break;
+    case INT64:
+      final long[] longs = batch.getLongs(column);
+      for (int row = 0; row < rows; ++row) {
+        if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+          longs[row] = reader.getLong();
+        } else {
+          batch.setNull(column, row);
+        }
+        reader.consume();
+      }
+      break;
+    case FLOAT:
+      final float[] floats = batch.getFloats(column);
+      for (int row = 0; row < rows; ++row) {
+        if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+          floats[row] = reader.getFloat();
+        } else {
+          batch.setNull(column, row);
+        }
+        reader.consume();
+      }
+      break;
+    case DOUBLE:
+      final double[] doubles = batch.getDoubles(column);
+      for (int row = 0; row < rows; ++row) {
+        if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+          doubles[row] = reader.getDouble();
+        } else {
+          batch.setNull(column, row);
+        }
+        reader.consume();
+      }
+      break;
+    case BOOLEAN:
+      final boolean[] booleans = batch.getBooleans(column);
+      for (int row = 0; row < rows; ++row) {
+        if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+          booleans[row] = reader.getBoolean();
+        } else {
+          batch.setNull(column, row);
+        }
+        reader.consume();
+      }
+      break;
+    default:
+      final byte[][] binaries = batch.getBinaries(column);
+      for (int row = 0; row < rows; ++row) {
+        if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+          binaries[row] = reader.getBinary().getBytes();
+        } else {
+          binaries[row] = null;
+          batch.setNull(column, row);
+        }
+        reader.consume();
+      }
+      break;
+    }
+  }
+
+  @Override
+  public LongWritable createKey() {
+    return new LongWritable();
+  }
+
+  @Override
+  public ColumnBatch createValue() {
+    return new ColumnBatch();
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return this.rowsRead;
+  }
+
+  @Override
+  public float getProgress() throws IOException {
+    return this.numRows == 0 ? 1.0f : (float) this.rowsRead / this.numRows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.fileReader.close();
+  }
+
+  /**
+   * The column readers are only read from directly, so they don't need to convert anything.
+   */
+  private static final class NoOpGroupConverter extends GroupConverter {
+    private static final PrimitiveConverter PRIMITIVE_CONVERTER = new PrimitiveConverter() { };
+
+    @Override
+    public Converter getConverter(final int fieldIndex) {
+      return PRIMITIVE_CONVERTER;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void end() {
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.experimental.parquet;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.reef.io.data.loading.impl.InputFormatDataSet;
+import org.apache.reef.io.data.loading.impl.JobConfExternalConstructor;
+import org.apache.reef.io.network.util.Pair;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for ParquetRowGroupInputFormat on a local file of several row groups.
+ */
+public final class ParquetRowGroupInputFormatTest {
+
+  private static final int NUM_ROWS = 20000;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setUp() throws Exception {
+    final Schema schema = SchemaBuilder.record("Row").fields()
+        .requiredLong("id")
+        .requiredDouble("score")
+        .optionalInt("bucket")
+        .requiredString("name")
+        .endRecord();
+    this.file = new File(this.folder.getRoot(), "rows.parquet");
+    try (final ParquetWriter<GenericRecord> writer = AvroParquetWriter.<GenericRecord>builder(
+        new Path(this.file.getAbsolutePath())).withSchema(schema).withRowGroupSize(32 * 1024).build()) {
+      for (int i = 0; i < NUM_ROWS; ++i) {
+        final GenericRecord record = new GenericData.Record(schema);
+        record.put("id", (long) i);
+        record.put("score", i / 2.0);
+        record.put("bucket", i % 10 == 0 ? null : i % 10);
+        record.put("name", "row_" + i);
+        writer.write(record);
+      }
+    }
+  }
+
+  /**
+   * Tests that every row is read exactly once across the row group splits, with the right values.
+   */
+  @Test
+  public void testReadAllRowGroups() throws Exception {
+    final JobConf jobConf = newJobConf();
+    final InputSplit[] splits = jobConf.getInputFormat().getSplits(jobConf, 0);
+    Assert.assertTrue("Expected several row groups, got " + splits.length, splits.length > 1);
+
+    final Set<Long> ids = new HashSet<>();
+    for (final InputSplit split : splits) {
+      for (final Pair<LongWritable, ColumnBatch> pair : newDataSet(split, jobConf)) {
+        final ColumnBatch batch = pair.getSecond();
+        Assert.assertEquals(4, batch.getNumColumns());
+        final long[] id = batch.getLongs(batch.getColumnIndex("id"));
+        final double[] score = batch.getDoubles(batch.getColumnIndex("score"));
+        final int bucket = batch.getColumnIndex("bucket");
+        final byte[][] name = batch.getBinaries(batch.getColumnIndex("name"));
+        for (int row = 0; row < batch.getNumRows(); ++row) {
+          Assert.assertEquals(pair.getFirst().get() + row, id[row]);
+          Assert.assertEquals(id[row] / 2.0, score[row], 0);
+          Assert.assertEquals(id[row] % 10 == 0, batch.isNull(bucket, row));
+          Assert.assertEquals("row_" + id[row], new String(name[row], "UTF-8"));
+          Assert.assertTrue(ids.add(id[row]));
+        }
+      }
+    }
+    Assert.assertEquals(NUM_ROWS, ids.size());
+
+    Assert.assertEquals(2, jobConf.getInputFormat().getSplits(jobConf, 2).length);
+  }
+
+  /**
+   * Tests that only the projected columns are read, and that row groups the filter can't match are skipped.
+   */
+  @Test
+  public void testProjectionAndFilter() throws Exception {
+    final JobConf jobConf = newJobConf(
+        ParquetRowGroupInputFormat.PROJECTION + "=score",
+        ParquetRowGroupInputFormat.FILTER + "=" +
+            ParquetRowGroupInputFormat.serializeFilter(FilterApi.gtEq(FilterApi.longColumn("id"), NUM_ROWS - 10L)));
+    final InputSplit[] splits = jobConf.getInputFormat().getSplits(jobConf, 0);
+    Assert.assertEquals(1, splits.length);
+
+    double maxScore = -1;
+    for (final Pair<LongWritable, ColumnBatch> pair : newDataSet(splits[0], jobConf)) {
+      final ColumnBatch batch = pair.getSecond();
+      Assert.assertEquals(1, batch.getNumColumns());
+      final double[] score = batch.getDoubles(0);
+      for (int row = 0; row < batch.getNumRows(); ++row) {
+        maxScore = Math.max(maxScore, score[row]);
+      }
+    }
+    Assert.assertEquals((NUM_ROWS - 1) / 2.0, maxScore, 0);
+  }
+
+  private static InputFormatDataSet<LongWritable, ColumnBatch> newDataSet(
+      final InputSplit split, final JobConf jobConf) {
+    return new InputFormatDataSet<>(split, jobConf);
+  }
+
+  private JobConf newJobConf(final String... properties) {
+    return new JobConfExternalConstructor(ParquetRowGroupInputFormat.class.getName(),
+        this.file.getAbsolutePath(), new HashSet<>(Arrays.asList(properties))).newInstance();
+  }
+}
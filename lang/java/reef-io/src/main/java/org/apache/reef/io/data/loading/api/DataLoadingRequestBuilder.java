@@ -41,7 +41,9 @@ import org.apache.reef.tang.formats.ConfigurationModule;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -59,6 +61,7 @@ public final class DataLoadingRequestBuilder
   private boolean renewFailedEvaluators = true;
   private ConfigurationModule driverConfigurationModule = null;
   private String inputFormatClass;
+  private final Map<String, String> jobConfProperties = new LinkedHashMap<>();
   /**
    * Single data center loading strategy flag. Allows to specify if the data
    * will be loaded in machines of a single data center or not. By
@@ -158,6 +161,22 @@ public final class DataLoadingRequestBuilder
     return this;
   }
 
+  /**
+   * Sets a property on the JobConf that the InputFormat computes the splits with on the driver
+   * and reads them with on the evaluators, e.g. a column projection or a filter the InputFormat supports.
+   *
+   * @param key
+   *          the name of the property
+   * @param value
+   *          the value of the property
+   * @return this
+   */
+  public DataLoadingRequestBuilder setJobConfProperty(final String key, final String value) {
+    Validate.isTrue(key.indexOf('=') < 0, "JobConf property names can't contain '='");
+    this.jobConfProperties.put(key, value);
+    return this;
+  }
+
   /**
    * Sets the path of the folder where the data is.
    * Internally, a distributed dataset with a unique partition is created,
@@ -260,6 +279,11 @@ public final class DataLoadingRequestBuilder
     jcb.bindNamedParameter(LoadDataIntoMemory.class, Boolean.toString(this.inMemory))
        .bindNamedParameter(JobConfExternalConstructor.InputFormatClass.class, inputFormatClass);
 
+    for (final Map.Entry<String, String> property : this.jobConfProperties.entrySet()) {
+      jcb.bindSetEntry(JobConfExternalConstructor.JobConfProperties.class,
+          property.getKey() + "=" + property.getValue());
+    }
+
     final Iterator<DistributedDataSetPartition> partitions = this.distributedDataSet.iterator();
     while (partitions.hasNext()) {
       jcb.bindSetEntry(
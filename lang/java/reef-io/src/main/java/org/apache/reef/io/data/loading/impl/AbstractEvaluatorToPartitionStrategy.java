@@ -64,7 +64,8 @@ public abstract class AbstractEvaluatorToPartitionStrategy implements EvaluatorT
 
   @SuppressWarnings("rawtypes")
   AbstractEvaluatorToPartitionStrategy(
-      final String inputFormatClassName, final Set<String> serializedDataPartitions) {
+      final String inputFormatClassName, final Set<String> serializedDataPartitions,
+      final Set<String> jobConfProperties) {
     LOG.fine("AbstractEvaluatorToPartitionStrategy injected");
     Validate.notEmpty(inputFormatClassName);
     Validate.notEmpty(serializedDataPartitions);
@@ -78,7 +79,7 @@ public abstract class AbstractEvaluatorToPartitionStrategy implements EvaluatorT
     for (final String serializedDataPartition : serializedDataPartitions) {
       final DistributedDataSetPartition dp = DistributedDataSetPartitionSerializer.deserialize(serializedDataPartition);
       final ExternalConstructor<JobConf> jobConfExternalConstructor = new JobConfExternalConstructor(
-          inputFormatClassName, dp.getPath());
+          inputFormatClassName, dp.getPath(), jobConfProperties);
       try {
         final JobConf jobConf = jobConfExternalConstructor.newInstance();
         final InputFormat inputFormat = jobConf.getInputFormat();
@@ -30,6 +30,7 @@ import org.apache.reef.io.data.loading.api.DataLoadingService;
 import org.apache.reef.io.data.loading.api.DataSet;
 import org.apache.reef.io.data.loading.api.EvaluatorToPartitionStrategy;
 import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
@@ -37,6 +38,7 @@ import org.apache.reef.tang.exceptions.BindException;
 import javax.inject.Inject;
 
 import java.util.Random;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -66,13 +68,17 @@ public class InputFormatLoadingService<K, V> implements DataLoadingService {
 
   private final String inputFormatClass;
 
+  private final Set<String> jobConfProperties;
+
   @Inject
   public InputFormatLoadingService(
       final EvaluatorToPartitionStrategy<InputSplit> evaluatorToPartitionStrategy,
       @Parameter(DataLoadingRequestBuilder.LoadDataIntoMemory.class) final boolean inMemory,
-      @Parameter(JobConfExternalConstructor.InputFormatClass.class) final String inputFormatClass) {
+      @Parameter(JobConfExternalConstructor.InputFormatClass.class) final String inputFormatClass,
+      @Parameter(JobConfExternalConstructor.JobConfProperties.class) final Set<String> jobConfProperties) {
     this.inMemory = inMemory;
     this.inputFormatClass = inputFormatClass;
+    this.jobConfProperties = jobConfProperties;
     this.evaluatorToPartitionStrategy = evaluatorToPartitionStrategy;
   }
 
@@ -113,7 +119,12 @@ public class InputFormatLoadingService<K, V> implements DataLoadingService {
               this.inMemory ? InMemoryInputFormatDataSet.class : InputFormatDataSet.class)
           .build();
 
-      return Tang.Factory.getTang().newConfigurationBuilder(serviceConfiguration)
+      final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder(serviceConfiguration);
+      for (final String property : this.jobConfProperties) {
+        jcb.bindSetEntry(JobConfExternalConstructor.JobConfProperties.class, property);
+      }
+
+      return jcb
           .bindImplementation(
               DataSet.class,
               this.inMemory ? InMemoryInputFormatDataSet.class : InputFormatDataSet.class)
@@ -29,6 +29,8 @@ import org.apache.reef.tang.annotations.Parameter;
 import javax.inject.Inject;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,13 +40,20 @@ public class JobConfExternalConstructor implements ExternalConstructor<JobConf>
 
   private final String inputFormatClassName;
   private final String inputPath;
+  private final Set<String> jobConfProperties;
+
+  public JobConfExternalConstructor(final String inputFormatClassName, final String inputPath) {
+    this(inputFormatClassName, inputPath, Collections.<String>emptySet());
+  }
 
   @Inject
   public JobConfExternalConstructor(
       @Parameter(InputFormatClass.class) final String inputFormatClassName,
-      @Parameter(InputPath.class) final String inputPath) {
+      @Parameter(InputPath.class) final String inputPath,
+      @Parameter(JobConfProperties.class) final Set<String> jobConfProperties) {
     this.inputFormatClassName = inputFormatClassName;
     this.inputPath = inputPath;
+    this.jobConfProperties = jobConfProperties;
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
@@ -52,6 +61,10 @@ public class JobConfExternalConstructor implements ExternalConstructor<JobConf>
   public JobConf newInstance() {
 
     final JobConf jobConf = new JobConf();
+    for (final String property : this.jobConfProperties) {
+      final int separator = property.indexOf('=');
+      jobConf.set(property.substring(0, separator), property.substring(separator + 1));
+    }
 
     try {
 
@@ -85,4 +98,11 @@ public class JobConfExternalConstructor implements ExternalConstructor<JobConf>
   @NamedParameter(default_value = "NULL")
   public static final class InputPath implements Name<String> {
   }
+
+  /**
+   * Properties set on the JobConf before the InputFormat sees it, as key=value strings.
+   */
+  @NamedParameter(doc = "Properties to set on the JobConf of the InputFormat, as key=value strings")
+  public static final class JobConfProperties implements Name<Set<String>> {
+  }
 }
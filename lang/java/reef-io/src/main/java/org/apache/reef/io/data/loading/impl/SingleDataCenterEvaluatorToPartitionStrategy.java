@@ -44,8 +44,9 @@ public final class SingleDataCenterEvaluatorToPartitionStrategy extends Abstract
   SingleDataCenterEvaluatorToPartitionStrategy(
       @Parameter(JobConfExternalConstructor.InputFormatClass.class) final String inputFormatClassName,
       @Parameter(DistributedDataSetPartitionSerializer.DistributedDataSetPartitions.class)
-      final Set<String> serializedDataPartitions) {
-    super(inputFormatClassName, serializedDataPartitions);
+      final Set<String> serializedDataPartitions,
+      @Parameter(JobConfExternalConstructor.JobConfProperties.class) final Set<String> jobConfProperties) {
+    super(inputFormatClassName, serializedDataPartitions, jobConfProperties);
   }
 
   @Override
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.api.driver;
+
+import org.apache.reef.driver.catalog.NodeDescriptor;
+
+/**
+ * A topology that takes the node a task runs on into account
+ * when placing the task.
+ */
+public interface LocalityAwareTopology extends Topology {
+
+  /**
+   * Add task with id 'taskId' that runs on the node
+   * described by 'nodeDescriptor' to the topology.
+   *
+   * @param taskId
+   * @param nodeDescriptor the node of the evaluator the task is submitted to, or null if unknown
+   */
+  void addTask(String taskId, NodeDescriptor nodeDescriptor);
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
+import org.apache.reef.io.network.group.api.GroupChanges;
+import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.api.driver.TaskNode;
+import org.apache.reef.io.network.group.api.driver.Topology;
+import org.apache.reef.io.network.group.impl.GroupChangesCodec;
+import org.apache.reef.io.network.group.impl.GroupChangesImpl;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.operators.*;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SingleThreadStage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+/**
+ * Base class of the tree topologies. Keeps the task nodes, builds their configurations
+ * and runs the topology update protocol. Subclasses decide where tasks are attached.
+ */
+abstract class AbstractTreeTopology implements Topology {
+
+  private static final Logger LOG = Logger.getLogger(AbstractTreeTopology.class.getName());
+
+  protected final EStage<GroupCommunicationMessage> senderStage;
+  protected final Class<? extends Name<String>> groupName;
+  protected final Class<? extends Name<String>> operName;
+  protected final String driverId;
+  protected final int fanOut;
+  private String rootId;
+  private OperatorSpec operatorSpec;
+
+  protected TaskNode root;
+
+  protected final ConcurrentMap<String, TaskNode> nodes = new ConcurrentSkipListMap<>();
+  private final ConfigurationSerializer confSer = new AvroConfigurationSerializer();
+
+  AbstractTreeTopology(final EStage<GroupCommunicationMessage> senderStage,
+                       final Class<? extends Name<String>> groupName,
+                       final Class<? extends Name<String>> operatorName,
+                       final String driverId,
+                       final int fanOut) {
+    this.senderStage = senderStage;
+    this.groupName = groupName;
+    this.operName = operatorName;
+    this.driverId = driverId;
+    this.fanOut = fanOut;
+  }
+
+  @Override
+  @SuppressWarnings("checkstyle:hiddenfield")
+  public void setRootTask(final String rootId) {
+    LOG.entering("AbstractTreeTopology", "setRootTask", new Object[]{getQualifiedName(), rootId});
+    this.rootId = rootId;
+    LOG.exiting("AbstractTreeTopology", "setRootTask", getQualifiedName() + rootId);
+  }
+
+  @Override
+  public String getRootId() {
+    LOG.entering("AbstractTreeTopology", "getRootId", getQualifiedName());
+    LOG.exiting("AbstractTreeTopology", "getRootId", getQualifiedName() + rootId);
+    return rootId;
+  }
+
+  @Override
+  public boolean isRootPresent() {
+    LOG.entering("AbstractTreeTopology", "isRootPresent", getQualifiedName());
+    final boolean retVal = root != null;
+    LOG.exiting("AbstractTreeTopology", "isRootPresent", String.format("%s%s", getQualifiedName(), retVal));
+    return retVal;
+  }
+
+  @Override
+  public void setOperatorSpecification(final OperatorSpec spec) {
+    LOG.entering("AbstractTreeTopology", "setOperSpec", new Object[]{getQualifiedName(), spec});
+    this.operatorSpec = spec;
+    LOG.exiting("AbstractTreeTopology", "setOperSpec", getQualifiedName() + spec);
+  }
+
+  @Override
+  public Configuration getTaskConfiguration(final String taskId) {
+    LOG.entering("AbstractTreeTopology", "getTaskConfig", new Object[]{getQualifiedName(), taskId});
+    final TaskNode taskNode = nodes.get(taskId);
+    if (taskNode == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " does not exist");
+    }
+
+    final int version = getNodeVersion(taskId);
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(DataCodec.class, operatorSpec.getDataCodecClass());
+    jcb.bindNamedParameter(TaskVersion.class, Integer.toString(version));
+    if (operatorSpec instanceof BroadcastOperatorSpec) {
+      final BroadcastOperatorSpec broadcastOperatorSpec = (BroadcastOperatorSpec) operatorSpec;
+      if (taskId.equals(broadcastOperatorSpec.getSenderId())) {
+        jcb.bindImplementation(GroupCommOperator.class, BroadcastSender.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, BroadcastReceiver.class);
+      }
+    } else if (operatorSpec instanceof ReduceOperatorSpec) {
+      final ReduceOperatorSpec reduceOperatorSpec = (ReduceOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(ReduceFunctionParam.class, reduceOperatorSpec.getRedFuncClass());
+      if (taskId.equals(reduceOperatorSpec.getReceiverId())) {
+        jcb.bindImplementation(GroupCommOperator.class, ReduceReceiver.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, ReduceSender.class);
+      }
+    } else if (operatorSpec instanceof ScatterOperatorSpec) {
+      final ScatterOperatorSpec scatterOperatorSpec = (ScatterOperatorSpec) operatorSpec;
+      if (taskId.equals(scatterOperatorSpec.getSenderId())) {
+        jcb.bindImplementation(GroupCommOperator.class, ScatterSender.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, ScatterReceiver.class);
+      }
+    } else if (operatorSpec instanceof GatherOperatorSpec) {
+      final GatherOperatorSpec gatherOperatorSpec = (GatherOperatorSpec) operatorSpec;
+      if (taskId.equals(gatherOperatorSpec.getReceiverId())) {
+        jcb.bindImplementation(GroupCommOperator.class, GatherReceiver.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
+      }
+    }
+    final Configuration retConf = jcb.build();
+    LOG.exiting("AbstractTreeTopology", "getTaskConfig", getQualifiedName() + confSer.toString(retConf));
+    return retConf;
+  }
+
+  @Override
+  public int getNodeVersion(final String taskId) {
+    LOG.entering("AbstractTreeTopology", "getNodeVersion", new Object[]{getQualifiedName(), taskId});
+    final TaskNode node = nodes.get(taskId);
+    if (node == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " is not available on the nodes map");
+    }
+    final int version = node.getVersion();
+    LOG.exiting("AbstractTreeTopology", "getNodeVersion", getQualifiedName() + " " + taskId + " " + version);
+    return version;
+  }
+
+  @Override
+  public void removeTask(final String taskId) {
+    LOG.entering("AbstractTreeTopology", "removeTask", new Object[]{getQualifiedName(), taskId});
+    if (!nodes.containsKey(taskId)) {
+      LOG.fine("Trying to remove a non-existent node in the task graph");
+      LOG.exiting("AbstractTreeTopology", "removeTask", getQualifiedName());
+      return;
+    }
+    if (taskId.equals(rootId)) {
+      unsetRootNode(taskId);
+    } else {
+      removeChild(taskId);
+    }
+    LOG.exiting("AbstractTreeTopology", "removeTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void addTask(final String taskId) {
+    LOG.entering("AbstractTreeTopology", "addTask", new Object[]{getQualifiedName(), taskId});
+    if (nodes.containsKey(taskId)) {
+      LOG.fine("Got a request to add a task that is already in the graph. " +
+          "We need to block this request till the delete finishes. ***CAUTION***");
+    }
+
+    if (taskId.equals(rootId)) {
+      setRootNode(taskId);
+    } else {
+      addChild(taskId);
+    }
+    LOG.exiting("AbstractTreeTopology", "addTask", getQualifiedName() + taskId);
+  }
+
+  /**
+   * Adds the root task and attaches the tasks added before it.
+   *
+   * @param newRootId id of the root task
+   */
+  protected abstract void setRootNode(String newRootId);
+
+  /**
+   * Removes the root task and detaches its children.
+   *
+   * @param taskId id of the root task
+   */
+  protected abstract void unsetRootNode(String taskId);
+
+  /**
+   * Adds a task other than the root and attaches it to the tree if the root is present.
+   *
+   * @param taskId id of the task
+   */
+  protected abstract void addChild(String taskId);
+
+  /**
+   * Removes a task other than the root from the tree.
+   *
+   * @param taskId id of the task
+   */
+  protected abstract void removeChild(String taskId);
+
+  @Override
+  public void onFailedTask(final String taskId) {
+    LOG.entering("AbstractTreeTopology", "onFailedTask", new Object[]{getQualifiedName(), taskId});
+    final TaskNode taskNode = nodes.get(taskId);
+    if (taskNode == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " does not exist");
+    }
+    taskNode.onFailedTask();
+    LOG.exiting("AbstractTreeTopology", "onFailedTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void onRunningTask(final String taskId) {
+    LOG.entering("AbstractTreeTopology", "onRunningTask", new Object[]{getQualifiedName(), taskId});
+    final TaskNode taskNode = nodes.get(taskId);
+    if (taskNode == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " does not exist");
+    }
+    taskNode.onRunningTask();
+    LOG.exiting("AbstractTreeTopology", "onRunningTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void onReceiptOfMessage(final GroupCommunicationMessage msg) {
+    LOG.entering("AbstractTreeTopology", "onReceiptOfMessage", new Object[]{getQualifiedName(), msg});
+    switch (msg.getType()) {
+    case TopologyChanges:
+      onTopologyChanges(msg);
+      break;
+    case UpdateTopology:
+      onUpdateTopology(msg);
+      break;
+
+    default:
+      nodes.get(msg.getSrcid()).onReceiptOfAcknowledgement(msg);
+      break;
+    }
+    LOG.exiting("AbstractTreeTopology", "onReceiptOfMessage", getQualifiedName() + msg);
+  }
+
+  private void onUpdateTopology(final GroupCommunicationMessage msg) {
+    LOG.entering("AbstractTreeTopology", "onUpdateTopology", new Object[]{getQualifiedName(), msg});
+    LOG.fine(getQualifiedName() + "Update affected parts of Topology");
+    final String dstId = msg.getSrcid();
+    final int version = getNodeVersion(dstId);
+
+    LOG.finest(getQualifiedName() + "Creating NodeTopologyUpdateWaitStage to wait on nodes to be updated");
+    final EventHandler<List<TaskNode>> topoUpdateWaitHandler = new TopologyUpdateWaitHandler(senderStage, groupName,
+        operName, driverId, 0,
+        dstId, version,
+        getQualifiedName(), TopologySerializer.encode(root));
+    final EStage<List<TaskNode>> nodeTopologyUpdateWaitStage = new SingleThreadStage<>("NodeTopologyUpdateWaitStage",
+        topoUpdateWaitHandler,
+        nodes.size());
+
+    final List<TaskNode> toBeUpdatedNodes = new ArrayList<>(nodes.size());
+    LOG.finest(getQualifiedName() + "Checking which nodes need to be updated");
+    for (final TaskNode node : nodes.values()) {
+      if (node.isRunning() && node.hasChanges() && node.resetTopologySetupSent()) {
+        toBeUpdatedNodes.add(node);
+      }
+    }
+    for (final TaskNode node : toBeUpdatedNodes) {
+      node.updatingTopology();
+      LOG.fine(getQualifiedName() + "Asking " + node + " to UpdateTopology");
+      senderStage.onNext(Utils.bldVersionedGCM(groupName, operName,
+          ReefNetworkGroupCommProtos.GroupCommMessage.Type.UpdateTopology, driverId, 0, node.getTaskId(),
+          node.getVersion(), Utils.EMPTY_BYTE_ARR));
+    }
+    nodeTopologyUpdateWaitStage.onNext(toBeUpdatedNodes);
+    LOG.exiting("AbstractTreeTopology", "onUpdateTopology", getQualifiedName() + msg);
+  }
+
+  private void onTopologyChanges(final GroupCommunicationMessage msg) {
+    LOG.entering("AbstractTreeTopology", "onTopologyChanges", new Object[]{getQualifiedName(), msg});
+    LOG.fine(getQualifiedName() + "Check TopologyChanges");
+    final String dstId = msg.getSrcid();
+    boolean hasTopologyChanged = false;
+    LOG.finest(getQualifiedName() + "Checking which nodes need to be updated");
+    for (final TaskNode node : nodes.values()) {
+      if (!node.isRunning() || node.hasChanges()) {
+        hasTopologyChanged = true;
+        break;
+      }
+    }
+    final GroupChanges changes = new GroupChangesImpl(hasTopologyChanged);
+    final Codec<GroupChanges> changesCodec = new GroupChangesCodec();
+    LOG.fine(getQualifiedName() + "TopologyChanges: " + changes);
+    senderStage.onNext(Utils.bldVersionedGCM(groupName, operName,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.TopologyChanges, driverId, 0, dstId, getNodeVersion(dstId),
+        changesCodec.encode(changes)));
+    LOG.exiting("AbstractTreeTopology", "onTopologyChanges", getQualifiedName() + msg);
+  }
+
+  protected String getQualifiedName() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + " - ";
+  }
+}
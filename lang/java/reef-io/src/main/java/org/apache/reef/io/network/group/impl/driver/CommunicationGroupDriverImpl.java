@@ -20,6 +20,7 @@ package org.apache.reef.io.network.group.impl.driver;
 
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.catalog.NodeDescriptor;
 import org.apache.reef.driver.evaluator.FailedEvaluator;
 import org.apache.reef.driver.parameters.DriverIdentifier;
 import org.apache.reef.driver.task.FailedTask;
@@ -27,6 +28,7 @@ import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
 import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
 import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
@@ -336,6 +338,19 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
 
   @Override
   public void addTask(final Configuration partialTaskConf) {
+    addTask(partialTaskConf, null);
+  }
+
+  /**
+   * Add the task represented by this configuration to this
+   * communication group, telling the topologies which node
+   * the task runs on. Topologies that implement {@link LocalityAwareTopology}
+   * use this to keep co-located tasks under a common parent.
+   *
+   * @param partialTaskConf
+   * @param nodeDescriptor the node of the evaluator the task is submitted to, or null if unknown
+   */
+  public void addTask(final Configuration partialTaskConf, final NodeDescriptor nodeDescriptor) {
     LOG.entering("CommunicationGroupDriverImpl", "addTask",
         new Object[]{getQualifiedName(), confSerializer.toString(partialTaskConf)});
     final String taskId = taskId(partialTaskConf);
@@ -358,7 +373,11 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
       boolean isRootOfSomeTopology = false;
       for (final Class<? extends Name<String>> operName : operatorSpecs.keySet()) {
         final Topology topology = topologies.get(operName);
-        topology.addTask(taskId);
+        if (nodeDescriptor != null && topology instanceof LocalityAwareTopology) {
+          ((LocalityAwareTopology) topology).addTask(taskId, nodeDescriptor);
+        } else {
+          topology.addTask(taskId);
+        }
         isRootOfSomeTopology |= topology.getRootId().equals(taskId);
       }
 
@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
+import org.apache.reef.io.network.group.api.driver.TaskNode;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.CommGroupNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommSenderStage;
+import org.apache.reef.io.network.group.impl.config.parameters.OperatorNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.TreeTopologyFanOut;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EStage;
+
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.logging.Logger;
+
+/**
+ * Implements a tree topology that keeps co-located tasks together.
+ * <p>
+ * Tasks are grouped by the rack and host of the node they were submitted to.
+ * The first task on each host leads the other tasks on that host, and the leader
+ * of the first host on each rack aggregates for the whole rack. This gives
+ * the following levels under the root:
+ * <ol>
+ *   <li>one aggregator per rack,</li>
+ *   <li>the leaders of the other hosts on that rack,</li>
+ *   <li>the remaining tasks of each host.</li>
+ * </ol>
+ * Within a level, tasks are attached to the group's parent until it reaches the fan-out
+ * and then to earlier members of the same group. If those are full as well, the task goes
+ * to the shallowest free slot on the same host or rack below the group's parent. With a fan-out
+ * of at least two the fan-out is never exceeded, the depth stays logarithmic and at most one
+ * edge per rack crosses the rack boundary.
+ * <p>
+ * Joining tasks are attached without moving any existing task. When a task is removed,
+ * only its former children and, if needed, the promoted host leader or rack aggregator
+ * are re-attached; the rest of the tree is left untouched.
+ * Tasks added without a {@link NodeDescriptor} are treated as sharing one host.
+ */
+public final class LocalityAwareTreeTopology extends AbstractTreeTopology implements LocalityAwareTopology {
+
+  private static final Logger LOG = Logger.getLogger(LocalityAwareTreeTopology.class.getName());
+
+  private static final String UNKNOWN_LOCATION = "/unknown";
+
+  /**
+   * Task ids per host per rack, in the order in which racks, hosts and tasks joined.
+   */
+  private final Map<String, Map<String, List<String>>> racks = new LinkedHashMap<>();
+  private final Map<String, TaskLocation> locations = new HashMap<>();
+
+  @Inject
+  private LocalityAwareTreeTopology(
+      @Parameter(GroupCommSenderStage.class) final EStage<GroupCommunicationMessage> senderStage,
+      @Parameter(CommGroupNameClass.class) final Class<? extends Name<String>> groupName,
+      @Parameter(OperatorNameClass.class) final Class<? extends Name<String>> operatorName,
+      @Parameter(DriverIdentifier.class) final String driverId,
+      @Parameter(TreeTopologyFanOut.class) final int fanOut) {
+    super(senderStage, groupName, operatorName, driverId, fanOut);
+    LOG.config(getQualifiedName() + "Locality-aware Tree Topology running with a fan-out of " + fanOut);
+  }
+
+  @Override
+  public void addTask(final String taskId, final NodeDescriptor nodeDescriptor) {
+    LOG.entering("LocalityAwareTreeTopology", "addTask", new Object[]{getQualifiedName(), taskId, nodeDescriptor});
+    if (nodeDescriptor != null && !taskId.equals(getRootId())) {
+      locations.put(taskId, new TaskLocation(nodeDescriptor));
+    }
+    addTask(taskId);
+    LOG.exiting("LocalityAwareTreeTopology", "addTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  protected void addChild(final String taskId) {
+    TaskLocation location = locations.get(taskId);
+    if (location == null) {
+      location = TaskLocation.UNKNOWN;
+      locations.put(taskId, location);
+    }
+    LOG.finest(getQualifiedName() + "Adding leaf " + taskId + " on " + location);
+    final TaskNode node = new TaskNodeImpl(senderStage, groupName, operName, taskId, driverId, false);
+    nodes.put(taskId, node);
+
+    Map<String, List<String>> hosts = racks.get(location.rack);
+    if (hosts == null) {
+      hosts = new LinkedHashMap<>();
+      racks.put(location.rack, hosts);
+    }
+    List<String> tasksOnHost = hosts.get(location.host);
+    if (tasksOnHost == null) {
+      tasksOnHost = new ArrayList<>();
+      hosts.put(location.host, tasksOnHost);
+    }
+    tasksOnHost.add(taskId);
+
+    place(node);
+  }
+
+  @Override
+  protected void removeChild(final String taskId) {
+    final TaskNode node = nodes.get(taskId);
+    final TaskLocation location = locations.get(taskId);
+    final boolean wasAggregator = taskId.equals(getAggregatorId(location.rack));
+    final boolean wasLeader = taskId.equals(getLeaderId(location));
+
+    detach(node);
+    final List<TaskNode> orphans = new ArrayList<>();
+    for (final TaskNode child : node.getChildren()) {
+      orphans.add(child);
+    }
+    for (final TaskNode orphan : orphans) {
+      detach(orphan);
+    }
+    nodes.remove(taskId);
+    locations.remove(taskId);
+
+    final Map<String, List<String>> hosts = racks.get(location.rack);
+    final List<String> tasksOnHost = hosts.get(location.host);
+    tasksOnHost.remove(taskId);
+    if (tasksOnHost.isEmpty()) {
+      hosts.remove(location.host);
+    }
+    if (hosts.isEmpty()) {
+      racks.remove(location.rack);
+    }
+
+    // Promoted tasks go first so that they can take over the groups of the removed task.
+    final List<TaskNode> toBePlaced = new ArrayList<>(orphans.size() + 2);
+    if (wasAggregator && !hosts.isEmpty()) {
+      toBePlaced.add(nodes.get(getAggregatorId(location.rack)));
+    }
+    if (wasLeader && !tasksOnHost.isEmpty()) {
+      final TaskNode newLeader = nodes.get(getLeaderId(location));
+      if (!toBePlaced.contains(newLeader)) {
+        toBePlaced.add(newLeader);
+      }
+    }
+    for (final TaskNode promoted : toBePlaced) {
+      detach(promoted);
+    }
+    for (final TaskNode orphan : orphans) {
+      if (!toBePlaced.contains(orphan)) {
+        toBePlaced.add(orphan);
+      }
+    }
+    LOG.finest(getQualifiedName() + "Re-attaching " + toBePlaced + " after removing " + taskId);
+    for (final TaskNode taskNode : toBePlaced) {
+      place(taskNode);
+    }
+  }
+
+  @Override
+  protected void setRootNode(final String newRootId) {
+    LOG.entering("LocalityAwareTreeTopology", "setRootNode", new Object[]{getQualifiedName(), newRootId});
+    this.root = new TaskNodeImpl(senderStage, groupName, operName, newRootId, driverId, true);
+    nodes.put(newRootId, root);
+    for (final String rack : racks.keySet()) {
+      place(nodes.get(getAggregatorId(rack)));
+    }
+    LOG.exiting("LocalityAwareTreeTopology", "setRootNode", getQualifiedName() + newRootId);
+  }
+
+  @Override
+  protected void unsetRootNode(final String taskId) {
+    final List<TaskNode> children = new ArrayList<>();
+    for (final TaskNode child : root.getChildren()) {
+      children.add(child);
+    }
+    for (final TaskNode child : children) {
+      detach(child);
+    }
+    nodes.remove(taskId);
+    root = null;
+  }
+
+  /**
+   * Attach the node to its group: the group's parent if it has room,
+   * otherwise the first attached member of the group that has room,
+   * otherwise the shallowest node with room below the group's parent.
+   * Nodes of the root group stay detached until the root is added.
+   */
+  private void place(final TaskNode node) {
+    final String taskId = node.getTaskId();
+    final TaskLocation location = locations.get(taskId);
+    final String aggregatorId = getAggregatorId(location.rack);
+    final String leaderId = getLeaderId(location);
+
+    final TaskNode groupParent;
+    final List<String> groupMembers = new ArrayList<>();
+    // Members of the root and rack groups head groups of their own and keep one slot for them.
+    final boolean membersHeadGroups;
+    if (taskId.equals(aggregatorId)) {
+      groupParent = root;
+      membersHeadGroups = true;
+      for (final String rack : racks.keySet()) {
+        groupMembers.add(getAggregatorId(rack));
+      }
+    } else if (taskId.equals(leaderId)) {
+      groupParent = nodes.get(aggregatorId);
+      membersHeadGroups = true;
+      for (final List<String> tasksOnHost : racks.get(location.rack).values()) {
+        groupMembers.add(tasksOnHost.get(0));
+      }
+    } else {
+      groupParent = nodes.get(leaderId);
+      membersHeadGroups = false;
+      groupMembers.addAll(racks.get(location.rack).get(location.host));
+    }
+
+    if (groupParent == null) {
+      LOG.finest(getQualifiedName() + "Root not present yet. " + taskId + " stays detached");
+      return;
+    }
+    TaskNode parent = null;
+    if (groupParent.getNumberOfChildren() < fanOut) {
+      parent = groupParent;
+    } else {
+      for (final String memberId : groupMembers) {
+        final TaskNode member = nodes.get(memberId);
+        if (member != groupParent && member.getParent() != null && member.getNumberOfChildren() < fanOut
+            && (!membersHeadGroups || countGroupChildren(member, groupMembers) < fanOut - 1)
+            && !isInSubtree(member, node)) {
+          parent = member;
+          break;
+        }
+      }
+    }
+    if (parent == null && groupParent == root) {
+      // The edge crosses racks anyway. Take any node that keeps a slot for its own rack.
+      parent = findFreeSlot(root, null, null, 1);
+    } else if (parent == null) {
+      // The members are busy with their own groups. Stay on the host if possible, else on the rack.
+      parent = findFreeSlot(groupParent, location.rack, location.host, 0);
+      if (parent == null) {
+        parent = findFreeSlot(groupParent, location.rack, null, 0);
+      }
+    }
+    attach(parent == null ? groupParent : parent, node);
+  }
+
+  private static int countGroupChildren(final TaskNode member, final List<String> groupMembers) {
+    int count = 0;
+    for (final TaskNode child : member.getChildren()) {
+      if (groupMembers.contains(child.getTaskId())) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Breadth-first search for the shallowest node below 'subtreeRoot' that has room for another child
+   * while keeping 'reserved' slots free, only looking at nodes on the given rack and host, if any.
+   * Detached nodes are not reachable from 'subtreeRoot', so the node being placed is never picked.
+   */
+  private TaskNode findFreeSlot(final TaskNode subtreeRoot, final String rack, final String host,
+                                final int reserved) {
+    final Queue<TaskNode> queue = new ArrayDeque<>();
+    queue.add(subtreeRoot);
+    while (!queue.isEmpty()) {
+      final TaskNode current = queue.remove();
+      if (current.getNumberOfChildren() < fanOut - reserved) {
+        return current;
+      }
+      for (final TaskNode child : current.getChildren()) {
+        final TaskLocation childLocation = locations.get(child.getTaskId());
+        if ((rack == null || rack.equals(childLocation.rack)) && (host == null || host.equals(childLocation.host))) {
+          queue.add(child);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean isInSubtree(final TaskNode candidate, final TaskNode subtreeRoot) {
+    for (TaskNode current = candidate; current != null; current = current.getParent()) {
+      if (current == subtreeRoot) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Same neighbor announcements as {@link TaskNodeImpl#onRunningTask()}
+   * for the case where both ends of the new edge are already running.
+   */
+  private void attach(final TaskNode parent, final TaskNode child) {
+    LOG.finest(getQualifiedName() + "Attaching " + child + " to " + parent);
+    child.setParent(parent);
+    parent.addChild(child);
+    if (parent.isRunning() && child.isRunning()) {
+      child.onParentRunning();
+      parent.onChildRunning(child.getTaskId());
+    }
+  }
+
+  private static void detach(final TaskNode node) {
+    final TaskNode parent = node.getParent();
+    if (parent != null) {
+      parent.removeChild(node);
+      node.setParent(null);
+    }
+  }
+
+  /**
+   * @return id of the leader of the first host on the rack
+   */
+  private String getAggregatorId(final String rack) {
+    return racks.get(rack).values().iterator().next().get(0);
+  }
+
+  /**
+   * @return id of the first task on the host
+   */
+  private String getLeaderId(final TaskLocation location) {
+    return racks.get(location.rack).get(location.host).get(0);
+  }
+
+  /**
+   * Rack and host of the node a task was submitted to.
+   */
+  private static final class TaskLocation {
+
+    private static final TaskLocation UNKNOWN = new TaskLocation(UNKNOWN_LOCATION, UNKNOWN_LOCATION);
+
+    private final String rack;
+    private final String host;
+
+    private TaskLocation(final String rack, final String host) {
+      this.rack = rack;
+      this.host = host;
+    }
+
+    private TaskLocation(final NodeDescriptor nodeDescriptor) {
+      this(nodeDescriptor.getRackDescriptor() == null ? UNKNOWN_LOCATION : nodeDescriptor.getRackDescriptor().getName(),
+          nodeDescriptor.getName() == null ? UNKNOWN_LOCATION : nodeDescriptor.getName());
+    }
+
+    @Override
+    public String toString() {
+      return rack + "/" + host;
+    }
+  }
+}
@@ -19,14 +19,19 @@
 package org.apache.reef.io.network.group.impl.operators;
 
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.naming.Naming;
 import org.apache.reef.io.network.Connection;
 import org.apache.reef.io.network.group.api.operators.AbstractGroupCommOperator;
 import org.apache.reef.io.network.impl.NetworkService;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.naming.SubscribableNameResolver;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Sender extends AbstractGroupCommOperator {
@@ -55,4 +60,48 @@ public class Sender extends AbstractGroupCommOperator {
     link.write(msg);
     LOG.exiting("Sender", "send", msg);
   }
+
+  /**
+   * Starts resolving the address of a task this one will send to, so that
+   * the first send does not have to wait for the name server.
+   * Does nothing if the name resolver does not support subscriptions.
+   *
+   * @param dest the id of the task
+   */
+  public void resolveAhead(final String dest) {
+    LOG.entering("Sender", "resolveAhead", dest);
+    final Naming nameClient = netService.getNameClient();
+    if (!(nameClient instanceof SubscribableNameResolver)) {
+      LOG.exiting("Sender", "resolveAhead", dest);
+      return;
+    }
+    try {
+      ((SubscribableNameResolver) nameClient).subscribe(Collections.singletonList(idFac.getNewInstance(dest)));
+    } catch (final IOException e) {
+      // The address is looked up on the first send instead.
+      LOG.log(Level.FINE, "Could not resolve " + dest + " ahead of time", e);
+    }
+    LOG.exiting("Sender", "resolveAhead", dest);
+  }
+
+  /**
+   * Stops keeping the address of a task this one no longer sends to up to date.
+   *
+   * @param dest the id of the task
+   */
+  public void forget(final String dest) {
+    LOG.entering("Sender", "forget", dest);
+    final Naming nameClient = netService.getNameClient();
+    if (!(nameClient instanceof SubscribableNameResolver)) {
+      LOG.exiting("Sender", "forget", dest);
+      return;
+    }
+    try {
+      ((SubscribableNameResolver) nameClient).unsubscribe(Collections.singletonList(idFac.getNewInstance(dest)));
+    } catch (final IOException e) {
+      // The name server also drops the subscription when this task disconnects.
+      LOG.log(Level.FINE, "Could not unsubscribe from " + dest, e);
+    }
+    LOG.exiting("Sender", "forget", dest);
+  }
 }
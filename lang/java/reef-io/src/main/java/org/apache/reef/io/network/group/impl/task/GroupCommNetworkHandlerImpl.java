@@ -23,6 +23,8 @@ import org.apache.reef.io.network.group.api.task.GroupCommNetworkHandler;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.Counter;
+import org.apache.reef.wake.metrics.MetricsRegistry;
 
 import javax.inject.Inject;
 import java.util.Arrays;
@@ -38,8 +40,13 @@ public class GroupCommNetworkHandlerImpl implements GroupCommNetworkHandler {
   private final Map<Class<? extends Name<String>>, EventHandler<GroupCommunicationMessage>> commGroupHandlers =
       new ConcurrentHashMap<>();
 
+  private final Counter messagesReceived;
+  private final Counter bytesReceived;
+
   @Inject
-  public GroupCommNetworkHandlerImpl() {
+  public GroupCommNetworkHandlerImpl(final MetricsRegistry metricsRegistry) {
+    this.messagesReceived = metricsRegistry.counter("groupcomm.messages.received");
+    this.bytesReceived = metricsRegistry.counter("groupcomm.bytes.received");
   }
 
   @Override
@@ -48,6 +55,10 @@ public class GroupCommNetworkHandlerImpl implements GroupCommNetworkHandler {
     final Iterator<GroupCommunicationMessage> iter = mesg.getData().iterator();
     final GroupCommunicationMessage msg = iter.hasNext() ? iter.next() : null;
     if (msg != null) {
+      messagesReceived.inc();
+      for (final byte[] data : msg.getData()) {
+        bytesReceived.inc(data.length);
+      }
       try {
         final Class<? extends Name<String>> groupName =
             (Class<? extends Name<String>>) Class.forName(msg.getGroupname());
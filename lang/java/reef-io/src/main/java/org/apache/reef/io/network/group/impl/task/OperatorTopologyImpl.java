@@ -139,6 +139,7 @@ public class OperatorTopologyImpl implements OperatorTopology {
         case ChildAdd:
           LOG.finest(getQualifiedName() + "Adding to deltas queue");
           deltas.put(msg);
+          sender.resolveAhead(msg.getSrcid());
           break;
 
         case ParentDead:
@@ -148,6 +149,7 @@ public class OperatorTopologyImpl implements OperatorTopology {
 
           LOG.finest(getQualifiedName() + "Adding to deletionDeltas queue");
           deletionDeltas.put(msg);
+          sender.forget(msg.getSrcid());
 
           if (effectiveTopology != null) {
             LOG.finest(getQualifiedName() + "Adding as data msg to non-null effective topology struct");
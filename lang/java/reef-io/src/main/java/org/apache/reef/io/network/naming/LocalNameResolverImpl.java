@@ -19,6 +19,7 @@
 package org.apache.reef.io.network.naming;
 
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.network.naming.exception.NamingException;
 import org.apache.reef.io.network.naming.parameters.NameResolverCacheTimeout;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryCount;
@@ -29,6 +30,7 @@ import org.apache.reef.wake.Identifier;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,7 +39,7 @@ import java.util.logging.Logger;
  * NameResolver looking up local name server.
  * This class should be used when the NameServer is started locally.
  */
-public final class LocalNameResolverImpl implements NameResolver {
+public final class LocalNameResolverImpl implements SubscribableNameResolver {
 
   private static final Logger LOG = Logger.getLogger(LocalNameResolverImpl.class.getName());
 
@@ -120,4 +122,23 @@ public final class LocalNameResolverImpl implements NameResolver {
       }
     });
   }
+
+  @Override
+  public List<NameAssignment> lookup(final Iterable<Identifier> ids) {
+    return nameServer.lookup(ids);
+  }
+
+  /**
+   * No-op: lookups go to the local name server directly, so there is nothing to prefetch.
+   */
+  @Override
+  public void subscribe(final Iterable<Identifier> ids) {
+  }
+
+  /**
+   * No-op: nothing is subscribed to.
+   */
+  @Override
+  public void unsubscribe(final Iterable<Identifier> ids) {
+  }
 }
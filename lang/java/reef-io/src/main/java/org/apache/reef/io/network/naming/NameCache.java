@@ -57,6 +57,27 @@ public class NameCache implements Cache<Identifier, InetSocketAddress> {
     return cache.get(key, valueFetcher);
   }
 
+  /**
+   * Replaces the entry for an identifier with an address learned from the name server.
+   *
+   * @param key   an identifier
+   * @param value an Internet socket address
+   */
+  public void put(final Identifier key, final InetSocketAddress value) {
+    cache.invalidate(key);
+    try {
+      cache.get(key, new Callable<InetSocketAddress>() {
+        @Override
+        public InetSocketAddress call() {
+          return value;
+        }
+      });
+    } catch (final ExecutionException e) {
+      // The callable above never throws.
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * Invalidates the entry for an identifier.
    *
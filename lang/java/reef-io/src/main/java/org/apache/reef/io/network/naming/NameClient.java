@@ -20,9 +20,11 @@ package org.apache.reef.io.network.naming;
 
 import org.apache.reef.io.network.naming.exception.NamingRuntimeException;
 import org.apache.reef.io.network.naming.parameters.*;
-import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.serialization.NamingBatchLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
 import org.apache.reef.io.network.naming.serialization.NamingRegisterResponse;
+import org.apache.reef.io.network.naming.serialization.NamingUpdate;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
@@ -37,6 +39,7 @@ import org.apache.reef.wake.remote.transport.TransportFactory;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
@@ -45,7 +48,7 @@ import java.util.logging.Logger;
 /**
  * Naming client looking up remote server.
  */
-public final class NameClient implements NameResolver {
+public final class NameClient implements SubscribableNameResolver {
   private static final Logger LOG = Logger.getLogger(NameClient.class.getName());
 
   private NameLookupClient lookupClient;
@@ -75,17 +78,17 @@ public final class NameClient implements NameResolver {
       final LocalAddressProvider localAddressProvider,
       final TransportFactory tpFactory) {
 
-    final BlockingQueue<NamingLookupResponse> replyLookupQueue = new LinkedBlockingQueue<>();
+    final NamingLookupResponseHandler lookupResponseHandler = new NamingLookupResponseHandler(new NameCache(timeout));
     final BlockingQueue<NamingRegisterResponse> replyRegisterQueue = new LinkedBlockingQueue<>();
     final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
         new SyncStage<>(new NamingClientEventHandler(
-            new NamingResponseHandler(replyLookupQueue, replyRegisterQueue), codec)),
+            new NamingResponseHandler(lookupResponseHandler, replyRegisterQueue), codec)),
         null, retryCount, retryTimeout);
 
     this.lookupClient = new NameLookupClient(serverAddr, serverPort, timeout, factory,
-        retryCount, retryTimeout, replyLookupQueue, this.transport);
+        retryCount, retryTimeout, lookupResponseHandler, this.transport);
 
     this.registryClient = new NameRegistryClient(serverAddr, serverPort, timeout,
         factory, replyRegisterQueue, this.transport);
@@ -125,6 +128,37 @@ public final class NameClient implements NameResolver {
     return this.lookupClient.lookup(id);
   }
 
+  /**
+   * Finds addresses for identifiers with a single request to the name server.
+   *
+   * @param ids identifiers
+   * @return name assignments of the identifiers that are registered
+   */
+  @Override
+  public List<NameAssignment> lookup(final Iterable<Identifier> ids) throws Exception {
+    return this.lookupClient.lookup(ids);
+  }
+
+  /**
+   * Resolves identifiers in the background and keeps their cached addresses up to date.
+   *
+   * @param ids identifiers
+   */
+  @Override
+  public void subscribe(final Iterable<Identifier> ids) throws IOException {
+    this.lookupClient.subscribe(ids);
+  }
+
+  /**
+   * Stops keeping the cached addresses of identifiers up to date.
+   *
+   * @param ids identifiers
+   */
+  @Override
+  public void unsubscribe(final Iterable<Identifier> ids) throws IOException {
+    this.lookupClient.unsubscribe(ids);
+  }
+
   /**
    * Retrieves an address for an identifier remotely.
    *
@@ -185,21 +219,19 @@ class NamingClientEventHandler implements EventHandler<TransportEvent> {
 class NamingResponseHandler implements EventHandler<NamingMessage> {
   private static final Logger LOG = Logger.getLogger(NamingResponseHandler.class.getName());
 
-  private final BlockingQueue<NamingLookupResponse> replyLookupQueue;
+  private final EventHandler<NamingMessage> lookupResponseHandler;
   private final BlockingQueue<NamingRegisterResponse> replyRegisterQueue;
 
-  NamingResponseHandler(final BlockingQueue<NamingLookupResponse> replyLookupQueue,
+  NamingResponseHandler(final EventHandler<NamingMessage> lookupResponseHandler,
                         final BlockingQueue<NamingRegisterResponse> replyRegisterQueue) {
-    this.replyLookupQueue = replyLookupQueue;
+    this.lookupResponseHandler = lookupResponseHandler;
     this.replyRegisterQueue = replyRegisterQueue;
   }
 
   @Override
   public void onNext(final NamingMessage value) {
-    if (value instanceof NamingLookupResponse) {
-      if (!replyLookupQueue.offer((NamingLookupResponse) value)) {
-        LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
-      }
+    if (value instanceof NamingBatchLookupResponse || value instanceof NamingUpdate) {
+      lookupResponseHandler.onNext(value);
     } else if (value instanceof NamingRegisterResponse) {
       if (!replyRegisterQueue.offer((NamingRegisterResponse) value)) {
         LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
@@ -21,17 +21,19 @@ package org.apache.reef.io.network.naming;
 import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.naming.NamingLookup;
 import org.apache.reef.io.network.naming.exception.NamingException;
+import org.apache.reef.io.network.naming.exception.NamingRuntimeException;
 import org.apache.reef.io.network.naming.parameters.NameResolverCacheTimeout;
 import org.apache.reef.io.network.naming.parameters.NameResolverIdentifierFactory;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerAddr;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerPort;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryCount;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryTimeout;
-import org.apache.reef.io.network.naming.serialization.NamingLookupRequest;
-import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
+import org.apache.reef.io.network.naming.serialization.NamingBatchLookupRequest;
+import org.apache.reef.io.network.naming.serialization.NamingBatchLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
+import org.apache.reef.io.network.naming.serialization.NamingUnsubscribeRequest;
+import org.apache.reef.io.network.naming.serialization.NamingUpdate;
 import org.apache.reef.tang.annotations.Parameter;
-import org.apache.reef.util.cache.Cache;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
@@ -46,20 +48,27 @@ import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Naming lookup client.
+ * <p>
+ * Every request carries an id and the response is matched back to it,
+ * so any number of lookups can be outstanding at the same time.
+ * Bulk lookups resolve many identifiers in one round trip, and subscriptions
+ * keep the cache up to date with registrations pushed by the name server.
  */
 public final class NameLookupClient implements Stage, NamingLookup {
 
@@ -67,11 +76,12 @@ public final class NameLookupClient implements Stage, NamingLookup {
   private final SocketAddress serverSocketAddr;
   private final Transport transport;
   private final Codec<NamingMessage> codec;
-  private final BlockingQueue<NamingLookupResponse> replyQueue;
+  private final NamingLookupResponseHandler responseHandler;
   private final long timeout;
-  private final Cache<Identifier, InetSocketAddress> cache;
+  private final NameCache cache;
   private final int retryCount;
   private final int retryTimeout;
+  private final AtomicLong nextRequestId = new AtomicLong();
 
 
   /**
@@ -83,7 +93,7 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @param factory    an identifier factory
    * @param retryCount a count of retrying lookup
    * @param retryTimeout retry timeout
-   * @param replyQueue a reply queue
+   * @param responseHandler the handler the transport passes lookup responses and updates to
    * @param transport  a transport
    */
   NameLookupClient(final String serverAddr,
@@ -92,13 +102,13 @@ public final class NameLookupClient implements Stage, NamingLookup {
                           final IdentifierFactory factory,
                           final int retryCount,
                           final int retryTimeout,
-                          final BlockingQueue<NamingLookupResponse> replyQueue,
+                          final NamingLookupResponseHandler responseHandler,
                           final Transport transport) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
-    this.cache = new NameCache(timeout);
+    this.cache = responseHandler.getCache();
     this.codec = NamingCodecFactory.createFullCodec(factory);
-    this.replyQueue = replyQueue;
+    this.responseHandler = responseHandler;
     this.retryCount = retryCount;
     this.retryTimeout = retryTimeout;
     this.transport = transport;
@@ -127,11 +137,10 @@ public final class NameLookupClient implements Stage, NamingLookup {
     this.timeout = timeout;
     this.cache = new NameCache(timeout);
     this.codec = NamingCodecFactory.createLookupCodec(factory);
-    this.replyQueue = new LinkedBlockingQueue<>();
+    this.responseHandler = new NamingLookupResponseHandler(this.cache);
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
-            new SyncStage<>(new NamingLookupClientHandler(
-                    new NamingLookupResponseHandler(this.replyQueue), this.codec)),
+            new SyncStage<>(new NamingLookupClientHandler(this.responseHandler, this.codec)),
             null, retryCount, retryTimeout);
 
     this.retryCount = retryCount;
@@ -176,6 +185,62 @@ public final class NameLookupClient implements Stage, NamingLookup {
     });
   }
 
+  /**
+   * Finds addresses for identifiers with a single request to the name server.
+   * The results are also cached for later {@link #lookup(Identifier)} calls.
+   *
+   * @param ids identifiers
+   * @return name assignments of the identifiers that are registered
+   * @throws Exception if the name server does not answer after the configured retries
+   */
+  public List<NameAssignment> lookup(final Iterable<Identifier> ids) throws Exception {
+    final int origRetryCount = this.retryCount;
+    int retriesLeft = origRetryCount;
+    while (true) {
+      final List<NameAssignment> nas = remoteLookup(ids, false);
+      if (nas != null) {
+        return nas;
+      } else if (retriesLeft <= 0) {
+        throw new NamingException("No response from the name server for " + ids);
+      }
+      final int currentRetryTimeout = this.retryTimeout * (origRetryCount - retriesLeft + 1);
+      LOG.log(Level.WARNING, "No response for a bulk lookup from the Name Server. Will retry {0} time(s) after "
+          + "waiting for {1} msec.", new Object[]{retriesLeft, currentRetryTimeout});
+      Thread.sleep(currentRetryTimeout);
+      --retriesLeft;
+    }
+  }
+
+  /**
+   * Starts resolving identifiers in the background and asks the name server to push
+   * later (un)registrations of them. Later lookups of these identifiers are served
+   * from the cache as soon as the answer arrives.
+   *
+   * @param ids identifiers
+   * @throws IOException if the request cannot be sent
+   */
+  public void subscribe(final Iterable<Identifier> ids) throws IOException {
+    final long requestId = nextRequestId.incrementAndGet();
+    LOG.log(Level.FINE, "Subscribing to {0} on NameServer {1}", new Object[]{ids, serverSocketAddr});
+    final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
+        new LoggingLinkListener<NamingMessage>());
+    link.write(new NamingBatchLookupRequest(requestId, ids, true));
+  }
+
+  /**
+   * Asks the name server to stop pushing (un)registrations of identifiers.
+   * Their cached addresses expire as usual.
+   *
+   * @param ids identifiers
+   * @throws IOException if the request cannot be sent
+   */
+  public void unsubscribe(final Iterable<Identifier> ids) throws IOException {
+    LOG.log(Level.FINE, "Unsubscribing from {0} on NameServer {1}", new Object[]{ids, serverSocketAddr});
+    final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
+        new LoggingLinkListener<NamingMessage>());
+    link.write(new NamingUnsubscribeRequest(ids));
+  }
+
   /**
    * Retrieves an address for an identifier remotely.
    *
@@ -184,36 +249,33 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @throws Exception
    */
   public InetSocketAddress remoteLookup(final Identifier id) throws Exception {
-    // the lookup is not thread-safe, because concurrent replies may
-    // be read by the wrong thread.
-    // TODO: better fix uses a map of id's after REEF-198
-    synchronized (this) {
+    final List<NameAssignment> list = remoteLookup(Collections.singletonList(id), false);
+    if (list == null || list.isEmpty()) {
+      throw new NamingException("Cannot find " + id + " from the name server");
+    } else {
+      return list.get(0).getAddress();
+    }
+  }
 
-      LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{id, serverSocketAddr});
+  /**
+   * @return the name assignments, or null if the name server did not answer within the timeout
+   */
+  private List<NameAssignment> remoteLookup(final Iterable<Identifier> ids, final boolean subscribe)
+      throws IOException, NamingException {
+    final long requestId = nextRequestId.incrementAndGet();
+    LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{ids, serverSocketAddr});
 
-      final List<Identifier> ids = Arrays.asList(id);
+    final PendingLookup pendingLookup = responseHandler.expect(requestId);
+    try {
       final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
           new LoggingLinkListener<NamingMessage>());
-      link.write(new NamingLookupRequest(ids));
-
-      final NamingLookupResponse resp;
-      for (;;) {
-        try {
-          resp = replyQueue.poll(timeout, TimeUnit.MILLISECONDS);
-          break;
-        } catch (final InterruptedException e) {
-          LOG.log(Level.INFO, "Lookup interrupted", e);
-          throw new NamingException(e);
-        }
-      }
-
-      final List<NameAssignment> list = resp == null ? Collections.<NameAssignment>emptyList()
-          : resp.getNameAssignments();
-      if (list.isEmpty()) {
-        throw new NamingException("Cannot find " + id + " from the name server");
-      } else {
-        return list.get(0).getAddress();
-      }
+      link.write(new NamingBatchLookupRequest(requestId, ids, subscribe));
+      return pendingLookup.await(timeout);
+    } catch (final InterruptedException e) {
+      LOG.log(Level.INFO, "Lookup interrupted", e);
+      throw new NamingException(e);
+    } finally {
+      responseHandler.forget(requestId);
     }
   }
 
@@ -232,37 +294,93 @@ public final class NameLookupClient implements Stage, NamingLookup {
  */
 class NamingLookupClientHandler implements EventHandler<TransportEvent> {
 
-  private final EventHandler<NamingLookupResponse> handler;
+  private final EventHandler<NamingMessage> handler;
   private final Codec<NamingMessage> codec;
 
-  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler, final Codec<NamingMessage> codec) {
+  NamingLookupClientHandler(final EventHandler<NamingMessage> handler, final Codec<NamingMessage> codec) {
     this.handler = handler;
     this.codec = codec;
   }
 
   @Override
   public void onNext(final TransportEvent value) {
-    handler.onNext((NamingLookupResponse) codec.decode(value.getData()));
+    handler.onNext(codec.decode(value.getData()));
+  }
+
+}
+
+/**
+ * A lookup waiting for the response with its request id.
+ */
+final class PendingLookup {
+
+  private final CountDownLatch done = new CountDownLatch(1);
+  private volatile List<NameAssignment> nameAssignments;
+
+  void complete(final List<NameAssignment> nas) {
+    this.nameAssignments = nas;
+    done.countDown();
   }
 
+  /**
+   * @return the name assignments, or null on timeout
+   */
+  List<NameAssignment> await(final long timeoutMillis) throws InterruptedException {
+    return done.await(timeoutMillis, TimeUnit.MILLISECONDS) ? nameAssignments : null;
+  }
 }
 
 /**
  * Naming lookup response handler.
+ * Completes pending lookups and applies responses and pushed updates to the cache.
  */
-class NamingLookupResponseHandler implements EventHandler<NamingLookupResponse> {
+class NamingLookupResponseHandler implements EventHandler<NamingMessage> {
   private static final Logger LOG = Logger.getLogger(NamingLookupResponseHandler.class.getName());
 
-  private final BlockingQueue<NamingLookupResponse> replyQueue;
+  private final NameCache cache;
+  private final ConcurrentMap<Long, PendingLookup> pendingLookups = new ConcurrentHashMap<>();
+
+  NamingLookupResponseHandler(final NameCache cache) {
+    this.cache = cache;
+  }
+
+  NameCache getCache() {
+    return cache;
+  }
+
+  PendingLookup expect(final long requestId) {
+    final PendingLookup pendingLookup = new PendingLookup();
+    pendingLookups.put(requestId, pendingLookup);
+    return pendingLookup;
+  }
 
-  NamingLookupResponseHandler(final BlockingQueue<NamingLookupResponse> replyQueue) {
-    this.replyQueue = replyQueue;
+  void forget(final long requestId) {
+    pendingLookups.remove(requestId);
   }
 
   @Override
-  public void onNext(final NamingLookupResponse value) {
-    if (!replyQueue.offer(value)) {
-      LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
+  public void onNext(final NamingMessage value) {
+    if (value instanceof NamingBatchLookupResponse) {
+      final NamingBatchLookupResponse response = (NamingBatchLookupResponse) value;
+      for (final NameAssignment na : response.getNameAssignments()) {
+        cache.put(na.getIdentifier(), na.getAddress());
+      }
+      final PendingLookup pendingLookup = pendingLookups.remove(response.getRequestId());
+      if (pendingLookup != null) {
+        pendingLookup.complete(response.getNameAssignments());
+      } else {
+        LOG.log(Level.FINEST, "No lookup is waiting for response {0}", response.getRequestId());
+      }
+    } else if (value instanceof NamingUpdate) {
+      final NamingUpdate update = (NamingUpdate) value;
+      for (final NameAssignment na : update.getRegistered()) {
+        cache.put(na.getIdentifier(), na.getAddress());
+      }
+      for (final Identifier id : update.getUnregistered()) {
+        cache.invalidate(id);
+      }
+    } else {
+      throw new NamingRuntimeException("Unknown naming lookup message " + value);
     }
   }
 }
@@ -33,25 +33,36 @@ import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 import org.apache.reef.webserver.ReefEventStateManager;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Naming server implementation.
+ * Clients that subscribed to an identifier are sent its (un)registrations as they happen,
+ * until they unsubscribe or their connection closes.
  */
 public final class NameServerImpl implements NameServer {
 
   private static final Logger LOG = Logger.getLogger(NameServer.class.getName());
 
   private final Transport transport;
-  private final Map<Identifier, InetSocketAddress> idToAddrMap;
+  private final ConcurrentMap<Identifier, InetSocketAddress> idToAddrMap = new ConcurrentHashMap<>();
+  /**
+   * Map from identifier -> remote addresses of the clients subscribed to it.
+   */
+  private final ConcurrentMap<Identifier, Set<SocketAddress>> subscribers = new ConcurrentHashMap<>();
+  private final Codec<NamingMessage> codec;
   private final ReefEventStateManager reefEventStateManager;
   private final int port;
   private final LocalAddressProvider localAddressProvider;
@@ -72,7 +83,7 @@ public final class NameServerImpl implements NameServer {
 
     this.localAddressProvider = localAddressProvider;
     this.reefEventStateManager = null;
-    final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
+    this.codec = NamingCodecFactory.createFullCodec(factory);
     final EventHandler<NamingMessage> handler = createEventHandler(codec);
 
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, localAddressProvider.getLocalAddress());
@@ -87,19 +98,20 @@ public final class NameServerImpl implements NameServer {
     }
 
     this.port = transport.getListeningPort();
-    this.idToAddrMap = Collections.synchronizedMap(new HashMap<Identifier, InetSocketAddress>());
 
     LOG.log(Level.FINE, "NameServer starting, listening at port {0}", this.port);
   }
 
-  private EventHandler<NamingMessage> createEventHandler(final Codec<NamingMessage> codec) {
+  private EventHandler<NamingMessage> createEventHandler(final Codec<NamingMessage> namingCodec) {
 
     final Map<Class<? extends NamingMessage>, EventHandler<? extends NamingMessage>>
         clazzToHandlerMap = new HashMap<>();
 
-    clazzToHandlerMap.put(NamingLookupRequest.class, new NamingLookupRequestHandler(this, codec));
-    clazzToHandlerMap.put(NamingRegisterRequest.class, new NamingRegisterRequestHandler(this, codec));
+    clazzToHandlerMap.put(NamingLookupRequest.class, new NamingLookupRequestHandler(this, namingCodec));
+    clazzToHandlerMap.put(NamingBatchLookupRequest.class, new NamingBatchLookupRequestHandler(this, namingCodec));
+    clazzToHandlerMap.put(NamingRegisterRequest.class, new NamingRegisterRequestHandler(this, namingCodec));
     clazzToHandlerMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestHandler(this));
+    clazzToHandlerMap.put(NamingUnsubscribeRequest.class, new NamingUnsubscribeRequestHandler(this));
     final EventHandler<NamingMessage> handler = new MultiEventHandler<>(clazzToHandlerMap);
 
     return handler;
@@ -130,6 +142,9 @@ public final class NameServerImpl implements NameServer {
   public void register(final Identifier id, final InetSocketAddress addr) {
     LOG.log(Level.FINE, "id: " + id + " addr: " + addr);
     idToAddrMap.put(id, addr);
+    notifySubscribers(id, new NamingUpdate(
+        Collections.<NameAssignment>singletonList(new NameAssignmentTuple(id, addr)),
+        Collections.<Identifier>emptyList()));
   }
 
   /**
@@ -140,7 +155,83 @@ public final class NameServerImpl implements NameServer {
   @Override
   public void unregister(final Identifier id) {
     LOG.log(Level.FINE, "id: " + id);
-    idToAddrMap.remove(id);
+    if (idToAddrMap.remove(id) != null) {
+      notifySubscribers(id, new NamingUpdate(
+          Collections.<NameAssignment>emptyList(), Collections.singletonList(id)));
+    }
+  }
+
+  /**
+   * Sends later (un)registrations of identifiers to a client.
+   * Must be called before looking the identifiers up, so no registration is missed in between.
+   *
+   * @param identifiers identifiers to watch
+   * @param link        the link to the client
+   */
+  void subscribe(final Iterable<Identifier> identifiers, final Link<byte[]> link) {
+    final SocketAddress client = link.getRemoteAddress();
+    for (final Identifier id : identifiers) {
+      Set<SocketAddress> clients = subscribers.get(id);
+      if (clients == null) {
+        final Set<SocketAddress> newClients =
+            Collections.newSetFromMap(new ConcurrentHashMap<SocketAddress, Boolean>());
+        clients = subscribers.putIfAbsent(id, newClients);
+        if (clients == null) {
+          clients = newClients;
+        }
+      }
+      clients.add(client);
+    }
+  }
+
+  /**
+   * Stops sending (un)registrations of identifiers to a client.
+   *
+   * @param identifiers identifiers to stop watching
+   * @param client      the remote address of the client
+   */
+  void unsubscribe(final Iterable<Identifier> identifiers, final SocketAddress client) {
+    for (final Identifier id : identifiers) {
+      final Set<SocketAddress> clients = subscribers.get(id);
+      if (clients != null) {
+        clients.remove(client);
+      }
+    }
+  }
+
+  /**
+   * @return the number of clients subscribed to the identifier
+   */
+  int getSubscriberCount(final Identifier id) {
+    final Set<SocketAddress> clients = subscribers.get(id);
+    return clients == null ? 0 : clients.size();
+  }
+
+  /**
+   * Pushes an update to the clients subscribed to the identifier.
+   * Clients whose connection is closed or cannot be written to are dropped.
+   */
+  private void notifySubscribers(final Identifier id, final NamingUpdate update) {
+    final Set<SocketAddress> clients = subscribers.get(id);
+    if (clients != null && !clients.isEmpty()) {
+      final byte[] data = codec.encode(update);
+      for (final SocketAddress client : clients) {
+        // The transport forgets the link to a client when its connection closes.
+        final Link<byte[]> link = transport.get(client);
+        if (link == null) {
+          LOG.log(Level.FINE, "Dropping subscriber {0} of {1}: connection closed", new Object[]{client, id});
+          clients.remove(client);
+          continue;
+        }
+        LOG.log(Level.FINEST, "Pushing update of {0} to {1}", new Object[]{id, client});
+        try {
+          link.write(data);
+        } catch (final Exception e) {
+          LOG.log(Level.WARNING, "Dropping subscriber " + client + " of " + id + ": write failed", e);
+          clients.remove(client);
+        }
+      }
+    }
   }
 
   /**
@@ -226,6 +317,48 @@ class NamingLookupRequestHandler implements EventHandler<NamingLookupRequest> {
   }
 }
 
+/**
+ * Naming batch lookup request handler.
+ * Answers with the request id, and subscribes the requesting client first if it asked to.
+ */
+class NamingBatchLookupRequestHandler implements EventHandler<NamingBatchLookupRequest> {
+
+  private final NameServerImpl server;
+  private final Codec<NamingMessage> codec;
+
+  NamingBatchLookupRequestHandler(final NameServerImpl server, final Codec<NamingMessage> codec) {
+    this.server = server;
+    this.codec = codec;
+  }
+
+  @Override
+  public void onNext(final NamingBatchLookupRequest value) {
+    if (value.isSubscribe()) {
+      server.subscribe(value.getIdentifiers(), value.getLink());
+    }
+    final List<NameAssignment> nas = server.lookup(value.getIdentifiers());
+    final byte[] resp = codec.encode(new NamingBatchLookupResponse(value.getRequestId(), nas));
+    value.getLink().write(resp);
+  }
+}
+
+/**
+ * Naming unsubscribe request handler.
+ */
+class NamingUnsubscribeRequestHandler implements EventHandler<NamingUnsubscribeRequest> {
+
+  private final NameServerImpl server;
+
+  NamingUnsubscribeRequestHandler(final NameServerImpl server) {
+    this.server = server;
+  }
+
+  @Override
+  public void onNext(final NamingUnsubscribeRequest value) {
+    server.unsubscribe(value.getIdentifiers(), value.getLink().getRemoteAddress());
+  }
+}
+
 /**
  * Naming register request handler.
  */
@@ -42,6 +42,10 @@ final class NamingCodecFactory {
         = new HashMap<>();
     clazzToCodecMap.put(NamingLookupRequest.class, new NamingLookupRequestCodec(factory));
     clazzToCodecMap.put(NamingLookupResponse.class, new NamingLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingBatchLookupRequest.class, new NamingBatchLookupRequestCodec(factory));
+    clazzToCodecMap.put(NamingBatchLookupResponse.class, new NamingBatchLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingUpdate.class, new NamingUpdateCodec(factory));
+    clazzToCodecMap.put(NamingUnsubscribeRequest.class, new NamingUnsubscribeRequestCodec(factory));
     final Codec<NamingMessage> codec = new MultiCodec<>(clazzToCodecMap);
     return codec;
   }
@@ -74,6 +78,10 @@ final class NamingCodecFactory {
         = new HashMap<>();
     clazzToCodecMap.put(NamingLookupRequest.class, new NamingLookupRequestCodec(factory));
     clazzToCodecMap.put(NamingLookupResponse.class, new NamingLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingBatchLookupRequest.class, new NamingBatchLookupRequestCodec(factory));
+    clazzToCodecMap.put(NamingBatchLookupResponse.class, new NamingBatchLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingUpdate.class, new NamingUpdateCodec(factory));
+    clazzToCodecMap.put(NamingUnsubscribeRequest.class, new NamingUnsubscribeRequestCodec(factory));
     clazzToCodecMap.put(NamingRegisterRequest.class, new NamingRegisterRequestCodec(factory));
     clazzToCodecMap.put(NamingRegisterResponse.class,
         new NamingRegisterResponseCodec(new NamingRegisterRequestCodec(factory)));
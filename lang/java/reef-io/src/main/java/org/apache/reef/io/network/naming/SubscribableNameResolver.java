@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming;
+
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.wake.Identifier;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * NameResolver that also resolves identifiers in bulk and keeps subscribed identifiers up to date.
+ */
+public interface SubscribableNameResolver extends NameResolver {
+
+  /**
+   * Finds addresses for identifiers in one round trip.
+   *
+   * @param ids identifiers
+   * @return name assignments of the identifiers that are registered
+   * @throws Exception if the lookup fails
+   */
+  List<NameAssignment> lookup(Iterable<Identifier> ids) throws Exception;
+
+  /**
+   * Resolves identifiers in the background and keeps their addresses up to date
+   * as they are registered and unregistered, so later lookups are answered locally.
+   *
+   * @param ids identifiers
+   * @throws IOException if the request cannot be sent
+   */
+  void subscribe(Iterable<Identifier> ids) throws IOException;
+
+  /**
+   * Stops keeping the addresses of identifiers up to date.
+   *
+   * @param ids identifiers passed to {@link #subscribe(Iterable)} before
+   * @throws IOException if the request cannot be sent
+   */
+  void unsubscribe(Iterable<Identifier> ids) throws IOException;
+}
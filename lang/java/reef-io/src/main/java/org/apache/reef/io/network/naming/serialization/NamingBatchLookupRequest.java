@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.wake.Identifier;
+
+/**
+ * Naming lookup request that carries a request id, so that many lookups
+ * can be outstanding on the same connection at the same time.
+ * If 'subscribe' is set, the name server also pushes later (un)registrations
+ * of the requested identifiers to the requesting client as {@link NamingUpdate}s.
+ */
+public final class NamingBatchLookupRequest extends NamingMessage {
+  private final long requestId;
+  private final Iterable<Identifier> ids;
+  private final boolean subscribe;
+
+  /**
+   * Constructs a batch naming lookup request.
+   *
+   * @param requestId the id the response will carry
+   * @param ids the iterable of identifiers
+   * @param subscribe whether to receive updates for these identifiers
+   */
+  public NamingBatchLookupRequest(final long requestId, final Iterable<Identifier> ids, final boolean subscribe) {
+    this.requestId = requestId;
+    this.ids = ids;
+    this.subscribe = subscribe;
+  }
+
+  /**
+   * @return the request id
+   */
+  public long getRequestId() {
+    return requestId;
+  }
+
+  /**
+   * Gets identifiers.
+   *
+   * @return an iterable of identifiers
+   */
+  public Iterable<Identifier> getIdentifiers() {
+    return ids;
+  }
+
+  /**
+   * @return true if the client wants updates for the requested identifiers
+   */
+  public boolean isSubscribe() {
+    return subscribe;
+  }
+}
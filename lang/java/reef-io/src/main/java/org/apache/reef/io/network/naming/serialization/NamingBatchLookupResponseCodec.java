@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.NameAssignmentTuple;
+import org.apache.reef.io.network.naming.avro.AvroNamingAssignment;
+import org.apache.reef.io.network.naming.avro.AvroNamingBatchLookupResponse;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.Codec;
+
+import javax.inject.Inject;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch naming lookup response codec.
+ */
+public final class NamingBatchLookupResponseCodec implements Codec<NamingBatchLookupResponse> {
+
+  private final IdentifierFactory factory;
+
+  /**
+   * Constructs a batch naming lookup response codec.
+   *
+   * @param factory the identifier factory
+   */
+  @Inject
+  public NamingBatchLookupResponseCodec(final IdentifierFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Encodes the response to bytes.
+   *
+   * @param obj the batch naming lookup response
+   * @return a byte array
+   */
+  @Override
+  public byte[] encode(final NamingBatchLookupResponse obj) {
+    return AvroUtils.toBytes(AvroNamingBatchLookupResponse.newBuilder()
+        .setRequestId(obj.getRequestId())
+        .setTuples(toAvro(obj.getNameAssignments()))
+        .build(), AvroNamingBatchLookupResponse.class);
+  }
+
+  /**
+   * Decodes bytes to a batch naming lookup response.
+   *
+   * @param buf the byte array
+   * @return a batch naming lookup response
+   */
+  @Override
+  public NamingBatchLookupResponse decode(final byte[] buf) {
+    final AvroNamingBatchLookupResponse avroResponse = AvroUtils.fromBytes(buf, AvroNamingBatchLookupResponse.class);
+    return new NamingBatchLookupResponse(avroResponse.getRequestId(), fromAvro(avroResponse.getTuples(), factory));
+  }
+
+  /**
+   * Uses the host string rather than the host name, which could trigger a reverse DNS lookup per assignment.
+   */
+  static List<AvroNamingAssignment> toAvro(final List<NameAssignment> nameAssignments) {
+    final List<AvroNamingAssignment> assignments = new ArrayList<>(nameAssignments.size());
+    for (final NameAssignment nameAssignment : nameAssignments) {
+      assignments.add(AvroNamingAssignment.newBuilder()
+          .setId(nameAssignment.getIdentifier().toString())
+          .setHost(nameAssignment.getAddress().getHostString())
+          .setPort(nameAssignment.getAddress().getPort())
+          .build());
+    }
+    return assignments;
+  }
+
+  static List<NameAssignment> fromAvro(final List<AvroNamingAssignment> tuples, final IdentifierFactory factory) {
+    final List<NameAssignment> nas = new ArrayList<>(tuples.size());
+    for (final AvroNamingAssignment tuple : tuples) {
+      nas.add(new NameAssignmentTuple(factory.getNewInstance(tuple.getId().toString()),
+          new InetSocketAddress(tuple.getHost().toString(), tuple.getPort())));
+    }
+    return nas;
+  }
+}
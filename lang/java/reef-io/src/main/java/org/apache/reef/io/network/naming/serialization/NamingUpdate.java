@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.wake.Identifier;
+
+import java.util.List;
+
+/**
+ * Registration changes pushed by the name server to clients
+ * that subscribed to the affected identifiers.
+ */
+public final class NamingUpdate extends NamingMessage {
+  private final List<NameAssignment> registered;
+  private final List<Identifier> unregistered;
+
+  /**
+   * Constructs a naming update.
+   *
+   * @param registered the new or changed name assignments
+   * @param unregistered the identifiers that were unregistered
+   */
+  public NamingUpdate(final List<NameAssignment> registered, final List<Identifier> unregistered) {
+    this.registered = registered;
+    this.unregistered = unregistered;
+  }
+
+  /**
+   * @return the new or changed name assignments
+   */
+  public List<NameAssignment> getRegistered() {
+    return registered;
+  }
+
+  /**
+   * @return the identifiers that were unregistered
+   */
+  public List<Identifier> getUnregistered() {
+    return unregistered;
+  }
+}
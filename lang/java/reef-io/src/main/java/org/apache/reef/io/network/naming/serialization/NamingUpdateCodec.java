@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.io.network.naming.avro.AvroNamingUpdate;
+import org.apache.reef.wake.Identifier;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.Codec;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming update codec.
+ */
+public final class NamingUpdateCodec implements Codec<NamingUpdate> {
+
+  private final IdentifierFactory factory;
+
+  /**
+   * Constructs a naming update codec.
+   *
+   * @param factory the identifier factory
+   */
+  @Inject
+  public NamingUpdateCodec(final IdentifierFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Encodes the update to bytes.
+   *
+   * @param obj the naming update
+   * @return a byte array
+   */
+  @Override
+  public byte[] encode(final NamingUpdate obj) {
+    final List<CharSequence> unregistered = new ArrayList<>(obj.getUnregistered().size());
+    for (final Identifier id : obj.getUnregistered()) {
+      unregistered.add(id.toString());
+    }
+    return AvroUtils.toBytes(AvroNamingUpdate.newBuilder()
+        .setRegistered(NamingBatchLookupResponseCodec.toAvro(obj.getRegistered()))
+        .setUnregistered(unregistered)
+        .build(), AvroNamingUpdate.class);
+  }
+
+  /**
+   * Decodes bytes to a naming update.
+   *
+   * @param buf the byte array
+   * @return a naming update
+   */
+  @Override
+  public NamingUpdate decode(final byte[] buf) {
+    final AvroNamingUpdate avroUpdate = AvroUtils.fromBytes(buf, AvroNamingUpdate.class);
+    final List<Identifier> unregistered = new ArrayList<>(avroUpdate.getUnregistered().size());
+    for (final CharSequence s : avroUpdate.getUnregistered()) {
+      unregistered.add(factory.getNewInstance(s.toString()));
+    }
+    return new NamingUpdate(NamingBatchLookupResponseCodec.fromAvro(avroUpdate.getRegistered(), factory),
+        unregistered);
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.catalog.RackDescriptor;
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
+import org.apache.reef.io.network.group.api.driver.Topology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.CommGroupNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommSenderStage;
+import org.apache.reef.io.network.group.impl.config.parameters.OperatorNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.TreeTopologyFanOut;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SyncStage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link LocalityAwareTreeTopology}.
+ */
+public final class LocalityAwareTreeTopologyTest {
+
+  private static final Logger LOG = Logger.getLogger(LocalityAwareTreeTopologyTest.class.getName());
+
+  private static final String ROOT_ID = "root";
+  private static final int NUM_RACKS = 4;
+  private static final int HOSTS_PER_RACK = 2;
+  private static final int TASKS_PER_HOST = 4;
+  private static final int FAN_OUT = 2;
+
+  /**
+   * Simulates a multi-rack layout where tasks register round-robin across racks
+   * and compares the number of tree edges that cross a rack boundary.
+   * Every edge carries each broadcast and reduce message once, so this is
+   * proportional to the cross-rack bytes of an operation.
+   */
+  @Test
+  public void testCrossRackEdges() throws InjectionException {
+    final Map<String, NodeDescriptor> layout = buildLayout();
+
+    final Map<String, String> treeParents = new HashMap<>();
+    runAll(newTopology(TreeTopology.class, treeParents), layout);
+    final Map<String, String> localityParents = new HashMap<>();
+    runAll(newTopology(LocalityAwareTreeTopology.class, localityParents), layout);
+
+    final int treeCrossRack = countCrossRackEdges(treeParents, layout);
+    final int localityCrossRack = countCrossRackEdges(localityParents, layout);
+    LOG.info("Cross-rack edges for " + layout.size() + " tasks on " + NUM_RACKS + " racks: TreeTopology "
+        + treeCrossRack + ", LocalityAwareTreeTopology " + localityCrossRack);
+
+    assertEquals(layout.size() - 1, localityParents.size());
+    assertEquals("one edge per rack other than the root's", NUM_RACKS - 1, localityCrossRack);
+    assertTrue(localityCrossRack < treeCrossRack);
+    assertWellFormed(localityParents);
+  }
+
+  /**
+   * Removing a rack aggregator and a host leader re-attaches their subtrees
+   * to the promoted tasks without creating new cross-rack edges.
+   */
+  @Test
+  public void testRemoveAggregatorAndLeader() throws InjectionException {
+    final Map<String, NodeDescriptor> layout = buildLayout();
+    final Map<String, String> parents = new HashMap<>();
+    final Topology topology = newTopology(LocalityAwareTreeTopology.class, parents);
+    runAll(topology, layout);
+
+    // task-1 is the first task of rack 1 and task-5 the first task of rack 1's second host
+    for (final String failedId : new String[]{"task-1", "task-5"}) {
+      topology.onFailedTask(failedId);
+      topology.removeTask(failedId);
+      layout.remove(failedId);
+      parents.remove(failedId);
+    }
+
+    assertEquals(NUM_RACKS - 1, countCrossRackEdges(parents, layout));
+    for (final String taskId : layout.keySet()) {
+      if (!taskId.equals(ROOT_ID)) {
+        assertTrue(taskId + " has a live parent", layout.containsKey(parents.get(taskId)));
+      }
+    }
+    assertWellFormed(parents);
+  }
+
+  private static Map<String, NodeDescriptor> buildLayout() {
+    final Map<String, NodeDescriptor> layout = new HashMap<>();
+    layout.put(ROOT_ID, newNodeDescriptor(0, 0));
+    final int numTasks = NUM_RACKS * HOSTS_PER_RACK * TASKS_PER_HOST;
+    for (int i = 0; i < numTasks; i++) {
+      final int rack = i % NUM_RACKS;
+      final int host = i / NUM_RACKS % HOSTS_PER_RACK;
+      layout.put("task-" + i, newNodeDescriptor(rack, host));
+    }
+    return layout;
+  }
+
+  private static NodeDescriptor newNodeDescriptor(final int rack, final int host) {
+    final RackDescriptor rackDescriptor = mock(RackDescriptor.class);
+    when(rackDescriptor.getName()).thenReturn("/rack-" + rack);
+    final NodeDescriptor nodeDescriptor = mock(NodeDescriptor.class);
+    when(nodeDescriptor.getRackDescriptor()).thenReturn(rackDescriptor);
+    when(nodeDescriptor.getName()).thenReturn("host-" + rack + "-" + host);
+    return nodeDescriptor;
+  }
+
+  /**
+   * Builds a topology whose driver messages record the latest parent of every task.
+   */
+  private static Topology newTopology(final Class<? extends Topology> topologyClass,
+                                      final Map<String, String> parents) throws InjectionException {
+    final EStage<GroupCommunicationMessage> senderStage =
+        new SyncStage<>(new EventHandler<GroupCommunicationMessage>() {
+          @Override
+          public void onNext(final GroupCommunicationMessage msg) {
+            if (msg.getType() == ReefNetworkGroupCommProtos.GroupCommMessage.Type.ParentAdd) {
+              parents.put(msg.getDestid(), msg.getSrcid());
+            }
+          }
+        });
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(GroupCommSenderStage.class, senderStage);
+    injector.bindVolatileParameter(CommGroupNameClass.class, GroupName.class);
+    injector.bindVolatileParameter(OperatorNameClass.class, OperatorName.class);
+    injector.bindVolatileParameter(DriverIdentifier.class, "driver");
+    injector.bindVolatileParameter(TreeTopologyFanOut.class, FAN_OUT);
+    final Topology topology = injector.getInstance(topologyClass);
+    topology.setRootTask(ROOT_ID);
+    return topology;
+  }
+
+  private static void runAll(final Topology topology, final Map<String, NodeDescriptor> layout) {
+    final List<String> taskIds = new ArrayList<>();
+    taskIds.add(ROOT_ID);
+    for (int i = 0; layout.containsKey("task-" + i); i++) {
+      taskIds.add("task-" + i);
+    }
+    for (final String taskId : taskIds) {
+      if (topology instanceof LocalityAwareTopology) {
+        ((LocalityAwareTopology) topology).addTask(taskId, layout.get(taskId));
+      } else {
+        topology.addTask(taskId);
+      }
+    }
+    for (final String taskId : taskIds) {
+      topology.onRunningTask(taskId);
+    }
+  }
+
+  private static int countCrossRackEdges(final Map<String, String> parents, final Map<String, NodeDescriptor> layout) {
+    int crossRack = 0;
+    for (final Map.Entry<String, String> edge : parents.entrySet()) {
+      final String childRack = layout.get(edge.getKey()).getRackDescriptor().getName();
+      final String parentRack = layout.get(edge.getValue()).getRackDescriptor().getName();
+      if (!childRack.equals(parentRack)) {
+        crossRack++;
+      }
+    }
+    return crossRack;
+  }
+
+  /**
+   * Checks that every task reaches the root, no task exceeds the fan-out
+   * and the depth stays logarithmic in the number of tasks.
+   */
+  private static void assertWellFormed(final Map<String, String> parents) {
+    final int maxDepth = 2 * (int) Math.ceil(Math.log(parents.size() + 1) / Math.log(FAN_OUT));
+    final Map<String, Integer> numChildren = new HashMap<>();
+    for (final Map.Entry<String, String> edge : parents.entrySet()) {
+      final Integer count = numChildren.get(edge.getValue());
+      numChildren.put(edge.getValue(), count == null ? 1 : count + 1);
+
+      int depth = 0;
+      String current = edge.getKey();
+      while (!current.equals(ROOT_ID)) {
+        current = parents.get(current);
+        depth++;
+        assertTrue(edge.getKey() + " reaches the root", current != null && depth <= parents.size());
+      }
+      assertTrue(edge.getKey() + " is at depth " + depth, depth <= maxDepth);
+    }
+    for (final Map.Entry<String, Integer> entry : numChildren.entrySet()) {
+      assertTrue(entry.getKey() + " has " + entry.getValue() + " children", entry.getValue() <= FAN_OUT);
+    }
+  }
+
+  @NamedParameter()
+  private final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class OperatorName implements Name<String> {
+  }
+}
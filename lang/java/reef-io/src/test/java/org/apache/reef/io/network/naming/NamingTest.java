@@ -35,7 +35,10 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
@@ -123,6 +126,177 @@ public class NamingTest {
     }
   }
 
+  /**
+   * Resolves many identifiers with a single bulk lookup.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBatchNamingLookup() throws Exception {
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final int numTasks = 500;
+    final Map<Identifier, InetSocketAddress> idToAddrMap = new HashMap<>();
+    for (int i = 0; i < numTasks; ++i) {
+      idToAddrMap.put(this.factory.getNewInstance("task" + i), new InetSocketAddress(localAddress, 7001 + i));
+    }
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+      for (final Identifier id : idToAddrMap.keySet()) {
+        server.register(id, idToAddrMap.get(id));
+      }
+
+      try (final NameLookupClient client =
+               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+
+        final List<Identifier> ids = new ArrayList<>(idToAddrMap.keySet());
+        ids.add(this.factory.getNewInstance("unregistered"));
+
+        final Map<Identifier, InetSocketAddress> respMap = new HashMap<>();
+        for (final NameAssignment na : client.lookup(ids)) {
+          respMap.put(na.getIdentifier(), na.getAddress());
+        }
+        Assert.assertTrue(isEqual(idToAddrMap, respMap));
+
+        // The bulk lookup filled the cache, so this is answered locally.
+        server.unregister(this.factory.getNewInstance("task0"));
+        Assert.assertEquals(idToAddrMap.get(this.factory.getNewInstance("task0")),
+            client.lookup(this.factory.getNewInstance("task0")));
+      }
+    }
+  }
+
+  /**
+   * A subscribed client learns about re-registrations without looking the identifier up again.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testSubscriptionPush() throws Exception {
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task1");
+    final InetSocketAddress oldAddr = new InetSocketAddress(localAddress, 7001);
+    final InetSocketAddress newAddr = new InetSocketAddress(localAddress, 7002);
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+      server.register(id, oldAddr);
+
+      try (final NameLookupClient client =
+               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+
+        client.subscribe(Collections.singletonList(id));
+        Assert.assertEquals(oldAddr, client.lookup(id));
+
+        server.register(id, newAddr);
+
+        // The cache entry lives for TTL, so only a pushed update can change the answer before then.
+        final long deadline = System.currentTimeMillis() + TTL / 3;
+        InetSocketAddress addr = client.lookup(id);
+        while (!newAddr.equals(addr) && System.currentTimeMillis() < deadline) {
+          Thread.sleep(10);
+          addr = client.lookup(id);
+        }
+        Assert.assertEquals(newAddr, addr);
+      }
+    }
+  }
+
+  /**
+   * The name server stops pushing updates to a client that unsubscribed.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testUnsubscribe() throws Exception {
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task1");
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+      server.register(id, new InetSocketAddress(localAddress, 7001));
+
+      try (final NameLookupClient client =
+               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+
+        // The lookup is answered after the subscription was handled.
+        client.subscribe(Collections.singletonList(id));
+        client.lookup(id);
+        Assert.assertEquals(1, ((NameServerImpl) server).getSubscriberCount(id));
+
+        client.unsubscribe(Collections.singletonList(id));
+        final long deadline = System.currentTimeMillis() + TTL / 3;
+        while (((NameServerImpl) server).getSubscriberCount(id) > 0 && System.currentTimeMillis() < deadline) {
+          Thread.sleep(10);
+        }
+        Assert.assertEquals(0, ((NameServerImpl) server).getSubscriberCount(id));
+      }
+    }
+  }
+
+  /**
+   * The name server drops a subscribed client once its connection is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testSubscriberDroppedOnClose() throws Exception {
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task1");
+    final InetSocketAddress addr = new InetSocketAddress(localAddress, 7001);
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+      server.register(id, addr);
+
+      final Configuration nameResolverConf = NameResolverConfiguration.CONF
+          .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+          .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.port)
+          .set(NameResolverConfiguration.CACHE_TIMEOUT, TTL)
+          .set(NameResolverConfiguration.RETRY_TIMEOUT, RETRY_TIMEOUT)
+          .set(NameResolverConfiguration.RETRY_COUNT, RETRY_COUNT)
+          .build();
+
+      try (final NameClient client
+               = Tang.Factory.getTang().newInjector(nameResolverConf).getInstance(NameClient.class)) {
+        client.subscribe(Collections.singletonList(id));
+        client.lookup(Collections.singletonList(id));
+        Assert.assertEquals(1, ((NameServerImpl) server).getSubscriberCount(id));
+      }
+
+      // Subscribers are dropped when an update for them is pushed.
+      final long deadline = System.currentTimeMillis() + TTL / 3;
+      while (((NameServerImpl) server).getSubscriberCount(id) > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+        server.register(id, addr);
+      }
+      Assert.assertEquals(0, ((NameServerImpl) server).getSubscriberCount(id));
+    }
+  }
+
   private static NameLookupClient getNewNameLookupClient(final String serverAddr,
                                                          final int serverPort,
                                                          final long timeout,
@@ -20,8 +20,12 @@ package org.apache.reef.runtime.local.client;
 
 import org.apache.reef.runtime.common.client.DriverConfigurationProvider;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorCoreBudget;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorMemoryBudget;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
+import org.apache.reef.runtime.local.client.parameters.PinEvaluatorsToCores;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
+import org.apache.reef.runtime.local.client.parameters.WarmJVMPoolSize;
 import org.apache.reef.runtime.local.driver.LocalDriverConfiguration;
 import org.apache.reef.runtime.local.driver.RuntimeIdentifier;
 import org.apache.reef.tang.Configuration;
@@ -42,14 +46,26 @@ final class LocalDriverConfigurationProviderImpl implements DriverConfigurationP
   private final int maxEvaluators;
   private final double jvmHeapSlack;
   private final Set<String> rackNames;
+  private final int warmJVMPoolSize;
+  private final int evaluatorMemoryBudget;
+  private final int evaluatorCoreBudget;
+  private final boolean pinEvaluatorsToCores;
 
   @Inject
   LocalDriverConfigurationProviderImpl(@Parameter(MaxNumberOfEvaluators.class) final int maxEvaluators,
                                        @Parameter(JVMHeapSlack.class) final double jvmHeapSlack,
-                                       @Parameter(RackNames.class) final Set<String> rackNames) {
+                                       @Parameter(RackNames.class) final Set<String> rackNames,
+                                       @Parameter(WarmJVMPoolSize.class) final int warmJVMPoolSize,
+                                       @Parameter(EvaluatorMemoryBudget.class) final int evaluatorMemoryBudget,
+                                       @Parameter(EvaluatorCoreBudget.class) final int evaluatorCoreBudget,
+                                       @Parameter(PinEvaluatorsToCores.class) final boolean pinEvaluatorsToCores) {
     this.maxEvaluators = maxEvaluators;
     this.jvmHeapSlack = jvmHeapSlack;
     this.rackNames = rackNames;
+    this.warmJVMPoolSize = warmJVMPoolSize;
+    this.evaluatorMemoryBudget = evaluatorMemoryBudget;
+    this.evaluatorCoreBudget = evaluatorCoreBudget;
+    this.pinEvaluatorsToCores = pinEvaluatorsToCores;
   }
 
   private Configuration getDriverConfiguration(final URI jobFolder,
@@ -59,6 +75,10 @@ final class LocalDriverConfigurationProviderImpl implements DriverConfigurationP
         .set(LocalDriverConfiguration.MAX_NUMBER_OF_EVALUATORS, this.maxEvaluators)
         .set(LocalDriverConfiguration.ROOT_FOLDER, jobFolder.getPath())
         .set(LocalDriverConfiguration.JVM_HEAP_SLACK, this.jvmHeapSlack)
+        .set(LocalDriverConfiguration.WARM_JVM_POOL_SIZE, this.warmJVMPoolSize)
+        .set(LocalDriverConfiguration.EVALUATOR_MEMORY_BUDGET, this.evaluatorMemoryBudget)
+        .set(LocalDriverConfiguration.EVALUATOR_CORE_BUDGET, this.evaluatorCoreBudget)
+        .set(LocalDriverConfiguration.PIN_EVALUATORS_TO_CORES, this.pinEvaluatorsToCores)
         .set(LocalDriverConfiguration.CLIENT_REMOTE_IDENTIFIER, clientRemoteId)
         .set(LocalDriverConfiguration.JOB_IDENTIFIER, jobId)
         .set(LocalDriverConfiguration.RUNTIME_NAMES, RuntimeIdentifier.RUNTIME_NAME);
@@ -27,9 +27,13 @@ import org.apache.reef.runtime.common.evaluator.parameters.LocalThreadMode;
 import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.local.LocalClasspathProvider;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorCoreBudget;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorMemoryBudget;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
+import org.apache.reef.runtime.local.client.parameters.PinEvaluatorsToCores;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmJVMPoolSize;
 import org.apache.reef.runtime.local.driver.RuntimeIdentifier;
 import org.apache.reef.tang.ConfigurationProvider;
 import org.apache.reef.tang.formats.*;
@@ -77,6 +81,30 @@ public class LocalRuntimeConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<String> IS_LOCAL_THREAD_MODE = new OptionalParameter<>();
 
+  /**
+   * The number of idle, pre-forked JVMs to keep ready for new Evaluators. By default, no JVMs are pre-forked.
+   */
+  public static final OptionalParameter<Integer> WARM_JVM_POOL_SIZE = new OptionalParameter<>();
+
+  /**
+   * The total memory in MB that the Evaluators running at once may request; 0 for the memory of the host.
+   * Evaluators that don't fit wait, and their heaps are capped at the memory they requested.
+   * By default, there is no limit.
+   */
+  public static final OptionalParameter<Integer> EVALUATOR_MEMORY_BUDGET = new OptionalParameter<>();
+
+  /**
+   * The total number of cores that the Evaluators running at once may request; 0 for the processors of the host.
+   * Evaluators that don't fit wait. By default, there is no limit.
+   */
+  public static final OptionalParameter<Integer> EVALUATOR_CORE_BUDGET = new OptionalParameter<>();
+
+  /**
+   * Whether to pin each Evaluator to its own set of CPUs with taskset. Linux only.
+   * By default, Evaluators are not pinned.
+   */
+  public static final OptionalParameter<Boolean> PIN_EVALUATORS_TO_CORES = new OptionalParameter<>();
+
   /**
    * The ConfigurationModule for the local resourcemanager.
    */
@@ -92,6 +120,10 @@ public class LocalRuntimeConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(RootFolder.class, RUNTIME_ROOT_FOLDER)
       .bindNamedParameter(JVMHeapSlack.class, JVM_HEAP_SLACK)
       .bindNamedParameter(LocalThreadMode.class, IS_LOCAL_THREAD_MODE)
+      .bindNamedParameter(WarmJVMPoolSize.class, WARM_JVM_POOL_SIZE)
+      .bindNamedParameter(EvaluatorMemoryBudget.class, EVALUATOR_MEMORY_BUDGET)
+      .bindNamedParameter(EvaluatorCoreBudget.class, EVALUATOR_CORE_BUDGET)
+      .bindNamedParameter(PinEvaluatorsToCores.class, PIN_EVALUATORS_TO_CORES)
       .bindSetEntry(DriverConfigurationProviders.class, DRIVER_CONFIGURATION_PROVIDERS)
       .bindSetEntry(RackNames.class, RACK_NAMES)
       .bindSetEntry(DefinedRuntimes.class, RuntimeIdentifier.RUNTIME_NAME)
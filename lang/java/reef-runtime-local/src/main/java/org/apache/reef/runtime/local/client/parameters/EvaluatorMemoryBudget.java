@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.client.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The total memory, in megabytes, that the Evaluators running at once may request.
+ * Requests that don't fit wait until enough memory is released.
+ * 0 uses the physical memory of the host, and -1, the default, sets no limit.
+ */
+@NamedParameter(default_value = "-1",
+    doc = "The total memory in MB that the Evaluators running at once may request. 0: the host's memory, -1: no limit",
+    short_name = "evaluatorMemoryBudget")
+public final class EvaluatorMemoryBudget implements Name<Integer> {
+}
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.client.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Whether to run each Evaluator on its own set of CPUs, as many as it requested cores, using taskset.
+ * The CPUs are taken from the {@link EvaluatorCoreBudget}, or from all processors of the host if it sets no limit.
+ * Only works on Linux hosts.
+ */
+@NamedParameter(default_value = "false", doc = "Whether to pin each Evaluator to its own set of CPUs with taskset",
+    short_name = "pinEvaluators")
+public final class PinEvaluatorsToCores implements Name<Boolean> {
+}
@@ -35,8 +35,12 @@ import org.apache.reef.runtime.local.client.parameters.DefaultNumberOfCores;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmJVMPoolSize;
 import org.apache.reef.runtime.local.process.ReefRunnableProcessObserver;
+import org.apache.reef.runtime.local.process.WarmJVM;
+import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.util.CollectionUtils;
 import org.apache.reef.util.MemoryUtils;
 import org.apache.reef.util.Optional;
@@ -96,6 +100,14 @@ final class ContainerManager implements AutoCloseable {
   private final ReefRunnableProcessObserver processObserver;
   private final String localAddress;
   private final Collection<String> availableRacks;
+  private final int warmJVMPoolSize;
+  private final Injector injector;
+
+  /**
+   * The warm JVM pool, which is only instantiated if its size is not 0.
+   */
+  private Optional<WarmJVMPool> warmJVMPool = Optional.empty();
+  private final EvaluatorResourceBudget resourceBudget;
 
   @Inject
   private ContainerManager(
@@ -109,7 +121,10 @@ final class ContainerManager implements AutoCloseable {
       final ReefRunnableProcessObserver processObserver,
       final LocalAddressProvider localAddressProvider,
       @Parameter(DefaultMemorySize.class) final int defaultMemorySize,
-      @Parameter(DefaultNumberOfCores.class) final int defaultNumberOfCores) {
+      @Parameter(DefaultNumberOfCores.class) final int defaultNumberOfCores,
+      @Parameter(WarmJVMPoolSize.class) final int warmJVMPoolSize,
+      final Injector injector,
+      final EvaluatorResourceBudget resourceBudget) {
 
     this.capacity = capacity;
     this.defaultMemorySize = defaultMemorySize;
@@ -121,6 +136,9 @@ final class ContainerManager implements AutoCloseable {
     this.rootFolder = new File(rootFolderName);
     this.localAddress = localAddressProvider.getLocalAddress();
     this.availableRacks = normalize(rackNames);
+    this.warmJVMPoolSize = warmJVMPoolSize;
+    this.injector = injector;
+    this.resourceBudget = resourceBudget;
 
     LOG.log(Level.FINEST, "Initializing Container Manager with {0} containers", capacity);
 
@@ -213,6 +231,14 @@ final class ContainerManager implements AutoCloseable {
 
   synchronized void start() {
     sendNodeDescriptors();
+    if (this.warmJVMPoolSize > 0) {
+      try {
+        this.warmJVMPool = Optional.of(this.injector.getInstance(WarmJVMPool.class));
+      } catch (final InjectionException e) {
+        throw new RuntimeException("Unable to instantiate the warm JVM pool", e);
+      }
+      this.warmJVMPool.get().fill();
+    }
   }
 
   private void sendNodeDescriptors() {
@@ -304,26 +330,29 @@ final class ContainerManager implements AutoCloseable {
   /**
    * Allocates a container based on a request event. First it tries to match a
    * given node, if it cannot, it tries to get a spot in a rack.
+   * No container is allocated if the requested memory and cores don't fit in the budget of the host.
    * @param requestEvent resource request event.
    * @return an optional with the container if allocated.
    */
   Optional<Container> allocateContainer(final ResourceRequestEvent requestEvent) {
 
+    final int megaBytes = requestEvent.getMemorySize().orElse(this.defaultMemorySize);
+    final int numberOfCores = requestEvent.getVirtualCores().orElse(this.defaultNumberOfCores);
+    if (!this.resourceBudget.fits(megaBytes, numberOfCores)) {
+      LOG.log(Level.FINE, "Not enough memory or cores left for {0} MB and {1} cores, the request waits",
+          new Object[] {megaBytes, numberOfCores});
+      return Optional.empty();
+    }
+
     Container container = null;
     final Optional<String> nodeName = getPreferredNode(requestEvent.getNodeNameList());
 
     if (nodeName.isPresent()) {
-      container = allocateBasedOnNode(
-          requestEvent.getMemorySize().orElse(this.defaultMemorySize),
-          requestEvent.getVirtualCores().orElse(this.defaultNumberOfCores),
-          nodeName.get());
+      container = allocateBasedOnNode(megaBytes, numberOfCores, nodeName.get());
     } else {
       final Optional<String> rackName = getPreferredRack(requestEvent.getRackNameList());
       if (rackName.isPresent()) {
-        container = allocateBasedOnRack(
-            requestEvent.getMemorySize().orElse(this.defaultMemorySize),
-            requestEvent.getVirtualCores().orElse(this.defaultNumberOfCores),
-            rackName.get());
+        container = allocateBasedOnRack(megaBytes, numberOfCores, rackName.get());
       }
     }
 
@@ -363,15 +392,19 @@ final class ContainerManager implements AutoCloseable {
       final int megaBytes, final int numberOfCores, final String nodeId, final String rackName) {
 
     final String processID = nodeId + "-" + String.valueOf(System.currentTimeMillis());
+    final List<Integer> cpus = this.resourceBudget.reserve(processID, megaBytes, numberOfCores);
 
-    final File processFolder = new File(this.rootFolder, processID);
+    // A warm JVM is bound to the folder it was forked in, and can't be moved to other CPUs.
+    final Optional<WarmJVM> warmJVM = cpus.isEmpty() && this.warmJVMPool.isPresent() ?
+        this.warmJVMPool.get().take() : Optional.<WarmJVM>empty();
+    final File processFolder = warmJVM.isPresent() ? warmJVM.get().getFolder() : new File(this.rootFolder, processID);
     if (!processFolder.exists() && !processFolder.mkdirs()) {
       LOG.log(Level.WARNING, "Failed to create [{0}]", processFolder.getAbsolutePath());
     }
 
     final ProcessContainer container = new ProcessContainer(
         this.errorHandlerRID, nodeId, processID, processFolder, megaBytes,
-        numberOfCores, rackName, this.fileNames, this.processObserver, this.containerThreads);
+        numberOfCores, rackName, this.fileNames, this.processObserver, this.containerThreads, warmJVM);
 
     this.containers.put(container.getContainerID(), container);
     LOG.log(Level.FINE, "Allocated {0}", container.getContainerID());
@@ -384,9 +417,8 @@ final class ContainerManager implements AutoCloseable {
       final Container ctr = this.containers.get(containerID);
       if (null != ctr) {
         LOG.log(Level.INFO, "Releasing Container with containerId [{0}]", ctr);
-        if (ctr.isRunning()) {
-          ctr.close();
-        }
+        ctr.close();
+        this.resourceBudget.release(ctr.getContainerID());
         this.freeNodesPerRack.get(ctr.getRackName()).put(ctr.getNodeID(), Boolean.TRUE);
         this.containers.remove(ctr.getContainerID());
       } else {
@@ -395,6 +427,15 @@ final class ContainerManager implements AutoCloseable {
     }
   }
 
+  /**
+   * @return the command line of the Evaluator in the container, confined to the memory and CPUs reserved for it.
+   */
+  List<String> confine(final String containerID, final List<String> commandLine) {
+    synchronized (this.containers) {
+      return this.resourceBudget.confine(containerID, commandLine);
+    }
+  }
+
   Container get(final String containedID) {
     synchronized (this.containers) {
       return this.containers.get(containedID);
@@ -410,6 +451,9 @@ final class ContainerManager implements AutoCloseable {
 
   @Override
   public synchronized void close() {
+    if (this.warmJVMPool.isPresent()) {
+      this.warmJVMPool.get().close();
+    }
     synchronized (this.containers) {
       if (this.containers.isEmpty()) {
         LOG.log(Level.FINEST, "Clean shutdown with no outstanding containers.");
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorCoreBudget;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorMemoryBudget;
+import org.apache.reef.runtime.local.client.parameters.PinEvaluatorsToCores;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.util.MemoryUtils;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The memory and cores of the host that the running Evaluators may use, and the CPUs they are pinned to.
+ * <p>
+ * An Evaluator is admitted only if its memory and cores fit in what the running ones left.
+ * An Evaluator that asks for more than the whole budget is admitted only when no other Evaluator runs,
+ * so that it doesn't wait forever.
+ * <p>
+ * When memory is limited, the heap of an Evaluator is capped at the memory it requested, even if its process
+ * was given a larger one. When Evaluators are pinned, each one runs under taskset on CPUs of its own.
+ */
+@Private
+@DriverSide
+@NotThreadSafe
+final class EvaluatorResourceBudget {
+
+  private static final Logger LOG = Logger.getLogger(EvaluatorResourceBudget.class.getName());
+
+  private static final int NO_LIMIT = -1;
+
+  private static final String MAX_HEAP_OPTION = "-Xmx";
+
+  private final int memory;
+  private final int cores;
+
+  /** The CPUs that no Evaluator is pinned to, or null if Evaluators are not pinned. */
+  private final BitSet freeCpus;
+
+  private final Map<String, Reservation> reservations = new HashMap<>();
+  private int usedMemory = 0;
+  private int usedCores = 0;
+
+  @Inject
+  EvaluatorResourceBudget(
+      @Parameter(EvaluatorMemoryBudget.class) final int memoryBudget,
+      @Parameter(EvaluatorCoreBudget.class) final int coreBudget,
+      @Parameter(PinEvaluatorsToCores.class) final boolean pinToCores) {
+
+    this.memory = memoryBudget == 0 ? MemoryUtils.getTotalPhysicalMemorySizeInMB() : memoryBudget;
+    this.cores = coreBudget == 0 ? Runtime.getRuntime().availableProcessors() : coreBudget;
+
+    if (pinToCores) {
+      final int numCpus = this.cores == NO_LIMIT ? Runtime.getRuntime().availableProcessors() : this.cores;
+      this.freeCpus = new BitSet(numCpus);
+      this.freeCpus.set(0, numCpus);
+    } else {
+      this.freeCpus = null;
+    }
+
+    LOG.log(Level.FINE, "Evaluator budget: {0} MB, {1} cores, pinned: {2}",
+        new Object[] {this.memory, this.cores, pinToCores});
+  }
+
+  /**
+   * @return true if an Evaluator of the given size can be admitted now.
+   */
+  boolean fits(final int megaBytes, final int numberOfCores) {
+    if (this.reservations.isEmpty()) {
+      return true;
+    }
+    return (this.memory == NO_LIMIT || this.usedMemory + megaBytes <= this.memory) &&
+        (this.cores == NO_LIMIT || this.usedCores + numberOfCores <= this.cores) &&
+        (this.freeCpus == null || numberOfCores <= this.freeCpus.cardinality());
+  }
+
+  /**
+   * Reserves the resources of an admitted Evaluator.
+   * @return the CPUs to pin the Evaluator to, or an empty list if it is not pinned.
+   */
+  List<Integer> reserve(final String containerId, final int megaBytes, final int numberOfCores) {
+    final List<Integer> cpus;
+    if (this.freeCpus == null) {
+      cpus = Collections.emptyList();
+    } else {
+      cpus = new ArrayList<>(numberOfCores);
+      for (int cpu = this.freeCpus.nextSetBit(0); cpu >= 0 && cpus.size() < numberOfCores;
+           cpu = this.freeCpus.nextSetBit(cpu + 1)) {
+        cpus.add(cpu);
+      }
+      for (final int cpu : cpus) {
+        this.freeCpus.clear(cpu);
+      }
+    }
+
+    this.reservations.put(containerId, new Reservation(megaBytes, numberOfCores, cpus));
+    this.usedMemory += megaBytes;
+    this.usedCores += numberOfCores;
+    return cpus;
+  }
+
+  /**
+   * Returns the resources of an Evaluator that exited to the budget.
+   */
+  void release(final String containerId) {
+    final Reservation reservation = this.reservations.remove(containerId);
+    if (reservation != null) {
+      this.usedMemory -= reservation.megaBytes;
+      this.usedCores -= reservation.numberOfCores;
+      for (final int cpu : reservation.cpus) {
+        this.freeCpus.set(cpu);
+      }
+    }
+  }
+
+  /**
+   * Confines the command of an admitted Evaluator to its reservation.
+   * @return the command, with the heap capped and prefixed by taskset if needed.
+   */
+  List<String> confine(final String containerId, final List<String> commandLine) {
+    final Reservation reservation = this.reservations.get(containerId);
+    if (reservation == null) {
+      return commandLine;
+    }
+
+    final List<String> confined = new ArrayList<>(commandLine.size() + 3);
+    if (!reservation.cpus.isEmpty()) {
+      final StringBuilder cpuList = new StringBuilder();
+      for (final int cpu : reservation.cpus) {
+        cpuList.append(cpuList.length() == 0 ? "" : ",").append(cpu);
+      }
+      confined.add("taskset");
+      confined.add("-c");
+      confined.add(cpuList.toString());
+    }
+
+    for (final String arg : commandLine) {
+      if (this.memory != NO_LIMIT && arg.startsWith(MAX_HEAP_OPTION) &&
+          getMegaBytes(arg.substring(MAX_HEAP_OPTION.length())) > reservation.megaBytes) {
+        LOG.log(Level.FINE, "Capping the heap of {0} at {1} MB", new Object[] {containerId, reservation.megaBytes});
+        confined.add(MAX_HEAP_OPTION + reservation.megaBytes + "m");
+      } else {
+        confined.add(arg);
+      }
+    }
+    return confined;
+  }
+
+  /**
+   * @return the size of a JVM memory option value like 512m or 2G in megabytes, or -1 if it can't be parsed.
+   */
+  private static long getMegaBytes(final String size) {
+    if (size.isEmpty()) {
+      return -1;
+    }
+    final char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+    final String digits = Character.isDigit(unit) ? size : size.substring(0, size.length() - 1);
+    final long value;
+    try {
+      value = Long.parseLong(digits);
+    } catch (final NumberFormatException e) {
+      return -1;
+    }
+    switch (unit) {
+    case 'k':
+      return value >> 10;
+    case 'm':
+      return value;
+    case 'g':
+      return value << 10;
+    case 't':
+      return value << 20;
+    default:
+      return Character.isDigit(unit) ? value >> 20 : -1;
+    }
+  }
+
+  private static final class Reservation {
+    private final int megaBytes;
+    private final int numberOfCores;
+    private final List<Integer> cpus;
+
+    private Reservation(final int megaBytes, final int numberOfCores, final List<Integer> cpus) {
+      this.megaBytes = megaBytes;
+      this.numberOfCores = numberOfCores;
+      this.cpus = cpus;
+    }
+  }
+}
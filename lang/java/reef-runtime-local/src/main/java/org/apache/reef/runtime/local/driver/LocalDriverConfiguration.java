@@ -29,9 +29,13 @@ import org.apache.reef.runtime.common.launch.parameters.ErrorHandlerRID;
 import org.apache.reef.runtime.common.launch.parameters.LaunchID;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.local.LocalClasspathProvider;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorCoreBudget;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorMemoryBudget;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
+import org.apache.reef.runtime.local.client.parameters.PinEvaluatorsToCores;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmJVMPoolSize;
 import org.apache.reef.tang.formats.*;
 
 /**
@@ -76,6 +80,26 @@ public class LocalDriverConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<String> IS_LOCAL_THREAD_MODE = new OptionalParameter<>();
 
+  /**
+   * The number of idle, pre-forked JVMs to keep ready for new Evaluators.
+   */
+  public static final OptionalParameter<Integer> WARM_JVM_POOL_SIZE = new OptionalParameter<>();
+
+  /**
+   * The total memory in MB that the Evaluators running at once may request.
+   */
+  public static final OptionalParameter<Integer> EVALUATOR_MEMORY_BUDGET = new OptionalParameter<>();
+
+  /**
+   * The total number of cores that the Evaluators running at once may request.
+   */
+  public static final OptionalParameter<Integer> EVALUATOR_CORE_BUDGET = new OptionalParameter<>();
+
+  /**
+   * Whether to pin each Evaluator to its own set of CPUs.
+   */
+  public static final OptionalParameter<Boolean> PIN_EVALUATORS_TO_CORES = new OptionalParameter<>();
+
   /**
    * The identifier of the Job submitted.
    */
@@ -96,6 +120,10 @@ public class LocalDriverConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(RootFolder.class, ROOT_FOLDER)
       .bindNamedParameter(JVMHeapSlack.class, JVM_HEAP_SLACK)
       .bindNamedParameter(LocalThreadMode.class, IS_LOCAL_THREAD_MODE)
+      .bindNamedParameter(WarmJVMPoolSize.class, WARM_JVM_POOL_SIZE)
+      .bindNamedParameter(EvaluatorMemoryBudget.class, EVALUATOR_MEMORY_BUDGET)
+      .bindNamedParameter(EvaluatorCoreBudget.class, EVALUATOR_CORE_BUDGET)
+      .bindNamedParameter(PinEvaluatorsToCores.class, PIN_EVALUATORS_TO_CORES)
       .bindSetEntry(RackNames.class, RACK_NAMES)
       .bindImplementation(RuntimeClasspathProvider.class, LocalClasspathProvider.class)
       .bindSetEntry(DefinedRuntimes.class, RUNTIME_NAMES)
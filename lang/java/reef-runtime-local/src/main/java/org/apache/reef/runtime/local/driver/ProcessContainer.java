@@ -20,10 +20,13 @@ package org.apache.reef.runtime.local.driver;
 
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.runtime.common.files.JobArtifactCache;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.local.process.ReefRunnableProcessObserver;
 import org.apache.reef.runtime.local.process.RunnableProcess;
 import org.apache.reef.runtime.local.process.RunnableProcessObserver;
+import org.apache.reef.runtime.local.process.WarmJVM;
+import org.apache.reef.util.Optional;
 
 import java.io.File;
 import java.io.IOException;
@@ -43,6 +46,8 @@ public final class ProcessContainer implements Container {
 
   private static final Logger LOG = Logger.getLogger(ProcessContainer.class.getName());
 
+  private static final String JAR_FILE_SUFFIX = ".jar";
+
   private final String errorHandlerRID;
   private final String nodeID;
   private final File folder;
@@ -56,6 +61,11 @@ public final class ProcessContainer implements Container {
   private final RunnableProcessObserver processObserver;
   private final ThreadGroup threadGroup;
 
+  /**
+   * Pre-forked JVM to run the Evaluator in, if it turns out to be compatible with the Evaluator command.
+   */
+  private Optional<WarmJVM> warmJVM;
+
   private Thread theThread;
   private RunnableProcess process;
 
@@ -64,6 +74,7 @@ public final class ProcessContainer implements Container {
    * @param nodeID          the ID of the (fake) node this Container is instantiated on
    * @param containedID     the  ID used to identify this container uniquely
    * @param folder          the folder in which logs etc. will be deposited
+   * @param warmJVM         a pre-forked JVM running in the given folder, if available.
    */
   ProcessContainer(final String errorHandlerRID,
                    final String nodeID,
@@ -74,7 +85,8 @@ public final class ProcessContainer implements Container {
                    final String rackName,
                    final REEFFileNames fileNames,
                    final ReefRunnableProcessObserver processObserver,
-                   final ThreadGroup threadGroup) {
+                   final ThreadGroup threadGroup,
+                   final Optional<WarmJVM> warmJVM) {
 
     this.errorHandlerRID = errorHandlerRID;
     this.nodeID = nodeID;
@@ -86,6 +98,7 @@ public final class ProcessContainer implements Container {
     this.fileNames = fileNames;
     this.processObserver = processObserver;
     this.threadGroup = threadGroup;
+    this.warmJVM = warmJVM;
 
     final File reefFolder = new File(folder, fileNames.getREEFFolderName());
 
@@ -107,13 +120,19 @@ public final class ProcessContainer implements Container {
         final Path linkTargetPath = Files.readSymbolicLink(sourceFile.toPath());
         Files.createSymbolicLink(destinationFile.toPath(), linkTargetPath);
       } else {
-        Files.copy(sourceFile.toPath(), destinationFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        JobArtifactCache.linkOrCopy(sourceFile, destinationFile);
       }
     }
   }
 
   @Override
   public void addLocalFiles(final Iterable<File> files) {
+    for (final File file : files) {
+      if (this.warmJVM.isPresent() && file.getName().endsWith(JAR_FILE_SUFFIX)) {
+        // The warm JVM was started without this file on its classpath.
+        this.discardWarmJVM();
+      }
+    }
     try {
       copy(files, this.localFolder);
     } catch (final IOException e) {
@@ -123,6 +142,10 @@ public final class ProcessContainer implements Container {
 
   @Override
   public void addGlobalFiles(final File globalFilesFolder) {
+    if (this.warmJVM.isPresent()) {
+      LOG.log(Level.FINEST, "Global files were added when the warm JVM was started: {0}", this.containedID);
+      return;
+    }
     try {
       final File[] files = globalFilesFolder.listFiles();
       if (files != null) {
@@ -136,13 +159,19 @@ public final class ProcessContainer implements Container {
   @Override
   public void run(final List<String> commandLine) {
 
+    if (this.warmJVM.isPresent() && !this.warmJVM.get().canRun(commandLine)) {
+      LOG.log(Level.FINE, "Evaluator command does not match the warm JVM, launching a new one: {0}", commandLine);
+      this.discardWarmJVM();
+    }
+
     this.process = new RunnableProcess(
         commandLine,
         this.containedID,
         this.folder,
         this.processObserver,
         this.fileNames.getEvaluatorStdoutFileName(),
-        this.fileNames.getEvaluatorStderrFileName());
+        this.fileNames.getEvaluatorStderrFileName(),
+        this.warmJVM.orElse(null));
 
     this.theThread = new Thread(this.threadGroup, this.process, "ProcessContainer:" + this.containedID);
     this.theThread.start();
@@ -188,9 +217,20 @@ public final class ProcessContainer implements Container {
     if (isRunning()) {
       LOG.log(Level.WARNING, "Force-closing a container that is still running: {0}", this);
       this.process.cancel();
+    } else if (this.process == null && this.warmJVM.isPresent()) {
+      this.discardWarmJVM();
     }
   }
 
+  /**
+   * Terminates the warm JVM. The Evaluator is then launched in a new JVM in the same folder,
+   * which already holds the global files.
+   */
+  private void discardWarmJVM() {
+    this.warmJVM.get().discard();
+    this.warmJVM = Optional.empty();
+  }
+
   @Override
   public String toString() {
     return String.format(
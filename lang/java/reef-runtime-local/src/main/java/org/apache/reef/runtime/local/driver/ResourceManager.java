@@ -180,7 +180,8 @@ public final class ResourceManager {
       try (final LoggingScope lc = this.loggingScopeFactory
           .getNewLoggingScope("ResourceManager.onResourceLaunchRequest:runCommand")) {
 
-        final List<String> command = getLaunchCommand(launchRequest, c.getMemory());
+        final List<String> command =
+            this.theContainers.confine(c.getContainerID(), getLaunchCommand(launchRequest, c.getMemory()));
         LOG.log(Level.FINEST, "Launching container: {0}", c);
         c.run(command);
       }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.files.ClasspathProvider;
+import org.apache.reef.runtime.common.files.JobArtifactCache;
+import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.common.files.RuntimePathProvider;
+import org.apache.reef.runtime.common.launch.JavaLaunchCommandBuilder;
+import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
+import org.apache.reef.runtime.local.client.parameters.DefaultMemorySize;
+import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmJVMPoolSize;
+import org.apache.reef.runtime.local.process.WarmJVM;
+import org.apache.reef.runtime.local.process.WarmJVMLauncher;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.util.Optional;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A pool of pre-forked JVMs that have loaded the Evaluator classpath and wait to be handed an Evaluator.
+ * <p>
+ * The JVMs are started with the default memory size of the local runtime. Each JVM runs one Evaluator and
+ * exits with it; the pool starts a replacement whenever one is taken. ContainerManager only instantiates the pool
+ * if {@link WarmJVMPoolSize} is not 0.
+ */
+@Private
+@DriverSide
+final class WarmJVMPool implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(WarmJVMPool.class.getName());
+
+  private final Deque<WarmJVM> idleJVMs = new ArrayDeque<>();
+
+  private final int poolSize;
+  private final File rootFolder;
+  private final REEFFileNames fileNames;
+  private final List<String> command;
+
+  private int nextFolderIndex = 0;
+  private boolean closed = false;
+
+  @Inject
+  private WarmJVMPool(
+      @Parameter(WarmJVMPoolSize.class) final int poolSize,
+      @Parameter(RootFolder.class) final String rootFolderName,
+      @Parameter(DefaultMemorySize.class) final int defaultMemorySize,
+      @Parameter(JVMHeapSlack.class) final double jvmHeapSlack,
+      final REEFFileNames fileNames,
+      final RuntimePathProvider runtimePathProvider,
+      final ClasspathProvider classpathProvider) {
+
+    this.poolSize = poolSize;
+    this.rootFolder = new File(rootFolderName);
+    this.fileNames = fileNames;
+
+    // Must match the command ResourceManager builds for an Evaluator of the default memory size.
+    this.command = new JavaLaunchCommandBuilder(WarmJVMLauncher.class, null)
+        .setJavaPath(runtimePathProvider.getPath())
+        .setClassPath(classpathProvider.getEvaluatorClasspath())
+        .setMemory((int) ((1.0 - jvmHeapSlack) * defaultMemorySize))
+        .build();
+  }
+
+  /**
+   * Starts JVMs until the pool is full.
+   */
+  synchronized void fill() {
+    while (!this.closed && this.idleJVMs.size() < this.poolSize) {
+      try {
+        this.idleJVMs.addLast(this.startJVM());
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Unable to start a warm JVM. Evaluators will be launched in new JVMs.", e);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Takes an idle JVM from the pool and starts a replacement for it.
+   *
+   * @return an idle JVM, if there is one.
+   */
+  synchronized Optional<WarmJVM> take() {
+    while (!this.idleJVMs.isEmpty()) {
+      final WarmJVM warmJVM = this.idleJVMs.removeFirst();
+      if (warmJVM.isAlive()) {
+        this.fill();
+        return Optional.of(warmJVM);
+      }
+      LOG.log(Level.WARNING, "Dropping warm JVM that exited unexpectedly: {0}", warmJVM);
+    }
+    this.fill();
+    return Optional.empty();
+  }
+
+  private WarmJVM startJVM() throws IOException {
+    final File folder = new File(this.rootFolder, "warm-" + this.nextFolderIndex++);
+    final File reefFolder = new File(folder, this.fileNames.getREEFFolderName());
+    final File localFolder = new File(reefFolder, this.fileNames.getLocalFolderName());
+    final File globalFolder = new File(reefFolder, this.fileNames.getGlobalFolderName());
+    if (!localFolder.exists() && !localFolder.mkdirs()) {
+      throw new IOException("Failed to create " + localFolder.getAbsolutePath());
+    }
+    if (!globalFolder.exists() && !globalFolder.mkdirs()) {
+      throw new IOException("Failed to create " + globalFolder.getAbsolutePath());
+    }
+
+    // The JVM expands the classpath on startup, so the global files must be in place before it is forked.
+    final File[] globalFiles = this.fileNames.getGlobalFolder().listFiles();
+    if (globalFiles != null) {
+      for (final File globalFile : globalFiles) {
+        JobArtifactCache.linkOrCopy(globalFile, new File(globalFolder, globalFile.getName()));
+      }
+    }
+
+    return WarmJVM.start(this.command, folder,
+        this.fileNames.getEvaluatorStdoutFileName(), this.fileNames.getEvaluatorStderrFileName());
+  }
+
+  @Override
+  public synchronized void close() {
+    this.closed = true;
+    for (final WarmJVM warmJVM : this.idleJVMs) {
+      warmJVM.discard();
+    }
+    this.idleJVMs.clear();
+  }
+}
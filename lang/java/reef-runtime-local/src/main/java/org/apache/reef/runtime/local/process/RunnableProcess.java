@@ -81,6 +81,11 @@ public final class RunnableProcess implements Runnable {
    */
   private final RunnableProcessObserver processObserver;
 
+  /**
+   * The pre-forked JVM to run the command in. Null if a new process is started for the command.
+   */
+  private final WarmJVM warmJVM;
+
   /**
    * The process.
    */
@@ -106,8 +111,32 @@ public final class RunnableProcess implements Runnable {
       final RunnableProcessObserver processObserver,
       final String standardOutFileName,
       final String standardErrorFileName) {
+    this(command, id, folder, processObserver, standardOutFileName, standardErrorFileName, null);
+  }
+
+  /**
+   * @param command the command to execute.
+   * @param id The ID of the process. This is used to name files and in the logs created by this process.
+   * @param folder The folder in which this will store its stdout and stderr output
+   * @param processObserver will be informed of process state changes.
+   * @param standardOutFileName The name of the file used for redirecting STDOUT
+   * @param standardErrorFileName The name of the file used for redirecting STDERR
+   * @param warmJVM a pre-forked JVM that runs the command instead of a new process, or null.
+   * It must be able to run the command and have been started in the given folder.
+   */
+  public RunnableProcess(
+      final List<String> command,
+      final String id,
+      final File folder,
+      final RunnableProcessObserver processObserver,
+      final String standardOutFileName,
+      final String standardErrorFileName,
+      final WarmJVM warmJVM) {
+
+    assert warmJVM == null || warmJVM.canRun(command) && warmJVM.getFolder().equals(folder);
 
     this.processObserver = processObserver;
+    this.warmJVM = warmJVM;
     this.command = Collections.unmodifiableList(expandEnvironmentVariables(command));
     this.id = id;
     this.folder = folder;
@@ -188,12 +217,16 @@ public final class RunnableProcess implements Runnable {
             "Launching process \"{0}\"\nSTDERR can be found in {1}\nSTDOUT can be found in {2}",
             new Object[] {this.id, errFile.getAbsolutePath(), outFile.getAbsolutePath()});
 
-        this.process = new ProcessBuilder()
-            .command(this.command)
-            .directory(this.folder)
-            .redirectError(errFile)
-            .redirectOutput(outFile)
-            .start();
+        if (this.warmJVM != null) {
+          this.process = this.warmJVM.handOff(this.command);
+        } else {
+          this.process = new ProcessBuilder()
+              .command(this.command)
+              .directory(this.folder)
+              .redirectError(errFile)
+              .redirectOutput(outFile)
+              .start();
+        }
 
         this.setState(RunnableProcessState.RUNNING);
         this.processObserver.onProcessStarted(this.id);
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.process;
+
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.REEFLauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A pre-forked JVM running {@link WarmJVMLauncher} that waits to be handed an Evaluator to launch.
+ */
+@Private
+public final class WarmJVM {
+
+  private static final Logger LOG = Logger.getLogger(WarmJVM.class.getName());
+
+  /**
+   * The working folder of the JVM. Evaluators launched in it must use this folder.
+   */
+  private final File folder;
+
+  /**
+   * The command the JVM was started with, with environment variables expanded.
+   */
+  private final List<String> command;
+
+  private final Process process;
+
+  private WarmJVM(final File folder, final List<String> command, final Process process) {
+    this.folder = folder;
+    this.command = command;
+    this.process = process;
+  }
+
+  /**
+   * Forks a new JVM.
+   *
+   * @param command the command to start the JVM with. Its last element must be the {@link WarmJVMLauncher} class.
+   * @param folder the working folder of the JVM. STDOUT and STDERR are redirected to files in it.
+   * @param standardOutFileName the name of the file used for redirecting STDOUT.
+   * @param standardErrorFileName the name of the file used for redirecting STDERR.
+   * @return the new JVM.
+   * @throws IOException if the JVM can't be started.
+   */
+  public static WarmJVM start(final List<String> command,
+                              final File folder,
+                              final String standardOutFileName,
+                              final String standardErrorFileName) throws IOException {
+    final List<String> expandedCommand =
+        Collections.unmodifiableList(RunnableProcess.expandEnvironmentVariables(command));
+    final Process process = new ProcessBuilder()
+        .command(expandedCommand)
+        .directory(folder)
+        .redirectError(new File(folder, standardErrorFileName))
+        .redirectOutput(new File(folder, standardOutFileName))
+        .start();
+    LOG.log(Level.FINEST, "Started warm JVM in {0}", folder);
+    return new WarmJVM(folder, expandedCommand, process);
+  }
+
+  /**
+   * @return the working folder of the JVM.
+   */
+  public File getFolder() {
+    return this.folder;
+  }
+
+  /**
+   * @return true, if the JVM is still waiting to be used.
+   */
+  public boolean isAlive() {
+    try {
+      this.process.exitValue();
+      return false;
+    } catch (final IllegalThreadStateException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Checks whether the given Evaluator command can be executed by this JVM. This is the case if the command is
+   * the one this JVM was started with, save for the main class and its arguments: the JVM options, the heap
+   * size and the classpath must be identical.
+   *
+   * @param evaluatorCommand the command that would launch the Evaluator in a new JVM.
+   * @return true, if the Evaluator can be launched in this JVM instead.
+   */
+  public boolean canRun(final List<String> evaluatorCommand) {
+    final List<String> expandedCommand = RunnableProcess.expandEnvironmentVariables(evaluatorCommand);
+    final int launcherIndex = this.command.size() - 1;
+    return expandedCommand.size() == launcherIndex + 2
+        && expandedCommand.subList(0, launcherIndex).equals(this.command.subList(0, launcherIndex))
+        && expandedCommand.get(launcherIndex).equals(REEFLauncher.class.getName());
+  }
+
+  /**
+   * Hands the Evaluator to the JVM by sending it the arguments of the launcher.
+   *
+   * @param evaluatorCommand the command that would launch the Evaluator in a new JVM.
+   * @return the process running the Evaluator.
+   * @throws IOException if the arguments can't be sent.
+   */
+  Process handOff(final List<String> evaluatorCommand) throws IOException {
+    final List<String> expandedCommand = RunnableProcess.expandEnvironmentVariables(evaluatorCommand);
+    try (final Writer writer = new OutputStreamWriter(this.process.getOutputStream(), StandardCharsets.UTF_8)) {
+      for (final String arg : expandedCommand.subList(this.command.size(), expandedCommand.size())) {
+        writer.write(arg);
+        writer.write('\n');
+      }
+    }
+    return this.process;
+  }
+
+  /**
+   * Terminates the JVM without launching an Evaluator in it.
+   */
+  public void discard() {
+    LOG.log(Level.FINEST, "Discarding warm JVM in {0}", this.folder);
+    this.process.destroy();
+  }
+
+  @Override
+  public String toString() {
+    return "WarmJVM{folder=" + this.folder + "}";
+  }
+}
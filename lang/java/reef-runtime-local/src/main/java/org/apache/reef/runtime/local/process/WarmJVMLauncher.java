@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.process;
+
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.runtime.common.REEFLauncher;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entry point of the pre-forked JVMs kept in the warm JVM pool of the local runtime.
+ * <p>
+ * The JVM loads the REEF classes and then waits for the arguments of {@link REEFLauncher} on STDIN,
+ * one per line. Once STDIN is closed, the arguments are handed to {@link REEFLauncher#main(String[])}.
+ * If STDIN is closed without any arguments, the JVM exits without launching an Evaluator.
+ */
+@Private
+@TaskSide
+public final class WarmJVMLauncher {
+
+  private static final Logger LOG = Logger.getLogger(WarmJVMLauncher.class.getName());
+
+  /**
+   * This class is not meant to be instantiated.
+   */
+  private WarmJVMLauncher() {
+  }
+
+  public static void main(final String[] args) throws IOException {
+
+    warmUp();
+
+    final List<String> launcherArgs = new ArrayList<>(1);
+    try (final BufferedReader reader =
+             new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        launcherArgs.add(line);
+      }
+    }
+
+    if (launcherArgs.isEmpty()) {
+      LOG.log(Level.FINE, "Discarded before receiving an Evaluator to launch.");
+      return;
+    }
+
+    LOG.log(Level.FINE, "Launching Evaluator with arguments {0}", launcherArgs);
+    REEFLauncher.main(launcherArgs.toArray(new String[launcherArgs.size()]));
+  }
+
+  /**
+   * Loads and initializes the classes every Evaluator needs before its configuration is known.
+   */
+  private static void warmUp() {
+    try {
+      Class.forName(REEFLauncher.class.getName());
+      Tang.Factory.getTang().newInjector().getInstance(ConfigurationSerializer.class);
+    } catch (final ClassNotFoundException | InjectionException e) {
+      LOG.log(Level.WARNING, "Unable to warm up the JVM.", e);
+    }
+  }
+}
@@ -18,6 +18,11 @@
  */
 package org.apache.reef.runtime.local.driver;
 
+import org.apache.reef.driver.catalog.ResourceCatalog;
+import org.apache.reef.driver.evaluator.EvaluatorRequest;
+import org.apache.reef.driver.evaluator.EvaluatorRequestor;
+import org.apache.reef.runtime.common.driver.EvaluatorRequestorImpl;
+import org.apache.reef.runtime.common.driver.api.ResourceReleaseEventImpl;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
 import org.apache.reef.runtime.common.driver.api.RuntimeParameters;
@@ -27,7 +32,10 @@ import org.apache.reef.runtime.common.driver.resourcemanager.ResourceStatusEvent
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEvent;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorCoreBudget;
+import org.apache.reef.runtime.local.client.parameters.EvaluatorMemoryBudget;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
+import org.apache.reef.runtime.local.client.parameters.PinEvaluatorsToCores;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
 import org.apache.reef.tang.Injector;
@@ -37,6 +45,8 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.logging.LoggingScopeFactory;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -276,5 +286,106 @@ public class ResourceManagerTest {
 
   }
 
+  /**
+   * Requests one evaluator per node in a loop, like a driver does for its data partitions, without batching.
+   * Every request is a round trip that ends with an update of the runtime status.
+   */
+  @Test
+  public void testPartitionRequestsOneByOne() throws InjectionException {
+    final List<ResourceAllocationEvent> allocations = submitRequests(0, true);
+    Assert.assertEquals(8, allocations.size());
+    verify(mockRuntimeStatusHandler, times(16)).onNext(any(RuntimeStatusEvent.class));
+  }
+
+  /**
+   * Requests one evaluator per node in a loop with batching: requests for different nodes are not merged,
+   * so every evaluator still lands on its own node.
+   */
+  @Test
+  public void testPartitionRequestsBatched() throws InjectionException {
+    final List<ResourceAllocationEvent> allocations = submitRequests(10, true);
+    Assert.assertEquals(8, allocations.size());
+    for (int i = 0; i < allocations.size(); ++i) {
+      Assert.assertEquals("Node-" + (i + 1), allocations.get(i).getNodeId());
+    }
+    verify(mockRuntimeStatusHandler, times(16)).onNext(any(RuntimeStatusEvent.class));
+  }
+
+  /**
+   * Requests evaluators on any node in a loop with batching: the requests reach the resource manager as one,
+   * which allocates all evaluators in one pass.
+   */
+  @Test
+  public void testAnyNodeRequestsBatched() throws InjectionException {
+    final List<ResourceAllocationEvent> allocations = submitRequests(10, false);
+    Assert.assertEquals(8, allocations.size());
+    verify(mockRuntimeStatusHandler, times(9)).onNext(any(RuntimeStatusEvent.class));
+  }
 
+  /**
+   * Tests that evaluators are admitted only while their memory and cores fit in the budget,
+   * that the others wait for a release, and that admitted ones are pinned and have their heap capped.
+   */
+  @Test
+  public void testRequestsWaitForMemoryAndCores() throws InjectionException {
+    injector.bindVolatileParameter(MaxNumberOfEvaluators.class, 8);
+    injector.bindVolatileParameter(EvaluatorMemoryBudget.class, 256);
+    injector.bindVolatileParameter(EvaluatorCoreBudget.class, 3);
+    injector.bindVolatileParameter(PinEvaluatorsToCores.class, true);
+    containerManager = injector.getInstance(ContainerManager.class);
+    sendNodeDescriptors();
+    resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
+        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        filenames, loggingScopeFactory);
+
+    // 2 x 128 MB fill the memory, then 1 core of the 3 is left but no memory.
+    resourceManager.onResourceRequest(ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
+        .setMemorySize(128).build());
+    final ArgumentCaptor<ResourceAllocationEvent> argument = ArgumentCaptor.forClass(ResourceAllocationEvent.class);
+    verify(mockResourceAllocationHandler, times(2)).onNext(argument.capture());
+    final String first = argument.getAllValues().get(0).getIdentifier();
+    final String second = argument.getAllValues().get(1).getIdentifier();
+
+    Assert.assertEquals(Arrays.asList("taskset", "-c", "0", "java", "-Xmx128m", "Launcher"),
+        containerManager.confine(first, Arrays.asList("java", "-Xmx2g", "Launcher")));
+    Assert.assertEquals(Arrays.asList("taskset", "-c", "1", "java", "-Xmx100m", "Launcher"),
+        containerManager.confine(second, Arrays.asList("java", "-Xmx100m", "Launcher")));
+
+    resourceManager.onResourceReleaseRequest(ResourceReleaseEventImpl.newBuilder()
+        .setIdentifier(first).setRuntimeName(RuntimeIdentifier.RUNTIME_NAME).build());
+    verify(mockResourceAllocationHandler, times(3)).onNext(argument.capture());
+    Assert.assertEquals(Arrays.asList("taskset", "-c", "0", "java"), containerManager.confine(
+        argument.getAllValues().get(argument.getAllValues().size() - 1).getIdentifier(), Arrays.asList("java")));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ResourceAllocationEvent> submitRequests(final int batchWindow, final boolean onePerNode)
+      throws InjectionException {
+    injector.bindVolatileParameter(MaxNumberOfEvaluators.class, 8);
+    containerManager = injector.getInstance(ContainerManager.class);
+    sendNodeDescriptors();
+    resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
+        JVM_HEAP_SLACK, configurationSerializer, remoteManager,
+        filenames, loggingScopeFactory);
+    final Clock clock = mock(Clock.class);
+    final EvaluatorRequestor evaluatorRequestor = new EvaluatorRequestorImpl(mock(ResourceCatalog.class),
+        new LocalResourceRequestHandler(resourceManager), loggingScopeFactory, clock, batchWindow);
+
+    for (int i = 1; i <= 8; ++i) {
+      final EvaluatorRequest.Builder<?> request = EvaluatorRequest.newBuilder().setMemory(64);
+      if (onePerNode) {
+        request.addNodeName("Node-" + i);
+      }
+      evaluatorRequestor.submit(request.build());
+    }
+    if (batchWindow > 0) {
+      final ArgumentCaptor<EventHandler> flush = ArgumentCaptor.forClass(EventHandler.class);
+      verify(clock, times(1)).scheduleAlarm(anyInt(), flush.capture());
+      ((EventHandler<Alarm>) flush.getValue()).onNext(null);
+    }
+
+    final ArgumentCaptor<ResourceAllocationEvent> argument = ArgumentCaptor.forClass(ResourceAllocationEvent.class);
+    verify(mockResourceAllocationHandler, atLeast(0)).onNext(argument.capture());
+    return argument.getAllValues();
+  }
 }
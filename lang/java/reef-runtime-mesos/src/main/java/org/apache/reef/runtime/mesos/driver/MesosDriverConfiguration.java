@@ -32,6 +32,7 @@ import org.apache.reef.runtime.common.launch.parameters.LaunchID;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.mesos.MesosClasspathProvider;
 import org.apache.reef.runtime.mesos.driver.parameters.MesosMasterIp;
+import org.apache.reef.runtime.mesos.driver.parameters.MesosOfferHoldTime;
 import org.apache.reef.runtime.mesos.driver.parameters.MesosSlavePort;
 import org.apache.reef.runtime.mesos.driver.parameters.JobSubmissionDirectoryPrefix;
 import org.apache.reef.runtime.mesos.util.HDFSConfigurationConstructor;
@@ -71,6 +72,11 @@ public final class MesosDriverConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Integer> MESOS_SLAVE_PORT = new OptionalParameter<>();
 
+  /**
+   * How long an unused Mesos offer is held for future requests, in milliseconds.
+   */
+  public static final OptionalParameter<Long> MESOS_OFFER_HOLD_TIME = new OptionalParameter<>();
+
   /**
    * The client remote identifier.
    */
@@ -101,6 +107,7 @@ public final class MesosDriverConfiguration extends ConfigurationModuleBuilder {
 
       .bindNamedParameter(MesosMasterIp.class, MESOS_MASTER_IP)
       .bindNamedParameter(MesosSlavePort.class, MESOS_SLAVE_PORT)
+      .bindNamedParameter(MesosOfferHoldTime.class, MESOS_OFFER_HOLD_TIME)
       .bindConstructor(Configuration.class, HDFSConfigurationConstructor.class)
       .bindImplementation(RuntimeClasspathProvider.class, MesosClasspathProvider.class)
 
@@ -23,7 +23,6 @@ import org.apache.mesos.MesosSchedulerDriver;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
-import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
 import org.apache.reef.runtime.common.driver.evaluator.pojos.State;
 import org.apache.reef.runtime.common.driver.parameters.JobIdentifier;
 import org.apache.reef.runtime.common.driver.resourcemanager.NodeDescriptorEventImpl;
@@ -35,6 +34,7 @@ import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEventI
 import org.apache.reef.runtime.common.files.ClasspathProvider;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.mesos.driver.parameters.MesosMasterIp;
+import org.apache.reef.runtime.mesos.driver.parameters.MesosOfferHoldTime;
 import org.apache.reef.runtime.mesos.driver.parameters.MesosSlavePort;
 import org.apache.reef.runtime.mesos.driver.parameters.JobSubmissionDirectoryPrefix;
 import org.apache.reef.runtime.mesos.evaluator.REEFExecutor;
@@ -46,6 +46,8 @@ import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.utils.IOUtils;
@@ -57,7 +59,6 @@ import org.apache.mesos.Protos.CommandInfo;
 import org.apache.mesos.Protos.CommandInfo.URI;
 import org.apache.mesos.Protos.ExecutorID;
 import org.apache.mesos.Protos.ExecutorInfo;
-import org.apache.mesos.Protos.Filters;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.Resource;
 import org.apache.mesos.Protos.TaskID;
@@ -76,13 +77,10 @@ import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.GZIPOutputStream;
@@ -95,9 +93,9 @@ final class REEFScheduler implements Scheduler {
   private static final String REEF_TAR = "reef.tar.gz";
   private static final String RUNTIME_NAME = "MESOS";
   private static final String REEF_JOB_NAME_PREFIX = "reef-job-";
+  private static final double DECLINE_REFUSE_SECONDS = 5;
 
   private final String reefTarUri;
-  private final REEFFileNames fileNames;
   private final ClasspathProvider classpath;
 
   private final REEFEventHandlers reefEventHandlers;
@@ -105,12 +103,13 @@ final class REEFScheduler implements Scheduler {
 
   private final SchedulerDriver mesosMaster;
   private int mesosSlavePort;
-  private final String jobSubmissionDirectoryPrefix;
   private final EStage<SchedulerDriver> schedulerDriverEStage;
-  private final Map<String, Offer> offers = new ConcurrentHashMap<>();
+  private final Clock clock;
 
   private int outstandingRequestCounter = 0;
-  private final ConcurrentLinkedQueue<ResourceRequestEvent> outstandingRequests = new ConcurrentLinkedQueue<>();
+  private final ResourceOfferMatcher offerMatcher;
+  private final ResourceOfferMatcher.TaskFactory taskFactory = new ExecutorTaskFactory();
+  private boolean offerExpiryAlarmScheduled = false;
   private final Map<String, ResourceRequestEvent> executorIdToLaunchedRequests = new ConcurrentHashMap<>();
   private final REEFExecutors executors;
 
@@ -121,25 +120,61 @@ final class REEFScheduler implements Scheduler {
                 final REEFFileNames fileNames,
                 final EStage<SchedulerDriver> schedulerDriverEStage,
                 final ClasspathProvider classpath,
+                final Clock clock,
                 @Parameter(JobIdentifier.class) final String jobIdentifier,
                 @Parameter(MesosMasterIp.class) final String masterIp,
                 @Parameter(MesosSlavePort.class) final int slavePort,
-                @Parameter(JobSubmissionDirectoryPrefix.class) final String jobSubmissionDirectoryPrefix) {
+                @Parameter(JobSubmissionDirectoryPrefix.class) final String jobSubmissionDirectoryPrefix,
+                @Parameter(MesosOfferHoldTime.class) final long offerHoldTime) {
+    this(reefEventHandlers, mesosRemoteManager, executors, schedulerDriverEStage, classpath, clock,
+        getReefTarUri(fileNames, jobSubmissionDirectoryPrefix, jobIdentifier), slavePort, offerHoldTime,
+        newMesosSchedulerDriverFactory(jobIdentifier, masterIp));
+  }
+
+  /**
+   * Used by the injectable constructor, and by tests to replace the connection to the Mesos master.
+   */
+  REEFScheduler(final REEFEventHandlers reefEventHandlers,
+                final MesosRemoteManager mesosRemoteManager,
+                final REEFExecutors executors,
+                final EStage<SchedulerDriver> schedulerDriverEStage,
+                final ClasspathProvider classpath,
+                final Clock clock,
+                final String reefTarUri,
+                final int slavePort,
+                final long offerHoldTime,
+                final SchedulerDriverFactory schedulerDriverFactory) {
     this.mesosRemoteManager = mesosRemoteManager;
     this.reefEventHandlers = reefEventHandlers;
     this.executors = executors;
-    this.fileNames = fileNames;
-    this.jobSubmissionDirectoryPrefix = jobSubmissionDirectoryPrefix;
-    this.reefTarUri = getReefTarUri(jobIdentifier);
+    this.reefTarUri = reefTarUri;
     this.classpath = classpath;
     this.schedulerDriverEStage = schedulerDriverEStage;
+    this.clock = clock;
+    this.offerMatcher = new ResourceOfferMatcher(offerHoldTime, DECLINE_REFUSE_SECONDS);
+    this.mesosMaster = schedulerDriverFactory.newDriver(this);
+    this.mesosSlavePort = slavePort;
+  }
 
+  /**
+   * Creates the SchedulerDriver that connects a Scheduler to the Mesos master.
+   */
+  interface SchedulerDriverFactory {
+    SchedulerDriver newDriver(Scheduler scheduler);
+  }
+
+  private static SchedulerDriverFactory newMesosSchedulerDriverFactory(final String jobIdentifier,
+                                                                       final String masterIp) {
     final Protos.FrameworkInfo frameworkInfo = Protos.FrameworkInfo.newBuilder()
         .setUser("")
         .setName(REEF_JOB_NAME_PREFIX + jobIdentifier)
         .build();
-    this.mesosMaster = new MesosSchedulerDriver(this, frameworkInfo, masterIp);
-    this.mesosSlavePort = slavePort;
+    return new SchedulerDriverFactory() {
+      @Override
+      public SchedulerDriver newDriver(final Scheduler scheduler) {
+        return new MesosSchedulerDriver(scheduler, frameworkInfo, masterIp);
+      }
+    };
   }
 
   @Override
@@ -155,7 +190,7 @@ final class REEFScheduler implements Scheduler {
   }
 
   /**
-   * All offers in each batch of offers will be either be launched or declined.
+   * Offers are held by the offer matcher until pending requests are placed on them or they expire.
    */
   @Override
   @SuppressWarnings("checkstyle:hiddenfield")
@@ -174,25 +209,30 @@ final class REEFScheduler implements Scheduler {
         builder.setMemorySize(builder.build().getMemorySize() + getMemory(offer));
       }
 
-      this.offers.put(offer.getId().getValue(), offer);
     }
 
     for (final NodeDescriptorEventImpl.Builder ndpBuilder : nodeDescriptorEvents.values()) {
       this.reefEventHandlers.onNodeDescriptor(ndpBuilder.build());
     }
 
-    if (outstandingRequests.size() > 0) {
-      doResourceRequest(outstandingRequests.remove());
+    synchronized (this) {
+      final long now = System.currentTimeMillis();
+      for (final Offer offer : offers) {
+        this.offerMatcher.addOffer(offer, now);
+      }
+      this.matchOffers();
     }
   }
 
   @Override
-  public void offerRescinded(final SchedulerDriver driver, final Protos.OfferID offerId) {
+  public synchronized void offerRescinded(final SchedulerDriver driver, final Protos.OfferID offerId) {
+    this.offerMatcher.removeOffer(offerId);
     for (final String executorId : this.executorIdToLaunchedRequests.keySet()) {
       if (executorId.startsWith(offerId.getValue())) {
-        this.outstandingRequests.add(this.executorIdToLaunchedRequests.remove(executorId));
+        this.offerMatcher.addRequest(this.executorIdToLaunchedRequests.remove(executorId), 1);
       }
     }
+    this.matchOffers();
   }
 
   @Override
@@ -296,7 +336,10 @@ final class REEFScheduler implements Scheduler {
   public void onResourceRequest(final ResourceRequestEvent resourceRequestEvent) {
     this.outstandingRequestCounter += resourceRequestEvent.getResourceCount();
     updateRuntimeStatus();
-    doResourceRequest(resourceRequestEvent);
+    synchronized (this) {
+      this.offerMatcher.addRequest(resourceRequestEvent, resourceRequestEvent.getResourceCount());
+      this.matchOffers();
+    }
   }
 
   public void onResourceRelease(final ResourceReleaseEvent resourceReleaseEvent) {
@@ -306,79 +349,28 @@ final class REEFScheduler implements Scheduler {
   }
 
   /**
-   * Greedily acquire resources by launching a Mesos Task(w/ our custom MesosExecutor) on REEF Evaluator request.
-   * Either called from onResourceRequest(for a new request) or resourceOffers(for an outstanding request).
-   * TODO[JIRA REEF-102]: reflect priority and rack/node locality specified in resourceRequestEvent.
+   * Acquire resources by launching Mesos Tasks (w/ our custom MesosExecutor) for the pending REEF Evaluator requests
+   * that fit on the held offers. Called whenever requests or offers change, and when held offers expire.
+   * TODO[JIRA REEF-102]: reflect priority and rack locality specified in resourceRequestEvent.
    */
-  private synchronized void doResourceRequest(final ResourceRequestEvent resourceRequestEvent) {
-    int tasksToLaunchCounter = resourceRequestEvent.getResourceCount();
-
-    for (final Offer offer : this.offers.values()) {
-      final int cpuSlots = getCpu(offer) / resourceRequestEvent.getVirtualCores().get();
-      final int memSlots = getMemory(offer) / resourceRequestEvent.getMemorySize().get();
-      final int taskNum = Math.min(Math.min(cpuSlots, memSlots), tasksToLaunchCounter);
-
-      if (taskNum > 0 && satisfySlaveConstraint(resourceRequestEvent, offer)) {
-        final List<TaskInfo> tasksToLaunch = new ArrayList<>();
-        tasksToLaunchCounter -= taskNum;
-
-        // Launch as many MesosTasks on the same node(offer) as possible to exploit locality.
-        for (int j = 0; j < taskNum; j++) {
-          final String id = offer.getId().getValue() + "-" + String.valueOf(j);
-          final String executorLaunchCommand = getExecutorLaunchCommand(id, resourceRequestEvent.getMemorySize().get());
-
-          final ExecutorInfo executorInfo = ExecutorInfo.newBuilder()
-              .setExecutorId(ExecutorID.newBuilder()
-                  .setValue(id)
-                  .build())
-              .setCommand(CommandInfo.newBuilder()
-                  .setValue(executorLaunchCommand)
-                  .addUris(URI.newBuilder().setValue(reefTarUri).build())
-                  .build())
-              .build();
-
-          final TaskInfo taskInfo = TaskInfo.newBuilder()
-              .setTaskId(TaskID.newBuilder()
-                  .setValue(id)
-                  .build())
-              .setName(id)
-              .setSlaveId(offer.getSlaveId())
-              .addResources(Resource.newBuilder()
-                      .setName("mem")
-                      .setType(Type.SCALAR)
-                      .setScalar(Value.Scalar.newBuilder()
-                              .setValue(resourceRequestEvent.getMemorySize().get())
-                              .build())
-                      .build())
-              .addResources(Resource.newBuilder()
-                      .setName("cpus")
-                      .setType(Type.SCALAR)
-                      .setScalar(Value.Scalar.newBuilder()
-                              .setValue(resourceRequestEvent.getVirtualCores().get())
-                              .build())
-                      .build())
-              .setExecutor(executorInfo)
-              .build();
-
-          tasksToLaunch.add(taskInfo);
-          this.executorIdToLaunchedRequests.put(id, resourceRequestEvent);
-        }
-
-        final Filters filters = Filters.newBuilder().setRefuseSeconds(0).build();
-        mesosMaster.launchTasks(Collections.singleton(offer.getId()), tasksToLaunch, filters);
-      } else {
-        mesosMaster.declineOffer(offer.getId());
+  private synchronized void matchOffers() {
+    final long nextExpiry = this.offerMatcher.match(this.mesosMaster, this.taskFactory, System.currentTimeMillis());
+    if (nextExpiry >= 0 && !this.offerExpiryAlarmScheduled) {
+      try {
+        this.clock.scheduleAlarm((int) nextExpiry, new EventHandler<Alarm>() {
+          @Override
+          public void onNext(final Alarm alarm) {
+            synchronized (REEFScheduler.this) {
+              offerExpiryAlarmScheduled = false;
+              matchOffers();
+            }
+          }
+        });
+        this.offerExpiryAlarmScheduled = true;
+      } catch (final IllegalStateException e) {
+        LOG.log(Level.FINE, "The clock is closed, held offers will not be declined on expiry.", e);
       }
     }
-
-    // the offers are no longer valid(all launched or declined)
-    this.offers.clear();
-
-    // Save leftovers that couldn't be launched
-    outstandingRequests.add(ResourceRequestEventImpl.newBuilder()
-        .mergeFrom(resourceRequestEvent)
-        .setResourceCount(tasksToLaunchCounter)
-        .build());
   }
 
   private void handleNewExecutor(final Protos.TaskStatus taskStatus) {
@@ -438,11 +430,6 @@ final class REEFScheduler implements Scheduler {
     this.reefEventHandlers.onRuntimeStatus(runtimeStatusBuilder.build());
   }
 
-  private boolean satisfySlaveConstraint(final ResourceRequestEvent resourceRequestEvent, final Offer offer) {
-    return resourceRequestEvent.getNodeNameList().size() == 0 ||
-        resourceRequestEvent.getNodeNameList().contains(offer.getSlaveId().getValue());
-  }
-
   private int getMemory(final Offer offer) {
     for (final Resource resource : offer.getResourcesList()) {
       if (resource.getName().equals("mem")) {
@@ -452,15 +439,6 @@ final class REEFScheduler implements Scheduler {
     return 0;
   }
 
-  private int getCpu(final Offer offer) {
-    for (final Resource resource : offer.getResourcesList()) {
-      if (resource.getName().equals("cpus")) {
-        return (int)resource.getScalar().getValue();
-      }
-    }
-    return 0;
-  }
-
   private String getExecutorLaunchCommand(final String executorID, final int memorySize) {
     final String defaultJavaPath = System.getenv("JAVA_HOME") + "/bin/" +  "java";
     final String classPath = "-classpath " + StringUtils.join(this.classpath.getEvaluatorClasspath(), ":");
@@ -479,13 +457,15 @@ final class REEFScheduler implements Scheduler {
         .toString();
   }
 
-  private String getReefTarUri(final String jobIdentifier) {
+  private static String getReefTarUri(final REEFFileNames fileNames,
+                                      final String jobSubmissionDirectoryPrefix,
+                                      final String jobIdentifier) {
     try {
       // Create REEF_TAR
       final FileOutputStream fileOutputStream = new FileOutputStream(REEF_TAR);
       final TarArchiveOutputStream tarArchiveOutputStream =
           new TarArchiveOutputStream(new GZIPOutputStream(fileOutputStream));
-      final File globalFolder = new File(this.fileNames.getGlobalFolderPath());
+      final File globalFolder = new File(fileNames.getGlobalFolderPath());
       final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(globalFolder.toPath());
 
       for (final Path path : directoryStream) {
@@ -505,7 +485,7 @@ final class REEFScheduler implements Scheduler {
       // Upload REEF_TAR to HDFS
       final FileSystem fileSystem = FileSystem.get(new Configuration());
       final org.apache.hadoop.fs.Path src = new org.apache.hadoop.fs.Path(REEF_TAR);
-      final String reefTarUriValue = fileSystem.getUri().toString() + this.jobSubmissionDirectoryPrefix + "/" +
+      final String reefTarUriValue = fileSystem.getUri().toString() + jobSubmissionDirectoryPrefix + "/" +
           jobIdentifier + "/" + REEF_TAR;
       final org.apache.hadoop.fs.Path dst = new org.apache.hadoop.fs.Path(reefTarUriValue);
       fileSystem.copyFromLocalFile(src, dst);
@@ -515,4 +495,50 @@ final class REEFScheduler implements Scheduler {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Creates the Mesos Task that runs our custom MesosExecutor for an Evaluator placed on an offer.
+   */
+  final class ExecutorTaskFactory implements ResourceOfferMatcher.TaskFactory {
+    @Override
+    public TaskInfo newTask(final String id, final Offer offer, final ResourceRequestEvent resourceRequestEvent) {
+      final String executorLaunchCommand = getExecutorLaunchCommand(id, resourceRequestEvent.getMemorySize().get());
+
+      final ExecutorInfo executorInfo = ExecutorInfo.newBuilder()
+          .setExecutorId(ExecutorID.newBuilder()
+              .setValue(id)
+              .build())
+          .setCommand(CommandInfo.newBuilder()
+              .setValue(executorLaunchCommand)
+              .addUris(URI.newBuilder().setValue(reefTarUri).build())
+              .build())
+          .build();
+
+      final TaskInfo taskInfo = TaskInfo.newBuilder()
+          .setTaskId(TaskID.newBuilder()
+              .setValue(id)
+              .build())
+          .setName(id)
+          .setSlaveId(offer.getSlaveId())
+          .addResources(Resource.newBuilder()
+                  .setName("mem")
+                  .setType(Type.SCALAR)
+                  .setScalar(Value.Scalar.newBuilder()
+                          .setValue(resourceRequestEvent.getMemorySize().get())
+                          .build())
+                  .build())
+          .addResources(Resource.newBuilder()
+                  .setName("cpus")
+                  .setType(Type.SCALAR)
+                  .setScalar(Value.Scalar.newBuilder()
+                          .setValue(resourceRequestEvent.getVirtualCores().get())
+                          .build())
+                  .build())
+          .setExecutor(executorInfo)
+          .build();
+
+      executorIdToLaunchedRequests.put(id, resourceRequestEvent);
+      return taskInfo;
+    }
+  }
 }
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.mesos.driver;
+
+import org.apache.mesos.Protos.Filters;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.SchedulerDriver;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Matches pending resource requests against the Mesos offers held by the scheduler.
+ * <p>
+ * Offers are held until they are used or until the hold time runs out, so that requests arriving shortly
+ * after an offer can still use it. On every match, all pending requests are bin-packed across the held offers
+ * by best fit decreasing: the largest requests are placed first, each on the node whose remaining memory and cores
+ * fit it most tightly. Offers of the same node are packed together. Only offers that nothing was placed on
+ * within the hold time are declined.
+ */
+@DriverSide
+@Private
+@NotThreadSafe
+final class ResourceOfferMatcher {
+  private static final Logger LOG = Logger.getLogger(ResourceOfferMatcher.class.getName());
+
+  /**
+   * Creates the Mesos task for one evaluator placed on an offer.
+   */
+  interface TaskFactory {
+    TaskInfo newTask(String taskId, Offer offer, ResourceRequestEvent request);
+  }
+
+  private final long holdTimeMs;
+  private final Filters declineFilters;
+
+  /** Held offers by offer id, in the order they were received. */
+  private final Map<String, HeldOffer> heldOffers = new LinkedHashMap<>();
+
+  /** Requests that still wait for evaluators, in the order they were made. */
+  private final List<PendingRequest> pendingRequests = new ArrayList<>();
+
+  /**
+   * @param holdTimeMs how long an offer is held before it is declined, if nothing is placed on it.
+   * @param declineRefuseSeconds how long Mesos should not offer the resources of a declined offer again.
+   */
+  ResourceOfferMatcher(final long holdTimeMs, final double declineRefuseSeconds) {
+    this.holdTimeMs = holdTimeMs;
+    this.declineFilters = Filters.newBuilder().setRefuseSeconds(declineRefuseSeconds).build();
+  }
+
+  void addOffer(final Offer offer, final long nowMs) {
+    this.heldOffers.put(offer.getId().getValue(), new HeldOffer(offer, nowMs));
+  }
+
+  void removeOffer(final OfferID offerId) {
+    this.heldOffers.remove(offerId.getValue());
+  }
+
+  void addRequest(final ResourceRequestEvent request, final int count) {
+    if (count > 0) {
+      this.pendingRequests.add(new PendingRequest(request, count));
+    }
+  }
+
+  int getNumHeldOffers() {
+    return this.heldOffers.size();
+  }
+
+  int getNumPendingEvaluators() {
+    int count = 0;
+    for (final PendingRequest pending : this.pendingRequests) {
+      count += pending.remaining;
+    }
+    return count;
+  }
+
+  /**
+   * Places as many pending evaluators as possible on the held offers, launches them,
+   * and declines the held offers that expired.
+   * @return milliseconds until the next held offer expires, or -1 if no offer is held.
+   */
+  long match(final SchedulerDriver driver, final TaskFactory taskFactory, final long nowMs) {
+    final Map<String, Node> nodes = new LinkedHashMap<>();
+    for (final HeldOffer heldOffer : this.heldOffers.values()) {
+      final String slaveId = heldOffer.offer.getSlaveId().getValue();
+      Node node = nodes.get(slaveId);
+      if (node == null) {
+        node = new Node(slaveId);
+        nodes.put(slaveId, node);
+      }
+      node.add(heldOffer);
+    }
+
+    // Largest requests first, so that small ones fill the gaps they leave.
+    final List<PendingRequest> bySize = new ArrayList<>(this.pendingRequests);
+    Collections.sort(bySize, new Comparator<PendingRequest>() {
+      @Override
+      public int compare(final PendingRequest a, final PendingRequest b) {
+        if (a.memory != b.memory) {
+          return a.memory > b.memory ? -1 : 1;
+        }
+        return Integer.compare(b.cores, a.cores);
+      }
+    });
+
+    for (final PendingRequest pending : bySize) {
+      while (pending.remaining > 0) {
+        final Node node = findBestFit(nodes.values(), pending);
+        if (node == null) {
+          break;
+        }
+        node.place(pending);
+        --pending.remaining;
+      }
+    }
+
+    for (final Iterator<PendingRequest> it = this.pendingRequests.iterator(); it.hasNext();) {
+      if (it.next().remaining == 0) {
+        it.remove();
+      }
+    }
+
+    long nextExpiryMs = -1;
+    for (final Node node : nodes.values()) {
+      if (!node.placed.isEmpty()) {
+        this.launch(driver, taskFactory, node);
+        continue;
+      }
+
+      for (final HeldOffer heldOffer : node.offers) {
+        final long expiryMs = heldOffer.receivedMs + this.holdTimeMs;
+        if (expiryMs <= nowMs) {
+          this.heldOffers.remove(heldOffer.offer.getId().getValue());
+          driver.declineOffer(heldOffer.offer.getId(), this.declineFilters);
+        } else if (nextExpiryMs < 0 || expiryMs - nowMs < nextExpiryMs) {
+          nextExpiryMs = expiryMs - nowMs;
+        }
+      }
+    }
+
+    return nextExpiryMs;
+  }
+
+  /**
+   * Launches the evaluators placed on a node, using all held offers of that node.
+   * Mesos returns the unused part of the offers to the allocator.
+   */
+  private void launch(final SchedulerDriver driver, final TaskFactory taskFactory, final Node node) {
+    final Offer firstOffer = node.offers.get(0).offer;
+    final List<OfferID> offerIds = new ArrayList<>(node.offers.size());
+    for (final HeldOffer heldOffer : node.offers) {
+      offerIds.add(heldOffer.offer.getId());
+      this.heldOffers.remove(heldOffer.offer.getId().getValue());
+    }
+
+    final List<TaskInfo> tasks = new ArrayList<>(node.placed.size());
+    for (int i = 0; i < node.placed.size(); ++i) {
+      final String taskId = firstOffer.getId().getValue() + "-" + i;
+      tasks.add(taskFactory.newTask(taskId, firstOffer, node.placed.get(i)));
+    }
+
+    LOG.log(Level.FINE, "Launching {0} evaluators on {1} using {2} offers",
+        new Object[] {tasks.size(), node.slaveId, offerIds.size()});
+    driver.launchTasks(offerIds, tasks, Filters.newBuilder().setRefuseSeconds(0).build());
+  }
+
+  /**
+   * @return the node that the request fits on with the least memory and then cores left over, or null if none.
+   */
+  private static Node findBestFit(final Iterable<Node> nodes, final PendingRequest pending) {
+    Node best = null;
+    for (final Node node : nodes) {
+      if (node.fits(pending) && (best == null ||
+          node.memory < best.memory || node.memory == best.memory && node.cores < best.cores)) {
+        best = node;
+      }
+    }
+    return best;
+  }
+
+  private static double getScalar(final Offer offer, final String name) {
+    for (final Resource resource : offer.getResourcesList()) {
+      if (resource.getName().equals(name)) {
+        return resource.getScalar().getValue();
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * An offer and when it was received.
+   */
+  private static final class HeldOffer {
+    private final Offer offer;
+    private final long receivedMs;
+
+    private HeldOffer(final Offer offer, final long receivedMs) {
+      this.offer = offer;
+      this.receivedMs = receivedMs;
+    }
+  }
+
+  /**
+   * A request and the number of its evaluators that are not placed yet.
+   */
+  private static final class PendingRequest {
+    private final ResourceRequestEvent request;
+    private final int memory;
+    private final int cores;
+    private int remaining;
+
+    private PendingRequest(final ResourceRequestEvent request, final int remaining) {
+      this.request = request;
+      this.memory = request.getMemorySize().get();
+      this.cores = request.getVirtualCores().get();
+      this.remaining = remaining;
+    }
+  }
+
+  /**
+   * The held offers of one node, their resources left during a match, and the requests placed on them.
+   */
+  private static final class Node {
+    private final String slaveId;
+    private final List<HeldOffer> offers = new ArrayList<>();
+    private final List<ResourceRequestEvent> placed = new ArrayList<>();
+    private double memory = 0;
+    private double cores = 0;
+
+    private Node(final String slaveId) {
+      this.slaveId = slaveId;
+    }
+
+    private void add(final HeldOffer heldOffer) {
+      this.offers.add(heldOffer);
+      this.memory += getScalar(heldOffer.offer, "mem");
+      this.cores += getScalar(heldOffer.offer, "cpus");
+    }
+
+    private boolean fits(final PendingRequest pending) {
+      final List<String> nodeNames = pending.request.getNodeNameList();
+      return pending.memory <= this.memory && pending.cores <= this.cores &&
+          (nodeNames.isEmpty() || nodeNames.contains(this.slaveId));
+    }
+
+    private void place(final PendingRequest pending) {
+      this.memory -= pending.memory;
+      this.cores -= pending.cores;
+      this.placed.add(pending.request);
+    }
+  }
+}
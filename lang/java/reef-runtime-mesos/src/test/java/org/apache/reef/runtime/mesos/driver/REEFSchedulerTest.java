@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.mesos.driver;
+
+import org.apache.mesos.Protos.Filters;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Scheduler;
+import org.apache.mesos.SchedulerDriver;
+import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
+import org.apache.reef.runtime.common.driver.resourcemanager.NodeDescriptorEvent;
+import org.apache.reef.runtime.common.files.ClasspathProvider;
+import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
+import org.apache.reef.runtime.mesos.MesosClasspathProvider;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for REEFScheduler, with a mocked SchedulerDriver in place of the connection to the Mesos master.
+ */
+public final class REEFSchedulerTest {
+
+  private static final String REEF_TAR_URI = "hdfs://namenode/reef-job/reef.tar.gz";
+  private static final long HOLD_TIME_MS = 60000;
+
+  private SchedulerDriver driver;
+  private Clock clock;
+  private EventHandler<NodeDescriptorEvent> nodeDescriptorHandler;
+  private ClasspathProvider classpath;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    this.driver = mock(SchedulerDriver.class);
+    this.clock = mock(Clock.class);
+    this.nodeDescriptorHandler = mock(EventHandler.class);
+    this.classpath = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(RuntimeClasspathProvider.class, MesosClasspathProvider.class)
+        .build()).getInstance(ClasspathProvider.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private REEFScheduler newScheduler(final long offerHoldTime) {
+    final REEFEventHandlers handlers = new REEFEventHandlers(
+        mock(EventHandler.class), mock(EventHandler.class), this.nodeDescriptorHandler, mock(EventHandler.class));
+    return new REEFScheduler(handlers, null, new REEFExecutors(), mock(EStage.class), this.classpath, this.clock,
+        REEF_TAR_URI, 5051, offerHoldTime, new REEFScheduler.SchedulerDriverFactory() {
+          @Override
+          public SchedulerDriver newDriver(final Scheduler scheduler) {
+            return driver;
+          }
+        });
+  }
+
+  /**
+   * A request made after an offer arrived is launched on the held offer.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testRequestLaunchedOnHeldOffer() {
+    final REEFScheduler scheduler = newScheduler(HOLD_TIME_MS);
+    final Offer offer = ResourceOfferMatcherTest.newOffer("offer-1", "slave-1", 4096, 4);
+    scheduler.resourceOffers(this.driver, Arrays.asList(offer));
+    verify(this.nodeDescriptorHandler).onNext(any(NodeDescriptorEvent.class));
+    verify(this.clock).scheduleAlarm(anyInt(), any(EventHandler.class));
+    verify(this.driver, never()).launchTasks(anyCollectionOf(OfferID.class), anyCollectionOf(TaskInfo.class),
+        any(Filters.class));
+
+    scheduler.onResourceRequest(ResourceOfferMatcherTest.newRequest(1024, 1));
+
+    final ArgumentCaptor<Collection> tasks = ArgumentCaptor.forClass(Collection.class);
+    verify(this.driver).launchTasks(eq(Arrays.asList(offer.getId())), tasks.capture(), any(Filters.class));
+    Assert.assertEquals(1, tasks.getValue().size());
+    final TaskInfo task = (TaskInfo) tasks.getValue().iterator().next();
+    Assert.assertEquals("slave-1", task.getSlaveId().getValue());
+    Assert.assertEquals(REEF_TAR_URI, task.getExecutor().getCommand().getUris(0).getValue());
+    Assert.assertTrue(task.getExecutor().getCommand().getValue().contains("-Xmx1024m"));
+    verify(this.driver, never()).declineOffer(any(OfferID.class), any(Filters.class));
+  }
+
+  /**
+   * Several pending requests are launched together on one offer.
+   */
+  @Test
+  public void testSeveralRequestsOnOneOffer() {
+    final REEFScheduler scheduler = newScheduler(HOLD_TIME_MS);
+    scheduler.onResourceRequest(ResourceOfferMatcherTest.newRequest(1024, 1));
+    scheduler.onResourceRequest(ResourceRequestEventImpl.newBuilder()
+        .setResourceCount(2)
+        .setMemorySize(512)
+        .setVirtualCores(1)
+        .build());
+
+    final Offer offer = ResourceOfferMatcherTest.newOffer("offer-1", "slave-1", 4096, 4);
+    scheduler.resourceOffers(this.driver, Arrays.asList(offer));
+
+    final ArgumentCaptor<Collection> tasks = ArgumentCaptor.forClass(Collection.class);
+    verify(this.driver).launchTasks(eq(Arrays.asList(offer.getId())), tasks.capture(), any(Filters.class));
+    Assert.assertEquals(3, tasks.getValue().size());
+    verify(this.driver, never()).declineOffer(any(OfferID.class), any(Filters.class));
+  }
+
+  /**
+   * Only part of a request fits on the offers; the rest launches on a later offer.
+   */
+  @Test
+  public void testPartialFit() {
+    final REEFScheduler scheduler = newScheduler(HOLD_TIME_MS);
+    scheduler.onResourceRequest(ResourceRequestEventImpl.newBuilder()
+        .setResourceCount(3)
+        .setMemorySize(1024)
+        .setVirtualCores(1)
+        .build());
+
+    final Offer first = ResourceOfferMatcherTest.newOffer("offer-1", "slave-1", 2048, 2);
+    scheduler.resourceOffers(this.driver, Arrays.asList(first));
+    final ArgumentCaptor<Collection> tasks = ArgumentCaptor.forClass(Collection.class);
+    verify(this.driver).launchTasks(eq(Arrays.asList(first.getId())), tasks.capture(), any(Filters.class));
+    Assert.assertEquals(2, tasks.getValue().size());
+
+    final Offer second = ResourceOfferMatcherTest.newOffer("offer-2", "slave-2", 2048, 2);
+    scheduler.resourceOffers(this.driver, Arrays.asList(second));
+    verify(this.driver).launchTasks(eq(Arrays.asList(second.getId())), tasks.capture(), any(Filters.class));
+    Assert.assertEquals(1, tasks.getValue().size());
+  }
+
+  /**
+   * Offers that nothing is placed on are declined once they expire, not before.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testUnusedOffersDeclinedOnExpiry() {
+    final REEFScheduler scheduler = newScheduler(HOLD_TIME_MS);
+    final Offer offer = ResourceOfferMatcherTest.newOffer("offer-1", "slave-1", 1024, 1);
+    scheduler.resourceOffers(this.driver, Arrays.asList(offer));
+
+    final ArgumentCaptor<EventHandler> alarmHandler = ArgumentCaptor.forClass(EventHandler.class);
+    verify(this.clock).scheduleAlarm(anyInt(), alarmHandler.capture());
+    alarmHandler.getValue().onNext(mock(Alarm.class));
+    verify(this.driver, never()).declineOffer(any(OfferID.class), any(Filters.class));
+
+    final REEFScheduler expiringScheduler = newScheduler(0);
+    expiringScheduler.resourceOffers(this.driver, Arrays.asList(offer));
+    verify(this.driver).declineOffer(eq(offer.getId()), any(Filters.class));
+    verify(this.driver, never()).launchTasks(anyCollectionOf(OfferID.class), anyCollectionOf(TaskInfo.class),
+        any(Filters.class));
+  }
+
+  /**
+   * Evaluators launched on a rescinded offer are placed again on the next offer.
+   */
+  @Test
+  public void testRescindedOfferRequestsArePlacedAgain() {
+    final REEFScheduler scheduler = newScheduler(HOLD_TIME_MS);
+    final Offer first = ResourceOfferMatcherTest.newOffer("offer-1", "slave-1", 1024, 1);
+    scheduler.resourceOffers(this.driver, Arrays.asList(first));
+    scheduler.onResourceRequest(ResourceOfferMatcherTest.newRequest(1024, 1));
+    verify(this.driver).launchTasks(eq(Arrays.asList(first.getId())), anyCollectionOf(TaskInfo.class),
+        any(Filters.class));
+
+    scheduler.offerRescinded(this.driver, first.getId());
+    final Offer second = ResourceOfferMatcherTest.newOffer("offer-2", "slave-2", 1024, 1);
+    scheduler.resourceOffers(this.driver, Arrays.asList(second));
+    verify(this.driver).launchTasks(eq(Arrays.asList(second.getId())), anyCollectionOf(TaskInfo.class),
+        any(Filters.class));
+  }
+}
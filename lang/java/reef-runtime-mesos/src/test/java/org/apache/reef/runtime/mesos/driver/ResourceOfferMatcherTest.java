@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.mesos.driver;
+
+import org.apache.mesos.Protos.Filters;
+import org.apache.mesos.Protos.FrameworkID;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.OfferID;
+import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.SlaveID;
+import org.apache.mesos.Protos.TaskID;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.Value;
+import org.apache.mesos.SchedulerDriver;
+import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
+import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for ResourceOfferMatcher, against a mocked SchedulerDriver.
+ */
+public final class ResourceOfferMatcherTest {
+
+  private static final long HOLD_TIME_MS = 1000;
+
+  private SchedulerDriver driver;
+  private RecordingTaskFactory taskFactory;
+  private ResourceOfferMatcher matcher;
+
+  @Before
+  public void setUp() {
+    this.driver = mock(SchedulerDriver.class);
+    this.taskFactory = new RecordingTaskFactory();
+    this.matcher = new ResourceOfferMatcher(HOLD_TIME_MS, 5);
+  }
+
+  /**
+   * All evaluators of several requests that fit on one offer are launched on it at once.
+   */
+  @Test
+  public void testSeveralRequestsOnOneOffer() {
+    final Offer offer = newOffer("offer-1", "slave-1", 4096, 4);
+    this.matcher.addOffer(offer, 0);
+    this.matcher.addRequest(newRequest(1024, 1), 2);
+    this.matcher.addRequest(newRequest(2048, 2), 1);
+
+    Assert.assertEquals(-1, this.matcher.match(this.driver, this.taskFactory, 10));
+
+    final List<Collection<OfferID>> launchedOffers = captureLaunches(1);
+    Assert.assertEquals(Arrays.asList(offer.getId()), new ArrayList<>(launchedOffers.get(0)));
+    Assert.assertEquals(3, this.taskFactory.getTasks("slave-1").size());
+    Assert.assertEquals(0, this.matcher.getNumHeldOffers());
+    Assert.assertEquals(0, this.matcher.getNumPendingEvaluators());
+    verify(this.driver, never()).declineOffer(any(OfferID.class), any(Filters.class));
+  }
+
+  /**
+   * Evaluators that don't fit stay pending and are placed on a later offer.
+   */
+  @Test
+  public void testPartialFit() {
+    this.matcher.addOffer(newOffer("offer-1", "slave-1", 2048, 4), 0);
+    this.matcher.addRequest(newRequest(1024, 1), 3);
+
+    this.matcher.match(this.driver, this.taskFactory, 0);
+    Assert.assertEquals(2, this.taskFactory.getTasks("slave-1").size());
+    Assert.assertEquals(1, this.matcher.getNumPendingEvaluators());
+
+    this.matcher.addOffer(newOffer("offer-2", "slave-2", 1024, 1), 100);
+    this.matcher.match(this.driver, this.taskFactory, 100);
+    Assert.assertEquals(1, this.taskFactory.getTasks("slave-2").size());
+    Assert.assertEquals(0, this.matcher.getNumPendingEvaluators());
+    captureLaunches(2);
+  }
+
+  /**
+   * Cores limit the placement as well as memory.
+   */
+  @Test
+  public void testCoresLimitFit() {
+    this.matcher.addOffer(newOffer("offer-1", "slave-1", 8192, 2), 0);
+    this.matcher.addRequest(newRequest(1024, 1), 3);
+
+    this.matcher.match(this.driver, this.taskFactory, 0);
+    Assert.assertEquals(2, this.taskFactory.getTasks("slave-1").size());
+    Assert.assertEquals(1, this.matcher.getNumPendingEvaluators());
+  }
+
+  /**
+   * The largest request goes to the node it fits most tightly, leaving the larger node to the smaller requests.
+   */
+  @Test
+  public void testBestFitDecreasing() {
+    this.matcher.addOffer(newOffer("offer-1", "slave-1", 3072, 3), 0);
+    this.matcher.addOffer(newOffer("offer-2", "slave-2", 2048, 2), 0);
+    this.matcher.addRequest(newRequest(1024, 1), 3);
+    this.matcher.addRequest(newRequest(2048, 2), 1);
+
+    this.matcher.match(this.driver, this.taskFactory, 0);
+    Assert.assertEquals(Arrays.asList(2048), this.taskFactory.getMemorySizes("slave-2"));
+    Assert.assertEquals(Arrays.asList(1024, 1024, 1024), this.taskFactory.getMemorySizes("slave-1"));
+    Assert.assertEquals(0, this.matcher.getNumPendingEvaluators());
+  }
+
+  /**
+   * Offers of the same node are combined, and launched together.
+   */
+  @Test
+  public void testOffersOfOneNodeAreCombined() {
+    final Offer first = newOffer("offer-1", "slave-1", 1024, 1);
+    final Offer second = newOffer("offer-2", "slave-1", 1024, 1);
+    this.matcher.addOffer(first, 0);
+    this.matcher.addOffer(second, 0);
+    this.matcher.addRequest(newRequest(2048, 2), 1);
+
+    this.matcher.match(this.driver, this.taskFactory, 0);
+    final List<Collection<OfferID>> launchedOffers = captureLaunches(1);
+    Assert.assertEquals(Arrays.asList(first.getId(), second.getId()), new ArrayList<>(launchedOffers.get(0)));
+    Assert.assertEquals(1, this.taskFactory.getTasks("slave-1").size());
+  }
+
+  /**
+   * Requests naming nodes are only placed on those nodes.
+   */
+  @Test
+  public void testNodeNames() {
+    this.matcher.addOffer(newOffer("offer-1", "slave-1", 4096, 4), 0);
+    this.matcher.addOffer(newOffer("offer-2", "slave-2", 4096, 4), 0);
+    this.matcher.addRequest(ResourceRequestEventImpl.newBuilder()
+        .setResourceCount(1)
+        .setMemorySize(1024)
+        .setVirtualCores(1)
+        .addNodeName("slave-2")
+        .build(), 1);
+
+    this.matcher.match(this.driver, this.taskFactory, 0);
+    Assert.assertTrue(this.taskFactory.getTasks("slave-1").isEmpty());
+    Assert.assertEquals(1, this.taskFactory.getTasks("slave-2").size());
+  }
+
+  /**
+   * Unused offers are held for the hold time, so later requests can use them, and only then declined.
+   */
+  @Test
+  public void testUnusedOffersAreDeclinedAfterHoldTime() {
+    final Offer used = newOffer("offer-1", "slave-1", 1024, 1);
+    final Offer unused = newOffer("offer-2", "slave-2", 1024, 1);
+    this.matcher.addOffer(used, 0);
+    this.matcher.addOffer(unused, 200);
+
+    Assert.assertEquals(HOLD_TIME_MS - 100, this.matcher.match(this.driver, this.taskFactory, 100));
+    Assert.assertEquals(2, this.matcher.getNumHeldOffers());
+
+    this.matcher.addRequest(newRequest(1024, 1), 1);
+    Assert.assertEquals(HOLD_TIME_MS - 300, this.matcher.match(this.driver, this.taskFactory, 500));
+    captureLaunches(1);
+    Assert.assertEquals(1, this.matcher.getNumHeldOffers());
+    verify(this.driver, never()).declineOffer(any(OfferID.class), any(Filters.class));
+
+    Assert.assertEquals(-1, this.matcher.match(this.driver, this.taskFactory, HOLD_TIME_MS + 200));
+    verify(this.driver).declineOffer(eq(unused.getId()), any(Filters.class));
+    Assert.assertEquals(0, this.matcher.getNumHeldOffers());
+  }
+
+  /**
+   * A rescinded offer is no longer used or declined.
+   */
+  @Test
+  public void testRemovedOfferIsNotUsed() {
+    final Offer offer = newOffer("offer-1", "slave-1", 1024, 1);
+    this.matcher.addOffer(offer, 0);
+    this.matcher.removeOffer(offer.getId());
+    this.matcher.addRequest(newRequest(1024, 1), 1);
+
+    Assert.assertEquals(-1, this.matcher.match(this.driver, this.taskFactory, HOLD_TIME_MS));
+    Assert.assertEquals(1, this.matcher.getNumPendingEvaluators());
+    verify(this.driver, never()).declineOffer(any(OfferID.class), any(Filters.class));
+    captureLaunches(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Collection<OfferID>> captureLaunches(final int expectedLaunches) {
+    final ArgumentCaptor<Collection> offerIds = ArgumentCaptor.forClass(Collection.class);
+    verify(this.driver, times(expectedLaunches))
+        .launchTasks(offerIds.capture(), anyCollectionOf(TaskInfo.class), any(Filters.class));
+    final List<Collection<OfferID>> result = new ArrayList<>();
+    for (final Collection launched : offerIds.getAllValues()) {
+      result.add((Collection<OfferID>) launched);
+    }
+    return result;
+  }
+
+  static Offer newOffer(final String offerId, final String slaveId, final double memory, final double cores) {
+    return Offer.newBuilder()
+        .setId(OfferID.newBuilder().setValue(offerId).build())
+        .setFrameworkId(FrameworkID.newBuilder().setValue("framework").build())
+        .setSlaveId(SlaveID.newBuilder().setValue(slaveId).build())
+        .setHostname(slaveId + ".example.com")
+        .addResources(newScalar("mem", memory))
+        .addResources(newScalar("cpus", cores))
+        .build();
+  }
+
+  static ResourceRequestEvent newRequest(final int memory, final int cores) {
+    return ResourceRequestEventImpl.newBuilder()
+        .setResourceCount(1)
+        .setMemorySize(memory)
+        .setVirtualCores(cores)
+        .build();
+  }
+
+  private static Resource newScalar(final String name, final double value) {
+    return Resource.newBuilder()
+        .setName(name)
+        .setType(Value.Type.SCALAR)
+        .setScalar(Value.Scalar.newBuilder().setValue(value).build())
+        .build();
+  }
+
+  /**
+   * Records the requests placed on each node.
+   */
+  private static final class RecordingTaskFactory implements ResourceOfferMatcher.TaskFactory {
+
+    private final Map<String, List<ResourceRequestEvent>> tasksBySlave = new HashMap<>();
+
+    @Override
+    public TaskInfo newTask(final String taskId, final Offer offer, final ResourceRequestEvent request) {
+      final String slaveId = offer.getSlaveId().getValue();
+      if (!this.tasksBySlave.containsKey(slaveId)) {
+        this.tasksBySlave.put(slaveId, new ArrayList<ResourceRequestEvent>());
+      }
+      this.tasksBySlave.get(slaveId).add(request);
+      return TaskInfo.newBuilder()
+          .setTaskId(TaskID.newBuilder().setValue(taskId).build())
+          .setName(taskId)
+          .setSlaveId(offer.getSlaveId())
+          .build();
+    }
+
+    private List<ResourceRequestEvent> getTasks(final String slaveId) {
+      final List<ResourceRequestEvent> tasks = this.tasksBySlave.get(slaveId);
+      return tasks == null ? new ArrayList<ResourceRequestEvent>() : tasks;
+    }
+
+    private List<Integer> getMemorySizes(final String slaveId) {
+      final List<Integer> sizes = new ArrayList<>();
+      for (final ResourceRequestEvent request : this.getTasks(slaveId)) {
+        sizes.add(request.getMemorySize().get());
+      }
+      return sizes;
+    }
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.reef.mock.driver;
 import org.apache.reef.annotations.Unstable;
 import org.apache.reef.driver.context.ContextMessage;
 import org.apache.reef.driver.restart.DriverRestartCompleted;
+import org.apache.reef.driver.task.TaskMessage;
 
 /**
  * Mock API used to drive the evaluation of ProcessRequest
@@ -89,4 +90,10 @@ public interface MockRuntime extends MockFailure {
    * @param contextMessage to be published
    */
   void publish(final ContextMessage contextMessage);
+
+  /**
+   * Publish a task message to the application event handlers.
+   * @param taskMessage to be published
+   */
+  void publish(final TaskMessage taskMessage);
 }
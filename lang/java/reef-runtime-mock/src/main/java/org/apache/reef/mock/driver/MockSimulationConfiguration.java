@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.mock.driver.parameters.*;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
+
+/**
+ * Configure the {@link MockSimulator}. Merge with the {@link MockConfiguration} of the application.
+ */
+@Unstable
+public final class MockSimulationConfiguration extends ConfigurationModuleBuilder {
+
+  /**
+   * Mean time, in milliseconds, to allocate an evaluator. Each allocation takes between half and
+   * one and a half times this long.
+   */
+  public static final OptionalParameter<Integer> ALLOCATION_LATENCY = new OptionalParameter<>();
+
+  /**
+   * Mean time, in milliseconds, for an evaluator to act on any other request of the driver.
+   * Each request takes between half and one and a half times this long.
+   */
+  public static final OptionalParameter<Integer> REQUEST_LATENCY = new OptionalParameter<>();
+
+  /**
+   * Mean time, in milliseconds, that a task runs before it completes by itself.
+   * Each task runs between half and one and a half times this long.
+   */
+  public static final OptionalParameter<Integer> TASK_DURATION = new OptionalParameter<>();
+
+  /**
+   * Probability that an evaluator allocation, or a context or task launch, fails.
+   */
+  public static final OptionalParameter<Double> REQUEST_FAILURE_RATE = new OptionalParameter<>();
+
+  /**
+   * Probability that an evaluator fails at any one of its heartbeats.
+   */
+  public static final OptionalParameter<Double> EVALUATOR_FAILURE_RATE = new OptionalParameter<>();
+
+  /**
+   * Time, in milliseconds, between two heartbeats of an evaluator.
+   */
+  public static final OptionalParameter<Integer> HEARTBEAT_PERIOD = new OptionalParameter<>();
+
+  /**
+   * Seed of the random latencies and failures. Runs with the same seed are identical.
+   */
+  public static final OptionalParameter<Long> SEED = new OptionalParameter<>();
+
+  public static final ConfigurationModule CONF = new MockSimulationConfiguration()
+      .bindNamedParameter(SimulationAllocationLatency.class, ALLOCATION_LATENCY)
+      .bindNamedParameter(SimulationRequestLatency.class, REQUEST_LATENCY)
+      .bindNamedParameter(SimulationTaskDuration.class, TASK_DURATION)
+      .bindNamedParameter(SimulationRequestFailureRate.class, REQUEST_FAILURE_RATE)
+      .bindNamedParameter(SimulationEvaluatorFailureRate.class, EVALUATOR_FAILURE_RATE)
+      .bindNamedParameter(SimulationHeartbeatPeriod.class, HEARTBEAT_PERIOD)
+      .bindNamedParameter(SimulationSeed.class, SEED)
+      .build();
+}
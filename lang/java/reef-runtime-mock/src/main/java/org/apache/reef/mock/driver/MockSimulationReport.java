@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver-side measurements of one {@link MockSimulator} run.
+ */
+@Unstable
+public final class MockSimulationReport {
+
+  private final boolean completed;
+  private final long simulatedTime;
+  private final long wallTimeNanos;
+  private final long numEvents;
+  private final LogLinearHistogram handlerLatency;
+  private final long peakHeapBytes;
+  private final int numAllocatedEvaluators;
+  private final int numFailedRequests;
+  private final int numFailedEvaluators;
+  private final long numHeartbeats;
+
+  MockSimulationReport(
+      final boolean completed,
+      final long simulatedTime,
+      final long wallTimeNanos,
+      final long numEvents,
+      final LogLinearHistogram handlerLatency,
+      final long peakHeapBytes,
+      final int numAllocatedEvaluators,
+      final int numFailedRequests,
+      final int numFailedEvaluators,
+      final long numHeartbeats) {
+    this.completed = completed;
+    this.simulatedTime = simulatedTime;
+    this.wallTimeNanos = wallTimeNanos;
+    this.numEvents = numEvents;
+    this.handlerLatency = handlerLatency;
+    this.peakHeapBytes = peakHeapBytes;
+    this.numAllocatedEvaluators = numAllocatedEvaluators;
+    this.numFailedRequests = numFailedRequests;
+    this.numFailedEvaluators = numFailedEvaluators;
+    this.numHeartbeats = numHeartbeats;
+  }
+
+  /**
+   * @return true if the application went idle and the runtime stopped the clock,
+   * false if the simulation ran out of simulated time.
+   */
+  public boolean isCompleted() {
+    return this.completed;
+  }
+
+  /**
+   * @return the simulated time, in milliseconds, at the end of the run.
+   */
+  public long getSimulatedTime() {
+    return this.simulatedTime;
+  }
+
+  /**
+   * @return the wall clock time of the run, in nanoseconds.
+   */
+  public long getWallTimeNanos() {
+    return this.wallTimeNanos;
+  }
+
+  /**
+   * @return the number of events posted to the application handlers.
+   */
+  public long getNumEvents() {
+    return this.numEvents;
+  }
+
+  /**
+   * @return the number of events posted to the application handlers per second of wall clock time.
+   */
+  public double getEventThroughput() {
+    return this.wallTimeNanos == 0 ? 0 : this.numEvents * 1e9 / this.wallTimeNanos;
+  }
+
+  /**
+   * @return the time, in nanoseconds, of the application handler calls, over all event types.
+   */
+  public LogLinearHistogram getHandlerLatency() {
+    return this.handlerLatency;
+  }
+
+  /**
+   * @return the largest used heap, in bytes, sampled during the run.
+   */
+  public long getPeakHeapBytes() {
+    return this.peakHeapBytes;
+  }
+
+  /**
+   * @return the number of evaluators allocated to the application.
+   */
+  public int getNumAllocatedEvaluators() {
+    return this.numAllocatedEvaluators;
+  }
+
+  /**
+   * @return the number of allocation, context and task requests that the simulation failed.
+   */
+  public int getNumFailedRequests() {
+    return this.numFailedRequests;
+  }
+
+  /**
+   * @return the number of allocated evaluators that the simulation failed.
+   */
+  public int getNumFailedEvaluators() {
+    return this.numFailedEvaluators;
+  }
+
+  /**
+   * @return the number of task and context messages sent by the evaluator heartbeats.
+   */
+  public long getNumHeartbeats() {
+    return this.numHeartbeats;
+  }
+
+  @Override
+  public String toString() {
+    return "MockSimulationReport{completed=" + this.completed +
+        ", simulatedTime=" + this.simulatedTime + "ms" +
+        ", wallTime=" + TimeUnit.NANOSECONDS.toMillis(this.wallTimeNanos) + "ms" +
+        ", events=" + this.numEvents +
+        ", eventsPerSecond=" + Math.round(getEventThroughput()) +
+        ", handlerLatencyNs={p50=" + this.handlerLatency.getValueAtPercentile(50.0) +
+        ", p99=" + this.handlerLatency.getValueAtPercentile(99.0) +
+        ", max=" + this.handlerLatency.getMax() + "}" +
+        ", peakHeapMB=" + this.peakHeapBytes / (1024 * 1024) +
+        ", allocatedEvaluators=" + this.numAllocatedEvaluators +
+        ", failedRequests=" + this.numFailedRequests +
+        ", failedEvaluators=" + this.numFailedEvaluators +
+        ", heartbeats=" + this.numHeartbeats + "}";
+  }
+}
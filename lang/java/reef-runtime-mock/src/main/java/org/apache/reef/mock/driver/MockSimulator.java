@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.driver.context.ContextMessage;
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.task.TaskMessage;
+import org.apache.reef.mock.driver.parameters.*;
+import org.apache.reef.mock.driver.request.*;
+import org.apache.reef.mock.driver.runtime.MockClock;
+import org.apache.reef.mock.driver.runtime.MockRunningTask;
+import org.apache.reef.mock.driver.runtime.MockRuntimeDriver;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.time.event.Alarm;
+
+import javax.inject.Inject;
+import java.util.*;
+
+/**
+ * Drives an application bound with {@link MockConfiguration} against thousands of simulated evaluators,
+ * to measure the driver-side cost of the application handlers at scale.
+ * <p>
+ * Every request of the application is answered after a random latency, on the {@link MockClock}.
+ * Tasks complete by themselves after a random duration, unless the application closes them first.
+ * Evaluator allocations, and context and task launches, fail with a configured probability.
+ * Allocated evaluators heartbeat periodically: an evaluator with a running task sends a task message,
+ * one with an active context a context message. Evaluators fail at each heartbeat with a configured probability.
+ * All random choices come from one seeded generator, so runs with the same configuration are identical
+ * in simulated time. See {@link MockSimulationConfiguration}.
+ */
+@Unstable
+public final class MockSimulator {
+
+  private static final byte[] HEARTBEAT_PAYLOAD = new byte[0];
+
+  /**
+   * Number of heartbeat groups. The evaluators of one group heartbeat at the same clock step.
+   */
+  private static final int NUM_HEARTBEAT_GROUPS = 10;
+
+  private final MockRuntime runtime;
+  private final MockClock clock;
+  private final MetricsRegistry metricsRegistry;
+  private final int allocationLatency;
+  private final int requestLatency;
+  private final int taskDuration;
+  private final double requestFailureRate;
+  private final double evaluatorFailureRate;
+  private final int heartbeatPeriod;
+  private final Random random;
+
+  /** Allocated evaluators that did not close or fail, by evaluator id, in allocation order. */
+  private final Map<String, VirtualEvaluator> evaluators = new LinkedHashMap<>();
+
+  private final List<Map<String, VirtualEvaluator>> heartbeatGroups = new ArrayList<>(NUM_HEARTBEAT_GROUPS);
+
+  private int numAllocatedEvaluators = 0;
+  private int numFailedRequests = 0;
+  private int numFailedEvaluators = 0;
+  private long numHeartbeats = 0;
+
+  @Inject
+  MockSimulator(
+      final MockRuntime runtime,
+      final MockClock clock,
+      final MetricsRegistry metricsRegistry,
+      @Parameter(SimulationAllocationLatency.class) final int allocationLatency,
+      @Parameter(SimulationRequestLatency.class) final int requestLatency,
+      @Parameter(SimulationTaskDuration.class) final int taskDuration,
+      @Parameter(SimulationRequestFailureRate.class) final double requestFailureRate,
+      @Parameter(SimulationEvaluatorFailureRate.class) final double evaluatorFailureRate,
+      @Parameter(SimulationHeartbeatPeriod.class) final int heartbeatPeriod,
+      @Parameter(SimulationSeed.class) final long seed) {
+    if (heartbeatPeriod < NUM_HEARTBEAT_GROUPS) {
+      throw new IllegalArgumentException("heartbeat period must be at least " + NUM_HEARTBEAT_GROUPS + "ms");
+    }
+    this.runtime = runtime;
+    this.clock = clock;
+    this.metricsRegistry = metricsRegistry;
+    this.allocationLatency = allocationLatency;
+    this.requestLatency = requestLatency;
+    this.taskDuration = taskDuration;
+    this.requestFailureRate = requestFailureRate;
+    this.evaluatorFailureRate = evaluatorFailureRate;
+    this.heartbeatPeriod = heartbeatPeriod;
+    this.random = new Random(seed);
+    for (int i = 0; i < NUM_HEARTBEAT_GROUPS; ++i) {
+      this.heartbeatGroups.add(new LinkedHashMap<String, VirtualEvaluator>());
+    }
+  }
+
+  /**
+   * Starts the application and simulates it until the runtime stops the clock because the application
+   * went idle, or until the simulated time runs out. In the latter case, the clock is closed.
+   * @param maxSimulatedTime simulated time limit, in milliseconds.
+   * @return the measurements of the run.
+   */
+  public MockSimulationReport run(final long maxSimulatedTime) {
+    final java.lang.Runtime jvm = java.lang.Runtime.getRuntime();
+    final int step = this.heartbeatPeriod / NUM_HEARTBEAT_GROUPS;
+    final long startNanos = System.nanoTime();
+    long peakHeapBytes = 0;
+
+    this.clock.run();
+    this.scheduleRequests();
+    for (int group = 0; !this.clock.isClosed() && this.clock.getCurrentTime() < maxSimulatedTime;
+         group = (group + 1) % NUM_HEARTBEAT_GROUPS) {
+      this.clock.advanceClock(step);
+      if (!this.clock.isClosed()) {
+        // Alarms of the application, such as the flush of batched evaluator requests, may have made requests.
+        this.scheduleRequests();
+        this.heartbeat(this.heartbeatGroups.get(group));
+      }
+      peakHeapBytes = Math.max(peakHeapBytes, jvm.totalMemory() - jvm.freeMemory());
+    }
+
+    final boolean completed = this.clock.isClosed();
+    if (!completed) {
+      this.clock.close();
+    }
+    final long wallTimeNanos = System.nanoTime() - startNanos;
+
+    final LogLinearHistogram handlerLatency = new LogLinearHistogram();
+    for (final Map.Entry<String, Histogram> entry : this.metricsRegistry.getHistograms().entrySet()) {
+      if (entry.getKey().startsWith(MockRuntimeDriver.HANDLER_METRIC_PREFIX)) {
+        handlerLatency.merge((LogLinearHistogram) entry.getValue());
+      }
+    }
+
+    return new MockSimulationReport(completed, this.clock.getCurrentTime(), wallTimeNanos,
+        this.metricsRegistry.counter(MockRuntimeDriver.EVENTS_METRIC).getCount(), handlerLatency, peakHeapBytes,
+        this.numAllocatedEvaluators, this.numFailedRequests, this.numFailedEvaluators, this.numHeartbeats);
+  }
+
+  /**
+   * Schedules the answers to the outstanding requests of the application.
+   */
+  private void scheduleRequests() {
+    while (this.runtime.hasProcessRequest()) {
+      final ProcessRequest request = this.runtime.getNextProcessRequest();
+      final int latency = getLatency(request.getType());
+      this.clock.scheduleAlarm(latency / 2 + this.random.nextInt(latency + 1), new EventHandler<Alarm>() {
+        @Override
+        public void onNext(final Alarm alarm) {
+          answer(request);
+        }
+      });
+    }
+  }
+
+  private void answer(final ProcessRequest request) {
+    if (this.clock.isClosed()) {
+      return;
+    }
+
+    final VirtualEvaluator evaluator;
+    if (request.getType() == ProcessRequest.Type.ALLOCATE_EVALUATOR) {
+      evaluator = null;
+    } else {
+      evaluator = this.evaluators.get(getEvaluatorId(request));
+      if (evaluator == null) {
+        return; // The evaluator failed while the request was in flight.
+      }
+    }
+
+    if (isFallible(request.getType()) && this.random.nextDouble() < this.requestFailureRate) {
+      ++this.numFailedRequests;
+      this.runtime.fail(request);
+    } else {
+      this.track(request, evaluator);
+      this.runtime.succeed(request);
+    }
+    this.scheduleRequests();
+  }
+
+  /**
+   * Updates the simulated evaluator state with a request that succeeds.
+   */
+  private void track(final ProcessRequest request, final VirtualEvaluator evaluator) {
+    switch (request.getType()) {
+    case ALLOCATE_EVALUATOR:
+      final AllocatedEvaluator allocatedEvaluator = ((AllocateEvaluator) request).getSuccessEvent();
+      final VirtualEvaluator newEvaluator = new VirtualEvaluator(allocatedEvaluator, this.numAllocatedEvaluators++);
+      this.evaluators.put(allocatedEvaluator.getId(), newEvaluator);
+      this.heartbeatGroups.get(newEvaluator.group).put(allocatedEvaluator.getId(), newEvaluator);
+      break;
+    case CLOSE_EVALUATOR:
+      this.remove(evaluator);
+      break;
+    case CREATE_CONTEXT:
+      evaluator.contextIds.push(((CreateContext) request).getSuccessEvent().getId());
+      break;
+    case CLOSE_CONTEXT:
+      evaluator.contextIds.pop();
+      break;
+    case CREATE_TASK:
+      evaluator.task = ((CreateTask) request).getSuccessEvent();
+      break;
+    case CREATE_CONTEXT_AND_TASK:
+      evaluator.contextIds.push(((CreateContextAndTask) request).getSuccessEvent().getKey().getId());
+      evaluator.task = ((CreateContextAndTask) request).getSuccessEvent().getValue();
+      break;
+    case SUSPEND_TASK:
+    case CLOSE_TASK:
+    case COMPLETE_TASK:
+      evaluator.task = null;
+      break;
+    default:
+      break;
+    }
+  }
+
+  /**
+   * Sends the heartbeat messages of a group of evaluators, then fails some of them.
+   */
+  private void heartbeat(final Map<String, VirtualEvaluator> group) {
+    final List<VirtualEvaluator> failed = new ArrayList<>();
+    for (final VirtualEvaluator evaluator : group.values()) {
+      if (evaluator.task != null) {
+        ++this.numHeartbeats;
+        this.runtime.publish((TaskMessage) new HeartbeatMessage(evaluator.task.getId(),
+            evaluator.contextIds.peek(), evaluator.evaluator.getId(), this.clock.getCurrentTime()));
+      } else if (!evaluator.contextIds.isEmpty()) {
+        ++this.numHeartbeats;
+        this.runtime.publish((ContextMessage) new HeartbeatMessage(evaluator.contextIds.peek(),
+            evaluator.contextIds.peek(), evaluator.evaluator.getId(), this.clock.getCurrentTime()));
+      }
+      if (this.evaluatorFailureRate > 0 && this.random.nextDouble() < this.evaluatorFailureRate) {
+        failed.add(evaluator);
+      }
+    }
+
+    for (final VirtualEvaluator evaluator : failed) {
+      if (this.clock.isClosed()) {
+        return;
+      }
+      ++this.numFailedEvaluators;
+      this.remove(evaluator);
+      this.runtime.fail(evaluator.evaluator);
+      this.scheduleRequests();
+    }
+  }
+
+  private void remove(final VirtualEvaluator evaluator) {
+    this.evaluators.remove(evaluator.evaluator.getId());
+    this.heartbeatGroups.get(evaluator.group).remove(evaluator.evaluator.getId());
+  }
+
+  private int getLatency(final ProcessRequest.Type type) {
+    switch (type) {
+    case ALLOCATE_EVALUATOR:
+      return this.allocationLatency;
+    case COMPLETE_TASK:
+      return this.taskDuration;
+    default:
+      return this.requestLatency;
+    }
+  }
+
+  private static boolean isFallible(final ProcessRequest.Type type) {
+    switch (type) {
+    case ALLOCATE_EVALUATOR:
+    case CREATE_CONTEXT:
+    case CREATE_TASK:
+    case CREATE_CONTEXT_AND_TASK:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  private static String getEvaluatorId(final ProcessRequest request) {
+    switch (request.getType()) {
+    case CLOSE_EVALUATOR:
+      return ((CloseEvaluator) request).getSuccessEvent().getId();
+    case CREATE_CONTEXT:
+      return ((CreateContext) request).getSuccessEvent().getEvaluatorId();
+    case CLOSE_CONTEXT:
+      return ((CloseContext) request).getSuccessEvent().getEvaluatorId();
+    case CREATE_TASK:
+      return ((CreateTask) request).getSuccessEvent().evaluatorID();
+    case SUSPEND_TASK:
+      return ((SuspendTask) request).getTask().evaluatorID();
+    case CLOSE_TASK:
+      return ((CloseTask) request).getTask().evaluatorID();
+    case COMPLETE_TASK:
+      return ((CompleteTask) request).getTask().evaluatorID();
+    case CREATE_CONTEXT_AND_TASK:
+      return ((CreateContextAndTask) request).getSuccessEvent().getKey().getEvaluatorId();
+    case SEND_MESSAGE_DRIVER_TO_TASK:
+      return ((SendMessageDriverToTask) request).getTask().getActiveContext().getEvaluatorId();
+    case SEND_MESSAGE_DRIVER_TO_CONTEXT:
+      return ((SendMessageDriverToContext) request).getContext().getEvaluatorId();
+    default:
+      throw new IllegalStateException("unknown type " + request.getType());
+    }
+  }
+
+  /**
+   * The state of a simulated evaluator, as seen through the requests that succeeded on it.
+   */
+  private static final class VirtualEvaluator {
+    private final AllocatedEvaluator evaluator;
+    private final int group;
+    private final Deque<String> contextIds = new ArrayDeque<>();
+    private MockRunningTask task = null;
+
+    private VirtualEvaluator(final AllocatedEvaluator evaluator, final int index) {
+      this.evaluator = evaluator;
+      this.group = index % NUM_HEARTBEAT_GROUPS;
+    }
+  }
+
+  /**
+   * An empty heartbeat message of a task or context.
+   */
+  private static final class HeartbeatMessage implements TaskMessage, ContextMessage {
+    private final String id;
+    private final String contextId;
+    private final String evaluatorId;
+    private final long sequenceNumber;
+
+    private HeartbeatMessage(final String id, final String contextId, final String evaluatorId,
+                             final long sequenceNumber) {
+      this.id = id;
+      this.contextId = contextId;
+      this.evaluatorId = evaluatorId;
+      this.sequenceNumber = sequenceNumber;
+    }
+
+    @Override
+    public byte[] get() {
+      return HEARTBEAT_PAYLOAD;
+    }
+
+    @Override
+    public String getId() {
+      return this.id;
+    }
+
+    @Override
+    public long getSequenceNumber() {
+      return this.sequenceNumber;
+    }
+
+    @Override
+    public String getContextId() {
+      return this.contextId;
+    }
+
+    @Override
+    public String getMessageSourceID() {
+      return this.evaluatorId;
+    }
+  }
+}
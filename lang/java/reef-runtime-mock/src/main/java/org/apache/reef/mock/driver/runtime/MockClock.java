@@ -31,9 +31,8 @@ import org.apache.reef.wake.time.event.Alarm;
 import org.apache.reef.wake.time.runtime.event.ClientAlarm;
 
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
 
 /**
  * The MockClock can be used to drive alarms set by the client application.
@@ -44,7 +43,9 @@ public final class MockClock implements Clock {
 
   private final InjectionFuture<MockRuntime> runtime;
 
-  private final List<Alarm> alarmList = new ArrayList<>();
+  private final Queue<ScheduledAlarm> alarmQueue = new PriorityQueue<>();
+
+  private long numScheduled = 0;
 
   private long currentTime = 0;
 
@@ -57,17 +58,14 @@ public final class MockClock implements Clock {
 
   /**
    * Advances the clock by the offset amount.
+   * Alarms that are due run in timestamp order, and alarms with the same timestamp in the order they
+   * were scheduled. This includes the alarms scheduled by the alarms that run.
    * @param offset amount to advance clock
    */
   public void advanceClock(final int offset) {
     this.currentTime += offset;
-    final Iterator<Alarm> iter = this.alarmList.iterator();
-    while (iter.hasNext()) {
-      final Alarm alarm = iter.next();
-      if (alarm.getTimestamp() <= this.currentTime) {
-        alarm.run();
-        iter.remove();
-      }
+    while (!this.alarmQueue.isEmpty() && this.alarmQueue.peek().alarm.getTimestamp() <= this.currentTime) {
+      this.alarmQueue.poll().alarm.run();
     }
   }
 
@@ -81,7 +79,7 @@ public final class MockClock implements Clock {
   @Override
   public Time scheduleAlarm(final int offset, final EventHandler<Alarm> handler) {
     final Alarm alarm = new ClientAlarm(this.currentTime + offset, handler);
-    alarmList.add(alarm);
+    this.alarmQueue.add(new ScheduledAlarm(alarm, this.numScheduled++));
     return alarm;
   }
 
@@ -105,7 +103,7 @@ public final class MockClock implements Clock {
 
   @Override
   public boolean isIdle() {
-    return this.alarmList.size() == 0;
+    return this.alarmQueue.isEmpty();
   }
 
   @Override
@@ -117,4 +115,33 @@ public final class MockClock implements Clock {
   public void run() {
     this.runtime.get().start();
   }
+
+  /**
+   * An alarm and its position in the scheduling order, which breaks timestamp ties.
+   */
+  static final class ScheduledAlarm implements Comparable<ScheduledAlarm> {
+    private final Alarm alarm;
+    private final long sequence;
+
+    ScheduledAlarm(final Alarm alarm, final long sequence) {
+      this.alarm = alarm;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(final ScheduledAlarm other) {
+      final int cmp = Long.compare(this.alarm.getTimestamp(), other.alarm.getTimestamp());
+      return cmp != 0 ? cmp : Long.compare(this.sequence, other.sequence);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof ScheduledAlarm && compareTo((ScheduledAlarm) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (this.sequence ^ (this.sequence >>> 32));
+    }
+  }
 }
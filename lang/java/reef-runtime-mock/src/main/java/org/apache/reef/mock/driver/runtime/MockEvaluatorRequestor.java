@@ -25,13 +25,22 @@ import org.apache.reef.driver.catalog.NodeDescriptor;
 import org.apache.reef.driver.evaluator.EvaluatorRequest;
 import org.apache.reef.driver.evaluator.EvaluatorRequestor;
 import org.apache.reef.mock.driver.request.AllocateEvaluator;
+import org.apache.reef.runtime.common.driver.EvaluatorRequestBatch;
+import org.apache.reef.runtime.common.driver.parameters.EvaluatorRequestBatchWindow;
 import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.Counter;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.time.event.Alarm;
 
 import javax.inject.Inject;
 import java.util.UUID;
 
 /**
  * mock evaluator requestor.
+ * Like the requestor of the real runtimes, it merges the requests submitted within the
+ * {@link EvaluatorRequestBatchWindow}. Each merged request counts as one round trip to the resource manager.
  */
 @Unstable
 @Private
@@ -39,21 +48,61 @@ public final class MockEvaluatorRequestor implements EvaluatorRequestor {
 
   private final InjectionFuture<MockRuntimeDriver> mockRuntimeDriver;
 
+  /**
+   * Name of the counter of the requests handed to the resource manager.
+   */
+  public static final String RESOURCE_REQUESTS_METRIC = "mock.driver.resource.requests";
+
   private final InjectionFuture<MockClock> clock;
 
+  private final int batchWindow;
+
+  private final Counter numResourceRequests;
+
+  private final EvaluatorRequestBatch batch = new EvaluatorRequestBatch();
+
+  private boolean isFlushScheduled = false;
+
   @Inject
   MockEvaluatorRequestor(
       final InjectionFuture<MockClock> clock,
-      final InjectionFuture<MockRuntimeDriver> mockRuntimeDriver) {
+      final InjectionFuture<MockRuntimeDriver> mockRuntimeDriver,
+      final MetricsRegistry metricsRegistry,
+      @Parameter(EvaluatorRequestBatchWindow.class) final int batchWindow) {
     this.clock = clock;
     this.mockRuntimeDriver = mockRuntimeDriver;
+    this.batchWindow = batchWindow;
+    this.numResourceRequests = metricsRegistry.counter(RESOURCE_REQUESTS_METRIC);
   }
 
   @Override
-  public void submit(final EvaluatorRequest req) {
+  public synchronized void submit(final EvaluatorRequest req) {
     if (this.clock.get().isClosed()) {
       throw new IllegalStateException("clock closed");
     }
+    if (this.batchWindow <= 0) {
+      this.allocate(req);
+      return;
+    }
+    this.batch.add(req);
+    if (!this.isFlushScheduled) {
+      this.isFlushScheduled = true;
+      this.clock.get().scheduleAlarm(this.batchWindow, new EventHandler<Alarm>() {
+        @Override
+        public void onNext(final Alarm alarm) {
+          synchronized (MockEvaluatorRequestor.this) {
+            isFlushScheduled = false;
+            for (final EvaluatorRequest request : batch.drain()) {
+              allocate(request);
+            }
+          }
+        }
+      });
+    }
+  }
+
+  private void allocate(final EvaluatorRequest req) {
+    this.numResourceRequests.inc();
     final NodeDescriptor nodeDescriptor = new MockNodeDescriptor();
     final MockEvaluatorDescriptor evaluatorDescriptor = new MockEvaluatorDescriptor(nodeDescriptor);
     for (int i = 0; i < req.getNumber(); i++) {
@@ -41,6 +41,9 @@ import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.Optional;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.Counter;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.MetricsRegistry;
 import org.apache.reef.wake.time.Clock;
 import org.apache.reef.wake.time.event.StartTime;
 import org.apache.reef.wake.time.event.StopTime;
@@ -50,14 +53,26 @@ import java.util.*;
 
 /**
  * mock runtime driver.
+ * The time spent in the application handlers is recorded in one {@link MetricsRegistry}
+ * histogram per event type, e.g. mock.driver.handler.task.completed.ns.
  */
 @Unstable
 @Private
 public final class MockRuntimeDriver implements MockRuntime {
 
+  /**
+   * Prefix of the names of the handler latency histograms.
+   */
+  public static final String HANDLER_METRIC_PREFIX = "mock.driver.handler.";
+
+  /**
+   * Name of the counter of the events posted to the application handlers.
+   */
+  public static final String EVENTS_METRIC = "mock.driver.events";
+
   private final InjectionFuture<MockClock> clock;
 
-  private final List<ProcessRequest> processRequestQueue = new ArrayList<>();
+  private final Queue<ProcessRequest> processRequestQueue = new ArrayDeque<>();
 
   private final Set<EventHandler<StartTime>> driverStartHandlers;
 
@@ -97,11 +112,16 @@ public final class MockRuntimeDriver implements MockRuntime {
 
   private final Set<EventHandler<FailedEvaluator>> driverRestartFailedEvaluatorHandlers;
 
-  private final Map<String, MockAllocatedEvaluator> allocatedEvaluatorMap = new HashMap<>();
+  // Linked maps keep the iteration order independent of the random evaluator identifiers.
+  private final Map<String, MockAllocatedEvaluator> allocatedEvaluatorMap = new LinkedHashMap<>();
+
+  private final Map<String, List<MockActiveContext>> allocatedContextsMap = new LinkedHashMap<>();
 
-  private final Map<String, List<MockActiveContext>> allocatedContextsMap = new HashMap<>();
+  private final Map<String, MockRunningTask> runningTasks = new LinkedHashMap<>();
 
-  private final Map<String, MockRunningTask> runningTasks = new HashMap<>();
+  private final Map<Set<?>, Histogram> handlerLatencies = new IdentityHashMap<>();
+
+  private final Counter numEvents;
 
   private final MockTaskReturnValueProvider taskReturnValueProvider;
 
@@ -109,6 +129,7 @@ public final class MockRuntimeDriver implements MockRuntime {
   MockRuntimeDriver(
       final InjectionFuture<MockClock> clock,
       final MockTaskReturnValueProvider taskReturnValueProvider,
+      final MetricsRegistry metricsRegistry,
       @Parameter(DriverStartHandler.class) final Set<EventHandler<StartTime>> driverStartHandlers,
       @Parameter(Clock.StopHandler.class) final Set<EventHandler<StopTime>> driverStopHandlers,
       @Parameter(EvaluatorAllocatedHandlers.class) final Set<EventHandler<AllocatedEvaluator>>
@@ -156,6 +177,27 @@ public final class MockRuntimeDriver implements MockRuntime {
     this.driverRestartActiveContextHandlers = driverRestartActiveContextHandlers;
     this.driverRestartCompletedHandlers = driverRestartCompletedHandlers;
     this.driverRestartFailedEvaluatorHandlers = driverRestartFailedEvaluatorHandlers;
+
+    this.numEvents = metricsRegistry.counter(EVENTS_METRIC);
+    registerLatency(metricsRegistry, driverStartHandlers, "driver.start");
+    registerLatency(metricsRegistry, driverStopHandlers, "driver.stop");
+    registerLatency(metricsRegistry, allocatedEvaluatorHandlers, "evaluator.allocated");
+    registerLatency(metricsRegistry, completedEvaluatorHandlers, "evaluator.completed");
+    registerLatency(metricsRegistry, failedEvaluatorHandlers, "evaluator.failed");
+    registerLatency(metricsRegistry, taskRunningHandlers, "task.running");
+    registerLatency(metricsRegistry, taskFailedHandlers, "task.failed");
+    registerLatency(metricsRegistry, taskMessageHandlers, "task.message");
+    registerLatency(metricsRegistry, taskCompletedHandlers, "task.completed");
+    registerLatency(metricsRegistry, taskSuspendedHandlers, "task.suspended");
+    registerLatency(metricsRegistry, contextActiveHandlers, "context.active");
+    registerLatency(metricsRegistry, contextClosedHandlers, "context.closed");
+    registerLatency(metricsRegistry, contextMessageHandlers, "context.message");
+    registerLatency(metricsRegistry, contextFailedHandlers, "context.failed");
+    registerLatency(metricsRegistry, driverRestartHandlers, "driver.restart");
+    registerLatency(metricsRegistry, driverRestartRunningTaskHandlers, "driver.restart.task.running");
+    registerLatency(metricsRegistry, driverRestartActiveContextHandlers, "driver.restart.context.active");
+    registerLatency(metricsRegistry, driverRestartCompletedHandlers, "driver.restart.completed");
+    registerLatency(metricsRegistry, driverRestartFailedEvaluatorHandlers, "driver.restart.evaluator.failed");
   }
 
   @Override
@@ -186,8 +228,11 @@ public final class MockRuntimeDriver implements MockRuntime {
           Optional.<ActiveContext>of(task.getActiveContext()));
     }
     final List<FailedContext> failedContexts = new ArrayList<>();
-    for (final MockActiveContext context : this.allocatedContextsMap.get(evaluator.getId())) {
-      failedContexts.add(new MockFailedContext(context));
+    final List<MockActiveContext> contexts = this.allocatedContextsMap.remove(evaluator.getId());
+    if (contexts != null) {
+      for (final MockActiveContext context : contexts) {
+        failedContexts.add(new MockFailedContext(context));
+      }
     }
     post(this.failedEvaluatorHandlers, new MockFailedEvaluator(
         evaluator.getId(), failedContexts, Optional.ofNullable(failedTask)));
@@ -300,16 +345,12 @@ public final class MockRuntimeDriver implements MockRuntime {
 
   @Override
   public boolean hasProcessRequest() {
-    return this.processRequestQueue.size() > 0;
+    return !this.processRequestQueue.isEmpty();
   }
 
   @Override
   public ProcessRequest getNextProcessRequest() {
-    if (this.processRequestQueue.size() > 0) {
-      return this.processRequestQueue.remove(0);
-    } else {
-      return null;
-    }
+    return this.processRequestQueue.poll();
   }
 
   @Override
@@ -350,9 +391,11 @@ public final class MockRuntimeDriver implements MockRuntime {
       post(this.taskSuspendedHandlers, request.getSuccessEvent());
       break;
     case CLOSE_TASK:
+      validateAndClose(((CloseTask)request).getTask());
+      post(this.taskCompletedHandlers, request.getSuccessEvent());
+      break;
     case COMPLETE_TASK:
-      final MockRunningTask completedTask = ((CompleteTask)request).getTask();
-      validateAndClose(completedTask);
+      validateAndClose(((CompleteTask)request).getTask());
       post(this.taskCompletedHandlers, request.getSuccessEvent());
       break;
     case CREATE_CONTEXT_AND_TASK:
@@ -414,10 +457,13 @@ public final class MockRuntimeDriver implements MockRuntime {
       post(this.taskFailedHandlers, request.getFailureEvent());
       break;
     case CLOSE_TASK:
-    case COMPLETE_TASK:
       validateAndClose(((CloseTask)request).getTask());
       post(this.taskFailedHandlers, request.getFailureEvent());
       break;
+    case COMPLETE_TASK:
+      validateAndClose(((CompleteTask)request).getTask());
+      post(this.taskFailedHandlers, request.getFailureEvent());
+      break;
     case CREATE_CONTEXT_AND_TASK:
       final CreateContextAndTask createContextTask = (CreateContextAndTask) request;
       final Tuple<MockFailedContext, FailedTask> events = createContextTask.getFailureEvent();
@@ -441,9 +487,12 @@ public final class MockRuntimeDriver implements MockRuntime {
 
   @Override
   public void publish(final ContextMessage contextMessage) {
-    for (final EventHandler<ContextMessage> handler : this.contextMessageHandlers) {
-      handler.onNext(contextMessage);
-    }
+    post(this.contextMessageHandlers, contextMessage);
+  }
+
+  @Override
+  public void publish(final TaskMessage taskMessage) {
+    post(this.taskMessageHandlers, taskMessage);
   }
 
   MockTaskReturnValueProvider getTaskReturnValueProvider() {
@@ -464,9 +513,17 @@ public final class MockRuntimeDriver implements MockRuntime {
         this.allocatedEvaluatorMap.isEmpty();
   }
 
+  private void registerLatency(final MetricsRegistry metricsRegistry, final Set<?> handlers, final String eventType) {
+    this.handlerLatencies.put(handlers, metricsRegistry.histogram(HANDLER_METRIC_PREFIX + eventType + ".ns"));
+  }
+
   private <T> void post(final Set<EventHandler<T>> handlers, final Object event) {
+    this.numEvents.inc();
+    final Histogram latency = this.handlerLatencies.get(handlers);
     for (final EventHandler<T> handler : handlers) {
+      final long start = System.nanoTime();
       handler.onNext((T) event);
+      latency.update(System.nanoTime() - start);
     }
   }
 
@@ -491,7 +548,9 @@ public final class MockRuntimeDriver implements MockRuntime {
   }
 
   private void validateAndCreate(final MockRunningTask task) {
-    if (this.runningTasks.containsKey(task.evaluatorID())) {
+    if (!this.allocatedEvaluatorMap.containsKey(task.evaluatorID())) {
+      throw new IllegalStateException("unknown evaluator id " + task.evaluatorID());
+    } else if (this.runningTasks.containsKey(task.evaluatorID())) {
       throw new IllegalStateException("task already running on evaluator " +
           task.evaluatorID());
     }
@@ -518,5 +577,6 @@ public final class MockRuntimeDriver implements MockRuntime {
       throw new IllegalStateException("unknown evaluator id " + evaluator.getId());
     }
     this.allocatedEvaluatorMap.remove(evaluator.getId());
+    this.allocatedContextsMap.remove(evaluator.getId());
   }
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver;
+
+import org.apache.reef.mock.driver.runtime.MockEvaluatorRequestor;
+import org.apache.reef.runtime.common.driver.parameters.EvaluatorRequestBatchWindow;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scale regression test of the driver-side event handling, on simulated evaluators.
+ */
+public final class MockSimulatorTest {
+
+  private static final Logger LOG = Logger.getLogger(MockSimulatorTest.class.getName());
+
+  private static final int NUM_TASKS = 2000;
+
+  private static final long MAX_SIMULATED_TIME = 3600 * 1000;
+
+  /**
+   * Number of tasks that the simulated application runs.
+   */
+  @NamedParameter
+  static final class NumTasks implements Name<Integer> {
+  }
+
+  /**
+   * Tests that all tasks complete despite failures, and that runs with the same seed are identical.
+   */
+  @Test
+  public void testSimulationIsRepeatable() throws Exception {
+    final Result first = simulate(42, 0);
+    LOG.log(Level.INFO, "Simulation: {0}", first.report);
+
+    Assert.assertTrue(first.report.isCompleted());
+    Assert.assertEquals(NUM_TASKS, first.application.getNumCompletedTasks());
+    Assert.assertTrue(first.report.getNumFailedRequests() > 0);
+    Assert.assertTrue(first.report.getNumFailedEvaluators() > 0);
+    Assert.assertTrue(first.report.getNumAllocatedEvaluators() > NUM_TASKS);
+    Assert.assertTrue(first.application.getNumTaskMessages() > 0);
+    Assert.assertTrue(first.report.getHandlerLatency().getCount() > 0);
+
+    final Result second = simulate(42, 0);
+    Assert.assertEquals(first.report.getSimulatedTime(), second.report.getSimulatedTime());
+    Assert.assertEquals(first.report.getNumEvents(), second.report.getNumEvents());
+    Assert.assertEquals(first.report.getNumHeartbeats(), second.report.getNumHeartbeats());
+    Assert.assertEquals(first.report.getNumFailedEvaluators(), second.report.getNumFailedEvaluators());
+    Assert.assertEquals(first.application.getNumTaskMessages(), second.application.getNumTaskMessages());
+  }
+
+  /**
+   * Tests that batching merges the requests for replacement evaluators, that the application makes one by one.
+   */
+  @Test
+  public void testBatchedRequests() throws Exception {
+    final Result oneByOne = simulate(42, 0);
+    final Result batched = simulate(42, 500);
+    LOG.log(Level.INFO, "Resource requests: {0} one by one, {1} batched",
+        new Object[] {oneByOne.numResourceRequests, batched.numResourceRequests});
+
+    Assert.assertTrue(batched.report.isCompleted());
+    Assert.assertEquals(NUM_TASKS, batched.application.getNumCompletedTasks());
+    Assert.assertTrue(batched.numResourceRequests < oneByOne.numResourceRequests);
+  }
+
+  private static Result simulate(final long seed, final int batchWindow) throws Exception {
+    final ConfigurationModule application = MockConfiguration.CONF
+        .set(MockConfiguration.ON_DRIVER_STARTED, SimulatedApplication.StartHandler.class)
+        .set(MockConfiguration.ON_EVALUATOR_ALLOCATED, SimulatedApplication.AllocatedEvaluatorHandler.class)
+        .set(MockConfiguration.ON_EVALUATOR_COMPLETED, SimulatedApplication.CompletedEvaluatorHandler.class)
+        .set(MockConfiguration.ON_EVALUATOR_FAILED, SimulatedApplication.FailedEvaluatorHandler.class)
+        .set(MockConfiguration.ON_CONTEXT_ACTIVE, SimulatedApplication.ActiveContextHandler.class)
+        .set(MockConfiguration.ON_CONTEXT_CLOSED, SimulatedApplication.ClosedContextHandler.class)
+        .set(MockConfiguration.ON_CONTEXT_MESSAGE, SimulatedApplication.ContextMessageHandler.class)
+        .set(MockConfiguration.ON_TASK_RUNNING, SimulatedApplication.RunningTaskHandler.class)
+        .set(MockConfiguration.ON_TASK_MESSAGE, SimulatedApplication.TaskMessageHandler.class)
+        .set(MockConfiguration.ON_TASK_COMPLETED, SimulatedApplication.CompletedTaskHandler.class)
+        .set(MockConfiguration.ON_TASK_FAILED, SimulatedApplication.FailedTaskHandler.class)
+        .set(MockConfiguration.ON_CONTEXT_FAILED, SimulatedApplication.FailedContextHandler.class);
+    final Configuration simulation = MockSimulationConfiguration.CONF
+        .set(MockSimulationConfiguration.ALLOCATION_LATENCY, 2000)
+        .set(MockSimulationConfiguration.REQUEST_LATENCY, 100)
+        .set(MockSimulationConfiguration.TASK_DURATION, 30000)
+        .set(MockSimulationConfiguration.REQUEST_FAILURE_RATE, 0.01)
+        .set(MockSimulationConfiguration.EVALUATOR_FAILURE_RATE, 0.001)
+        .set(MockSimulationConfiguration.HEARTBEAT_PERIOD, 1000)
+        .set(MockSimulationConfiguration.SEED, seed)
+        .build();
+
+    final Injector injector = Tang.Factory.getTang().newInjector(application.build(), simulation);
+    injector.bindVolatileParameter(NumTasks.class, NUM_TASKS);
+    injector.bindVolatileParameter(EvaluatorRequestBatchWindow.class, batchWindow);
+    final SimulatedApplication app = injector.getInstance(SimulatedApplication.class);
+    final MockSimulationReport report = injector.getInstance(MockSimulator.class).run(MAX_SIMULATED_TIME);
+    return new Result(app, report, injector.getInstance(MetricsRegistry.class)
+        .counter(MockEvaluatorRequestor.RESOURCE_REQUESTS_METRIC).getCount());
+  }
+
+  private static final class Result {
+    private final SimulatedApplication application;
+    private final MockSimulationReport report;
+    private final long numResourceRequests;
+
+    private Result(final SimulatedApplication application, final MockSimulationReport report,
+                   final long numResourceRequests) {
+      this.application = application;
+      this.report = report;
+      this.numResourceRequests = numResourceRequests;
+    }
+  }
+}
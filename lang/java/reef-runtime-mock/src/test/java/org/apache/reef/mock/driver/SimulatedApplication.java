@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.mock.driver;
+
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.context.ClosedContext;
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.context.ContextMessage;
+import org.apache.reef.driver.context.FailedContext;
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.evaluator.CompletedEvaluator;
+import org.apache.reef.driver.evaluator.EvaluatorRequestor;
+import org.apache.reef.driver.evaluator.FailedEvaluator;
+import org.apache.reef.driver.task.*;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.task.Task;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.event.StartTime;
+
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application for the simulation tests: runs one task on each of a number of evaluators,
+ * and replaces the evaluators that fail before their task completed.
+ */
+@Unit
+final class SimulatedApplication {
+
+  private final EvaluatorRequestor evaluatorRequestor;
+
+  private final int numTasks;
+
+  private final Map<String, AllocatedEvaluator> evaluators = new HashMap<>();
+
+  /** Evaluators whose task completed. */
+  private final Set<String> doneEvaluators = new HashSet<>();
+
+  private int numCompletedTasks = 0;
+
+  private int numTaskMessages = 0;
+
+  @Inject
+  SimulatedApplication(
+      final EvaluatorRequestor evaluatorRequestor,
+      @Parameter(MockSimulatorTest.NumTasks.class) final int numTasks) {
+    this.evaluatorRequestor = evaluatorRequestor;
+    this.numTasks = numTasks;
+  }
+
+  int getNumCompletedTasks() {
+    return this.numCompletedTasks;
+  }
+
+  int getNumTaskMessages() {
+    return this.numTaskMessages;
+  }
+
+  private void requestEvaluators(final int numEvaluators) {
+    this.evaluatorRequestor.newRequest()
+        .setMemory(128)
+        .setNumberOfCores(1)
+        .setNumber(numEvaluators)
+        .submit();
+  }
+
+  final class StartHandler implements EventHandler<StartTime> {
+    @Override
+    public void onNext(final StartTime startTime) {
+      requestEvaluators(numTasks);
+    }
+  }
+
+  final class AllocatedEvaluatorHandler implements EventHandler<AllocatedEvaluator> {
+    @Override
+    public void onNext(final AllocatedEvaluator evaluator) {
+      evaluators.put(evaluator.getId(), evaluator);
+      evaluator.submitContextAndTask(
+          ContextConfiguration.CONF
+              .set(ContextConfiguration.IDENTIFIER, "context-" + evaluator.getId())
+              .build(),
+          TaskConfiguration.CONF
+              .set(TaskConfiguration.IDENTIFIER, "task-" + evaluator.getId())
+              .set(TaskConfiguration.TASK, EmptyTask.class)
+              .build());
+    }
+  }
+
+  /**
+   * Keeps the context of the running task open. The default handler would close it.
+   */
+  final class ActiveContextHandler implements EventHandler<ActiveContext> {
+    @Override
+    public void onNext(final ActiveContext context) {
+    }
+  }
+
+  final class ClosedContextHandler implements EventHandler<ClosedContext> {
+    @Override
+    public void onNext(final ClosedContext context) {
+    }
+  }
+
+  final class ContextMessageHandler implements EventHandler<ContextMessage> {
+    @Override
+    public void onNext(final ContextMessage message) {
+    }
+  }
+
+  final class RunningTaskHandler implements EventHandler<RunningTask> {
+    @Override
+    public void onNext(final RunningTask task) {
+    }
+  }
+
+  final class CompletedEvaluatorHandler implements EventHandler<CompletedEvaluator> {
+    @Override
+    public void onNext(final CompletedEvaluator evaluator) {
+      evaluators.remove(evaluator.getId());
+      doneEvaluators.remove(evaluator.getId());
+    }
+  }
+
+  final class FailedEvaluatorHandler implements EventHandler<FailedEvaluator> {
+    @Override
+    public void onNext(final FailedEvaluator evaluator) {
+      evaluators.remove(evaluator.getId());
+      if (!doneEvaluators.remove(evaluator.getId())) {
+        requestEvaluators(1);
+      }
+    }
+  }
+
+  final class TaskMessageHandler implements EventHandler<TaskMessage> {
+    @Override
+    public void onNext(final TaskMessage message) {
+      ++numTaskMessages;
+    }
+  }
+
+  final class CompletedTaskHandler implements EventHandler<CompletedTask> {
+    @Override
+    public void onNext(final CompletedTask task) {
+      ++numCompletedTasks;
+      doneEvaluators.add(task.getActiveContext().getEvaluatorId());
+      task.getActiveContext().close();
+    }
+  }
+
+  /**
+   * The task failed to launch: its context fails too, and is handled there.
+   */
+  final class FailedTaskHandler implements EventHandler<FailedTask> {
+    @Override
+    public void onNext(final FailedTask task) {
+    }
+  }
+
+  /**
+   * The context failed to launch: replace its evaluator.
+   */
+  final class FailedContextHandler implements EventHandler<FailedContext> {
+    @Override
+    public void onNext(final FailedContext context) {
+      evaluators.get(context.getEvaluatorId()).close();
+      requestEvaluators(1);
+    }
+  }
+
+  private static final class EmptyTask implements Task {
+    @Override
+    public byte[] call(final byte[] memento) {
+      return new byte[0];
+    }
+  }
+}
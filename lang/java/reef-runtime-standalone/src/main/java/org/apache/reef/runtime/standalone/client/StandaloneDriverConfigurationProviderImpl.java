@@ -21,8 +21,11 @@ package org.apache.reef.runtime.standalone.client;
 import org.apache.commons.io.IOUtils;
 import org.apache.reef.runtime.common.client.DriverConfigurationProvider;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
+import org.apache.reef.runtime.standalone.client.parameters.LaunchConcurrency;
+import org.apache.reef.runtime.standalone.client.parameters.NodeCoreCapacity;
 import org.apache.reef.runtime.standalone.client.parameters.NodeFolder;
 import org.apache.reef.runtime.standalone.client.parameters.NodeListFilePath;
+import org.apache.reef.runtime.standalone.client.parameters.NodeMemoryCapacity;
 import org.apache.reef.runtime.standalone.client.parameters.SshPortNum;
 import org.apache.reef.runtime.standalone.driver.StandaloneDriverConfiguration;
 import org.apache.reef.tang.Configuration;
@@ -48,17 +51,26 @@ final class StandaloneDriverConfigurationProviderImpl implements DriverConfigura
   private final String nodeListFilePath;
   private final String nodeFolder;
   private final int sshPortNum;
+  private final int nodeMemoryCapacity;
+  private final int nodeCoreCapacity;
+  private final int launchConcurrency;
   private final Set<String> nodeInfoSet;
 
   @Inject
   StandaloneDriverConfigurationProviderImpl(@Parameter(JVMHeapSlack.class) final double jvmHeapSlack,
                                             @Parameter(NodeListFilePath.class) final String nodeListFilePath,
                                             @Parameter(NodeFolder.class) final String nodeFolder,
-                                            @Parameter(SshPortNum.class) final int sshPortNum) {
+                                            @Parameter(SshPortNum.class) final int sshPortNum,
+                                            @Parameter(NodeMemoryCapacity.class) final int nodeMemoryCapacity,
+                                            @Parameter(NodeCoreCapacity.class) final int nodeCoreCapacity,
+                                            @Parameter(LaunchConcurrency.class) final int launchConcurrency) {
     this.jvmHeapSlack = jvmHeapSlack;
     this.nodeListFilePath = nodeListFilePath;
     this.nodeFolder = nodeFolder;
     this.sshPortNum = sshPortNum;
+    this.nodeMemoryCapacity = nodeMemoryCapacity;
+    this.nodeCoreCapacity = nodeCoreCapacity;
+    this.launchConcurrency = launchConcurrency;
     this.nodeInfoSet = new HashSet<>();
 
     LOG.log(Level.FINEST, "Reading NodeListFilePath");
@@ -80,6 +92,9 @@ final class StandaloneDriverConfigurationProviderImpl implements DriverConfigura
         .set(StandaloneDriverConfiguration.NODE_FOLDER, this.nodeFolder)
         .set(StandaloneDriverConfiguration.NODE_LIST_FILE_PATH, this.nodeListFilePath)
         .set(StandaloneDriverConfiguration.SSH_PORT_NUM, this.sshPortNum)
+        .set(StandaloneDriverConfiguration.NODE_MEMORY_CAPACITY, this.nodeMemoryCapacity)
+        .set(StandaloneDriverConfiguration.NODE_CORE_CAPACITY, this.nodeCoreCapacity)
+        .set(StandaloneDriverConfiguration.LAUNCH_CONCURRENCY, this.launchConcurrency)
         .set(StandaloneDriverConfiguration.JVM_HEAP_SLACK, this.jvmHeapSlack)
         .set(StandaloneDriverConfiguration.CLIENT_REMOTE_IDENTIFIER, clientRemoteId)
         .set(StandaloneDriverConfiguration.JOB_IDENTIFIER, jobId);
@@ -26,8 +26,11 @@ import org.apache.reef.runtime.common.client.CommonRuntimeConfiguration;
 import org.apache.reef.runtime.common.client.DriverConfigurationProvider;
 import org.apache.reef.runtime.common.client.api.JobSubmissionHandler;
 import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
+import org.apache.reef.runtime.standalone.client.parameters.LaunchConcurrency;
+import org.apache.reef.runtime.standalone.client.parameters.NodeCoreCapacity;
 import org.apache.reef.runtime.standalone.client.parameters.NodeFolder;
 import org.apache.reef.runtime.standalone.client.parameters.NodeListFilePath;
+import org.apache.reef.runtime.standalone.client.parameters.NodeMemoryCapacity;
 import org.apache.reef.runtime.standalone.client.parameters.RootFolder;
 import org.apache.reef.runtime.standalone.client.parameters.SshPortNum;
 import org.apache.reef.tang.ConfigurationProvider;
@@ -44,6 +47,7 @@ public final class StandaloneRuntimeConfiguration extends ConfigurationModuleBui
    * The file containing a list of remote ssh nodes (i.e. `username@147.0.23.14`), separated by newlines.
    * The standalone runtime assumes the Driver to run on the same node as Client, thus a local file path is expected.
    * Currently, we expect that $JAVA_HOME is specified to the same directory in each of the nodes.
+   * A line can give the capacity and rack of its node, i.e. `username@147.0.23.14 memory=8192 cores=8 rack=/rack1`.
    */
   public static final RequiredParameter<String> NODE_LIST_FILE_PATH = new RequiredParameter<>();
   /**
@@ -61,6 +65,23 @@ public final class StandaloneRuntimeConfiguration extends ConfigurationModuleBui
    */
   public static final OptionalParameter<Integer> SSH_PORT_NUM = new OptionalParameter<>();
 
+  /**
+   * The memory in MB of a node that evaluators can use, unless its line in the node list gives it.
+   * Unlimited by default.
+   */
+  public static final OptionalParameter<Integer> NODE_MEMORY_CAPACITY = new OptionalParameter<>();
+
+  /**
+   * The number of cores of a node that evaluators can use, unless its line in the node list gives it.
+   * Unlimited by default.
+   */
+  public static final OptionalParameter<Integer> NODE_CORE_CAPACITY = new OptionalParameter<>();
+
+  /**
+   * The maximum number of evaluators that are launched at the same time.
+   */
+  public static final OptionalParameter<Integer> LAUNCH_CONCURRENCY = new OptionalParameter<>();
+
   /**
    * Configuration provides whose Configuration will be merged into all Driver Configuration.
    */
@@ -81,6 +102,9 @@ public final class StandaloneRuntimeConfiguration extends ConfigurationModuleBui
       .bindNamedParameter(NodeFolder.class, NODE_FOLDER)
       .bindNamedParameter(RootFolder.class, RUNTIME_ROOT_FOLDER)
       .bindNamedParameter(SshPortNum.class, SSH_PORT_NUM)
+      .bindNamedParameter(NodeMemoryCapacity.class, NODE_MEMORY_CAPACITY)
+      .bindNamedParameter(NodeCoreCapacity.class, NODE_CORE_CAPACITY)
+      .bindNamedParameter(LaunchConcurrency.class, LAUNCH_CONCURRENCY)
       .bindSetEntry(DriverConfigurationProviders.class, DRIVER_CONFIGURATION_PROVIDERS)
       .build();
 
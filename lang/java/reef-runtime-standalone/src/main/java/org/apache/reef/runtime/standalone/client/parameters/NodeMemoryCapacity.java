@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.standalone.client.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The memory of a remote node that evaluators can use, unless the node list gives it for the node.
+ */
+@NamedParameter(default_value = "-1",
+    doc = "The memory in MB of a remote node that evaluators can use, unless the node list gives it for the node. " +
+        "-1 means no limit.")
+public final class NodeMemoryCapacity implements Name<Integer> {
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private NodeMemoryCapacity() {
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.standalone.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Moves evaluator folders to remote nodes and builds the commands that run evaluators there.
+ * The standalone runtime calls it from several threads at once.
+ */
+@Private
+@DriverSide
+@DefaultImplementation(SshNodeLauncher.class)
+interface NodeLauncher extends AutoCloseable {
+
+  /**
+   * Copies the folder of a container, named after the container, to the node.
+   */
+  void copy(RemoteNode node, File containerFolder) throws IOException;
+
+  /**
+   * @return the command line that runs the given command in the copied folder of the container on the node.
+   */
+  List<String> getCommandLine(RemoteNode node, String containerID, List<String> commandLine) throws IOException;
+
+  /**
+   * Closes the connections to the nodes.
+   */
+  @Override
+  void close();
+}
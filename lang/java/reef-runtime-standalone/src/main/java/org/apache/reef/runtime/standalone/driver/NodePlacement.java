@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.standalone.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
+import org.apache.reef.util.Optional;
+
+import java.util.List;
+
+/**
+ * Places evaluators on the remote nodes that have memory and cores left for them.
+ * <p>
+ * A request goes to one of its preferred nodes if any fits it, else to a node in one of its preferred racks.
+ * If neither fits and the request relaxes locality, or it has no preferences, it goes to any node that fits.
+ * Among the candidates, the node with the most memory and then cores left is chosen, which spreads evaluators
+ * evenly over nodes of equal capacity.
+ */
+@Private
+@DriverSide
+final class NodePlacement {
+
+  private final List<RemoteNode> nodes;
+
+  NodePlacement(final List<RemoteNode> nodes) {
+    if (nodes.isEmpty()) {
+      throw new IllegalArgumentException("The node list of the standalone runtime is empty.");
+    }
+    this.nodes = nodes;
+  }
+
+  /**
+   * Chooses a node for one evaluator of the request, and reserves its memory and cores there.
+   * @return the node, or empty if no node that the request may use has enough memory and cores left.
+   */
+  Optional<RemoteNode> place(final ResourceRequestEvent request, final int megaBytes, final int numberOfCores) {
+    final List<String> nodeNames = request.getNodeNameList();
+    final List<String> rackNames = request.getRackNameList();
+
+    RemoteNode best = null;
+    if (!nodeNames.isEmpty()) {
+      best = findBestFit(megaBytes, numberOfCores, nodeNames, false);
+    }
+    if (best == null && !rackNames.isEmpty()) {
+      best = findBestFit(megaBytes, numberOfCores, rackNames, true);
+    }
+    if (best == null && (request.getRelaxLocality().orElse(true) || nodeNames.isEmpty() && rackNames.isEmpty())) {
+      best = findBestFit(megaBytes, numberOfCores, null, false);
+    }
+
+    if (best == null) {
+      return Optional.empty();
+    }
+    best.reserve(megaBytes, numberOfCores);
+    return Optional.of(best);
+  }
+
+  void release(final RemoteNode node, final int megaBytes, final int numberOfCores) {
+    node.release(megaBytes, numberOfCores);
+  }
+
+  /**
+   * @param names node or rack names the node must match, or null for any node.
+   */
+  private RemoteNode findBestFit(final int megaBytes, final int numberOfCores,
+                                 final List<String> names, final boolean areRacks) {
+    RemoteNode best = null;
+    for (final RemoteNode node : this.nodes) {
+      if (node.fits(megaBytes, numberOfCores) && (names == null || matches(node, names, areRacks)) &&
+          (best == null || node.getFreeMemory() > best.getFreeMemory() ||
+              node.getFreeMemory() == best.getFreeMemory() && node.getFreeCores() > best.getFreeCores())) {
+        best = node;
+      }
+    }
+    return best;
+  }
+
+  private static boolean matches(final RemoteNode node, final List<String> names, final boolean areRacks) {
+    for (final String name : names) {
+      if (areRacks ? node.isInRack(name) : node.hasName(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
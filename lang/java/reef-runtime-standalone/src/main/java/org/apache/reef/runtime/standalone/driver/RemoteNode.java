@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.standalone.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.local.client.parameters.RackNames;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A remote node of the standalone runtime, and the memory and cores its evaluators use.
+ * <p>
+ * Each line of the node list describes one node as {@code [username@]hostname [memory=MB] [cores=N] [rack=NAME]}.
+ * Memory and cores that are not given default to the configured node capacity, where -1 means no limit.
+ */
+@Private
+@DriverSide
+final class RemoteNode {
+
+  private final String address;
+  private final String username;
+  private final String hostname;
+  private final String nodeId;
+  private final String rackName;
+  private final int memoryCapacity;
+  private final int coreCapacity;
+  private int usedMemory = 0;
+  private int usedCores = 0;
+
+  private RemoteNode(final String address, final int sshPortNum, final String rackName,
+                     final int memoryCapacity, final int coreCapacity) {
+    this.address = address;
+    final int at = address.indexOf('@');
+    this.username = at < 0 ? System.getProperty("user.name") : address.substring(0, at);
+    this.hostname = address.substring(at + 1);
+    this.nodeId = address + ":" + sshPortNum;
+    this.rackName = rackName;
+    this.memoryCapacity = memoryCapacity;
+    this.coreCapacity = coreCapacity;
+  }
+
+  /**
+   * Parses the node list. An entry can hold several lines; empty lines and lines starting with # are skipped.
+   */
+  static List<RemoteNode> parse(final Iterable<String> nodeInfoSet, final int sshPortNum,
+                                final int defaultMemoryCapacity, final int defaultCoreCapacity) {
+    final List<RemoteNode> nodes = new ArrayList<>();
+    for (final String nodeInfo : nodeInfoSet) {
+      for (final String line : nodeInfo.split("\\r?\\n")) {
+        final String[] fields = line.trim().split("\\s+");
+        if (fields[0].isEmpty() || fields[0].startsWith("#")) {
+          continue;
+        }
+        int memory = defaultMemoryCapacity;
+        int cores = defaultCoreCapacity;
+        String rack = RackNames.DEFAULT_RACK_NAME;
+        for (int i = 1; i < fields.length; ++i) {
+          final int eq = fields[i].indexOf('=');
+          final String key = eq < 0 ? fields[i] : fields[i].substring(0, eq);
+          final String value = fields[i].substring(eq + 1);
+          switch (key) {
+          case "memory":
+            memory = Integer.parseInt(value);
+            break;
+          case "cores":
+            cores = Integer.parseInt(value);
+            break;
+          case "rack":
+            rack = value;
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown attribute [" + fields[i] + "] of node " + fields[0]);
+          }
+        }
+        nodes.add(new RemoteNode(fields[0], sshPortNum, rack, memory, cores));
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * @return the address to connect to with ssh, as given in the node list.
+   */
+  String getAddress() {
+    return this.address;
+  }
+
+  String getUsername() {
+    return this.username;
+  }
+
+  String getHostname() {
+    return this.hostname;
+  }
+
+  String getNodeId() {
+    return this.nodeId;
+  }
+
+  String getRackName() {
+    return this.rackName;
+  }
+
+  /**
+   * @return whether a node name of a request refers to this node.
+   */
+  boolean hasName(final String name) {
+    return name.equals(this.address) || name.equals(this.hostname) || name.equals(this.nodeId);
+  }
+
+  /**
+   * @return whether a rack name of a request refers to the rack of this node. "/rack/*" matches all racks in /rack.
+   */
+  boolean isInRack(final String name) {
+    return name.endsWith("*") ?
+        this.rackName.startsWith(name.substring(0, name.length() - 1)) : name.equals(this.rackName);
+  }
+
+  boolean fits(final int megaBytes, final int numberOfCores) {
+    return getFreeMemory() >= megaBytes && getFreeCores() >= numberOfCores;
+  }
+
+  /**
+   * @return the memory left for evaluators. Nodes without a limit count down from Long.MAX_VALUE,
+   * so that comparing the memory left also prefers the least loaded of them.
+   */
+  long getFreeMemory() {
+    return (this.memoryCapacity < 0 ? Long.MAX_VALUE : this.memoryCapacity) - this.usedMemory;
+  }
+
+  long getFreeCores() {
+    return (this.coreCapacity < 0 ? Long.MAX_VALUE : this.coreCapacity) - this.usedCores;
+  }
+
+  void reserve(final int megaBytes, final int numberOfCores) {
+    this.usedMemory += megaBytes;
+    this.usedCores += numberOfCores;
+  }
+
+  void release(final int megaBytes, final int numberOfCores) {
+    this.usedMemory -= megaBytes;
+    this.usedCores -= numberOfCores;
+  }
+
+  @Override
+  public String toString() {
+    return "RemoteNode{" +
+        "address='" + this.address + '\'' +
+        ", rack='" + this.rackName + '\'' +
+        ", memory=" + this.usedMemory + "/" + this.memoryCapacity +
+        ", cores=" + this.usedCores + "/" + this.coreCapacity +
+        "}";
+  }
+}
@@ -18,7 +18,6 @@
  */
 package org.apache.reef.runtime.standalone.driver;
 
-import com.jcraft.jsch.*;
 import org.apache.reef.driver.evaluator.EvaluatorProcess;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseEvent;
@@ -31,27 +30,34 @@ import org.apache.reef.runtime.common.files.FileResource;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.runtime.standalone.client.parameters.LaunchConcurrency;
+import org.apache.reef.runtime.standalone.client.parameters.NodeCoreCapacity;
+import org.apache.reef.runtime.standalone.client.parameters.NodeMemoryCapacity;
 import org.apache.reef.runtime.standalone.client.parameters.RootFolder;
 import org.apache.reef.runtime.local.process.ReefRunnableProcessObserver;
 import org.apache.reef.runtime.standalone.client.parameters.SshPortNum;
 import org.apache.reef.runtime.yarn.driver.REEFEventHandlers;
-import org.apache.reef.runtime.standalone.client.parameters.NodeFolder;
 import org.apache.reef.runtime.standalone.client.parameters.NodeInfoSet;
 import org.apache.reef.tang.annotations.Parameter;
-import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
-import org.apache.reef.util.CollectionUtils;
 import org.apache.reef.util.Optional;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
 
 import javax.inject.Inject;
 import java.io.File;
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Management module for remote nodes in standalone runtime.
+ * <p>
+ * Containers are placed on the nodes that have memory and cores left for them, see {@link NodePlacement}.
+ * Requests that fit on no node wait until containers are released. Evaluators are launched on a bounded pool
+ * of threads, so that copying files to and starting evaluators on different nodes overlap.
  */
 public final class RemoteNodeManager {
 
@@ -64,17 +70,28 @@ public final class RemoteNodeManager {
    */
   private final Map<String, SshProcessContainer> containers = new HashMap<>();
 
+  /**
+   * Map from nodeID -> RemoteNode.
+   */
+  private final Map<String, RemoteNode> nodes = new HashMap<>();
+
+  /**
+   * Requests that still wait for containers, in the order they were made.
+   */
+  private final List<PendingRequest> pendingRequests = new LinkedList<>();
+
+  private final AtomicInteger containerCount = new AtomicInteger(0);
+
   private final ConfigurationSerializer configurationSerializer;
   private final REEFFileNames fileNames;
   private final double jvmHeapFactor;
   private final REEFEventHandlers reefEventHandlers;
   private final String errorHandlerRID;
-  private final Set<String> nodeInfoSet;
-  private Iterator<String> nodeSetIterator;
+  private final NodePlacement placement;
+  private final NodeLauncher launcher;
+  private final ExecutorService launchExecutor;
   private final ReefRunnableProcessObserver processObserver;
   private final String rootFolder;
-  private final String nodeFolder;
-  private final int sshPortNum;
 
   @Inject
   RemoteNodeManager(final ConfigurationSerializer configurationSerializer,
@@ -82,25 +99,31 @@ public final class RemoteNodeManager {
                     final RemoteManager remoteManager,
                     final REEFEventHandlers reefEventHandlers,
                     final ReefRunnableProcessObserver processObserver,
+                    final NodeLauncher launcher,
                     @Parameter(JVMHeapSlack.class) final double jvmHeapSlack,
                     @Parameter(NodeInfoSet.class) final Set<String> nodeInfoSet,
                     @Parameter(RootFolder.class) final String rootFolder,
-                    @Parameter(NodeFolder.class) final String nodeFolder,
-                    @Parameter(SshPortNum.class) final int sshPortNum) {
+                    @Parameter(SshPortNum.class) final int sshPortNum,
+                    @Parameter(NodeMemoryCapacity.class) final int nodeMemoryCapacity,
+                    @Parameter(NodeCoreCapacity.class) final int nodeCoreCapacity,
+                    @Parameter(LaunchConcurrency.class) final int launchConcurrency) {
     this.configurationSerializer = configurationSerializer;
     this.fileNames = fileNames;
     this.processObserver = processObserver;
     this.errorHandlerRID = remoteManager.getMyIdentifier();
     this.reefEventHandlers = reefEventHandlers;
     this.jvmHeapFactor = 1.0 - jvmHeapSlack;
-    this.nodeInfoSet = nodeInfoSet;
     this.rootFolder = rootFolder;
-    this.nodeFolder = nodeFolder;
-    this.sshPortNum = sshPortNum;
+    this.launcher = launcher;
+    this.launchExecutor = Executors.newFixedThreadPool(launchConcurrency, new DefaultThreadFactory("StandaloneLaunch"));
 
-    this.nodeSetIterator = this.nodeInfoSet.iterator();
+    final List<RemoteNode> nodeList = RemoteNode.parse(nodeInfoSet, sshPortNum, nodeMemoryCapacity, nodeCoreCapacity);
+    for (final RemoteNode node : nodeList) {
+      this.nodes.put(node.getNodeId(), node);
+    }
+    this.placement = new NodePlacement(nodeList);
 
-    LOG.log(Level.FINEST, "Initialized RemoteNodeManager.");
+    LOG.log(Level.FINEST, "Initialized RemoteNodeManager with nodes {0}", nodeList);
   }
 
   private void release(final String containerID) {
@@ -111,6 +134,8 @@ public final class RemoteNodeManager {
         if (sshProcessContainer.isRunning()) {
           sshProcessContainer.close();
         }
+        this.placement.release(this.nodes.get(sshProcessContainer.getNodeID()),
+            sshProcessContainer.getMemory(), sshProcessContainer.getNumberOfCores());
         this.containers.remove(containerID);
       } else {
         LOG.log(Level.INFO, "Ignoring release request for unknown containerID [{0}]", containerID);
@@ -121,98 +146,57 @@ public final class RemoteNodeManager {
   void onResourceLaunchRequest(final ResourceLaunchEvent resourceLaunchEvent) {
     LOG.log(Level.INFO, "RemoteNodeManager:onResourceLaunchRequest");
 
-    // connect to the remote node.
-    final String remoteNode;
-    try {
-      synchronized (this.nodeSetIterator) {
-        remoteNode = this.getNode();
-      }
-    } catch (Exception e) {
-      throw new RuntimeException("Unable to get remote node", e);
+    final SshProcessContainer sshProcessContainer;
+    synchronized (this.containers) {
+      sshProcessContainer = this.containers.get(resourceLaunchEvent.getIdentifier());
     }
-    final String username;
-    final String hostname;
-    if (remoteNode.indexOf('@') < 0) {
-      username = System.getProperty("user.name");
-      hostname = remoteNode;
-    } else {
-      username = remoteNode.substring(0, remoteNode.indexOf('@'));
-      hostname = remoteNode.substring(remoteNode.indexOf('@') + 1, remoteNode.length());
+    if (null == sshProcessContainer) {
+      LOG.log(Level.WARNING, "Ignoring launch request for unknown containerID [{0}]",
+          resourceLaunchEvent.getIdentifier());
+      return;
     }
-    final String userHomeDir = System.getProperty("user.home");
-    final String privatekey = userHomeDir + "/.ssh/id_dsa";
-
-    synchronized (this.containers) {
-      try {
-        final JSch remoteConnection = new JSch();
-        remoteConnection.addIdentity(privatekey);
-        final Session sshSession = remoteConnection.getSession(username, hostname, sshPortNum);
-
-        final Properties jschConfig = new Properties();
-        jschConfig.put("StrictHostKeyChecking", "no");
-        sshSession.setConfig(jschConfig);
-
-        try {
-          sshSession.connect();
-        } catch (JSchException ex) {
-          throw new RuntimeException("Unable to connect to " + remoteNode + ". " +
-              "Check your authorized_keys settings. It should contain the public key of " + privatekey, ex);
-        }
-
-        LOG.log(Level.FINEST, "Established connection with {0}", hostname);
-
-        final SshProcessContainer sshProcessContainer = this.containers.get(resourceLaunchEvent.getIdentifier())
-            .withRemoteConnection(sshSession, remoteNode);
-
-        // Add the global files and libraries.
-        sshProcessContainer.addGlobalFiles(this.fileNames.getGlobalFolder());
-        sshProcessContainer.addLocalFiles(getLocalFiles(resourceLaunchEvent));
 
-        // Make the configuration file of the evaluator.
-        final File evaluatorConfigurationFile =
-            new File(sshProcessContainer.getFolder(), fileNames.getEvaluatorConfigurationPath());
-
-        try {
-          this.configurationSerializer.toFile(resourceLaunchEvent.getEvaluatorConf(), evaluatorConfigurationFile);
-        } catch (final IOException | BindException e) {
-          throw new RuntimeException("Unable to write configuration.", e);
-        }
+    this.launchExecutor.submit(new Runnable() {
+      @Override
+      public void run() {
+        launch(resourceLaunchEvent, sshProcessContainer);
+      }
+    });
+  }
 
-        // Copy files to remote node
-        final Channel channel = sshSession.openChannel("exec");
-        final String mkdirCommand = "mkdir " + nodeFolder;
-        ((ChannelExec) channel).setCommand(mkdirCommand);
-        channel.connect();
-
-        final List<String> copyCommand =
-            new ArrayList<>(Arrays.asList("scp", "-r",
-                sshProcessContainer.getFolder().toString(),
-                remoteNode + ":~/" + nodeFolder + "/" + sshProcessContainer.getContainerID()));
-        LOG.log(Level.INFO, "Copying files: {0}", copyCommand);
-        final Process copyProcess = new ProcessBuilder(copyCommand).start();
-        try {
-          copyProcess.waitFor();
-        } catch (final InterruptedException ex) {
-          throw new RuntimeException("Copying Interrupted: ", ex);
+  private void launch(final ResourceLaunchEvent resourceLaunchEvent, final SshProcessContainer sshProcessContainer) {
+    final String containerID = sshProcessContainer.getContainerID();
+    final RemoteNode node = this.nodes.get(sshProcessContainer.getNodeID());
+    try {
+      // Add the global files and libraries.
+      sshProcessContainer.addGlobalFiles(this.fileNames.getGlobalFolder());
+      sshProcessContainer.addLocalFiles(getLocalFiles(resourceLaunchEvent));
+
+      // Make the configuration file of the evaluator.
+      final File evaluatorConfigurationFile =
+          new File(sshProcessContainer.getFolder(), fileNames.getEvaluatorConfigurationPath());
+      this.configurationSerializer.toFile(resourceLaunchEvent.getEvaluatorConf(), evaluatorConfigurationFile);
+
+      // Copy files to remote node
+      this.launcher.copy(node, sshProcessContainer.getFolder());
+
+      final List<String> command = this.launcher.getCommandLine(node, containerID,
+          getLaunchCommand(resourceLaunchEvent, sshProcessContainer.getMemory()));
+      synchronized (this.containers) {
+        if (!this.containers.containsKey(containerID)) {
+          LOG.log(Level.INFO, "Container was released while launching: {0}", sshProcessContainer);
+          return;
         }
-
-        final List<String> command = getLaunchCommand(resourceLaunchEvent, sshProcessContainer.getMemory());
         LOG.log(Level.FINEST, "Launching container: {0}", sshProcessContainer);
         sshProcessContainer.run(command);
-      } catch (final JSchException | IOException ex) {
-        LOG.log(Level.WARNING, "Failed to establish connection with {0}@{1}:\n Exception:{2}",
-            new Object[]{username, hostname, ex});
       }
+    } catch (final Exception ex) {
+      LOG.log(Level.WARNING, "Failed to launch " + sshProcessContainer + " on " + node, ex);
+      // Report the evaluator as failed, so that the driver does not wait for it.
+      this.processObserver.onProcessExit(containerID, 1);
     }
   }
 
-  private String getNode() {
-    if (!nodeSetIterator.hasNext()) {
-      nodeSetIterator = this.nodeInfoSet.iterator();
-    }
-    return nodeSetIterator.next().trim();
-  }
-
   private static List<File> getLocalFiles(final ResourceLaunchEvent launchRequest) {
     final List<File> files = new ArrayList<>();  // Libraries local to this evaluator
     for (final FileResource frp : launchRequest.getFileSet()) {
@@ -236,46 +220,84 @@ public final class RemoteNodeManager {
   }
 
   void onResourceRequest(final ResourceRequestEvent resourceRequestEvent) {
-    final Optional<String> node = selectNode(resourceRequestEvent);
-    final String nodeId;
+    final List<ResourceAllocationEvent> allocations;
+    synchronized (this.containers) {
+      this.pendingRequests.add(new PendingRequest(resourceRequestEvent));
+      allocations = this.allocatePendingRequests();
+    }
+    this.sendAllocations(allocations);
 
-    if (node.isPresent()) {
-      nodeId = node.get();
-    } else {
-      // Allocate new container
-      nodeId = this.getNode() + ":" + String.valueOf(sshPortNum);
+    // set the status as RUNNING.
+    updateRuntimeStatus();
+  }
+
+  /**
+   * Places as many of the pending requests as fit, in the order they were made.
+   * A request that does not fit does not hold back later, smaller ones.
+   * @return the allocations to send once the lock is released.
+   */
+  private List<ResourceAllocationEvent> allocatePendingRequests() {
+    final List<ResourceAllocationEvent> allocations = new ArrayList<>();
+    for (final Iterator<PendingRequest> it = this.pendingRequests.iterator(); it.hasNext();) {
+      final PendingRequest pending = it.next();
+      while (pending.remaining > 0) {
+        final Optional<RemoteNode> node = this.placement.place(pending.request, pending.memory, pending.cores);
+        if (!node.isPresent()) {
+          LOG.log(Level.FINE, "No node has {0} MB and {1} cores left, {2} containers wait",
+              new Object[] {pending.memory, pending.cores, pending.remaining});
+          break;
+        }
+        allocations.add(this.allocate(node.get(), pending.memory, pending.cores));
+        --pending.remaining;
+      }
+      if (pending.remaining == 0) {
+        it.remove();
+      }
     }
+    return allocations;
+  }
 
-    final String processID = nodeId + "-" + String.valueOf(System.currentTimeMillis());
+  private ResourceAllocationEvent allocate(final RemoteNode node, final int megaBytes, final int numberOfCores) {
+    final String nodeId = node.getNodeId();
+    final String processID = nodeId + "-" + String.valueOf(System.currentTimeMillis()) +
+        "-" + this.containerCount.incrementAndGet();
     final File processFolder = new File(this.rootFolder, processID);
 
     final SshProcessContainer sshProcessContainer = new SshProcessContainer(errorHandlerRID, nodeId, processID,
-        processFolder, resourceRequestEvent.getMemorySize().get(), resourceRequestEvent.getVirtualCores().get(),
-        null, this.fileNames, this.nodeFolder, this.processObserver, this.containerThreads);
+        processFolder, megaBytes, numberOfCores, node.getRackName(), this.fileNames,
+        this.processObserver, this.containerThreads);
 
     this.containers.put(processID, sshProcessContainer);
+    LOG.log(Level.FINE, "Allocated {0} on {1}", new Object[] {processID, node});
 
-    final ResourceAllocationEvent alloc = ResourceEventImpl.newAllocationBuilder()
+    return ResourceEventImpl.newAllocationBuilder()
         .setIdentifier(processID)
         .setNodeId(nodeId)
-        .setResourceMemory(resourceRequestEvent.getMemorySize().get())
-        .setVirtualCores(resourceRequestEvent.getVirtualCores().get())
+        .setResourceMemory(megaBytes)
+        .setVirtualCores(numberOfCores)
+        .setRackName(node.getRackName())
         .setRuntimeName("STANDALONE")
         .build();
-    reefEventHandlers.onResourceAllocation(alloc);
+  }
 
-    // set the status as RUNNING.
-    updateRuntimeStatus();
+  private void sendAllocations(final List<ResourceAllocationEvent> allocations) {
+    for (final ResourceAllocationEvent alloc : allocations) {
+      reefEventHandlers.onResourceAllocation(alloc);
+    }
   }
 
   void onResourceReleaseRequest(final ResourceReleaseEvent releaseRequest) {
+    final List<ResourceAllocationEvent> allocations;
     synchronized (this.containers) {
       LOG.log(Level.FINEST, "Release container: {0}", releaseRequest.getIdentifier());
       this.release(releaseRequest.getIdentifier());
+      allocations = this.allocatePendingRequests();
     }
+    this.sendAllocations(allocations);
   }
 
   public synchronized void close() {
+    this.launchExecutor.shutdownNow();
     synchronized (this.containers) {
       if (this.containers.isEmpty()) {
         LOG.log(Level.FINEST, "Clean shutdown with no outstanding containers.");
@@ -287,20 +309,7 @@ public final class RemoteNodeManager {
         }
       }
     }
-  }
-
-  private Optional<String> selectNode(final ResourceRequestEvent resourceRequestEvent) {
-    if (CollectionUtils.isNotEmpty(resourceRequestEvent.getNodeNameList())) {
-      for (final String nodeName : resourceRequestEvent.getNodeNameList()) {
-        return Optional.of(nodeName);
-      }
-    }
-    if (CollectionUtils.isNotEmpty(resourceRequestEvent.getRackNameList())) {
-      for (final String nodeName : resourceRequestEvent.getRackNameList()) {
-        return Optional.of(nodeName);
-      }
-    }
-    return Optional.empty();
+    this.launcher.close();
   }
 
   private synchronized void updateRuntimeStatus() {
@@ -310,4 +319,21 @@ public final class RemoteNodeManager {
 
     this.reefEventHandlers.onRuntimeStatus(builder.build());
   }
+
+  /**
+   * A request and the number of its containers that are not allocated yet.
+   */
+  private static final class PendingRequest {
+    private final ResourceRequestEvent request;
+    private final int memory;
+    private final int cores;
+    private int remaining;
+
+    private PendingRequest(final ResourceRequestEvent request) {
+      this.request = request;
+      this.memory = request.getMemorySize().get();
+      this.cores = request.getVirtualCores().get();
+      this.remaining = request.getResourceCount();
+    }
+  }
 }
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.standalone.driver;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import org.apache.commons.io.IOUtils;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.standalone.client.parameters.NodeFolder;
+import org.apache.reef.runtime.standalone.client.parameters.SshPortNum;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Launches evaluators over ssh.
+ * <p>
+ * The first launch on a node opens a session to it, which creates the node folder and looks up its absolute path.
+ * The session is kept for later launches on the node. The scp and ssh processes of all launches on a node share
+ * one connection through an ssh control master, so that only the first of them pays for the ssh handshake.
+ */
+@Private
+@DriverSide
+final class SshNodeLauncher implements NodeLauncher {
+
+  private static final Logger LOG = Logger.getLogger(SshNodeLauncher.class.getName());
+
+  /**
+   * Seconds that an idle ssh control master stays open.
+   */
+  private static final int CONTROL_PERSIST_SECONDS = 60;
+
+  private final String nodeFolder;
+  private final int sshPortNum;
+  private final String privateKey = System.getProperty("user.home") + "/.ssh/id_dsa";
+
+  /**
+   * Map from node address -> open session and absolute path of the node folder.
+   */
+  private final Map<String, NodeConnection> connections = new HashMap<>();
+
+  @Inject
+  SshNodeLauncher(@Parameter(NodeFolder.class) final String nodeFolder,
+                  @Parameter(SshPortNum.class) final int sshPortNum) {
+    this.nodeFolder = nodeFolder;
+    this.sshPortNum = sshPortNum;
+  }
+
+  @Override
+  public void copy(final RemoteNode node, final File containerFolder) throws IOException {
+    final List<String> copyCommand =
+        new ArrayList<>(Arrays.asList("scp", "-r", "-q", "-P", String.valueOf(sshPortNum)));
+    copyCommand.addAll(getControlOptions(node));
+    copyCommand.add(containerFolder.getAbsolutePath());
+    copyCommand.add(node.getAddress() + ":" + getConnection(node).remoteFolder + "/" + containerFolder.getName());
+    LOG.log(Level.FINE, "Copying files: {0}", copyCommand);
+
+    final Process copyProcess = new ProcessBuilder(copyCommand).redirectErrorStream(true).start();
+    final String output = IOUtils.toString(copyProcess.getInputStream(), StandardCharsets.UTF_8.name());
+    try {
+      if (copyProcess.waitFor() != 0) {
+        throw new IOException("Copying to " + node.getAddress() + " failed: " + output);
+      }
+    } catch (final InterruptedException ex) {
+      throw new IOException("Copying interrupted", ex);
+    }
+  }
+
+  @Override
+  public List<String> getCommandLine(final RemoteNode node, final String containerID,
+                                     final List<String> commandLine) throws IOException {
+    final List<String> remoteCommand = new ArrayList<>(Arrays.asList("ssh", "-p", String.valueOf(sshPortNum)));
+    remoteCommand.addAll(getControlOptions(node));
+    remoteCommand.addAll(Arrays.asList(node.getAddress(),
+        "cd", getConnection(node).remoteFolder + "/" + containerID, "&&"));
+    remoteCommand.addAll(commandLine);
+    return remoteCommand;
+  }
+
+  @Override
+  public void close() {
+    synchronized (this.connections) {
+      for (final NodeConnection connection : this.connections.values()) {
+        connection.session.disconnect();
+      }
+      this.connections.clear();
+    }
+  }
+
+  private List<String> getControlOptions(final RemoteNode node) {
+    // Unix socket paths are short, so the socket is named after a hash of the node.
+    final File controlPath = new File(System.getProperty("java.io.tmpdir"),
+        "reef-ssh-" + Integer.toHexString((node.getNodeId() + "@" + System.getProperty("user.name")).hashCode()));
+    return Arrays.asList(
+        "-o", "ControlMaster=auto",
+        "-o", "ControlPath=" + controlPath.getAbsolutePath(),
+        "-o", "ControlPersist=" + CONTROL_PERSIST_SECONDS);
+  }
+
+  /**
+   * @return the connection to the node, opened on the first call. Launches on other nodes do not wait for it.
+   */
+  private NodeConnection getConnection(final RemoteNode node) throws IOException {
+    synchronized (node) {
+      synchronized (this.connections) {
+        final NodeConnection connection = this.connections.get(node.getAddress());
+        if (connection != null) {
+          return connection;
+        }
+      }
+
+      final Session session;
+      try {
+        final JSch remoteConnection = new JSch();
+        remoteConnection.addIdentity(this.privateKey);
+        session = remoteConnection.getSession(node.getUsername(), node.getHostname(), this.sshPortNum);
+        final Properties jschConfig = new Properties();
+        jschConfig.put("StrictHostKeyChecking", "no");
+        session.setConfig(jschConfig);
+        session.connect();
+      } catch (final JSchException ex) {
+        throw new IOException("Unable to connect to " + node.getAddress() + ". " +
+            "Check your authorized_keys settings. It should contain the public key of " + this.privateKey, ex);
+      }
+      LOG.log(Level.FINEST, "Established connection with {0}", node.getHostname());
+
+      final NodeConnection connection =
+          new NodeConnection(session, exec(session, "mkdir -p " + this.nodeFolder + " && cd " + this.nodeFolder +
+              " && pwd"));
+      synchronized (this.connections) {
+        this.connections.put(node.getAddress(), connection);
+      }
+      return connection;
+    }
+  }
+
+  /**
+   * Runs a command in the session.
+   * @return the trimmed standard output of the command.
+   */
+  private static String exec(final Session session, final String command) throws IOException {
+    try {
+      final ChannelExec channel = (ChannelExec) session.openChannel("exec");
+      channel.setCommand(command);
+      channel.setInputStream(null);
+      final InputStream stdout = channel.getInputStream();
+      channel.connect();
+      try {
+        final String output = IOUtils.toString(stdout, StandardCharsets.UTF_8.name()).trim();
+        // The exit status can arrive after the end of the output.
+        while (!channel.isClosed()) {
+          Thread.sleep(10);
+        }
+        if (channel.getExitStatus() != 0) {
+          throw new IOException("Command [" + command + "] failed on " + session.getHost() +
+              " with exit status " + channel.getExitStatus());
+        }
+        return output;
+      } finally {
+        channel.disconnect();
+      }
+    } catch (final JSchException | InterruptedException ex) {
+      throw new IOException("Unable to run [" + command + "] on " + session.getHost(), ex);
+    }
+  }
+
+  /**
+   * An open session to a node and the absolute path of the node folder there.
+   */
+  private static final class NodeConnection {
+    private final Session session;
+    private final String remoteFolder;
+
+    private NodeConnection(final Session session, final String remoteFolder) {
+      this.session = session;
+      this.remoteFolder = remoteFolder;
+    }
+  }
+}
@@ -18,10 +18,6 @@
  */
 package org.apache.reef.runtime.standalone.driver;
 
-import com.jcraft.jsch.Channel;
-import com.jcraft.jsch.ChannelExec;
-import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.annotations.audience.TaskSide;
 import org.apache.reef.runtime.common.files.REEFFileNames;
@@ -31,11 +27,8 @@ import org.apache.reef.runtime.local.process.RunnableProcess;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
@@ -43,6 +36,8 @@ import java.util.logging.Logger;
 
 /**
  * A Container that runs an Evaluator in a SshProcess.
+ * Its folder is prepared locally, and {@link #run(List)} is given the ssh command line that runs the Evaluator
+ * in the copy of the folder on the remote node.
  */
 @Private
 @TaskSide
@@ -64,16 +59,12 @@ final class SshProcessContainer implements Container {
   private Thread theThread;
   private final ReefRunnableProcessObserver processObserver;
   private RunnableProcess process;
-  private Session remoteSession;
-  private String remoteHostName;
-  private final String nodeFolder;
 
   /**
    * @param errorHandlerRID the remoteID of the error handler.
    * @param nodeID          the ID of the (fake) node this Container is instantiated on
    * @param containedID     the  ID used to identify this container uniquely
    * @param folder          the folder in which logs etc. will be deposited.
-   * @param nodeFolder      the folder in which the shaded jar file should be stored.
    */
   SshProcessContainer(final String errorHandlerRID,
                       final String nodeID,
@@ -83,7 +74,6 @@ final class SshProcessContainer implements Container {
                       final int numberOfCores,
                       final String rackName,
                       final REEFFileNames fileNames,
-                      final String nodeFolder,
                       final ReefRunnableProcessObserver processObserver,
                       final ThreadGroup threadGroup) {
 
@@ -96,7 +86,6 @@ final class SshProcessContainer implements Container {
     this.numberOfCores = numberOfCores;
     this.rackName = rackName;
     this.fileNames = fileNames;
-    this.nodeFolder = nodeFolder;
     this.threadGroup = threadGroup;
 
     final File reefFolder = new File(folder, fileNames.getREEFFolderName());
@@ -114,7 +103,7 @@ final class SshProcessContainer implements Container {
 
   @Override
   public void run(final List<String> commandLine) {
-    this.process = new RunnableProcess(getRemoteCommand(commandLine),
+    this.process = new RunnableProcess(commandLine,
         this.containedID,
         this.folder,
         this.processObserver,
@@ -210,54 +199,4 @@ final class SshProcessContainer implements Container {
         ", rack=" + rackName +
         "}";
   }
-
-  SshProcessContainer withRemoteConnection(final Session newRemoteSession, final String newRemoteHostName) {
-    this.remoteSession = newRemoteSession;
-    this.remoteHostName = newRemoteHostName;
-    return this;
-  }
-
-  private List<String> getRemoteCommand(final List<String> commandLine) {
-    final List<String> commandPrefix = new ArrayList<>(Arrays.asList("ssh", this.remoteHostName,
-        "cd", this.getRemoteAbsolutePath(), "&&"));
-    commandPrefix.addAll(commandLine);
-    return commandPrefix;
-  }
-
-  private String getRemoteAbsolutePath() {
-    return getRemoteHomePath() + "/" + this.nodeFolder + "/" + this.containedID;
-  }
-
-  private String getRemoteHomePath() {
-    final String getHomeCommand = "pwd";
-    try {
-      final Channel channel = this.remoteSession.openChannel("exec");
-      ((ChannelExec) channel).setCommand(getHomeCommand);
-      channel.setInputStream(null);
-      final InputStream stdout = channel.getInputStream();
-      channel.connect();
-
-      byte[] tmp = new byte[1024];
-      StringBuilder homePath = new StringBuilder();
-      while (true) {
-        while (stdout.available() > 0) {
-          final int len = stdout.read(tmp, 0, 1024);
-          if (len < 0) {
-            break;
-          }
-          homePath = homePath.append(new String(tmp, 0, len, StandardCharsets.UTF_8));
-        }
-        if (channel.isClosed()) {
-          if (stdout.available() > 0) {
-            continue;
-          }
-          break;
-        }
-      }
-      return homePath.toString().trim();
-    } catch (final JSchException | IOException ex) {
-      throw new RuntimeException("Unable to retrieve home directory from " +
-          this.remoteHostName + " with the pwd command", ex);
-    }
-  }
 }
@@ -26,6 +26,9 @@ import org.apache.reef.runtime.common.launch.parameters.ErrorHandlerRID;
 import org.apache.reef.runtime.common.launch.parameters.LaunchID;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.local.LocalClasspathProvider;
+import org.apache.reef.runtime.standalone.client.parameters.LaunchConcurrency;
+import org.apache.reef.runtime.standalone.client.parameters.NodeCoreCapacity;
+import org.apache.reef.runtime.standalone.client.parameters.NodeMemoryCapacity;
 import org.apache.reef.runtime.standalone.client.parameters.RootFolder;
 import org.apache.reef.runtime.standalone.client.parameters.NodeFolder;
 import org.apache.reef.runtime.standalone.client.parameters.NodeListFilePath;
@@ -79,6 +82,21 @@ public class StandaloneDriverConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Integer> SSH_PORT_NUM = new OptionalParameter<>();
 
+  /**
+   * The memory in MB of a node that evaluators can use, unless its line in the node list gives it.
+   */
+  public static final OptionalParameter<Integer> NODE_MEMORY_CAPACITY = new OptionalParameter<>();
+
+  /**
+   * The number of cores of a node that evaluators can use, unless its line in the node list gives it.
+   */
+  public static final OptionalParameter<Integer> NODE_CORE_CAPACITY = new OptionalParameter<>();
+
+  /**
+   * The maximum number of evaluators that are launched at the same time.
+   */
+  public static final OptionalParameter<Integer> LAUNCH_CONCURRENCY = new OptionalParameter<>();
+
   public static final ConfigurationModule CONF = new StandaloneDriverConfiguration()
       .bindImplementation(ResourceLaunchHandler.class, StandaloneResourceLaunchHandler.class)
       .bindImplementation(ResourceRequestHandler.class, StandaloneResourceRequestHandler.class)
@@ -93,6 +111,9 @@ public class StandaloneDriverConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(NodeListFilePath.class, NODE_LIST_FILE_PATH)
       .bindNamedParameter(NodeFolder.class, NODE_FOLDER)
       .bindNamedParameter(SshPortNum.class, SSH_PORT_NUM)
+      .bindNamedParameter(NodeMemoryCapacity.class, NODE_MEMORY_CAPACITY)
+      .bindNamedParameter(NodeCoreCapacity.class, NODE_CORE_CAPACITY)
+      .bindNamedParameter(LaunchConcurrency.class, LAUNCH_CONCURRENCY)
       .bindNamedParameter(JVMHeapSlack.class, JVM_HEAP_SLACK)
       .bindSetEntry(NodeInfoSet.class, NODE_INFO_SET)
       .bindImplementation(RuntimeClasspathProvider.class, LocalClasspathProvider.class)
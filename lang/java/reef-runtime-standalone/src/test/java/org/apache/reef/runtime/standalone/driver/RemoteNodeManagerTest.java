@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.standalone.driver;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.reef.driver.evaluator.EvaluatorProcess;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchEventImpl;
+import org.apache.reef.runtime.common.driver.api.ResourceReleaseEventImpl;
+import org.apache.reef.runtime.common.driver.api.ResourceRequestEventImpl;
+import org.apache.reef.runtime.common.driver.api.RuntimeParameters;
+import org.apache.reef.runtime.common.driver.evaluator.pojos.State;
+import org.apache.reef.runtime.common.driver.resourcemanager.NodeDescriptorEvent;
+import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationEvent;
+import org.apache.reef.runtime.common.driver.resourcemanager.ResourceStatusEvent;
+import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEvent;
+import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
+import org.apache.reef.runtime.local.LocalClasspathProvider;
+import org.apache.reef.runtime.standalone.client.parameters.LaunchConcurrency;
+import org.apache.reef.runtime.standalone.client.parameters.NodeInfoSet;
+import org.apache.reef.runtime.standalone.client.parameters.RootFolder;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EventHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests placement and launching of the standalone runtime, with a launcher that runs evaluators as local processes.
+ */
+public final class RemoteNodeManagerTest {
+
+  private static final String NODE_LIST =
+      "node1 memory=1024 cores=2 rack=/rack1\n" +
+      "node2 memory=1024 cores=2 rack=/rack2\n" +
+      "node3 memory=2048 cores=4 rack=/rack2\n";
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private EventHandler<ResourceAllocationEvent> mockResourceAllocationHandler;
+  private EventHandler<ResourceStatusEvent> mockResourceStatusHandler;
+  private LocalNodeLauncher launcher;
+  private RemoteNodeManager manager;
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void setUp() throws Exception {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    cb.bindNamedParameter(RootFolder.class, this.folder.newFolder("driver").getAbsolutePath());
+    cb.bindSetEntry(NodeInfoSet.class, NODE_LIST);
+    cb.bindNamedParameter(LaunchConcurrency.class, "4");
+    cb.bindImplementation(RuntimeClasspathProvider.class, LocalClasspathProvider.class);
+    final Injector injector = Tang.Factory.getTang().newInjector(cb.build());
+
+    this.mockResourceAllocationHandler = mock(EventHandler.class);
+    this.mockResourceStatusHandler = mock(EventHandler.class);
+    this.launcher = new LocalNodeLauncher(this.folder.newFolder("nodes"));
+    injector.bindVolatileParameter(RuntimeParameters.ResourceAllocationHandler.class,
+        this.mockResourceAllocationHandler);
+    injector.bindVolatileParameter(RuntimeParameters.ResourceStatusHandler.class, this.mockResourceStatusHandler);
+    injector.bindVolatileParameter(RuntimeParameters.NodeDescriptorHandler.class,
+        (EventHandler<NodeDescriptorEvent>) mock(EventHandler.class));
+    injector.bindVolatileParameter(RuntimeParameters.RuntimeStatusHandler.class,
+        (EventHandler<RuntimeStatusEvent>) mock(EventHandler.class));
+    injector.bindVolatileInstance(NodeLauncher.class, this.launcher);
+    this.manager = injector.getInstance(RemoteNodeManager.class);
+  }
+
+  @After
+  public void tearDown() {
+    this.manager.close();
+  }
+
+  /**
+   * Tests that evaluators fill the nodes by their capacity, and that a request that does not fit waits for a release.
+   */
+  @Test
+  public void testPlacementByCapacity() {
+    this.manager.onResourceRequest(request(8, 512).build());
+    Assert.assertEquals(counts(2, 2, 4), countByNode(allocations(8)));
+
+    this.manager.onResourceRequest(request(1, 512).build());
+    verify(this.mockResourceAllocationHandler, times(8)).onNext(any(ResourceAllocationEvent.class));
+
+    this.manager.onResourceReleaseRequest(ResourceReleaseEventImpl.newBuilder()
+        .setIdentifier(findOnNode(allocations(8), "node1")).setRuntimeName("STANDALONE").build());
+    final List<ResourceAllocationEvent> allocations = allocations(9);
+    Assert.assertTrue(allocations.get(8).getNodeId().startsWith("node1:"));
+  }
+
+  /**
+   * Tests that requests go to their preferred nodes and racks, and wait for them if they do not relax locality.
+   */
+  @Test
+  public void testPlacementByPreference() {
+    this.manager.onResourceRequest(request(1, 512).addNodeName("node2").build());
+    this.manager.onResourceRequest(request(2, 512).addRackName("/rack2").setRelaxLocality(false).build());
+    Assert.assertEquals(counts(0, 1, 2), countByNode(allocations(3)));
+
+    // node2 has not enough memory left, but node3 is in the preferred rack.
+    this.manager.onResourceRequest(
+        request(1, 1024).addNodeName("node2").addRackName("/rack2").setRelaxLocality(false).build());
+    Assert.assertEquals(counts(0, 1, 3), countByNode(allocations(4)));
+
+    // /rack2 is full, and node1 is not in it.
+    this.manager.onResourceRequest(request(1, 1024).addRackName("/rack2").setRelaxLocality(false).build());
+    verify(this.mockResourceAllocationHandler, times(4)).onNext(any(ResourceAllocationEvent.class));
+  }
+
+  /**
+   * Tests that launches overlap up to the configured concurrency, and that the evaluators run on their nodes.
+   */
+  @Test
+  public void testParallelLaunch() throws Exception {
+    final EvaluatorProcess process = mock(EvaluatorProcess.class);
+    when(process.setConfigurationFileName(anyString())).thenReturn(process);
+    when(process.isOptionSet()).thenReturn(true);
+    when(process.getCommandLine()).thenReturn(Arrays.asList("ls", "reef"));
+
+    this.manager.onResourceRequest(request(8, 256).build());
+    final Set<String> containerIds = new HashSet<>();
+    for (final ResourceAllocationEvent allocation : allocations(8)) {
+      containerIds.add(allocation.getIdentifier());
+      this.manager.onResourceLaunchRequest(ResourceLaunchEventImpl.newBuilder()
+          .setIdentifier(allocation.getIdentifier())
+          .setRemoteId("socket://127.0.0.1:0")
+          .setEvaluatorConf(Tang.Factory.getTang().newConfigurationBuilder().build())
+          .setProcess(process)
+          .setRuntimeName("STANDALONE")
+          .build());
+    }
+
+    final ArgumentCaptor<ResourceStatusEvent> captor = ArgumentCaptor.forClass(ResourceStatusEvent.class);
+    verify(this.mockResourceStatusHandler, timeout(30000).times(16)).onNext(captor.capture());
+    final Set<String> done = new HashSet<>();
+    for (final ResourceStatusEvent status : captor.getAllValues()) {
+      if (status.getState() == State.DONE) {
+        done.add(status.getIdentifier());
+      }
+    }
+    Assert.assertEquals(containerIds, done);
+    Assert.assertEquals(4, this.launcher.maxConcurrentCopies.get());
+  }
+
+  private static ResourceRequestEventImpl.Builder request(final int count, final int megaBytes) {
+    return ResourceRequestEventImpl.newBuilder().setResourceCount(count).setMemorySize(megaBytes).setVirtualCores(1);
+  }
+
+  private List<ResourceAllocationEvent> allocations(final int count) {
+    final ArgumentCaptor<ResourceAllocationEvent> captor = ArgumentCaptor.forClass(ResourceAllocationEvent.class);
+    verify(this.mockResourceAllocationHandler, times(count)).onNext(captor.capture());
+    return captor.getAllValues();
+  }
+
+  private static Map<String, Integer> countByNode(final List<ResourceAllocationEvent> allocations) {
+    final Map<String, Integer> counts = counts(0, 0, 0);
+    for (final ResourceAllocationEvent allocation : allocations) {
+      final String node = allocation.getNodeId().substring(0, allocation.getNodeId().indexOf(':'));
+      counts.put(node, counts.get(node) + 1);
+    }
+    return counts;
+  }
+
+  private static Map<String, Integer> counts(final int node1, final int node2, final int node3) {
+    final Map<String, Integer> counts = new HashMap<>();
+    counts.put("node1", node1);
+    counts.put("node2", node2);
+    counts.put("node3", node3);
+    return counts;
+  }
+
+  private static String findOnNode(final List<ResourceAllocationEvent> allocations, final String node) {
+    for (final ResourceAllocationEvent allocation : allocations) {
+      if (allocation.getNodeId().startsWith(node + ":")) {
+        return allocation.getIdentifier();
+      }
+    }
+    throw new AssertionError("No container on " + node);
+  }
+
+  /**
+   * Stands in for ssh: copies container folders to a local folder per node, and runs evaluators there.
+   * The first copies wait for each other, so that the test sees how many of them the runtime overlaps.
+   */
+  private static final class LocalNodeLauncher implements NodeLauncher {
+    private final File nodesFolder;
+    private final CountDownLatch firstCopies = new CountDownLatch(4);
+    private final AtomicInteger concurrentCopies = new AtomicInteger(0);
+    private final AtomicInteger maxConcurrentCopies = new AtomicInteger(0);
+
+    private LocalNodeLauncher(final File nodesFolder) {
+      this.nodesFolder = nodesFolder;
+    }
+
+    @Override
+    public void copy(final RemoteNode node, final File containerFolder) throws IOException {
+      final int concurrent = this.concurrentCopies.incrementAndGet();
+      synchronized (this.maxConcurrentCopies) {
+        this.maxConcurrentCopies.set(Math.max(concurrent, this.maxConcurrentCopies.get()));
+      }
+      try {
+        this.firstCopies.countDown();
+        this.firstCopies.await(10, TimeUnit.SECONDS);
+        FileUtils.copyDirectory(containerFolder, getRemoteFolder(node, containerFolder.getName()));
+      } catch (final InterruptedException e) {
+        throw new IOException(e);
+      } finally {
+        this.concurrentCopies.decrementAndGet();
+      }
+    }
+
+    @Override
+    public List<String> getCommandLine(final RemoteNode node, final String containerID,
+                                       final List<String> commandLine) {
+      final StringBuilder command = new StringBuilder("cd " + getRemoteFolder(node, containerID) + " &&");
+      for (final String arg : commandLine) {
+        command.append(' ').append(arg);
+      }
+      return Arrays.asList("/bin/sh", "-c", command.toString());
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private File getRemoteFolder(final RemoteNode node, final String containerID) {
+      return new File(new File(this.nodesFolder, node.getHostname()), containerID);
+    }
+  }
+}
@@ -28,10 +28,12 @@ import org.apache.reef.runtime.common.client.DriverConfigurationProvider;
 import org.apache.reef.runtime.common.client.api.JobSubmissionHandler;
 import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
+import org.apache.reef.runtime.common.parameters.JobArtifactCacheDirectory;
 import org.apache.reef.runtime.yarn.YarnClasspathProvider;
 import org.apache.reef.runtime.yarn.client.parameters.JobPriority;
 import org.apache.reef.runtime.yarn.client.parameters.JobQueue;
 import org.apache.reef.runtime.yarn.client.unmanaged.YarnProxyUser;
+import org.apache.reef.runtime.yarn.driver.parameters.GlobalJarCacheDirectory;
 import org.apache.reef.runtime.yarn.util.YarnConfigurationConstructor;
 import org.apache.reef.tang.ConfigurationProvider;
 import org.apache.reef.tang.formats.*;
@@ -53,6 +55,16 @@ public class YarnClientConfiguration extends ConfigurationModuleBuilder {
   public static final OptionalParameter<Double> JVM_HEAP_SLACK = new OptionalParameter<>();
   public static final OptionalParameter<Boolean> UNMANAGED_DRIVER = new OptionalParameter<>();
 
+  /**
+   * Local folder in which job submission JARs are cached under their content hash.
+   */
+  public static final OptionalParameter<String> JOB_ARTIFACT_CACHE_DIRECTORY = new OptionalParameter<>();
+
+  /**
+   * Folder on (H)DFS in which the global JAR is shared across jobs under its content hash.
+   */
+  public static final OptionalParameter<String> GLOBAL_JAR_CACHE_DIRECTORY = new OptionalParameter<>();
+
   /**
    * Configuration provides whose Configuration will be merged into all Driver Configuration.
    */
@@ -70,6 +82,8 @@ public class YarnClientConfiguration extends ConfigurationModuleBuilder {
           .bindNamedParameter(JobPriority.class, YARN_PRIORITY)
           .bindNamedParameter(JVMHeapSlack.class, JVM_HEAP_SLACK)
           .bindNamedParameter(DriverIsUnmanaged.class, UNMANAGED_DRIVER)
+          .bindNamedParameter(JobArtifactCacheDirectory.class, JOB_ARTIFACT_CACHE_DIRECTORY)
+          .bindNamedParameter(GlobalJarCacheDirectory.class, GLOBAL_JAR_CACHE_DIRECTORY)
           // Bind external constructors. Taken from  YarnExternalConstructors.registerClientConstructors
           .bindConstructor(org.apache.hadoop.yarn.conf.YarnConfiguration.class, YarnConfigurationConstructor.class)
           .bindSetEntry(DriverConfigurationProviders.class, DRIVER_CONFIGURATION_PROVIDERS)
@@ -22,9 +22,11 @@ import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.runtime.common.client.DriverConfigurationProvider;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.yarn.driver.RuntimeIdentifier;
+import org.apache.reef.runtime.yarn.driver.parameters.GlobalJarCacheDirectory;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Configurations;
 import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.ConfigurationModule;
 
 import javax.inject.Inject;
 import java.net.URI;
@@ -38,10 +40,13 @@ import static org.apache.reef.runtime.yarn.driver.YarnDriverConfiguration.*;
 public final class YarnDriverConfigurationProviderImpl implements DriverConfigurationProvider {
 
   private final double jvmSlack;
+  private final String globalJarCacheDirectory;
 
   @Inject
-  YarnDriverConfigurationProviderImpl(@Parameter(JVMHeapSlack.class) final double jvmSlack) {
+  YarnDriverConfigurationProviderImpl(@Parameter(JVMHeapSlack.class) final double jvmSlack,
+                                      @Parameter(GlobalJarCacheDirectory.class) final String globalJarCacheDirectory) {
     this.jvmSlack = jvmSlack;
+    this.globalJarCacheDirectory = globalJarCacheDirectory;
   }
 
   @Override
@@ -49,14 +54,17 @@ public final class YarnDriverConfigurationProviderImpl implements DriverConfigur
                                               final String clientRemoteId,
                                               final String jobId,
                                               final Configuration applicationConfiguration) {
+    final ConfigurationModule driverConfiguration =
+        org.apache.reef.runtime.yarn.driver.YarnDriverConfiguration.CONF
+            .set(JOB_SUBMISSION_DIRECTORY, jobFolder.toString())
+            .set(JOB_IDENTIFIER, jobId)
+            .set(CLIENT_REMOTE_IDENTIFIER, clientRemoteId)
+            .set(JVM_HEAP_SLACK, this.jvmSlack)
+            .set(RUNTIME_NAMES, RuntimeIdentifier.RUNTIME_NAME);
     return Configurations.merge(
-      org.apache.reef.runtime.yarn.driver.YarnDriverConfiguration.CONF
-              .set(JOB_SUBMISSION_DIRECTORY, jobFolder.toString())
-              .set(JOB_IDENTIFIER, jobId)
-              .set(CLIENT_REMOTE_IDENTIFIER, clientRemoteId)
-              .set(JVM_HEAP_SLACK, this.jvmSlack)
-              .set(RUNTIME_NAMES, RuntimeIdentifier.RUNTIME_NAME)
-              .build(),
-              applicationConfiguration);
+        this.globalJarCacheDirectory.isEmpty()
+            ? driverConfiguration.build()
+            : driverConfiguration.set(GLOBAL_JAR_CACHE_DIRECTORY, this.globalJarCacheDirectory).build(),
+        applicationConfiguration);
   }
 }
@@ -20,7 +20,10 @@ package org.apache.reef.runtime.yarn.driver;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.api.records.LocalResource;
+import org.apache.reef.runtime.common.files.JobArtifactCache;
 import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.yarn.driver.parameters.GlobalJarCacheDirectory;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.JARFileMaker;
 
 import javax.inject.Inject;
@@ -50,6 +53,16 @@ final class GlobalJarUploader implements Callable<Map<String, LocalResource>> {
    */
   private final UploaderToJobFolder uploader;
 
+  /**
+   * Used to compute the content hash of the global folder.
+   */
+  private final JobArtifactCache artifactCache;
+
+  /**
+   * Folder on (H)DFS to share the global JAR in across jobs. Empty if the JAR isn't shared.
+   */
+  private final String globalJarCacheDirectory;
+
   /**
    * True, if the global JAR has already been uploaded.
    */
@@ -69,9 +82,13 @@ final class GlobalJarUploader implements Callable<Map<String, LocalResource>> {
 
   @Inject
   GlobalJarUploader(final REEFFileNames fileNames,
-                    final UploaderToJobFolder uploader) {
+                    final UploaderToJobFolder uploader,
+                    final JobArtifactCache artifactCache,
+                    @Parameter(GlobalJarCacheDirectory.class) final String globalJarCacheDirectory) {
     this.fileNames = fileNames;
     this.uploader = uploader;
+    this.artifactCache = artifactCache;
+    this.globalJarCacheDirectory = globalJarCacheDirectory;
   }
 
   /**
@@ -85,7 +102,9 @@ final class GlobalJarUploader implements Callable<Map<String, LocalResource>> {
   public synchronized Map<String, LocalResource> call() throws IOException {
     final Map<String, LocalResource> globalResources = new HashMap<>(1);
     if (!this.isUploaded){
-      this.pathToGlobalJar = this.uploader.uploadToJobFolder(makeGlobalJar());
+      this.pathToGlobalJar = this.globalJarCacheDirectory.isEmpty()
+          ? this.uploader.uploadToJobFolder(makeGlobalJar())
+          : this.uploadToCache();
       this.isUploaded = true;
     }
 
@@ -106,6 +125,23 @@ final class GlobalJarUploader implements Callable<Map<String, LocalResource>> {
     return globalResources;
   }
 
+  /**
+   * Uploads the global JAR to the shared cache folder, unless a JAR with the same content is already there.
+   * The JAR is only created if it needs to be uploaded.
+   *
+   * @return the path to the global JAR in the cache folder.
+   * @throws IOException if the creation of the JAR or the upload fails
+   */
+  private Path uploadToCache() throws IOException {
+    final String contentHash = this.artifactCache.getFolderContentHash(this.fileNames.getGlobalFolder());
+    final Path cachedJar = new Path(this.globalJarCacheDirectory, contentHash + this.fileNames.getJarFileSuffix());
+    if (this.uploader.exists(cachedJar)) {
+      LOG.log(Level.FINE, "Reusing the global JAR {0}", cachedJar);
+      return cachedJar;
+    }
+    return this.uploader.uploadToSharedFolder(makeGlobalJar(), cachedJar);
+  }
+
   /**
    * Creates the JAR file for upload.
    *
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver;
+
+import org.apache.hadoop.yarn.api.records.Container;
+import org.apache.hadoop.yarn.api.records.Priority;
+import org.apache.hadoop.yarn.client.api.AMRMClient;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+
+/**
+ * The container requests sent to the RM and not yet matched with a container.
+ * <p>
+ * Requests of any number of shapes (capability, locality, node label) are outstanding at once.
+ * The RM tracks one capability per priority and location (YARN-314), so every shape is sent with a
+ * priority of its own: the requested one if no other outstanding shape uses it, the next free one otherwise.
+ * Containers come back with the priority of the request they were allocated for, which identifies the shape
+ * they match.
+ */
+@Private
+@DriverSide
+@NotThreadSafe
+final class OutstandingContainerRequests {
+
+  /** Outstanding shapes, by the priority they are sent with. */
+  private final Map<Integer, Shape> shapesByPriority = new HashMap<>();
+
+  /** Outstanding shapes, by what identifies them. */
+  private final Map<ShapeKey, Shape> shapesByKey = new HashMap<>();
+
+  private int size = 0;
+
+  /**
+   * Adds a request.
+   * @return the request to send to the RM: the given one, with the priority of its shape.
+   */
+  AMRMClient.ContainerRequest add(final AMRMClient.ContainerRequest request) {
+    final ShapeKey key = new ShapeKey(request);
+    Shape shape = this.shapesByKey.get(key);
+    if (shape == null) {
+      int priority = request.getPriority().getPriority();
+      while (this.shapesByPriority.containsKey(priority)) {
+        ++priority;
+      }
+      shape = new Shape(key, priority);
+      this.shapesByKey.put(key, shape);
+      this.shapesByPriority.put(priority, shape);
+    }
+
+    final AMRMClient.ContainerRequest sent = shape.priority == request.getPriority().getPriority() ? request :
+        new AMRMClient.ContainerRequest(request.getCapability(), toArray(request.getNodes()),
+            toArray(request.getRacks()), Priority.newInstance(shape.priority), request.getRelaxLocality(),
+            request.getNodeLabelExpression());
+    shape.requests.add(sent);
+    ++this.size;
+    return sent;
+  }
+
+  /**
+   * Matches a container with an outstanding request, which is removed.
+   * The request is the oldest of the shape the container was allocated for, if the container satisfies it.
+   * Otherwise, it is the oldest request of the smallest shape that the container satisfies.
+   * @param rackName the rack of the container, or null if it is unknown.
+   * @return the matched request, or null if the container satisfies none.
+   */
+  AMRMClient.ContainerRequest match(final Container container, final String rackName) {
+    Shape shape = this.shapesByPriority.get(container.getPriority().getPriority());
+    if (shape == null || !isSatisfiedBy(shape.requests.peek(), container, rackName)) {
+      shape = null;
+      for (final Shape candidate : this.shapesByPriority.values()) {
+        if (isSatisfiedBy(candidate.requests.peek(), container, rackName) &&
+            (shape == null || candidate.getMemory() < shape.getMemory())) {
+          shape = candidate;
+        }
+      }
+      if (shape == null) {
+        return null;
+      }
+    }
+
+    final AMRMClient.ContainerRequest request = shape.requests.remove();
+    if (shape.requests.isEmpty()) {
+      this.shapesByKey.remove(shape.key);
+      this.shapesByPriority.remove(shape.priority);
+    }
+    --this.size;
+    return request;
+  }
+
+  /**
+   * @return the number of outstanding requests.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * @return the number of shapes with outstanding requests.
+   */
+  int getNumShapes() {
+    return this.shapesByKey.size();
+  }
+
+  /**
+   * Checks whether the container satisfies the request.
+   * We take into consideration that RM has some freedom in rounding
+   * up the allocation and in placing containers on other machines.
+   */
+  private static boolean isSatisfiedBy(
+      final AMRMClient.ContainerRequest request, final Container container, final String rackName) {
+
+    final boolean resourceCondition = container.getResource().getMemory() >= request.getCapability().getMemory();
+
+    // TODO[JIRA REEF-35]: check vcores once YARN-2380 is resolved
+    final boolean nodeCondition = request.getNodes() == null
+        || request.getNodes().contains(container.getNodeId().getHost());
+
+    final boolean rackCondition = request.getRacks() == null
+        || request.getRacks().contains(rackName);
+
+    return resourceCondition && (request.getRelaxLocality() || rackCondition && nodeCondition);
+  }
+
+  private static String[] toArray(final List<String> list) {
+    return list == null ? null : list.toArray(new String[list.size()]);
+  }
+
+  /**
+   * What requests of the same shape have in common.
+   */
+  private static final class ShapeKey {
+    private final int priority;
+    private final int memory;
+    private final int virtualCores;
+    private final List<String> nodes;
+    private final List<String> racks;
+    private final boolean relaxLocality;
+    private final String nodeLabelExpression;
+
+    private ShapeKey(final AMRMClient.ContainerRequest request) {
+      this.priority = request.getPriority().getPriority();
+      this.memory = request.getCapability().getMemory();
+      this.virtualCores = request.getCapability().getVirtualCores();
+      this.nodes = request.getNodes() == null ? Collections.<String>emptyList() : request.getNodes();
+      this.racks = request.getRacks() == null ? Collections.<String>emptyList() : request.getRacks();
+      this.relaxLocality = request.getRelaxLocality();
+      this.nodeLabelExpression = request.getNodeLabelExpression();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final ShapeKey that = (ShapeKey) o;
+      return this.priority == that.priority && this.memory == that.memory &&
+          this.virtualCores == that.virtualCores && this.relaxLocality == that.relaxLocality &&
+          this.nodes.equals(that.nodes) && this.racks.equals(that.racks) &&
+          Objects.equals(this.nodeLabelExpression, that.nodeLabelExpression);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.priority, this.memory, this.virtualCores, this.nodes, this.racks,
+          this.relaxLocality, this.nodeLabelExpression);
+    }
+  }
+
+  /**
+   * The outstanding requests of one shape, oldest first.
+   */
+  private static final class Shape {
+    private final ShapeKey key;
+    private final int priority;
+    private final Queue<AMRMClient.ContainerRequest> requests = new ArrayDeque<>();
+
+    private Shape(final ShapeKey key, final int priority) {
+      this.key = key;
+      this.priority = priority;
+    }
+
+    private int getMemory() {
+      return this.key.memory;
+    }
+  }
+}
@@ -74,6 +74,41 @@ final class UploaderToJobFolder {
     return destination;
   }
 
+  /**
+   * @param path a path on (H)DFS.
+   * @return true, if a file exists at the given path.
+   * @throws IOException if the file system can't be queried.
+   */
+  boolean exists(final Path path) throws IOException {
+    return this.fileSystem.exists(path);
+  }
+
+  /**
+   * Uploads the given file to the given path on (H)DFS, which may be shared with other jobs.
+   * The file is first uploaded under a temporary name and then renamed, so that concurrent
+   * uploads of the same content never expose a partial file.
+   *
+   * @param file the local file to upload.
+   * @param destination the destination path, typically named after the content hash of the file.
+   * @return the destination path.
+   * @throws IOException if the upload fails.
+   */
+  Path uploadToSharedFolder(final File file, final Path destination) throws IOException {
+    final Path source = new Path(file.getAbsolutePath());
+    final Path staged = new Path(destination.getParent(),
+        destination.getName() + "." + new File(this.jobSubmissionDirectory).getName() + ".tmp");
+    LOG.log(Level.FINE, "Uploading {0} to {1}", new Object[]{source, destination});
+    this.fileSystem.copyFromLocalFile(false, true, source, staged);
+    if (!this.fileSystem.rename(staged, destination)) {
+      // Another job uploaded the same content first.
+      this.fileSystem.delete(staged, false);
+      if (!this.fileSystem.exists(destination)) {
+        throw new IOException("Unable to move " + staged + " to " + destination);
+      }
+    }
+    return destination;
+  }
+
   /**
    * Creates a LocalResource instance for the JAR file referenced by the given Path.
    *
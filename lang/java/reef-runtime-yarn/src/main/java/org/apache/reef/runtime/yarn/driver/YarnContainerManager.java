@@ -19,7 +19,6 @@
 package org.apache.reef.runtime.yarn.driver;
 
 import com.google.protobuf.ByteString;
-import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import org.apache.hadoop.fs.*;
@@ -57,7 +56,6 @@ import java.nio.ByteBuffer;
 import java.security.PrivilegedExceptionAction;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -72,8 +70,7 @@ final class YarnContainerManager implements AMRMClientAsync.CallbackHandler, NMC
   /** Default port number to provide in the Application Master registration. */
   private static final int AM_REGISTRATION_PORT = -1;
 
-  private final Queue<AMRMClient.ContainerRequest> requestsBeforeSentToRM = new ConcurrentLinkedQueue<>();
-  private final Queue<AMRMClient.ContainerRequest> requestsAfterSentToRM = new ConcurrentLinkedQueue<>();
+  private final OutstandingContainerRequests outstandingRequests = new OutstandingContainerRequests();
   private final Map<String, String> nodeIdToRackName = new ConcurrentHashMap<>();
 
   private final YarnConfiguration yarnConf;
@@ -483,8 +480,9 @@ final class YarnContainerManager implements AMRMClientAsync.CallbackHandler, NMC
 
     synchronized (this) {
       this.containerRequestCounter.incrementBy(containerRequests.length);
-      this.requestsBeforeSentToRM.addAll(Arrays.asList(containerRequests));
-      this.doHomogeneousRequests();
+      for (final AMRMClient.ContainerRequest containerRequest : containerRequests) {
+        this.resourceManager.addContainerRequest(this.outstandingRequests.add(containerRequest));
+      }
     }
 
     this.updateRuntimeStatus();
@@ -500,38 +498,28 @@ final class YarnContainerManager implements AMRMClientAsync.CallbackHandler, NMC
 
     synchronized (this) {
 
-      if (!matchContainerWithPendingRequest(container)) {
+      final AMRMClient.ContainerRequest matchedRequest = this.outstandingRequests.match(
+          container, this.nodeIdToRackName.get(container.getNodeId().toString()));
+
+      if (matchedRequest == null) {
         LOG.log(Level.WARNING, "Got an extra container {0} that doesn't match, releasing...", container.getId());
         this.resourceManager.releaseAssignedContainer(container.getId());
         return;
       }
 
-      final AMRMClient.ContainerRequest matchedRequest = this.requestsAfterSentToRM.peek();
-
       this.containerRequestCounter.decrement();
       this.containers.add(container);
 
       LOG.log(Level.FINEST, "{0} matched with {1}", new Object[] {container, matchedRequest});
 
-      // Due to the bug YARN-314 and the workings of AMRMCClientAsync, when x-priority m-capacity zero-container
-      // request and x-priority n-capacity nonzero-container request are sent together, where m > n, RM ignores
-      // the latter.
-      // Therefore it is necessary avoid sending zero-container request, even if it means getting extra containers.
-      // It is okay to send nonzero m-capacity and n-capacity request together since bigger containers
-      // can be matched.
-      // TODO[JIRA REEF-42, REEF-942]: revisit this when implementing locality-strictness.
-      // (i.e. a specific rack request can be ignored)
-      if (this.requestsAfterSentToRM.size() > 1) {
-        try {
-          this.resourceManager.removeContainerRequest(matchedRequest);
-        } catch (final Exception e) {
-          LOG.log(Level.WARNING, "Error removing request from Async AMRM client queue: " + matchedRequest, e);
-        }
+      // Every shape of request has a priority of its own, so removing the last request of a shape sends
+      // a zero-container request that cannot hide the requests of other shapes (YARN-314).
+      try {
+        this.resourceManager.removeContainerRequest(matchedRequest);
+      } catch (final Exception e) {
+        LOG.log(Level.WARNING, "Error removing request from Async AMRM client queue: " + matchedRequest, e);
       }
 
-      this.requestsAfterSentToRM.remove();
-      this.doHomogeneousRequests();
-
       LOG.log(Level.FINEST, "Allocated Container: memory = {0}, core number = {1}",
           new Object[] {container.getResource().getMemory(), container.getResource().getVirtualCores()});
 
@@ -548,55 +536,6 @@ final class YarnContainerManager implements AMRMClientAsync.CallbackHandler, NMC
     }
   }
 
-  private synchronized void doHomogeneousRequests() {
-    if (this.requestsAfterSentToRM.isEmpty()) {
-      final AMRMClient.ContainerRequest firstRequest = this.requestsBeforeSentToRM.peek();
-
-      while (!this.requestsBeforeSentToRM.isEmpty() &&
-             isSameKindOfRequest(firstRequest, this.requestsBeforeSentToRM.peek())) {
-        final AMRMClient.ContainerRequest homogeneousRequest = this.requestsBeforeSentToRM.remove();
-        this.resourceManager.addContainerRequest(homogeneousRequest);
-        this.requestsAfterSentToRM.add(homogeneousRequest);
-      }
-    }
-  }
-
-  private boolean isSameKindOfRequest(final AMRMClient.ContainerRequest r1, final AMRMClient.ContainerRequest r2) {
-    final boolean nodeLabelExpressionIsEqual = r1.getNodeLabelExpression() == r2.getNodeLabelExpression() ||
-        (r1.getNodeLabelExpression() != null && r1.getNodeLabelExpression().equals(r2.getNodeLabelExpression()));
-    return r1.getPriority().compareTo(r2.getPriority()) == 0
-        && r1.getCapability().compareTo(r2.getCapability()) == 0
-        && nodeLabelExpressionIsEqual
-        && r1.getRelaxLocality() == r2.getRelaxLocality()
-        && ListUtils.isEqualList(r1.getNodes(), r2.getNodes())
-        && ListUtils.isEqualList(r1.getRacks(), r2.getRacks());
-  }
-
-  /**
-   * Match to see whether the container satisfies the request.
-   * We take into consideration that RM has some freedom in rounding
-   * up the allocation and in placing containers on other machines.
-   */
-  private boolean matchContainerWithPendingRequest(final Container container) {
-
-    if (this.requestsAfterSentToRM.isEmpty()) {
-      return false;
-    }
-
-    final AMRMClient.ContainerRequest request = this.requestsAfterSentToRM.peek();
-
-    final boolean resourceCondition = container.getResource().getMemory() >= request.getCapability().getMemory();
-
-    // TODO[JIRA REEF-35]: check vcores once YARN-2380 is resolved
-    final boolean nodeCondition = request.getNodes() == null
-        || request.getNodes().contains(container.getNodeId().getHost());
-
-    final boolean rackCondition = request.getRacks() == null
-        || request.getRacks().contains(this.nodeIdToRackName.get(container.getNodeId().toString()));
-
-    return resourceCondition && (request.getRelaxLocality() || rackCondition && nodeCondition);
-  }
-
   /**
    * Update the driver with my current status.
    */
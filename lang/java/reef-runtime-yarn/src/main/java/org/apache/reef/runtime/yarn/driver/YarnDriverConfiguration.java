@@ -31,6 +31,7 @@ import org.apache.reef.runtime.common.launch.parameters.ErrorHandlerRID;
 import org.apache.reef.runtime.common.launch.parameters.LaunchID;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.yarn.YarnClasspathProvider;
+import org.apache.reef.runtime.yarn.driver.parameters.GlobalJarCacheDirectory;
 import org.apache.reef.runtime.yarn.driver.parameters.JobSubmissionDirectory;
 import org.apache.reef.runtime.yarn.driver.parameters.YarnHeartbeatPeriod;
 import org.apache.reef.runtime.yarn.util.YarnConfigurationConstructor;
@@ -50,6 +51,11 @@ public class YarnDriverConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Integer> YARN_HEARTBEAT_INTERVAL = new OptionalParameter<>();
 
+  /**
+   * @see GlobalJarCacheDirectory
+   */
+  public static final OptionalParameter<String> GLOBAL_JAR_CACHE_DIRECTORY = new OptionalParameter<>();
+
   /**
    * @see JobIdentifier
    */
@@ -93,6 +99,7 @@ public class YarnDriverConfiguration extends ConfigurationModuleBuilder {
       // Bind the YARN Configuration parameters
       .bindNamedParameter(JobSubmissionDirectory.class, JOB_SUBMISSION_DIRECTORY)
       .bindNamedParameter(YarnHeartbeatPeriod.class, YARN_HEARTBEAT_INTERVAL)
+      .bindNamedParameter(GlobalJarCacheDirectory.class, GLOBAL_JAR_CACHE_DIRECTORY)
 
       // Bind the fields bound in AbstractDriverRuntimeConfiguration
       .bindNamedParameter(JobIdentifier.class, JOB_IDENTIFIER)
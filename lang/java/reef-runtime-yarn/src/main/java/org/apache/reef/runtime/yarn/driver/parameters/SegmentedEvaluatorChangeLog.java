@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Whether the DFS evaluator preserver keeps its change log as append-only segments.
+ * If false, the log is a single file that is appended to or rewritten, depending on dfs.support.append.
+ * A single-file log left by an earlier run is still recovered by, and migrated to, the segmented log.
+ */
+@NamedParameter(doc = "Whether the DFS evaluator preserver keeps its change log as append-only segments.",
+    default_value = "true")
+public final class SegmentedEvaluatorChangeLog implements Name<Boolean> {
+}
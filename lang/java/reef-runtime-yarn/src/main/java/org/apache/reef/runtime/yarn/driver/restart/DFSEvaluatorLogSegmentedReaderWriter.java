@@ -0,0 +1,500 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.restart;
+
+import org.apache.hadoop.fs.ChecksumFileSystem;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.util.CloseableIterable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The DFS evaluator logger that keeps the change log as a sequence of append-only segments.
+ * Works on any {@link FileSystem}, since it never reopens a file for append: every driver run
+ * starts a new segment, and a segment is rolled over once it holds enough entries.
+ * <p>
+ * Concurrent writers are group committed: entries queued while a sync is in progress are written and
+ * synced together by the next writer, so every entry costs O(1) I/O and a batch costs one hsync.
+ * Once enough segments accumulate, the live evaluators are compacted into a snapshot, and the files
+ * it supersedes are deleted. Recovery reads the latest snapshot and the segments after it in parallel.
+ * <p>
+ * Files are named {@code <changeLogPath>.<sequence>} for segments and
+ * {@code <changeLogPath>.<sequence>.snapshot} for snapshots.
+ * <p>
+ * A change log left by {@link DFSEvaluatorLogAppendReaderWriter} or {@link DFSEvaluatorLogOverwriteReaderWriter},
+ * e.g. by a driver run before an upgrade, is read before the segments until the first snapshot supersedes it.
+ * That compaction deletes the old files, which migrates the log.
+ * <p>
+ * On a {@link ChecksumFileSystem} such as the local file system, the log is written through the underlying raw
+ * file system, since a checksummed stream holds back the last incomplete checksum chunk when synced.
+ */
+@Private
+public final class DFSEvaluatorLogSegmentedReaderWriter implements DFSEvaluatorLogReaderWriter {
+
+  private static final Logger LOG = Logger.getLogger(DFSEvaluatorLogSegmentedReaderWriter.class.getName());
+
+  private static final String SNAPSHOT_SUFFIX = ".snapshot";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /** Suffix of the alternative file of the overwrite log. */
+  private static final String LEGACY_ALT_SUFFIX = ".alt";
+
+  private static final int DEFAULT_MAX_SEGMENT_ENTRIES = 4096;
+  private static final int DEFAULT_MAX_SEGMENTS = 8;
+  private static final int MAX_RECOVERY_THREADS = 8;
+
+  private final FileSystem fileSystem;
+
+  /** The file system the log files are read and written with. */
+  private final FileSystem logFileSystem;
+
+  private final Path changeLogPath;
+  private final String changeLogName;
+
+  /** Number of entries after which the current segment is rolled over. */
+  private final int maxSegmentEntries;
+
+  /** Number of rolled over segments after which the log is compacted into a snapshot. */
+  private final int maxSegments;
+
+  /** Entries waiting for the next group commit, guarded by itself. */
+  private final List<String> queuedEntries = new ArrayList<>();
+
+  /** Ticket of the last queued entry, guarded by queuedEntries. */
+  private long lastQueuedTicket = 0;
+
+  // The fields below are guarded by this.
+
+  /** Ticket of the last entry that is durable in the log. */
+  private long lastSyncedTicket = 0;
+
+  /** The failure that left the current segment in an unknown state, if any. */
+  private IOException failure = null;
+
+  /** Evaluators that are currently alive according to the log, the content of the next snapshot. */
+  private Set<String> liveEvaluators = null;
+
+  private FSDataOutputStream segment = null;
+  private long nextSequence = 0;
+  private int segmentEntries = 0;
+  private int segmentsSinceSnapshot = 0;
+
+  private boolean closed = false;
+
+  DFSEvaluatorLogSegmentedReaderWriter(final FileSystem fileSystem, final Path changeLogPath) {
+    this(fileSystem, changeLogPath, DEFAULT_MAX_SEGMENT_ENTRIES, DEFAULT_MAX_SEGMENTS);
+  }
+
+  DFSEvaluatorLogSegmentedReaderWriter(final FileSystem fileSystem, final Path changeLogPath,
+                                       final int maxSegmentEntries, final int maxSegments) {
+    if (maxSegmentEntries < 1 || maxSegments < 1) {
+      throw new IllegalArgumentException("Segments must hold at least one entry and compaction must keep " +
+          "at least one segment, got " + maxSegmentEntries + " and " + maxSegments);
+    }
+
+    this.fileSystem = fileSystem;
+    this.logFileSystem = fileSystem instanceof ChecksumFileSystem ?
+        ((ChecksumFileSystem) fileSystem).getRawFileSystem() : fileSystem;
+    this.changeLogPath = changeLogPath;
+    this.changeLogName = changeLogPath.getName();
+    this.maxSegmentEntries = maxSegmentEntries;
+    this.maxSegments = maxSegments;
+  }
+
+  /**
+   * Writes a formatted entry (addition or removal) for an Evaluator ID into the current log segment.
+   * Returns once the entry is synced. Entries written concurrently by other threads are synced together.
+   * @param formattedEntry The formatted entry (entry with evaluator ID and addition/removal information).
+   * @throws IOException when the entry cannot be written.
+   */
+  @Override
+  public void writeToEvaluatorLog(final String formattedEntry) throws IOException {
+    final long ticket;
+    synchronized (this.queuedEntries) {
+      this.queuedEntries.add(formattedEntry);
+      ticket = ++this.lastQueuedTicket;
+    }
+
+    synchronized (this) {
+      if (ticket <= this.lastSyncedTicket) {
+        // Another writer committed this entry while we were waiting.
+        return;
+      }
+
+      if (this.failure != null) {
+        throw new IOException("The evaluator log is unusable after an earlier write failure.", this.failure);
+      }
+
+      if (this.closed) {
+        throw new IOException("The evaluator log at " + this.changeLogPath + " is closed.");
+      }
+
+      final List<String> batch;
+      final long batchTicket;
+      synchronized (this.queuedEntries) {
+        batch = new ArrayList<>(this.queuedEntries);
+        batchTicket = this.lastQueuedTicket;
+        this.queuedEntries.clear();
+      }
+
+      try {
+        this.commit(batch);
+      } catch (final IOException e) {
+        this.failure = e;
+        throw e;
+      }
+
+      this.lastSyncedTicket = batchTicket;
+    }
+  }
+
+  /**
+   * Reads the latest snapshot and all segments written after it.
+   * The files are read in parallel, and a trailing entry that was not completely written is ignored.
+   */
+  @Override
+  public synchronized CloseableIterable<String> readFromEvaluatorLog() throws IOException {
+    final List<String> lines = this.readLog();
+    return new CloseableIterable<String>() {
+      @Override
+      public Iterator<String> iterator() {
+        return lines.iterator();
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+  }
+
+  /**
+   * Closes the current segment and the FileSystem.
+   * @throws Exception
+   */
+  @Override
+  public synchronized void close() throws Exception {
+    if (!this.closed) {
+      this.closed = true;
+      try {
+        if (this.segment != null) {
+          this.segment.close();
+          this.segment = null;
+        }
+      } finally {
+        this.fileSystem.close();
+      }
+    }
+  }
+
+  /**
+   * Appends a batch of entries to the current segment and syncs it,
+   * then rolls over the segment and compacts the log if needed.
+   */
+  private void commit(final List<String> batch) throws IOException {
+    if (this.segment == null) {
+      this.openSegment();
+    }
+
+    final StringBuilder sb = new StringBuilder();
+    for (final String entry : batch) {
+      sb.append(entry);
+      applyEntry(this.liveEvaluators, stripLineSeparator(entry));
+    }
+
+    this.segment.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+    this.segment.hsync();
+    this.segmentEntries += batch.size();
+
+    if (this.segmentEntries >= this.maxSegmentEntries) {
+      this.segment.close();
+      this.segment = null;
+      if (++this.segmentsSinceSnapshot >= this.maxSegments) {
+        this.compact();
+      }
+    }
+  }
+
+  /**
+   * Creates a new segment. On the first call, also recovers the live evaluators from the existing log,
+   * so that the next snapshot includes them.
+   */
+  private void openSegment() throws IOException {
+    if (this.liveEvaluators == null) {
+      final Set<String> recovered = new LinkedHashSet<>();
+      for (final String line : this.readLog()) {
+        applyEntry(recovered, line);
+      }
+
+      this.liveEvaluators = recovered;
+    }
+
+    final Path segmentPath = this.getPath(this.nextSequence++, "");
+    this.segment = this.logFileSystem.create(segmentPath, false);
+    this.segmentEntries = 0;
+    LOG.log(Level.FINE, "Opened evaluator log segment {0}", segmentPath);
+  }
+
+  /**
+   * Writes the live evaluators to a new snapshot and deletes the files it supersedes.
+   * The snapshot is written to a temporary file first, so a partially written snapshot is never read.
+   */
+  private void compact() throws IOException {
+    final long snapshotSequence = this.nextSequence++;
+    final Path snapshotPath = this.getPath(snapshotSequence, SNAPSHOT_SUFFIX);
+    final Path tempPath = this.getPath(snapshotSequence, SNAPSHOT_SUFFIX + TEMP_SUFFIX);
+
+    final StringBuilder sb = new StringBuilder();
+    for (final String evaluatorId : this.liveEvaluators) {
+      sb.append(DFSEvaluatorPreserver.ADD_FLAG).append(evaluatorId).append(System.lineSeparator());
+    }
+
+    try (final FSDataOutputStream outputStream = this.logFileSystem.create(tempPath, true)) {
+      outputStream.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+      outputStream.hsync();
+    }
+
+    if (!this.logFileSystem.rename(tempPath, snapshotPath)) {
+      throw new IOException("Unable to rename evaluator log snapshot " + tempPath + " to " + snapshotPath);
+    }
+
+    for (final Map.Entry<Long, Path> file : this.listLogFiles(true).entrySet()) {
+      if (file.getKey() < snapshotSequence && !this.logFileSystem.delete(file.getValue(), false)) {
+        LOG.log(Level.WARNING, "Unable to delete compacted evaluator log file {0}", file.getValue());
+      }
+    }
+
+    for (final Path legacyPath : this.getLegacyPaths()) {
+      if (this.fileSystem.exists(legacyPath) && !this.fileSystem.delete(legacyPath, false)) {
+        LOG.log(Level.WARNING, "Unable to delete compacted evaluator log file {0}", legacyPath);
+      }
+    }
+
+    this.segmentsSinceSnapshot = 0;
+    LOG.log(Level.FINE, "Compacted the evaluator log into {0} with {1} live evaluators",
+        new Object[] {snapshotPath, this.liveEvaluators.size()});
+  }
+
+  /**
+   * Reads the lines of the latest snapshot and all segments after it, in order.
+   * If there is no snapshot yet, the lines of the legacy log come first.
+   * Also moves the next sequence number past all existing files.
+   */
+  private List<String> readLog() throws IOException {
+    final TreeMap<Long, Path> files = this.listLogFiles(false);
+
+    // Only the latest snapshot and the segments after it are needed.
+    Long snapshotSequence = null;
+    for (final Map.Entry<Long, Path> file : files.descendingMap().entrySet()) {
+      if (file.getValue().getName().endsWith(SNAPSHOT_SUFFIX)) {
+        snapshotSequence = file.getKey();
+        break;
+      }
+    }
+
+    final List<String> lines = new ArrayList<>();
+    if (snapshotSequence == null) {
+      lines.addAll(this.readLegacyLog());
+    }
+
+    if (files.isEmpty()) {
+      return lines;
+    }
+
+    this.nextSequence = Math.max(this.nextSequence, files.lastKey() + 1);
+
+    final List<Path> paths = new ArrayList<>(
+        snapshotSequence == null ? files.values() : files.tailMap(snapshotSequence, true).values());
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(paths.size(), MAX_RECOVERY_THREADS));
+    try {
+      final List<Future<List<String>>> futures = new ArrayList<>(paths.size());
+      for (final Path path : paths) {
+        futures.add(executor.submit(new Callable<List<String>>() {
+          @Override
+          public List<String> call() throws IOException {
+            return readLines(logFileSystem, path);
+          }
+        }));
+      }
+
+      for (final Future<List<String>> future : futures) {
+        lines.addAll(future.get());
+      }
+
+      return lines;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading the evaluator log.", e);
+    } catch (final ExecutionException e) {
+      throw new IOException("Unable to read the evaluator log.", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads the log written by the append or overwrite logs, if any. The append log writes to the change log path;
+   * the overwrite log alternates between it and an alternative file, and the longer one holds the complete log.
+   */
+  private List<String> readLegacyLog() throws IOException {
+    Path longest = null;
+    long longestLength = -1;
+    for (final Path legacyPath : this.getLegacyPaths()) {
+      if (this.fileSystem.exists(legacyPath)) {
+        final long length = this.fileSystem.getFileStatus(legacyPath).getLen();
+        if (length > longestLength) {
+          longest = legacyPath;
+          longestLength = length;
+        }
+      }
+    }
+
+    if (longest == null) {
+      return Collections.emptyList();
+    }
+
+    LOG.log(Level.INFO, "Reading evaluator log {0} written by an earlier version", longest);
+    return readLines(this.fileSystem, longest);
+  }
+
+  /**
+   * Reads the complete lines of a log file. A trailing line without a line separator
+   * is the remains of an interrupted write and is dropped.
+   */
+  private static List<String> readLines(final FileSystem fs, final Path path) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final FSDataInputStream inputStream = fs.open(path)) {
+      IOUtils.copyBytes(inputStream, bytes, 64 * 1024, false);
+    }
+
+    final String content = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    final List<String> lines = new ArrayList<>();
+    int start = 0;
+    for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+      final String line = stripLineSeparator(content.substring(start, end + 1));
+      if (!line.isEmpty()) {
+        lines.add(line);
+      }
+      start = end + 1;
+    }
+
+    if (start < content.length()) {
+      LOG.log(Level.WARNING, "Ignoring incomplete entry at the end of evaluator log file {0}", path);
+    }
+
+    return lines;
+  }
+
+  /**
+   * Lists the segments and snapshots of this log by sequence number.
+   * Leftover temporary snapshots are included only if requested.
+   */
+  private TreeMap<Long, Path> listLogFiles(final boolean includeTemporary) throws IOException {
+    final TreeMap<Long, Path> files = new TreeMap<>();
+    final FileStatus[] statuses;
+    try {
+      statuses = this.logFileSystem.listStatus(this.changeLogPath.getParent());
+    } catch (final FileNotFoundException e) {
+      return files;
+    }
+
+    final String prefix = this.changeLogName + ".";
+    for (final FileStatus status : statuses) {
+      final String name = status.getPath().getName();
+      if (!name.startsWith(prefix)) {
+        continue;
+      }
+
+      String suffix = name.substring(prefix.length());
+      if (suffix.endsWith(TEMP_SUFFIX)) {
+        if (!includeTemporary) {
+          continue;
+        }
+        suffix = suffix.substring(0, suffix.length() - TEMP_SUFFIX.length());
+      }
+      if (suffix.endsWith(SNAPSHOT_SUFFIX)) {
+        suffix = suffix.substring(0, suffix.length() - SNAPSHOT_SUFFIX.length());
+      }
+
+      final long sequence;
+      try {
+        sequence = Long.parseLong(suffix);
+      } catch (final NumberFormatException ignored) {
+        // Not a file of this log, e.g. the alternative file of the overwrite log.
+        continue;
+      }
+
+      // A temporary snapshot shares its sequence number with the snapshot it became, keep the latter.
+      if (!files.containsKey(sequence) || !name.endsWith(TEMP_SUFFIX)) {
+        files.put(sequence, status.getPath());
+      }
+    }
+
+    return files;
+  }
+
+  private List<Path> getLegacyPaths() {
+    return Arrays.asList(this.changeLogPath, new Path(this.changeLogPath + LEGACY_ALT_SUFFIX));
+  }
+
+  private Path getPath(final long sequence, final String suffix) {
+    return new Path(this.changeLogPath.getParent(), this.changeLogName + "." + sequence + suffix);
+  }
+
+  private static void applyEntry(final Set<String> evaluators, final String line) {
+    if (line.startsWith(DFSEvaluatorPreserver.ADD_FLAG)) {
+      evaluators.add(line.substring(DFSEvaluatorPreserver.ADD_FLAG.length()));
+    } else if (line.startsWith(DFSEvaluatorPreserver.REMOVE_FLAG)) {
+      evaluators.remove(line.substring(DFSEvaluatorPreserver.REMOVE_FLAG.length()));
+    }
+  }
+
+  private static String stripLineSeparator(final String entry) {
+    int end = entry.length();
+    while (end > 0 && (entry.charAt(end - 1) == '\n' || entry.charAt(end - 1) == '\r')) {
+      --end;
+    }
+    return entry.substring(0, end);
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.reef.exception.DriverFatalRuntimeException;
 import org.apache.reef.runtime.common.driver.EvaluatorPreserver;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorManager;
 import org.apache.reef.runtime.yarn.driver.parameters.JobSubmissionDirectory;
+import org.apache.reef.runtime.yarn.driver.parameters.SegmentedEvaluatorChangeLog;
 import org.apache.reef.runtime.yarn.util.YarnUtilities;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.CloseableIterable;
@@ -51,9 +52,9 @@ import java.util.logging.Logger;
 public final class DFSEvaluatorPreserver implements EvaluatorPreserver, AutoCloseable {
   private static final Logger LOG = Logger.getLogger(DFSEvaluatorPreserver.class.getName());
 
-  private static final String ADD_FLAG = "+";
+  static final String ADD_FLAG = "+";
 
-  private static final String REMOVE_FLAG = "-";
+  static final String REMOVE_FLAG = "-";
 
   private final boolean failDriverOnEvaluatorLogErrors;
 
@@ -67,13 +68,18 @@ public final class DFSEvaluatorPreserver implements EvaluatorPreserver, AutoClos
 
   @Inject
   DFSEvaluatorPreserver(@Parameter(FailDriverOnEvaluatorLogErrors.class)
-                        final boolean failDriverOnEvaluatorLogErrors) {
-    this(failDriverOnEvaluatorLogErrors, "/ReefApplications/" + getEvaluatorChangeLogFolderLocation());
+                        final boolean failDriverOnEvaluatorLogErrors,
+                        @Parameter(SegmentedEvaluatorChangeLog.class)
+                        final boolean segmentedChangeLog) {
+    this(failDriverOnEvaluatorLogErrors, segmentedChangeLog,
+        "/ReefApplications/" + getEvaluatorChangeLogFolderLocation());
   }
 
   @Inject
   private DFSEvaluatorPreserver(@Parameter(FailDriverOnEvaluatorLogErrors.class)
                                 final boolean failDriverOnEvaluatorLogErrors,
+                                @Parameter(SegmentedEvaluatorChangeLog.class)
+                                final boolean segmentedChangeLog,
                                 @Parameter(JobSubmissionDirectory.class)
                                 final String jobSubmissionDirectory) {
 
@@ -87,7 +93,9 @@ public final class DFSEvaluatorPreserver implements EvaluatorPreserver, AutoClos
 
       boolean appendSupported = config.getBoolean("dfs.support.append", false);
 
-      if (appendSupported) {
+      if (segmentedChangeLog) {
+        this.readerWriter = new DFSEvaluatorLogSegmentedReaderWriter(this.fileSystem, this.changeLogLocation);
+      } else if (appendSupported) {
         this.readerWriter = new DFSEvaluatorLogAppendReaderWriter(this.fileSystem, this.changeLogLocation);
       } else {
         this.readerWriter = new DFSEvaluatorLogOverwriteReaderWriter(this.fileSystem, this.changeLogLocation);
@@ -167,10 +175,12 @@ public final class DFSEvaluatorPreserver implements EvaluatorPreserver, AutoClos
 
   /**
    * Adds the allocated evaluator entry to the evaluator log.
+   * Not synchronized, so that the segmented log can commit entries of concurrent callers together;
+   * the other logs serialize writes themselves.
    * @param id
    */
   @Override
-  public synchronized void recordAllocatedEvaluator(final String id) {
+  public void recordAllocatedEvaluator(final String id) {
     if (this.fileSystem != null && this.changeLogLocation != null) {
       final String entry = ADD_FLAG + id + System.lineSeparator();
       this.logContainerChange(entry);
@@ -182,7 +192,7 @@ public final class DFSEvaluatorPreserver implements EvaluatorPreserver, AutoClos
    * @param id
    */
   @Override
-  public synchronized void recordRemovedEvaluator(final String id) {
+  public void recordRemovedEvaluator(final String id) {
     if (this.fileSystem != null && this.changeLogLocation != null) {
       final String entry = REMOVE_FLAG + id + System.lineSeparator();
       this.logContainerChange(entry);
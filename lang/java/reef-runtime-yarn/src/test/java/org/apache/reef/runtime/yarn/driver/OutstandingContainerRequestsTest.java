@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver;
+
+import org.apache.hadoop.yarn.api.records.ApplicationAttemptId;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.Container;
+import org.apache.hadoop.yarn.api.records.ContainerId;
+import org.apache.hadoop.yarn.api.records.NodeId;
+import org.apache.hadoop.yarn.api.records.Priority;
+import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.client.api.AMRMClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for OutstandingContainerRequests.
+ */
+public final class OutstandingContainerRequestsTest {
+
+  private static final int[] MEMORY_SIZES = {512, 1024, 2048, 4096, 8192};
+
+  private final ApplicationAttemptId attemptId =
+      ApplicationAttemptId.newInstance(ApplicationId.newInstance(0, 1), 1);
+
+  private int nextContainerId = 0;
+
+  /**
+   * Requests 500 containers of 5 sizes, all at the same priority, from an RM that tracks one capability
+   * per priority like YARN does. All of them are allocated in one round, and matched with a request of their size.
+   */
+  @Test
+  public void testMixedRequestsAllocatedInOneRound() {
+    final OutstandingContainerRequests outstandingRequests = new OutstandingContainerRequests();
+    final StubResourceManager resourceManager = new StubResourceManager();
+
+    for (int i = 0; i < 500; ++i) {
+      final Resource capability = Resource.newInstance(MEMORY_SIZES[i % MEMORY_SIZES.length], 1);
+      resourceManager.addContainerRequest(outstandingRequests.add(
+          new AMRMClient.ContainerRequest(capability, null, null, Priority.newInstance(1))));
+    }
+    Assert.assertEquals(500, outstandingRequests.size());
+    Assert.assertEquals(MEMORY_SIZES.length, outstandingRequests.getNumShapes());
+
+    final Map<Integer, Integer> numAllocatedByMemory = new HashMap<>();
+    for (final Container container : resourceManager.allocate()) {
+      final AMRMClient.ContainerRequest request = outstandingRequests.match(container, "/default-rack");
+      Assert.assertNotNull(request);
+      Assert.assertEquals(request.getCapability(), container.getResource());
+      final Integer count = numAllocatedByMemory.get(container.getResource().getMemory());
+      numAllocatedByMemory.put(container.getResource().getMemory(), count == null ? 1 : count + 1);
+    }
+
+    Assert.assertEquals(0, outstandingRequests.size());
+    Assert.assertEquals(0, outstandingRequests.getNumShapes());
+    for (final int memory : MEMORY_SIZES) {
+      Assert.assertEquals(100, numAllocatedByMemory.get(memory).intValue());
+    }
+  }
+
+  /**
+   * Tests that a container of another priority goes to the smallest request it satisfies,
+   * and that strict locality is respected.
+   */
+  @Test
+  public void testMatchByCapabilityAndLocality() {
+    final OutstandingContainerRequests outstandingRequests = new OutstandingContainerRequests();
+    outstandingRequests.add(new AMRMClient.ContainerRequest(
+        Resource.newInstance(1024, 1), new String[] {"host1"}, null, Priority.newInstance(1), false));
+    outstandingRequests.add(new AMRMClient.ContainerRequest(
+        Resource.newInstance(512, 1), null, null, Priority.newInstance(1)));
+    outstandingRequests.add(new AMRMClient.ContainerRequest(
+        Resource.newInstance(256, 1), null, null, Priority.newInstance(1)));
+
+    Assert.assertNull(outstandingRequests.match(newContainer(128, 7, "host2"), null));
+    Assert.assertEquals(256,
+        outstandingRequests.match(newContainer(1024, 7, "host2"), null).getCapability().getMemory());
+    Assert.assertEquals(512,
+        outstandingRequests.match(newContainer(1024, 7, "host2"), null).getCapability().getMemory());
+    Assert.assertNull(outstandingRequests.match(newContainer(1024, 7, "host2"), null));
+    Assert.assertEquals(1024,
+        outstandingRequests.match(newContainer(1024, 7, "host1"), null).getCapability().getMemory());
+    Assert.assertEquals(0, outstandingRequests.size());
+  }
+
+  private Container newContainer(final int memory, final int priority, final String host) {
+    return Container.newInstance(ContainerId.newContainerId(this.attemptId, this.nextContainerId++),
+        NodeId.newInstance(host, 0), host + ":0", Resource.newInstance(memory, 1), Priority.newInstance(priority),
+        null);
+  }
+
+  /**
+   * An RM that allocates all requested containers in one round. Like YARN, it keeps one capability
+   * per priority: the one of the latest request at that priority.
+   */
+  private final class StubResourceManager {
+    private final Map<Integer, Resource> capabilities = new HashMap<>();
+    private final Map<Integer, Integer> numContainers = new HashMap<>();
+
+    private void addContainerRequest(final AMRMClient.ContainerRequest request) {
+      final int priority = request.getPriority().getPriority();
+      this.capabilities.put(priority, request.getCapability());
+      final Integer count = this.numContainers.get(priority);
+      this.numContainers.put(priority, count == null ? 1 : count + 1);
+    }
+
+    private List<Container> allocate() {
+      final List<Container> containers = new ArrayList<>();
+      for (final Map.Entry<Integer, Integer> entry : this.numContainers.entrySet()) {
+        final Resource capability = this.capabilities.get(entry.getKey());
+        for (int i = 0; i < entry.getValue(); ++i) {
+          containers.add(newContainer(capability.getMemory(), entry.getKey(), "host" + i % 10));
+        }
+      }
+      this.numContainers.clear();
+      return containers;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.restart;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.util.CloseableIterable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests for DFSEvaluatorLogSegmentedReaderWriter on the local file system.
+ */
+public final class DFSEvaluatorLogSegmentedReaderWriterTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private Path changeLogPath;
+
+  @Before
+  public void setUp() {
+    this.changeLogPath = new Path(this.folder.getRoot().getAbsolutePath(), "evaluatorsChangesLog");
+  }
+
+  /**
+   * Tests that the live evaluators survive segment rollovers, compactions and a restart,
+   * and that compaction deletes the files it supersedes.
+   */
+  @Test
+  public void testRecoverAfterCompaction() throws Exception {
+    final Set<String> expected = new HashSet<>();
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      for (int i = 0; i < 50; ++i) {
+        log.writeToEvaluatorLog(add("container_" + i));
+        expected.add("container_" + i);
+        if (i % 2 == 0) {
+          log.writeToEvaluatorLog(remove("container_" + i));
+          expected.remove("container_" + i);
+        }
+      }
+    }
+
+    // 75 entries in segments of 4 entries, compacted every 3 segments: one snapshot and at most 3 segments remain.
+    Assert.assertTrue(this.folder.getRoot().list().length <= 4);
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(expected, recover(log));
+      log.writeToEvaluatorLog(remove("container_1"));
+      expected.remove("container_1");
+    }
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(expected, recover(log));
+    }
+  }
+
+  /**
+   * Tests that entries written concurrently are all recovered, without waiting for the writer to close.
+   */
+  @Test
+  public void testConcurrentWrites() throws Exception {
+    final int numThreads = 8;
+    final int numEntriesPerThread = 200;
+    final CountDownLatch done = new CountDownLatch(numThreads);
+    final List<Exception> failures = new ArrayList<>();
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      for (int t = 0; t < numThreads; ++t) {
+        final int thread = t;
+        new Thread(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              for (int i = 0; i < numEntriesPerThread; ++i) {
+                log.writeToEvaluatorLog(add("container_" + thread + "_" + i));
+              }
+            } catch (final Exception e) {
+              synchronized (failures) {
+                failures.add(e);
+              }
+            } finally {
+              done.countDown();
+            }
+          }
+        }).start();
+      }
+      done.await();
+
+      Assert.assertEquals(new ArrayList<Exception>(), failures);
+      try (final DFSEvaluatorLogSegmentedReaderWriter recoveryLog = newLog()) {
+        Assert.assertEquals(numThreads * numEntriesPerThread, recover(recoveryLog).size());
+      }
+    }
+  }
+
+  /**
+   * Tests that an entry cut off by a crash is ignored, and that the next run does not append to it.
+   */
+  @Test
+  public void testIncompleteEntryIgnored() throws Exception {
+    try (final FileSystem fileSystem = FileSystem.newInstanceLocal(new Configuration());
+         final FSDataOutputStream outputStream = fileSystem.create(new Path(this.changeLogPath + ".0"))) {
+      outputStream.write((add("container_0") + DFSEvaluatorPreserver.ADD_FLAG + "contai")
+          .getBytes(StandardCharsets.UTF_8));
+    }
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_0")), recover(log));
+      log.writeToEvaluatorLog(add("container_1"));
+    }
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_0", "container_1")), recover(log));
+    }
+  }
+
+  /**
+   * Tests that a log written by the overwrite log before the segmented log became the default is recovered.
+   */
+  @Test
+  public void testRecoverOverwriteLog() throws Exception {
+    try (final DFSEvaluatorLogOverwriteReaderWriter legacyLog = new DFSEvaluatorLogOverwriteReaderWriter(
+        FileSystem.newInstanceLocal(new Configuration()), this.changeLogPath)) {
+      legacyLog.writeToEvaluatorLog(add("container_0"));
+      legacyLog.writeToEvaluatorLog(add("container_1"));
+      legacyLog.writeToEvaluatorLog(remove("container_0"));
+    }
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1")), recover(log));
+      log.writeToEvaluatorLog(add("container_2"));
+    }
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(new HashSet<>(Arrays.asList("container_1", "container_2")), recover(log));
+    }
+  }
+
+  /**
+   * Tests that a log written by the append log is recovered, and that it is deleted once a snapshot includes it.
+   */
+  @Test
+  public void testMigrateAppendLog() throws Exception {
+    try (final FileSystem fileSystem = FileSystem.newInstanceLocal(new Configuration());
+         final FSDataOutputStream outputStream = fileSystem.create(this.changeLogPath)) {
+      outputStream.write((add("container_0") + add("container_1") + remove("container_0"))
+          .getBytes(StandardCharsets.UTF_8));
+    }
+
+    final Set<String> expected = new HashSet<>(Arrays.asList("container_1"));
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(expected, recover(log));
+      // 12 entries in segments of 4 entries, compacted every 3 segments.
+      for (int i = 2; i < 14; ++i) {
+        log.writeToEvaluatorLog(add("container_" + i));
+        expected.add("container_" + i);
+      }
+    }
+
+    try (final FileSystem fileSystem = FileSystem.newInstanceLocal(new Configuration())) {
+      Assert.assertFalse(fileSystem.exists(this.changeLogPath));
+    }
+
+    try (final DFSEvaluatorLogSegmentedReaderWriter log = newLog()) {
+      Assert.assertEquals(expected, recover(log));
+    }
+  }
+
+  private DFSEvaluatorLogSegmentedReaderWriter newLog() throws Exception {
+    return new DFSEvaluatorLogSegmentedReaderWriter(
+        FileSystem.newInstanceLocal(new Configuration()), this.changeLogPath, 4, 3);
+  }
+
+  private static Set<String> recover(final DFSEvaluatorLogReaderWriter log) throws Exception {
+    final Set<String> evaluators = new HashSet<>();
+    try (final CloseableIterable<String> lines = log.readFromEvaluatorLog()) {
+      for (final String line : lines) {
+        if (line.startsWith(DFSEvaluatorPreserver.ADD_FLAG)) {
+          Assert.assertTrue("Duplicate add of " + line, evaluators.add(line.substring(1)));
+        } else {
+          Assert.assertTrue("Unexpected remove of " + line, evaluators.remove(line.substring(1)));
+        }
+      }
+    }
+    return evaluators;
+  }
+
+  private static String add(final String id) {
+    return DFSEvaluatorPreserver.ADD_FLAG + id + System.lineSeparator();
+  }
+
+  private static String remove(final String id) {
+    return DFSEvaluatorPreserver.REMOVE_FLAG + id + System.lineSeparator();
+  }
+}
@@ -50,6 +50,8 @@ public class ConfigurationBuilderImpl implements ConfigurationBuilder {
   // in a sane Configuration interface...
   // TODO: Should be final again!
   private ClassHierarchy namespace;
+  // False once the namespace was replaced by a merge: older bindings may refer to nodes of the previous namespace.
+  private boolean boundInNamespace = true;
 
   protected ConfigurationBuilderImpl() {
     this.namespace = Tang.Factory.getTang().getDefaultClassHierarchy();
@@ -71,6 +73,17 @@ public class ConfigurationBuilderImpl implements ConfigurationBuilder {
 
   protected ConfigurationBuilderImpl(final ConfigurationBuilderImpl t) {
     this.namespace = t.getClassHierarchy();
+    if (t.boundInNamespace) {
+      // The bindings of t were checked against this namespace when they were made: copy them as they are,
+      // instead of resolving, parsing and binding them again. Forking injectors copies builders a lot.
+      boundImpls.putAll(t.boundImpls);
+      boundConstructors.putAll(t.boundConstructors);
+      namedParameters.putAll(t.namedParameters);
+      legacyConstructors.putAll(t.legacyConstructors);
+      boundSetEntries.addAll(t.boundSetEntries);
+      boundLists.putAll(t.boundLists);
+      return;
+    }
     try {
       addConfiguration(t.getClassHierarchy(), t);
     } catch (final BindException e) {
@@ -97,7 +110,11 @@ public class ConfigurationBuilderImpl implements ConfigurationBuilder {
   @SuppressWarnings("unchecked")
   private <T> void addConfiguration(final ClassHierarchy ns, final ConfigurationBuilderImpl builder)
       throws BindException {
-    namespace = namespace.merge(ns);
+    final ClassHierarchy merged = namespace.merge(ns);
+    if (merged != namespace) {
+      namespace = merged;
+      boundInNamespace = false;
+    }
     if (namespace instanceof ClassHierarchyImpl || builder.namespace instanceof ClassHierarchyImpl) {
       if (namespace instanceof ClassHierarchyImpl && builder.namespace instanceof ClassHierarchyImpl) {
         ((ClassHierarchyImpl) namespace).getParameterParser()
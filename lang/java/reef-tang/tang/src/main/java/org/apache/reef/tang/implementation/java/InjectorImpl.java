@@ -108,23 +108,30 @@ public class InjectorImpl implements Injector {
         // This would imply that we're treating injector as a singleton somewhere.  It should be copied fresh each time.
         throw new IllegalStateException("Injector should be copied fresh each time.");
       }
-      try {
-        final ClassNode<?> newCn = (ClassNode<?>) i.namespace.getNode(cn
-            .getFullName());
-        i.instances.put(newCn, old.instances.get(cn));
-      } catch (final BindException e) {
-        throw new IllegalStateException("Could not resolve name "
-            + cn.getFullName() + " when copying injector", e);
-      }
     }
-    // Copy references to the remaining (which must have been set with
-    // bindVolatileParameter())
-    for (final NamedParameterNode<?> np : old.namedParameterInstances.keySet()) {
-      // if (!builder.namedParameters.containsKey(np)) {
-      final Object o = old.namedParameterInstances.get(np);
-      final NamedParameterNode<?> newNp = (NamedParameterNode<?>) i.namespace
-          .getNode(np.getFullName());
-      i.namedParameterInstances.put(newNp, o);
+    if (i.namespace == old.namespace) {
+      // Same class hierarchy, so the nodes are the same: no need to look them up by name.
+      i.instances.putAll(old.instances);
+      i.namedParameterInstances.putAll(old.namedParameterInstances);
+    } else {
+      for (final ClassNode<?> cn : old.instances.keySet()) {
+        try {
+          final ClassNode<?> newCn = (ClassNode<?>) i.namespace.getNode(cn
+              .getFullName());
+          i.instances.put(newCn, old.instances.get(cn));
+        } catch (final BindException e) {
+          throw new IllegalStateException("Could not resolve name "
+              + cn.getFullName() + " when copying injector", e);
+        }
+      }
+      // Copy references to the remaining (which must have been set with
+      // bindVolatileParameter())
+      for (final NamedParameterNode<?> np : old.namedParameterInstances.keySet()) {
+        final Object o = old.namedParameterInstances.get(np);
+        final NamedParameterNode<?> newNp = (NamedParameterNode<?>) i.namespace
+            .getNode(np.getFullName());
+        i.namedParameterInstances.put(newNp, o);
+      }
     }
     // Fork the aspect (if any)
     if (old.aspect != null) {
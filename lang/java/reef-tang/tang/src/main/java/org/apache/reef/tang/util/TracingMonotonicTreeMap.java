@@ -70,9 +70,21 @@ public final class TracingMonotonicTreeMap<K, V> implements TracingMonotonicMap<
     return ret != null ? ret.getKey() : null;
   }
 
+  /**
+   * Puts all entries of the given map. Entries of another TracingMonotonicTreeMap keep the location they were set at.
+   */
   @Override
+  @SuppressWarnings("unchecked")
   public void putAll(final Map<? extends K, ? extends V> m) {
-    throw new UnsupportedOperationException();
+    if (m instanceof TracingMonotonicTreeMap) {
+      for (final Entry<K, EntryImpl> e : ((TracingMonotonicTreeMap<K, V>) m).innerMap.entrySet()) {
+        innerMap.put(e.getKey(), e.getValue());
+      }
+    } else {
+      for (final Entry<? extends K, ? extends V> e : m.entrySet()) {
+        put(e.getKey(), e.getValue());
+      }
+    }
   }
 
   @Override
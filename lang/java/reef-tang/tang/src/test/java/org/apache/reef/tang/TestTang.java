@@ -652,6 +652,27 @@ public class TestTang {
     Assert.assertTrue(c1 != c2);
   }
 
+  @Test
+  public void testForkKeepsBindingsAndInstances() throws BindException, InjectionException {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    cb.bind(CheckChildIface.class, CheckChildImpl.class);
+    cb.bindNamedParameter(TwoNamedStringArgs.A.class, "a");
+
+    final Injector i = Tang.Factory.getTang().newInjector(cb.build());
+    final CheckChildIface c = i.getInstance(CheckChildIface.class);
+
+    final JavaConfigurationBuilder cb2 = Tang.Factory.getTang().newConfigurationBuilder();
+    cb2.bindNamedParameter(TwoNamedStringArgs.B.class, "b");
+    final Injector i1 = i.forkInjector(cb2.build());
+    Assert.assertSame(c, i1.getInstance(CheckChildIface.class));
+    final TwoNamedStringArgs args = i1.getInstance(TwoNamedStringArgs.class);
+    Assert.assertEquals("a", args.a);
+    Assert.assertEquals("b", args.b);
+
+    // The fork's bindings do not leak into the parent.
+    Assert.assertEquals("defaultB", i.getInstance(TwoNamedStringArgs.class).b);
+  }
+
   @Test
   public void testReuseFailedInjector() throws BindException, InjectionException {
     final Injector i = Tang.Factory.getTang().newInjector();
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.messaging.task;
+
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.task.CompletedTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.driver.task.TaskMessage;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.tests.library.exceptions.DriverSideFailure;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Driver for DirectTaskMessagingTest: checks that all the messages sent with TaskMessageSender
+ * arrive, in order, before the task completes.
+ */
+@Unit
+public final class DirectTaskMessagingDriver {
+
+  private static final Logger LOG = Logger.getLogger(DirectTaskMessagingDriver.class.getName());
+
+  private int received = 0;
+  private long lastSequenceNumber = Long.MIN_VALUE;
+
+  @Inject
+  private DirectTaskMessagingDriver() {
+  }
+
+  /**
+   * Submits the task.
+   */
+  public final class EvaluatorAllocatedHandler implements EventHandler<AllocatedEvaluator> {
+    @Override
+    public void onNext(final AllocatedEvaluator eval) {
+      eval.submitTask(TaskConfiguration.CONF
+          .set(TaskConfiguration.IDENTIFIER, "DirectTaskMessagingTask")
+          .set(TaskConfiguration.TASK, DirectTaskMessagingTask.class)
+          .build());
+    }
+  }
+
+  /**
+   * Checks the content and the order of every message.
+   */
+  public final class TaskMessageHandler implements EventHandler<TaskMessage> {
+    @Override
+    public void onNext(final TaskMessage msg) {
+      synchronized (DirectTaskMessagingDriver.this) {
+        final int value = DirectTaskMessagingTask.CODEC.decode(msg.get());
+        if (value != received || msg.getSequenceNumber() <= lastSequenceNumber) {
+          throw new DriverSideFailure("Message " + value + " with sequence number " + msg.getSequenceNumber() +
+              " received after " + received + " messages, the last one with sequence number " + lastSequenceNumber);
+        }
+        ++received;
+        lastSequenceNumber = msg.getSequenceNumber();
+      }
+    }
+  }
+
+  /**
+   * Checks that no message is missing once the task is done.
+   */
+  public final class TaskCompletedHandler implements EventHandler<CompletedTask> {
+    @Override
+    public void onNext(final CompletedTask task) {
+      synchronized (DirectTaskMessagingDriver.this) {
+        LOG.log(Level.INFO, "Task completed after {0} messages", received);
+        if (received != DirectTaskMessagingTask.NUM_MESSAGES) {
+          throw new DriverSideFailure("Task completed after " + received + " of " +
+              DirectTaskMessagingTask.NUM_MESSAGES + " messages");
+        }
+      }
+      task.getActiveContext().close();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.messaging.task;
+
+import org.apache.reef.task.Task;
+import org.apache.reef.task.TaskMessage;
+import org.apache.reef.task.TaskMessageSender;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+
+import javax.inject.Inject;
+
+/**
+ * A task that sends a numbered series of messages straight to the driver and returns.
+ */
+public final class DirectTaskMessagingTask implements Task {
+
+  static final int NUM_MESSAGES = 1000;
+  static final ObjectSerializableCodec<Integer> CODEC = new ObjectSerializableCodec<>();
+
+  private final TaskMessageSender taskMessageSender;
+
+  @Inject
+  private DirectTaskMessagingTask(final TaskMessageSender taskMessageSender) {
+    this.taskMessageSender = taskMessageSender;
+  }
+
+  @Override
+  public byte[] call(final byte[] memento) {
+    for (int i = 0; i < NUM_MESSAGES; ++i) {
+      this.taskMessageSender.send(TaskMessage.from(DirectTaskMessagingTask.class.getName(), CODEC.encode(i)));
+    }
+    // No flush: pending messages must still reach the driver before the task completes.
+    return null;
+  }
+}
@@ -31,6 +31,7 @@ import org.apache.reef.tests.examples.ExamplesTestSuite;
 import org.apache.reef.tests.fail.FailTestSuite;
 import org.apache.reef.tests.files.FileResourceTest;
 import org.apache.reef.tests.messaging.driver.DriverMessagingTest;
+import org.apache.reef.tests.messaging.task.DirectTaskMessagingTest;
 import org.apache.reef.tests.messaging.task.TaskMessagingTest;
 import org.apache.reef.tests.statepassing.StatePassingTest;
 import org.apache.reef.tests.subcontexts.SubContextTest;
@@ -51,6 +52,7 @@ import org.junit.runners.Suite;
     FileResourceTest.class,
     DriverMessagingTest.class,
     TaskMessagingTest.class,
+    DirectTaskMessagingTest.class,
     StatePassingTest.class,
     SubContextTest.class,
     TaskResubmitTest.class,
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.applications.vortex.addone;
+
+import org.apache.reef.vortex.api.AggregateResultSynchronous;
+import org.apache.reef.vortex.api.VortexAggregateException;
+import org.apache.reef.vortex.api.VortexBulkFuture;
+import org.apache.reef.vortex.api.VortexStart;
+import org.apache.reef.vortex.api.VortexThreadPool;
+
+import javax.inject.Inject;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Test correctness of a simple vector calculation on Vortex, submitted in bulk from a lazily generated input stream.
+ */
+public final class AddOneBulkTestStart implements VortexStart {
+  private static final int NUM_OF_INPUTS = 10000;
+  private static final int MAX_OUTSTANDING = 1000;
+
+  @Inject
+  private AddOneBulkTestStart() {
+  }
+
+  /**
+   * Test correctness of a simple vector calculation on Vortex.
+   */
+  @Override
+  public void start(final VortexThreadPool vortexThreadPool) {
+    final Iterator<Integer> inputs = new Iterator<Integer>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < NUM_OF_INPUTS;
+      }
+
+      @Override
+      public Integer next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return next++;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    final VortexBulkFuture<Integer, Integer> future =
+        vortexThreadPool.submitAll(new AddOneFunction(), inputs, MAX_OUTSTANDING);
+
+    final BitSet inputsWithResult = new BitSet(NUM_OF_INPUTS);
+    try {
+      AggregateResultSynchronous<Integer, Integer> result = future.get();
+      while (result != null) {
+        final int input = result.getAggregatedInputs().get(0);
+        if (input + 1 != result.getAggregateResult() || inputsWithResult.get(input)) {
+          throw new RuntimeException("Unexpected result " + result.getAggregateResult() + " for input " + input);
+        }
+        inputsWithResult.set(input);
+        result = future.get();
+      }
+    } catch (final InterruptedException | VortexAggregateException e) {
+      throw new RuntimeException(e);
+    }
+
+    if (inputsWithResult.cardinality() != NUM_OF_INPUTS) {
+      throw new RuntimeException("Expected " + NUM_OF_INPUTS + " results, got " + inputsWithResult.cardinality());
+    }
+  }
+}
@@ -96,4 +96,27 @@ public final class AddOneTest {
     final LauncherStatus status = this.testEnvironment.run(vortexJobConf.getConfiguration());
     Assert.assertTrue("Job state after execution: " + status, status.isSuccess());
   }
+
+  /**
+   * Run the AddOne test with the inputs submitted in bulk through
+   * {@link org.apache.reef.vortex.api.VortexThreadPool#submitAll}.
+   */
+  @Test
+  public void testVortexAddOneBulk() {
+    final Configuration vortexMasterConf = VortexMasterConf.CONF
+        .set(VortexMasterConf.WORKER_NUM, 2)
+        .set(VortexMasterConf.WORKER_MEM, 64)
+        .set(VortexMasterConf.WORKER_CORES, 4)
+        .set(VortexMasterConf.WORKER_CAPACITY, 2000)
+        .set(VortexMasterConf.VORTEX_START, AddOneBulkTestStart.class)
+        .build();
+
+    final VortexJobConf vortexJobConf = VortexJobConf.newBuilder()
+        .setJobName("TEST_Vortex_AddOneBulkTest")
+        .setVortexMasterConf(vortexMasterConf)
+        .build();
+
+    final LauncherStatus status = this.testEnvironment.run(vortexJobConf.getConfiguration());
+    Assert.assertTrue("Job state after execution: " + status, status.isSuccess());
+  }
 }
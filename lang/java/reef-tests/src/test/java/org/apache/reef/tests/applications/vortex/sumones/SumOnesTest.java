@@ -73,4 +73,28 @@ public final class SumOnesTest {
     final LauncherStatus status = this.testEnvironment.run(vortexJobConf.getConfiguration());
     Assert.assertTrue("Job state after execution: " + status, status.isSuccess());
   }
+
+  /**
+   * Run the SumOnes test with tree aggregation.
+   */
+  @Test
+  public void testVortexSumOnesTree() {
+
+    final Configuration vortexMasterConf = VortexMasterConf.CONF
+        .set(VortexMasterConf.WORKER_NUM, 4)
+        .set(VortexMasterConf.WORKER_MEM, 64)
+        .set(VortexMasterConf.WORKER_CORES, 1)
+        .set(VortexMasterConf.WORKER_CAPACITY, 2000)
+        .set(VortexMasterConf.VORTEX_START, SumOnesTreeTestStart.class)
+        .set(VortexMasterConf.TREE_AGGREGATION, true)
+        .build();
+
+    final VortexJobConf vortexJobConf = VortexJobConf.newBuilder()
+        .setJobName("TEST_Vortex_SumOnesTreeTest")
+        .setVortexMasterConf(vortexMasterConf)
+        .build();
+
+    final LauncherStatus status = this.testEnvironment.run(vortexJobConf.getConfiguration());
+    Assert.assertTrue("Job state after execution: " + status, status.isSuccess());
+  }
 }
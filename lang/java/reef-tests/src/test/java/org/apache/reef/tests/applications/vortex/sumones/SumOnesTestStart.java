@@ -38,6 +38,13 @@ public final class SumOnesTestStart implements VortexStart {
    */
   @Override
   public void start(final VortexThreadPool vortexThreadPool) {
+    sumOnes(vortexThreadPool, VortexAggregatePolicy.newBuilder().setTimerPeriodTrigger(3000).build());
+  }
+
+  /**
+   * Sums ones with the aggregation policy and checks the aggregates.
+   */
+  static void sumOnes(final VortexThreadPool vortexThreadPool, final VortexAggregatePolicy policy) {
     final int numberOfOnesToSum = 1000;
     final Vector<Integer> inputVector = new Vector<>();
     for (int i = 0; i < numberOfOnesToSum; i++) {
@@ -45,8 +52,7 @@ public final class SumOnesTestStart implements VortexStart {
     }
 
     final VortexAggregateFuture<Integer, Integer> future =
-        vortexThreadPool.submit(new AdditionAggregateFunction(), new IdentityFunction(),
-            VortexAggregatePolicy.newBuilder().setTimerPeriodTrigger(3000).build(), inputVector);
+        vortexThreadPool.submit(new AdditionAggregateFunction(), new IdentityFunction(), policy, inputVector);
 
     try {
       AggregateResultSynchronous<Integer, Integer> result;
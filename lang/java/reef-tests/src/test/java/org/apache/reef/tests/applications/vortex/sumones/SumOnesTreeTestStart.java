@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.applications.vortex.sumones;
+
+import org.apache.reef.vortex.api.VortexAggregatePolicy;
+import org.apache.reef.vortex.api.VortexStart;
+import org.apache.reef.vortex.api.VortexThreadPool;
+
+import javax.inject.Inject;
+
+/**
+ * Test correctness of an aggregation function that adds integer outputs (ones) on Vortex, with tree aggregation.
+ */
+public final class SumOnesTreeTestStart implements VortexStart {
+  @Inject
+  private SumOnesTreeTestStart() {
+  }
+
+  @Override
+  public void start(final VortexThreadPool vortexThreadPool) {
+    SumOnesTestStart.sumOnes(vortexThreadPool, VortexAggregatePolicy.newBuilder()
+        .setTimerPeriodTrigger(1000)
+        .setTreeAggregationFanIn(2)
+        .build());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.warmjvm;
+
+import org.apache.reef.client.DriverConfiguration;
+import org.apache.reef.client.DriverLauncher;
+import org.apache.reef.client.LauncherStatus;
+import org.apache.reef.runtime.local.client.parameters.WarmJVMPoolSize;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tests.LocalTestEnvironment;
+import org.apache.reef.tests.TestEnvironment;
+import org.apache.reef.util.EnvironmentUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs Evaluators on the local runtime with and without pre-forked JVMs.
+ * The Driver logs the time from each Evaluator request to its ActiveContext.
+ */
+public final class WarmJVMPoolTest {
+
+  private static final Logger LOG = Logger.getLogger(WarmJVMPoolTest.class.getName());
+
+  // runs on the local runtime
+  private final TestEnvironment testEnvironment = new LocalTestEnvironment();
+
+  @Before
+  public void setUp() throws Exception {
+    this.testEnvironment.setUp();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.testEnvironment.tearDown();
+  }
+
+  /**
+   * Evaluators are launched in new JVMs.
+   */
+  @Test
+  public void testWithoutPool() throws InjectionException {
+    runWithPoolSize(0, 0);
+  }
+
+  /**
+   * Evaluators are handed to pre-forked JVMs. The pool starts a replacement whenever a JVM is taken,
+   * so every Evaluator finds a warm JVM.
+   */
+  @Test
+  public void testWithPool() throws InjectionException {
+    runWithPoolSize(2, WarmJVMPoolTestDriver.NUMBER_OF_EVALUATORS);
+  }
+
+  private void runWithPoolSize(final int poolSize, final int expectedWarmEvaluators) throws InjectionException {
+    final Configuration driverModule = DriverConfiguration.CONF
+        .set(DriverConfiguration.DRIVER_IDENTIFIER, "TEST_WarmJVMPool")
+        .set(DriverConfiguration.GLOBAL_LIBRARIES, EnvironmentUtils.getClassLocation(WarmJVMPoolTestDriver.class))
+        .set(DriverConfiguration.ON_DRIVER_STARTED, WarmJVMPoolTestDriver.StartHandler.class)
+        .set(DriverConfiguration.ON_EVALUATOR_ALLOCATED, WarmJVMPoolTestDriver.EvaluatorAllocatedHandler.class)
+        .set(DriverConfiguration.ON_CONTEXT_ACTIVE, WarmJVMPoolTestDriver.ActiveContextHandler.class)
+        .set(DriverConfiguration.ON_TASK_COMPLETED, WarmJVMPoolTestDriver.TaskCompletedHandler.class)
+        .build();
+    final Configuration driverConfiguration = Tang.Factory.getTang().newConfigurationBuilder(driverModule)
+        .bindNamedParameter(WarmJVMPoolTestDriver.ExpectedWarmEvaluators.class,
+            Integer.toString(expectedWarmEvaluators))
+        .build();
+
+    final Configuration runtimeConfiguration = Tang.Factory.getTang()
+        .newConfigurationBuilder(this.testEnvironment.getRuntimeConfiguration())
+        .bindNamedParameter(WarmJVMPoolSize.class, Integer.toString(poolSize))
+        .build();
+
+    final long startTime = System.currentTimeMillis();
+    final LauncherStatus status = DriverLauncher.getLauncher(runtimeConfiguration)
+        .run(driverConfiguration, this.testEnvironment.getTestTimeout());
+    LOG.log(Level.INFO, "Job with {0} warm JVMs and {1} sequential Evaluators took {2} ms", new Object[] {
+        poolSize, WarmJVMPoolTestDriver.NUMBER_OF_EVALUATORS, System.currentTimeMillis() - startTime});
+
+    Assert.assertTrue("Job state after execution: " + status, status.isSuccess());
+  }
+}
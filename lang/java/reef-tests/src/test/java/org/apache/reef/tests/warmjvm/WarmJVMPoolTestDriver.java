@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.warmjvm;
+
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.evaluator.EvaluatorRequest;
+import org.apache.reef.driver.evaluator.EvaluatorRequestor;
+import org.apache.reef.driver.task.CompletedTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.runtime.local.process.WarmJVMLauncher;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.tests.library.exceptions.DriverSideFailure;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.event.StartTime;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Allocates Evaluators one after the other and logs the time from each request to its ActiveContext.
+ * Each Evaluator runs a {@link JVMCommandTask}; the Driver fails if the number of Evaluators that ran
+ * in a pre-forked JVM differs from {@link ExpectedWarmEvaluators}.
+ */
+@Unit
+final class WarmJVMPoolTestDriver {
+
+  private static final Logger LOG = Logger.getLogger(WarmJVMPoolTestDriver.class.getName());
+
+  /**
+   * Number of Evaluators to allocate in sequence.
+   */
+  static final int NUMBER_OF_EVALUATORS = 4;
+
+  /**
+   * The default memory size of the local runtime. Warm JVMs are only used for Evaluators of that size.
+   */
+  private static final int MEMORY_SIZE = 512;
+
+  private final EvaluatorRequestor requestor;
+  private final int expectedWarmEvaluators;
+  private final AtomicInteger remainingEvaluators = new AtomicInteger(NUMBER_OF_EVALUATORS);
+  private final AtomicInteger warmEvaluators = new AtomicInteger(0);
+
+  private long requestTime;
+  private long totalLatency = 0;
+
+  @Inject
+  WarmJVMPoolTestDriver(final EvaluatorRequestor requestor,
+                        @Parameter(ExpectedWarmEvaluators.class) final int expectedWarmEvaluators) {
+    this.requestor = requestor;
+    this.expectedWarmEvaluators = expectedWarmEvaluators;
+  }
+
+  private synchronized void requestEvaluator() {
+    this.requestTime = System.nanoTime();
+    this.requestor.submit(EvaluatorRequest.newBuilder()
+        .setMemory(MEMORY_SIZE)
+        .setNumber(1)
+        .setNumberOfCores(1)
+        .build());
+  }
+
+  private synchronized void onContextActive(final ActiveContext activeContext) {
+    final long latency = System.nanoTime() - this.requestTime;
+    this.totalLatency += latency;
+    LOG.log(Level.INFO, "Evaluator {0}: request to ActiveContext took {1} ms",
+        new Object[] {activeContext.getEvaluatorId(), latency / 1000000});
+
+    activeContext.submitTask(TaskConfiguration.CONF
+        .set(TaskConfiguration.IDENTIFIER, "JVMCommandTask")
+        .set(TaskConfiguration.TASK, JVMCommandTask.class)
+        .build());
+  }
+
+  private void onTaskCompleted(final CompletedTask completedTask) {
+    final String jvmCommand = new String(completedTask.get(), StandardCharsets.UTF_8);
+    LOG.log(Level.INFO, "Evaluator {0} ran in JVM {1}",
+        new Object[] {completedTask.getActiveContext().getEvaluatorId(), jvmCommand});
+    if (jvmCommand.startsWith(WarmJVMLauncher.class.getName())) {
+      this.warmEvaluators.incrementAndGet();
+    }
+
+    completedTask.getActiveContext().close();
+    if (this.remainingEvaluators.decrementAndGet() > 0) {
+      this.requestEvaluator();
+      return;
+    }
+
+    synchronized (this) {
+      LOG.log(Level.INFO, "Average request to ActiveContext latency: {0} ms",
+          this.totalLatency / NUMBER_OF_EVALUATORS / 1000000);
+    }
+    if (this.warmEvaluators.get() != this.expectedWarmEvaluators) {
+      throw new DriverSideFailure("Expected " + this.expectedWarmEvaluators +
+          " Evaluators to run in pre-forked JVMs, but " + this.warmEvaluators.get() + " did.");
+    }
+  }
+
+  /**
+   * The number of Evaluators that must have been handed to a pre-forked JVM.
+   */
+  @NamedParameter(doc = "The number of Evaluators that must have been handed to a pre-forked JVM.")
+  static final class ExpectedWarmEvaluators implements Name<Integer> {
+  }
+
+  final class StartHandler implements EventHandler<StartTime> {
+    @Override
+    public void onNext(final StartTime startTime) {
+      requestEvaluator();
+    }
+  }
+
+  final class EvaluatorAllocatedHandler implements EventHandler<AllocatedEvaluator> {
+    @Override
+    public void onNext(final AllocatedEvaluator allocatedEvaluator) {
+      allocatedEvaluator.submitContext(ContextConfiguration.CONF
+          .set(ContextConfiguration.IDENTIFIER, "WarmJVMPoolTestContext")
+          .build());
+    }
+  }
+
+  final class ActiveContextHandler implements EventHandler<ActiveContext> {
+    @Override
+    public void onNext(final ActiveContext activeContext) {
+      onContextActive(activeContext);
+    }
+  }
+
+  final class TaskCompletedHandler implements EventHandler<CompletedTask> {
+    @Override
+    public void onNext(final CompletedTask completedTask) {
+      onTaskCompleted(completedTask);
+    }
+  }
+}
@@ -18,7 +18,9 @@
  */
 package org.apache.reef.wake;
 
+import org.apache.reef.wake.impl.StageManager;
 import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.StageMetrics;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -27,7 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * @param <T> type
  */
-public abstract class AbstractEStage<T> implements EStage<T> {
+public abstract class AbstractEStage<T> implements EStage<T>, MeteredStage {
 
   protected final AtomicBoolean closed;
   protected final String name;
@@ -38,6 +40,11 @@ public abstract class AbstractEStage<T> implements EStage<T> {
    */
   private final Meter outMeter;
 
+  /**
+   * Queueing and latency statistics.
+   */
+  protected final StageMetrics stageMetrics;
+
   /**
    * Constructs an abstract estage.
    *
@@ -48,6 +55,19 @@ public abstract class AbstractEStage<T> implements EStage<T> {
     this.name = stageName;
     this.inMeter = new Meter(stageName + "_in");
     this.outMeter = new Meter(stageName + "_out");
+    this.stageMetrics = new StageMetrics(stageName, StageManager.instance().isInstrumentationEnabled());
+  }
+
+  /**
+   * Gets the queueing and latency statistics of this stage.
+   * Stages with a queue must call {@link StageMetrics#onEnqueue()}, {@link StageMetrics#onStart(long)}
+   * and {@link StageMetrics#onDone(long)} around each event to keep them.
+   *
+   * @return the stage metrics
+   */
+  @Override
+  public StageMetrics getStageMetrics() {
+    return stageMetrics;
   }
 
   /**
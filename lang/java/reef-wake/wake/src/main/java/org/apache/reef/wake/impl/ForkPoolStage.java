@@ -71,6 +71,7 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
+    final long enqueueTime = stageMetrics.onEnqueue();
     pool.submit(new ForkJoinTask<T>() {
       @Override
       public T getRawResult() {
@@ -87,7 +88,12 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
 
       @Override
       protected boolean exec() {
-        handler.onNext(value);
+        final long startTime = stageMetrics.onStart(enqueueTime);
+        try {
+          handler.onNext(value);
+        } finally {
+          stageMetrics.onDone(startTime);
+        }
         afterOnNext();
         return true;
       }
@@ -97,6 +103,7 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
 
   @Override
   public void close() throws Exception {
+    stageMetrics.unregister();
     LOG.warning("close(): " + pool.getClass().getName() + " " + pool + " must really be close()'d");
   }
 
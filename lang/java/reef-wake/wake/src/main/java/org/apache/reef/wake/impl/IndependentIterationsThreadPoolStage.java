@@ -78,6 +78,7 @@ public class IndependentIterationsThreadPoolStage<T> extends AbstractEStage<List
 
   @Override
   public void close() throws Exception {
+    stageMetrics.unregister();
     executor.shutdown();
     executor.awaitTermination(1000, TimeUnit.DAYS);
   }
@@ -40,7 +40,10 @@ import java.util.logging.Logger;
 public final class SingleThreadStage<T> extends AbstractEStage<T> {
   private static final Logger LOG = Logger.getLogger(SingleThreadStage.class.getName());
 
-  private final BlockingQueue<T> queue;
+  /**
+   * Holds the events, wrapped in a {@link TimestampedEvent} when the stage is instrumented.
+   */
+  private final BlockingQueue<Object> queue;
   private final Thread thread;
   private final AtomicBoolean interrupted;
 
@@ -68,9 +71,9 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
                            @Parameter(StageHandler.class) final EventHandler<T> handler,
                            @Parameter(Capacity.class) final int capacity) {
     super(name);
-    queue = new ArrayBlockingQueue<T>(capacity);
+    queue = new ArrayBlockingQueue<>(capacity);
     interrupted = new AtomicBoolean(false);
-    thread = new Thread(new Producer<T>(name, queue, handler, interrupted));
+    thread = new Thread(new Producer(name, queue, handler, interrupted));
     thread.setName("SingleThreadStage<" + name + ">");
     thread.start();
     StageManager.instance().register(this);
@@ -86,7 +89,13 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
-    queue.add(value);
+    final long enqueueTime = stageMetrics.onEnqueue();
+    try {
+      queue.add(stageMetrics.isInstrumented() ? new TimestampedEvent<>(value, enqueueTime) : value);
+    } catch (final IllegalStateException e) {
+      stageMetrics.onRejected();
+      throw e;
+    }
   }
 
   /**
@@ -96,6 +105,7 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
    */
   @Override
   public void close() throws Exception {
+    stageMetrics.unregister();
     if (closed.compareAndSet(false, true)) {
       interrupted.set(true);
       thread.interrupt();
@@ -103,17 +113,31 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   }
 
 
+  /**
+   * An event along with the time it was queued.
+   */
+  private static final class TimestampedEvent<U> {
+
+    private final U value;
+    private final long enqueueTime;
+
+    TimestampedEvent(final U value, final long enqueueTime) {
+      this.value = value;
+      this.enqueueTime = enqueueTime;
+    }
+  }
+
   /**
    * Takes events from the queue and provides them to the handler.
    */
-  private class Producer<U> implements Runnable {
+  private final class Producer implements Runnable {
 
     private final String name;
-    private final BlockingQueue<U> queue;
-    private final EventHandler<U> handler;
+    private final BlockingQueue<Object> queue;
+    private final EventHandler<T> handler;
     private final AtomicBoolean interrupted;
 
-    Producer(final String name, final BlockingQueue<U> queue, final EventHandler<U> handler,
+    Producer(final String name, final BlockingQueue<Object> queue, final EventHandler<T> handler,
              final AtomicBoolean interrupted) {
       this.name = name;
       this.queue = queue;
@@ -122,11 +146,26 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void run() {
       while (true) {
         try {
-          final U value = queue.take();
-          handler.onNext(value);
+          final Object queued = queue.take();
+          final T value;
+          final long startTime;
+          if (queued instanceof TimestampedEvent) {
+            final TimestampedEvent<T> event = (TimestampedEvent<T>) queued;
+            value = event.value;
+            startTime = stageMetrics.onStart(event.enqueueTime);
+          } else {
+            value = (T) queued;
+            startTime = stageMetrics.onStart(0);
+          }
+          try {
+            handler.onNext(value);
+          } finally {
+            stageMetrics.onDone(startTime);
+          }
           SingleThreadStage.this.afterOnNext();
         } catch (final InterruptedException e) {
           if (interrupted.get()) {
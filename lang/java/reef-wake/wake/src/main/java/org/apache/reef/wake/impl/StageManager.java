@@ -18,7 +18,9 @@
  */
 package org.apache.reef.wake.impl;
 
+import org.apache.reef.wake.MeteredStage;
 import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.metrics.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -34,11 +36,20 @@ public final class StageManager implements Stage {
 
   private static final Logger LOG = Logger.getLogger(StageManager.class.getName());
 
+  /**
+   * System property that turns on the instrumentation of stages, e.g.
+   * -Dorg.apache.reef.wake.stage.instrumentation=true.
+   */
+  public static final String INSTRUMENTATION_PROPERTY = "org.apache.reef.wake.stage.instrumentation";
+
   private static final StageManager INSTANCE = new StageManager();
 
   private final List<Stage> stages = Collections.synchronizedList(new ArrayList<Stage>());
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
+  private volatile boolean instrumentationEnabled = Boolean.getBoolean(INSTRUMENTATION_PROPERTY);
+  private MetricsRegistry metricsRegistry;
+
   private StageManager() {
     LOG.log(Level.FINE, "StageManager adds a shutdown hook");
     Runtime.getRuntime().addShutdownHook(new Thread(
@@ -64,6 +75,67 @@ public final class StageManager implements Stage {
   public void register(final Stage stage) {
     LOG.log(Level.FINEST, "StageManager adds stage {0}", stage);
     this.stages.add(stage);
+    synchronized (this) {
+      if (this.metricsRegistry != null && stage instanceof MeteredStage) {
+        ((MeteredStage) stage).getStageMetrics().registerWith(this.metricsRegistry);
+      }
+    }
+  }
+
+  /**
+   * Turns the tracking of queue depth and the recording of wait and service times on or off
+   * for the stages created from now on.
+   * Defaults to the value of the {@link #INSTRUMENTATION_PROPERTY} system property.
+   *
+   * @param enabled whether to instrument new stages
+   */
+  public void setInstrumentationEnabled(final boolean enabled) {
+    this.instrumentationEnabled = enabled;
+  }
+
+  /**
+   * @return true if the stages created from now on are instrumented
+   */
+  public boolean isInstrumentationEnabled() {
+    return this.instrumentationEnabled;
+  }
+
+  /**
+   * Registers the metrics of all instrumented stages, present and future, with the given registry.
+   * The metrics of a stage are removed from the registry when the stage is closed.
+   *
+   * @param registry the registry to register with
+   */
+  public void exportTo(final MetricsRegistry registry) {
+    final List<Stage> stagesCopy;
+    synchronized (this) {
+      this.metricsRegistry = registry;
+      synchronized (this.stages) {
+        stagesCopy = new ArrayList<>(this.stages);
+      }
+    }
+    for (final Stage stage : stagesCopy) {
+      if (stage instanceof MeteredStage) {
+        ((MeteredStage) stage).getStageMetrics().registerWith(registry);
+      }
+    }
+  }
+
+  /**
+   * Lists all registered stages with their current statistics.
+   *
+   * @return a snapshot of every registered stage, in registration order
+   */
+  public List<StageSnapshot> snapshot() {
+    final List<Stage> stagesCopy;
+    synchronized (this.stages) {
+      stagesCopy = new ArrayList<>(this.stages);
+    }
+    final List<StageSnapshot> result = new ArrayList<>(stagesCopy.size());
+    for (final Stage stage : stagesCopy) {
+      result.add(new StageSnapshot(stage));
+    }
+    return result;
   }
 
   @Override
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.wake.MeteredStage;
+import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.StageMetrics;
+
+/**
+ * Point-in-time statistics of a stage registered with the {@link StageManager}.
+ */
+public final class StageSnapshot {
+
+  private final String description;
+  private final String stageName;
+  private final long queueDepth;
+  private final LogLinearHistogram waitTime;
+  private final LogLinearHistogram serviceTime;
+
+  StageSnapshot(final Stage stage) {
+    this.description = stage.toString();
+    if (stage instanceof MeteredStage) {
+      final StageMetrics metrics = ((MeteredStage) stage).getStageMetrics();
+      this.stageName = metrics.getStageName();
+      this.queueDepth = metrics.isInstrumented() ? metrics.getQueueDepth() : -1;
+      this.waitTime = metrics.isInstrumented() ? metrics.getWaitTime().snapshot() : null;
+      this.serviceTime = metrics.isInstrumented() ? metrics.getServiceTime().snapshot() : null;
+    } else {
+      this.stageName = stage.getClass().getName();
+      this.queueDepth = -1;
+      this.waitTime = null;
+      this.serviceTime = null;
+    }
+  }
+
+  /**
+   * @return the name of the stage, or its class name if it keeps no statistics
+   */
+  public String getStageName() {
+    return stageName;
+  }
+
+  /**
+   * @return the human-readable description of the stage
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @return the number of queued events whose handler has not started yet, or -1 if unknown
+   */
+  public long getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * @return true if wait and service times were recorded for this stage
+   */
+  public boolean isInstrumented() {
+    return waitTime != null;
+  }
+
+  /**
+   * @return the time events waited in the queue, in nanoseconds; null if not instrumented
+   */
+  public LogLinearHistogram getWaitTime() {
+    return waitTime;
+  }
+
+  /**
+   * @return the time the handler took, in nanoseconds; null if not instrumented
+   */
+  public LogLinearHistogram getServiceTime() {
+    return serviceTime;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder(description).append(" queue=").append(queueDepth);
+    if (isInstrumented()) {
+      sb.append(" events=").append(serviceTime.getCount())
+          .append(" wait_p50_ns=").append(waitTime.getValueAtPercentile(50.0))
+          .append(" wait_p99_ns=").append(waitTime.getValueAtPercentile(99.0))
+          .append(" service_p50_ns=").append(serviceTime.getValueAtPercentile(50.0))
+          .append(" service_p99_ns=").append(serviceTime.getValueAtPercentile(99.0));
+    }
+    return sb.toString();
+  }
+}
@@ -109,6 +109,7 @@ public final class SyncStage<T> extends AbstractEStage<T> {
    */
   @Override
   public void close() throws Exception {
+    stageMetrics.unregister();
   }
 
 }
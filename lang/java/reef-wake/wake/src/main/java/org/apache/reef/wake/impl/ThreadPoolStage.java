@@ -173,11 +173,13 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final long enqueueTime = stageMetrics.onEnqueue();
     try {
       executor.submit(new Runnable() {
 
         @Override
         public void run() {
+          final long startTime = stageMetrics.onStart(enqueueTime);
           try {
             handler.onNext(value);
           } catch (final Throwable t) {
@@ -188,6 +190,7 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
               throw t;
             }
           } finally {
+            stageMetrics.onDone(startTime);
             afterOnNext();
           }
         }
@@ -195,6 +198,7 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
       });
     } catch (final Exception e) {
       LOG.log(Level.SEVERE, "Encountered error when submitting to executor in ThreadPoolStage.");
+      stageMetrics.onRejected();
       afterOnNext();
       throw e;
     }
@@ -207,6 +211,7 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   @Override
   public void close() {
 
+    stageMetrics.unregister();
     if (closed.compareAndSet(false, true) && numThreads > 0) {
 
       LOG.log(Level.FINEST, "Closing ThreadPoolStage {0}: begin", this.name);
@@ -236,12 +241,21 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   }
 
   /**
-   * Gets the queue length of this stage.
+   * Gets the queue length of this stage, i.e. the number of events whose handler has not started yet.
+   * If the stage is not instrumented, the length is taken from the executor's queue, which only
+   * a {@link ThreadPoolExecutor} exposes.
    *
-   * @return the queue length
+   * @return the queue length; 0 if the stage is not instrumented and its injected executor
+   * is not a {@link ThreadPoolExecutor}
    */
   public int getQueueLength() {
-    return ((ThreadPoolExecutor) executor).getQueue().size();
+    if (stageMetrics.isInstrumented()) {
+      return (int) stageMetrics.getQueueDepth();
+    }
+    if (executor instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executor).getQueue().size();
+    }
+    return 0;
   }
 
   /**
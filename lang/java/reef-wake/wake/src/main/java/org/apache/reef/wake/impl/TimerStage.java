@@ -20,12 +20,13 @@ package org.apache.reef.wake.impl;
 
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
-import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.MeteredStage;
 import org.apache.reef.wake.StageConfiguration.StageHandler;
 import org.apache.reef.wake.StageConfiguration.StageName;
 import org.apache.reef.wake.StageConfiguration.TimerInitialDelay;
 import org.apache.reef.wake.StageConfiguration.TimerPeriod;
 import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.metrics.StageMetrics;
 
 import javax.inject.Inject;
 import java.util.List;
@@ -39,13 +40,14 @@ import java.util.logging.Logger;
 /**
  * Stage that triggers an event handler periodically.
  */
-public final class TimerStage implements Stage {
+public final class TimerStage implements MeteredStage {
   private static final Logger LOG = Logger.getLogger(TimerStage.class.getName());
 
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final ScheduledExecutorService executor;
   private final PeriodicEvent event = new PeriodicEvent();
   private final long shutdownTimeout = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+  private final StageMetrics stageMetrics;
 
   /**
    * Constructs a timer stage with no initial delay.
@@ -101,14 +103,29 @@ public final class TimerStage implements Stage {
                     @Parameter(TimerInitialDelay.class) final long initialDelay,
                     @Parameter(TimerPeriod.class) final long period) {
     this.executor = Executors.newScheduledThreadPool(1, new DefaultThreadFactory(name));
+    this.stageMetrics = new StageMetrics(name, StageManager.instance().isInstrumentationEnabled());
+    final long firstFireTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelay);
+    final long periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
     executor.scheduleAtFixedRate(new Runnable() {
 
+      /**
+       * Number of runs so far; only accessed by the single timer thread.
+       */
+      private long runs = 0;
+
       @Override
       public void run() {
         if (LOG.isLoggable(Level.FINEST)) {
           LOG.log(Level.FINEST, "{0} {1}", new Object[]{name, event});
         }
-        handler.onNext(event);
+        // The wait time of a timer event is how late it fires compared to its schedule.
+        final long startTime = stageMetrics.recordStart(firstFireTime + runs * periodNanos);
+        ++runs;
+        try {
+          handler.onNext(event);
+        } finally {
+          stageMetrics.onDone(startTime);
+        }
       }
 
     }, initialDelay, period, TimeUnit.MILLISECONDS);
@@ -116,6 +133,16 @@ public final class TimerStage implements Stage {
   }
 
 
+  /**
+   * Gets the latency statistics of this stage. The wait time is how late each event fires.
+   *
+   * @return the stage metrics
+   */
+  @Override
+  public StageMetrics getStageMetrics() {
+    return stageMetrics;
+  }
+
   /**
    * Closes resources.
    *
@@ -123,6 +150,7 @@ public final class TimerStage implements Stage {
    */
   @Override
   public void close() throws Exception {
+    stageMetrics.unregister();
     if (closed.compareAndSet(false, true)) {
       executor.shutdown();
       if (!executor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter that can be incremented and decremented.
+ */
+public class Counter {
+
+  private final AtomicLong count = new AtomicLong();
+
+  private final String name;
+
+  /**
+   * Constructs a counter.
+   *
+   * @param name the name of the counter
+   */
+  public Counter(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Gets the name of the counter.
+   *
+   * @return the counter name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Increments the counter by one.
+   */
+  public void inc() {
+    count.incrementAndGet();
+  }
+
+  /**
+   * Increments the counter by n.
+   *
+   * @param n the amount to add
+   */
+  public void inc(final long n) {
+    count.addAndGet(n);
+  }
+
+  /**
+   * Decrements the counter by one.
+   */
+  public void dec() {
+    count.decrementAndGet();
+  }
+
+  /**
+   * Gets the count.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count.get();
+  }
+}
@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram with log-linear bins, in the style of HdrHistogram.
+ * <p>
+ * Values below 2^significantBits get a bin each. Above that, every power of two is split into
+ * 2^(significantBits - 1) bins of equal width, so the relative error of any reported value is at
+ * most 2^-(significantBits - 1), whatever its magnitude. This gives meaningful high percentiles
+ * for latencies that span microseconds to hours with a few thousand bins.
+ * <p>
+ * Updates go to one of several stripes picked by thread, so concurrent recording threads rarely
+ * contend on the same counters; updates never lock or allocate. Histograms with the same number
+ * of significant bits can be merged, and {@link #toByteArray()} gives a compact, sparse encoding
+ * for shipping them.
+ */
+public final class LogLinearHistogram implements Histogram {
+
+  /**
+   * Default precision: values are accurate to within 1/64, i.e. about 1.6%.
+   */
+  public static final int DEFAULT_SIGNIFICANT_BITS = 7;
+
+  /**
+   * Default highest trackable value: one hour, in nanoseconds.
+   */
+  public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+  private static final int MAX_STRIPES = 8;
+  private static final int ENCODING_VERSION = 1;
+
+  private final int significantBits;
+  private final int subBinCount;
+  private final long highestTrackableValue;
+  private final int numBins;
+
+  /**
+   * Each stripe holds the bin counts, followed by the total count and the sum of the values.
+   */
+  private final AtomicLongArray[] stripes;
+  private final int stripeMask;
+  private final int countIndex;
+  private final int sumIndex;
+
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Constructs a histogram with the default precision and range.
+   */
+  public LogLinearHistogram() {
+    this(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SIGNIFICANT_BITS);
+  }
+
+  /**
+   * Constructs a histogram.
+   *
+   * @param highestTrackableValue larger values are recorded as this value
+   * @param significantBits       the number of significant bits kept for each value, between 2 and 16
+   */
+  public LogLinearHistogram(final long highestTrackableValue, final int significantBits) {
+    this(highestTrackableValue, significantBits, defaultStripeCount());
+  }
+
+  private LogLinearHistogram(final long highestTrackableValue, final int significantBits, final int numStripes) {
+    if (significantBits < 2 || significantBits > 16) {
+      throw new IllegalArgumentException("significantBits must be between 2 and 16: " + significantBits);
+    }
+    if (highestTrackableValue < 1) {
+      throw new IllegalArgumentException("highestTrackableValue must be positive: " + highestTrackableValue);
+    }
+    this.significantBits = significantBits;
+    this.subBinCount = 1 << (significantBits - 1);
+    this.highestTrackableValue = highestTrackableValue;
+    this.numBins = this.indexOf(highestTrackableValue) + 1;
+    this.countIndex = this.numBins;
+    this.sumIndex = this.numBins + 1;
+    this.stripes = new AtomicLongArray[numStripes];
+    for (int i = 0; i < numStripes; ++i) {
+      this.stripes[i] = new AtomicLongArray(this.numBins + 2);
+    }
+    this.stripeMask = numStripes - 1;
+  }
+
+  /**
+   * @return the number of stripes: the number of processors rounded up to a power of two, at most MAX_STRIPES.
+   */
+  private static int defaultStripeCount() {
+    final int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+    return Integer.highestOneBit(Math.max(processors, 1) * 2 - 1);
+  }
+
+  /**
+   * Updates the value in this histogram.
+   * Negative values are recorded as 0, values above the highest trackable value as that value.
+   *
+   * @param value the new value
+   */
+  @Override
+  public void update(final long value) {
+    final long clamped = value < 0 ? 0 : Math.min(value, highestTrackableValue);
+    final AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+    stripe.incrementAndGet(indexOf(clamped));
+    stripe.incrementAndGet(countIndex);
+    stripe.addAndGet(sumIndex, clamped);
+    updateMax(clamped);
+  }
+
+  private void updateMax(final long value) {
+    long current = maxValue.get();
+    while (value > current && !maxValue.compareAndSet(current, value)) {
+      current = maxValue.get();
+    }
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of recorded values
+   */
+  @Override
+  public long getCount() {
+    return sumStripes(countIndex);
+  }
+
+  /**
+   * Returns the number of values recorded in the bin.
+   *
+   * @param index the histogram bin index
+   * @return the number of values in the bin
+   */
+  @Override
+  public long getValue(final int index) {
+    if (index < 0 || index >= numBins) {
+      throw new IndexOutOfBoundsException("Bin index " + index + " out of [0, " + numBins + ")");
+    }
+    return sumStripes(index);
+  }
+
+  /**
+   * Returns the number of bins.
+   *
+   * @return the number of bins
+   */
+  @Override
+  public int getNumBins() {
+    return numBins;
+  }
+
+  /**
+   * @return the number of significant bits kept for each value
+   */
+  public int getSignificantBits() {
+    return significantBits;
+  }
+
+  /**
+   * @return the highest trackable value
+   */
+  public long getHighestTrackableValue() {
+    return highestTrackableValue;
+  }
+
+  /**
+   * @return the largest recorded value, or 0 if none was recorded
+   */
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  /**
+   * @return the sum of the recorded values, each clamped to the highest trackable value
+   */
+  public long getSum() {
+    return sumStripes(sumIndex);
+  }
+
+  /**
+   * @return the mean of the recorded values, or 0 if none was recorded
+   */
+  public double getMean() {
+    final long count = getCount();
+    return count == 0 ? 0.0 : (double) getSum() / count;
+  }
+
+  /**
+   * Returns the smallest value that falls into the bin.
+   *
+   * @param index the histogram bin index
+   * @return the lower bound of the bin
+   */
+  public long getLowestEquivalentValue(final int index) {
+    if (index < 2 * subBinCount) {
+      return index;
+    }
+    final int shift = index / subBinCount - 1;
+    return (long) (index - shift * subBinCount) << shift;
+  }
+
+  /**
+   * Returns the largest value that falls into the bin.
+   *
+   * @param index the histogram bin index
+   * @return the upper bound of the bin
+   */
+  public long getHighestEquivalentValue(final int index) {
+    final int shift = index < 2 * subBinCount ? 0 : index / subBinCount - 1;
+    return getLowestEquivalentValue(index) + (1L << shift) - 1;
+  }
+
+  /**
+   * Returns the value below which the given percentage of the recorded values fall,
+   * accurate to the precision of the bins.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the value at the percentile, or 0 if no value was recorded
+   */
+  public long getValueAtPercentile(final double percentile) {
+    final long[] counts = new long[numBins];
+    long total = 0;
+    for (int i = 0; i < numBins; ++i) {
+      counts[i] = sumStripes(i);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final double fraction = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+    final long target = Math.max(1, (long) Math.ceil(fraction * total));
+    final long max = getMax();
+    long running = 0;
+    for (int i = 0; i < numBins; ++i) {
+      running += counts[i];
+      if (running >= target) {
+        return Math.min(getHighestEquivalentValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * @return a copy of this histogram
+   */
+  public LogLinearHistogram snapshot() {
+    return copy(false);
+  }
+
+  /**
+   * Returns a copy of this histogram and resets it. Values recorded concurrently end up either
+   * in the copy or in this histogram, never in both and never in neither.
+   *
+   * @return the values recorded since the last reset
+   */
+  public LogLinearHistogram snapshotAndReset() {
+    return copy(true);
+  }
+
+  private LogLinearHistogram copy(final boolean reset) {
+    final LogLinearHistogram result = new LogLinearHistogram(highestTrackableValue, significantBits, 1);
+    final AtomicLongArray target = result.stripes[0];
+    for (final AtomicLongArray stripe : stripes) {
+      for (int i = 0; i <= sumIndex; ++i) {
+        final long value = reset ? stripe.getAndSet(i, 0) : stripe.get(i);
+        if (value != 0) {
+          target.addAndGet(i, value);
+        }
+      }
+    }
+    result.maxValue.set(reset ? maxValue.getAndSet(0) : maxValue.get());
+    return result;
+  }
+
+  /**
+   * Adds all values recorded in another histogram to this one.
+   * Values above the highest trackable value of this histogram are recorded as that value.
+   *
+   * @param other a histogram with the same number of significant bits
+   * @throws IllegalArgumentException if the number of significant bits differs
+   */
+  public void merge(final LogLinearHistogram other) {
+    if (other.significantBits != significantBits) {
+      throw new IllegalArgumentException("Cannot merge histograms with " + other.significantBits +
+          " and " + significantBits + " significant bits");
+    }
+    final AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+    for (int i = 0; i < other.numBins; ++i) {
+      final long count = other.sumStripes(i);
+      if (count != 0) {
+        stripe.addAndGet(indexOf(Math.min(other.getLowestEquivalentValue(i), highestTrackableValue)), count);
+      }
+    }
+    stripe.addAndGet(countIndex, other.sumStripes(other.countIndex));
+    stripe.addAndGet(sumIndex, other.sumStripes(other.sumIndex));
+    updateMax(Math.min(other.getMax(), highestTrackableValue));
+  }
+
+  /**
+   * Encodes this histogram compactly: only the non-empty bins are written, as variable-length
+   * (bin index delta, count) pairs.
+   *
+   * @return the encoded histogram
+   */
+  public byte[] toByteArray() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(ENCODING_VERSION);
+    out.write(significantBits);
+    writeVarLong(out, highestTrackableValue);
+    writeVarLong(out, getMax());
+    writeVarLong(out, sumStripes(sumIndex));
+    int prev = -1;
+    for (int i = 0; i < numBins; ++i) {
+      final long count = sumStripes(i);
+      if (count != 0) {
+        writeVarLong(out, i - prev);
+        writeVarLong(out, count);
+        prev = i;
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Decodes a histogram encoded by {@link #toByteArray()}.
+   *
+   * @param bytes the encoded histogram
+   * @return the decoded histogram
+   * @throws IllegalArgumentException if the bytes are not a valid encoding
+   */
+  public static LogLinearHistogram fromByteArray(final byte[] bytes) {
+    final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+    if (in.read() != ENCODING_VERSION) {
+      throw new IllegalArgumentException("Unknown histogram encoding");
+    }
+    final int significantBits = in.read();
+    final long highestTrackableValue = readVarLong(in);
+    final LogLinearHistogram result = new LogLinearHistogram(highestTrackableValue, significantBits, 1);
+    final AtomicLongArray stripe = result.stripes[0];
+    result.maxValue.set(readVarLong(in));
+    stripe.set(result.sumIndex, readVarLong(in));
+    long count = 0;
+    int index = -1;
+    while (in.available() > 0) {
+      index += (int) readVarLong(in);
+      if (index >= result.numBins) {
+        throw new IllegalArgumentException("Bin index out of range: " + index);
+      }
+      final long binCount = readVarLong(in);
+      stripe.set(index, binCount);
+      count += binCount;
+    }
+    stripe.set(result.countIndex, count);
+    return result;
+  }
+
+  private int indexOf(final long value) {
+    final int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - significantBits);
+    return (int) ((long) shift * subBinCount + (value >>> shift));
+  }
+
+  private long sumStripes(final int index) {
+    long sum = 0;
+    for (final AtomicLongArray stripe : stripes) {
+      sum += stripe.get(index);
+    }
+    return sum;
+  }
+
+  private static void writeVarLong(final ByteArrayOutputStream out, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.write((int) (remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+
+  private static long readVarLong(final ByteArrayInputStream in) {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final int b = in.read();
+      if (b < 0) {
+        throw new IllegalArgumentException("Truncated histogram encoding");
+      }
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed histogram encoding");
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of named counters, gauges, meters and histograms.
+ * <p>
+ * Metrics are created (or looked up) once by name; callers are expected to keep the returned
+ * reference and update it directly, so that updates on the hot path neither lock nor allocate.
+ * The registry itself is only traversed when metrics are reported.
+ */
+public final class MetricsRegistry {
+
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  @Inject
+  public MetricsRegistry() {
+  }
+
+  /**
+   * Returns the counter with the given name, creating it if necessary.
+   *
+   * @param name the name of the counter
+   * @return the counter
+   */
+  public Counter counter(final String name) {
+    final Counter counter = counters.get(name);
+    if (counter != null) {
+      return counter;
+    }
+    final Counter newCounter = new Counter(name);
+    final Counter prev = counters.putIfAbsent(name, newCounter);
+    return prev == null ? newCounter : prev;
+  }
+
+  /**
+   * Returns the meter with the given name, creating it if necessary.
+   *
+   * @param name the name of the meter
+   * @return the meter
+   */
+  public Meter meter(final String name) {
+    final Meter meter = meters.get(name);
+    if (meter != null) {
+      return meter;
+    }
+    final Meter newMeter = new Meter(name);
+    final Meter prev = meters.putIfAbsent(name, newMeter);
+    return prev == null ? newMeter : prev;
+  }
+
+  /**
+   * Returns the histogram with the given name, creating a {@link LogLinearHistogram} with the
+   * default precision and range if necessary. This is the histogram to use for latencies.
+   *
+   * @param name the name of the histogram
+   * @return the histogram
+   */
+  public Histogram histogram(final String name) {
+    final Histogram histogram = histograms.get(name);
+    if (histogram != null) {
+      return histogram;
+    }
+    final Histogram newHistogram = new LogLinearHistogram();
+    final Histogram prev = histograms.putIfAbsent(name, newHistogram);
+    return prev == null ? newHistogram : prev;
+  }
+
+  /**
+   * Returns the histogram with the given name, creating a {@link UniformHistogram} if necessary.
+   * If a histogram with that name already exists, it is returned as is.
+   *
+   * @param name     the name of the histogram
+   * @param binWidth the width of each bin of a newly created histogram
+   * @param numBins  the number of bins of a newly created histogram
+   * @return the histogram
+   */
+  public Histogram histogram(final String name, final long binWidth, final int numBins) {
+    final Histogram histogram = histograms.get(name);
+    if (histogram != null) {
+      return histogram;
+    }
+    final Histogram newHistogram = new UniformHistogram(binWidth, numBins);
+    final Histogram prev = histograms.putIfAbsent(name, newHistogram);
+    return prev == null ? newHistogram : prev;
+  }
+
+  /**
+   * Registers a gauge under the given name, replacing any gauge previously registered with that name.
+   *
+   * @param name  the name of the gauge
+   * @param gauge the gauge
+   */
+  public void register(final String name, final Gauge gauge) {
+    gauges.put(name, gauge);
+  }
+
+  /**
+   * Registers a gauge under the given name, unless a gauge is already registered with that name.
+   *
+   * @param name  the name of the gauge
+   * @param gauge the gauge
+   * @return true if the gauge was registered, false if the name was taken
+   */
+  public boolean registerIfAbsent(final String name, final Gauge gauge) {
+    return gauges.putIfAbsent(name, gauge) == null;
+  }
+
+  /**
+   * Registers an existing histogram under the given name, replacing any histogram previously
+   * registered with that name.
+   *
+   * @param name      the name of the histogram
+   * @param histogram the histogram
+   */
+  public void register(final String name, final Histogram histogram) {
+    histograms.put(name, histogram);
+  }
+
+  /**
+   * Removes the metric with the given name, whatever its kind.
+   *
+   * @param name the name of the metric
+   */
+  public void remove(final String name) {
+    counters.remove(name);
+    gauges.remove(name);
+    meters.remove(name);
+    histograms.remove(name);
+  }
+
+  /**
+   * @return a read-only view of the counters, keyed by name
+   */
+  public Map<String, Counter> getCounters() {
+    return Collections.unmodifiableMap(counters);
+  }
+
+  /**
+   * @return a read-only view of the gauges, keyed by name
+   */
+  public Map<String, Gauge> getGauges() {
+    return Collections.unmodifiableMap(gauges);
+  }
+
+  /**
+   * @return a read-only view of the meters, keyed by name
+   */
+  public Map<String, Meter> getMeters() {
+    return Collections.unmodifiableMap(meters);
+  }
+
+  /**
+   * @return a read-only view of the histograms, keyed by name
+   */
+  public Map<String, Histogram> getHistograms() {
+    return Collections.unmodifiableMap(histograms);
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queueing and latency statistics of a single stage.
+ * <p>
+ * Stages decide whether to instrument when they are created, see
+ * {@link org.apache.reef.wake.impl.StageManager#setInstrumentationEnabled(boolean)}. When the stage is
+ * instrumented, the queue depth, i.e. the number of events accepted by the stage whose handler has not
+ * started yet, is tracked, and the time each event waits in the queue and the time its handler takes are
+ * recorded, in nanoseconds. When it is not, none of the methods read the clock or touch any shared state.
+ */
+public final class StageMetrics {
+
+  private final String stageName;
+  private final boolean instrumented;
+  private final AtomicLong queueDepth = new AtomicLong();
+  private final LogLinearHistogram waitTime;
+  private final LogLinearHistogram serviceTime;
+
+  /**
+   * The registry the metrics of this stage are registered with, if any.
+   */
+  private MetricsRegistry registry;
+
+  /**
+   * Set once the stage is closed, after which its metrics are never registered again.
+   */
+  private boolean unregistered;
+
+  /**
+   * The prefix the metrics of this stage are registered under, null while they are not registered.
+   */
+  private String metricPrefix;
+
+  /**
+   * Constructs the metrics of a stage.
+   *
+   * @param stageName    the name of the stage
+   * @param instrumented whether to record wait and service times
+   */
+  public StageMetrics(final String stageName, final boolean instrumented) {
+    this.stageName = stageName;
+    this.instrumented = instrumented;
+    this.waitTime = instrumented ? new LogLinearHistogram() : null;
+    this.serviceTime = instrumented ? new LogLinearHistogram() : null;
+  }
+
+  /**
+   * @return the name of the stage
+   */
+  public String getStageName() {
+    return stageName;
+  }
+
+  /**
+   * @return the prefix of the names this stage's metrics are registered under, see {@link #registerWith};
+   * null if they are not registered
+   */
+  public synchronized String getMetricPrefix() {
+    return metricPrefix;
+  }
+
+  /**
+   * @return true if queue depth, wait and service times are recorded
+   */
+  public boolean isInstrumented() {
+    return instrumented;
+  }
+
+  /**
+   * Called when the stage accepts an event into its queue.
+   *
+   * @return the time of the call, to be passed to {@link #onStart(long)}; 0 if not instrumented
+   */
+  public long onEnqueue() {
+    if (!instrumented) {
+      return 0;
+    }
+    queueDepth.incrementAndGet();
+    return System.nanoTime();
+  }
+
+  /**
+   * Called when the stage failed to queue an event after {@link #onEnqueue()}.
+   */
+  public void onRejected() {
+    if (instrumented) {
+      queueDepth.decrementAndGet();
+    }
+  }
+
+  /**
+   * Called when the handler is about to process an event taken from the queue.
+   *
+   * @param enqueueTime the value returned by {@link #onEnqueue()} for the event
+   * @return the time of the call, to be passed to {@link #onDone(long)}; 0 if not instrumented
+   */
+  public long onStart(final long enqueueTime) {
+    if (!instrumented) {
+      return 0;
+    }
+    queueDepth.decrementAndGet();
+    return recordStart(enqueueTime);
+  }
+
+  /**
+   * Called when the handler is about to process an event that did not go through a queue,
+   * e.g. a timer event.
+   *
+   * @param readyTime the {@link System#nanoTime()} at which the event was due
+   * @return the time of the call, to be passed to {@link #onDone(long)}; 0 if not instrumented
+   */
+  public long recordStart(final long readyTime) {
+    if (!instrumented) {
+      return 0;
+    }
+    final long now = System.nanoTime();
+    waitTime.update(now - readyTime);
+    return now;
+  }
+
+  /**
+   * Called when the handler has processed an event.
+   *
+   * @param startTime the value returned by {@link #onStart(long)} for the event
+   */
+  public void onDone(final long startTime) {
+    if (instrumented) {
+      serviceTime.update(System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * @return the number of queued events whose handler has not started yet; 0 if not instrumented
+   */
+  public long getQueueDepth() {
+    return queueDepth.get();
+  }
+
+  /**
+   * @return the histogram of the time events waited in the queue, in nanoseconds; null if not instrumented
+   */
+  public LogLinearHistogram getWaitTime() {
+    return waitTime;
+  }
+
+  /**
+   * @return the histogram of the time the handler took, in nanoseconds; null if not instrumented
+   */
+  public LogLinearHistogram getServiceTime() {
+    return serviceTime;
+  }
+
+  /**
+   * Registers the queue depth gauge and the latency histograms of this stage with the given registry
+   * as PREFIX.queue.depth, PREFIX.wait.ns and PREFIX.service.ns. PREFIX is stage.NAME, so that the metrics
+   * of a stage can be compared across evaluators and runs. If another stage with the same name is already
+   * registered, PREFIX is stage.NAME.2, stage.NAME.3 and so on, whichever is free first.
+   * Nothing is registered if the stage is not instrumented or already closed.
+   *
+   * @param metricsRegistry the registry to register with
+   */
+  public synchronized void registerWith(final MetricsRegistry metricsRegistry) {
+    if (!instrumented || unregistered) {
+      return;
+    }
+    removeFromRegistry();
+    final Gauge queueDepthGauge = new Gauge() {
+      @Override
+      public long getValue() {
+        return queueDepth.get();
+      }
+    };
+    // The queue depth gauge claims the prefix; the other metrics follow it.
+    final String baseName = "stage." + stageName;
+    metricPrefix = baseName;
+    for (int n = 2; !metricsRegistry.registerIfAbsent(metricPrefix + ".queue.depth", queueDepthGauge); ++n) {
+      metricPrefix = baseName + "." + n;
+    }
+    metricsRegistry.register(metricPrefix + ".wait.ns", waitTime);
+    metricsRegistry.register(metricPrefix + ".service.ns", serviceTime);
+    this.registry = metricsRegistry;
+  }
+
+  /**
+   * Removes the metrics of this stage from the registry they were registered with, if any,
+   * and keeps them from being registered again. Stages call this when they are closed.
+   */
+  public synchronized void unregister() {
+    unregistered = true;
+    removeFromRegistry();
+  }
+
+  private void removeFromRegistry() {
+    if (registry != null) {
+      registry.remove(metricPrefix + ".queue.depth");
+      registry.remove(metricPrefix + ".wait.ns");
+      registry.remove(metricPrefix + ".service.ns");
+      registry = null;
+      metricPrefix = null;
+    }
+  }
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicLongArray;
  */
 public class UniformHistogram implements Histogram {
   private final AtomicLong count;
+  private final AtomicLong sum;
   private final AtomicLongArray values;
   private final long binWidth;
   private final int numBins;
@@ -38,6 +39,7 @@ public class UniformHistogram implements Histogram {
    */
   public UniformHistogram(final long binWidth, final int numBins) {
     this.count = new AtomicLong(0);
+    this.sum = new AtomicLong(0);
     this.values = new AtomicLongArray(numBins);
     this.binWidth = binWidth;
     this.numBins = numBins;
@@ -51,6 +53,7 @@ public class UniformHistogram implements Histogram {
   @Override
   public void update(final long value) {
     count.incrementAndGet();
+    sum.addAndGet(value);
     int index = (int) (value / binWidth);
     if (index >= numBins) {
       index = numBins - 1;
@@ -68,6 +71,15 @@ public class UniformHistogram implements Histogram {
     return count.get();
   }
 
+  /**
+   * Returns the sum of the recorded values.
+   *
+   * @return the sum of the recorded values
+   */
+  public long getSum() {
+    return sum.get();
+  }
+
   /**
    * Returns the value of the index.
    *
@@ -79,6 +91,15 @@ public class UniformHistogram implements Histogram {
     return values.get(index);
   }
 
+  /**
+   * Returns the width of each bin.
+   *
+   * @return the width of each bin
+   */
+  public long getBinWidth() {
+    return binWidth;
+  }
+
   /**
    * Returns the number of bins.
    *
@@ -18,7 +18,10 @@
  */
 package org.apache.reef.wake.rx;
 
+import org.apache.reef.wake.MeteredStage;
+import org.apache.reef.wake.impl.StageManager;
 import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.StageMetrics;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -27,12 +30,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * @param <T> type
  */
-public abstract class AbstractRxStage<T> implements RxStage<T> {
+public abstract class AbstractRxStage<T> implements RxStage<T>, MeteredStage {
 
   protected final AtomicBoolean closed;
   protected final String name;
   protected final Meter inMeter;
   protected final Meter outMeter;
+  protected final StageMetrics stageMetrics;
 
   /**
    * Constructs an abstact rxstage.
@@ -44,6 +48,19 @@ public abstract class AbstractRxStage<T> implements RxStage<T> {
     this.name = stageName;
     this.inMeter = new Meter(stageName + "_in");
     this.outMeter = new Meter(stageName + "_out");
+    this.stageMetrics = new StageMetrics(stageName, StageManager.instance().isInstrumentationEnabled());
+  }
+
+  /**
+   * Gets the queueing and latency statistics of this stage.
+   * Stages with a queue must call {@link StageMetrics#onEnqueue()}, {@link StageMetrics#onStart(long)}
+   * and {@link StageMetrics#onDone(long)} around each event to keep them.
+   *
+   * @return the stage metrics
+   */
+  @Override
+  public StageMetrics getStageMetrics() {
+    return stageMetrics;
   }
 
   /**
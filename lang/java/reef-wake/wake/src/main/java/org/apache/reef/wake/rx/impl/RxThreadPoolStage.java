@@ -100,14 +100,25 @@ public final class RxThreadPoolStage<T> extends AbstractRxStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
-    executor.submit(new Runnable() {
-
-      @Override
-      public void run() {
-        observer.onNext(value);
-        afterOnNext();
-      }
-    });
+    final long enqueueTime = stageMetrics.onEnqueue();
+    try {
+      executor.submit(new Runnable() {
+
+        @Override
+        public void run() {
+          final long startTime = stageMetrics.onStart(enqueueTime);
+          try {
+            observer.onNext(value);
+          } finally {
+            stageMetrics.onDone(startTime);
+          }
+          afterOnNext();
+        }
+      });
+    } catch (final RejectedExecutionException e) {
+      stageMetrics.onRejected();
+      throw e;
+    }
   }
 
   /**
@@ -171,6 +182,7 @@ public final class RxThreadPoolStage<T> extends AbstractRxStage<T> {
    */
   @Override
   public void close() throws Exception {
+    stageMetrics.unregister();
     if (closed.compareAndSet(false, true)) {
       executor.shutdown();
       completionExecutor.shutdown();
@@ -189,10 +201,19 @@ public final class RxThreadPoolStage<T> extends AbstractRxStage<T> {
 
   /**
    * Gets the queue length of this stage.
+   * If the stage is not instrumented, the length is taken from the executor's queue, which only
+   * a {@link ThreadPoolExecutor} exposes.
    *
-   * @return the queue length
+   * @return the queue length; 0 if the stage is not instrumented and its injected executor
+   * is not a {@link ThreadPoolExecutor}
    */
   public int getQueueLength() {
-    return ((ThreadPoolExecutor) executor).getQueue().size();
+    if (stageMetrics.isInstrumented()) {
+      return (int) stageMetrics.getQueueDepth();
+    }
+    if (executor instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executor).getQueue().size();
+    }
+    return 0;
   }
 }
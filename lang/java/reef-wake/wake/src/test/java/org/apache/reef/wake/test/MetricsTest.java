@@ -19,13 +19,17 @@
 package org.apache.reef.wake.test;
 
 
-import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
 import org.apache.reef.wake.metrics.UniformHistogram;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Metrics tests.
@@ -40,16 +44,112 @@ public class MetricsTest {
   public void testHistogram() throws Exception {
     System.out.println(LOG_PREFIX + name.getMethodName());
 
-    final Histogram histogram = new UniformHistogram(10, 100);
+    final UniformHistogram histogram = new UniformHistogram(10, 100);
     final Random rand = new Random(1);
+    long sum = 0;
     for (int i = 0; i < 1000000; ++i) {
       long value = rand.nextLong() % 1000;
       value = value >= 0 ? value : (-1) * value;
       histogram.update(value);
+      sum += value;
     }
 
+    long count = 0;
     for (int i = 0; i < histogram.getNumBins(); ++i) {
-      histogram.getValue(i);
+      count += histogram.getValue(i);
     }
+    Assert.assertEquals(1000000, count);
+    Assert.assertEquals(sum, histogram.getSum());
+  }
+
+  @Test
+  public void testLogLinearHistogramPercentiles() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogLinearHistogram histogram = new LogLinearHistogram();
+    // 1..1,000,000 microseconds: every percentile p is p * 10,000.
+    for (long i = 1; i <= 1000000; ++i) {
+      histogram.update(i * 1000);
+    }
+
+    Assert.assertEquals(1000000, histogram.getCount());
+    Assert.assertEquals(1000000000L, histogram.getMax());
+    for (final double percentile : new double[]{50.0, 90.0, 99.0, 99.9}) {
+      final double expected = percentile * 10000 * 1000;
+      final double actual = histogram.getValueAtPercentile(percentile);
+      Assert.assertEquals("p" + percentile, expected, actual, expected / 64);
+    }
+    Assert.assertEquals(1000000000L, histogram.getValueAtPercentile(100.0));
+  }
+
+  @Test
+  public void testLogLinearHistogramBins() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogLinearHistogram histogram = new LogLinearHistogram(1L << 40, 4);
+    long expectedLow = 0;
+    for (int i = 0; i < histogram.getNumBins(); ++i) {
+      Assert.assertEquals("bin " + i, expectedLow, histogram.getLowestEquivalentValue(i));
+      expectedLow = histogram.getHighestEquivalentValue(i) + 1;
+    }
+    Assert.assertTrue(expectedLow > 1L << 40);
+  }
+
+  @Test
+  public void testLogLinearHistogramMergeAndEncode() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogLinearHistogram first = new LogLinearHistogram();
+    final LogLinearHistogram second = new LogLinearHistogram();
+    for (int i = 0; i < 1000; ++i) {
+      first.update(i);
+      second.update(1000000 + i);
+    }
+
+    final LogLinearHistogram decoded = LogLinearHistogram.fromByteArray(second.toByteArray());
+    Assert.assertEquals(second.getCount(), decoded.getCount());
+    Assert.assertEquals(second.getMax(), decoded.getMax());
+    Assert.assertEquals(second.getMean(), decoded.getMean(), 0.0);
+    Assert.assertTrue(second.toByteArray().length < 1000);
+
+    Assert.assertEquals(second.getSum(), decoded.getSum());
+
+    first.merge(decoded);
+    Assert.assertEquals(2000, first.getCount());
+    Assert.assertEquals(999 * 1000 / 2 + 1000 * 1000000L + 999 * 1000 / 2, first.getSum());
+    Assert.assertEquals(1000999, first.getMax());
+    Assert.assertEquals(999, first.getValueAtPercentile(50.0));
+    Assert.assertEquals(1000999, first.getValueAtPercentile(100.0));
+  }
+
+  @Test
+  public void testLogLinearHistogramSnapshotAndReset() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogLinearHistogram histogram = new LogLinearHistogram();
+    final int numThreads = 4;
+    final int numUpdates = 100000;
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    for (int t = 0; t < numThreads; ++t) {
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < numUpdates; ++i) {
+            histogram.update(i);
+          }
+        }
+      });
+    }
+
+    long total = 0;
+    while (!executor.isTerminated()) {
+      total += histogram.snapshotAndReset().getCount();
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MILLISECONDS);
+    }
+    total += histogram.snapshotAndReset().getCount();
+
+    Assert.assertEquals(numThreads * numUpdates, total);
+    Assert.assertEquals(0, histogram.getCount());
   }
 }
@@ -19,11 +19,23 @@
 package org.apache.reef.wake.test;
 
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.ForkPoolStage;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.StageManager;
+import org.apache.reef.wake.impl.StageSnapshot;
 import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.WakeSharedPool;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Stage manager tests.
  */
@@ -38,6 +50,178 @@ public class StageManagerTest {
     }
   }
 
+  @Test
+  public void testInstrumentedStageSnapshot() throws Exception {
+    final String stageName = "StageManagerTest.instrumented";
+    final int numEvents = 5;
+    final CountDownLatch done = new CountDownLatch(numEvents);
+    final CountDownLatch singleDone = new CountDownLatch(numEvents);
+    final EventHandler<Integer> sleepingHandler = new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          Thread.sleep(10);
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        done.countDown();
+      }
+    };
+
+    final MetricsRegistry registry = new MetricsRegistry();
+    StageManager.instance().exportTo(registry);
+    StageManager.instance().setInstrumentationEnabled(true);
+    final ThreadPoolStage<Integer> stage;
+    final SingleThreadStage<Integer> singleThreadStage;
+    try {
+      stage = new ThreadPoolStage<>(stageName, sleepingHandler, 1);
+      singleThreadStage = new SingleThreadStage<>(stageName + ".single", new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          singleDone.countDown();
+        }
+      }, 10);
+    } finally {
+      StageManager.instance().setInstrumentationEnabled(false);
+    }
+
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(i);
+      singleThreadStage.onNext(i);
+    }
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    Assert.assertTrue(singleDone.await(10, TimeUnit.SECONDS));
+
+    StageSnapshot snapshot = null;
+    for (final StageSnapshot s : StageManager.instance().snapshot()) {
+      if (s.getStageName().equals(stageName)) {
+        snapshot = s;
+      }
+    }
+    Assert.assertNotNull(snapshot);
+    Assert.assertTrue(snapshot.isInstrumented());
+    Assert.assertEquals(0, snapshot.getQueueDepth());
+    Assert.assertEquals(numEvents, snapshot.getServiceTime().getCount());
+    Assert.assertTrue(snapshot.getServiceTime().getValueAtPercentile(50.0) >= TimeUnit.MILLISECONDS.toNanos(10));
+    // Events queue up behind the single thread, so the last ones wait for the earlier ones.
+    Assert.assertTrue(snapshot.getWaitTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(30));
+
+    final String prefix = stage.getStageMetrics().getMetricPrefix();
+    final String singlePrefix = singleThreadStage.getStageMetrics().getMetricPrefix();
+    Assert.assertEquals("stage." + stageName, prefix);
+    Assert.assertTrue(registry.getGauges().containsKey(prefix + ".queue.depth"));
+    Assert.assertEquals(numEvents, registry.getHistograms().get(prefix + ".service.ns").getCount());
+    Assert.assertEquals(0, registry.getGauges().get(singlePrefix + ".queue.depth").getValue());
+
+    stage.close();
+    singleThreadStage.close();
+    Assert.assertFalse(registry.getGauges().containsKey(prefix + ".queue.depth"));
+    Assert.assertFalse(registry.getHistograms().containsKey(prefix + ".service.ns"));
+    Assert.assertFalse(registry.getGauges().containsKey(singlePrefix + ".queue.depth"));
+  }
+
+  @Test
+  public void testStagesWithSameNameDoNotShareMetrics() throws Exception {
+    final String stageName = "StageManagerTest.shared";
+    final MetricsRegistry registry = new MetricsRegistry();
+    StageManager.instance().setInstrumentationEnabled(true);
+    final ThreadPoolStage<Void> first;
+    final ThreadPoolStage<Void> second;
+    final ThreadPoolStage<Void> uninstrumented;
+    try {
+      first = new ThreadPoolStage<>(stageName, new TestEventHandler(), 1);
+      second = new ThreadPoolStage<>(stageName, new TestEventHandler(), 1);
+    } finally {
+      StageManager.instance().setInstrumentationEnabled(false);
+    }
+    uninstrumented = new ThreadPoolStage<>(stageName, new TestEventHandler(), 1);
+    first.getStageMetrics().registerWith(registry);
+    second.getStageMetrics().registerWith(registry);
+    uninstrumented.getStageMetrics().registerWith(registry);
+
+    Assert.assertEquals("stage." + stageName, first.getStageMetrics().getMetricPrefix());
+    Assert.assertEquals("stage." + stageName + ".2", second.getStageMetrics().getMetricPrefix());
+    Assert.assertNull(uninstrumented.getStageMetrics().getMetricPrefix());
+    Assert.assertEquals(2, registry.getGauges().size());
+
+    first.close();
+    Assert.assertEquals(1, registry.getGauges().size());
+    Assert.assertTrue(registry.getGauges().containsKey("stage." + stageName + ".2.queue.depth"));
+    first.getStageMetrics().registerWith(registry);
+    Assert.assertEquals(1, registry.getGauges().size());
+
+    // A name freed by a closed stage is taken by the next stage with that name.
+    StageManager.instance().setInstrumentationEnabled(true);
+    final ThreadPoolStage<Void> third;
+    try {
+      third = new ThreadPoolStage<>(stageName, new TestEventHandler(), 1);
+    } finally {
+      StageManager.instance().setInstrumentationEnabled(false);
+    }
+    third.getStageMetrics().registerWith(registry);
+    Assert.assertEquals("stage." + stageName, third.getStageMetrics().getMetricPrefix());
+
+    third.close();
+    second.close();
+    uninstrumented.close();
+    Assert.assertTrue(registry.getGauges().isEmpty());
+    Assert.assertTrue(registry.getHistograms().isEmpty());
+  }
+
+  @Test
+  public void testServiceTimeRecordedWhenHandlerThrows() throws Exception {
+    final WakeSharedPool pool = new WakeSharedPool(1);
+    StageManager.instance().setInstrumentationEnabled(true);
+    final ForkPoolStage<Void> stage;
+    try {
+      stage = new ForkPoolStage<>("StageManagerTest.throwing", new EventHandler<Void>() {
+        @Override
+        public void onNext(final Void value) {
+          throw new IllegalStateException("Expected by the test");
+        }
+      }, pool);
+    } finally {
+      StageManager.instance().setInstrumentationEnabled(false);
+    }
+
+    stage.onNext(null);
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (stage.getStageMetrics().getServiceTime().getCount() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(1, stage.getStageMetrics().getServiceTime().getCount());
+    Assert.assertEquals(0, stage.getStageMetrics().getQueueDepth());
+    stage.close();
+    pool.close();
+  }
+
+  @Test
+  public void testQueueLengthWithInjectedExecutor() throws Exception {
+    final ExecutorService executor = new ForkJoinPool(1);
+    StageManager.instance().setInstrumentationEnabled(true);
+    final ThreadPoolStage<Void> stage;
+    try {
+      stage = new ThreadPoolStage<>(new TestEventHandler(), executor);
+    } finally {
+      StageManager.instance().setInstrumentationEnabled(false);
+    }
+    Assert.assertEquals(0, stage.getQueueLength());
+    Assert.assertTrue(stage.getStageMetrics().isInstrumented());
+    stage.close();
+    executor.shutdown();
+  }
+
+  @Test
+  public void testQueueLengthWithInjectedExecutorNotInstrumented() throws Exception {
+    final ExecutorService executor = new ForkJoinPool(1);
+    final ThreadPoolStage<Void> stage = new ThreadPoolStage<>(new TestEventHandler(), executor);
+    Assert.assertFalse(stage.getStageMetrics().isInstrumented());
+    stage.onNext(null);
+    Assert.assertEquals(0, stage.getQueueLength());
+    stage.close();
+    executor.shutdown();
+  }
+
 }
 
 class TestEventHandler implements EventHandler<Void> {
@@ -20,16 +20,16 @@ package org.apache.reef.webserver;
 
 import org.apache.reef.driver.ProgressProvider;
 import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
+import org.apache.reef.driver.metrics.ClusterMetrics;
 import org.apache.reef.driver.parameters.ClientCloseHandlers;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.util.logging.LogIndex;
 import org.apache.reef.util.logging.LogLevelName;
-import org.apache.reef.util.logging.LogParser;
 import org.apache.reef.util.logging.LoggingScopeFactory;
-import org.apache.reef.util.logging.LoggingScopeImpl;
 import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
@@ -38,9 +38,11 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
@@ -64,11 +66,12 @@ public final class HttpServerReefEventHandler implements HttpHandler {
   private final Set<EventHandler<Void>> clientCloseHandlers;
   private final LoggingScopeFactory loggingScopeFactory;
   private final InjectionFuture<ProgressProvider> progressProvider;
+  private final ClusterMetrics clusterMetrics;
 
   /**
-   * Log level string prefix in the log lines.
+   * Index of the logging scopes in the driver stderr, which the duration and stages queries are answered from.
    */
-  private final String logLevelPrefix;
+  private final LogIndex driverStderrIndex;
 
   /**
    * specification that would match URI request.
@@ -82,21 +85,41 @@ public final class HttpServerReefEventHandler implements HttpHandler {
       @Parameter(LogLevelName.class) final String logLevel,
       final LoggingScopeFactory loggingScopeFactory,
       final REEFFileNames reefFileNames,
-      final InjectionFuture<ProgressProvider> progressProvider) {
+      final InjectionFuture<ProgressProvider> progressProvider,
+      final ClusterMetrics clusterMetrics) {
     this.reefStateManager = reefStateManager;
     this.clientCloseHandlers = clientCloseHandlers;
     this.loggingScopeFactory = loggingScopeFactory;
-    this.logLevelPrefix = new StringBuilder().append(logLevel).append(": ").toString();
     this.progressProvider = progressProvider;
+    this.clusterMetrics = clusterMetrics;
     driverStdoutFile = reefFileNames.getDriverStdoutFileName();
     driverStderrFile = reefFileNames.getDriverStderrFileName();
+    this.driverStderrIndex = new LogIndex(driverStderrFile,
+        new StringBuilder().append(logLevel).append(": ").toString());
   }
 
   /**
-   * read a file and output it as a String.
+   * Read a section of a file.
+   * @param offset the offset of the section in the file. A negative offset counts from the end of the file.
+   * @param length the length of the section, or -1 to read up to the end of the file.
+   * @return the bytes of the section; fewer than requested if the file is truncated while it is read.
    */
-  private static String readFile(final String fileName) throws IOException {
-    return new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8);
+  private static byte[] readFile(final String fileName, final long offset, final long length) throws IOException {
+    try (final FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+      final long size = channel.size();
+      final long start = offset < 0 ? Math.max(0, size + offset) : Math.min(offset, size);
+      final long sectionLength = length < 0 ? size - start : Math.min(length, size - start);
+      if (sectionLength > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Section of " + sectionLength + " bytes is too large to read at once.");
+      }
+      final ByteBuffer buffer = ByteBuffer.allocate((int) sectionLength);
+      int read = 0;
+      while (buffer.hasRemaining() && read >= 0) {
+        read = channel.read(buffer, start + buffer.position());
+      }
+      // The file may have shrunk since its size was taken; return only the bytes actually read.
+      return buffer.hasRemaining() ? Arrays.copyOf(buffer.array(), buffer.position()) : buffer.array();
+    }
   }
 
   /**
@@ -160,20 +183,10 @@ public final class HttpServerReefEventHandler implements HttpHandler {
       response.getWriter().println("Killing");
       break;
     case "duration":
-      final ArrayList<String> lines =
-          LogParser.getFilteredLinesFromFile(driverStderrFile, LoggingScopeImpl.DURATION, LoggingScopeImpl.TOKEN, null);
-      writeLines(response, lines, "Performance...");
+      writeLines(response, this.driverStderrIndex.getDurations(), "Performance...");
       break;
     case "stages":
-      final ArrayList<String> starts =
-          LogParser.getFilteredLinesFromFile(driverStderrFile, LoggingScopeImpl.START_PREFIX, logLevelPrefix, null);
-      final ArrayList<String> exits =
-          LogParser.getFilteredLinesFromFile(driverStderrFile, LoggingScopeImpl.EXIT_PREFIX, logLevelPrefix,
-              LoggingScopeImpl.DURATION);
-      final ArrayList<String> startsStages = LogParser.findStages(starts, LogParser.START_INDICATORS);
-      final ArrayList<String> endStages = LogParser.findStages(exits, LogParser.END_INDICATORS);
-      final ArrayList<String> result = LogParser.mergeStages(startsStages, endStages);
-      writeLines(response, result, "Current Stages...");
+      writeLines(response, this.driverStderrIndex.getStages(), "Current Stages...");
       break;
     case "logfile":
       final List<String> names = parsedHttpRequest.getQueryMap().get("filename");
@@ -186,8 +199,11 @@ public final class HttpServerReefEventHandler implements HttpHandler {
           writer.println(String.format("Unsupported file names: [%s] ", fileName));
         } else {
           try {
-            final byte[] outputBody = readFile(fileName).getBytes(StandardCharsets.UTF_8);
+            final byte[] outputBody = readFile(fileName,
+                getLongQuery(parsedHttpRequest, "offset", 0), getLongQuery(parsedHttpRequest, "length", -1));
             writer.print(Arrays.toString(outputBody));
+          } catch (final IllegalArgumentException e) {
+            writer.println(String.format("Invalid section of the log file: [%s]. %s", fileName, e.getMessage()));
           } catch (final IOException e) {
             writer.println(String.format("Cannot find the log file: [%s].", fileName));
           }
@@ -197,11 +213,24 @@ public final class HttpServerReefEventHandler implements HttpHandler {
     case "progress":
       response.getWriter().println(progressProvider.get().getProgress());
       break;
+    case "metrics":
+      response.setContentType("text/plain; version=0.0.4");
+      MetricsTextWriter.write(clusterMetrics, response.getWriter());
+      break;
     default:
       response.getWriter().println(String.format("Unsupported query for entity: [%s].", target));
     }
   }
 
+  /**
+   * @return the value of a numeric query parameter, or the default value if the parameter is not given.
+   */
+  private static long getLongQuery(final ParsedHttpRequest parsedHttpRequest, final String name,
+                                   final long defaultValue) {
+    final List<String> values = parsedHttpRequest.getQueryMap().get(name);
+    return values == null || values.isEmpty() ? defaultValue : Long.parseLong(values.get(0));
+  }
+
   /**
    * handle HTTP queries.
    * Example of a query: http://localhost:8080/reef/Evaluators/?id=Node-2-1403225213803&id=Node-1-1403225213712
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.webserver;
+
+import org.apache.reef.driver.metrics.AggregatedMetric;
+import org.apache.reef.driver.metrics.ClusterMetrics;
+import org.apache.reef.wake.metrics.Counter;
+import org.apache.reef.wake.metrics.Gauge;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.UniformHistogram;
+
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the Driver and cluster metrics in the plain text exposition format understood by
+ * pull-based monitoring systems such as Prometheus.
+ * Driver metrics are labelled scope="driver", the merged Evaluator metrics scope="cluster".
+ */
+final class MetricsTextWriter {
+
+  private static final String DRIVER_SCOPE = "{scope=\"driver\"";
+  private static final String CLUSTER_SCOPE = "{scope=\"cluster\"";
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  private static final String TOTAL_SUFFIX = "_total";
+
+  /**
+   * Sum of a histogram implementation that does not track the sum of its values.
+   */
+  private static final long UNKNOWN_SUM = -1;
+
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private MetricsTextWriter() {
+  }
+
+  static void write(final ClusterMetrics clusterMetrics, final PrintWriter writer) {
+    writeDriverMetrics(clusterMetrics.getDriverMetrics(), writer);
+    for (final AggregatedMetric metric : clusterMetrics.getEvaluatorMetrics().values()) {
+      writeClusterMetric(metric, writer);
+    }
+  }
+
+  private static void writeDriverMetrics(final MetricsRegistry registry, final PrintWriter writer) {
+    for (final Map.Entry<String, Counter> entry : new TreeMap<>(registry.getCounters()).entrySet()) {
+      writeCounter(writer, entry.getKey(), DRIVER_SCOPE, entry.getValue().getCount());
+    }
+    for (final Map.Entry<String, Gauge> entry : new TreeMap<>(registry.getGauges()).entrySet()) {
+      writeGauge(writer, entry.getKey(), DRIVER_SCOPE, entry.getValue().getValue());
+    }
+    for (final Map.Entry<String, Meter> entry : new TreeMap<>(registry.getMeters()).entrySet()) {
+      final Meter meter = entry.getValue();
+      writeCounter(writer, entry.getKey(), DRIVER_SCOPE, meter.getCount());
+      final String rateName = sanitize(entry.getKey()) + "_rate_1m";
+      writer.println("# TYPE " + rateName + " gauge");
+      writer.println(rateName + DRIVER_SCOPE + "} " + meter.get1mEWMAThp());
+    }
+    for (final Map.Entry<String, Histogram> entry : new TreeMap<>(registry.getHistograms()).entrySet()) {
+      final Histogram histogram = entry.getValue();
+      if (histogram instanceof LogLinearHistogram) {
+        final LogLinearHistogram snapshot = ((LogLinearHistogram) histogram).snapshot();
+        final long[] quantileValues = new long[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; ++i) {
+          quantileValues[i] = snapshot.getValueAtPercentile(QUANTILES[i] * 100);
+        }
+        writeSummary(writer, entry.getKey(), DRIVER_SCOPE, quantileValues, snapshot.getSum(), snapshot.getCount());
+        continue;
+      }
+      final long[] bins = new long[histogram.getNumBins()];
+      for (int i = 0; i < bins.length; ++i) {
+        bins[i] = histogram.getValue(i);
+      }
+      if (histogram instanceof UniformHistogram) {
+        final UniformHistogram uniform = (UniformHistogram) histogram;
+        writeHistogram(writer, entry.getKey(), DRIVER_SCOPE, uniform.getBinWidth(), bins, uniform.getSum());
+      } else {
+        writeHistogram(writer, entry.getKey(), DRIVER_SCOPE, 1, bins, UNKNOWN_SUM);
+      }
+    }
+  }
+
+  private static void writeClusterMetric(final AggregatedMetric metric, final PrintWriter writer) {
+    switch (metric.getType()) {
+    case COUNTER:
+    case METER:
+      writeCounter(writer, metric.getName(), CLUSTER_SCOPE, metric.getValue());
+      break;
+    case GAUGE:
+      writeGauge(writer, metric.getName(), CLUSTER_SCOPE, metric.getValue());
+      break;
+    case HISTOGRAM:
+      if (metric.isLogLinearHistogram()) {
+        final long[] quantileValues = new long[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; ++i) {
+          quantileValues[i] = metric.getValueAtPercentile(QUANTILES[i] * 100);
+        }
+        writeSummary(writer, metric.getName(), CLUSTER_SCOPE, quantileValues, metric.getSum(), metric.getValue());
+      } else {
+        writeHistogram(writer, metric.getName(), CLUSTER_SCOPE, metric.getBinWidth(), metric.getBins(),
+            metric.getSum());
+      }
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown metric type: " + metric.getType());
+    }
+  }
+
+  /**
+   * Writes a counter. Its name gets the _total suffix counters are expected to have.
+   */
+  private static void writeCounter(final PrintWriter writer, final String name, final String scope,
+                                   final long value) {
+    final String sanitized = sanitize(name);
+    final String metricName = sanitized.endsWith(TOTAL_SUFFIX) ? sanitized : sanitized + TOTAL_SUFFIX;
+    writer.println("# TYPE " + metricName + " counter");
+    writer.println(metricName + scope + "} " + value);
+  }
+
+  private static void writeGauge(final PrintWriter writer, final String name, final String scope,
+                                 final long value) {
+    final String metricName = sanitize(name);
+    writer.println("# TYPE " + metricName + " gauge");
+    writer.println(metricName + scope + "} " + value);
+  }
+
+  /**
+   * Writes the cumulative counts of all bins, the sum and the count. The last bin also holds all larger values,
+   * so its bucket is +Inf.
+   *
+   * @param sum the sum of the recorded values, or {@link #UNKNOWN_SUM} if the histogram does not track it.
+   */
+  private static void writeHistogram(final PrintWriter writer, final String name, final String scope,
+                                     final long binWidth, final long[] bins, final long sum) {
+    final String metricName = sanitize(name);
+    writer.println("# TYPE " + metricName + " histogram");
+    long count = 0;
+    for (int i = 0; i < bins.length - 1; ++i) {
+      count += bins[i];
+      writer.println(metricName + "_bucket" + scope + ",le=\"" + (i + 1) * binWidth + "\"} " + count);
+    }
+    if (bins.length > 0) {
+      count += bins[bins.length - 1];
+    }
+    writer.println(metricName + "_bucket" + scope + ",le=\"+Inf\"} " + count);
+    if (sum != UNKNOWN_SUM) {
+      writer.println(metricName + "_sum" + scope + "} " + sum);
+    }
+    writer.println(metricName + "_count" + scope + "} " + count);
+  }
+
+  /**
+   * Writes the values at the standard quantiles of a log-linear histogram.
+   */
+  private static void writeSummary(final PrintWriter writer, final String name, final String scope,
+                                   final long[] quantileValues, final long sum, final long count) {
+    final String metricName = sanitize(name);
+    writer.println("# TYPE " + metricName + " summary");
+    for (int i = 0; i < QUANTILES.length; ++i) {
+      writer.println(metricName + scope + ",quantile=\"" + QUANTILES[i] + "\"} " + quantileValues[i]);
+    }
+    writer.println(metricName + "_sum" + scope + "} " + sum);
+    writer.println(metricName + "_count" + scope + "} " + count);
+  }
+
+  /**
+   * @return the name with all characters that are not allowed in metric names replaced by underscores.
+   */
+  private static String sanitize(final String name) {
+    return name.replaceAll("[^a-zA-Z0-9_:]", "_");
+  }
+}
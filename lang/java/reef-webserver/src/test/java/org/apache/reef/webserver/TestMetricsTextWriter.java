@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.webserver;
+
+import org.apache.reef.driver.metrics.ClusterMetrics;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.MetricsProto;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test the metrics text exposition format.
+ */
+public class TestMetricsTextWriter {
+
+  private ClusterMetrics clusterMetrics;
+
+  @Before
+  public void setUp() throws InjectionException {
+    this.clusterMetrics = Tang.Factory.getTang().newInjector().getInstance(ClusterMetrics.class);
+  }
+
+  @Test
+  public void testCounters() {
+    final MetricsRegistry registry = this.clusterMetrics.getDriverMetrics();
+    registry.counter("tasks").inc(3);
+    registry.counter("requests_total").inc();
+    this.clusterMetrics.onEvaluatorMetrics("e1", MetricsProto.newBuilder().addMetric(MetricProto.newBuilder()
+        .setName("tasks").setType(MetricProto.MetricType.COUNTER).setValue(5)).build());
+
+    final List<String> lines = write();
+    assertContains(lines, "# TYPE tasks_total counter", "tasks_total{scope=\"driver\"} 3",
+        "requests_total{scope=\"driver\"} 1", "tasks_total{scope=\"cluster\"} 5");
+  }
+
+  @Test
+  public void testUniformHistogram() {
+    final Histogram histogram = this.clusterMetrics.getDriverMetrics().histogram("latency", 10, 4);
+    histogram.update(5);
+    histogram.update(35);
+    histogram.update(100);
+
+    final List<String> lines = write();
+    assertContains(lines, "# TYPE latency histogram",
+        "latency_bucket{scope=\"driver\",le=\"10\"} 1",
+        "latency_bucket{scope=\"driver\",le=\"20\"} 1",
+        "latency_bucket{scope=\"driver\",le=\"30\"} 1",
+        "latency_bucket{scope=\"driver\",le=\"+Inf\"} 3",
+        "latency_sum{scope=\"driver\"} 140",
+        "latency_count{scope=\"driver\"} 3");
+  }
+
+  @Test
+  public void testClusterHistogram() {
+    this.clusterMetrics.onEvaluatorMetrics("e1", MetricsProto.newBuilder().addMetric(MetricProto.newBuilder()
+        .setName("latency").setType(MetricProto.MetricType.HISTOGRAM).setValue(2).setSum(42)
+        .setBinWidth(10).setNumBins(3).addBinIndex(1).addBinCount(2)).build());
+
+    final List<String> lines = write();
+    assertContains(lines,
+        "latency_bucket{scope=\"cluster\",le=\"10\"} 0",
+        "latency_bucket{scope=\"cluster\",le=\"20\"} 2",
+        "latency_bucket{scope=\"cluster\",le=\"+Inf\"} 2",
+        "latency_sum{scope=\"cluster\"} 42",
+        "latency_count{scope=\"cluster\"} 2");
+  }
+
+  @Test
+  public void testLogLinearHistogram() {
+    final Histogram histogram = this.clusterMetrics.getDriverMetrics().histogram("duration");
+    histogram.update(1000);
+    histogram.update(3000);
+
+    final List<String> lines = write();
+    assertContains(lines, "# TYPE duration summary",
+        "duration_sum{scope=\"driver\"} 4000",
+        "duration_count{scope=\"driver\"} 2");
+  }
+
+  private List<String> write() {
+    final StringWriter out = new StringWriter();
+    try (final PrintWriter writer = new PrintWriter(out)) {
+      MetricsTextWriter.write(this.clusterMetrics, writer);
+    }
+    return Arrays.asList(out.toString().split(System.lineSeparator()));
+  }
+
+  private static void assertContains(final List<String> lines, final String... expected) {
+    for (final String line : expected) {
+      Assert.assertTrue("Missing line: " + line + " in " + lines, lines.contains(line));
+    }
+  }
+}
@@ -81,4 +81,11 @@ public class TestReefEventHandler {
     this.handler.handle("target", this.request, this.response, 0);
     Assert.assertEquals(HttpServletResponse.SC_OK, this.response.getStatus());
   }
+
+  @Test
+  public void testGetMetrics() throws IOException, ServletException {
+    this.request.setUri(new HttpURI("http://microsoft.com:8080/Reef/v1/Metrics/"));
+    this.handler.handle("target", this.request, this.response, 0);
+    Assert.assertEquals(HttpServletResponse.SC_OK, this.response.getStatus());
+  }
 }